@@ -98,6 +98,17 @@ public class Beacon implements Serializable, RadioSource {
      */
     private double frequency = DEFAULT_FREQUENCY;
 
+    /**
+     * Cached packed key of identifiers or null if not computed yet or if identifiers
+     * cannot be packed.
+     */
+    private transient BeaconKey key;
+
+    /**
+     * Cached hash code or 0 if not computed yet.
+     */
+    private transient int hash;
+
     /**
      * Constructor.
      *
@@ -325,6 +336,20 @@ public class Beacon implements Serializable, RadioSource {
         return frequency;
     }
 
+    /**
+     * Gets packed key of the identifiers of this beacon.
+     * Keys are only available for beacons having up to 3 identifiers with up to 20
+     * bytes in total (such as iBeacon, AltBeacon or Eddystone UID layouts).
+     *
+     * @return packed key or null if identifiers cannot be packed.
+     */
+    public BeaconKey getKey() {
+        if (key == null && identifiers != null) {
+            key = BeaconKey.fromIdentifiers(identifiers);
+        }
+        return key;
+    }
+
     /**
      * Checks whether two beacons are considered equal if they share the same identifiers.
      *
@@ -333,21 +358,41 @@ public class Beacon implements Serializable, RadioSource {
      */
     @Override
     public boolean equals(final Object that) {
+        if (that == this) {
+            return identifiers != null;
+        }
         if (!(that instanceof Beacon thatBeacon)) {
             return false;
         }
+        if (identifiers == null || hashCode() != thatBeacon.hashCode()) {
+            return false;
+        }
+
+        final var thisKey = getKey();
+        final var thatKey = thatBeacon.getKey();
+        if (thisKey != null && thatKey != null) {
+            return thisKey.equals(thatKey);
+        }
 
-        return identifiers != null && identifiers.equals(thatBeacon.identifiers);
+        return identifiers.equals(thatBeacon.identifiers);
     }
 
     /**
      * Computes hash code for this instance.
+     * Hash code is computed once and cached, using the packed key of identifiers when
+     * available.
      *
      * @return this instance hash code.
      */
     @Override
     public int hashCode() {
-        return identifiers.hashCode();
+        var h = hash;
+        if (h == 0) {
+            final var k = getKey();
+            h = k != null ? k.hashCode() : identifiers.hashCode();
+            hash = h;
+        }
+        return h;
     }
 
     /**
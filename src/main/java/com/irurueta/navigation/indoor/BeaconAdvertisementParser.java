@@ -0,0 +1,553 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Parses beacons from raw bytes of BLE advertisements.
+ * Identifiers are read directly from provided bytes at the offsets defined by a
+ * layout, without any intermediate string representation.
+ * Parsed beacons are kept in a cache keyed by their packed identifiers (see
+ * {@link BeaconKey}), transmitted power and company identifier, so that when an
+ * advertisement of an already known beacon is parsed again, the cached instance is
+ * returned without allocating any memory. When a known beacon advertises a different
+ * transmitted power or company identifier, its cached instance is replaced.
+ * <p>
+ * Offsets of predefined layouts follow the convention of the AltBeacon library:
+ * manufacturer specific layouts (iBeacon and AltBeacon) are relative to the start of
+ * manufacturer data, including its 2 bytes company identifier, whereas service layouts
+ * (Eddystone UID) are relative to the start of service data, including its 2 bytes
+ * little endian service UUID, which is checked to match the service UUID of the
+ * layout.
+ * <p>
+ * This class is not thread safe.
+ */
+public class BeaconAdvertisementParser {
+
+    /**
+     * Default maximum number of cached beacons.
+     */
+    public static final int DEFAULT_MAX_CACHED_BEACONS = 1024;
+
+    /**
+     * Minimum allowed maximum number of cached beacons.
+     */
+    public static final int MIN_CACHED_BEACONS = 1;
+
+    /**
+     * Apple company identifier used on iBeacon advertisements.
+     */
+    public static final int IBEACON_MANUFACTURER = 0x004C;
+
+    /**
+     * Beacon type code of iBeacon advertisements.
+     */
+    public static final int IBEACON_TYPE_CODE = 0x0215;
+
+    /**
+     * Beacon type code of AltBeacon advertisements.
+     */
+    public static final int ALTBEACON_TYPE_CODE = 0xBEAC;
+
+    /**
+     * Service UUID of Eddystone advertisements.
+     */
+    public static final int EDDYSTONE_SERVICE_UUID = 0xFEAA;
+
+    /**
+     * Frame type of Eddystone UID advertisements.
+     */
+    public static final int EDDYSTONE_UID_TYPE_CODE = 0x00;
+
+    /**
+     * Correction to convert transmitted power at 0 meters contained in Eddystone
+     * advertisements into transmitted power at 1 meter (expressed in dBm's).
+     */
+    public static final int EDDYSTONE_POWER_CORRECTION = -41;
+
+    /**
+     * Number of bytes of a long.
+     */
+    private static final int LONG_BYTES = Long.BYTES;
+
+    /**
+     * Position of beacon type code within advertisement bytes.
+     */
+    private final int typeCodeOffset;
+
+    /**
+     * Number of bytes of beacon type code.
+     */
+    private final int typeCodeLength;
+
+    /**
+     * Expected beacon type code.
+     */
+    private final int typeCode;
+
+    /**
+     * Position of little endian company identifier within advertisement bytes, or -1 if
+     * not available.
+     */
+    private final int manufacturerOffset;
+
+    /**
+     * Service UUID expected at the start of advertisement bytes and assigned to parsed
+     * beacons, or -1 if not available.
+     */
+    private final int serviceUuid;
+
+    /**
+     * Positions of identifiers within advertisement bytes.
+     */
+    private final int[] identifierOffsets;
+
+    /**
+     * Number of bytes of each identifier.
+     */
+    private final int[] identifierLengths;
+
+    /**
+     * Position of signed transmitted power byte within advertisement bytes.
+     */
+    private final int powerOffset;
+
+    /**
+     * Correction added to read transmitted power (expressed in dBm's).
+     */
+    private final int powerCorrection;
+
+    /**
+     * Minimum number of advertisement bytes required to parse a beacon.
+     */
+    private final int minLength;
+
+    /**
+     * Layout of packed identifiers.
+     */
+    private final int layout;
+
+    /**
+     * Maximum number of cached beacons.
+     */
+    private final int maxCachedBeacons;
+
+    /**
+     * First 8 bytes of packed identifiers of cached beacons.
+     */
+    private final long[] cachedMostSignificantBits;
+
+    /**
+     * Next 8 bytes of packed identifiers of cached beacons.
+     */
+    private final long[] cachedLeastSignificantBits;
+
+    /**
+     * Last 4 bytes of packed identifiers of cached beacons.
+     */
+    private final int[] cachedTails;
+
+    /**
+     * Transmitted power byte and company identifier of cached beacons.
+     */
+    private final int[] cachedExtras;
+
+    /**
+     * Cached beacons. Empty slots are null.
+     */
+    private final Beacon[] cachedBeacons;
+
+    /**
+     * Number of cached beacons.
+     */
+    private int numCachedBeacons;
+
+    /**
+     * Constructor.
+     *
+     * @param typeCodeOffset     position of beacon type code within advertisement bytes.
+     * @param typeCodeLength     number of bytes of beacon type code (up to 4).
+     * @param typeCode           expected beacon type code.
+     * @param manufacturerOffset position of little endian company identifier within
+     *                           advertisement bytes, or -1 if not available.
+     * @param serviceUuid        service UUID expected at the start of advertisement bytes
+     *                           in little endian order and assigned to parsed beacons,
+     *                           or -1 if not available.
+     * @param identifierOffsets  positions of identifiers within advertisement bytes.
+     * @param identifierLengths  number of bytes of each identifier.
+     * @param powerOffset        position of signed transmitted power byte within
+     *                           advertisement bytes.
+     * @param powerCorrection    correction added to read transmitted power (expressed in
+     *                           dBm's).
+     * @throws IllegalArgumentException if any offset is negative, type code length is
+     *                                  not between 1 and 4, identifier offsets and
+     *                                  lengths don't have the same length or identifiers
+     *                                  cannot be packed into a {@link BeaconKey}.
+     */
+    public BeaconAdvertisementParser(
+            final int typeCodeOffset, final int typeCodeLength, final int typeCode, final int manufacturerOffset,
+            final int serviceUuid, final int[] identifierOffsets, final int[] identifierLengths,
+            final int powerOffset, final int powerCorrection) {
+        this(typeCodeOffset, typeCodeLength, typeCode, manufacturerOffset, serviceUuid, identifierOffsets,
+                identifierLengths, powerOffset, powerCorrection, DEFAULT_MAX_CACHED_BEACONS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param typeCodeOffset     position of beacon type code within advertisement bytes.
+     * @param typeCodeLength     number of bytes of beacon type code (up to 4).
+     * @param typeCode           expected beacon type code.
+     * @param manufacturerOffset position of little endian company identifier within
+     *                           advertisement bytes, or -1 if not available.
+     * @param serviceUuid        service UUID expected at the start of advertisement bytes
+     *                           in little endian order and assigned to parsed beacons,
+     *                           or -1 if not available.
+     * @param identifierOffsets  positions of identifiers within advertisement bytes.
+     * @param identifierLengths  number of bytes of each identifier.
+     * @param powerOffset        position of signed transmitted power byte within
+     *                           advertisement bytes.
+     * @param powerCorrection    correction added to read transmitted power (expressed in
+     *                           dBm's).
+     * @param maxCachedBeacons   maximum number of cached beacons. When exceeded, cache
+     *                           is cleared.
+     * @throws IllegalArgumentException if any offset is negative, type code length is
+     *                                  not between 1 and 4, identifier offsets and
+     *                                  lengths don't have the same length, identifiers
+     *                                  cannot be packed into a {@link BeaconKey} or
+     *                                  maximum number of cached beacons is less than 1.
+     */
+    public BeaconAdvertisementParser(
+            final int typeCodeOffset, final int typeCodeLength, final int typeCode, final int manufacturerOffset,
+            final int serviceUuid, final int[] identifierOffsets, final int[] identifierLengths,
+            final int powerOffset, final int powerCorrection, final int maxCachedBeacons) {
+        if (typeCodeOffset < 0 || typeCodeLength < 1 || typeCodeLength > Integer.BYTES
+                || manufacturerOffset < -1 || powerOffset < 0 || identifierOffsets == null
+                || identifierLengths == null || identifierOffsets.length != identifierLengths.length
+                || maxCachedBeacons < MIN_CACHED_BEACONS) {
+            throw new IllegalArgumentException();
+        }
+
+        layout = BeaconKey.layout(identifierLengths);
+        if (layout < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        var length = Math.max(typeCodeOffset + typeCodeLength, powerOffset + 1);
+        if (manufacturerOffset >= 0) {
+            length = Math.max(length, manufacturerOffset + 2);
+        }
+        if (serviceUuid >= 0) {
+            length = Math.max(length, 2);
+        }
+        for (var i = 0; i < identifierOffsets.length; i++) {
+            if (identifierOffsets[i] < 0) {
+                throw new IllegalArgumentException();
+            }
+            length = Math.max(length, identifierOffsets[i] + identifierLengths[i]);
+        }
+
+        this.typeCodeOffset = typeCodeOffset;
+        this.typeCodeLength = typeCodeLength;
+        this.typeCode = typeCode;
+        this.manufacturerOffset = manufacturerOffset;
+        this.serviceUuid = serviceUuid;
+        this.identifierOffsets = identifierOffsets.clone();
+        this.identifierLengths = identifierLengths.clone();
+        this.powerOffset = powerOffset;
+        this.powerCorrection = powerCorrection;
+        this.maxCachedBeacons = maxCachedBeacons;
+        minLength = length;
+
+        final var capacity = Integer.highestOneBit(2 * maxCachedBeacons - 1) << 1;
+        cachedMostSignificantBits = new long[capacity];
+        cachedLeastSignificantBits = new long[capacity];
+        cachedTails = new int[capacity];
+        cachedExtras = new int[capacity];
+        cachedBeacons = new Beacon[capacity];
+    }
+
+    /**
+     * Creates a parser of iBeacon advertisements.
+     * Layout: company identifier at 0-1, type code 0x0215 at 2-3, UUID at 4-19, major at
+     * 20-21, minor at 22-23 and transmitted power at 24.
+     *
+     * @return a parser of iBeacon advertisements.
+     */
+    public static BeaconAdvertisementParser createIBeaconParser() {
+        return new BeaconAdvertisementParser(2, 2, IBEACON_TYPE_CODE, 0, -1,
+                new int[]{4, 20, 22}, new int[]{16, 2, 2}, 24, 0);
+    }
+
+    /**
+     * Creates a parser of AltBeacon advertisements.
+     * Layout: company identifier at 0-1, type code 0xBEAC at 2-3, first identifier at
+     * 4-19, second identifier at 20-21, third identifier at 22-23 and transmitted power
+     * at 24.
+     *
+     * @return a parser of AltBeacon advertisements.
+     */
+    public static BeaconAdvertisementParser createAltBeaconParser() {
+        return new BeaconAdvertisementParser(2, 2, ALTBEACON_TYPE_CODE, 0, -1,
+                new int[]{4, 20, 22}, new int[]{16, 2, 2}, 24, 0);
+    }
+
+    /**
+     * Creates a parser of Eddystone UID advertisements.
+     * Layout: service UUID at 0-1, frame type 0x00 at 2, transmitted power at 0 meters at
+     * 3, namespace at 4-13 and instance at 14-19.
+     *
+     * @return a parser of Eddystone UID advertisements.
+     */
+    public static BeaconAdvertisementParser createEddystoneUidParser() {
+        return new BeaconAdvertisementParser(2, 1, EDDYSTONE_UID_TYPE_CODE, -1,
+                EDDYSTONE_SERVICE_UUID, new int[]{4, 14}, new int[]{10, 6}, 3,
+                EDDYSTONE_POWER_CORRECTION);
+    }
+
+    /**
+     * Gets minimum number of advertisement bytes required to parse a beacon.
+     *
+     * @return minimum number of advertisement bytes.
+     */
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Gets maximum number of cached beacons.
+     *
+     * @return maximum number of cached beacons.
+     */
+    public int getMaxCachedBeacons() {
+        return maxCachedBeacons;
+    }
+
+    /**
+     * Gets number of currently cached beacons.
+     *
+     * @return number of cached beacons.
+     */
+    public int getNumberOfCachedBeacons() {
+        return numCachedBeacons;
+    }
+
+    /**
+     * Removes all cached beacons.
+     */
+    public void clearCache() {
+        Arrays.fill(cachedBeacons, null);
+        numCachedBeacons = 0;
+    }
+
+    /**
+     * Parses a beacon from provided advertisement bytes.
+     *
+     * @param data advertisement bytes.
+     * @return parsed beacon or null if provided bytes don't match the layout of this
+     * parser.
+     * @throws NullPointerException if provided data is null.
+     */
+    public Beacon parse(final byte[] data) {
+        return parse(data, 0, data.length);
+    }
+
+    /**
+     * Parses a beacon from a slice of provided array containing advertisement bytes.
+     *
+     * @param data   array containing advertisement bytes.
+     * @param offset position where advertisement starts within provided array.
+     * @param length number of advertisement bytes.
+     * @return parsed beacon or null if provided bytes don't match the layout of this
+     * parser.
+     * @throws NullPointerException      if provided data is null.
+     * @throws IndexOutOfBoundsException if slice is outside the bounds of provided
+     *                                   array.
+     */
+    public Beacon parse(final byte[] data, final int offset, final int length) {
+        if (data == null) {
+            throw new NullPointerException();
+        }
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return parse(data, null, offset, length);
+    }
+
+    /**
+     * Parses a beacon from remaining bytes of provided buffer.
+     * Bytes are read using absolute positions, so that position of provided buffer is
+     * not modified.
+     *
+     * @param buffer buffer containing advertisement bytes between its position and its
+     *               limit.
+     * @return parsed beacon or null if provided bytes don't match the layout of this
+     * parser.
+     * @throws NullPointerException if provided buffer is null.
+     */
+    public Beacon parse(final ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new NullPointerException();
+        }
+        return parse(null, buffer, buffer.position(), buffer.remaining());
+    }
+
+    /**
+     * Parses a beacon either from an array or from a buffer.
+     *
+     * @param data   array containing advertisement bytes or null if buffer is used.
+     * @param buffer buffer containing advertisement bytes or null if array is used.
+     * @param offset position where advertisement starts.
+     * @param length number of advertisement bytes.
+     * @return parsed beacon or null if provided bytes don't match the layout of this
+     * parser.
+     */
+    private Beacon parse(final byte[] data, final ByteBuffer buffer, final int offset, final int length) {
+        if (length < minLength) {
+            return null;
+        }
+
+        // check type code
+        var code = 0;
+        for (var i = 0; i < typeCodeLength; i++) {
+            code = (code << Byte.SIZE) | (byteAt(data, buffer, offset + typeCodeOffset + i) & 0xFF);
+        }
+        if (code != typeCode) {
+            return null;
+        }
+
+        // check service UUID
+        if (serviceUuid >= 0 && readLittleEndianShort(data, buffer, offset) != serviceUuid) {
+            return null;
+        }
+
+        // pack identifiers
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        var tail = 0;
+        var pos = 0;
+        for (var i = 0; i < identifierOffsets.length; i++) {
+            final var start = offset + identifierOffsets[i];
+            for (var j = 0; j < identifierLengths[i]; j++) {
+                final var b = byteAt(data, buffer, start + j) & 0xFF;
+                if (pos < LONG_BYTES) {
+                    mostSignificantBits = (mostSignificantBits << Byte.SIZE) | b;
+                } else if (pos < 2 * LONG_BYTES) {
+                    leastSignificantBits = (leastSignificantBits << Byte.SIZE) | b;
+                } else {
+                    tail = (tail << Byte.SIZE) | b;
+                }
+                pos++;
+            }
+        }
+
+        // pack transmitted power and company identifier
+        var extra = byteAt(data, buffer, offset + powerOffset) & 0xFF;
+        if (manufacturerOffset >= 0) {
+            extra |= readLittleEndianShort(data, buffer, offset + manufacturerOffset) << Byte.SIZE;
+        }
+
+        // find cached beacon
+        final var mask = cachedBeacons.length - 1;
+        final var hash = BeaconKey.hash(mostSignificantBits, leastSignificantBits, tail, layout);
+        var slot = (hash ^ (hash >>> 16)) & mask;
+        while (cachedBeacons[slot] != null) {
+            if (cachedMostSignificantBits[slot] == mostSignificantBits
+                    && cachedLeastSignificantBits[slot] == leastSignificantBits
+                    && cachedTails[slot] == tail) {
+                if (cachedExtras[slot] != extra) {
+                    // transmitted power or company identifier changed
+                    cachedExtras[slot] = extra;
+                    cachedBeacons[slot] = createBeacon(data, buffer, offset);
+                }
+                return cachedBeacons[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // create and cache new beacon
+        final var beacon = createBeacon(data, buffer, offset);
+        if (numCachedBeacons >= maxCachedBeacons) {
+            clearCache();
+            slot = (hash ^ (hash >>> 16)) & mask;
+        }
+        cachedMostSignificantBits[slot] = mostSignificantBits;
+        cachedLeastSignificantBits[slot] = leastSignificantBits;
+        cachedTails[slot] = tail;
+        cachedExtras[slot] = extra;
+        cachedBeacons[slot] = beacon;
+        numCachedBeacons++;
+
+        return beacon;
+    }
+
+    /**
+     * Creates a new beacon from advertisement bytes.
+     *
+     * @param data   array containing advertisement bytes or null if buffer is used.
+     * @param buffer buffer containing advertisement bytes or null if array is used.
+     * @param offset position where advertisement starts.
+     * @return a new beacon.
+     */
+    private Beacon createBeacon(final byte[] data, final ByteBuffer buffer, final int offset) {
+        final var identifiers = new ArrayList<BeaconIdentifier>(identifierOffsets.length);
+        for (var i = 0; i < identifierOffsets.length; i++) {
+            final var start = offset + identifierOffsets[i];
+            final var end = start + identifierLengths[i];
+            identifiers.add(data != null
+                    ? BeaconIdentifier.fromBytes(data, start, end, false)
+                    : BeaconIdentifier.fromByteBuffer(buffer, start, end, false));
+        }
+
+        final var transmittedPower = byteAt(data, buffer, offset + powerOffset) + powerCorrection;
+
+        var manufacturer = 0;
+        if (manufacturerOffset >= 0) {
+            manufacturer = readLittleEndianShort(data, buffer, offset + manufacturerOffset);
+        }
+
+        return new Beacon(identifiers, transmittedPower, null, typeCode, manufacturer, serviceUuid,
+                null);
+    }
+
+    /**
+     * Reads an unsigned little endian 2 bytes value either from an array or from a
+     * buffer.
+     *
+     * @param data   array or null if buffer is used.
+     * @param buffer buffer or null if array is used.
+     * @param index  absolute position of first byte to be read.
+     * @return read value.
+     */
+    private static int readLittleEndianShort(final byte[] data, final ByteBuffer buffer, final int index) {
+        return (byteAt(data, buffer, index) & 0xFF) | ((byteAt(data, buffer, index + 1) & 0xFF) << Byte.SIZE);
+    }
+
+    /**
+     * Reads a byte either from an array or from a buffer.
+     *
+     * @param data   array or null if buffer is used.
+     * @param buffer buffer or null if array is used.
+     * @param index  absolute position of byte to be read.
+     * @return read byte.
+     */
+    private static byte byteAt(final byte[] data, final ByteBuffer buffer, final int index) {
+        return data != null ? data[index] : buffer.get(index);
+    }
+}
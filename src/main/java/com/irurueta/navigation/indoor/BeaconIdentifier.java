@@ -67,6 +67,10 @@ public class BeaconIdentifier implements Comparable<BeaconIdentifier>, Serializa
      */
     private byte[] value;
 
+    /**
+     * Cached hash code or 0 if not computed yet.
+     */
+    private transient int hash;
 
     /**
      * Empty constructor to prevent deserialization issues.
@@ -231,6 +235,46 @@ public class BeaconIdentifier implements Comparable<BeaconIdentifier>, Serializa
         return new BeaconIdentifier(byteRange);
     }
 
+    /**
+     * Creates an identifier from the specified buffer.
+     * Bytes are read using absolute positions, so that position of provided buffer is
+     * not modified.
+     *
+     * @param buffer       buffer to copy from.
+     * @param start        the start index, inclusive.
+     * @param end          the end index, exclusive.
+     * @param littleEndian whether the bytes are ordered in little endian.
+     * @return a new identifier.
+     * @throws NullPointerException      if buffer is null.
+     * @throws IndexOutOfBoundsException if start or end are outside the limit of the buffer.
+     * @throws IllegalArgumentException  start is larger than end.
+     */
+    public static BeaconIdentifier fromByteBuffer(
+            final ByteBuffer buffer, final int start, final int end, final boolean littleEndian) {
+        if (buffer == null) {
+            throw new NullPointerException(
+                    "Identifiers cannot be constructed from null pointers but \"buffer\" is null.");
+        }
+        if (start < 0 || start > buffer.limit()) {
+            throw new IndexOutOfBoundsException("start < 0 || start > buffer.limit()");
+        }
+        if (end > buffer.limit()) {
+            throw new IndexOutOfBoundsException("end > buffer.limit()");
+        }
+        if (start > end) {
+            throw new IllegalArgumentException("start > end");
+        }
+
+        final var byteRange = new byte[end - start];
+        for (var i = 0; i < byteRange.length; i++) {
+            byteRange[i] = buffer.get(start + i);
+        }
+        if (littleEndian) {
+            reverseArray(byteRange);
+        }
+        return new BeaconIdentifier(byteRange);
+    }
+
     /**
      * Transforms a {@link UUID} into an identifier.
      * No mangling with strings, only the underlying bytes of the
@@ -375,14 +419,30 @@ public class BeaconIdentifier implements Comparable<BeaconIdentifier>, Serializa
         return value != null ? value.clone() : null;
     }
 
+    /**
+     * Gets byte at provided position without copying the data backing this identifier.
+     *
+     * @param i position of byte.
+     * @return byte at provided position.
+     */
+    byte byteAt(final int i) {
+        return value[i];
+    }
+
     /**
      * Computes hash code for this instance.
+     * Hash code is computed once and cached.
      *
      * @return this instance hash code.
      */
     @Override
     public int hashCode() {
-        return value != null ? Arrays.hashCode(value) : 0;
+        var h = hash;
+        if (h == 0 && value != null) {
+            h = Arrays.hashCode(value);
+            hash = h;
+        }
+        return h;
     }
 
     /**
@@ -394,10 +454,13 @@ public class BeaconIdentifier implements Comparable<BeaconIdentifier>, Serializa
      */
     @Override
     public boolean equals(final Object that) {
+        if (that == this) {
+            return true;
+        }
         if (!(that instanceof BeaconIdentifier thatIdentifier)) {
             return false;
         }
-        return Arrays.equals(value, thatIdentifier.value);
+        return hashCode() == thatIdentifier.hashCode() && Arrays.equals(value, thatIdentifier.value);
     }
 
     /**
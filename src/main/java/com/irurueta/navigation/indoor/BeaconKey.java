@@ -0,0 +1,275 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Packed representation of the multipart identifiers of a beacon.
+ * Beacon layouts containing up to 3 identifiers having up to 20 bytes in total
+ * (such as iBeacon or AltBeacon, containing a 16 bytes UUID, a 2 bytes major and a
+ * 2 bytes minor, or Eddystone UID, containing a 10 bytes namespace and a 6 bytes
+ * instance) are packed into two longs and an int, along with the number of bytes of
+ * each identifier.
+ * Hash code is computed once on creation, so that beacons can be efficiently used
+ * as keys of hash maps.
+ */
+public final class BeaconKey implements Serializable {
+
+    /**
+     * Maximum number of identifiers that can be packed.
+     */
+    public static final int MAX_IDENTIFIERS = 3;
+
+    /**
+     * Maximum number of bytes of all identifiers that can be packed.
+     */
+    public static final int MAX_BYTES = 20;
+
+    /**
+     * Number of bits used to store the number of bytes of each identifier within the
+     * layout.
+     */
+    private static final int LENGTH_BITS = 5;
+
+    /**
+     * Mask to obtain the number of bytes of an identifier within the layout.
+     */
+    private static final int LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+
+    /**
+     * Number of bytes of a long.
+     */
+    private static final int LONG_BYTES = Long.BYTES;
+
+    /**
+     * First 8 bytes of packed identifiers.
+     */
+    private final long mostSignificantBits;
+
+    /**
+     * Next 8 bytes of packed identifiers.
+     */
+    private final long leastSignificantBits;
+
+    /**
+     * Last 4 bytes of packed identifiers.
+     */
+    private final int tail;
+
+    /**
+     * Contains the number of identifiers and the number of bytes of each of them.
+     */
+    private final int layout;
+
+    /**
+     * Precomputed hash code.
+     */
+    private final int hash;
+
+    /**
+     * Constructor.
+     *
+     * @param mostSignificantBits  first 8 bytes of packed identifiers.
+     * @param leastSignificantBits next 8 bytes of packed identifiers.
+     * @param tail                 last 4 bytes of packed identifiers.
+     * @param layout               number of identifiers and number of bytes of each of
+     *                             them.
+     */
+    private BeaconKey(final long mostSignificantBits, final long leastSignificantBits, final int tail,
+                      final int layout) {
+        this.mostSignificantBits = mostSignificantBits;
+        this.leastSignificantBits = leastSignificantBits;
+        this.tail = tail;
+        this.layout = layout;
+        hash = hash(mostSignificantBits, leastSignificantBits, tail, layout);
+    }
+
+    /**
+     * Creates a packed key from provided beacon identifiers.
+     *
+     * @param identifiers identifiers of a beacon.
+     * @return packed key or null if identifiers cannot be packed because there are too
+     * many of them or they are too large.
+     */
+    public static BeaconKey fromIdentifiers(final List<BeaconIdentifier> identifiers) {
+        if (identifiers == null || identifiers.size() > MAX_IDENTIFIERS) {
+            return null;
+        }
+
+        var totalBytes = 0;
+        var layout = identifiers.size();
+        for (var i = 0; i < identifiers.size(); i++) {
+            final var identifier = identifiers.get(i);
+            if (identifier == null) {
+                return null;
+            }
+            final var count = identifier.getByteCount();
+            totalBytes += count;
+            if (totalBytes > MAX_BYTES) {
+                return null;
+            }
+            layout |= count << ((i + 1) * LENGTH_BITS);
+        }
+
+        long mostSignificantBits = 0;
+        long leastSignificantBits = 0;
+        var tail = 0;
+        var pos = 0;
+        for (final var identifier : identifiers) {
+            final var count = identifier.getByteCount();
+            for (var j = 0; j < count; j++) {
+                final var b = identifier.byteAt(j) & 0xFF;
+                if (pos < LONG_BYTES) {
+                    mostSignificantBits = (mostSignificantBits << Byte.SIZE) | b;
+                } else if (pos < 2 * LONG_BYTES) {
+                    leastSignificantBits = (leastSignificantBits << Byte.SIZE) | b;
+                } else {
+                    tail = (tail << Byte.SIZE) | b;
+                }
+                pos++;
+            }
+        }
+
+        return new BeaconKey(mostSignificantBits, leastSignificantBits, tail, layout);
+    }
+
+    /**
+     * Gets first 8 bytes of packed identifiers.
+     *
+     * @return first 8 bytes of packed identifiers.
+     */
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * Gets next 8 bytes of packed identifiers.
+     *
+     * @return next 8 bytes of packed identifiers.
+     */
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
+    /**
+     * Gets last 4 bytes of packed identifiers.
+     *
+     * @return last 4 bytes of packed identifiers.
+     */
+    public int getTail() {
+        return tail;
+    }
+
+    /**
+     * Gets number of packed identifiers.
+     *
+     * @return number of packed identifiers.
+     */
+    public int getNumberOfIdentifiers() {
+        return layout & LENGTH_MASK;
+    }
+
+    /**
+     * Gets number of bytes of packed identifier at provided position.
+     *
+     * @param i position of identifier.
+     * @return number of bytes of identifier.
+     * @throws IllegalArgumentException if position is not valid.
+     */
+    public int getIdentifierByteCount(final int i) {
+        if (i < 0 || i >= getNumberOfIdentifiers()) {
+            throw new IllegalArgumentException();
+        }
+        return (layout >>> ((i + 1) * LENGTH_BITS)) & LENGTH_MASK;
+    }
+
+    /**
+     * Computes hash code of packed identifiers.
+     *
+     * @param mostSignificantBits  first 8 bytes of packed identifiers.
+     * @param leastSignificantBits next 8 bytes of packed identifiers.
+     * @param tail                 last 4 bytes of packed identifiers.
+     * @param layout               number of identifiers and number of bytes of each of
+     *                             them.
+     * @return hash code.
+     */
+    static int hash(final long mostSignificantBits, final long leastSignificantBits, final int tail,
+                    final int layout) {
+        var h = Long.hashCode(mostSignificantBits);
+        h = 31 * h + Long.hashCode(leastSignificantBits);
+        h = 31 * h + tail;
+        h = 31 * h + layout;
+        return h;
+    }
+
+    /**
+     * Computes layout containing number of identifiers and number of bytes of each of
+     * them.
+     *
+     * @param identifierLengths number of bytes of each identifier.
+     * @return layout or -1 if identifiers cannot be packed.
+     */
+    static int layout(final int[] identifierLengths) {
+        if (identifierLengths.length > MAX_IDENTIFIERS) {
+            return -1;
+        }
+
+        var totalBytes = 0;
+        var layout = identifierLengths.length;
+        for (var i = 0; i < identifierLengths.length; i++) {
+            totalBytes += identifierLengths[i];
+            if (identifierLengths[i] < 0 || totalBytes > MAX_BYTES) {
+                return -1;
+            }
+            layout |= identifierLengths[i] << ((i + 1) * LENGTH_BITS);
+        }
+        return layout;
+    }
+
+    /**
+     * Checks whether two keys are equal.
+     *
+     * @param obj object to be compared.
+     * @return true if both keys contain the same identifiers, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof BeaconKey other)) {
+            return false;
+        }
+
+        return hash == other.hash
+                && mostSignificantBits == other.mostSignificantBits
+                && leastSignificantBits == other.leastSignificantBits
+                && tail == other.tail
+                && layout == other.layout;
+    }
+
+    /**
+     * Returns precomputed hash code of this key.
+     *
+     * @return hash code of this key.
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,767 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.geometry.Point3D;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.irurueta.navigation.indoor.BinaryEncoder.*;
+
+/**
+ * Decodes radio sources, readings and fingerprints encoded by a {@link BinaryEncoder}.
+ * Objects must be decoded in the same order and using the same kind of method
+ * (i.e. {@link #readRadioSource()}, {@link #readReading()} or {@link #readFingerprint()})
+ * they were encoded with.
+ * Decoded radio sources are kept while decoding, so that any further reference to a
+ * radio source on the stream returns the same instance.
+ * <p>
+ * Encoded data can be read either from a {@link ByteBuffer} or from an
+ * {@link InputStream}. When reading from an input stream, data is read in chunks into
+ * an internal buffer, hence the input stream must not be used by anyone else while it is
+ * being decoded.
+ * <p>
+ * This class is not thread safe.
+ */
+public class BinaryDecoder {
+
+    /**
+     * Default size of internal buffer used when reading from an input stream.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum number of bytes of a variable length integer.
+     */
+    private static final int MAX_VAR_LONG_BYTES = 10;
+
+    /**
+     * Input stream where data is read from or null if data is read from a buffer.
+     */
+    private final InputStream stream;
+
+    /**
+     * Buffer where data is read from.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Already decoded radio sources in order of occurrence.
+     */
+    private final List<RadioSource> sources = new ArrayList<>();
+
+    /**
+     * Indicates whether header has already been read.
+     */
+    private boolean headerRead;
+
+    /**
+     * Last decoded integral RSSI value.
+     */
+    private int previousRssi;
+
+    /**
+     * Constructor.
+     *
+     * @param stream input stream where encoded data will be read from.
+     * @throws IllegalArgumentException if stream is null.
+     */
+    public BinaryDecoder(final InputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param stream     input stream where encoded data will be read from.
+     * @param bufferSize size of internal buffer.
+     * @throws IllegalArgumentException if stream is null or buffer size is not positive.
+     */
+    public BinaryDecoder(final InputStream stream, final int bufferSize) {
+        if (stream == null || bufferSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.stream = stream;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    /**
+     * Constructor.
+     * Data is read from the current position of provided buffer up to its limit, and
+     * the position of the buffer is advanced as data is decoded.
+     *
+     * @param buffer buffer where encoded data will be read from.
+     * @throws IllegalArgumentException if buffer is null.
+     */
+    public BinaryDecoder(final ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException();
+        }
+        this.stream = null;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Gets number of distinct radio sources decoded so far.
+     *
+     * @return number of distinct radio sources decoded so far.
+     */
+    public int getNumberOfSources() {
+        return sources.size();
+    }
+
+    /**
+     * Indicates whether there is more data to be decoded.
+     *
+     * @return true if there is more data, false if end of data has been reached.
+     * @throws IOException if an I/O error occurs or header is not valid.
+     */
+    public boolean hasRemaining() throws IOException {
+        if (!headerRead) {
+            if (!available()) {
+                return false;
+            }
+            readHeader();
+        }
+        return available();
+    }
+
+    /**
+     * Decodes next radio source.
+     *
+     * @return decoded radio source.
+     * @throws EOFException               if end of data is reached.
+     * @throws StreamCorruptedException if data is not valid or next record is not
+     *                                    a radio source.
+     * @throws IOException                if an I/O error occurs.
+     */
+    public RadioSource readRadioSource() throws IOException {
+        ensureHeader();
+        return decodeSource();
+    }
+
+    /**
+     * Decodes next reading.
+     *
+     * @return decoded reading.
+     * @throws EOFException               if end of data is reached.
+     * @throws StreamCorruptedException if data is not valid or next record is not
+     *                                    a reading.
+     * @throws IOException                if an I/O error occurs.
+     */
+    public Reading<RadioSource> readReading() throws IOException {
+        ensureHeader();
+        return decodeReading();
+    }
+
+    /**
+     * Decodes next fingerprint.
+     * Returned fingerprint has the same class as the encoded one, containing readings of
+     * the same classes as the encoded ones, using {@link RadioSource} as the type of radio
+     * sources.
+     *
+     * @param <F> type of fingerprint.
+     * @return decoded fingerprint.
+     * @throws EOFException               if end of data is reached.
+     * @throws StreamCorruptedException if data is not valid or next record is not
+     *                                    a fingerprint.
+     * @throws IOException                if an I/O error occurs.
+     */
+    @SuppressWarnings("unchecked")
+    public <F extends Fingerprint<?, ?>> F readFingerprint() throws IOException {
+        ensureHeader();
+        return (F) decodeFingerprint();
+    }
+
+    /**
+     * Reads header if it has not been read yet.
+     *
+     * @throws IOException if an I/O error occurs or header is not valid.
+     */
+    private void ensureHeader() throws IOException {
+        if (!headerRead) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Reads and checks header.
+     *
+     * @throws IOException if an I/O error occurs or header is not valid.
+     */
+    private void readHeader() throws IOException {
+        for (final var b : MAGIC) {
+            if (readByte() != b) {
+                throw new StreamCorruptedException("Invalid magic number");
+            }
+        }
+        final var version = readUnsignedByte();
+        if (version > VERSION) {
+            throw new StreamCorruptedException("Unsupported version " + version);
+        }
+        headerRead = true;
+    }
+
+    /**
+     * Decodes a radio source either as a reference to an already decoded radio source
+     * or inline.
+     *
+     * @return decoded radio source.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    private RadioSource decodeSource() throws IOException {
+        final var ref = readVarLong();
+        if (ref != 0) {
+            if (ref < 0 || ref > sources.size()) {
+                throw new StreamCorruptedException("Invalid radio source reference");
+            }
+            return sources.get((int) (ref - 1));
+        }
+
+        final var tag = readUnsignedByte();
+        final var flags = readUnsignedByte();
+        final RadioSource source;
+        try {
+            source = switch (tag) {
+                case WIFI_ACCESS_POINT, WIFI_ACCESS_POINT_WITH_POWER, WIFI_ACCESS_POINT_LOCATED_2D,
+                     WIFI_ACCESS_POINT_LOCATED_3D, WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_2D,
+                     WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_3D -> decodeAccessPoint(tag, flags);
+                case BEACON, BEACON_WITH_POWER, BEACON_LOCATED_2D, BEACON_LOCATED_3D,
+                     BEACON_WITH_POWER_AND_LOCATED_2D, BEACON_WITH_POWER_AND_LOCATED_3D -> decodeBeacon(tag, flags);
+                default -> throw new StreamCorruptedException("Unknown radio source tag " + tag);
+            };
+        } catch (final IllegalArgumentException e) {
+            throw corrupted(e);
+        }
+
+        sources.add(source);
+        return source;
+    }
+
+    /**
+     * Decodes contents of a Wi-Fi access point.
+     *
+     * @param tag   tag of radio source.
+     * @param flags flags of radio source.
+     * @return decoded access point.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    private RadioSource decodeAccessPoint(final int tag, final int flags) throws IOException {
+        final var bssid = readString();
+        final var frequency = readDouble();
+        final var ssid = (flags & FLAG_STRING) != 0 ? readString() : null;
+
+        if (tag == WIFI_ACCESS_POINT) {
+            return new WifiAccessPoint(bssid, frequency, ssid);
+        } else if (tag == WIFI_ACCESS_POINT_LOCATED_2D) {
+            final var position = readPoint2D();
+            return new WifiAccessPointLocated2D(bssid, frequency, ssid, position, readCovariance(flags));
+        } else if (tag == WIFI_ACCESS_POINT_LOCATED_3D) {
+            final var position = readPoint3D();
+            return new WifiAccessPointLocated3D(bssid, frequency, ssid, position, readCovariance(flags));
+        }
+
+        final var transmittedPower = readDouble();
+        final var transmittedPowerStd = (flags & FLAG_TRANSMITTED_POWER_STD) != 0 ? readDouble() : null;
+        final var pathLossExponent = readDouble();
+        final var pathLossExponentStd = (flags & FLAG_PATH_LOSS_STD) != 0 ? readDouble() : null;
+        if (tag == WIFI_ACCESS_POINT_WITH_POWER) {
+            return new WifiAccessPointWithPower(bssid, frequency, ssid, transmittedPower, transmittedPowerStd,
+                    pathLossExponent, pathLossExponentStd);
+        } else if (tag == WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_2D) {
+            final var position = readPoint2D();
+            return new WifiAccessPointWithPowerAndLocated2D(bssid, frequency, ssid, transmittedPower,
+                    transmittedPowerStd, pathLossExponent, pathLossExponentStd, position, readCovariance(flags));
+        } else {
+            final var position = readPoint3D();
+            return new WifiAccessPointWithPowerAndLocated3D(bssid, frequency, ssid, transmittedPower,
+                    transmittedPowerStd, pathLossExponent, pathLossExponentStd, position, readCovariance(flags));
+        }
+    }
+
+    /**
+     * Decodes contents of a beacon.
+     *
+     * @param tag   tag of radio source.
+     * @param flags flags of radio source.
+     * @return decoded beacon.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    private RadioSource decodeBeacon(final int tag, final int flags) throws IOException {
+        final var numIdentifiers = readLength();
+        final var identifiers = new ArrayList<BeaconIdentifier>(numIdentifiers);
+        for (var i = 0; i < numIdentifiers; i++) {
+            final var bytes = readBytes(readLength());
+            identifiers.add(BeaconIdentifier.fromBytes(bytes, 0, bytes.length, false));
+        }
+        final var transmittedPower = readDouble();
+        final var frequency = readDouble();
+        final var bluetoothAddress = (flags & FLAG_STRING) != 0 ? readString() : null;
+        final var bluetoothName = (flags & FLAG_NAME) != 0 ? readString() : null;
+        final var beaconTypeCode = readVarInt();
+        final var manufacturer = readVarInt();
+        final var serviceUuid = readVarInt();
+
+        if (tag == BEACON) {
+            return new Beacon(identifiers, transmittedPower, frequency, bluetoothAddress, beaconTypeCode,
+                    manufacturer, serviceUuid, bluetoothName);
+        } else if (tag == BEACON_LOCATED_2D) {
+            final var position = readPoint2D();
+            return new BeaconLocated2D(identifiers, transmittedPower, frequency, bluetoothAddress, beaconTypeCode,
+                    manufacturer, serviceUuid, bluetoothName, position, readCovariance(flags));
+        } else if (tag == BEACON_LOCATED_3D) {
+            final var position = readPoint3D();
+            return new BeaconLocated3D(identifiers, transmittedPower, frequency, bluetoothAddress, beaconTypeCode,
+                    manufacturer, serviceUuid, bluetoothName, position, readCovariance(flags));
+        }
+
+        final var transmittedPowerStd = (flags & FLAG_TRANSMITTED_POWER_STD) != 0 ? readDouble() : null;
+        final var pathLossExponent = readDouble();
+        final var pathLossExponentStd = (flags & FLAG_PATH_LOSS_STD) != 0 ? readDouble() : null;
+        if (tag == BEACON_WITH_POWER) {
+            return new BeaconWithPower(identifiers, transmittedPower, frequency, bluetoothAddress, beaconTypeCode,
+                    manufacturer, serviceUuid, bluetoothName, pathLossExponent, transmittedPowerStd,
+                    pathLossExponentStd);
+        } else if (tag == BEACON_WITH_POWER_AND_LOCATED_2D) {
+            final var position = readPoint2D();
+            return new BeaconWithPowerAndLocated2D(identifiers, transmittedPower, frequency, bluetoothAddress,
+                    beaconTypeCode, manufacturer, serviceUuid, bluetoothName, pathLossExponent, transmittedPowerStd,
+                    pathLossExponentStd, position, readCovariance(flags));
+        } else {
+            final var position = readPoint3D();
+            return new BeaconWithPowerAndLocated3D(identifiers, transmittedPower, frequency, bluetoothAddress,
+                    beaconTypeCode, manufacturer, serviceUuid, bluetoothName, pathLossExponent, transmittedPowerStd,
+                    pathLossExponentStd, position, readCovariance(flags));
+        }
+    }
+
+    /**
+     * Decodes a reading.
+     *
+     * @return decoded reading.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    private Reading<RadioSource> decodeReading() throws IOException {
+        final var tag = readUnsignedByte();
+        if (tag < RSSI_READING || tag > RANGING_AND_RSSI_READING_LOCATED_3D) {
+            throw new StreamCorruptedException("Unknown reading tag " + tag);
+        }
+        final var flags = readUnsignedByte();
+        final var source = decodeSource();
+
+        final var hasDistance = tag != RSSI_READING && tag != RSSI_READING_LOCATED_2D
+                && tag != RSSI_READING_LOCATED_3D;
+        final var hasRssi = tag != RANGING_READING && tag != RANGING_READING_LOCATED_2D
+                && tag != RANGING_READING_LOCATED_3D;
+
+        var distance = 0.0;
+        Double distanceStd = null;
+        var numAttempted = RangingReading.DEFAULT_NUM_MEASUREMENTS;
+        var numSuccessful = RangingReading.DEFAULT_NUM_MEASUREMENTS;
+        if (hasDistance) {
+            distance = readDouble();
+            if ((flags & FLAG_DISTANCE_STD) != 0) {
+                distanceStd = readDouble();
+            }
+            if ((flags & FLAG_MEASUREMENTS) != 0) {
+                numAttempted = readVarInt32();
+                numSuccessful = readVarInt32();
+            }
+        }
+
+        var rssi = 0.0;
+        Double rssiStd = null;
+        if (hasRssi) {
+            if ((flags & FLAG_RSSI_DELTA) != 0) {
+                previousRssi = (int) (previousRssi + unZigZag(readVarLong()));
+                rssi = previousRssi;
+            } else {
+                rssi = readDouble();
+            }
+            if ((flags & FLAG_RSSI_STD) != 0) {
+                rssiStd = readDouble();
+            }
+        }
+
+        try {
+            return switch (tag) {
+                case RSSI_READING -> new RssiReading<>(source, rssi, rssiStd);
+                case RANGING_READING -> new RangingReading<>(source, distance, distanceStd, numAttempted,
+                        numSuccessful);
+                case RANGING_AND_RSSI_READING -> new RangingAndRssiReading<>(source, distance, rssi, distanceStd,
+                        rssiStd, numAttempted, numSuccessful);
+                case RSSI_READING_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RssiReadingLocated2D<>(source, rssi, position, rssiStd, readCovariance(flags));
+                }
+                case RSSI_READING_LOCATED_3D -> {
+                    final var position = readPoint3D();
+                    yield new RssiReadingLocated3D<>(source, rssi, position, rssiStd, readCovariance(flags));
+                }
+                case RANGING_READING_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RangingReadingLocated2D<>(source, distance, position, distanceStd,
+                            readCovariance(flags), numAttempted, numSuccessful);
+                }
+                case RANGING_READING_LOCATED_3D -> {
+                    final var position = readPoint3D();
+                    yield new RangingReadingLocated3D<>(source, distance, position, distanceStd,
+                            readCovariance(flags), numAttempted, numSuccessful);
+                }
+                case RANGING_AND_RSSI_READING_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RangingAndRssiReadingLocated2D<>(source, distance, rssi, position, distanceStd,
+                            rssiStd, readCovariance(flags), numAttempted, numSuccessful);
+                }
+                default -> {
+                    final var position = readPoint3D();
+                    yield new RangingAndRssiReadingLocated3D<>(source, distance, rssi, position, distanceStd,
+                            rssiStd, readCovariance(flags), numAttempted, numSuccessful);
+                }
+            };
+        } catch (final IllegalArgumentException e) {
+            throw corrupted(e);
+        }
+    }
+
+    /**
+     * Decodes a fingerprint.
+     *
+     * @return decoded fingerprint.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Fingerprint<?, ?> decodeFingerprint() throws IOException {
+        final var tag = readUnsignedByte();
+        if (tag < FINGERPRINT || tag > RANGING_AND_RSSI_FINGERPRINT_LOCATED_3D) {
+            throw new StreamCorruptedException("Unknown fingerprint tag " + tag);
+        }
+        final var flags = readUnsignedByte();
+
+        final var numReadings = readLength();
+        final List readings = new ArrayList<Reading<RadioSource>>(numReadings);
+        final Class<?> readingClass = switch (tag) {
+            case RSSI_FINGERPRINT, RSSI_FINGERPRINT_LOCATED_2D, RSSI_FINGERPRINT_LOCATED_3D -> RssiReading.class;
+            case RANGING_FINGERPRINT, RANGING_FINGERPRINT_LOCATED_2D, RANGING_FINGERPRINT_LOCATED_3D ->
+                    RangingReading.class;
+            case RANGING_AND_RSSI_FINGERPRINT, RANGING_AND_RSSI_FINGERPRINT_LOCATED_2D,
+                 RANGING_AND_RSSI_FINGERPRINT_LOCATED_3D -> RangingAndRssiReading.class;
+            default -> Reading.class;
+        };
+        for (var i = 0; i < numReadings; i++) {
+            final var reading = decodeReading();
+            if (!readingClass.isInstance(reading)) {
+                throw new StreamCorruptedException("Unexpected reading in fingerprint");
+            }
+            readings.add(reading);
+        }
+
+        try {
+            return switch (tag) {
+                case FINGERPRINT -> new Fingerprint(readings);
+                case RSSI_FINGERPRINT -> new RssiFingerprint(readings);
+                case RANGING_FINGERPRINT -> new RangingFingerprint(readings);
+                case RANGING_AND_RSSI_FINGERPRINT -> new RangingAndRssiFingerprint(readings);
+                case RSSI_FINGERPRINT_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RssiFingerprintLocated2D(readings, position, readCovariance(flags));
+                }
+                case RSSI_FINGERPRINT_LOCATED_3D -> {
+                    final var position = readPoint3D();
+                    yield new RssiFingerprintLocated3D(readings, position, readCovariance(flags));
+                }
+                case RANGING_FINGERPRINT_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RangingFingerprintLocated2D(readings, position, readCovariance(flags));
+                }
+                case RANGING_FINGERPRINT_LOCATED_3D -> {
+                    final var position = readPoint3D();
+                    yield new RangingFingerprintLocated3D(readings, position, readCovariance(flags));
+                }
+                case RANGING_AND_RSSI_FINGERPRINT_LOCATED_2D -> {
+                    final var position = readPoint2D();
+                    yield new RangingAndRssiFingerprintLocated2D(readings, position, readCovariance(flags));
+                }
+                default -> {
+                    final var position = readPoint3D();
+                    yield new RangingAndRssiFingerprintLocated3D(readings, position, readCovariance(flags));
+                }
+            };
+        } catch (final IllegalArgumentException e) {
+            throw corrupted(e);
+        }
+    }
+
+    /**
+     * Reads a 2D position.
+     *
+     * @return read position.
+     * @throws IOException if an I/O error occurs.
+     */
+    private Point2D readPoint2D() throws IOException {
+        final var x = readDouble();
+        final var y = readDouble();
+        return new InhomogeneousPoint2D(x, y);
+    }
+
+    /**
+     * Reads a 3D position.
+     *
+     * @return read position.
+     * @throws IOException if an I/O error occurs.
+     */
+    private Point3D readPoint3D() throws IOException {
+        final var x = readDouble();
+        final var y = readDouble();
+        final var z = readDouble();
+        return new InhomogeneousPoint3D(x, y, z);
+    }
+
+    /**
+     * Reads a covariance matrix if its presence is indicated by provided flags.
+     *
+     * @param flags flags of decoded object.
+     * @return read matrix or null.
+     * @throws IOException if an I/O error occurs or data is not valid.
+     */
+    private Matrix readCovariance(final int flags) throws IOException {
+        if ((flags & FLAG_COVARIANCE) == 0) {
+            return null;
+        }
+
+        final var rows = readLength();
+        final var columns = readLength();
+        final var symmetric = (readUnsignedByte() & FLAG_SYMMETRIC) != 0;
+        final Matrix m;
+        try {
+            m = new Matrix(rows, columns);
+        } catch (final AlgebraException e) {
+            throw corrupted(e);
+        }
+
+        if (symmetric) {
+            if (rows != columns) {
+                throw new StreamCorruptedException("Non square symmetric matrix");
+            }
+            for (var i = 0; i < rows; i++) {
+                for (var j = i; j < columns; j++) {
+                    final var value = readDouble();
+                    m.setElementAt(i, j, value);
+                    m.setElementAt(j, i, value);
+                }
+            }
+        } else {
+            for (var i = 0; i < rows; i++) {
+                for (var j = 0; j < columns; j++) {
+                    m.setElementAt(i, j, readDouble());
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Reads a string encoded as its UTF-8 length followed by its UTF-8 bytes.
+     *
+     * @return read string.
+     * @throws IOException if an I/O error occurs.
+     */
+    private String readString() throws IOException {
+        return new String(readBytes(readLength()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads provided number of bytes.
+     *
+     * @param length number of bytes to read.
+     * @return read bytes.
+     * @throws IOException if an I/O error occurs.
+     */
+    private byte[] readBytes(final int length) throws IOException {
+        final var bytes = new byte[length];
+        var offset = 0;
+        while (offset < length) {
+            require();
+            final var n = Math.min(length - offset, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            offset += n;
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads raw bits of a double value in little endian order.
+     *
+     * @return read value.
+     * @throws IOException if an I/O error occurs.
+     */
+    private double readDouble() throws IOException {
+        var bits = 0L;
+        for (var i = 0; i < Double.BYTES; i++) {
+            bits |= (long) readUnsignedByte() << (i << 3);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * Reads a non-negative length.
+     *
+     * @return read length.
+     * @throws IOException if an I/O error occurs or length is not valid.
+     */
+    private int readLength() throws IOException {
+        final var value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid length");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a non-negative 32-bit value encoded as a variable length integer.
+     *
+     * @return read value.
+     * @throws IOException if an I/O error occurs or value is not valid.
+     */
+    private int readVarInt32() throws IOException {
+        return readLength();
+    }
+
+    /**
+     * Reads a signed 32-bit value encoded as a zig-zag variable length integer.
+     *
+     * @return read value.
+     * @throws IOException if an I/O error occurs.
+     */
+    private int readVarInt() throws IOException {
+        return (int) unZigZag(readVarLong());
+    }
+
+    /**
+     * Reads an unsigned value encoded as a variable length integer.
+     *
+     * @return read value.
+     * @throws IOException if an I/O error occurs or value is not valid.
+     */
+    private long readVarLong() throws IOException {
+        var value = 0L;
+        for (var i = 0; i < MAX_VAR_LONG_BYTES; i++) {
+            final var b = readUnsignedByte();
+            value |= (long) (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid variable length integer");
+    }
+
+    /**
+     * Reads an unsigned byte.
+     *
+     * @return read byte.
+     * @throws IOException if an I/O error occurs.
+     */
+    private int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    /**
+     * Reads a byte.
+     *
+     * @return read byte.
+     * @throws IOException if an I/O error occurs.
+     */
+    private byte readByte() throws IOException {
+        require();
+        return buffer.get();
+    }
+
+    /**
+     * Ensures that at least one byte is available.
+     *
+     * @throws EOFException if end of data is reached.
+     * @throws IOException  if an I/O error occurs.
+     */
+    private void require() throws IOException {
+        if (!available()) {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Indicates whether at least one byte is available, reading more data from input
+     * stream if needed.
+     *
+     * @return true if at least one byte is available, false otherwise.
+     * @throws IOException if an I/O error occurs.
+     */
+    private boolean available() throws IOException {
+        if (buffer.hasRemaining()) {
+            return true;
+        }
+        if (stream == null) {
+            return false;
+        }
+
+        buffer.clear();
+        var n = 0;
+        while (n == 0) {
+            n = stream.read(buffer.array(), 0, buffer.capacity());
+        }
+        if (n < 0) {
+            buffer.limit(0);
+            return false;
+        }
+        buffer.limit(n);
+        return true;
+    }
+
+    /**
+     * Maps an unsigned value obtained by {@link BinaryEncoder#zigZag(long)} back into
+     * its original signed value.
+     *
+     * @param value value to be mapped.
+     * @return original signed value.
+     */
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Creates an exception indicating that data is not valid.
+     *
+     * @param cause cause of the exception.
+     * @return created exception.
+     */
+    private static StreamCorruptedException corrupted(final Exception cause) {
+        final var e = new StreamCorruptedException("Invalid data");
+        e.initCause(cause);
+        return e;
+    }
+}
@@ -0,0 +1,1074 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes radio sources, readings and fingerprints into a compact binary format that
+ * can be decoded using a {@link BinaryDecoder}.
+ * Encoded data starts with a header containing a magic number and the version of the
+ * format, followed by a sequence of records, each one starting with a tag identifying
+ * the exact class of encoded object.
+ * <p>
+ * Radio sources are encoded only the first time they are found on the stream, and any
+ * further occurrence of an identical radio source is encoded as a variable length
+ * integer referring to the position of its first occurrence.
+ * Integral RSSI values (which is the usual case for RSSI values reported by Wi-Fi and
+ * bluetooth chipsets) are encoded as the variable length difference respect to the
+ * previously encoded RSSI value, and any other value is encoded with full precision.
+ * Covariance matrices are encoded as plain arrays of values, storing only their upper
+ * triangular part when they are symmetric.
+ * <p>
+ * Encoded data can be written either into a {@link ByteBuffer} or into an
+ * {@link OutputStream}. When writing into an output stream, data is kept in an
+ * internal buffer until it is large enough or until {@link #flush()} is called.
+ * <p>
+ * This class is not thread safe.
+ */
+public class BinaryEncoder implements Flushable {
+
+    /**
+     * Version of the binary format written by this encoder.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Magic number at the start of encoded data.
+     */
+    static final byte[] MAGIC = {'I', 'N', 'D', 'R'};
+
+    /**
+     * Tag of a {@link WifiAccessPoint}.
+     */
+    static final int WIFI_ACCESS_POINT = 0x01;
+
+    /**
+     * Tag of a {@link WifiAccessPointWithPower}.
+     */
+    static final int WIFI_ACCESS_POINT_WITH_POWER = 0x02;
+
+    /**
+     * Tag of a {@link WifiAccessPointLocated2D}.
+     */
+    static final int WIFI_ACCESS_POINT_LOCATED_2D = 0x03;
+
+    /**
+     * Tag of a {@link WifiAccessPointLocated3D}.
+     */
+    static final int WIFI_ACCESS_POINT_LOCATED_3D = 0x04;
+
+    /**
+     * Tag of a {@link WifiAccessPointWithPowerAndLocated2D}.
+     */
+    static final int WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_2D = 0x05;
+
+    /**
+     * Tag of a {@link WifiAccessPointWithPowerAndLocated3D}.
+     */
+    static final int WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_3D = 0x06;
+
+    /**
+     * Tag of a {@link Beacon}.
+     */
+    static final int BEACON = 0x07;
+
+    /**
+     * Tag of a {@link BeaconWithPower}.
+     */
+    static final int BEACON_WITH_POWER = 0x08;
+
+    /**
+     * Tag of a {@link BeaconLocated2D}.
+     */
+    static final int BEACON_LOCATED_2D = 0x09;
+
+    /**
+     * Tag of a {@link BeaconLocated3D}.
+     */
+    static final int BEACON_LOCATED_3D = 0x0A;
+
+    /**
+     * Tag of a {@link BeaconWithPowerAndLocated2D}.
+     */
+    static final int BEACON_WITH_POWER_AND_LOCATED_2D = 0x0B;
+
+    /**
+     * Tag of a {@link BeaconWithPowerAndLocated3D}.
+     */
+    static final int BEACON_WITH_POWER_AND_LOCATED_3D = 0x0C;
+
+    /**
+     * Tag of a {@link RssiReading}.
+     */
+    static final int RSSI_READING = 0x21;
+
+    /**
+     * Tag of a {@link RangingReading}.
+     */
+    static final int RANGING_READING = 0x22;
+
+    /**
+     * Tag of a {@link RangingAndRssiReading}.
+     */
+    static final int RANGING_AND_RSSI_READING = 0x23;
+
+    /**
+     * Tag of a {@link RssiReadingLocated2D}.
+     */
+    static final int RSSI_READING_LOCATED_2D = 0x24;
+
+    /**
+     * Tag of a {@link RssiReadingLocated3D}.
+     */
+    static final int RSSI_READING_LOCATED_3D = 0x25;
+
+    /**
+     * Tag of a {@link RangingReadingLocated2D}.
+     */
+    static final int RANGING_READING_LOCATED_2D = 0x26;
+
+    /**
+     * Tag of a {@link RangingReadingLocated3D}.
+     */
+    static final int RANGING_READING_LOCATED_3D = 0x27;
+
+    /**
+     * Tag of a {@link RangingAndRssiReadingLocated2D}.
+     */
+    static final int RANGING_AND_RSSI_READING_LOCATED_2D = 0x28;
+
+    /**
+     * Tag of a {@link RangingAndRssiReadingLocated3D}.
+     */
+    static final int RANGING_AND_RSSI_READING_LOCATED_3D = 0x29;
+
+    /**
+     * Tag of a {@link Fingerprint}.
+     */
+    static final int FINGERPRINT = 0x41;
+
+    /**
+     * Tag of a {@link RssiFingerprint}.
+     */
+    static final int RSSI_FINGERPRINT = 0x42;
+
+    /**
+     * Tag of a {@link RangingFingerprint}.
+     */
+    static final int RANGING_FINGERPRINT = 0x43;
+
+    /**
+     * Tag of a {@link RangingAndRssiFingerprint}.
+     */
+    static final int RANGING_AND_RSSI_FINGERPRINT = 0x44;
+
+    /**
+     * Tag of a {@link RssiFingerprintLocated2D}.
+     */
+    static final int RSSI_FINGERPRINT_LOCATED_2D = 0x45;
+
+    /**
+     * Tag of a {@link RssiFingerprintLocated3D}.
+     */
+    static final int RSSI_FINGERPRINT_LOCATED_3D = 0x46;
+
+    /**
+     * Tag of a {@link RangingFingerprintLocated2D}.
+     */
+    static final int RANGING_FINGERPRINT_LOCATED_2D = 0x47;
+
+    /**
+     * Tag of a {@link RangingFingerprintLocated3D}.
+     */
+    static final int RANGING_FINGERPRINT_LOCATED_3D = 0x48;
+
+    /**
+     * Tag of a {@link RangingAndRssiFingerprintLocated2D}.
+     */
+    static final int RANGING_AND_RSSI_FINGERPRINT_LOCATED_2D = 0x49;
+
+    /**
+     * Tag of a {@link RangingAndRssiFingerprintLocated3D}.
+     */
+    static final int RANGING_AND_RSSI_FINGERPRINT_LOCATED_3D = 0x4A;
+
+    /**
+     * Flag indicating that an optional string (SSID or bluetooth address) is present.
+     */
+    static final int FLAG_STRING = 0x01;
+
+    /**
+     * Flag indicating that an optional bluetooth name is present.
+     */
+    static final int FLAG_NAME = 0x02;
+
+    /**
+     * Flag indicating that transmitted power standard deviation is present.
+     */
+    static final int FLAG_TRANSMITTED_POWER_STD = 0x04;
+
+    /**
+     * Flag indicating that path loss exponent standard deviation is present.
+     */
+    static final int FLAG_PATH_LOSS_STD = 0x08;
+
+    /**
+     * Flag indicating that position covariance is present.
+     */
+    static final int FLAG_COVARIANCE = 0x10;
+
+    /**
+     * Flag indicating that RSSI standard deviation is present.
+     */
+    static final int FLAG_RSSI_STD = 0x01;
+
+    /**
+     * Flag indicating that distance standard deviation is present.
+     */
+    static final int FLAG_DISTANCE_STD = 0x02;
+
+    /**
+     * Flag indicating that number of attempted and successful measurements are present.
+     */
+    static final int FLAG_MEASUREMENTS = 0x04;
+
+    /**
+     * Flag indicating that RSSI is encoded as an integral difference respect to previous
+     * RSSI value.
+     */
+    static final int FLAG_RSSI_DELTA = 0x08;
+
+    /**
+     * Flag indicating that a covariance matrix is symmetric and only its upper triangular
+     * part is encoded.
+     */
+    static final int FLAG_SYMMETRIC = 0x01;
+
+    /**
+     * Default size of internal buffer used when writing into an output stream.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Raw bits of negative zero, which cannot be encoded as an integral RSSI value.
+     */
+    private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0.0);
+
+    /**
+     * Output stream where data is written or null if data is written into a buffer.
+     */
+    private final OutputStream stream;
+
+    /**
+     * Buffer where data is written or null if data is written into an output stream.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Size of pending data that triggers a write into the output stream.
+     */
+    private final int bufferSize;
+
+    /**
+     * Contains pending encoded data.
+     */
+    private final ByteSink out = new ByteSink();
+
+    /**
+     * Contains the encoding of a radio source while it is looked up on the dictionary of
+     * already encoded radio sources.
+     */
+    private final ByteSink scratch = new ByteSink();
+
+    /**
+     * Identifiers of already encoded radio sources indexed by instance.
+     */
+    private final Map<RadioSource, Integer> idsByInstance = new IdentityHashMap<>();
+
+    /**
+     * Identifiers of already encoded radio sources indexed by their encoding.
+     */
+    private final Map<ByteBuffer, Integer> idsByEncoding = new HashMap<>();
+
+    /**
+     * Already encoded radio sources in order of occurrence.
+     */
+    private final List<RadioSource> sources = new ArrayList<>();
+
+    /**
+     * Encodings of already encoded radio sources in order of occurrence.
+     */
+    private final List<ByteBuffer> encodings = new ArrayList<>();
+
+    /**
+     * Radio source instances found to be identical to an already encoded radio source,
+     * in order of occurrence.
+     */
+    private final List<RadioSource> aliases = new ArrayList<>();
+
+    /**
+     * Indicates whether header has already been written.
+     */
+    private boolean headerWritten;
+
+    /**
+     * Last encoded integral RSSI value.
+     */
+    private int previousRssi;
+
+    /**
+     * Constructor.
+     *
+     * @param stream output stream where encoded data will be written.
+     * @throws IllegalArgumentException if stream is null.
+     */
+    public BinaryEncoder(final OutputStream stream) {
+        this(stream, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param stream     output stream where encoded data will be written.
+     * @param bufferSize size of pending data that triggers a write into provided stream.
+     * @throws IllegalArgumentException if stream is null or buffer size is not positive.
+     */
+    public BinaryEncoder(final OutputStream stream, final int bufferSize) {
+        if (stream == null || bufferSize <= 0) {
+            throw new IllegalArgumentException();
+        }
+        this.stream = stream;
+        this.buffer = null;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Constructor.
+     * Each record is written into provided buffer as a whole once it has been completely
+     * encoded, so that if a record does not fit into the remaining space, the buffer is
+     * left untouched and a {@link BufferOverflowException} is thrown.
+     *
+     * @param buffer buffer where encoded data will be written.
+     * @throws IllegalArgumentException if buffer is null.
+     */
+    public BinaryEncoder(final ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new IllegalArgumentException();
+        }
+        this.stream = null;
+        this.buffer = buffer;
+        this.bufferSize = 0;
+    }
+
+    /**
+     * Gets number of distinct radio sources encoded so far.
+     *
+     * @return number of distinct radio sources encoded so far.
+     */
+    public int getNumberOfSources() {
+        return sources.size();
+    }
+
+    /**
+     * Encodes provided radio source.
+     *
+     * @param source radio source to be encoded.
+     * @throws IllegalArgumentException if radio source is null or its class is not
+     *                                  supported.
+     * @throws BufferOverflowException  if data is written into a buffer that has not
+     *                                  enough remaining space.
+     * @throws IOException              if an I/O error occurs.
+     */
+    public void writeRadioSource(final RadioSource source) throws IOException {
+        if (source == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var state = begin();
+        try {
+            encodeSource(source);
+        } catch (final RuntimeException e) {
+            rollback(state);
+            throw e;
+        }
+        commit(state);
+    }
+
+    /**
+     * Encodes provided reading.
+     *
+     * @param reading reading to be encoded.
+     * @throws IllegalArgumentException if reading is null or the class of the reading or
+     *                                  its radio source is not supported.
+     * @throws BufferOverflowException  if data is written into a buffer that has not
+     *                                  enough remaining space.
+     * @throws IOException              if an I/O error occurs.
+     */
+    public void writeReading(final Reading<?> reading) throws IOException {
+        if (reading == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var state = begin();
+        try {
+            encodeReading(reading);
+        } catch (final RuntimeException e) {
+            rollback(state);
+            throw e;
+        }
+        commit(state);
+    }
+
+    /**
+     * Encodes provided fingerprint along with all its readings.
+     *
+     * @param fingerprint fingerprint to be encoded.
+     * @throws IllegalArgumentException if fingerprint is null or the class of the
+     *                                  fingerprint, any of its readings or radio sources
+     *                                  is not supported.
+     * @throws BufferOverflowException  if data is written into a buffer that has not
+     *                                  enough remaining space.
+     * @throws IOException              if an I/O error occurs.
+     */
+    public void writeFingerprint(final Fingerprint<?, ?> fingerprint) throws IOException {
+        if (fingerprint == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var state = begin();
+        try {
+            encodeFingerprint(fingerprint);
+        } catch (final RuntimeException e) {
+            rollback(state);
+            throw e;
+        }
+        commit(state);
+    }
+
+    /**
+     * Writes any pending data into the output stream and flushes it.
+     * Header is written if nothing has been encoded yet, so that an empty stream can
+     * still be decoded.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!headerWritten) {
+            final var state = begin();
+            commit(state);
+        }
+        if (stream != null) {
+            drain();
+            stream.flush();
+        }
+    }
+
+    /**
+     * Prepares encoding of a new record.
+     *
+     * @return state of the encoder to restore if record cannot be encoded.
+     */
+    private int[] begin() {
+        final var state = new int[]{out.size, sources.size(), aliases.size(), previousRssi, headerWritten ? 1 : 0};
+        if (!headerWritten) {
+            out.writeBytes(MAGIC, 0, MAGIC.length);
+            out.writeByte(VERSION);
+            headerWritten = true;
+        }
+        return state;
+    }
+
+    /**
+     * Commits an encoded record.
+     *
+     * @param state state of the encoder before encoding the record.
+     * @throws BufferOverflowException if data is written into a buffer that has not enough
+     *                                 remaining space.
+     * @throws IOException             if an I/O error occurs.
+     */
+    private void commit(final int[] state) throws IOException {
+        if (buffer != null) {
+            if (buffer.remaining() < out.size) {
+                rollback(state);
+                throw new BufferOverflowException();
+            }
+            buffer.put(out.data, 0, out.size);
+            out.size = 0;
+        } else if (out.size >= bufferSize) {
+            drain();
+        }
+    }
+
+    /**
+     * Restores state of the encoder after a record could not be encoded.
+     *
+     * @param state state of the encoder before encoding the record.
+     */
+    private void rollback(final int[] state) {
+        out.size = state[0];
+        for (var i = sources.size() - 1; i >= state[1]; i--) {
+            idsByInstance.remove(sources.remove(i));
+            idsByEncoding.remove(encodings.remove(i));
+        }
+        for (var i = aliases.size() - 1; i >= state[2]; i--) {
+            idsByInstance.remove(aliases.remove(i));
+        }
+        previousRssi = state[3];
+        headerWritten = state[4] != 0;
+    }
+
+    /**
+     * Writes pending data into the output stream.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    private void drain() throws IOException {
+        if (out.size > 0) {
+            stream.write(out.data, 0, out.size);
+            out.size = 0;
+        }
+    }
+
+    /**
+     * Encodes a radio source either as a reference to an already encoded identical
+     * radio source, or inline, preceded by a zero.
+     *
+     * @param source radio source to be encoded.
+     */
+    private void encodeSource(final RadioSource source) {
+        var id = idsByInstance.get(source);
+        if (id == null) {
+            scratch.size = 0;
+            encodeSourceBody(source, scratch);
+
+            final var encoding = ByteBuffer.wrap(Arrays.copyOf(scratch.data, scratch.size));
+            id = idsByEncoding.get(encoding);
+            if (id == null) {
+                // new radio source
+                idsByInstance.put(source, sources.size());
+                idsByEncoding.put(encoding, sources.size());
+                sources.add(source);
+                encodings.add(encoding);
+
+                out.writeVarLong(0);
+                out.writeBytes(scratch.data, 0, scratch.size);
+                return;
+            }
+
+            idsByInstance.put(source, id);
+            aliases.add(source);
+        }
+
+        out.writeVarLong(id + 1L);
+    }
+
+    /**
+     * Encodes the tag and contents of a radio source.
+     *
+     * @param source radio source to be encoded.
+     * @param sink   sink where data is written.
+     */
+    private static void encodeSourceBody(final RadioSource source, final ByteSink sink) {
+        final var tag = sourceTag(source);
+        sink.writeByte(tag);
+
+        var flags = 0;
+        final var powered = source instanceof RadioSourceWithPower withPower ? withPower : null;
+        final var located = source instanceof RadioSourceLocated<?> l ? l : null;
+        if (powered != null) {
+            if (powered.getTransmittedPowerStandardDeviation() != null) {
+                flags |= FLAG_TRANSMITTED_POWER_STD;
+            }
+            if (powered.getPathLossExponentStandardDeviation() != null) {
+                flags |= FLAG_PATH_LOSS_STD;
+            }
+        }
+        if (located != null && located.getPositionCovariance() != null) {
+            flags |= FLAG_COVARIANCE;
+        }
+
+        if (source instanceof WifiAccessPoint accessPoint) {
+            if (accessPoint.getSsid() != null) {
+                flags |= FLAG_STRING;
+            }
+            sink.writeByte(flags);
+            sink.writeString(accessPoint.getBssid());
+            sink.writeDouble(accessPoint.getFrequency());
+            if (accessPoint.getSsid() != null) {
+                sink.writeString(accessPoint.getSsid());
+            }
+            if (powered != null) {
+                sink.writeDouble(powered.getTransmittedPower());
+            }
+        } else {
+            final var beacon = (Beacon) source;
+            if (beacon.getBluetoothAddress() != null) {
+                flags |= FLAG_STRING;
+            }
+            if (beacon.getBluetoothName() != null) {
+                flags |= FLAG_NAME;
+            }
+            sink.writeByte(flags);
+
+            final var identifiers = beacon.getIdentifiers();
+            sink.writeVarLong(identifiers.size());
+            for (final var identifier : identifiers) {
+                final var count = identifier.getByteCount();
+                sink.writeVarLong(count);
+                for (var i = 0; i < count; i++) {
+                    sink.writeByte(identifier.byteAt(i));
+                }
+            }
+            sink.writeDouble(beacon.getTransmittedPower());
+            sink.writeDouble(beacon.getFrequency());
+            if (beacon.getBluetoothAddress() != null) {
+                sink.writeString(beacon.getBluetoothAddress());
+            }
+            if (beacon.getBluetoothName() != null) {
+                sink.writeString(beacon.getBluetoothName());
+            }
+            sink.writeVarLong(zigZag(beacon.getBeaconTypeCode()));
+            sink.writeVarLong(zigZag(beacon.getManufacturer()));
+            sink.writeVarLong(zigZag(beacon.getServiceUuid()));
+        }
+
+        if (powered != null) {
+            if (powered.getTransmittedPowerStandardDeviation() != null) {
+                sink.writeDouble(powered.getTransmittedPowerStandardDeviation());
+            }
+            sink.writeDouble(powered.getPathLossExponent());
+            if (powered.getPathLossExponentStandardDeviation() != null) {
+                sink.writeDouble(powered.getPathLossExponentStandardDeviation());
+            }
+        }
+        if (located != null) {
+            writePosition(located.getPosition(), located.getPositionCovariance(), sink);
+        }
+    }
+
+    /**
+     * Encodes a reading.
+     *
+     * @param reading reading to be encoded.
+     */
+    private void encodeReading(final Reading<?> reading) {
+        final var tag = readingTag(reading);
+
+        Double rssiStd = null;
+        Double distanceStd = null;
+        var hasRssi = false;
+        var rssi = 0.0;
+        var hasDistance = false;
+        var distance = 0.0;
+        var numAttempted = RangingReading.DEFAULT_NUM_MEASUREMENTS;
+        var numSuccessful = RangingReading.DEFAULT_NUM_MEASUREMENTS;
+        if (reading instanceof RssiReading<?> rssiReading) {
+            hasRssi = true;
+            rssi = rssiReading.getRssi();
+            rssiStd = rssiReading.getRssiStandardDeviation();
+        } else if (reading instanceof RangingReading<?> rangingReading) {
+            hasDistance = true;
+            distance = rangingReading.getDistance();
+            distanceStd = rangingReading.getDistanceStandardDeviation();
+            numAttempted = rangingReading.getNumAttemptedMeasurements();
+            numSuccessful = rangingReading.getNumSuccessfulMeasurements();
+        } else {
+            final var rangingAndRssiReading = (RangingAndRssiReading<?>) reading;
+            hasRssi = true;
+            rssi = rangingAndRssiReading.getRssi();
+            rssiStd = rangingAndRssiReading.getRssiStandardDeviation();
+            hasDistance = true;
+            distance = rangingAndRssiReading.getDistance();
+            distanceStd = rangingAndRssiReading.getDistanceStandardDeviation();
+            numAttempted = rangingAndRssiReading.getNumAttemptedMeasurements();
+            numSuccessful = rangingAndRssiReading.getNumSuccessfulMeasurements();
+        }
+
+        var flags = 0;
+        if (rssiStd != null) {
+            flags |= FLAG_RSSI_STD;
+        }
+        if (distanceStd != null) {
+            flags |= FLAG_DISTANCE_STD;
+        }
+        if (numAttempted != RangingReading.DEFAULT_NUM_MEASUREMENTS
+                || numSuccessful != RangingReading.DEFAULT_NUM_MEASUREMENTS) {
+            flags |= FLAG_MEASUREMENTS;
+        }
+        final var integralRssi = hasRssi && isIntegral(rssi);
+        if (integralRssi) {
+            flags |= FLAG_RSSI_DELTA;
+        }
+        final var located = reading instanceof ReadingLocated<?> l ? l : null;
+        if (located != null && located.getPositionCovariance() != null) {
+            flags |= FLAG_COVARIANCE;
+        }
+
+        out.writeByte(tag);
+        out.writeByte(flags);
+        encodeSource(reading.getSource());
+
+        if (hasDistance) {
+            out.writeDouble(distance);
+            if (distanceStd != null) {
+                out.writeDouble(distanceStd);
+            }
+            if ((flags & FLAG_MEASUREMENTS) != 0) {
+                out.writeVarLong(numAttempted);
+                out.writeVarLong(numSuccessful);
+            }
+        }
+        if (hasRssi) {
+            if (integralRssi) {
+                final var value = (int) rssi;
+                out.writeVarLong(zigZag((long) value - previousRssi));
+                previousRssi = value;
+            } else {
+                out.writeDouble(rssi);
+            }
+            if (rssiStd != null) {
+                out.writeDouble(rssiStd);
+            }
+        }
+        if (located != null) {
+            writePosition(located.getPosition(), located.getPositionCovariance(), out);
+        }
+    }
+
+    /**
+     * Encodes a fingerprint.
+     *
+     * @param fingerprint fingerprint to be encoded.
+     */
+    private void encodeFingerprint(final Fingerprint<?, ?> fingerprint) {
+        final var tag = fingerprintTag(fingerprint);
+        final var located = fingerprint instanceof FingerprintLocated<?> l ? l : null;
+
+        var flags = 0;
+        if (located != null && located.getPositionCovariance() != null) {
+            flags |= FLAG_COVARIANCE;
+        }
+
+        out.writeByte(tag);
+        out.writeByte(flags);
+
+        final var readings = fingerprint.getReadings();
+        out.writeVarLong(readings.size());
+        for (final var reading : readings) {
+            encodeReading(reading);
+        }
+
+        if (located != null) {
+            writePosition(located.getPosition(), located.getPositionCovariance(), out);
+        }
+    }
+
+    /**
+     * Writes inhomogeneous coordinates of a position and its covariance, if available.
+     * Presence of covariance must have been indicated with {@link #FLAG_COVARIANCE}.
+     *
+     * @param position   position to be written.
+     * @param covariance covariance to be written or null.
+     * @param sink       sink where data is written.
+     */
+    private static void writePosition(final Point<?> position, final Matrix covariance, final ByteSink sink) {
+        final var dims = position.getDimensions();
+        for (var i = 0; i < dims; i++) {
+            sink.writeDouble(position.getInhomogeneousCoordinate(i));
+        }
+
+        if (covariance != null) {
+            writeMatrix(covariance, sink);
+        }
+    }
+
+    /**
+     * Writes a matrix.
+     *
+     * @param m    matrix to be written.
+     * @param sink sink where data is written.
+     */
+    private static void writeMatrix(final Matrix m, final ByteSink sink) {
+        final var rows = m.getRows();
+        final var columns = m.getColumns();
+        final var symmetric = rows == columns && isSymmetric(m);
+
+        sink.writeVarLong(rows);
+        sink.writeVarLong(columns);
+        sink.writeByte(symmetric ? FLAG_SYMMETRIC : 0);
+        if (symmetric) {
+            for (var i = 0; i < rows; i++) {
+                for (var j = i; j < columns; j++) {
+                    sink.writeDouble(m.getElementAt(i, j));
+                }
+            }
+        } else {
+            for (var i = 0; i < rows; i++) {
+                for (var j = 0; j < columns; j++) {
+                    sink.writeDouble(m.getElementAt(i, j));
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates whether a square matrix is exactly symmetric.
+     *
+     * @param m matrix to be checked.
+     * @return true if matrix is symmetric, false otherwise.
+     */
+    private static boolean isSymmetric(final Matrix m) {
+        final var n = m.getRows();
+        for (var i = 0; i < n; i++) {
+            for (var j = i + 1; j < n; j++) {
+                if (Double.doubleToLongBits(m.getElementAt(i, j))
+                        != Double.doubleToLongBits(m.getElementAt(j, i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Indicates whether an RSSI value can be encoded as an integral value without
+     * loss of precision.
+     *
+     * @param rssi RSSI value.
+     * @return true if value is integral, false otherwise.
+     */
+    private static boolean isIntegral(final double rssi) {
+        return rssi == Math.rint(rssi) && rssi >= Integer.MIN_VALUE && rssi <= Integer.MAX_VALUE
+                && Double.doubleToRawLongBits(rssi) != NEGATIVE_ZERO_BITS;
+    }
+
+    /**
+     * Maps a signed value into an unsigned value, so that values with small magnitude
+     * take few bytes when encoded as a variable length integer.
+     *
+     * @param value value to be mapped.
+     * @return mapped value.
+     */
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Gets tag of a radio source.
+     *
+     * @param source radio source.
+     * @return tag of radio source.
+     * @throws IllegalArgumentException if class of radio source is not supported.
+     */
+    private static int sourceTag(final RadioSource source) {
+        final var c = source.getClass();
+        if (c == WifiAccessPoint.class) {
+            return WIFI_ACCESS_POINT;
+        } else if (c == WifiAccessPointWithPower.class) {
+            return WIFI_ACCESS_POINT_WITH_POWER;
+        } else if (c == WifiAccessPointLocated2D.class) {
+            return WIFI_ACCESS_POINT_LOCATED_2D;
+        } else if (c == WifiAccessPointLocated3D.class) {
+            return WIFI_ACCESS_POINT_LOCATED_3D;
+        } else if (c == WifiAccessPointWithPowerAndLocated2D.class) {
+            return WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_2D;
+        } else if (c == WifiAccessPointWithPowerAndLocated3D.class) {
+            return WIFI_ACCESS_POINT_WITH_POWER_AND_LOCATED_3D;
+        } else if (c == Beacon.class) {
+            return BEACON;
+        } else if (c == BeaconWithPower.class) {
+            return BEACON_WITH_POWER;
+        } else if (c == BeaconLocated2D.class) {
+            return BEACON_LOCATED_2D;
+        } else if (c == BeaconLocated3D.class) {
+            return BEACON_LOCATED_3D;
+        } else if (c == BeaconWithPowerAndLocated2D.class) {
+            return BEACON_WITH_POWER_AND_LOCATED_2D;
+        } else if (c == BeaconWithPowerAndLocated3D.class) {
+            return BEACON_WITH_POWER_AND_LOCATED_3D;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Gets tag of a reading.
+     *
+     * @param reading reading.
+     * @return tag of reading.
+     * @throws IllegalArgumentException if class of reading is not supported.
+     */
+    private static int readingTag(final Reading<?> reading) {
+        final var c = reading.getClass();
+        if (c == RssiReading.class) {
+            return RSSI_READING;
+        } else if (c == RangingReading.class) {
+            return RANGING_READING;
+        } else if (c == RangingAndRssiReading.class) {
+            return RANGING_AND_RSSI_READING;
+        } else if (c == RssiReadingLocated2D.class) {
+            return RSSI_READING_LOCATED_2D;
+        } else if (c == RssiReadingLocated3D.class) {
+            return RSSI_READING_LOCATED_3D;
+        } else if (c == RangingReadingLocated2D.class) {
+            return RANGING_READING_LOCATED_2D;
+        } else if (c == RangingReadingLocated3D.class) {
+            return RANGING_READING_LOCATED_3D;
+        } else if (c == RangingAndRssiReadingLocated2D.class) {
+            return RANGING_AND_RSSI_READING_LOCATED_2D;
+        } else if (c == RangingAndRssiReadingLocated3D.class) {
+            return RANGING_AND_RSSI_READING_LOCATED_3D;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Gets tag of a fingerprint.
+     *
+     * @param fingerprint fingerprint.
+     * @return tag of fingerprint.
+     * @throws IllegalArgumentException if class of fingerprint is not supported.
+     */
+    private static int fingerprintTag(final Fingerprint<?, ?> fingerprint) {
+        final var c = fingerprint.getClass();
+        if (c == Fingerprint.class) {
+            return FINGERPRINT;
+        } else if (c == RssiFingerprint.class) {
+            return RSSI_FINGERPRINT;
+        } else if (c == RangingFingerprint.class) {
+            return RANGING_FINGERPRINT;
+        } else if (c == RangingAndRssiFingerprint.class) {
+            return RANGING_AND_RSSI_FINGERPRINT;
+        } else if (c == RssiFingerprintLocated2D.class) {
+            return RSSI_FINGERPRINT_LOCATED_2D;
+        } else if (c == RssiFingerprintLocated3D.class) {
+            return RSSI_FINGERPRINT_LOCATED_3D;
+        } else if (c == RangingFingerprintLocated2D.class) {
+            return RANGING_FINGERPRINT_LOCATED_2D;
+        } else if (c == RangingFingerprintLocated3D.class) {
+            return RANGING_FINGERPRINT_LOCATED_3D;
+        } else if (c == RangingAndRssiFingerprintLocated2D.class) {
+            return RANGING_AND_RSSI_FINGERPRINT_LOCATED_2D;
+        } else if (c == RangingAndRssiFingerprintLocated3D.class) {
+            return RANGING_AND_RSSI_FINGERPRINT_LOCATED_3D;
+        }
+        throw new IllegalArgumentException();
+    }
+
+    /**
+     * Growable array of bytes where encoded data is written.
+     */
+    private static final class ByteSink {
+
+        /**
+         * Written data.
+         */
+        private byte[] data = new byte[64];
+
+        /**
+         * Number of written bytes.
+         */
+        private int size;
+
+        /**
+         * Writes a byte.
+         *
+         * @param value byte to be written.
+         */
+        void writeByte(final int value) {
+            ensureCapacity(1);
+            data[size++] = (byte) value;
+        }
+
+        /**
+         * Writes a range of bytes.
+         *
+         * @param bytes  array containing bytes to be written.
+         * @param offset position of first byte to be written.
+         * @param length number of bytes to be written.
+         */
+        void writeBytes(final byte[] bytes, final int offset, final int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, data, size, length);
+            size += length;
+        }
+
+        /**
+         * Writes an unsigned value as a variable length integer using 7 bits per byte.
+         *
+         * @param value value to be written.
+         */
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        /**
+         * Writes raw bits of a double value in little endian order.
+         *
+         * @param value value to be written.
+         */
+        void writeDouble(final double value) {
+            ensureCapacity(Double.BYTES);
+            var bits = Double.doubleToRawLongBits(value);
+            for (var i = 0; i < Double.BYTES; i++) {
+                data[size++] = (byte) bits;
+                bits >>>= 8;
+            }
+        }
+
+        /**
+         * Writes a string as its UTF-8 length followed by its UTF-8 bytes.
+         *
+         * @param value string to be written.
+         */
+        void writeString(final String value) {
+            final var bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Ensures that there is space for provided number of bytes.
+         *
+         * @param length number of bytes to be written.
+         */
+        private void ensureCapacity(final int length) {
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length << 1, size + length));
+            }
+        }
+    }
+}
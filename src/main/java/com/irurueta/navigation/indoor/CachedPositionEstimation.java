@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+
+/**
+ * Position estimation stored in a {@link PositionEstimationCache}.
+ * Cached positions and covariances are shared among all the estimations reusing them,
+ * hence they must not be modified.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class CachedPositionEstimation<P extends Point<?>> {
+
+    /**
+     * Estimated position.
+     */
+    private final P position;
+
+    /**
+     * Covariance of estimated position or null if not available.
+     */
+    private final Matrix covariance;
+
+    /**
+     * Timestamp when estimation was stored expressed in milliseconds.
+     */
+    private final long timestamp;
+
+    /**
+     * Number of times this estimation has been reused.
+     */
+    private long hits;
+
+    /**
+     * Constructor.
+     *
+     * @param position   estimated position.
+     * @param covariance covariance of estimated position or null if not available.
+     * @param timestamp  timestamp when estimation is stored expressed in milliseconds.
+     */
+    CachedPositionEstimation(final P position, final Matrix covariance, final long timestamp) {
+        this.position = position;
+        this.covariance = covariance;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets estimated position.
+     *
+     * @return estimated position.
+     */
+    public P getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets covariance of estimated position.
+     *
+     * @return covariance of estimated position or null if not available.
+     */
+    public Matrix getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Gets timestamp when estimation was stored expressed in milliseconds.
+     *
+     * @return timestamp when estimation was stored.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets number of times this estimation has been reused.
+     *
+     * @return number of times this estimation has been reused.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Increases number of times this estimation has been reused.
+     */
+    void hit() {
+        hits++;
+    }
+}
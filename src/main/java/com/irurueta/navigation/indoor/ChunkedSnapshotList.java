@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Mutable list of elements stored in fixed size chunks, which can publish immutable
+ * snapshots sharing unmodified chunks with the list and with previous snapshots.
+ * Publishing a snapshot only copies references to chunks, and the first modification
+ * of a chunk after publishing a snapshot copies that chunk. Hence, for a list of N
+ * elements, publishing a snapshot costs O(N / {@link #CHUNK_SIZE}) and each
+ * modification costs at most O({@link #CHUNK_SIZE}), instead of copying all elements
+ * on each snapshot.
+ * Only elements at the end of the list can be removed.
+ * This class is not thread safe, although published snapshots can be safely shared
+ * among threads.
+ *
+ * @param <E> type of elements.
+ */
+final class ChunkedSnapshotList<E> {
+
+    /**
+     * Number of bits of the position of an element within its chunk.
+     */
+    private static final int CHUNK_BITS = 6;
+
+    /**
+     * Number of elements stored in each chunk.
+     */
+    static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * Mask to obtain the position of an element within its chunk.
+     */
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Chunks containing elements of this list.
+     */
+    private Object[][] chunks = new Object[0][];
+
+    /**
+     * Chunks shared with published snapshots, which must be copied before being
+     * modified.
+     */
+    private final BitSet sharedChunks = new BitSet();
+
+    /**
+     * Number of elements.
+     */
+    private int size;
+
+    /**
+     * Gets number of elements.
+     *
+     * @return number of elements.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets element at provided position.
+     *
+     * @param index position of element.
+     * @return element at provided position.
+     * @throws IndexOutOfBoundsException if position is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    E get(final int index) {
+        Objects.checkIndex(index, size);
+        return (E) chunks[index >> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Adds an element at the end of this list.
+     *
+     * @param element element to be added.
+     */
+    void add(final E element) {
+        final var chunk = size >> CHUNK_BITS;
+        if (chunk == chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(1, 2 * chunks.length));
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new Object[CHUNK_SIZE];
+        }
+        writableChunk(chunk)[size & CHUNK_MASK] = element;
+        size++;
+    }
+
+    /**
+     * Replaces element at provided position.
+     *
+     * @param index   position of element.
+     * @param element new element.
+     * @return replaced element.
+     * @throws IndexOutOfBoundsException if position is out of bounds.
+     */
+    @SuppressWarnings("unchecked")
+    E set(final int index, final E element) {
+        Objects.checkIndex(index, size);
+        final var chunk = writableChunk(index >> CHUNK_BITS);
+        final var previous = (E) chunk[index & CHUNK_MASK];
+        chunk[index & CHUNK_MASK] = element;
+        return previous;
+    }
+
+    /**
+     * Removes last element.
+     *
+     * @return removed element.
+     * @throws IndexOutOfBoundsException if list is empty.
+     */
+    @SuppressWarnings("unchecked")
+    E removeLast() {
+        final var index = size - 1;
+        Objects.checkIndex(index, size);
+        final var chunk = writableChunk(index >> CHUNK_BITS);
+        final var previous = (E) chunk[index & CHUNK_MASK];
+        chunk[index & CHUNK_MASK] = null;
+        size = index;
+        return previous;
+    }
+
+    /**
+     * Publishes an immutable snapshot of current elements.
+     * Chunks are shared with the snapshot, so that they are copied before being
+     * modified again.
+     *
+     * @return unmodifiable list containing current elements.
+     */
+    List<E> snapshot() {
+        final var numChunks = (size + CHUNK_MASK) >> CHUNK_BITS;
+        sharedChunks.set(0, numChunks);
+        return new Snapshot<>(Arrays.copyOf(chunks, numChunks), size);
+    }
+
+    /**
+     * Gets a chunk that can be modified, copying it first if it is shared with any
+     * published snapshot.
+     *
+     * @param chunk position of chunk.
+     * @return chunk that can be modified.
+     */
+    private Object[] writableChunk(final int chunk) {
+        if (sharedChunks.get(chunk)) {
+            chunks[chunk] = chunks[chunk].clone();
+            sharedChunks.clear(chunk);
+        }
+        return chunks[chunk];
+    }
+
+    /**
+     * Immutable snapshot of the elements of a chunked list.
+     *
+     * @param <E> type of elements.
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+
+        /**
+         * Chunks containing elements, which are never modified.
+         */
+        private final Object[][] chunks;
+
+        /**
+         * Number of elements.
+         */
+        private final int size;
+
+        /**
+         * Constructor.
+         *
+         * @param chunks chunks containing elements.
+         * @param size   number of elements.
+         */
+        Snapshot(final Object[][] chunks, final int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        /**
+         * Gets element at provided position.
+         *
+         * @param index position of element.
+         * @return element at provided position.
+         * @throws IndexOutOfBoundsException if position is out of bounds.
+         */
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(final int index) {
+            Objects.checkIndex(index, size);
+            return (E) chunks[index >> CHUNK_BITS][index & CHUNK_MASK];
+        }
+
+        /**
+         * Gets number of elements.
+         *
+         * @return number of elements.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
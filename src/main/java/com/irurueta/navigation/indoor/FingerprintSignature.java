@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Quantized signature of the readings contained in a fingerprint.
+ * Readings are reduced to the identifiers of their radio sources along with binned
+ * values of their RSSI and distance, so that nearly identical fingerprints (e.g. those
+ * received by a stationary device) have equal signatures regardless of the order of
+ * their readings.
+ * When a fingerprint contains several readings of the same radio source, their
+ * average value is binned.
+ */
+public class FingerprintSignature {
+
+    /**
+     * Binned RSSI values of each radio source.
+     */
+    private final Map<RadioSource, Long> rssiBins;
+
+    /**
+     * Binned distance values of each radio source.
+     */
+    private final Map<RadioSource, Long> distanceBins;
+
+    /**
+     * Hash code, computed once since signatures are immutable.
+     */
+    private final int hashCode;
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprint     fingerprint to obtain signature from.
+     * @param rssiBinSize     size of RSSI bins expressed in dBm's.
+     * @param distanceBinSize size of distance bins expressed in meters.
+     * @throws IllegalArgumentException if fingerprint is null or any bin size is zero
+     *                                  or negative.
+     */
+    public FingerprintSignature(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final double rssiBinSize, final double distanceBinSize) {
+        if (fingerprint == null || rssiBinSize <= 0.0 || distanceBinSize <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        final var rssiSums = new HashMap<RadioSource, double[]>();
+        final var distanceSums = new HashMap<RadioSource, double[]>();
+        for (final var reading : fingerprint.getReadings()) {
+            final var source = reading.getSource();
+            if (reading instanceof RssiReading<?> rssiReading) {
+                accumulate(rssiSums, source, rssiReading.getRssi());
+            } else if (reading instanceof RangingReading<?> rangingReading) {
+                accumulate(distanceSums, source, rangingReading.getDistance());
+            } else if (reading instanceof RangingAndRssiReading<?> rangingAndRssiReading) {
+                accumulate(rssiSums, source, rangingAndRssiReading.getRssi());
+                accumulate(distanceSums, source, rangingAndRssiReading.getDistance());
+            }
+        }
+
+        rssiBins = bin(rssiSums, rssiBinSize);
+        distanceBins = bin(distanceSums, distanceBinSize);
+        hashCode = 31 * rssiBins.hashCode() + distanceBins.hashCode();
+    }
+
+    /**
+     * Gets binned RSSI values of each radio source.
+     *
+     * @return unmodifiable map of binned RSSI values.
+     */
+    public Map<RadioSource, Long> getRssiBins() {
+        return rssiBins;
+    }
+
+    /**
+     * Gets binned distance values of each radio source.
+     *
+     * @return unmodifiable map of binned distance values.
+     */
+    public Map<RadioSource, Long> getDistanceBins() {
+        return distanceBins;
+    }
+
+    /**
+     * Indicates whether this signature is equal to provided object.
+     *
+     * @param obj object to be compared.
+     * @return true if both signatures contain the same radio sources with the same
+     * binned values, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FingerprintSignature other)) {
+            return false;
+        }
+        return hashCode == other.hashCode && rssiBins.equals(other.rssiBins)
+                && distanceBins.equals(other.distanceBins);
+    }
+
+    /**
+     * Gets hash code for this instance.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Accumulates a value of provided radio source.
+     *
+     * @param sums   map containing sum of values and number of values of each radio
+     *               source.
+     * @param source radio source.
+     * @param value  value to be accumulated.
+     */
+    private static void accumulate(final Map<RadioSource, double[]> sums, final RadioSource source,
+                                   final double value) {
+        final var sum = sums.computeIfAbsent(source, s -> new double[2]);
+        sum[0] += value;
+        sum[1]++;
+    }
+
+    /**
+     * Bins average values of each radio source.
+     *
+     * @param sums    map containing sum of values and number of values of each radio
+     *                source.
+     * @param binSize size of bins.
+     * @return unmodifiable map containing binned values.
+     */
+    private static Map<RadioSource, Long> bin(final Map<RadioSource, double[]> sums, final double binSize) {
+        if (sums.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final var result = new HashMap<RadioSource, Long>();
+        for (final var entry : sums.entrySet()) {
+            final var sum = entry.getValue();
+            result.put(entry.getKey(), Math.round(sum[0] / sum[1] / binSize));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
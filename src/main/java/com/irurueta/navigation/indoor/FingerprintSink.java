@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.io.IOException;
+
+/**
+ * Receives located fingerprints as they are produced (e.g. by a {@link RadioMapIngestor}).
+ * A sink can store fingerprints in memory (e.g. {@code list::add}) or write them elsewhere
+ * (e.g. {@code encoder::writeFingerprint} using a {@link BinaryEncoder}).
+ *
+ * @param <P> a {@link Point} type.
+ */
+@FunctionalInterface
+public interface FingerprintSink<P extends Point<?>> {
+
+    /**
+     * Receives a located fingerprint.
+     *
+     * @param fingerprint located fingerprint.
+     * @throws IOException if fingerprint cannot be stored.
+     */
+    void write(final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint)
+            throws IOException;
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.indoor.fingerprint.BaseFingerprintPositionEstimator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Radio map of a multi-storey venue partitioned by building and floor.
+ * Each partition (see {@link RadioMapPartitionKey}) is kept on its own {@link RadioMap}.
+ * Partition of each located fingerprint can be explicitly provided or otherwise it is
+ * derived from the fingerprint position.
+ * <p>
+ * Queries are made hierarchically: first a cheap classification pass compares the query
+ * fingerprint against a signature of each partition, containing the average RSSI and
+ * visibility of each radio source within the partition. Then nearest fingerprint searches
+ * and fingerprint position estimations are made only within the fingerprints of the
+ * most likely partitions.
+ * This reduces search cost roughly by the number of partitions and prevents matches with
+ * fingerprints of other floors, which often have similar readings but a very different
+ * position.
+ * Signatures of partitions are computed when first required after a partition changes.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class PartitionedRadioMap<P extends Point<?>> {
+
+    /**
+     * Default number of most likely partitions where nearest fingerprints are searched.
+     */
+    public static final int DEFAULT_MAX_SEARCHED_PARTITIONS = 1;
+
+    /**
+     * Default RSSI assumed for radio sources not being received (expressed in dBm's).
+     */
+    public static final double DEFAULT_MISSING_RSSI = -100.0;
+
+    /**
+     * Partitions of this radio map.
+     */
+    private final ConcurrentHashMap<RadioMapPartitionKey, Partition<P>> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Number of most likely partitions where nearest fingerprints are searched.
+     */
+    private volatile int maxSearchedPartitions = DEFAULT_MAX_SEARCHED_PARTITIONS;
+
+    /**
+     * RSSI assumed for radio sources not being received (expressed in dBm's).
+     */
+    private volatile double missingRssi = DEFAULT_MISSING_RSSI;
+
+    /**
+     * Gets number of most likely partitions where nearest fingerprints are searched.
+     *
+     * @return number of most likely partitions to search.
+     */
+    public int getMaxSearchedPartitions() {
+        return maxSearchedPartitions;
+    }
+
+    /**
+     * Sets number of most likely partitions where nearest fingerprints are searched.
+     *
+     * @param maxSearchedPartitions number of most likely partitions to search.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     */
+    public void setMaxSearchedPartitions(final int maxSearchedPartitions) {
+        if (maxSearchedPartitions < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxSearchedPartitions = maxSearchedPartitions;
+    }
+
+    /**
+     * Gets RSSI assumed for radio sources not being received when classifying partitions.
+     *
+     * @return RSSI assumed for missing radio sources (expressed in dBm's).
+     */
+    public double getMissingRssi() {
+        return missingRssi;
+    }
+
+    /**
+     * Sets RSSI assumed for radio sources not being received when classifying partitions.
+     *
+     * @param missingRssi RSSI assumed for missing radio sources (expressed in dBm's).
+     */
+    public void setMissingRssi(final double missingRssi) {
+        this.missingRssi = missingRssi;
+    }
+
+    /**
+     * Gets keys of partitions currently containing fingerprints.
+     *
+     * @return keys of partitions.
+     */
+    public Set<RadioMapPartitionKey> getPartitions() {
+        return Set.copyOf(partitions.keySet());
+    }
+
+    /**
+     * Gets radio map of provided partition.
+     *
+     * @param key key of partition.
+     * @return radio map of partition or null if partition contains no fingerprints.
+     */
+    public RadioMap<P> getRadioMap(final RadioMapPartitionKey key) {
+        final var partition = partitions.get(key);
+        return partition != null ? partition.radioMap : null;
+    }
+
+    /**
+     * Gets total number of fingerprints among all partitions.
+     *
+     * @return number of fingerprints.
+     */
+    public int size() {
+        var result = 0;
+        for (final var partition : partitions.values()) {
+            result += partition.radioMap.size();
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a located fingerprint into the partition derived from its position.
+     *
+     * @param fingerprint located fingerprint to be inserted.
+     * @return key of partition where fingerprint has been inserted.
+     * @throws IllegalArgumentException if fingerprint is null, is already contained or
+     *                                  its partition cannot be derived from its position.
+     */
+    public RadioMapPartitionKey insert(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        if (fingerprint == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var key = getPartitionKey(fingerprint.getPosition());
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+
+        insert(key, fingerprint);
+        return key;
+    }
+
+    /**
+     * Inserts a located fingerprint into provided partition.
+     *
+     * @param key         key of partition.
+     * @param fingerprint located fingerprint to be inserted.
+     * @throws IllegalArgumentException if any parameter is null or fingerprint is already
+     *                                  contained.
+     */
+    public synchronized void insert(
+            final RadioMapPartitionKey key,
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        if (key == null || fingerprint == null || contains(fingerprint)) {
+            throw new IllegalArgumentException();
+        }
+
+        partitions.computeIfAbsent(key, k -> new Partition<>(createRadioMap())).radioMap.insert(fingerprint);
+    }
+
+    /**
+     * Indicates whether provided fingerprint is contained in any partition.
+     *
+     * @param fingerprint fingerprint to be checked.
+     * @return true if fingerprint is contained, false otherwise.
+     */
+    public boolean contains(final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        for (final var partition : partitions.values()) {
+            if (partition.radioMap.contains(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a located fingerprint.
+     * Partitions left without fingerprints are removed.
+     *
+     * @param fingerprint located fingerprint to be removed.
+     * @return true if fingerprint was removed, false if it was not contained.
+     */
+    public synchronized boolean remove(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        for (final var entry : partitions.entrySet()) {
+            final var radioMap = entry.getValue().radioMap;
+            if (radioMap.remove(fingerprint)) {
+                if (radioMap.size() == 0) {
+                    partitions.remove(entry.getKey());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a retired radio source from all partitions.
+     *
+     * @param source radio source to be removed.
+     * @return number of fingerprints that contained provided radio source.
+     * @throws IllegalArgumentException if source is null.
+     * @see RadioMap#removeSource(RadioSource)
+     */
+    public synchronized int removeSource(final RadioSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException();
+        }
+
+        var result = 0;
+        for (final var entry : partitions.entrySet()) {
+            final var radioMap = entry.getValue().radioMap;
+            result += radioMap.removeSource(source);
+            if (radioMap.size() == 0) {
+                partitions.remove(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Classifies provided fingerprint among partitions.
+     * Each partition is scored by the expected squared signal distance between provided
+     * readings and the average readings of the partition, where radio sources not always
+     * received within a partition are weighted by their visibility and otherwise assumed
+     * to be received with the missing RSSI.
+     *
+     * @param fingerprint fingerprint to be classified.
+     * @param max         maximum number of partitions to return.
+     * @return keys of most likely partitions ordered from most to least likely.
+     * @throws IllegalArgumentException if fingerprint is null or max is less than 1.
+     */
+    public List<RadioMapPartitionKey> classify(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint, final int max) {
+        if (fingerprint == null || max < 1) {
+            throw new IllegalArgumentException();
+        }
+
+        final var missing = missingRssi;
+        final var scores = new HashMap<RadioMapPartitionKey, Double>();
+        for (final var entry : partitions.entrySet()) {
+            final var signature = entry.getValue().getSignature();
+            if (signature.size == 0) {
+                continue;
+            }
+
+            var score = 0.0;
+            for (final var reading : fingerprint.getReadings()) {
+                final var rssi = reading.getRssi();
+                final var missingDiff = rssi - missing;
+                final var index = signature.indices.get(reading.getSource());
+                if (index == null) {
+                    score += missingDiff * missingDiff;
+                } else {
+                    final var visibility = signature.visibilities[index];
+                    final var diff = rssi - signature.meanRssis[index];
+                    score += visibility * diff * diff + (1.0 - visibility) * missingDiff * missingDiff;
+                }
+            }
+            scores.put(entry.getKey(), score);
+        }
+
+        final var result = new ArrayList<>(scores.keySet());
+        result.sort(Comparator.comparingDouble(scores::get));
+        return result.size() > max ? new ArrayList<>(result.subList(0, max)) : result;
+    }
+
+    /**
+     * Gets located fingerprints of the most likely partitions for provided fingerprint.
+     *
+     * @param fingerprint fingerprint to be located.
+     * @return located fingerprints of the most likely partitions.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getCandidateFingerprints(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint) {
+        final var keys = classify(fingerprint, maxSearchedPartitions);
+        if (keys.size() == 1) {
+            final var radioMap = getRadioMap(keys.get(0));
+            return radioMap != null ? radioMap.getFingerprints() : List.of();
+        }
+
+        final var result = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>();
+        for (final var key : keys) {
+            final var radioMap = getRadioMap(key);
+            if (radioMap != null) {
+                result.addAll(radioMap.getFingerprints());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds nearest located fingerprint to provided one within the most likely partitions.
+     *
+     * @param fingerprint fingerprint to find the nearest to.
+     * @return nearest located fingerprint or null if none could be found.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> findNearestTo(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint) {
+        return RadioSourceKNearestFinder.findNearestTo(fingerprint, getCandidateFingerprints(fingerprint));
+    }
+
+    /**
+     * Finds k-nearest located fingerprints to provided one within the most likely
+     * partitions.
+     *
+     * @param fingerprint fingerprint to find the k-nearest ones to.
+     * @param k           number of nearest fingerprints to find.
+     * @return nearest fingerprints ordered from closest to farthest or an empty list if
+     * none could be found.
+     * @throws IllegalArgumentException if fingerprint is null or k is less than 1.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> findKNearestTo(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint, final int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException();
+        }
+        return RadioSourceKNearestFinder.findKNearestTo(fingerprint, getCandidateFingerprints(fingerprint), k);
+    }
+
+    /**
+     * Sets up provided fingerprint position estimator so that provided fingerprint is
+     * estimated using only the located fingerprints of the most likely partitions.
+     *
+     * @param estimator   estimator to be set up.
+     * @param fingerprint fingerprint to be located.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if any parameter is null or the most likely
+     *                                  partitions do not contain enough fingerprints.
+     */
+    public void setup(final BaseFingerprintPositionEstimator<P, ?> estimator,
+                      final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint)
+            throws LockedException {
+        if (estimator == null) {
+            throw new IllegalArgumentException();
+        }
+
+        estimator.setLocatedFingerprints(getCandidateFingerprints(fingerprint));
+        estimator.setFingerprint(fingerprint);
+    }
+
+    /**
+     * Gets key of the partition containing provided position.
+     *
+     * @param position a position.
+     * @return key of partition or null if it cannot be derived from positions.
+     */
+    protected abstract RadioMapPartitionKey getPartitionKey(final P position);
+
+    /**
+     * Creates an empty radio map for a partition.
+     *
+     * @return a new radio map.
+     */
+    protected abstract RadioMap<P> createRadioMap();
+
+    /**
+     * A partition of the radio map.
+     *
+     * @param <P> a {@link Point} type.
+     */
+    private static class Partition<P extends Point<?>> {
+
+        /**
+         * Radio map containing fingerprints of the partition.
+         */
+        private final RadioMap<P> radioMap;
+
+        /**
+         * Latest computed signature.
+         */
+        private volatile Signature signature;
+
+        /**
+         * Constructor.
+         *
+         * @param radioMap radio map containing fingerprints of the partition.
+         */
+        private Partition(final RadioMap<P> radioMap) {
+            this.radioMap = radioMap;
+        }
+
+        /**
+         * Gets signature of the latest radio map snapshot, computing it if needed.
+         *
+         * @return signature of the partition.
+         */
+        private Signature getSignature() {
+            final var snapshot = radioMap.getSnapshot();
+            var result = signature;
+            if (result == null || result.version != snapshot.getVersion()) {
+                result = new Signature(snapshot);
+                signature = result;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Average RSSI and visibility of each radio source within a partition.
+     */
+    private static class Signature {
+
+        /**
+         * Version of the radio map snapshot this signature has been computed from.
+         */
+        private final long version;
+
+        /**
+         * Number of fingerprints of the partition.
+         */
+        private final int size;
+
+        /**
+         * Position of each radio source within arrays.
+         */
+        private final Map<RadioSource, Integer> indices;
+
+        /**
+         * Average RSSI of each radio source among fingerprints receiving it.
+         */
+        private final double[] meanRssis;
+
+        /**
+         * Ratio of fingerprints receiving each radio source.
+         */
+        private final double[] visibilities;
+
+        /**
+         * Constructor.
+         *
+         * @param snapshot snapshot of the radio map of a partition.
+         */
+        private Signature(final RadioMapSnapshot<?> snapshot) {
+            version = snapshot.getVersion();
+            size = snapshot.size();
+
+            final var bySource = snapshot.getFingerprintsBySource();
+            indices = new HashMap<>(bySource.size() * 2);
+            meanRssis = new double[bySource.size()];
+            visibilities = new double[bySource.size()];
+
+            var i = 0;
+            for (final var entry : bySource.entrySet()) {
+                final var source = entry.getKey();
+                final var fingerprints = entry.getValue();
+
+                var sum = 0.0;
+                var count = 0;
+                for (final var fingerprint : fingerprints) {
+                    for (final var reading : fingerprint.getReadings()) {
+                        if (source.equals(reading.getSource())) {
+                            sum += reading.getRssi();
+                            count++;
+                        }
+                    }
+                }
+
+                indices.put(source, i);
+                meanRssis[i] = count > 0 ? sum / count : 0.0;
+                visibilities[i] = size > 0 ? (double) fingerprints.size() / size : 0.0;
+                i++;
+            }
+        }
+    }
+}
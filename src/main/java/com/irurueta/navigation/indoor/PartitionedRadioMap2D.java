@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point2D;
+
+/**
+ * Radio map of 2D located fingerprints partitioned by building and floor.
+ * Since 2D positions contain no height, partitions cannot be derived from positions and
+ * must be explicitly provided when inserting fingerprints.
+ */
+public class PartitionedRadioMap2D extends PartitionedRadioMap<Point2D> {
+
+    /**
+     * Gets key of the partition containing provided position.
+     * Partitions cannot be derived from 2D positions.
+     *
+     * @param position a position.
+     * @return always null.
+     */
+    @Override
+    protected RadioMapPartitionKey getPartitionKey(final Point2D position) {
+        return null;
+    }
+
+    /**
+     * Creates an empty radio map for a partition.
+     *
+     * @return a new radio map.
+     */
+    @Override
+    protected RadioMap<Point2D> createRadioMap() {
+        return new RadioMap2D();
+    }
+}
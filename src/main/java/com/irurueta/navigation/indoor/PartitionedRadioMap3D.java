@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point3D;
+
+/**
+ * Radio map of 3D located fingerprints partitioned by building and floor.
+ * When not explicitly provided, the floor of a fingerprint is derived from the height of
+ * its position assuming floors of equal height starting at ground level, and the
+ * building is the one provided at construction.
+ */
+public class PartitionedRadioMap3D extends PartitionedRadioMap<Point3D> {
+
+    /**
+     * Default height of each floor (expressed in meters).
+     */
+    public static final double DEFAULT_FLOOR_HEIGHT = 3.0;
+
+    /**
+     * Default height of ground floor (expressed in meters).
+     */
+    public static final double DEFAULT_GROUND_HEIGHT = 0.0;
+
+    /**
+     * Building label of partitions derived from positions or null if venue contains a
+     * single building.
+     */
+    private final String building;
+
+    /**
+     * Height of each floor (expressed in meters).
+     */
+    private final double floorHeight;
+
+    /**
+     * Height of ground floor (expressed in meters).
+     */
+    private final double groundHeight;
+
+    /**
+     * Constructor for venues containing a single building.
+     */
+    public PartitionedRadioMap3D() {
+        this(null, DEFAULT_FLOOR_HEIGHT, DEFAULT_GROUND_HEIGHT);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param building     building label of partitions derived from positions or null if
+     *                     venue contains a single building.
+     * @param floorHeight  height of each floor (expressed in meters).
+     * @param groundHeight height of ground floor (expressed in meters).
+     * @throws IllegalArgumentException if floor height is zero or negative.
+     */
+    public PartitionedRadioMap3D(final String building, final double floorHeight, final double groundHeight) {
+        if (floorHeight <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.building = building;
+        this.floorHeight = floorHeight;
+        this.groundHeight = groundHeight;
+    }
+
+    /**
+     * Gets building label of partitions derived from positions.
+     *
+     * @return building label or null if venue contains a single building.
+     */
+    public String getBuilding() {
+        return building;
+    }
+
+    /**
+     * Gets height of each floor.
+     *
+     * @return height of each floor (expressed in meters).
+     */
+    public double getFloorHeight() {
+        return floorHeight;
+    }
+
+    /**
+     * Gets height of ground floor.
+     *
+     * @return height of ground floor (expressed in meters).
+     */
+    public double getGroundHeight() {
+        return groundHeight;
+    }
+
+    /**
+     * Gets key of the partition containing provided position.
+     *
+     * @param position a position.
+     * @return key of partition.
+     */
+    @Override
+    protected RadioMapPartitionKey getPartitionKey(final Point3D position) {
+        final var floor = (int) Math.floor((position.getInhomZ() - groundHeight) / floorHeight);
+        return new RadioMapPartitionKey(building, floor);
+    }
+
+    /**
+     * Creates an empty radio map for a partition.
+     *
+     * @return a new radio map.
+     */
+    @Override
+    protected RadioMap<Point3D> createRadioMap() {
+        return new RadioMap3D();
+    }
+}
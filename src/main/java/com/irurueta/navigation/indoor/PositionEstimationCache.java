@@ -0,0 +1,600 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+
+/**
+ * Bounded cache of position estimations indexed by the {@link FingerprintSignature} of
+ * the fingerprints they were estimated from.
+ * Stationary devices send nearly identical fingerprints on each scan, which have
+ * equal signatures, so that their position can be reused instead of being estimated
+ * again.
+ * Entries expire once their time to live elapses, and when the cache is full entries
+ * are evicted following its {@link PositionEstimationCacheEvictionPolicy}.
+ * A cache must only be shared among estimators using the same radio sources, radio map
+ * and configuration, since only readings of fingerprints are taken into account.
+ * This class is thread-safe. Signatures are obtained outside the lock of the cache,
+ * so that concurrent estimators only hold it while looking up or storing entries.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class PositionEstimationCache<P extends Point<?>> {
+
+    /**
+     * Default maximum number of cached estimations.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * Default time to live of cached estimations expressed in milliseconds.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 60000;
+
+    /**
+     * Default size of RSSI bins expressed in dBm's.
+     */
+    public static final double DEFAULT_RSSI_BIN_SIZE = 2.0;
+
+    /**
+     * Default size of distance bins expressed in meters.
+     */
+    public static final double DEFAULT_DISTANCE_BIN_SIZE = 0.5;
+
+    /**
+     * Default eviction policy.
+     */
+    public static final PositionEstimationCacheEvictionPolicy DEFAULT_EVICTION_POLICY =
+            PositionEstimationCacheEvictionPolicy.LEAST_RECENTLY_USED;
+
+    /**
+     * Cached estimations ordered from least to most recently used.
+     */
+    private final LinkedHashMap<FingerprintSignature, CachedPositionEstimation<P>> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Signatures of cached estimations grouped by their number of hits. Each group is
+     * ordered from least to most recently used, so that the first signature of the
+     * first group is evicted when using the least frequently used policy.
+     */
+    private final TreeMap<Long, LinkedHashSet<FingerprintSignature>> frequencies = new TreeMap<>();
+
+    /**
+     * Maximum number of cached estimations.
+     */
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /**
+     * Time to live of cached estimations expressed in milliseconds.
+     */
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    /**
+     * Sizes of bins used to obtain fingerprint signatures.
+     */
+    private volatile SignatureBins bins = new SignatureBins(DEFAULT_RSSI_BIN_SIZE, DEFAULT_DISTANCE_BIN_SIZE);
+
+    /**
+     * Eviction policy.
+     */
+    private PositionEstimationCacheEvictionPolicy evictionPolicy = DEFAULT_EVICTION_POLICY;
+
+    /**
+     * Number of lookups finding a cached estimation.
+     */
+    private long hits;
+
+    /**
+     * Number of lookups not finding a cached estimation.
+     */
+    private long misses;
+
+    /**
+     * Number of estimations evicted because cache was full.
+     */
+    private long evictions;
+
+    /**
+     * Number of estimations removed because their time to live elapsed.
+     */
+    private long expirations;
+
+    /**
+     * Constructor.
+     */
+    public PositionEstimationCache() {
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize    maximum number of cached estimations.
+     * @param timeToLive time to live of cached estimations expressed in milliseconds,
+     *                   or zero if estimations never expire.
+     * @throws IllegalArgumentException if maximum size is less than 1 or time to live
+     *                                  is negative.
+     */
+    public PositionEstimationCache(final int maxSize, final long timeToLive) {
+        setMaxSize(maxSize);
+        setTimeToLive(timeToLive);
+    }
+
+    /**
+     * Gets maximum number of cached estimations.
+     *
+     * @return maximum number of cached estimations.
+     */
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets maximum number of cached estimations.
+     * If more estimations are currently cached, they are evicted.
+     *
+     * @param maxSize maximum number of cached estimations.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     */
+    public synchronized void setMaxSize(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxSize = maxSize;
+        while (entries.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Gets time to live of cached estimations expressed in milliseconds.
+     *
+     * @return time to live of cached estimations or zero if they never expire.
+     */
+    public synchronized long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets time to live of cached estimations expressed in milliseconds.
+     *
+     * @param timeToLive time to live of cached estimations or zero if they never
+     *                   expire.
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public synchronized void setTimeToLive(final long timeToLive) {
+        if (timeToLive < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Gets size of RSSI bins used to obtain fingerprint signatures expressed in dBm's.
+     *
+     * @return size of RSSI bins.
+     */
+    public double getRssiBinSize() {
+        return bins.rssiBinSize;
+    }
+
+    /**
+     * Sets size of RSSI bins used to obtain fingerprint signatures expressed in dBm's.
+     * Larger bins increase the number of reused estimations at the expense of accuracy.
+     * Cached estimations are removed since their signatures are no longer valid.
+     *
+     * @param rssiBinSize size of RSSI bins.
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     */
+    public synchronized void setRssiBinSize(final double rssiBinSize) {
+        if (rssiBinSize <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        bins = new SignatureBins(rssiBinSize, bins.distanceBinSize);
+        clearEntries();
+    }
+
+    /**
+     * Gets size of distance bins used to obtain fingerprint signatures expressed in
+     * meters.
+     *
+     * @return size of distance bins.
+     */
+    public double getDistanceBinSize() {
+        return bins.distanceBinSize;
+    }
+
+    /**
+     * Sets size of distance bins used to obtain fingerprint signatures expressed in
+     * meters.
+     * Larger bins increase the number of reused estimations at the expense of accuracy.
+     * Cached estimations are removed since their signatures are no longer valid.
+     *
+     * @param distanceBinSize size of distance bins.
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     */
+    public synchronized void setDistanceBinSize(final double distanceBinSize) {
+        if (distanceBinSize <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        bins = new SignatureBins(bins.rssiBinSize, distanceBinSize);
+        clearEntries();
+    }
+
+    /**
+     * Gets policy to choose the evicted estimation when cache is full.
+     *
+     * @return eviction policy.
+     */
+    public synchronized PositionEstimationCacheEvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Sets policy to choose the evicted estimation when cache is full.
+     *
+     * @param evictionPolicy eviction policy.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public synchronized void setEvictionPolicy(final PositionEstimationCacheEvictionPolicy evictionPolicy) {
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException();
+        }
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    /**
+     * Gets signature of provided fingerprint using current bin sizes.
+     *
+     * @param fingerprint fingerprint to obtain signature from.
+     * @return signature of provided fingerprint.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public FingerprintSignature getSignature(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+        return bins.getSignature(fingerprint);
+    }
+
+    /**
+     * Gets cached estimation for a fingerprint having the same signature as provided
+     * one.
+     *
+     * @param fingerprint fingerprint to look for.
+     * @return cached estimation or null if none is found or it has expired.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public CachedPositionEstimation<P> get(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+        final var usedBins = bins;
+        final var usedSignature = usedBins.getSignature(fingerprint);
+
+        synchronized (this) {
+            final var signature = getCurrentSignature(usedBins, usedSignature, fingerprint);
+            final var entry = entries.get(signature);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (isExpired(entry, getCurrentTimeMillis())) {
+                removeEntry(signature);
+                expirations++;
+                misses++;
+                return null;
+            }
+
+            removeFrequency(signature, entry.getHits());
+            entry.hit();
+            addFrequency(signature, entry.getHits());
+            hits++;
+            return entry;
+        }
+    }
+
+    /**
+     * Stores estimation obtained for provided fingerprint, replacing any estimation
+     * cached for a fingerprint having the same signature.
+     * Provided position is kept by reference, while covariance is copied.
+     *
+     * @param fingerprint fingerprint position has been estimated from.
+     * @param position    estimated position.
+     * @param covariance  covariance of estimated position or null if not available.
+     * @return cached estimation.
+     * @throws IllegalArgumentException if fingerprint or position is null.
+     */
+    public CachedPositionEstimation<P> put(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final P position, final Matrix covariance) {
+        if (position == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var usedBins = bins;
+        final var usedSignature = usedBins.getSignature(fingerprint);
+        final var cachedCovariance = covariance != null ? new Matrix(covariance) : null;
+
+        synchronized (this) {
+            final var signature = getCurrentSignature(usedBins, usedSignature, fingerprint);
+            final var entry = new CachedPositionEstimation<>(position, cachedCovariance, getCurrentTimeMillis());
+            if (removeEntry(signature) == null && entries.size() >= maxSize) {
+                evict();
+            }
+            entries.put(signature, entry);
+            addFrequency(signature, entry.getHits());
+            return entry;
+        }
+    }
+
+    /**
+     * Removes cached estimation for a fingerprint having the same signature as
+     * provided one.
+     *
+     * @param fingerprint fingerprint to look for.
+     * @return true if an estimation was removed, false otherwise.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public boolean remove(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+        final var usedBins = bins;
+        final var usedSignature = usedBins.getSignature(fingerprint);
+
+        synchronized (this) {
+            return removeEntry(getCurrentSignature(usedBins, usedSignature, fingerprint)) != null;
+        }
+    }
+
+    /**
+     * Removes all cached estimations whose time to live has elapsed.
+     * Expired estimations are otherwise removed when they are looked for.
+     *
+     * @return number of removed estimations.
+     */
+    public synchronized int purgeExpired() {
+        final var now = getCurrentTimeMillis();
+        final var it = entries.entrySet().iterator();
+        var removed = 0;
+        while (it.hasNext()) {
+            final var entry = it.next();
+            if (isExpired(entry.getValue(), now)) {
+                it.remove();
+                removeFrequency(entry.getKey(), entry.getValue().getHits());
+                removed++;
+            }
+        }
+        expirations += removed;
+        return removed;
+    }
+
+    /**
+     * Removes all cached estimations.
+     * Statistics are kept.
+     */
+    public synchronized void clear() {
+        clearEntries();
+    }
+
+    /**
+     * Gets number of cached estimations, including expired ones not yet removed.
+     *
+     * @return number of cached estimations.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets number of lookups finding a cached estimation.
+     *
+     * @return number of hits.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets number of lookups not finding a cached estimation.
+     *
+     * @return number of misses.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets ratio of lookups finding a cached estimation.
+     *
+     * @return hit ratio between 0.0 and 1.0, or 0.0 if no lookup has been made.
+     */
+    public synchronized double getHitRatio() {
+        final var lookups = hits + misses;
+        return lookups > 0 ? (double) hits / (double) lookups : 0.0;
+    }
+
+    /**
+     * Gets number of estimations evicted because cache was full.
+     *
+     * @return number of evictions.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets number of estimations removed because their time to live elapsed.
+     *
+     * @return number of expirations.
+     */
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Resets hit, miss, eviction and expiration counters.
+     */
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        expirations = 0;
+    }
+
+    /**
+     * Gets current time expressed in milliseconds used to expire cached estimations.
+     *
+     * @return current time.
+     */
+    protected long getCurrentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Indicates whether provided estimation has expired.
+     *
+     * @param entry cached estimation.
+     * @param now   current time expressed in milliseconds.
+     * @return true if estimation has expired, false otherwise.
+     */
+    private boolean isExpired(final CachedPositionEstimation<P> entry, final long now) {
+        return timeToLive > 0 && now - entry.getTimestamp() >= timeToLive;
+    }
+
+    /**
+     * Gets signature of a fingerprint using current bin sizes, reusing the signature
+     * obtained outside the lock of this cache unless bin sizes have changed meanwhile.
+     * This method must be called while holding the lock of this cache.
+     *
+     * @param usedBins      bin sizes used to obtain provided signature.
+     * @param usedSignature signature obtained outside the lock.
+     * @param fingerprint   fingerprint to obtain signature from.
+     * @return signature of provided fingerprint using current bin sizes.
+     */
+    private FingerprintSignature getCurrentSignature(
+            final SignatureBins usedBins, final FingerprintSignature usedSignature,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+        return usedBins == bins ? usedSignature : bins.getSignature(fingerprint);
+    }
+
+    /**
+     * Removes cached estimation having provided signature.
+     *
+     * @param signature signature of estimation to be removed.
+     * @return removed estimation or null if none was found.
+     */
+    private CachedPositionEstimation<P> removeEntry(final FingerprintSignature signature) {
+        final var entry = entries.remove(signature);
+        if (entry != null) {
+            removeFrequency(signature, entry.getHits());
+        }
+        return entry;
+    }
+
+    /**
+     * Removes all cached estimations.
+     */
+    private void clearEntries() {
+        entries.clear();
+        frequencies.clear();
+    }
+
+    /**
+     * Adds provided signature as the most recently used one among those having
+     * provided number of hits.
+     *
+     * @param signature signature of a cached estimation.
+     * @param hits      number of hits of cached estimation.
+     */
+    private void addFrequency(final FingerprintSignature signature, final long hits) {
+        frequencies.computeIfAbsent(hits, k -> new LinkedHashSet<>()).add(signature);
+    }
+
+    /**
+     * Removes provided signature among those having provided number of hits.
+     *
+     * @param signature signature of a cached estimation.
+     * @param hits      number of hits of cached estimation.
+     */
+    private void removeFrequency(final FingerprintSignature signature, final long hits) {
+        final var signatures = frequencies.get(hits);
+        if (signatures != null && signatures.remove(signature) && signatures.isEmpty()) {
+            frequencies.remove(hits);
+        }
+    }
+
+    /**
+     * Evicts an estimation following current eviction policy.
+     * Among least frequently used estimations, the least recently used one is evicted.
+     */
+    private void evict() {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        final FingerprintSignature evicted;
+        if (evictionPolicy == PositionEstimationCacheEvictionPolicy.LEAST_FREQUENTLY_USED) {
+            evicted = frequencies.firstEntry().getValue().iterator().next();
+        } else {
+            // entries are iterated from least to most recently used
+            evicted = entries.keySet().iterator().next();
+        }
+        removeEntry(evicted);
+        evictions++;
+    }
+
+    /**
+     * Sizes of bins used to obtain fingerprint signatures.
+     * Sizes are replaced together, so that signatures can be obtained outside the lock
+     * of the cache using consistent sizes.
+     */
+    private static final class SignatureBins {
+
+        /**
+         * Size of RSSI bins expressed in dBm's.
+         */
+        private final double rssiBinSize;
+
+        /**
+         * Size of distance bins expressed in meters.
+         */
+        private final double distanceBinSize;
+
+        /**
+         * Constructor.
+         *
+         * @param rssiBinSize     size of RSSI bins expressed in dBm's.
+         * @param distanceBinSize size of distance bins expressed in meters.
+         */
+        SignatureBins(final double rssiBinSize, final double distanceBinSize) {
+            this.rssiBinSize = rssiBinSize;
+            this.distanceBinSize = distanceBinSize;
+        }
+
+        /**
+         * Gets signature of provided fingerprint.
+         *
+         * @param fingerprint fingerprint to obtain signature from.
+         * @return signature of provided fingerprint.
+         * @throws IllegalArgumentException if fingerprint is null.
+         */
+        FingerprintSignature getSignature(
+                final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+            return new FingerprintSignature(fingerprint, rssiBinSize, distanceBinSize);
+        }
+    }
+}
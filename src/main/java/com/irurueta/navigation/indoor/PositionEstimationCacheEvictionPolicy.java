@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+/**
+ * Policy to choose the entry being evicted from a {@link PositionEstimationCache} when
+ * it is full.
+ */
+public enum PositionEstimationCacheEvictionPolicy {
+    /**
+     * Least recently used entry is evicted.
+     */
+    LEAST_RECENTLY_USED,
+
+    /**
+     * Least frequently used entry is evicted. When several entries have been used the
+     * same number of times, the least recently used one among them is evicted.
+     */
+    LEAST_FREQUENTLY_USED
+}
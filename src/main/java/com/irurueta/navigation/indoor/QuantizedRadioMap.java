@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Immutable radio map where RSSI values of located fingerprints are quantized to 8 bits.
+ * Readings of all fingerprints are stored in compressed sparse row layout: each reading
+ * takes 2 bytes for the index of its radio source within a dictionary of radio sources
+ * and 1 byte for its quantized RSSI, while fingerprint positions are stored as
+ * primitive coordinates. Compared to located fingerprints containing one
+ * {@link RssiReading} object per reading (typically taking more than 32 bytes each),
+ * this reduces memory required by readings more than 8 times.
+ * <p>
+ * RSSI values are linearly quantized within a configurable range, so that quantization
+ * error is at most half a step (about 0.24 dB for the default range), which is much
+ * smaller than usual RSSI noise. Values out of range are clamped. RSSI standard
+ * deviations and position covariances are not kept.
+ * <p>
+ * Nearest fingerprints are searched using asymmetric distances, where a full-precision
+ * query is compared against quantized references using a lookup table of squared
+ * differences computed once per query (see {@link QuantizedRadioSourceKNearestFinder}).
+ * Signal distances follow the same definition as {@link RssiFingerprint#sqrDistanceTo},
+ * hence only readings of radio sources common to both fingerprints are compared.
+ * <p>
+ * A radio map can contain at most 65536 distinct radio sources. Larger venues can be
+ * split by building and floor.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class QuantizedRadioMap<P extends Point<?>> implements Serializable {
+
+    /**
+     * Default minimum quantized RSSI (expressed in dBm's).
+     */
+    public static final double DEFAULT_MIN_RSSI = -120.0;
+
+    /**
+     * Default maximum quantized RSSI (expressed in dBm's).
+     */
+    public static final double DEFAULT_MAX_RSSI = 0.0;
+
+    /**
+     * Maximum number of distinct radio sources.
+     */
+    public static final int MAX_SOURCES = Character.MAX_VALUE + 1;
+
+    /**
+     * Number of quantization levels.
+     */
+    static final int LEVELS = 256;
+
+    /**
+     * Minimum quantized RSSI.
+     */
+    private final double minRssi;
+
+    /**
+     * Maximum quantized RSSI.
+     */
+    private final double maxRssi;
+
+    /**
+     * RSSI difference between consecutive quantization levels.
+     */
+    private final double step;
+
+    /**
+     * Dictionary of radio sources.
+     */
+    private final RadioSource[] sources;
+
+    /**
+     * Maps radio sources to their position within the dictionary.
+     */
+    private final HashMap<RadioSource, Integer> sourceIndices;
+
+    /**
+     * Position of first reading of each fingerprint, followed by total number of readings.
+     */
+    private final int[] offsets;
+
+    /**
+     * Index of radio source of each reading within the dictionary.
+     */
+    private final char[] readingSources;
+
+    /**
+     * Quantized RSSI of each reading.
+     */
+    private final byte[] readingRssis;
+
+    /**
+     * Position coordinates of fingerprints, stored consecutively for each fingerprint.
+     */
+    private final double[] coordinates;
+
+    /**
+     * Constructor using default RSSI range.
+     *
+     * @param fingerprints located fingerprints to be quantized.
+     * @throws IllegalArgumentException if fingerprints is null, contains a fingerprint
+     *                                  with a position having wrong dimensions or
+     *                                  contains too many distinct radio sources.
+     */
+    protected QuantizedRadioMap(final Collection<? extends RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, P>> fingerprints) {
+        this(fingerprints, DEFAULT_MIN_RSSI, DEFAULT_MAX_RSSI);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprints located fingerprints to be quantized.
+     * @param minRssi      minimum quantized RSSI (expressed in dBm's).
+     * @param maxRssi      maximum quantized RSSI (expressed in dBm's).
+     * @throws IllegalArgumentException if fingerprints is null, contains a fingerprint
+     *                                  with a position having wrong dimensions, contains
+     *                                  too many distinct radio sources or minimum RSSI is
+     *                                  not less than maximum RSSI.
+     */
+    protected QuantizedRadioMap(final Collection<? extends RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, P>> fingerprints,
+                                final double minRssi, final double maxRssi) {
+        if (fingerprints == null || !(minRssi < maxRssi)) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minRssi = minRssi;
+        this.maxRssi = maxRssi;
+        step = (maxRssi - minRssi) / (LEVELS - 1);
+
+        final var dims = getNumberOfDimensions();
+        var numReadings = 0;
+        for (final var fingerprint : fingerprints) {
+            if (fingerprint.getPosition().getDimensions() != dims) {
+                throw new IllegalArgumentException();
+            }
+            numReadings += fingerprint.getReadings().size();
+        }
+
+        final var dictionary = new ArrayList<RadioSource>();
+        sourceIndices = new HashMap<>();
+        offsets = new int[fingerprints.size() + 1];
+        readingSources = new char[numReadings];
+        readingRssis = new byte[numReadings];
+        coordinates = new double[fingerprints.size() * dims];
+
+        var i = 0;
+        var r = 0;
+        for (final var fingerprint : fingerprints) {
+            offsets[i] = r;
+            for (final var reading : fingerprint.getReadings()) {
+                final RadioSource source = reading.getSource();
+                var index = sourceIndices.get(source);
+                if (index == null) {
+                    index = dictionary.size();
+                    if (index >= MAX_SOURCES) {
+                        throw new IllegalArgumentException();
+                    }
+                    dictionary.add(source);
+                    sourceIndices.put(source, index);
+                }
+                readingSources[r] = (char) index.intValue();
+                readingRssis[r] = quantize(reading.getRssi());
+                r++;
+            }
+
+            final var position = fingerprint.getPosition();
+            for (var d = 0; d < dims; d++) {
+                coordinates[i * dims + d] = position.getInhomogeneousCoordinate(d);
+            }
+            i++;
+        }
+        offsets[i] = r;
+        sources = dictionary.toArray(new RadioSource[0]);
+    }
+
+    /**
+     * Gets minimum quantized RSSI.
+     *
+     * @return minimum quantized RSSI (expressed in dBm's).
+     */
+    public double getMinRssi() {
+        return minRssi;
+    }
+
+    /**
+     * Gets maximum quantized RSSI.
+     *
+     * @return maximum quantized RSSI (expressed in dBm's).
+     */
+    public double getMaxRssi() {
+        return maxRssi;
+    }
+
+    /**
+     * Gets RSSI difference between consecutive quantization levels.
+     *
+     * @return quantization step (expressed in dB's).
+     */
+    public double getRssiStep() {
+        return step;
+    }
+
+    /**
+     * Gets number of fingerprints.
+     *
+     * @return number of fingerprints.
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Gets total number of readings among all fingerprints.
+     *
+     * @return number of readings.
+     */
+    public int getNumberOfReadings() {
+        return readingRssis.length;
+    }
+
+    /**
+     * Gets number of distinct radio sources.
+     *
+     * @return number of radio sources.
+     */
+    public int getNumberOfSources() {
+        return sources.length;
+    }
+
+    /**
+     * Gets radio source at provided position within the dictionary of radio sources.
+     *
+     * @param index position of radio source.
+     * @return radio source.
+     */
+    public RadioSource getSource(final int index) {
+        return sources[index];
+    }
+
+    /**
+     * Gets position of radio source within the dictionary of radio sources.
+     *
+     * @param source radio source.
+     * @return position of radio source or -1 if not found.
+     */
+    public int indexOf(final RadioSource source) {
+        final var index = sourceIndices.get(source);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets number of bytes taken by quantized readings and positions, excluding the
+     * dictionary of radio sources.
+     *
+     * @return size in bytes.
+     */
+    public long getQuantizedSize() {
+        return (long) offsets.length * Integer.BYTES + (long) readingSources.length * Character.BYTES
+                + readingRssis.length + (long) coordinates.length * Double.BYTES;
+    }
+
+    /**
+     * Gets position of a fingerprint.
+     *
+     * @param index index of fingerprint.
+     * @return position of fingerprint.
+     */
+    public P getPosition(final int index) {
+        final var dims = getNumberOfDimensions();
+        return createPosition(Arrays.copyOfRange(coordinates, index * dims, (index + 1) * dims));
+    }
+
+    /**
+     * Gets a coordinate of the position of a fingerprint.
+     *
+     * @param index index of fingerprint.
+     * @param dim   dimension of coordinate.
+     * @return coordinate value.
+     */
+    public double getPositionCoordinate(final int index, final int dim) {
+        return coordinates[index * getNumberOfDimensions() + dim];
+    }
+
+    /**
+     * Gets a located fingerprint with dequantized readings.
+     *
+     * @param index index of fingerprint.
+     * @return located fingerprint.
+     */
+    public RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> getFingerprint(final int index) {
+        final var from = offsets[index];
+        final var to = offsets[index + 1];
+        final var readings = new ArrayList<RssiReading<RadioSource>>(to - from);
+        for (var r = from; r < to; r++) {
+            readings.add(new RssiReading<>(sources[readingSources[r]], dequantize(readingRssis[r])));
+        }
+        return createFingerprint(readings, getPosition(index));
+    }
+
+    /**
+     * Quantizes a RSSI value.
+     * Values out of range are clamped.
+     *
+     * @param rssi RSSI value (expressed in dBm's).
+     * @return quantized value.
+     */
+    public byte quantize(final double rssi) {
+        final var level = (int) Math.round((rssi - minRssi) / step);
+        return (byte) Math.max(0, Math.min(LEVELS - 1, level));
+    }
+
+    /**
+     * Dequantizes a RSSI value.
+     *
+     * @param code quantized value.
+     * @return RSSI value (expressed in dBm's).
+     */
+    public double dequantize(final byte code) {
+        return minRssi + (code & 0xFF) * step;
+    }
+
+    /**
+     * Finds k-nearest fingerprints to provided one in terms of asymmetric squared signal
+     * distances.
+     *
+     * @param fingerprint         full-precision fingerprint to find the k-nearest ones to.
+     * @param k                   number of nearest fingerprints to find.
+     * @param nearestIndices      array where indices of nearest fingerprints will be
+     *                            stored ordered from closest to farthest. Must have at
+     *                            least k elements.
+     * @param nearestSqrDistances array where squared signal distances of nearest
+     *                            fingerprints will be stored. Must have at least k
+     *                            elements.
+     * @return number of found fingerprints.
+     * @throws IllegalArgumentException if any parameter is null, k is less than 1 or
+     *                                  arrays are too short.
+     */
+    public int findKNearestTo(
+            final RssiFingerprint<? extends RadioSource, ? extends RssiReading<? extends RadioSource>> fingerprint,
+            final int k, final int[] nearestIndices, final double[] nearestSqrDistances) {
+        if (fingerprint == null || k < 1 || nearestIndices == null || nearestSqrDistances == null
+                || nearestIndices.length < k || nearestSqrDistances.length < k) {
+            throw new IllegalArgumentException();
+        }
+
+        // build lookup table of squared differences between query RSSI values and each
+        // quantization level, for each radio source in the query
+        final var slots = new int[sources.length];
+        Arrays.fill(slots, -1);
+        final var readings = fingerprint.getReadings();
+        final var table = new double[readings.size() * LEVELS];
+        var numSlots = 0;
+        for (final var reading : readings) {
+            final var index = sourceIndices.get(reading.getSource());
+            if (index == null || slots[index] >= 0) {
+                continue;
+            }
+
+            final var base = numSlots * LEVELS;
+            final var rssi = reading.getRssi();
+            for (var level = 0; level < LEVELS; level++) {
+                final var diff = rssi - (minRssi + level * step);
+                table[base + level] = diff * diff;
+            }
+            slots[index] = base;
+            numSlots++;
+        }
+
+        var found = 0;
+        if (numSlots == 0) {
+            return found;
+        }
+
+        var maxSqrDist = Double.MAX_VALUE;
+        final var n = size();
+        for (var i = 0; i < n; i++) {
+            var sqrDist = 0.0;
+            var common = 0;
+            final var to = offsets[i + 1];
+            for (var r = offsets[i]; r < to; r++) {
+                final var base = slots[readingSources[r]];
+                if (base >= 0) {
+                    sqrDist += table[base + (readingRssis[r] & 0xFF)];
+                    common++;
+                }
+            }
+
+            if (common == 0 || (found == k && sqrDist >= maxSqrDist)) {
+                continue;
+            }
+
+            // insert keeping results sorted from closest to farthest
+            var pos = found < k ? found : k - 1;
+            while (pos > 0 && nearestSqrDistances[pos - 1] > sqrDist) {
+                nearestSqrDistances[pos] = nearestSqrDistances[pos - 1];
+                nearestIndices[pos] = nearestIndices[pos - 1];
+                pos--;
+            }
+            nearestSqrDistances[pos] = sqrDist;
+            nearestIndices[pos] = i;
+            if (found < k) {
+                found++;
+            }
+            if (found == k) {
+                maxSqrDist = nearestSqrDistances[k - 1];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    public abstract int getNumberOfDimensions();
+
+    /**
+     * Creates a position from its coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return created position.
+     */
+    protected abstract P createPosition(final double[] coordinates);
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings readings of fingerprint.
+     * @param position position of fingerprint.
+     * @return created located fingerprint.
+     */
+    protected abstract RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final P position);
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable radio map of 2D located fingerprints where RSSI values are quantized to 8 bits.
+ */
+public class QuantizedRadioMap2D extends QuantizedRadioMap<Point2D> {
+
+    /**
+     * Constructor using default RSSI range.
+     *
+     * @param fingerprints located fingerprints to be quantized.
+     * @throws IllegalArgumentException if fingerprints is null or contains too many
+     *                                  distinct radio sources.
+     */
+    public QuantizedRadioMap2D(final Collection<? extends RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, Point2D>> fingerprints) {
+        super(fingerprints);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprints located fingerprints to be quantized.
+     * @param minRssi      minimum quantized RSSI (expressed in dBm's).
+     * @param maxRssi      maximum quantized RSSI (expressed in dBm's).
+     * @throws IllegalArgumentException if fingerprints is null, contains too many
+     *                                  distinct radio sources or minimum RSSI is not less
+     *                                  than maximum RSSI.
+     */
+    public QuantizedRadioMap2D(final Collection<? extends RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, Point2D>> fingerprints,
+                              final double minRssi, final double maxRssi) {
+        super(fingerprints, minRssi, maxRssi);
+    }
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates a position from its coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return created position.
+     */
+    @Override
+    protected Point2D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint2D(coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings readings of fingerprint.
+     * @param position position of fingerprint.
+     * @return created located fingerprint.
+     */
+    @Override
+    protected RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final Point2D position) {
+        return new RssiFingerprintLocated2D<>(readings, position);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds k-nearest fingerprints within a {@link QuantizedRadioMap} in terms of signal
+ * distances.
+ * Candidates are searched using asymmetric distances between the full-precision query
+ * and quantized references. When full-precision fingerprints of the radio map are
+ * provided (e.g. as a list lazily loading fingerprints from storage), a larger number
+ * of candidates is searched and re-ranked using full-precision signal distances, so
+ * that quantization does not alter the order of the nearest fingerprints. Otherwise,
+ * fingerprints with dequantized readings are returned.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class QuantizedRadioSourceKNearestFinder<P extends Point<?>> {
+
+    /**
+     * Default ratio between number of candidates being re-ranked and number of nearest
+     * fingerprints to find.
+     */
+    public static final int DEFAULT_RERANK_FACTOR = 4;
+
+    /**
+     * Quantized radio map.
+     */
+    private final QuantizedRadioMap<P> radioMap;
+
+    /**
+     * Full-precision fingerprints in the same order as in the quantized radio map, or null.
+     */
+    private final List<? extends RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>
+            fullPrecisionFingerprints;
+
+    /**
+     * Ratio between number of candidates being re-ranked and number of nearest
+     * fingerprints to find.
+     */
+    private int rerankFactor = DEFAULT_RERANK_FACTOR;
+
+    /**
+     * Constructor.
+     *
+     * @param radioMap quantized radio map.
+     * @throws IllegalArgumentException if radio map is null.
+     */
+    public QuantizedRadioSourceKNearestFinder(final QuantizedRadioMap<P> radioMap) {
+        if (radioMap == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.radioMap = radioMap;
+        fullPrecisionFingerprints = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param radioMap                  quantized radio map.
+     * @param fullPrecisionFingerprints full-precision fingerprints in the same order as
+     *                                  in the quantized radio map, used to re-rank
+     *                                  candidates.
+     * @throws IllegalArgumentException if any parameter is null or number of
+     *                                  full-precision fingerprints does not match the
+     *                                  radio map size.
+     */
+    public QuantizedRadioSourceKNearestFinder(
+            final QuantizedRadioMap<P> radioMap,
+            final List<? extends RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>
+                    fullPrecisionFingerprints) {
+        if (radioMap == null || fullPrecisionFingerprints == null
+                || fullPrecisionFingerprints.size() != radioMap.size()) {
+            throw new IllegalArgumentException();
+        }
+
+        this.radioMap = radioMap;
+        this.fullPrecisionFingerprints = fullPrecisionFingerprints;
+    }
+
+    /**
+     * Gets quantized radio map.
+     *
+     * @return quantized radio map.
+     */
+    public QuantizedRadioMap<P> getRadioMap() {
+        return radioMap;
+    }
+
+    /**
+     * Gets full-precision fingerprints used to re-rank candidates.
+     *
+     * @return full-precision fingerprints or null if candidates are not re-ranked.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getFullPrecisionFingerprints() {
+        //noinspection unchecked
+        return (List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>) fullPrecisionFingerprints;
+    }
+
+    /**
+     * Gets ratio between number of candidates being re-ranked and number of nearest
+     * fingerprints to find.
+     *
+     * @return re-rank factor.
+     */
+    public int getRerankFactor() {
+        return rerankFactor;
+    }
+
+    /**
+     * Sets ratio between number of candidates being re-ranked and number of nearest
+     * fingerprints to find.
+     *
+     * @param rerankFactor re-rank factor.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     */
+    public void setRerankFactor(final int rerankFactor) {
+        if (rerankFactor < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.rerankFactor = rerankFactor;
+    }
+
+    /**
+     * Finds nearest fingerprint to provided one.
+     *
+     * @param fingerprint fingerprint to find the nearest to.
+     * @return nearest fingerprint or null if none could be found.
+     * @throws IllegalArgumentException if fingerprint is null.
+     */
+    public RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> findNearestTo(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint) {
+        final var result = findKNearestTo(fingerprint, 1);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Finds k-nearest fingerprints to provided one.
+     *
+     * @param fingerprint fingerprint to find the k-nearest ones to.
+     * @param k           number of nearest fingerprints to find.
+     * @return nearest fingerprints ordered from closest to farthest or an empty list if
+     * none could be found.
+     * @throws IllegalArgumentException if fingerprint is null or k is less than 1.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> findKNearestTo(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint, final int k) {
+        final var result = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>();
+        final var nearestSqrDistances = new ArrayList<Double>();
+        findKNearestTo(fingerprint, k, result, nearestSqrDistances);
+        return result;
+    }
+
+    /**
+     * Finds k-nearest fingerprints to provided one.
+     *
+     * @param fingerprint         fingerprint to find the k-nearest ones to.
+     * @param k                   number of nearest fingerprints to find.
+     * @param nearestFingerprints list where found nearest fingerprints will be stored
+     *                            ordered from closest to farthest or an empty list if
+     *                            none could be found.
+     * @param nearestSqrDistances list where squared signal distances corresponding to
+     *                            found fingerprints will be stored or an empty list if no
+     *                            fingerprint is found.
+     * @throws IllegalArgumentException if any parameter is null or k is less than 1.
+     */
+    public void findKNearestTo(
+            final RssiFingerprint<RadioSource, RssiReading<RadioSource>> fingerprint, final int k,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints,
+            final List<Double> nearestSqrDistances) {
+        if (fingerprint == null || k < 1 || nearestFingerprints == null || nearestSqrDistances == null) {
+            throw new IllegalArgumentException();
+        }
+
+        nearestFingerprints.clear();
+        nearestSqrDistances.clear();
+
+        final var numCandidates = fullPrecisionFingerprints != null
+                ? (int) Math.min((long) k * rerankFactor, Math.max(radioMap.size(), k)) : k;
+        final var indices = new int[numCandidates];
+        final var sqrDistances = new double[numCandidates];
+        final var found = radioMap.findKNearestTo(fingerprint, numCandidates, indices, sqrDistances);
+
+        if (fullPrecisionFingerprints == null) {
+            for (var i = 0; i < found; i++) {
+                nearestFingerprints.add(radioMap.getFingerprint(indices[i]));
+                nearestSqrDistances.add(sqrDistances[i]);
+            }
+            return;
+        }
+
+        // re-rank candidates using full-precision signal distances
+        for (var i = 0; i < found; i++) {
+            final var candidate = fullPrecisionFingerprints.get(indices[i]);
+            final var sqrDist = candidate.sqrDistanceTo(fingerprint);
+
+            var pos = nearestSqrDistances.size();
+            while (pos > 0 && nearestSqrDistances.get(pos - 1) > sqrDist) {
+                pos--;
+            }
+            if (pos < k) {
+                nearestSqrDistances.add(pos, sqrDist);
+                nearestFingerprints.add(pos, candidate);
+                if (nearestFingerprints.size() > k) {
+                    nearestSqrDistances.remove(k);
+                    nearestFingerprints.remove(k);
+                }
+            }
+        }
+    }
+}
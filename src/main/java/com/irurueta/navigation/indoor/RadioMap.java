@@ -0,0 +1,448 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Radio map made of located RSSI fingerprints that can be updated without being rebuilt.
+ * Fingerprints can be inserted, removed or replaced (e.g. when some reference points are
+ * surveyed again), and a retired radio source can be removed from all fingerprints
+ * containing it.
+ * An index of the fingerprints containing each radio source is maintained incrementally
+ * on each update, so that only fingerprints and radio sources affected by an update are
+ * processed.
+ * <p>
+ * Contents of a radio map are published as immutable snapshots (see
+ * {@link RadioMapSnapshot}) following a copy-on-write approach: each update builds a new
+ * snapshot, while snapshots previously obtained are never modified. Hence, queries can
+ * be safely made on a snapshot while the radio map is being concurrently updated, and
+ * finders built on a radio map (see
+ * {@link RadioSourceKNearestFinder#RadioSourceKNearestFinder(RadioMap)}) use the latest
+ * snapshot on each query.
+ * Snapshots share unmodified chunks of fingerprints with previous ones, so that each
+ * published snapshot copies references to chunks of fingerprints, the chunks modified
+ * by the update, the index of radio sources and the lists of fingerprints of the radio
+ * sources affected by the update, rather than every fingerprint. Because each update
+ * publishes a snapshot, many fingerprints should be inserted or removed at once with
+ * {@link #insertAll(Collection)} or {@link #removeAll(Collection)}.
+ * Fingerprints are compared by identity and are never modified by the radio map. When
+ * a radio source is removed, affected fingerprints are replaced by new fingerprints not
+ * containing the radio source.
+ * Removing a fingerprint moves the last fingerprint into its position, so order of
+ * fingerprints is not preserved after removals.
+ * <p>
+ * Updates are serialized, so that this class is thread safe.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class RadioMap<P extends Point<?>> {
+
+    /**
+     * Located fingerprints currently contained in the radio map.
+     */
+    private final ChunkedSnapshotList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>
+            fingerprints = new ChunkedSnapshotList<>();
+
+    /**
+     * Position of each fingerprint within the list of fingerprints.
+     */
+    private final IdentityHashMap<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>, Integer>
+            positions = new IdentityHashMap<>();
+
+    /**
+     * Fingerprints containing readings of each radio source.
+     */
+    private final HashMap<RadioSource, ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>>
+            fingerprintsBySource = new HashMap<>();
+
+    /**
+     * Radio sources whose fingerprints have changed since the last published snapshot.
+     */
+    private final HashSet<RadioSource> dirtySources = new HashSet<>();
+
+    /**
+     * Latest published snapshot.
+     */
+    private volatile RadioMapSnapshot<P> snapshot = new RadioMapSnapshot<>(0, Collections.emptyList(),
+            Collections.emptyMap());
+
+    /**
+     * Constructor.
+     */
+    protected RadioMap() {
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprints initial located fingerprints.
+     * @throws IllegalArgumentException if fingerprints or any fingerprint is null, or if
+     *                                  a fingerprint is repeated.
+     */
+    protected RadioMap(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, P>> fingerprints) {
+        insertAll(fingerprints);
+    }
+
+    /**
+     * Gets latest snapshot of this radio map.
+     *
+     * @return latest snapshot.
+     */
+    public RadioMapSnapshot<P> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets unmodifiable list of located fingerprints of latest snapshot.
+     *
+     * @return located fingerprints.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getFingerprints() {
+        return snapshot.getFingerprints();
+    }
+
+    /**
+     * Gets current version of this radio map.
+     * Version is increased each time the radio map is modified.
+     *
+     * @return current version.
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Gets number of located fingerprints.
+     *
+     * @return number of located fingerprints.
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * Indicates whether provided fingerprint is contained in this radio map.
+     *
+     * @param fingerprint fingerprint to be checked.
+     * @return true if fingerprint is contained, false otherwise.
+     */
+    public synchronized boolean contains(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        return positions.containsKey(fingerprint);
+    }
+
+    /**
+     * Inserts a located fingerprint.
+     *
+     * @param fingerprint fingerprint to be inserted.
+     * @throws IllegalArgumentException if fingerprint is null or already contained.
+     */
+    public synchronized void insert(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        checkInsertable(fingerprint);
+        internalInsert(fingerprint);
+        publish();
+    }
+
+    /**
+     * Inserts many located fingerprints publishing a single snapshot.
+     *
+     * @param fingerprints fingerprints to be inserted.
+     * @throws IllegalArgumentException if fingerprints or any fingerprint is null or if any
+     *                                  fingerprint is already contained or repeated.
+     */
+    public synchronized void insertAll(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, P>> fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+        final var distinct = Collections.newSetFromMap(
+                new IdentityHashMap<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>, Boolean>());
+        for (final var fingerprint : fingerprints) {
+            checkInsertable(fingerprint);
+            if (!distinct.add(fingerprint)) {
+                throw new IllegalArgumentException();
+            }
+        }
+
+        for (final var fingerprint : fingerprints) {
+            internalInsert(fingerprint);
+        }
+        publish();
+    }
+
+    /**
+     * Removes a located fingerprint.
+     *
+     * @param fingerprint fingerprint to be removed.
+     * @return true if fingerprint was removed, false if it was not contained.
+     */
+    public synchronized boolean remove(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        if (!internalRemove(fingerprint)) {
+            return false;
+        }
+        publish();
+        return true;
+    }
+
+    /**
+     * Removes many located fingerprints publishing a single snapshot.
+     *
+     * @param fingerprints fingerprints to be removed.
+     * @return number of removed fingerprints.
+     * @throws IllegalArgumentException if fingerprints is null.
+     */
+    public synchronized int removeAll(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, P>> fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+
+        var count = 0;
+        for (final var fingerprint : fingerprints) {
+            if (internalRemove(fingerprint)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            publish();
+        }
+        return count;
+    }
+
+    /**
+     * Replaces a located fingerprint (e.g. after surveying its reference point again).
+     * The new fingerprint takes the position of the replaced one.
+     *
+     * @param oldFingerprint fingerprint to be replaced.
+     * @param newFingerprint new fingerprint.
+     * @return true if fingerprint was replaced, false if old fingerprint was not contained.
+     * @throws IllegalArgumentException if new fingerprint is null or already contained.
+     */
+    public synchronized boolean replace(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> oldFingerprint,
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> newFingerprint) {
+        checkInsertable(newFingerprint);
+        final var position = positions.get(oldFingerprint);
+        if (position == null) {
+            return false;
+        }
+
+        internalReplace(position, newFingerprint);
+        publish();
+        return true;
+    }
+
+    /**
+     * Removes all readings of a radio source (e.g. a retired access point) from all
+     * fingerprints containing it.
+     * Each affected fingerprint is replaced by a new fingerprint containing remaining
+     * readings, or removed if no readings remain.
+     *
+     * @param source radio source to be removed.
+     * @return number of affected fingerprints.
+     * @throws IllegalArgumentException if radio source is null.
+     */
+    public synchronized int removeSource(final RadioSource source) {
+        if (source == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var affected = fingerprintsBySource.get(source);
+        if (affected == null) {
+            return 0;
+        }
+
+        final var copy = new ArrayList<>(affected);
+        for (final var fingerprint : copy) {
+            final var readings = new ArrayList<RssiReading<RadioSource>>(fingerprint.getReadings().size());
+            for (final var reading : fingerprint.getReadings()) {
+                if (!source.equals(reading.getSource())) {
+                    readings.add(reading);
+                }
+            }
+
+            if (readings.isEmpty()) {
+                internalRemove(fingerprint);
+            } else {
+                internalReplace(positions.get(fingerprint), createFingerprint(readings,
+                        fingerprint.getPosition(), fingerprint.getPositionCovariance()));
+            }
+        }
+        publish();
+        return copy.size();
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings           readings of fingerprint.
+     * @param position           position of fingerprint.
+     * @param positionCovariance covariance of position or null.
+     * @return created located fingerprint.
+     */
+    protected abstract RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final P position, final Matrix positionCovariance);
+
+    /**
+     * Checks that a fingerprint can be inserted.
+     *
+     * @param fingerprint fingerprint to be checked.
+     * @throws IllegalArgumentException if fingerprint is null or already contained.
+     */
+    private void checkInsertable(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        if (fingerprint == null || positions.containsKey(fingerprint)) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Inserts a fingerprint without publishing a new snapshot.
+     *
+     * @param fingerprint fingerprint to be inserted.
+     */
+    private void internalInsert(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        positions.put(fingerprint, fingerprints.size());
+        fingerprints.add(fingerprint);
+        index(fingerprint);
+    }
+
+    /**
+     * Removes a fingerprint without publishing a new snapshot.
+     *
+     * @param fingerprint fingerprint to be removed.
+     * @return true if fingerprint was removed, false if it was not contained.
+     */
+    private boolean internalRemove(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        final var position = positions.remove(fingerprint);
+        if (position == null) {
+            return false;
+        }
+
+        final var last = fingerprints.removeLast();
+        if (last != fingerprint) {
+            fingerprints.set(position, last);
+            positions.put(last, position);
+        }
+        unindex(fingerprint);
+        return true;
+    }
+
+    /**
+     * Replaces the fingerprint at provided position without publishing a new snapshot.
+     *
+     * @param position       position of fingerprint to be replaced.
+     * @param newFingerprint new fingerprint.
+     */
+    private void internalReplace(
+            final int position,
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> newFingerprint) {
+        final var oldFingerprint = fingerprints.set(position, newFingerprint);
+        positions.remove(oldFingerprint);
+        positions.put(newFingerprint, position);
+        unindex(oldFingerprint);
+        index(newFingerprint);
+    }
+
+    /**
+     * Adds a fingerprint to the index of fingerprints of each radio source.
+     *
+     * @param fingerprint fingerprint to be indexed.
+     */
+    private void index(final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        for (final var source : distinctSources(fingerprint)) {
+            fingerprintsBySource.computeIfAbsent(source, s -> new ArrayList<>()).add(fingerprint);
+            dirtySources.add(source);
+        }
+    }
+
+    /**
+     * Removes a fingerprint from the index of fingerprints of each radio source.
+     *
+     * @param fingerprint fingerprint to be removed from index.
+     */
+    private void unindex(final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint) {
+        for (final var source : distinctSources(fingerprint)) {
+            final var list = fingerprintsBySource.get(source);
+            for (var i = 0; i < list.size(); i++) {
+                if (list.get(i) == fingerprint) {
+                    list.remove(i);
+                    break;
+                }
+            }
+            if (list.isEmpty()) {
+                fingerprintsBySource.remove(source);
+            }
+            dirtySources.add(source);
+        }
+    }
+
+    /**
+     * Gets distinct radio sources of the readings of a fingerprint.
+     *
+     * @param fingerprint fingerprint.
+     * @return distinct radio sources.
+     */
+    private static Set<RadioSource> distinctSources(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, ?> fingerprint) {
+        final var result = new HashSet<RadioSource>();
+        for (final var reading : fingerprint.getReadings()) {
+            result.add(reading.getSource());
+        }
+        return result;
+    }
+
+    /**
+     * Publishes a new snapshot containing current fingerprints.
+     * Fingerprints are shared in chunks with previous snapshots, so that only chunks
+     * modified since last snapshot are copied, and only entries of the index of radio
+     * sources that have changed since last snapshot are copied.
+     */
+    private void publish() {
+        final var previous = snapshot;
+        final var index = new HashMap<RadioSource,
+                List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>>(previous.getFingerprintsBySource());
+        for (final var source : dirtySources) {
+            final var list = fingerprintsBySource.get(source);
+            if (list != null) {
+                index.put(source, List.copyOf(list));
+            } else {
+                index.remove(source);
+            }
+        }
+        dirtySources.clear();
+
+        snapshot = new RadioMapSnapshot<>(previous.getVersion() + 1, fingerprints.snapshot(),
+                Collections.unmodifiableMap(index));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point2D;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Radio map made of 2D located RSSI fingerprints that can be updated without being
+ * rebuilt.
+ */
+public class RadioMap2D extends RadioMap<Point2D> {
+
+    /**
+     * Constructor.
+     */
+    public RadioMap2D() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprints initial located fingerprints.
+     * @throws IllegalArgumentException if fingerprints or any fingerprint is null, or if
+     *                                  a fingerprint is repeated.
+     */
+    public RadioMap2D(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, Point2D>> fingerprints) {
+        super(fingerprints);
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings           readings of fingerprint.
+     * @param position           position of fingerprint.
+     * @param positionCovariance covariance of position or null.
+     * @return created located fingerprint.
+     */
+    @Override
+    protected RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final Point2D position,
+            final Matrix positionCovariance) {
+        return new RssiFingerprintLocated2D<>(readings, position, positionCovariance);
+    }
+}
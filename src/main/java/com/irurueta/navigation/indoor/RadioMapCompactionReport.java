@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+/**
+ * Result of cross-validating a radio map compaction (see {@link RadioMapCompactor}).
+ * Contains the sizes of the original and compacted radio maps and the average position
+ * errors obtained when locating held-out fingerprints using original and compacted
+ * fingerprints.
+ */
+public class RadioMapCompactionReport {
+
+    /**
+     * Number of fingerprints of original radio map.
+     */
+    private final int numFingerprints;
+
+    /**
+     * Number of fingerprints of compacted radio map.
+     */
+    private final int numCompactedFingerprints;
+
+    /**
+     * Number of radio sources of original radio map.
+     */
+    private final int numSources;
+
+    /**
+     * Number of radio sources of compacted radio map.
+     */
+    private final int numCompactedSources;
+
+    /**
+     * Number of held-out fingerprints located using both original and compacted
+     * fingerprints.
+     */
+    private final int numValidated;
+
+    /**
+     * Number of held-out fingerprints that could not be located using either original or
+     * compacted fingerprints.
+     */
+    private final int numFailed;
+
+    /**
+     * Average position error using original fingerprints (expressed in meters).
+     */
+    private final double meanError;
+
+    /**
+     * Average position error using compacted fingerprints (expressed in meters).
+     */
+    private final double meanCompactedError;
+
+    /**
+     * Constructor.
+     *
+     * @param numFingerprints          number of fingerprints of original radio map.
+     * @param numCompactedFingerprints number of fingerprints of compacted radio map.
+     * @param numSources               number of radio sources of original radio map.
+     * @param numCompactedSources      number of radio sources of compacted radio map.
+     * @param numValidated             number of held-out fingerprints located using both
+     *                                 original and compacted fingerprints.
+     * @param numFailed                number of held-out fingerprints that could not be
+     *                                 located.
+     * @param meanError                average position error using original fingerprints.
+     * @param meanCompactedError       average position error using compacted fingerprints.
+     */
+    RadioMapCompactionReport(
+            final int numFingerprints, final int numCompactedFingerprints, final int numSources,
+            final int numCompactedSources, final int numValidated, final int numFailed,
+            final double meanError, final double meanCompactedError) {
+        this.numFingerprints = numFingerprints;
+        this.numCompactedFingerprints = numCompactedFingerprints;
+        this.numSources = numSources;
+        this.numCompactedSources = numCompactedSources;
+        this.numValidated = numValidated;
+        this.numFailed = numFailed;
+        this.meanError = meanError;
+        this.meanCompactedError = meanCompactedError;
+    }
+
+    /**
+     * Gets number of fingerprints of original radio map.
+     *
+     * @return number of fingerprints of original radio map.
+     */
+    public int getNumFingerprints() {
+        return numFingerprints;
+    }
+
+    /**
+     * Gets number of fingerprints of compacted radio map.
+     *
+     * @return number of fingerprints of compacted radio map.
+     */
+    public int getNumCompactedFingerprints() {
+        return numCompactedFingerprints;
+    }
+
+    /**
+     * Gets number of radio sources of original radio map.
+     *
+     * @return number of radio sources of original radio map.
+     */
+    public int getNumSources() {
+        return numSources;
+    }
+
+    /**
+     * Gets number of radio sources of compacted radio map.
+     *
+     * @return number of radio sources of compacted radio map.
+     */
+    public int getNumCompactedSources() {
+        return numCompactedSources;
+    }
+
+    /**
+     * Gets ratio between number of fingerprints of compacted and original radio maps.
+     *
+     * @return compaction ratio or NaN if original radio map is empty.
+     */
+    public double getCompactionRatio() {
+        return numFingerprints > 0 ? (double) numCompactedFingerprints / numFingerprints : Double.NaN;
+    }
+
+    /**
+     * Gets number of held-out fingerprints located using both original and compacted
+     * fingerprints.
+     *
+     * @return number of validated fingerprints.
+     */
+    public int getNumValidated() {
+        return numValidated;
+    }
+
+    /**
+     * Gets number of held-out fingerprints that could not be located using either
+     * original or compacted fingerprints.
+     *
+     * @return number of failed fingerprints.
+     */
+    public int getNumFailed() {
+        return numFailed;
+    }
+
+    /**
+     * Gets average position error when locating held-out fingerprints using original
+     * fingerprints.
+     *
+     * @return average position error (expressed in meters) or NaN if no fingerprint was
+     * validated.
+     */
+    public double getMeanError() {
+        return meanError;
+    }
+
+    /**
+     * Gets average position error when locating held-out fingerprints using compacted
+     * fingerprints.
+     *
+     * @return average position error (expressed in meters) or NaN if no fingerprint was
+     * validated.
+     */
+    public double getMeanCompactedError() {
+        return meanCompactedError;
+    }
+
+    /**
+     * Gets expected accuracy loss caused by compaction, as the increase of the average
+     * position error. A negative value indicates that compaction improves accuracy.
+     *
+     * @return accuracy loss (expressed in meters) or NaN if no fingerprint was validated.
+     */
+    public double getAccuracyLoss() {
+        return meanCompactedError - meanError;
+    }
+}
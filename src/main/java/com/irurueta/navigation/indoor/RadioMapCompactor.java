@@ -0,0 +1,795 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.WrongSizeException;
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.fingerprint.FingerprintEstimationException;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimator;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimatorType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compacts radio maps made of located RSSI fingerprints.
+ * Dense survey grids usually contain many redundant reference points and weak or
+ * transient radio sources, which increase the cost of nearest fingerprint searches and
+ * the memory required by radio maps without improving accuracy.
+ * <p>
+ * Compaction is made in two steps:
+ * <ul>
+ *     <li>Radio sources received in too few fingerprints (visibility) or whose readings
+ *     have a too large average RSSI standard deviation (stability) are removed from all
+ *     fingerprints.</li>
+ *     <li>Near-duplicate reference points are clustered. Each fingerprint is merged into
+ *     the first cluster whose leading fingerprint is close enough both in position and in
+ *     signal space, where signal distance is the root mean square RSSI difference among
+ *     all radio sources of both fingerprints, assuming a missing RSSI for radio sources
+ *     received in only one of them. Each cluster results in a fingerprint located at the
+ *     average position of its members, with the average RSSI of each radio source and
+ *     an RSSI standard deviation combining the sample standard deviation of its values
+ *     with the average of their known standard deviations.</li>
+ * </ul>
+ * Positions are bucketed on a grid so that only clusters in neighbouring cells are
+ * checked for each fingerprint.
+ * <p>
+ * Expected accuracy loss of a compaction can be estimated by k-fold cross-validation
+ * (see {@link #crossValidate(Collection, List)}), where held-out fingerprints are located
+ * with a {@link NonLinearFingerprintPositionEstimator} using both the original and the
+ * compacted remaining fingerprints.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class RadioMapCompactor<P extends Point<?>> {
+
+    /**
+     * Default maximum distance between positions of fingerprints to be clustered
+     * (expressed in meters).
+     */
+    public static final double DEFAULT_MAX_POSITION_DISTANCE = 1.0;
+
+    /**
+     * Default maximum root mean square RSSI difference between fingerprints to be
+     * clustered (expressed in dB's).
+     */
+    public static final double DEFAULT_MAX_SIGNAL_DISTANCE = 3.0;
+
+    /**
+     * Default minimum ratio of fingerprints where a radio source must be received to be
+     * kept.
+     */
+    public static final double DEFAULT_MIN_SOURCE_VISIBILITY = 0.05;
+
+    /**
+     * Default maximum average RSSI standard deviation of readings of a radio source to be
+     * kept (expressed in dB's).
+     */
+    public static final double DEFAULT_MAX_SOURCE_RSSI_STANDARD_DEVIATION = 10.0;
+
+    /**
+     * Default RSSI assumed for radio sources not being received (expressed in dBm's).
+     */
+    public static final double DEFAULT_MISSING_RSSI = -100.0;
+
+    /**
+     * Default number of folds used for cross-validation.
+     */
+    public static final int DEFAULT_NUMBER_OF_FOLDS = 5;
+
+    /**
+     * Maximum distance between positions of fingerprints to be clustered.
+     */
+    private double maxPositionDistance = DEFAULT_MAX_POSITION_DISTANCE;
+
+    /**
+     * Maximum root mean square RSSI difference between fingerprints to be clustered.
+     */
+    private double maxSignalDistance = DEFAULT_MAX_SIGNAL_DISTANCE;
+
+    /**
+     * Minimum ratio of fingerprints where a radio source must be received to be kept.
+     */
+    private double minSourceVisibility = DEFAULT_MIN_SOURCE_VISIBILITY;
+
+    /**
+     * Maximum average RSSI standard deviation of readings of a radio source to be kept.
+     */
+    private double maxSourceRssiStandardDeviation = DEFAULT_MAX_SOURCE_RSSI_STANDARD_DEVIATION;
+
+    /**
+     * RSSI assumed for radio sources not being received.
+     */
+    private double missingRssi = DEFAULT_MISSING_RSSI;
+
+    /**
+     * Number of folds used for cross-validation.
+     */
+    private int numberOfFolds = DEFAULT_NUMBER_OF_FOLDS;
+
+    /**
+     * Type of estimator used for cross-validation.
+     */
+    private NonLinearFingerprintPositionEstimatorType estimatorType =
+            NonLinearFingerprintPositionEstimator.DEFAULT_TYPE;
+
+    /**
+     * Gets maximum distance between positions of fingerprints to be clustered.
+     *
+     * @return maximum position distance (expressed in meters).
+     */
+    public double getMaxPositionDistance() {
+        return maxPositionDistance;
+    }
+
+    /**
+     * Sets maximum distance between positions of fingerprints to be clustered.
+     *
+     * @param maxPositionDistance maximum position distance (expressed in meters).
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setMaxPositionDistance(final double maxPositionDistance) {
+        if (maxPositionDistance < 0.0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxPositionDistance = maxPositionDistance;
+    }
+
+    /**
+     * Gets maximum root mean square RSSI difference between fingerprints to be clustered.
+     *
+     * @return maximum signal distance (expressed in dB's).
+     */
+    public double getMaxSignalDistance() {
+        return maxSignalDistance;
+    }
+
+    /**
+     * Sets maximum root mean square RSSI difference between fingerprints to be clustered.
+     *
+     * @param maxSignalDistance maximum signal distance (expressed in dB's).
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setMaxSignalDistance(final double maxSignalDistance) {
+        if (maxSignalDistance < 0.0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxSignalDistance = maxSignalDistance;
+    }
+
+    /**
+     * Gets minimum ratio of fingerprints where a radio source must be received to be kept.
+     *
+     * @return minimum visibility of radio sources.
+     */
+    public double getMinSourceVisibility() {
+        return minSourceVisibility;
+    }
+
+    /**
+     * Sets minimum ratio of fingerprints where a radio source must be received to be kept.
+     *
+     * @param minSourceVisibility minimum visibility of radio sources.
+     * @throws IllegalArgumentException if provided value is not between 0.0 and 1.0.
+     */
+    public void setMinSourceVisibility(final double minSourceVisibility) {
+        if (minSourceVisibility < 0.0 || minSourceVisibility > 1.0) {
+            throw new IllegalArgumentException();
+        }
+        this.minSourceVisibility = minSourceVisibility;
+    }
+
+    /**
+     * Gets maximum average RSSI standard deviation of readings of a radio source to be
+     * kept. Only readings having a known RSSI standard deviation are taken into account.
+     *
+     * @return maximum RSSI standard deviation of radio sources (expressed in dB's).
+     */
+    public double getMaxSourceRssiStandardDeviation() {
+        return maxSourceRssiStandardDeviation;
+    }
+
+    /**
+     * Sets maximum average RSSI standard deviation of readings of a radio source to be
+     * kept. Only readings having a known RSSI standard deviation are taken into account.
+     *
+     * @param maxSourceRssiStandardDeviation maximum RSSI standard deviation of radio
+     *                                       sources (expressed in dB's).
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     */
+    public void setMaxSourceRssiStandardDeviation(final double maxSourceRssiStandardDeviation) {
+        if (maxSourceRssiStandardDeviation <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxSourceRssiStandardDeviation = maxSourceRssiStandardDeviation;
+    }
+
+    /**
+     * Gets RSSI assumed for radio sources not being received when computing signal
+     * distances.
+     *
+     * @return RSSI assumed for missing radio sources (expressed in dBm's).
+     */
+    public double getMissingRssi() {
+        return missingRssi;
+    }
+
+    /**
+     * Sets RSSI assumed for radio sources not being received when computing signal
+     * distances.
+     *
+     * @param missingRssi RSSI assumed for missing radio sources (expressed in dBm's).
+     */
+    public void setMissingRssi(final double missingRssi) {
+        this.missingRssi = missingRssi;
+    }
+
+    /**
+     * Gets number of folds used for cross-validation.
+     *
+     * @return number of folds.
+     */
+    public int getNumberOfFolds() {
+        return numberOfFolds;
+    }
+
+    /**
+     * Sets number of folds used for cross-validation.
+     *
+     * @param numberOfFolds number of folds.
+     * @throws IllegalArgumentException if provided value is less than 2.
+     */
+    public void setNumberOfFolds(final int numberOfFolds) {
+        if (numberOfFolds < 2) {
+            throw new IllegalArgumentException();
+        }
+        this.numberOfFolds = numberOfFolds;
+    }
+
+    /**
+     * Gets type of non-linear position estimator used for cross-validation.
+     *
+     * @return type of estimator.
+     */
+    public NonLinearFingerprintPositionEstimatorType getEstimatorType() {
+        return estimatorType;
+    }
+
+    /**
+     * Sets type of non-linear position estimator used for cross-validation.
+     *
+     * @param estimatorType type of estimator.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setEstimatorType(final NonLinearFingerprintPositionEstimatorType estimatorType) {
+        if (estimatorType == null) {
+            throw new IllegalArgumentException();
+        }
+        this.estimatorType = estimatorType;
+    }
+
+    /**
+     * Compacts provided radio map.
+     *
+     * @param radioMap radio map to be compacted.
+     * @return a new compacted radio map.
+     * @throws IllegalArgumentException if radio map is null.
+     */
+    public RadioMap<P> compact(final RadioMap<P> radioMap) {
+        if (radioMap == null) {
+            throw new IllegalArgumentException();
+        }
+        return compact(radioMap.getFingerprints());
+    }
+
+    /**
+     * Compacts provided located fingerprints into a radio map.
+     *
+     * @param fingerprints located fingerprints to be compacted.
+     * @return a new compacted radio map.
+     * @throws IllegalArgumentException if fingerprints is null.
+     */
+    public RadioMap<P> compact(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, P>> fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var result = createRadioMap();
+        result.insertAll(internalCompact(fingerprints));
+        return result;
+    }
+
+    /**
+     * Finds radio sources that would be removed by compaction because of their low
+     * visibility or stability.
+     *
+     * @param fingerprints located fingerprints.
+     * @return radio sources to be removed.
+     * @throws IllegalArgumentException if fingerprints is null.
+     */
+    public Set<RadioSource> findPrunedSources(final Collection<? extends RssiFingerprintLocated<RadioSource,
+            RssiReading<RadioSource>, P>> fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+
+        // number of fingerprints containing each source, sum and number of known standard
+        // deviations of their readings
+        final var counts = new HashMap<RadioSource, double[]>();
+        for (final var fingerprint : fingerprints) {
+            final var seen = new HashSet<RadioSource>();
+            for (final var reading : fingerprint.getReadings()) {
+                final var stats = counts.computeIfAbsent(reading.getSource(), k -> new double[3]);
+                if (seen.add(reading.getSource())) {
+                    stats[0]++;
+                }
+                final var std = reading.getRssiStandardDeviation();
+                if (std != null) {
+                    stats[1] += std;
+                    stats[2]++;
+                }
+            }
+        }
+
+        final var total = fingerprints.size();
+        final var result = new HashSet<RadioSource>();
+        for (final var entry : counts.entrySet()) {
+            final var stats = entry.getValue();
+            if (stats[0] / total < minSourceVisibility
+                    || (stats[2] > 0.0 && stats[1] / stats[2] > maxSourceRssiStandardDeviation)) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates accuracy loss caused by compaction of provided fingerprints using k-fold
+     * cross-validation.
+     * Fingerprints are split into folds. Fingerprints of each fold are located using a
+     * non-linear position estimator with the remaining fingerprints, both as provided and
+     * once compacted, and obtained position errors are averaged among all folds.
+     *
+     * @param fingerprints located fingerprints to be compacted.
+     * @param sources      located radio sources used by position estimators.
+     * @return compaction report.
+     * @throws IllegalArgumentException if any parameter is null.
+     */
+    public RadioMapCompactionReport crossValidate(
+            final Collection<? extends RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> fingerprints,
+            final List<? extends RadioSourceLocated<P>> sources) {
+        if (fingerprints == null || sources == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var all = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>(
+                fingerprints);
+        final var compacted = internalCompact(all);
+
+        var numValidated = 0;
+        var numFailed = 0;
+        var errorSum = 0.0;
+        var compactedErrorSum = 0.0;
+        final var folds = Math.min(numberOfFolds, all.size());
+        for (var fold = 0; fold < folds; fold++) {
+            final var training = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>();
+            final var validation = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>();
+            for (var i = 0; i < all.size(); i++) {
+                (i % folds == fold ? validation : training).add(all.get(i));
+            }
+
+            final var compactedTraining = internalCompact(training);
+            for (final var fingerprint : validation) {
+                final var error = estimatePositionError(training, fingerprint, sources);
+                final var compactedError = estimatePositionError(compactedTraining, fingerprint, sources);
+                if (Double.isNaN(error) || Double.isNaN(compactedError)) {
+                    numFailed++;
+                } else {
+                    errorSum += error;
+                    compactedErrorSum += compactedError;
+                    numValidated++;
+                }
+            }
+        }
+
+        return new RadioMapCompactionReport(all.size(), compacted.size(), countSources(all),
+                countSources(compacted), numValidated, numFailed,
+                numValidated > 0 ? errorSum / numValidated : Double.NaN,
+                numValidated > 0 ? compactedErrorSum / numValidated : Double.NaN);
+    }
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    public abstract int getNumberOfDimensions();
+
+    /**
+     * Creates an empty radio map.
+     *
+     * @return a new radio map.
+     */
+    protected abstract RadioMap<P> createRadioMap();
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings           readings of fingerprint.
+     * @param position           coordinates of position of fingerprint.
+     * @param positionCovariance covariance of position or null.
+     * @return created located fingerprint.
+     */
+    protected abstract RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final double[] position,
+            final Matrix positionCovariance);
+
+    /**
+     * Creates a non-linear fingerprint position estimator.
+     *
+     * @param type type of estimator.
+     * @return a new estimator.
+     */
+    protected abstract NonLinearFingerprintPositionEstimator<P> createEstimator(
+            final NonLinearFingerprintPositionEstimatorType type);
+
+    /**
+     * Compacts provided fingerprints.
+     *
+     * @param fingerprints located fingerprints to be compacted.
+     * @return compacted fingerprints.
+     */
+    private List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> internalCompact(
+            final Collection<? extends RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>
+                    fingerprints) {
+        final var dims = getNumberOfDimensions();
+        final var pruned = findPrunedSources(fingerprints);
+        final var cellSize = maxPositionDistance > 0.0 ? maxPositionDistance : 1.0;
+        final var sqrMaxPositionDistance = maxPositionDistance * maxPositionDistance;
+
+        final var clusters = new ArrayList<Cluster>();
+        final var grid = new HashMap<Long, ArrayList<Cluster>>();
+        final var cell = new long[dims];
+        final var neighbour = new long[dims];
+        for (final var fingerprint : fingerprints) {
+            final var readings = new ArrayList<RssiReading<RadioSource>>(fingerprint.getReadings().size());
+            for (final var reading : fingerprint.getReadings()) {
+                if (!pruned.contains(reading.getSource())) {
+                    readings.add(reading);
+                }
+            }
+            if (readings.isEmpty()) {
+                continue;
+            }
+
+            final var position = fingerprint.getPosition();
+            final var coordinates = new double[dims];
+            for (var i = 0; i < dims; i++) {
+                coordinates[i] = position.getInhomogeneousCoordinate(i);
+                cell[i] = (long) Math.floor(coordinates[i] / cellSize);
+            }
+
+            final var cluster = findCluster(grid, cell, neighbour, coordinates, readings, sqrMaxPositionDistance);
+            if (cluster != null) {
+                cluster.add(readings, coordinates);
+            } else {
+                final var created = new Cluster(fingerprint, readings, coordinates);
+                clusters.add(created);
+                grid.computeIfAbsent(cellKey(cell), k -> new ArrayList<>()).add(created);
+            }
+        }
+
+        final var result = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>(
+                clusters.size());
+        for (final var cluster : clusters) {
+            result.add(cluster.toFingerprint());
+        }
+        return result;
+    }
+
+    /**
+     * Finds cluster whose leading fingerprint is close enough to a fingerprint within the
+     * cell containing the fingerprint and its neighbours.
+     *
+     * @param grid                   clusters within each cell.
+     * @param cell                   cell containing the fingerprint.
+     * @param neighbour              array where neighbour cells are stored.
+     * @param coordinates            coordinates of fingerprint position.
+     * @param readings               readings of fingerprint.
+     * @param sqrMaxPositionDistance squared maximum position distance.
+     * @return found cluster or null if none is close enough.
+     */
+    private Cluster findCluster(
+            final HashMap<Long, ArrayList<Cluster>> grid, final long[] cell, final long[] neighbour,
+            final double[] coordinates, final List<RssiReading<RadioSource>> readings,
+            final double sqrMaxPositionDistance) {
+        final var dims = cell.length;
+        var numNeighbours = 1;
+        for (var i = 0; i < dims; i++) {
+            numNeighbours *= 3;
+        }
+
+        for (var n = 0; n < numNeighbours; n++) {
+            var offsets = n;
+            for (var i = 0; i < dims; i++) {
+                neighbour[i] = cell[i] + (offsets % 3) - 1;
+                offsets /= 3;
+            }
+
+            final var candidates = grid.get(cellKey(neighbour));
+            if (candidates == null) {
+                continue;
+            }
+
+            for (final var candidate : candidates) {
+                var sqrDistance = 0.0;
+                for (var i = 0; i < dims; i++) {
+                    final var diff = coordinates[i] - candidate.leaderCoordinates[i];
+                    sqrDistance += diff * diff;
+                }
+                if (sqrDistance <= sqrMaxPositionDistance
+                        && candidate.signalDistanceTo(readings) <= maxSignalDistance) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Estimates position error when locating provided fingerprint.
+     *
+     * @param locatedFingerprints located fingerprints used for estimation.
+     * @param fingerprint         fingerprint to be located.
+     * @param sources             located radio sources.
+     * @return distance between estimated and actual position of fingerprint or NaN if
+     * position could not be estimated.
+     */
+    private double estimatePositionError(
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> locatedFingerprints,
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> fingerprint,
+            final List<? extends RadioSourceLocated<P>> sources) {
+        try {
+            final var estimator = createEstimator(estimatorType);
+            estimator.setSources(sources);
+            estimator.setLocatedFingerprints(locatedFingerprints);
+            estimator.setFingerprint(fingerprint);
+            estimator.estimate();
+
+            final var estimated = estimator.getEstimatedPositionCoordinates();
+            if (estimated == null) {
+                return Double.NaN;
+            }
+
+            final var position = fingerprint.getPosition();
+            var sqrDistance = 0.0;
+            for (var i = 0; i < estimated.length; i++) {
+                final var diff = estimated[i] - position.getInhomogeneousCoordinate(i);
+                sqrDistance += diff * diff;
+            }
+            return Math.sqrt(sqrDistance);
+        } catch (final LockedException | NotReadyException | FingerprintEstimationException
+                       | IllegalArgumentException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Counts distinct radio sources among provided fingerprints.
+     *
+     * @param fingerprints located fingerprints.
+     * @return number of distinct radio sources.
+     */
+    private static int countSources(final List<? extends RssiFingerprint<RadioSource, RssiReading<RadioSource>>>
+                                            fingerprints) {
+        final var sources = new HashSet<RadioSource>();
+        for (final var fingerprint : fingerprints) {
+            for (final var reading : fingerprint.getReadings()) {
+                sources.add(reading.getSource());
+            }
+        }
+        return sources.size();
+    }
+
+    /**
+     * Combines indices of a grid cell into a single key.
+     * Collisions only cause additional clusters to be checked.
+     *
+     * @param cell indices of cell.
+     * @return key of cell.
+     */
+    private static long cellKey(final long[] cell) {
+        var result = 0L;
+        for (final var index : cell) {
+            result = result * 0x9E3779B97F4A7C15L + index;
+        }
+        return result;
+    }
+
+    /**
+     * Cluster of near-duplicate fingerprints.
+     */
+    private class Cluster {
+
+        /**
+         * First fingerprint of the cluster.
+         */
+        private final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> leader;
+
+        /**
+         * Position coordinates of first fingerprint.
+         */
+        private final double[] leaderCoordinates;
+
+        /**
+         * RSSI of each radio source in first fingerprint.
+         */
+        private final HashMap<RadioSource, Double> leaderRssis = new HashMap<>();
+
+        /**
+         * Whether readings of first fingerprint have been pruned.
+         */
+        private final boolean leaderPruned;
+
+        /**
+         * Accumulated RSSI values of each radio source.
+         */
+        private final LinkedHashMap<RadioSource, RssiAccumulator> accumulators = new LinkedHashMap<>();
+
+        /**
+         * Position coordinates of all fingerprints in the cluster.
+         */
+        private final ArrayList<double[]> members = new ArrayList<>();
+
+        /**
+         * Constructor.
+         *
+         * @param leader      first fingerprint of the cluster.
+         * @param readings    readings of first fingerprint not being pruned.
+         * @param coordinates position coordinates of first fingerprint.
+         */
+        Cluster(final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> leader,
+                final List<RssiReading<RadioSource>> readings, final double[] coordinates) {
+            this.leader = leader;
+            leaderCoordinates = coordinates;
+            leaderPruned = readings.size() != leader.getReadings().size();
+            for (final var reading : readings) {
+                leaderRssis.put(reading.getSource(), reading.getRssi());
+            }
+            add(readings, coordinates);
+        }
+
+        /**
+         * Adds a fingerprint to this cluster.
+         *
+         * @param readings    readings of fingerprint not being pruned.
+         * @param coordinates position coordinates of fingerprint.
+         */
+        void add(final List<RssiReading<RadioSource>> readings, final double[] coordinates) {
+            members.add(coordinates);
+            for (final var reading : readings) {
+                accumulators.computeIfAbsent(reading.getSource(), k -> new RssiAccumulator())
+                        .add(reading.getRssi(), reading.getRssiStandardDeviation());
+            }
+        }
+
+        /**
+         * Computes root mean square RSSI difference between provided readings and first
+         * fingerprint of this cluster.
+         *
+         * @param readings readings to be compared.
+         * @return signal distance.
+         */
+        double signalDistanceTo(final List<RssiReading<RadioSource>> readings) {
+            var sum = 0.0;
+            var count = 0;
+            var matched = 0;
+            for (final var reading : readings) {
+                final var leaderRssi = leaderRssis.get(reading.getSource());
+                final double diff;
+                if (leaderRssi != null) {
+                    diff = reading.getRssi() - leaderRssi;
+                    matched++;
+                } else {
+                    diff = reading.getRssi() - missingRssi;
+                }
+                sum += diff * diff;
+                count++;
+            }
+
+            if (matched < leaderRssis.size()) {
+                // sources only received by first fingerprint
+                final var sources = new HashSet<RadioSource>(readings.size());
+                for (final var reading : readings) {
+                    sources.add(reading.getSource());
+                }
+                for (final var entry : leaderRssis.entrySet()) {
+                    if (!sources.contains(entry.getKey())) {
+                        final var diff = entry.getValue() - missingRssi;
+                        sum += diff * diff;
+                        count++;
+                    }
+                }
+            }
+
+            return Math.sqrt(sum / count);
+        }
+
+        /**
+         * Converts this cluster into a located fingerprint.
+         * Clusters containing a single fingerprint without pruned readings are converted
+         * into that same fingerprint.
+         *
+         * @return located fingerprint.
+         */
+        RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> toFingerprint() {
+            if (members.size() == 1 && !leaderPruned) {
+                return leader;
+            }
+
+            final var readings = new ArrayList<RssiReading<RadioSource>>(accumulators.size());
+            for (final var entry : accumulators.entrySet()) {
+                final var accumulator = entry.getValue();
+                readings.add(new RssiReading<>(entry.getKey(), accumulator.getMean(),
+                        accumulator.getStandardDeviation()));
+            }
+
+            if (members.size() == 1) {
+                return createFingerprint(readings, leaderCoordinates, leader.getPositionCovariance());
+            }
+
+            final var dims = leaderCoordinates.length;
+            final var n = members.size();
+            final var mean = new double[dims];
+            for (final var member : members) {
+                for (var i = 0; i < dims; i++) {
+                    mean[i] += member[i] / n;
+                }
+            }
+
+            Matrix covariance = null;
+            try {
+                final var c = new Matrix(dims, dims);
+                var spread = false;
+                for (final var member : members) {
+                    for (var i = 0; i < dims; i++) {
+                        for (var j = 0; j < dims; j++) {
+                            final var value = (member[i] - mean[i]) * (member[j] - mean[j]) / n;
+                            c.setElementAt(i, j, c.getElementAt(i, j) + value);
+                            spread |= i == j && value > 0.0;
+                        }
+                    }
+                }
+                if (spread) {
+                    covariance = c;
+                }
+            } catch (final WrongSizeException ignore) {
+                // never happens
+            }
+
+            return createFingerprint(readings, mean, covariance);
+        }
+    }
+}
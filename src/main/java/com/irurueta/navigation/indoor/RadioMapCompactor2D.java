@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimator;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimator2D;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimatorType;
+
+import java.util.List;
+
+/**
+ * Compacts radio maps made of 2D located RSSI fingerprints.
+ */
+public class RadioMapCompactor2D extends RadioMapCompactor<Point2D> {
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates an empty radio map.
+     *
+     * @return a new radio map.
+     */
+    @Override
+    protected RadioMap<Point2D> createRadioMap() {
+        return new RadioMap2D();
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings           readings of fingerprint.
+     * @param position           coordinates of position of fingerprint.
+     * @param positionCovariance covariance of position or null.
+     * @return created located fingerprint.
+     */
+    @Override
+    protected RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D> createFingerprint(
+            final List<RssiReading<RadioSource>> readings, final double[] position,
+            final Matrix positionCovariance) {
+        return new RssiFingerprintLocated2D<>(readings, new InhomogeneousPoint2D(position[0], position[1]),
+                positionCovariance);
+    }
+
+    /**
+     * Creates a non-linear fingerprint position estimator.
+     *
+     * @param type type of estimator.
+     * @return a new estimator.
+     */
+    @Override
+    protected NonLinearFingerprintPositionEstimator<Point2D> createEstimator(
+            final NonLinearFingerprintPositionEstimatorType type) {
+        return NonLinearFingerprintPositionEstimator2D.create(type);
+    }
+}
@@ -0,0 +1,496 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds located RSSI fingerprints (i.e. a radio map) from surveyed scans, which are
+ * ingested one at a time, so that survey logs can be processed without keeping them in
+ * memory.
+ * Scans made at the same reference point are merged into a single fingerprint containing
+ * one reading for each radio source, whose RSSI is the mean of all RSSI values of that
+ * radio source, which is updated on each scan using Welford's method. RSSI standard
+ * deviation combines the sample standard deviation of those values with the average of
+ * their known standard deviations.
+ * Two scans are considered to be made at the same reference point when their positions
+ * fall within the same cell of a grid having provided resolution, and the position of a
+ * merged fingerprint is the mean of the positions of its scans.
+ * <p>
+ * Merged fingerprints are written into a {@link FingerprintSink} once no more scans are
+ * expected for their reference points. Because surveys usually collect all scans of a
+ * reference point before moving to the next one, at most a given number of reference
+ * points are kept pending, and when that number is exceeded, the reference point that
+ * has not received scans for the longest time is written. Memory is therefore bounded
+ * by the number of pending reference points regardless of the size of the survey,
+ * although if a written reference point receives scans again, a new fingerprint is
+ * started for it.
+ * <p>
+ * This class is not thread safe.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class RadioMapIngestor<P extends Point<?>> {
+
+    /**
+     * Default maximum number of reference points kept pending.
+     */
+    public static final int DEFAULT_MAX_PENDING_REFERENCE_POINTS = 64;
+
+    /**
+     * Default resolution of the grid used to match reference points, expressed in meters.
+     */
+    public static final double DEFAULT_REFERENCE_POINT_RESOLUTION = 0.01;
+
+    /**
+     * Default minimum number of RSSI values of a radio source required to keep it in a
+     * merged fingerprint.
+     */
+    public static final int DEFAULT_MIN_SAMPLES_PER_SOURCE = 1;
+
+    /**
+     * Sink where merged fingerprints are written.
+     */
+    private final FingerprintSink<P> sink;
+
+    /**
+     * Maximum number of reference points kept pending.
+     */
+    private final int maxPendingReferencePoints;
+
+    /**
+     * Resolution of the grid used to match reference points, expressed in meters.
+     * Zero indicates that positions must match exactly.
+     */
+    private final double referencePointResolution;
+
+    /**
+     * Minimum number of RSSI values of a radio source required to keep it in a merged
+     * fingerprint.
+     */
+    private final int minSamplesPerSource;
+
+    /**
+     * Pending reference points in order of last scan.
+     */
+    private final LinkedHashMap<CellKey, ReferencePoint> pending;
+
+    /**
+     * Number of ingested scans.
+     */
+    private long numIngestedScans;
+
+    /**
+     * Number of ingested RSSI values.
+     */
+    private long numIngestedReadings;
+
+    /**
+     * Number of fingerprints written into the sink.
+     */
+    private long numWrittenFingerprints;
+
+    /**
+     * Constructor.
+     *
+     * @param sink sink where merged fingerprints are written.
+     * @throws IllegalArgumentException if sink is null.
+     */
+    protected RadioMapIngestor(final FingerprintSink<P> sink) {
+        this(sink, DEFAULT_MAX_PENDING_REFERENCE_POINTS, DEFAULT_REFERENCE_POINT_RESOLUTION,
+                DEFAULT_MIN_SAMPLES_PER_SOURCE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink                      sink where merged fingerprints are written.
+     * @param maxPendingReferencePoints maximum number of reference points kept pending.
+     * @param referencePointResolution  resolution of the grid used to match reference
+     *                                  points, expressed in meters. Zero indicates that
+     *                                  positions must match exactly.
+     * @param minSamplesPerSource       minimum number of RSSI values of a radio source
+     *                                  required to keep it in a merged fingerprint.
+     * @throws IllegalArgumentException if sink is null, maximum number of pending
+     *                                  reference points or minimum number of samples are
+     *                                  less than 1 or resolution is negative.
+     */
+    protected RadioMapIngestor(
+            final FingerprintSink<P> sink, final int maxPendingReferencePoints,
+            final double referencePointResolution, final int minSamplesPerSource) {
+        if (sink == null || maxPendingReferencePoints < 1 || !(referencePointResolution >= 0.0)
+                || minSamplesPerSource < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.sink = sink;
+        this.maxPendingReferencePoints = maxPendingReferencePoints;
+        this.referencePointResolution = referencePointResolution;
+        this.minSamplesPerSource = minSamplesPerSource;
+        pending = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Gets sink where merged fingerprints are written.
+     *
+     * @return sink where merged fingerprints are written.
+     */
+    public FingerprintSink<P> getSink() {
+        return sink;
+    }
+
+    /**
+     * Gets maximum number of reference points kept pending.
+     *
+     * @return maximum number of reference points kept pending.
+     */
+    public int getMaxPendingReferencePoints() {
+        return maxPendingReferencePoints;
+    }
+
+    /**
+     * Gets resolution of the grid used to match reference points, expressed in meters.
+     *
+     * @return resolution of the grid used to match reference points.
+     */
+    public double getReferencePointResolution() {
+        return referencePointResolution;
+    }
+
+    /**
+     * Gets minimum number of RSSI values of a radio source required to keep it in a
+     * merged fingerprint.
+     *
+     * @return minimum number of RSSI values of a radio source.
+     */
+    public int getMinSamplesPerSource() {
+        return minSamplesPerSource;
+    }
+
+    /**
+     * Gets number of reference points currently pending to be written.
+     *
+     * @return number of pending reference points.
+     */
+    public int getNumberOfPendingReferencePoints() {
+        return pending.size();
+    }
+
+    /**
+     * Gets number of ingested scans.
+     *
+     * @return number of ingested scans.
+     */
+    public long getNumberOfIngestedScans() {
+        return numIngestedScans;
+    }
+
+    /**
+     * Gets number of ingested RSSI values.
+     *
+     * @return number of ingested RSSI values.
+     */
+    public long getNumberOfIngestedReadings() {
+        return numIngestedReadings;
+    }
+
+    /**
+     * Gets number of fingerprints written into the sink.
+     *
+     * @return number of written fingerprints.
+     */
+    public long getNumberOfWrittenFingerprints() {
+        return numWrittenFingerprints;
+    }
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    public abstract int getNumberOfDimensions();
+
+    /**
+     * Ingests a scan made at provided position.
+     * Only readings containing RSSI values (either {@link RssiReading} or
+     * {@link RangingAndRssiReading}) are taken into account.
+     *
+     * @param scan     scan containing readings.
+     * @param position position where scan was made.
+     * @throws IllegalArgumentException if any parameter is null.
+     * @throws IOException              if a fingerprint must be written and the sink fails.
+     */
+    public void addScan(final Fingerprint<?, ?> scan, final P position) throws IOException {
+        if (scan == null || position == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var key = new CellKey(position, referencePointResolution);
+        var referencePoint = pending.get(key);
+        if (referencePoint == null) {
+            referencePoint = new ReferencePoint(getNumberOfDimensions());
+            pending.put(key, referencePoint);
+        }
+        referencePoint.add(scan, position);
+        numIngestedScans++;
+
+        if (pending.size() > maxPendingReferencePoints) {
+            final Iterator<Map.Entry<CellKey, ReferencePoint>> it = pending.entrySet().iterator();
+            // eldest reference point is only discarded once written, so that it is kept
+            // pending if sink fails
+            write(it.next().getValue());
+            it.remove();
+        }
+    }
+
+    /**
+     * Ingests a located scan.
+     *
+     * @param scan located scan containing readings.
+     * @throws IllegalArgumentException if scan is null.
+     * @throws IOException              if a fingerprint must be written and the sink fails.
+     */
+    public void addScan(final RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, P> scan) throws IOException {
+        if (scan == null) {
+            throw new IllegalArgumentException();
+        }
+        addScan(scan, scan.getPosition());
+    }
+
+    /**
+     * Ingests all provided located scans.
+     *
+     * @param scans located scans to be ingested.
+     * @throws IllegalArgumentException if scans or any scan is null.
+     * @throws IOException              if a fingerprint must be written and the sink fails.
+     */
+    public void addScans(final Iterable<? extends RssiFingerprintLocated<? extends RadioSource,
+            ? extends RssiReading<? extends RadioSource>, P>> scans) throws IOException {
+        if (scans == null) {
+            throw new IllegalArgumentException();
+        }
+        for (final var scan : scans) {
+            addScan(scan);
+        }
+    }
+
+    /**
+     * Ingests all located scans contained in a survey log encoded by a
+     * {@link BinaryEncoder} until its end is reached.
+     * Scans are decoded one at a time, so that only pending reference points are kept in
+     * memory.
+     *
+     * @param decoder decoder of a survey log containing located fingerprints.
+     * @return number of ingested scans.
+     * @throws IllegalArgumentException if decoder is null.
+     * @throws IOException              if survey log cannot be decoded, contains a
+     *                                  fingerprint that is not located or whose position
+     *                                  has a different number of dimensions, or the sink
+     *                                  fails.
+     */
+    @SuppressWarnings("unchecked")
+    public long addScans(final BinaryDecoder decoder) throws IOException {
+        if (decoder == null) {
+            throw new IllegalArgumentException();
+        }
+
+        var count = 0L;
+        while (decoder.hasRemaining()) {
+            final Fingerprint<?, ?> scan = decoder.readFingerprint();
+            if (!(scan instanceof FingerprintLocated<?> located)
+                    || located.getPosition().getDimensions() != getNumberOfDimensions()) {
+                throw new IOException("Survey log contains a scan without a valid position");
+            }
+            addScan(scan, (P) located.getPosition());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes all pending reference points into the sink.
+     * This must be called once all scans have been ingested.
+     * If sink fails, reference points not yet written are kept pending, so that they
+     * can be written again.
+     *
+     * @throws IOException if sink fails.
+     */
+    public void flush() throws IOException {
+        final var it = pending.values().iterator();
+        while (it.hasNext()) {
+            write(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings merged readings.
+     * @param position coordinates of mean position of reference point.
+     * @return created located fingerprint.
+     */
+    protected abstract RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> createFingerprint(
+            final ArrayList<RssiReading<RadioSource>> readings, final double[] position);
+
+    /**
+     * Writes merged fingerprint of a reference point into the sink.
+     * Reference points not having any radio source with enough RSSI values are discarded.
+     *
+     * @param referencePoint reference point to be written.
+     * @throws IOException if sink fails.
+     */
+    private void write(final ReferencePoint referencePoint) throws IOException {
+        final var readings = new ArrayList<RssiReading<RadioSource>>(referencePoint.accumulators.size());
+        for (final var entry : referencePoint.accumulators.entrySet()) {
+            final var accumulator = entry.getValue();
+            if (accumulator.getCount() < minSamplesPerSource) {
+                continue;
+            }
+            readings.add(new RssiReading<>(entry.getKey(), accumulator.getMean(),
+                    accumulator.getStandardDeviation()));
+        }
+
+        if (readings.isEmpty()) {
+            return;
+        }
+
+        sink.write(createFingerprint(readings, referencePoint.position));
+        numWrittenFingerprints++;
+    }
+
+    /**
+     * Ingests a single RSSI value into a reference point.
+     *
+     * @param referencePoint reference point.
+     * @param source         radio source.
+     * @param rssi           RSSI value.
+     * @param rssiStd        standard deviation of RSSI value or null.
+     */
+    private void addRssi(final ReferencePoint referencePoint, final RadioSource source, final double rssi,
+                         final Double rssiStd) {
+        var accumulator = referencePoint.accumulators.get(source);
+        if (accumulator == null) {
+            accumulator = new RssiAccumulator();
+            referencePoint.accumulators.put(source, accumulator);
+        }
+        accumulator.add(rssi, rssiStd);
+        numIngestedReadings++;
+    }
+
+    /**
+     * Key of the grid cell containing a position.
+     */
+    private static final class CellKey {
+
+        /**
+         * Cell indices, or raw coordinate bits if positions must match exactly.
+         */
+        private final long[] cells;
+
+        /**
+         * Cached hash code.
+         */
+        private final int hash;
+
+        /**
+         * Constructor.
+         *
+         * @param position   position.
+         * @param resolution resolution of the grid.
+         */
+        CellKey(final Point<?> position, final double resolution) {
+            final var dims = position.getDimensions();
+            cells = new long[dims];
+            for (var i = 0; i < dims; i++) {
+                final var coordinate = position.getInhomogeneousCoordinate(i);
+                cells[i] = resolution > 0.0 ? Math.round(coordinate / resolution)
+                        : Double.doubleToLongBits(coordinate + 0.0);
+            }
+            hash = Arrays.hashCode(cells);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return obj instanceof CellKey other && Arrays.equals(cells, other.cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Pending reference point.
+     */
+    private final class ReferencePoint {
+
+        /**
+         * Accumulated RSSI values for each radio source, in order of first occurrence.
+         */
+        private final LinkedHashMap<RadioSource, RssiAccumulator> accumulators = new LinkedHashMap<>();
+
+        /**
+         * Mean coordinates of scan positions.
+         */
+        private final double[] position;
+
+        /**
+         * Number of merged scans.
+         */
+        private long numScans;
+
+        /**
+         * Constructor.
+         *
+         * @param dims number of dimensions.
+         */
+        ReferencePoint(final int dims) {
+            position = new double[dims];
+        }
+
+        /**
+         * Merges a scan.
+         *
+         * @param scan     scan to be merged.
+         * @param position position where scan was made.
+         */
+        void add(final Fingerprint<?, ?> scan, final Point<?> position) {
+            numScans++;
+            for (var i = 0; i < this.position.length; i++) {
+                this.position[i] += (position.getInhomogeneousCoordinate(i) - this.position[i]) / numScans;
+            }
+
+            for (final var reading : scan.getReadings()) {
+                if (reading instanceof RssiReading<?> rssiReading) {
+                    addRssi(this, rssiReading.getSource(), rssiReading.getRssi(),
+                            rssiReading.getRssiStandardDeviation());
+                } else if (reading instanceof RangingAndRssiReading<?> rangingAndRssiReading) {
+                    addRssi(this, rangingAndRssiReading.getSource(), rangingAndRssiReading.getRssi(),
+                            rangingAndRssiReading.getRssiStandardDeviation());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+
+import java.util.ArrayList;
+
+/**
+ * Builds 3D located RSSI fingerprints from surveyed scans.
+ */
+public class RadioMapIngestor3D extends RadioMapIngestor<Point3D> {
+
+    /**
+     * Constructor.
+     *
+     * @param sink sink where merged fingerprints are written.
+     * @throws IllegalArgumentException if sink is null.
+     */
+    public RadioMapIngestor3D(final FingerprintSink<Point3D> sink) {
+        super(sink);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sink                      sink where merged fingerprints are written.
+     * @param maxPendingReferencePoints maximum number of reference points kept pending.
+     * @param referencePointResolution  resolution of the grid used to match reference
+     *                                  points, expressed in meters. Zero indicates that
+     *                                  positions must match exactly.
+     * @param minSamplesPerSource       minimum number of RSSI values of a radio source
+     *                                  required to keep it in a merged fingerprint.
+     * @throws IllegalArgumentException if sink is null, maximum number of pending
+     *                                  reference points or minimum number of samples are
+     *                                  less than 1 or resolution is negative.
+     */
+    public RadioMapIngestor3D(
+            final FingerprintSink<Point3D> sink, final int maxPendingReferencePoints,
+            final double referencePointResolution, final int minSamplesPerSource) {
+        super(sink, maxPendingReferencePoints, referencePointResolution, minSamplesPerSource);
+    }
+
+    /**
+     * Gets number of dimensions of positions.
+     *
+     * @return number of dimensions of positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point3D.POINT3D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates a located fingerprint.
+     *
+     * @param readings merged readings.
+     * @param position coordinates of mean position of reference point.
+     * @return created located fingerprint.
+     */
+    @Override
+    protected RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point3D> createFingerprint(
+            final ArrayList<RssiReading<RadioSource>> readings, final double[] position) {
+        return new RssiFingerprintLocated3D<>(readings, new InhomogeneousPoint3D(position[0], position[1], position[2]));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Identifies a partition of a {@link PartitionedRadioMap} by building and floor.
+ */
+public class RadioMapPartitionKey implements Serializable {
+
+    /**
+     * Building label or null if venue contains a single building.
+     */
+    private final String building;
+
+    /**
+     * Floor number within the building.
+     */
+    private final int floor;
+
+    /**
+     * Constructor.
+     *
+     * @param building building label or null if venue contains a single building.
+     * @param floor    floor number within the building.
+     */
+    public RadioMapPartitionKey(final String building, final int floor) {
+        this.building = building;
+        this.floor = floor;
+    }
+
+    /**
+     * Constructor for venues containing a single building.
+     *
+     * @param floor floor number.
+     */
+    public RadioMapPartitionKey(final int floor) {
+        this(null, floor);
+    }
+
+    /**
+     * Gets building label.
+     *
+     * @return building label or null if venue contains a single building.
+     */
+    public String getBuilding() {
+        return building;
+    }
+
+    /**
+     * Gets floor number within the building.
+     *
+     * @return floor number.
+     */
+    public int getFloor() {
+        return floor;
+    }
+
+    /**
+     * Indicates whether this instance is equal to provided object.
+     *
+     * @param obj object to be compared.
+     * @return true if both objects refer to the same building and floor, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RadioMapPartitionKey other)) {
+            return false;
+        }
+
+        return floor == other.floor && Objects.equals(building, other.building);
+    }
+
+    /**
+     * Returns hashcode associated to this instance.
+     *
+     * @return hashcode.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(building, floor);
+    }
+
+    /**
+     * Returns a string representation of this instance.
+     *
+     * @return string representation.
+     */
+    @Override
+    public String toString() {
+        return building != null ? building + ":" + floor : String.valueOf(floor);
+    }
+}
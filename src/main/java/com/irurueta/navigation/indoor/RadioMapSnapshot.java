@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable version of the contents of a {@link RadioMap}.
+ * A snapshot is never modified once it has been obtained, so that queries made on it
+ * see a consistent radio map even if the radio map is concurrently updated.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class RadioMapSnapshot<P extends Point<?>> {
+
+    /**
+     * Version of the radio map this snapshot belongs to.
+     */
+    private final long version;
+
+    /**
+     * Located fingerprints of the radio map.
+     */
+    private final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> fingerprints;
+
+    /**
+     * Located fingerprints containing readings of each radio source.
+     */
+    private final Map<RadioSource, List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>>
+            fingerprintsBySource;
+
+    /**
+     * Constructor.
+     *
+     * @param version              version of the radio map.
+     * @param fingerprints         unmodifiable list of located fingerprints.
+     * @param fingerprintsBySource unmodifiable map of located fingerprints containing
+     *                             readings of each radio source.
+     */
+    RadioMapSnapshot(
+            final long version,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> fingerprints,
+            final Map<RadioSource, List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>>
+                    fingerprintsBySource) {
+        this.version = version;
+        this.fingerprints = fingerprints;
+        this.fingerprintsBySource = fingerprintsBySource;
+    }
+
+    /**
+     * Gets version of the radio map this snapshot belongs to.
+     * Version is increased each time the radio map is modified.
+     *
+     * @return version of the radio map.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets unmodifiable list of located fingerprints.
+     *
+     * @return located fingerprints.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getFingerprints() {
+        return fingerprints;
+    }
+
+    /**
+     * Gets number of located fingerprints.
+     *
+     * @return number of located fingerprints.
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Indicates whether this snapshot contains no fingerprints.
+     *
+     * @return true if there are no fingerprints, false otherwise.
+     */
+    public boolean isEmpty() {
+        return fingerprints.isEmpty();
+    }
+
+    /**
+     * Gets unmodifiable set of radio sources having readings in any fingerprint.
+     *
+     * @return radio sources having readings.
+     */
+    public Set<RadioSource> getSources() {
+        return fingerprintsBySource.keySet();
+    }
+
+    /**
+     * Gets unmodifiable list of located fingerprints containing readings of provided
+     * radio source.
+     * Radio sources are compared by their identifiers.
+     *
+     * @param source radio source.
+     * @return located fingerprints containing readings of provided radio source or an
+     * empty list if there are none.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getFingerprintsContaining(
+            final RadioSource source) {
+        final var result = fingerprintsBySource.get(source);
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * Gets unmodifiable map of located fingerprints containing readings of each radio
+     * source.
+     *
+     * @return located fingerprints containing readings of each radio source.
+     */
+    Map<RadioSource, List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>>>
+    getFingerprintsBySource() {
+        return fingerprintsBySource;
+    }
+}
@@ -34,6 +34,12 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
      */
     private final Collection<? extends RssiFingerprintLocated<S, RssiReading<S>, P>> fingerprints;
 
+    /**
+     * Radio map whose latest snapshot is used to match against or null if a fixed
+     * collection of fingerprints is used.
+     */
+    private final RadioMap<P> radioMap;
+
     /**
      * Constructor.
      *
@@ -46,6 +52,38 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
             throw new IllegalArgumentException();
         }
         this.fingerprints = fingerprints;
+        radioMap = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param radioMap radio map to match against.
+     */
+    private RadioSourceKNearestFinder(final RadioMap<P> radioMap) {
+        this.fingerprints = null;
+        this.radioMap = radioMap;
+    }
+
+    /**
+     * Creates a finder that searches on the latest snapshot of provided radio map at the
+     * time each search is made, so that updates of the radio map are taken into account
+     * without building a new finder.
+     * Radio sources of fingerprints contained in a radio map are typed as
+     * {@link RadioSource}, hence returned finder uses {@link RadioSource} as its radio
+     * source type.
+     *
+     * @param radioMap radio map to match against.
+     * @param <P>      a {@link Point} type.
+     * @return a new finder.
+     * @throws IllegalArgumentException if radio map is null.
+     */
+    public static <P extends Point<?>> RadioSourceKNearestFinder<P, RadioSource> create(
+            final RadioMap<P> radioMap) {
+        if (radioMap == null) {
+            throw new IllegalArgumentException();
+        }
+        return new RadioSourceKNearestFinder<>(radioMap);
     }
 
     /**
@@ -57,7 +95,7 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
      */
     public RssiFingerprintLocated<S, RssiReading<S>, P> findNearestTo(
             final RssiFingerprint<S, RssiReading<S>> fingerprint) {
-        return findNearestTo(fingerprint, fingerprints);
+        return findNearestTo(fingerprint, getFingerprints());
     }
 
     /**
@@ -71,7 +109,7 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
      */
     public List<RssiFingerprintLocated<S, RssiReading<S>, P>> findKNearestTo(
             final RssiFingerprint<S, RssiReading<S>> fingerprint, final int k) {
-        return findKNearestTo(fingerprint, fingerprints, k);
+        return findKNearestTo(fingerprint, getFingerprints(), k);
     }
 
     /**
@@ -90,7 +128,16 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
             final RssiFingerprint<S, RssiReading<S>> fingerprint, final int k,
             final List<RssiFingerprintLocated<S, RssiReading<S>, P>> nearestFingerprints,
             final List<Double> nearestSqrDistances) {
-        findKNearestTo(fingerprint, fingerprints, k, nearestFingerprints, nearestSqrDistances);
+        findKNearestTo(fingerprint, getFingerprints(), k, nearestFingerprints, nearestSqrDistances);
+    }
+
+    /**
+     * Gets radio map to match against, if this finder was built on a radio map.
+     *
+     * @return radio map to match against or null.
+     */
+    public RadioMap<P> getRadioMap() {
+        return radioMap;
     }
 
     /**
@@ -99,6 +146,11 @@ public class RadioSourceKNearestFinder<P extends Point<?>, S extends RadioSource
      * @return collection of fingerprints to match against.
      */
     public Collection<RssiFingerprintLocated<S, RssiReading<S>, P>> getFingerprints() {
+        if (radioMap != null) {
+            //noinspection unchecked
+            return (Collection<RssiFingerprintLocated<S, RssiReading<S>, P>>) (Collection<?>)
+                    radioMap.getFingerprints();
+        }
         //noinspection unchecked
         return (Collection<RssiFingerprintLocated<S, RssiReading<S>,P>>) fingerprints;
     }
@@ -37,6 +37,12 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
      */
     private final Collection<? extends RssiFingerprintLocated<S, RssiReading<S>, P>> mFingerprints;
 
+    /**
+     * Radio map whose latest snapshot is used to match against or null if a fixed
+     * collection of fingerprints is used.
+     */
+    private final RadioMap<P> mRadioMap;
+
     /**
      * Constructor.
      *
@@ -49,6 +55,38 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
             throw new IllegalArgumentException();
         }
         mFingerprints = fingerprints;
+        mRadioMap = null;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param radioMap radio map to match against.
+     */
+    private RadioSourceNoMeanKNearestFinder(final RadioMap<P> radioMap) {
+        mFingerprints = null;
+        mRadioMap = radioMap;
+    }
+
+    /**
+     * Creates a finder that searches on the latest snapshot of provided radio map at the
+     * time each search is made, so that updates of the radio map are taken into account
+     * without building a new finder.
+     * Radio sources of fingerprints contained in a radio map are typed as
+     * {@link RadioSource}, hence returned finder uses {@link RadioSource} as its radio
+     * source type.
+     *
+     * @param radioMap radio map to match against.
+     * @param <P>      a {@link Point} type.
+     * @return a new finder.
+     * @throws IllegalArgumentException if radio map is null.
+     */
+    public static <P extends Point<?>> RadioSourceNoMeanKNearestFinder<P, RadioSource> create(
+            final RadioMap<P> radioMap) {
+        if (radioMap == null) {
+            throw new IllegalArgumentException();
+        }
+        return new RadioSourceNoMeanKNearestFinder<>(radioMap);
     }
 
     /**
@@ -60,7 +98,7 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
      */
     public RssiFingerprintLocated<S, RssiReading<S>, P> findNearestTo(
             final RssiFingerprint<S, RssiReading<S>> fingerprint) {
-        return findNearestTo(fingerprint, mFingerprints);
+        return findNearestTo(fingerprint, getFingerprints());
     }
 
     /**
@@ -74,7 +112,7 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
      */
     public List<RssiFingerprintLocated<S, RssiReading<S>, P>> findKNearestTo(
             final RssiFingerprint<S, RssiReading<S>> fingerprint, final int k) {
-        return findKNearestTo(fingerprint, mFingerprints, k);
+        return findKNearestTo(fingerprint, getFingerprints(), k);
     }
 
     /**
@@ -93,7 +131,16 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
             final RssiFingerprint<S, RssiReading<S>> fingerprint, final int k,
             final List<RssiFingerprintLocated<S, RssiReading<S>, P>> nearestFingerprints,
             final List<Double> nearestSqrDistances) {
-        findKNearestTo(fingerprint, mFingerprints, k, nearestFingerprints, nearestSqrDistances);
+        findKNearestTo(fingerprint, getFingerprints(), k, nearestFingerprints, nearestSqrDistances);
+    }
+
+    /**
+     * Gets radio map to match against, if this finder was built on a radio map.
+     *
+     * @return radio map to match against or null.
+     */
+    public RadioMap<P> getRadioMap() {
+        return mRadioMap;
     }
 
     /**
@@ -102,6 +149,11 @@ public class RadioSourceNoMeanKNearestFinder<P extends Point<?>, S extends Radio
      * @return collection of fingerprints to match against.
      */
     public Collection<RssiFingerprintLocated<S, RssiReading<S>, P>> getFingerprints() {
+        if (mRadioMap != null) {
+            //noinspection unchecked
+            return (Collection<RssiFingerprintLocated<S, RssiReading<S>, P>>) (Collection<?>)
+                    mRadioMap.getFingerprints();
+        }
         //noinspection unchecked
         return (Collection<RssiFingerprintLocated<S, RssiReading<S>,P>>) mFingerprints;
     }
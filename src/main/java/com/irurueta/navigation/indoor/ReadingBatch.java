@@ -0,0 +1,535 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Compact batch of readings at an unknown location stored in parallel primitive
+ * arrays, as an alternative to fingerprints containing one object per reading.
+ * Radio source of each reading is identified by its index within a
+ * {@link VenueModel}, and absent values (such as distance of RSSI readings, RSSI of
+ * ranging readings or unknown standard deviations) are stored as NaN.
+ * A batch can be cleared and reused for each new scan, so that once internal arrays
+ * have grown to the typical number of readings of a scan, no further allocations
+ * are made when ingesting readings.
+ * This class is not thread-safe.
+ */
+public class ReadingBatch implements Serializable {
+
+    /**
+     * Default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Index of radio source of each reading within the venue model.
+     */
+    private int[] sourceIndices;
+
+    /**
+     * Received signal strength of each reading expressed in dBm's, or NaN if not
+     * available.
+     */
+    private double[] rssis;
+
+    /**
+     * Standard deviation of received signal strength of each reading, or NaN if not
+     * available.
+     */
+    private double[] rssiStandardDeviations;
+
+    /**
+     * Distance in meters of each reading, or NaN if not available.
+     */
+    private double[] distances;
+
+    /**
+     * Standard deviation of distance of each reading, or NaN if not available.
+     */
+    private double[] distanceStandardDeviations;
+
+    /**
+     * Number of attempted measurements of each reading.
+     */
+    private int[] numAttemptedMeasurements;
+
+    /**
+     * Number of successful measurements of each reading.
+     */
+    private int[] numSuccessfulMeasurements;
+
+    /**
+     * Number of readings contained in this batch.
+     */
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public ReadingBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity initial capacity.
+     * @throws IllegalArgumentException if capacity is negative.
+     */
+    public ReadingBatch(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        sourceIndices = new int[capacity];
+        rssis = new double[capacity];
+        rssiStandardDeviations = new double[capacity];
+        distances = new double[capacity];
+        distanceStandardDeviations = new double[capacity];
+        numAttemptedMeasurements = new int[capacity];
+        numSuccessfulMeasurements = new int[capacity];
+    }
+
+    /**
+     * Creates a batch containing the readings of provided fingerprint whose radio
+     * sources are found within provided venue model.
+     * Readings whose radio source is not found are ignored.
+     *
+     * @param venueModel  prepared model of located radio sources.
+     * @param fingerprint fingerprint containing readings.
+     * @param <P>         a {@link Point} type.
+     * @return a new batch.
+     * @throws IllegalArgumentException if any value is null.
+     */
+    public static <P extends Point<?>> ReadingBatch fromFingerprint(
+            final VenueModel<P> venueModel,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint) {
+        if (venueModel == null || fingerprint == null || fingerprint.getReadings() == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var readings = fingerprint.getReadings();
+        final var result = new ReadingBatch(readings.size());
+        for (final var reading : readings) {
+            final var sourceIndex = venueModel.indexOf(reading.getSource());
+            if (sourceIndex < 0) {
+                continue;
+            }
+
+            switch (reading.getType()) {
+                case RANGING_READING:
+                    final var ranging = (RangingReading<? extends RadioSource>) reading;
+                    result.addRanging(sourceIndex, ranging.getDistance(),
+                            toPrimitive(ranging.getDistanceStandardDeviation()),
+                            ranging.getNumAttemptedMeasurements(), ranging.getNumSuccessfulMeasurements());
+                    break;
+                case RSSI_READING:
+                    final var rssi = (RssiReading<? extends RadioSource>) reading;
+                    result.addRssi(sourceIndex, rssi.getRssi(), toPrimitive(rssi.getRssiStandardDeviation()));
+                    break;
+                case RANGING_AND_RSSI_READING:
+                    final var rangingAndRssi = (RangingAndRssiReading<? extends RadioSource>) reading;
+                    result.addRangingAndRssi(sourceIndex, rangingAndRssi.getDistance(), rangingAndRssi.getRssi(),
+                            toPrimitive(rangingAndRssi.getDistanceStandardDeviation()),
+                            toPrimitive(rangingAndRssi.getRssiStandardDeviation()),
+                            rangingAndRssi.getNumAttemptedMeasurements(),
+                            rangingAndRssi.getNumSuccessfulMeasurements());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds an RSSI reading.
+     *
+     * @param sourceIndex index of radio source within the venue model.
+     * @param rssi        received signal strength expressed in dBm's.
+     * @throws IllegalArgumentException if source index is negative.
+     */
+    public void addRssi(final int sourceIndex, final double rssi) {
+        addRssi(sourceIndex, rssi, Double.NaN);
+    }
+
+    /**
+     * Adds an RSSI reading.
+     *
+     * @param sourceIndex           index of radio source within the venue model.
+     * @param rssi                  received signal strength expressed in dBm's.
+     * @param rssiStandardDeviation standard deviation of received signal strength,
+     *                              or NaN if not available.
+     * @throws IllegalArgumentException if source index is negative or standard
+     *                                  deviation is zero or negative.
+     */
+    public void addRssi(final int sourceIndex, final double rssi, final double rssiStandardDeviation) {
+        if (rssiStandardDeviation <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        add(sourceIndex, rssi, rssiStandardDeviation, Double.NaN, Double.NaN,
+                RangingReading.DEFAULT_NUM_MEASUREMENTS, RangingReading.DEFAULT_NUM_MEASUREMENTS);
+    }
+
+    /**
+     * Adds a ranging reading.
+     *
+     * @param sourceIndex index of radio source within the venue model.
+     * @param distance    distance in meters to the radio source.
+     * @throws IllegalArgumentException if source index or distance is negative.
+     */
+    public void addRanging(final int sourceIndex, final double distance) {
+        addRanging(sourceIndex, distance, Double.NaN, RangingReading.DEFAULT_NUM_MEASUREMENTS,
+                RangingReading.DEFAULT_NUM_MEASUREMENTS);
+    }
+
+    /**
+     * Adds a ranging reading.
+     *
+     * @param sourceIndex               index of radio source within the venue model.
+     * @param distance                  distance in meters to the radio source.
+     * @param distanceStandardDeviation standard deviation of distance, or NaN if not
+     *                                  available.
+     * @param numAttemptedMeasurements  number of attempted measurements used in the RTT
+     *                                  exchange.
+     * @param numSuccessfulMeasurements number of successful measurements used to
+     *                                  calculate the distance and standard deviation.
+     * @throws IllegalArgumentException if source index or distance is negative,
+     *                                  standard deviation is zero or negative, number of
+     *                                  attempted measures is less than 1 or number of
+     *                                  successful measures is negative.
+     */
+    public void addRanging(final int sourceIndex, final double distance, final double distanceStandardDeviation,
+                           final int numAttemptedMeasurements, final int numSuccessfulMeasurements) {
+        if (distance < 0.0 || distanceStandardDeviation <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        add(sourceIndex, Double.NaN, Double.NaN, distance, distanceStandardDeviation, numAttemptedMeasurements,
+                numSuccessfulMeasurements);
+    }
+
+    /**
+     * Adds a ranging and RSSI reading.
+     *
+     * @param sourceIndex index of radio source within the venue model.
+     * @param distance    distance in meters to the radio source.
+     * @param rssi        received signal strength expressed in dBm's.
+     * @throws IllegalArgumentException if source index or distance is negative.
+     */
+    public void addRangingAndRssi(final int sourceIndex, final double distance, final double rssi) {
+        addRangingAndRssi(sourceIndex, distance, rssi, Double.NaN, Double.NaN,
+                RangingReading.DEFAULT_NUM_MEASUREMENTS, RangingReading.DEFAULT_NUM_MEASUREMENTS);
+    }
+
+    /**
+     * Adds a ranging and RSSI reading.
+     *
+     * @param sourceIndex               index of radio source within the venue model.
+     * @param distance                  distance in meters to the radio source.
+     * @param rssi                      received signal strength expressed in dBm's.
+     * @param distanceStandardDeviation standard deviation of distance, or NaN if not
+     *                                  available.
+     * @param rssiStandardDeviation     standard deviation of received signal
+     *                                  strength, or NaN if not available.
+     * @param numAttemptedMeasurements  number of attempted measurements used in the RTT
+     *                                  exchange.
+     * @param numSuccessfulMeasurements number of successful measurements used to
+     *                                  calculate the distance and standard deviation.
+     * @throws IllegalArgumentException if source index or distance is negative, any of
+     *                                  the standard deviations is zero or negative,
+     *                                  number of attempted measures is less than 1 or
+     *                                  number of successful measures is negative.
+     */
+    public void addRangingAndRssi(final int sourceIndex, final double distance, final double rssi,
+                                  final double distanceStandardDeviation, final double rssiStandardDeviation,
+                                  final int numAttemptedMeasurements, final int numSuccessfulMeasurements) {
+        if (distance < 0.0 || distanceStandardDeviation <= 0.0 || rssiStandardDeviation <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+        add(sourceIndex, rssi, rssiStandardDeviation, distance, distanceStandardDeviation, numAttemptedMeasurements,
+                numSuccessfulMeasurements);
+    }
+
+    /**
+     * Removes all readings, keeping internal arrays so that they can be reused.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets number of readings contained in this batch.
+     *
+     * @return number of readings.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether this batch contains no readings.
+     *
+     * @return true if batch is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets number of readings that can be contained without growing internal arrays.
+     *
+     * @return capacity of this batch.
+     */
+    public int getCapacity() {
+        return sourceIndices.length;
+    }
+
+    /**
+     * Gets index of radio source of reading at provided position within the venue
+     * model.
+     *
+     * @param i position of reading.
+     * @return index of radio source.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public int getSourceIndex(final int i) {
+        checkIndex(i);
+        return sourceIndices[i];
+    }
+
+    /**
+     * Gets type of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return type of reading.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public ReadingType getType(final int i) {
+        checkIndex(i);
+        if (Double.isNaN(distances[i])) {
+            return ReadingType.RSSI_READING;
+        }
+        return Double.isNaN(rssis[i]) ? ReadingType.RANGING_READING : ReadingType.RANGING_AND_RSSI_READING;
+    }
+
+    /**
+     * Indicates whether reading at provided position contains received signal
+     * strength.
+     *
+     * @param i position of reading.
+     * @return true if reading contains RSSI, false otherwise.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public boolean hasRssi(final int i) {
+        checkIndex(i);
+        return !Double.isNaN(rssis[i]);
+    }
+
+    /**
+     * Indicates whether reading at provided position contains distance.
+     *
+     * @param i position of reading.
+     * @return true if reading contains distance, false otherwise.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public boolean hasDistance(final int i) {
+        checkIndex(i);
+        return !Double.isNaN(distances[i]);
+    }
+
+    /**
+     * Gets received signal strength of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return received signal strength expressed in dBm's or NaN if not available.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public double getRssi(final int i) {
+        checkIndex(i);
+        return rssis[i];
+    }
+
+    /**
+     * Gets standard deviation of received signal strength of reading at provided
+     * position.
+     *
+     * @param i position of reading.
+     * @return standard deviation of received signal strength or NaN if not available.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public double getRssiStandardDeviation(final int i) {
+        checkIndex(i);
+        return rssiStandardDeviations[i];
+    }
+
+    /**
+     * Gets distance of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return distance in meters or NaN if not available.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public double getDistance(final int i) {
+        checkIndex(i);
+        return distances[i];
+    }
+
+    /**
+     * Gets standard deviation of distance of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return standard deviation of distance or NaN if not available.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public double getDistanceStandardDeviation(final int i) {
+        checkIndex(i);
+        return distanceStandardDeviations[i];
+    }
+
+    /**
+     * Gets number of attempted measurements of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return number of attempted measurements.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public int getNumAttemptedMeasurements(final int i) {
+        checkIndex(i);
+        return numAttemptedMeasurements[i];
+    }
+
+    /**
+     * Gets number of successful measurements of reading at provided position.
+     *
+     * @param i position of reading.
+     * @return number of successful measurements.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public int getNumSuccessfulMeasurements(final int i) {
+        checkIndex(i);
+        return numSuccessfulMeasurements[i];
+    }
+
+    /**
+     * Converts readings containing received signal strength into an RSSI fingerprint,
+     * looking up their radio sources within provided venue model.
+     * This is meant to be used with estimators that compare fingerprints, and
+     * readings whose radio source is not found within the venue model are ignored.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @param <P>        a {@link Point} type.
+     * @return a new RSSI fingerprint.
+     * @throws IllegalArgumentException if venue model is null.
+     */
+    public <P extends Point<?>> RssiFingerprint<RadioSource, RssiReading<RadioSource>> toRssiFingerprint(
+            final VenueModel<P> venueModel) {
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var numSources = venueModel.getNumberOfSources();
+        final var readings = new ArrayList<RssiReading<RadioSource>>(size);
+        for (var i = 0; i < size; i++) {
+            final var sourceIndex = sourceIndices[i];
+            if (sourceIndex >= numSources || Double.isNaN(rssis[i])) {
+                continue;
+            }
+
+            final var std = rssiStandardDeviations[i];
+            readings.add(new RssiReading<>((RadioSource) venueModel.getSource(sourceIndex), rssis[i],
+                    Double.isNaN(std) ? null : std));
+        }
+        return new RssiFingerprint<>(readings);
+    }
+
+    /**
+     * Adds a reading.
+     *
+     * @param sourceIndex               index of radio source within the venue model.
+     * @param rssi                      received signal strength or NaN.
+     * @param rssiStandardDeviation     standard deviation of received signal strength
+     *                                  or NaN.
+     * @param distance                  distance or NaN.
+     * @param distanceStandardDeviation standard deviation of distance or NaN.
+     * @param numAttemptedMeasurements  number of attempted measurements.
+     * @param numSuccessfulMeasurements number of successful measurements.
+     * @throws IllegalArgumentException if source index is negative, number of
+     *                                  attempted measures is less than 1 or number of
+     *                                  successful measures is negative.
+     */
+    private void add(final int sourceIndex, final double rssi, final double rssiStandardDeviation,
+                     final double distance, final double distanceStandardDeviation,
+                     final int numAttemptedMeasurements, final int numSuccessfulMeasurements) {
+        if (sourceIndex < 0 || numAttemptedMeasurements < RangingReading.DEFAULT_NUM_MEASUREMENTS
+                || numSuccessfulMeasurements < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (size == sourceIndices.length) {
+            grow();
+        }
+
+        sourceIndices[size] = sourceIndex;
+        rssis[size] = rssi;
+        rssiStandardDeviations[size] = rssiStandardDeviation;
+        distances[size] = distance;
+        distanceStandardDeviations[size] = distanceStandardDeviation;
+        this.numAttemptedMeasurements[size] = numAttemptedMeasurements;
+        this.numSuccessfulMeasurements[size] = numSuccessfulMeasurements;
+        size++;
+    }
+
+    /**
+     * Grows internal arrays.
+     */
+    private void grow() {
+        final var capacity = Math.max(DEFAULT_CAPACITY, 2 * sourceIndices.length);
+        sourceIndices = Arrays.copyOf(sourceIndices, capacity);
+        rssis = Arrays.copyOf(rssis, capacity);
+        rssiStandardDeviations = Arrays.copyOf(rssiStandardDeviations, capacity);
+        distances = Arrays.copyOf(distances, capacity);
+        distanceStandardDeviations = Arrays.copyOf(distanceStandardDeviations, capacity);
+        numAttemptedMeasurements = Arrays.copyOf(numAttemptedMeasurements, capacity);
+        numSuccessfulMeasurements = Arrays.copyOf(numSuccessfulMeasurements, capacity);
+    }
+
+    /**
+     * Checks whether provided position of a reading is valid.
+     *
+     * @param i position of reading.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    private void checkIndex(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Converts an optional standard deviation into a primitive value.
+     *
+     * @param value value to be converted.
+     * @return provided value or NaN if not available.
+     */
+    private static double toPrimitive(final Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+/**
+ * Accumulates mean and standard deviation of RSSI values of a radio source using
+ * Welford's method, along with known standard deviations of each RSSI value.
+ * Resulting variance pools the sample variance of accumulated values with the
+ * average of their known variances, so that a single value keeps its own standard
+ * deviation and the uncertainty of each value is never discarded once more values
+ * are added.
+ */
+final class RssiAccumulator {
+
+    /**
+     * Number of values.
+     */
+    private long count;
+
+    /**
+     * Mean of values.
+     */
+    private double mean;
+
+    /**
+     * Sum of squared differences respect to the mean.
+     */
+    private double m2;
+
+    /**
+     * Sum of known variances of values.
+     */
+    private double varianceSum;
+
+    /**
+     * Number of values with known variance.
+     */
+    private long varianceCount;
+
+    /**
+     * Adds a value.
+     *
+     * @param value value to be added.
+     * @param std   standard deviation of value or null if unknown.
+     */
+    void add(final double value, final Double std) {
+        count++;
+        final var delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (std != null) {
+            varianceSum += std * std;
+            varianceCount++;
+        }
+    }
+
+    /**
+     * Gets number of added values.
+     *
+     * @return number of added values.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets mean of added values.
+     *
+     * @return mean of added values.
+     */
+    double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets standard deviation of added values, combining their sample variance with
+     * their average known variance.
+     *
+     * @return standard deviation or null if it is not known or is zero.
+     */
+    Double getStandardDeviation() {
+        var variance = count > 1 ? m2 / (count - 1) : 0.0;
+        if (varianceCount > 0) {
+            variance += varianceSum / varianceCount;
+        }
+        return variance > 0.0 ? Math.sqrt(variance) : null;
+    }
+}
@@ -0,0 +1,472 @@
+/*
+ * Copyright (C) 2026 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.SingularValueDecomposer;
+import com.irurueta.geometry.Point;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Prepared model of the located radio sources of a venue.
+ * Located radio sources are indexed by their identifiers (e.g. BSSID for Wi-Fi access points or
+ * identifiers for beacons), and their positions, position covariances, path-loss exponents and
+ * frequency dependent propagation constants are stored in arrays, so that data required by
+ * estimators can be obtained by simple array lookups without scanning the list of radio sources
+ * or recomputing constants on each estimation.
+ * A venue model is built once from a list of located radio sources and can be shared among
+ * many estimations as long as provided radio sources do not change. If radio sources change,
+ * a new venue model must be built.
+ * Position uncertainties of radio sources are obtained from their position covariances the
+ * first time they are requested and are kept afterwards, so that covariances are decomposed
+ * only once for each radio source. Uncertainties are safely published, so that they can be
+ * requested concurrently by estimations sharing the same venue model. If position
+ * covariances of radio sources are modified, cached uncertainties must be invalidated.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class VenueModel<P extends Point<?>> implements Serializable {
+
+    /**
+     * Located radio sources this model has been built from.
+     */
+    private final List<? extends RadioSourceLocated<P>> sources;
+
+    /**
+     * Maps radio sources to their position within the list of sources.
+     * Radio sources are compared by their ids regardless of them being located or not.
+     */
+    private final Map<RadioSource, Integer> indices;
+
+    /**
+     * Number of dimensions of radio source positions.
+     */
+    private final int dims;
+
+    /**
+     * Positions of radio sources.
+     */
+    private final P[] positions;
+
+    /**
+     * Inhomogeneous coordinates of radio sources positions, stored consecutively for each
+     * radio source.
+     */
+    private final double[] coordinates;
+
+    /**
+     * Frequency dependent constants 10 * log10(c / (4 * pi * f)) of each radio source, where c
+     * is the speed of light and f is the radio source frequency.
+     */
+    private final double[] frequencyConstants;
+
+    /**
+     * Path-loss exponents of radio sources or NaN if unknown.
+     */
+    private final double[] pathLossExponents;
+
+    /**
+     * Variances of path-loss exponents of radio sources or NaN if unknown.
+     */
+    private final double[] pathLossExponentVariances;
+
+    /**
+     * Position covariance and uncertainty of each radio source.
+     * Each element is immutable, so that covariance and uncertainty derived from it are
+     * always published together and can be safely read while the model is shared among
+     * threads.
+     */
+    private final AtomicReferenceArray<PositionUncertainty> positionUncertainties;
+
+    /**
+     * Constructor.
+     *
+     * @param sources located radio sources.
+     * @throws IllegalArgumentException if provided sources are null.
+     */
+    public VenueModel(final List<? extends RadioSourceLocated<P>> sources) {
+        if (sources == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.sources = sources;
+
+        final var num = sources.size();
+        indices = new HashMap<>(Math.max(16, 2 * num));
+
+        //noinspection unchecked
+        positions = (P[]) new Point<?>[num];
+        frequencyConstants = new double[num];
+        pathLossExponents = new double[num];
+        pathLossExponentVariances = new double[num];
+        positionUncertainties = new AtomicReferenceArray<>(num);
+
+        var d = 0;
+        for (var i = 0; i < num; i++) {
+            final var source = sources.get(i);
+            final var position = source.getPosition();
+            positions[i] = position;
+            positionUncertainties.set(i, new PositionUncertainty(source.getPositionCovariance()));
+            if (position != null) {
+                d = Math.max(d, position.getDimensions());
+            }
+
+            frequencyConstants[i] = Double.NaN;
+            pathLossExponents[i] = Double.NaN;
+            pathLossExponentVariances[i] = Double.NaN;
+
+            if (source instanceof RadioSource radioSource) {
+                // when repeated, keep first occurrence as it happens when searching the list
+                indices.putIfAbsent(radioSource, i);
+
+                final var k = Utils.SPEED_OF_LIGHT / (4.0 * Math.PI * radioSource.getFrequency());
+                frequencyConstants[i] = 10.0 * Math.log10(k);
+            }
+
+            if (source instanceof RadioSourceWithPower sourceWithPower) {
+                pathLossExponents[i] = sourceWithPower.getPathLossExponent();
+                final var std = sourceWithPower.getPathLossExponentStandardDeviation();
+                if (std != null) {
+                    pathLossExponentVariances[i] = std * std;
+                }
+            }
+        }
+        dims = d;
+
+        coordinates = new double[num * dims];
+        for (var i = 0; i < num; i++) {
+            final var position = positions[i];
+            if (position == null) {
+                continue;
+            }
+            final var offset = i * dims;
+            for (var j = 0; j < dims; j++) {
+                coordinates[offset + j] = position.getInhomogeneousCoordinate(j);
+            }
+        }
+    }
+
+    /**
+     * Gets located radio sources this model has been built from.
+     *
+     * @return located radio sources.
+     */
+    public List<RadioSourceLocated<P>> getSources() {
+        //noinspection unchecked
+        return (List<RadioSourceLocated<P>>) sources;
+    }
+
+    /**
+     * Gets number of radio sources contained in this model.
+     *
+     * @return number of radio sources.
+     */
+    public int getNumberOfSources() {
+        return positions.length;
+    }
+
+    /**
+     * Gets number of dimensions of radio sources positions.
+     *
+     * @return number of dimensions of radio sources positions.
+     */
+    public int getNumberOfDimensions() {
+        return dims;
+    }
+
+    /**
+     * Gets position of provided radio source within this model.
+     * Radio sources are compared by their ids regardless of them being located or not.
+     *
+     * @param source radio source to be found.
+     * @return position of radio source or -1 if not found.
+     */
+    public int indexOf(final RadioSource source) {
+        if (source == null) {
+            return -1;
+        }
+        final var index = indices.get(source);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets located radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @return located radio source.
+     */
+    public RadioSourceLocated<P> getSource(final int index) {
+        return sources.get(index);
+    }
+
+    /**
+     * Gets position of radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @return radio source position.
+     */
+    public P getPosition(final int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets inhomogeneous coordinate of the position of radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @param dim   dimension of coordinate to be obtained.
+     * @return coordinate of radio source position.
+     */
+    public double getPositionCoordinate(final int index, final int dim) {
+        return coordinates[index * dims + dim];
+    }
+
+    /**
+     * Gets covariance of position of radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @return covariance of radio source position or null if unknown.
+     */
+    public Matrix getPositionCovariance(final int index) {
+        return positionUncertainties.get(index).covariance;
+    }
+
+    /**
+     * Gets frequency dependent constant 10 * log10(c / (4 * pi * f)) of radio source at
+     * provided position, where c is the speed of light and f is the radio source frequency.
+     *
+     * @param index position of radio source.
+     * @return frequency dependent constant or NaN if not available.
+     */
+    public double getFrequencyConstant(final int index) {
+        return frequencyConstants[index];
+    }
+
+    /**
+     * Gets propagation constant 10 * n * log10(c / (4 * pi * f)) of radio source at provided
+     * position for provided path-loss exponent n.
+     *
+     * @param index            position of radio source.
+     * @param pathLossExponent path-loss exponent.
+     * @return propagation constant or NaN if not available.
+     */
+    public double getPropagationConstant(final int index, final double pathLossExponent) {
+        return pathLossExponent * frequencyConstants[index];
+    }
+
+    /**
+     * Indicates whether path-loss exponent of radio source at provided position is known.
+     *
+     * @param index position of radio source.
+     * @return true if path-loss exponent is known, false otherwise.
+     */
+    public boolean hasPathLossExponent(final int index) {
+        return !Double.isNaN(pathLossExponents[index]);
+    }
+
+    /**
+     * Gets path-loss exponent of radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @return path-loss exponent or NaN if unknown.
+     */
+    public double getPathLossExponent(final int index) {
+        return pathLossExponents[index];
+    }
+
+    /**
+     * Gets variance of path-loss exponent of radio source at provided position.
+     *
+     * @param index position of radio source.
+     * @return variance of path-loss exponent or null if unknown.
+     */
+    public Double getPathLossExponentVariance(final int index) {
+        final var variance = pathLossExponentVariances[index];
+        return Double.isNaN(variance) ? null : variance;
+    }
+
+    /**
+     * Gets standard deviation of position of radio source at provided position.
+     * Standard deviation is obtained as the square root of the average of the singular
+     * values of the position covariance, which contain the variances on each principal
+     * axis.
+     * Covariance is only decomposed the first time this value is requested.
+     *
+     * @param index position of radio source.
+     * @return standard deviation of radio source position or null if unknown.
+     */
+    public Double getPositionStandardDeviation(final int index) {
+        final var std = getPositionUncertainty(index).std;
+        return Double.isNaN(std) ? null : std;
+    }
+
+    /**
+     * Gets standard deviation of position of radio source at provided position along
+     * its principal axis, which is the one having the largest uncertainty.
+     * Covariance is only decomposed the first time this value is requested.
+     *
+     * @param index position of radio source.
+     * @return standard deviation along principal axis or null if unknown.
+     */
+    public Double getPositionPrincipalStandardDeviation(final int index) {
+        final var std = getPositionUncertainty(index).principalStd;
+        return Double.isNaN(std) ? null : std;
+    }
+
+    /**
+     * Invalidates cached position uncertainty of radio source at provided position,
+     * so that it is computed again from its position covariance next time it is
+     * requested.
+     * This must be called if position covariance of such radio source is modified.
+     *
+     * @param index position of radio source.
+     */
+    public void invalidatePositionUncertainty(final int index) {
+        positionUncertainties.set(index, new PositionUncertainty(sources.get(index).getPositionCovariance()));
+    }
+
+    /**
+     * Invalidates cached position uncertainties of all radio sources.
+     * This must be called if position covariances of radio sources are modified.
+     */
+    public void invalidatePositionUncertainties() {
+        for (var i = 0; i < positionUncertainties.length(); i++) {
+            invalidatePositionUncertainty(i);
+        }
+    }
+
+    /**
+     * Gets position uncertainty of radio source at provided position, computing it if
+     * not already computed.
+     * If several threads request it at once, it might be computed more than once, but
+     * all of them obtain the same values. Computed uncertainty is only stored if
+     * covariance has not been invalidated meanwhile, so that uncertainties of previous
+     * covariances are never kept.
+     *
+     * @param index position of radio source.
+     * @return position uncertainty of radio source.
+     */
+    private PositionUncertainty getPositionUncertainty(final int index) {
+        while (true) {
+            final var uncertainty = positionUncertainties.get(index);
+            if (uncertainty.computed) {
+                return uncertainty;
+            }
+
+            final var result = uncertainty.compute();
+            if (positionUncertainties.compareAndSet(index, uncertainty, result)) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Contains position covariance of a radio source along with the uncertainty derived
+     * from it.
+     */
+    private static final class PositionUncertainty implements Serializable {
+
+        /**
+         * Covariance of radio source position or null if unknown.
+         */
+        private final Matrix covariance;
+
+        /**
+         * Standard deviation of radio source position, obtained as the square root of
+         * the average of the singular values of its position covariance, or NaN if
+         * unknown.
+         */
+        private final double std;
+
+        /**
+         * Standard deviation of radio source position along its principal axis (the one
+         * having the largest uncertainty), or NaN if unknown.
+         */
+        private final double principalStd;
+
+        /**
+         * Indicates whether standard deviations have already been computed from
+         * covariance.
+         */
+        private final boolean computed;
+
+        /**
+         * Constructor for an uncertainty not computed yet.
+         *
+         * @param covariance covariance of radio source position or null if unknown.
+         */
+        private PositionUncertainty(final Matrix covariance) {
+            this(covariance, Double.NaN, Double.NaN, false);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param covariance   covariance of radio source position or null if unknown.
+         * @param std          standard deviation of radio source position.
+         * @param principalStd standard deviation along principal axis.
+         * @param computed     true if standard deviations have been computed.
+         */
+        private PositionUncertainty(final Matrix covariance, final double std, final double principalStd,
+                                    final boolean computed) {
+            this.covariance = covariance;
+            this.std = std;
+            this.principalStd = principalStd;
+            this.computed = computed;
+        }
+
+        /**
+         * Computes standard deviations from covariance.
+         *
+         * @return new instance containing computed standard deviations.
+         */
+        private PositionUncertainty compute() {
+            var std = Double.NaN;
+            var principalStd = Double.NaN;
+            if (covariance != null) {
+                try {
+                    final var decomposer = new SingularValueDecomposer(covariance);
+                    decomposer.decompose();
+
+                    // singular values contain variances on each principal axis
+                    final var singularValues = decomposer.getSingularValues();
+
+                    // compute average of singular values as an "average" variance
+                    // of position
+                    var variance = 0.0;
+                    var maxVariance = 0.0;
+                    for (final var singularValue : singularValues) {
+                        variance += singularValue / singularValues.length;
+                        maxVariance = Math.max(maxVariance, singularValue);
+                    }
+
+                    std = Math.sqrt(variance);
+                    principalStd = Math.sqrt(maxVariance);
+
+                } catch (final AlgebraException ignore) {
+                    // uncertainty remains unknown
+                }
+            }
+
+            return new PositionUncertainty(covariance, std, principalStd, true);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.fingerprint;
+
+/**
+ * Quality criterion to select the best solution among candidates estimated for different
+ * numbers of nearest fingerprints.
+ */
+public enum CandidateSelectionCriterion {
+    /**
+     * Selects the solution having the smallest chi square value divided by its degrees
+     * of freedom.
+     */
+    REDUCED_CHI_SQUARE,
+
+    /**
+     * Selects the solution having the smallest trace of its estimated position covariance.
+     */
+    COVARIANCE_TRACE
+}
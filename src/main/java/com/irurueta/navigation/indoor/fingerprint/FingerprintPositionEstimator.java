@@ -19,9 +19,11 @@ import com.irurueta.geometry.Point;
 import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
+import com.irurueta.navigation.indoor.ReadingBatch;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiFingerprintLocated;
 import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
 
 import java.util.List;
 
@@ -40,6 +42,12 @@ public abstract class FingerprintPositionEstimator<P extends Point<?>> extends
      */
     protected List<? extends RadioSourceLocated<P>> sources;
 
+    /**
+     * Prepared model of located radio sources.
+     * This is built from located radio sources when needed, unless it is provided.
+     */
+    protected VenueModel<P> venueModel;
+
     /**
      * Indicates whether path loss exponent of provided sources must be used when
      * available (if true), or if fallback path loss exponent must be used instead.
@@ -154,6 +162,65 @@ public abstract class FingerprintPositionEstimator<P extends Point<?>> extends
         internalSetSources(sources);
     }
 
+    /**
+     * Gets prepared model of located radio sources.
+     * If no model has been provided, it is built from current located radio sources.
+     * A venue model can be shared among estimators using the same located radio sources
+     * to avoid indexing radio sources on each estimator.
+     *
+     * @return prepared model of located radio sources or null if no sources are available.
+     */
+    public VenueModel<P> getVenueModel() {
+        if (venueModel == null && sources != null) {
+            venueModel = new VenueModel<>(sources);
+        }
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources.
+     * Located radio sources are replaced by the ones contained in provided model.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.sources = venueModel.getSources();
+        this.venueModel = venueModel;
+    }
+
+    /**
+     * Sets readings at an unknown location contained in a batch, whose radio sources
+     * are identified by their index within the venue model.
+     * Since located fingerprints are compared against RSSI readings, only readings
+     * of provided batch containing RSSI are taken into account, and they are
+     * converted into the fingerprint of this estimator.
+     *
+     * @param readingBatch batch of readings at an unknown location.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null or no located radio
+     *                                  sources are available.
+     */
+    public void setReadingBatch(final ReadingBatch readingBatch) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        final var model = getVenueModel();
+        if (readingBatch == null || model == null) {
+            throw new IllegalArgumentException();
+        }
+
+        setFingerprint(readingBatch.toRssiFingerprint(model));
+    }
+
     /**
      * Indicates whether path loss exponent of provided sources must be used when
      * available (if true), or if fallback path loss exponent must be used instead.
@@ -256,6 +323,28 @@ public abstract class FingerprintPositionEstimator<P extends Point<?>> extends
         return sources != null && locatedFingerprints != null && fingerprint != null;
     }
 
+    /**
+     * Finds position within provided venue model of the radio source of each reading
+     * contained in the fingerprint at an unknown location.
+     *
+     * @param model prepared model of located radio sources.
+     * @return position of radio source of each fingerprint reading or -1 if radio source
+     * is not located.
+     */
+    int[] findFingerprintSourceIndices(final VenueModel<P> model) {
+        final var readings = fingerprint.getReadings();
+        if (readings == null) {
+            return new int[0];
+        }
+
+        final var num = readings.size();
+        final var result = new int[num];
+        for (var i = 0; i < num; i++) {
+            result[i] = model.indexOf(readings.get(i).getSource());
+        }
+        return result;
+    }
+
     /**
      * Internally sets located radio sources.
      *
@@ -268,5 +357,6 @@ public abstract class FingerprintPositionEstimator<P extends Point<?>> extends
         }
 
         this.sources = sources;
+        venueModel = null;
     }
 }
@@ -40,6 +40,11 @@ import java.util.List;
  */
 public class FirstOrderNonLinearFingerprintPositionEstimator2D extends NonLinearFingerprintPositionEstimator2D {
 
+    /**
+     * Number of Taylor expansion coefficients computed for each reading.
+     */
+    private static final int NUMBER_OF_TAYLOR_COEFFICIENTS = 2;
+
     /**
      * Constructor.
      */
@@ -165,35 +170,35 @@ public class FirstOrderNonLinearFingerprintPositionEstimator2D extends NonLinear
     }
 
     /**
-     * Evaluates a non-linear multi dimension function at provided point using
-     * provided parameters and returns its evaluation and derivatives of the
-     * function respect the function parameters.
+     * Gets number of Taylor expansion coefficients computed for each reading.
      *
-     * @param i           number of sample being evaluated.
-     * @param point       point where function will be evaluated.
-     * @param params      initial parameters estimation to be tried. These will
-     *                    change as the Levenberg-Marquardt algorithm iterates to the best solution.
-     *                    These are used as input parameters along with point to evaluate function.
-     * @param derivatives partial derivatives of the function respect to each
-     *                    provided parameter.
-     * @return function evaluation at provided point.
+     * @return number of Taylor expansion coefficients.
      */
     @Override
-    @SuppressWarnings("Duplicates")
-    protected double evaluate(
-            final int i, final double[] point, final double[] params, final double[] derivatives) {
-        // This method implements received power at point pi = (xi, yi) and its derivatives
+    protected int getNumberOfTaylorCoefficients() {
+        return NUMBER_OF_TAYLOR_COEFFICIENTS;
+    }
+
+    /**
+     * Computes the Taylor expansion coefficients of received power for provided sample.
+     * Coefficients only depend on the located fingerprint, the radio source and the
+     * path-loss exponent of the sample, hence they remain constant while the
+     * Levenberg-Marquardt algorithm iterates and only need to be computed once per
+     * reading.
+     *
+     * @param point        point containing sample data. Contains fingerprint RSSI, fingerprint
+     *                     position, radio source position and path-loss exponent.
+     * @param coefficients array where computed coefficients will be stored.
+     * @param offset       position in coefficients array where first coefficient will be stored.
+     */
+    @Override
+    protected void computeTaylorCoefficients(final double[] point, final double[] coefficients, final int offset) {
+        // Received power at point pi = (xi, yi) is approximated by its Taylor expansion
 
         // Pr(pi) = Pr(p1)
         //   - 10*n*(x1 - xa)/(ln(10)*d1a^2)*(xi - x1)
         //   - 10*n*(y1 - ya)/(ln(10)*d1a^2)*(yi - y1)
 
-        final var xi = params[0];
-        final var yi = params[1];
-
-        // received power
-        final var pr = point[0];
-
         // fingerprint coordinates
         final var x1 = point[1];
         final var y1 = point[2];
@@ -207,9 +212,6 @@ public class FirstOrderNonLinearFingerprintPositionEstimator2D extends NonLinear
 
         final var ln10 = Math.log(10.0);
 
-        final var diffXi1 = xi - x1;
-        final var diffYi1 = yi - y1;
-
         final var diffX1a = x1 - xa;
         final var diffY1a = y1 - ya;
 
@@ -221,6 +223,46 @@ public class FirstOrderNonLinearFingerprintPositionEstimator2D extends NonLinear
         final var value1 = -10.0 * n * diffX1a / (ln10 * d1a2);
         final var value2 = -10.0 * n * diffY1a / (ln10 * d1a2);
 
+        coefficients[offset] = value1;
+        coefficients[offset + 1] = value2;
+    }
+
+    /**
+     * Evaluates Taylor expansion of received power at provided point using
+     * provided parameters and previously computed Taylor coefficients, and returns its
+     * evaluation and derivatives of the function respect the function parameters.
+     *
+     * @param point        point where function will be evaluated.
+     * @param params       initial parameters estimation to be tried. These will
+     *                     change as the Levenberg-Marquardt algorithm iterates to the best solution.
+     *                     These are used as input parameters along with point to evaluate function.
+     * @param coefficients array containing precomputed Taylor coefficients.
+     * @param offset       position in coefficients array where coefficients of provided point start.
+     * @param derivatives  partial derivatives of the function respect to each
+     *                     provided parameter.
+     * @return function evaluation at provided point.
+     */
+    @Override
+    @SuppressWarnings("Duplicates")
+    protected double evaluateTaylorExpansion(
+            final double[] point, final double[] params, final double[] coefficients, final int offset,
+            final double[] derivatives) {
+        final var xi = params[0];
+        final var yi = params[1];
+
+        // received power
+        final var pr = point[0];
+
+        // fingerprint coordinates
+        final var x1 = point[1];
+        final var y1 = point[2];
+
+        final var diffXi1 = xi - x1;
+        final var diffYi1 = yi - y1;
+
+        final var value1 = coefficients[offset];
+        final var value2 = coefficients[offset + 1];
+
         final var result = pr + value1 * diffXi1 + value2 * diffYi1;
 
         // derivative respect xi
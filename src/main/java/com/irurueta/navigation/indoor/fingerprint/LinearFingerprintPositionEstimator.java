@@ -24,11 +24,13 @@ import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceKNearestFinder;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.RadioSourceNoMeanKNearestFinder;
-import com.irurueta.navigation.indoor.RadioSourceWithPower;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiFingerprintLocated;
 import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -44,6 +46,38 @@ import java.util.List;
  */
 public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> extends FingerprintPositionEstimator<P> {
 
+    /**
+     * Indicates that by default the system of equations is fully built and solved for each
+     * attempted number of nearest fingerprints.
+     */
+    public static final boolean DEFAULT_INCREMENTAL_NORMAL_EQUATIONS_ENABLED = false;
+
+    /**
+     * Indicates whether normal equations are accumulated incrementally as nearest
+     * fingerprints are added, so that for each attempted number of nearest fingerprints
+     * only equations of newly added fingerprints are computed and a small system having
+     * as many unknowns as dimensions is solved.
+     */
+    private boolean incrementalNormalEquationsEnabled = DEFAULT_INCREMENTAL_NORMAL_EQUATIONS_ENABLED;
+
+    /**
+     * Accumulated product A^T*A of normal equations, stored in row order.
+     * This buffer is reused among estimations.
+     */
+    private double[] normalMatrixData;
+
+    /**
+     * Accumulated product A^T*b of normal equations.
+     * This buffer is reused among estimations.
+     */
+    private double[] normalVector;
+
+    /**
+     * Matrix where accumulated product A^T*A is copied to solve normal equations.
+     * This buffer is reused among estimations.
+     */
+    private Matrix normalMatrix;
+
     /**
      * Constructor.
      */
@@ -109,6 +143,37 @@ public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> ext
         super(locatedFingerprints, fingerprint, sources, listener);
     }
 
+    /**
+     * Indicates whether normal equations are accumulated incrementally as nearest
+     * fingerprints are added, so that for each attempted number of nearest fingerprints
+     * only equations of newly added fingerprints are computed and a small system having
+     * as many unknowns as dimensions is solved.
+     *
+     * @return true if normal equations are accumulated incrementally, false if the
+     * whole system of equations is built and solved for each number of nearest fingerprints.
+     */
+    public boolean isIncrementalNormalEquationsEnabled() {
+        return incrementalNormalEquationsEnabled;
+    }
+
+    /**
+     * Specifies whether normal equations are accumulated incrementally as nearest
+     * fingerprints are added, so that for each attempted number of nearest fingerprints
+     * only equations of newly added fingerprints are computed and a small system having
+     * as many unknowns as dimensions is solved.
+     *
+     * @param incrementalNormalEquationsEnabled true to accumulate normal equations
+     *                                          incrementally, false otherwise.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setIncrementalNormalEquationsEnabled(final boolean incrementalNormalEquationsEnabled)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.incrementalNormalEquationsEnabled = incrementalNormalEquationsEnabled;
+    }
+
     /**
      * Estimates position based on provided located radio sources and readings of such radio sources at
      * an unknown location.
@@ -152,13 +217,44 @@ public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> ext
             estimatedPositionCoordinates = null;
             nearestFingerprints = null;
 
+            // radio sources are indexed once, so that they don't need to be searched for each
+            // attempted number of nearest fingerprints
+            final var model = getVenueModel();
+            final var fingerprintSourceIndices = findFingerprintSourceIndices(model);
+            final var readings = fingerprint.getReadings();
+
             final var dims = getNumberOfDimensions();
             final var max = maxNearestFingerprints < 0
                     ? locatedFingerprints.size()
                     : Math.min(maxNearestFingerprints, locatedFingerprints.size());
+
+            List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> allNearestFingerprints = null;
+            var batchSize = 0;
+            var accumulatedFingerprints = 0;
+            if (incrementalNormalEquationsEnabled) {
+                // nearest fingerprints are sorted from closest to farthest, hence they are
+                // searched in batches of growing size and equations are accumulated as
+                // fingerprints are added
+                batchSize = Math.min(Math.max(minNearestFingerprints, 1), Math.max(max, 1));
+                allNearestFingerprints = findNearestFingerprints(noMeanFinder, finder, batchSize);
+                resetNormalEquations(dims);
+            }
+
             for (var k = minNearestFingerprints; k <= max; k++) {
 
-                if (noMeanFinder != null) {
+                if (allNearestFingerprints != null) {
+                    if (k > allNearestFingerprints.size() && allNearestFingerprints.size() == batchSize
+                            && batchSize < max) {
+                        // all fingerprints of current batch have been used, hence a batch
+                        // having twice its size is searched. Since ties keep the order in
+                        // which fingerprints are found, previous batch is a prefix of the
+                        // new one and accumulated equations remain valid
+                        batchSize = Math.min(2 * batchSize, max);
+                        allNearestFingerprints = findNearestFingerprints(noMeanFinder, finder, batchSize);
+                    }
+                    final var available = Math.min(k, allNearestFingerprints.size());
+                    nearestFingerprints = allNearestFingerprints.subList(0, available);
+                } else if (noMeanFinder != null) {
                     //noinspection unchecked
                     nearestFingerprints = noMeanFinder.findKNearestTo(
                             (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
@@ -388,6 +484,26 @@ public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> ext
                 // sources on a single located fingerprint, or any combination resulting in enough equations
 
 
+                if (allNearestFingerprints != null) {
+                    // only equations of newly added fingerprints are accumulated
+                    for (; accumulatedFingerprints < nearestFingerprints.size(); accumulatedFingerprints++) {
+                        accumulateNormalEquations(nearestFingerprints.get(accumulatedFingerprints), model,
+                                fingerprintSourceIndices, dims);
+                    }
+
+                    estimatedPositionCoordinates = solveNormalEquations(dims);
+                    if (estimatedPositionCoordinates != null) {
+                        // a solution was found so we exit loop
+                        nearestFingerprints = new ArrayList<>(nearestFingerprints);
+                        break;
+                    }
+
+                    // solution could not be found with current data
+                    // Iterate to use additional nearby fingerprints
+                    nearestFingerprints = null;
+                    continue;
+                }
+
                 // build system of equations
                 final var totalReadings = totalReadings(nearestFingerprints);
 
@@ -411,44 +527,37 @@ public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> ext
                         }
 
                         for (final var locatedReading : locatedReadings) {
-                            final var source = locatedReading.getSource();
-
-                            // find within the list of located sources the source of
-                            // current located fingerprint reading.
+                            // find within the venue model the source of current located
+                            // fingerprint reading.
                             // Radio sources are compared by their id
                             // regardless of them being located or not
-
-                            //noinspection SuspiciousMethodCalls
-                            final var pos = sources.indexOf(source);
+                            final var pos = model.indexOf(locatedReading.getSource());
                             if (pos < 0) {
                                 continue;
                             }
 
-                            final var locatedSource = sources.get(pos);
                             var pathLossExponent = this.pathLossExponent;
-                            if (useSourcesPathLossExponentWhenAvailable
-                                    && locatedSource instanceof RadioSourceWithPower) {
-                                pathLossExponent = ((RadioSourceWithPower) locatedSource).getPathLossExponent();
+                            if (useSourcesPathLossExponentWhenAvailable && model.hasPathLossExponent(pos)) {
+                                pathLossExponent = model.getPathLossExponent(pos);
                             }
 
                             final var tmp = 10.0 * pathLossExponent / ln10;
 
-                            final var sourcePosition = locatedSource.getPosition();
+                            final var sourcePosition = model.getPosition(pos);
                             final var locatedRssi = locatedReading.getRssi();
                             final var sqrDistance = fingerprintPosition.sqrDistanceTo(sourcePosition);
                             if (removeMeansFromFingerprintReadings) {
                                 meanRssi = fingerprint.getMeanRssi();
                             }
 
-                            final var readings = fingerprint.getReadings();
-                            for (final var reading : readings) {
-                                if (reading.getSource() == null || !reading.getSource().equals(locatedSource)) {
+                            for (var r = 0; r < fingerprintSourceIndices.length; r++) {
+                                if (fingerprintSourceIndices[r] != pos) {
                                     continue;
                                 }
 
                                 // only take into account reading for matching sources on located and
                                 // non-located readings
-                                final var rssi = reading.getRssi();
+                                final var rssi = readings.get(r).getRssi();
 
                                 // ideally if there was no bias between devices RSSI measures, we should compute:
                                 // diffRssi = locatedRssi - rssi
@@ -501,4 +610,150 @@ public abstract class LinearFingerprintPositionEstimator<P extends Point<P>> ext
             locked = false;
         }
     }
+
+    /**
+     * Resets accumulated normal equations, reusing buffers when possible.
+     *
+     * @param dims number of dimensions of points.
+     */
+    private void resetNormalEquations(final int dims) {
+        if (normalVector == null || normalVector.length != dims) {
+            normalMatrixData = new double[dims * dims];
+            normalVector = new double[dims];
+            normalMatrix = null;
+        } else {
+            Arrays.fill(normalMatrixData, 0.0);
+            Arrays.fill(normalVector, 0.0);
+        }
+    }
+
+    /**
+     * Accumulates into normal equations the equations of provided located fingerprint for
+     * all its readings matching a reading of the fingerprint at an unknown location.
+     *
+     * @param locatedFingerprint       located fingerprint to be added.
+     * @param model                    prepared model of located radio sources.
+     * @param fingerprintSourceIndices position within model of the radio source of each
+     *                                 reading of fingerprint at unknown location.
+     * @param dims                     number of dimensions of points.
+     */
+    private void accumulateNormalEquations(
+            final RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P> locatedFingerprint,
+            final VenueModel<P> model, final int[] fingerprintSourceIndices, final int dims) {
+
+        final var fingerprintPosition = locatedFingerprint.getPosition();
+        final var locatedReadings = locatedFingerprint.getReadings();
+        if (locatedReadings == null) {
+            return;
+        }
+
+        final var ln10 = Math.log(10.0);
+        final var readings = fingerprint.getReadings();
+        final var row = new double[dims];
+
+        var locatedMeanRssi = 0.0;
+        var meanRssi = 0.0;
+        if (removeMeansFromFingerprintReadings) {
+            locatedMeanRssi = locatedFingerprint.getMeanRssi();
+            meanRssi = fingerprint.getMeanRssi();
+        }
+
+        for (final var locatedReading : locatedReadings) {
+            final var pos = model.indexOf(locatedReading.getSource());
+            if (pos < 0) {
+                continue;
+            }
+
+            var pathLossExponent = this.pathLossExponent;
+            if (useSourcesPathLossExponentWhenAvailable && model.hasPathLossExponent(pos)) {
+                pathLossExponent = model.getPathLossExponent(pos);
+            }
+
+            final var tmp = 10.0 * pathLossExponent / ln10;
+
+            final var sourcePosition = model.getPosition(pos);
+            final var locatedRssi = locatedReading.getRssi();
+            final var sqrDistance = fingerprintPosition.sqrDistanceTo(sourcePosition);
+
+            // row coefficients only depend on located fingerprint and radio source
+            var rowOffset = 0.0;
+            for (var i = 0; i < dims; i++) {
+                final var fingerprintCoord = fingerprintPosition.getInhomogeneousCoordinate(i);
+                final var diffCoord = fingerprintCoord - model.getPositionCoordinate(pos, i);
+
+                row[i] = tmp * diffCoord / sqrDistance;
+                rowOffset += row[i] * fingerprintCoord;
+            }
+
+            for (var r = 0; r < fingerprintSourceIndices.length; r++) {
+                if (fingerprintSourceIndices[r] != pos) {
+                    continue;
+                }
+
+                final var rssi = readings.get(r).getRssi();
+                final var diffRssi = (locatedRssi - locatedMeanRssi) - (rssi - meanRssi);
+                final var b = diffRssi + rowOffset;
+
+                // A^T*A += row^T*row, A^T*b += row^T*b
+                for (var i = 0; i < dims; i++) {
+                    final var rowI = row[i];
+                    for (var j = 0; j < dims; j++) {
+                        normalMatrixData[i * dims + j] += rowI * row[j];
+                    }
+                    normalVector[i] += rowI * b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves accumulated normal equations.
+     *
+     * @param dims number of dimensions of points.
+     * @return solved position coordinates or null if no solution can be found.
+     */
+    private double[] solveNormalEquations(final int dims) {
+        try {
+            if (normalMatrix == null) {
+                normalMatrix = new Matrix(dims, dims);
+            }
+            for (var i = 0; i < dims; i++) {
+                for (var j = 0; j < dims; j++) {
+                    normalMatrix.setElementAt(i, j, normalMatrixData[i * dims + j]);
+                }
+            }
+
+            final var result = com.irurueta.algebra.Utils.solve(normalMatrix, normalVector);
+            for (final var value : result) {
+                if (!Double.isFinite(value)) {
+                    return null;
+                }
+            }
+            return result;
+        } catch (final AlgebraException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Finds k nearest located fingerprints to current fingerprint.
+     *
+     * @param noMeanFinder finder of nearest fingerprints removing mean effects or null.
+     * @param finder       finder of nearest fingerprints or null.
+     * @param k            number of nearest fingerprints to find.
+     * @return nearest fingerprints sorted from closest to farthest.
+     */
+    private List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> findNearestFingerprints(
+            final RadioSourceNoMeanKNearestFinder<P, RadioSource> noMeanFinder,
+            final RadioSourceKNearestFinder<P, RadioSource> finder, final int k) {
+        if (noMeanFinder != null) {
+            //noinspection unchecked
+            return noMeanFinder.findKNearestTo(
+                    (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
+        } else {
+            //noinspection unchecked
+            return finder.findKNearestTo(
+                    (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
+        }
+    }
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.fingerprint;
+
+/**
+ * Strategy to select the number of nearest located fingerprints used by non-linear
+ * fingerprint position estimators.
+ */
+public enum NearestFingerprintsSearchStrategy {
+    /**
+     * Number of nearest fingerprints is increased from minimum to maximum values until a
+     * solution is found, and the first solution is kept.
+     */
+    FIRST_SUCCESSFUL,
+
+    /**
+     * A solution is estimated for each candidate number of nearest fingerprints (possibly
+     * concurrently), and the best one according to a quality criterion is kept.
+     */
+    BEST_CANDIDATE
+}
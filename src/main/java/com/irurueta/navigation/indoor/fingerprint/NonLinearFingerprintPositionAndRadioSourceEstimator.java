@@ -81,6 +81,11 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
      */
     private static final double TINY = 1e-12;
 
+    /**
+     * Natural logarithm of 10.
+     */
+    private static final double LN10 = Math.log(10.0);
+
     /**
      * Initial sources whose location is known.
      * If provided, their location will be used as initial values, but
@@ -935,6 +940,16 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
         // maps to keep cached in memory computed values to speed up computations
         final var numReadingsMap = new HashMap<RadioSource, Integer>();
         final var centroidsMap = new HashMap<RadioSource, P>();
+        final var sourceIndicesMap = new HashMap<RadioSource, Integer>();
+        for (var i = 0; i < allSourcesToBeEstimated.size(); i++) {
+            sourceIndicesMap.putIfAbsent(allSourcesToBeEstimated.get(i), i);
+        }
+        final var locatedSourceIndicesMap = new HashMap<RadioSourceLocated<P>, Integer>();
+        if (mInitialLocatedSources != null) {
+            for (var i = 0; i < mInitialLocatedSources.size(); i++) {
+                locatedSourceIndicesMap.putIfAbsent(mInitialLocatedSources.get(i), i);
+            }
+        }
 
         for (final var locatedFingerprint : nearestFingerprints) {
 
@@ -982,7 +997,7 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
                 // of current located fingerprint
 
                 //noinspection SuspiciousMethodCalls
-                final var pos = mInitialLocatedSources != null ? mInitialLocatedSources.indexOf(source) : -1;
+                final var pos = locatedSourceIndicesMap.getOrDefault(source, -1);
 
                 var pathLossExponent = this.pathLossExponent;
                 Double pathLossExponentVariance = null;
@@ -1013,13 +1028,15 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
                 }
 
                 final int sourceIndex;
-                if (!allSourcesToBeEstimated.contains(source)) {
+                final var existingSourceIndex = sourceIndicesMap.get(source);
+                if (existingSourceIndex == null) {
                     sourceIndex = allSourcesToBeEstimated.size();
 
                     allSourcesToBeEstimated.add(source);
                     allInitialSourcesPositions.add(sourcePosition);
+                    sourceIndicesMap.put(source, sourceIndex);
                 } else {
-                    sourceIndex = allSourcesToBeEstimated.indexOf(source);
+                    sourceIndex = existingSourceIndex;
                 }
 
                 final var locatedRssi = locatedReading.getRssi();
@@ -1117,6 +1134,17 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
         final var dims = getNumberOfDimensions();
         final var n = 1 + dims;
 
+        // unbox source indices once, so that they can be quickly accessed on every
+        // Levenberg-Marquardt iteration
+        final var sourcesIndices = new int[totalReadings];
+        for (var i = 0; i < totalReadings; i++) {
+            sourcesIndices[i] = allSourcesIndices.get(i);
+        }
+
+        // scratch arrays to keep coordinate differences between evaluations
+        final var diffsFingerprint = new double[dims];
+        final var diffsPoint = new double[dims];
+
         fitter.setFunctionEvaluator(new LevenbergMarquardtMultiDimensionFunctionEvaluator() {
             @Override
             public int getNumberOfDimensions() {
@@ -1219,15 +1247,10 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
                 // for other radio source pb=(xb,yb)
                 // diff(Prdiff1a)/diff(xb) = diff(Prdiff1a)/diff(yb) = 0
 
-                final var dims = NonLinearFingerprintPositionAndRadioSourceEstimator.this.getNumberOfDimensions();
-
                 // path loss exponent
                 final var n = point[0];
 
-                final var ln10 = Math.log(10.0);
-
-                final var sourceIndex = allSourcesIndices.get(i);
-                final var start = dims * (1 + sourceIndex);
+                final var start = dims * (1 + sourcesIndices[i]);
 
                 // d1a^2, d2a^2, ...
                 var distanceFingerprint2 = 0.0;
@@ -1235,26 +1258,20 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
                 // dia^2, dib^2, ...
                 var distancePoint2 = 0.0;
                 for (var j = 0; j < dims; j++) {
-                    // fingerprint coordinate p1=(x1,y1,z1), ...
-                    final var fingerprintCoord = point[1 + j];
-
-                    // unknown point "pi" coordinate
-                    final var pointCoord = params[j];
-
                     // radio source coordinate pa=(xa,ya,za), ...
                     final var sourceCoord = params[start + j];
 
-                    // x1 - xa, y1 - ya, ...
-                    final var diffFingerprint = fingerprintCoord - sourceCoord;
+                    // x1 - xa, y1 - ya, ... (fingerprint coordinate p1=(x1,y1,z1), ...)
+                    final var diffFingerprint = point[1 + j] - sourceCoord;
 
-                    // xi - xa, yi - ya, ...
-                    final var diffPoint = pointCoord - sourceCoord;
+                    // xi - xa, yi - ya, ... (unknown point "pi" coordinate)
+                    final var diffPoint = params[j] - sourceCoord;
 
-                    final var diffFingerprint2 = diffFingerprint * diffFingerprint;
-                    final var diffPoint2 = diffPoint * diffPoint;
+                    diffsFingerprint[j] = diffFingerprint;
+                    diffsPoint[j] = diffPoint;
 
-                    distanceFingerprint2 += diffFingerprint2;
-                    distancePoint2 += diffPoint2;
+                    distanceFingerprint2 += diffFingerprint * diffFingerprint;
+                    distancePoint2 += diffPoint * diffPoint;
                 }
 
                 distanceFingerprint2 = Math.max(distanceFingerprint2, TINY);
@@ -1267,35 +1284,22 @@ public abstract class NonLinearFingerprintPositionAndRadioSourceEstimator<P exte
                 // radio sources are zero
                 Arrays.fill(derivatives, 0.0);
 
+                final var factorPoint = -10.0 * n / (LN10 * distancePoint2);
+                final var factorFingerprint = -10.0 * n / (LN10 * distanceFingerprint2);
                 for (var j = 0; j < dims; j++) {
-                    // fingerprint coordinate p1=(x1,y1,z1), ...
-                    final var fingerprintCoord = point[1 + j];
-
-                    // unknown point "pi" coordinate
-                    final var pointCoord = params[j];
-
-                    // radio source coordinate pa=(xa,ya,za), ...
-                    final var sourceCoord = params[start + j];
-
-                    // x1 - xa, y1 - ya, ...
-                    final var diffFingerprint = fingerprintCoord - sourceCoord;
-
-                    // xi - xa, yi - ya, ...
-                    final var diffPoint = pointCoord - sourceCoord;
-
                     // Example: diff(Prdiff1a)/diff(xi) =  -10*n*(xi - xa)/(log(10)*dia^2)
-                    final var derivativePointCoord = -10.0 * n * diffPoint / (ln10 * distancePoint2);
+                    final var derivativePointCoord = factorPoint * diffsPoint[j];
 
                     // Example: diff(Prdiff1a)/diff(xa) = 10*n*(-(x1 - xa)/(log(10)*d1a^2) + (xi - xa)/(log(10)*dia^2)) =
                     //   -10*n*(x1 - xa)/(log(10)*d1a^2) - diff(Prdiff1a)/diff(xi)
                     final var derivativeSameRadioSourceCoord =
-                            -10.0 * n * diffFingerprint / (ln10 * distanceFingerprint2) - derivativePointCoord;
+                            factorFingerprint * diffsFingerprint[j] - derivativePointCoord;
 
                     // derivatives respect point pi = (xi, yi, zi)
                     derivatives[j] = derivativePointCoord;
 
                     // derivatives respect same radio source pa = (xa, ya, za)
-                    derivatives[dims * (1 + sourceIndex) + j] = derivativeSameRadioSourceCoord;
+                    derivatives[start + j] = derivativeSameRadioSourceCoord;
                 }
 
                 return result;
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.fingerprint;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.RssiFingerprintLocated;
+import com.irurueta.navigation.indoor.RssiReading;
+
+import java.util.List;
+
+/**
+ * Contains the solution estimated by a non-linear fingerprint position estimator for a
+ * given number of nearest fingerprints.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class NonLinearFingerprintPositionCandidate<P extends Point<?>> {
+
+    /**
+     * Number of nearest fingerprints that was requested for this candidate.
+     */
+    private final int k;
+
+    /**
+     * Nearest located fingerprints used to estimate this candidate.
+     */
+    private final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints;
+
+    /**
+     * Number of readings used to estimate this candidate.
+     */
+    private final int numberOfReadings;
+
+    /**
+     * Estimated inhomogeneous position coordinates or null if estimation failed.
+     */
+    private final double[] estimatedPositionCoordinates;
+
+    /**
+     * Estimated covariance matrix for estimated position or null if estimation failed.
+     */
+    private final Matrix covariance;
+
+    /**
+     * Estimated chi square value.
+     */
+    private final double chiSq;
+
+    /**
+     * Constructor for a successfully estimated candidate.
+     *
+     * @param k                            number of nearest fingerprints that was requested.
+     * @param nearestFingerprints          nearest located fingerprints being used.
+     * @param numberOfReadings             number of readings being used.
+     * @param estimatedPositionCoordinates estimated inhomogeneous position coordinates.
+     * @param covariance                   estimated covariance matrix for estimated position.
+     * @param chiSq                        estimated chi square value.
+     */
+    NonLinearFingerprintPositionCandidate(
+            final int k,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints,
+            final int numberOfReadings, final double[] estimatedPositionCoordinates, final Matrix covariance,
+            final double chiSq) {
+        this.k = k;
+        this.nearestFingerprints = nearestFingerprints;
+        this.numberOfReadings = numberOfReadings;
+        this.estimatedPositionCoordinates = estimatedPositionCoordinates;
+        this.covariance = covariance;
+        this.chiSq = chiSq;
+    }
+
+    /**
+     * Constructor for a candidate whose estimation failed.
+     *
+     * @param k                   number of nearest fingerprints that was requested.
+     * @param nearestFingerprints nearest located fingerprints being used.
+     */
+    NonLinearFingerprintPositionCandidate(
+            final int k,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints) {
+        this(k, nearestFingerprints, 0, null, null, Double.NaN);
+    }
+
+    /**
+     * Gets number of nearest fingerprints that was requested for this candidate.
+     *
+     * @return number of nearest fingerprints that was requested.
+     */
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Gets nearest located fingerprints used to estimate this candidate.
+     *
+     * @return nearest located fingerprints.
+     */
+    public List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> getNearestFingerprints() {
+        return nearestFingerprints;
+    }
+
+    /**
+     * Gets number of readings used to estimate this candidate.
+     *
+     * @return number of readings.
+     */
+    public int getNumberOfReadings() {
+        return numberOfReadings;
+    }
+
+    /**
+     * Indicates whether a solution was found for this candidate.
+     *
+     * @return true if a solution was found, false otherwise.
+     */
+    public boolean isSuccessful() {
+        return estimatedPositionCoordinates != null;
+    }
+
+    /**
+     * Gets estimated inhomogeneous position coordinates.
+     *
+     * @return estimated inhomogeneous position coordinates or null if estimation failed.
+     */
+    public double[] getEstimatedPositionCoordinates() {
+        return estimatedPositionCoordinates;
+    }
+
+    /**
+     * Gets estimated covariance matrix for estimated position.
+     *
+     * @return estimated covariance matrix or null if estimation failed.
+     */
+    public Matrix getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Gets estimated chi square value.
+     *
+     * @return estimated chi square value or NaN if estimation failed.
+     */
+    public double getChiSq() {
+        return chiSq;
+    }
+
+    /**
+     * Gets chi square value divided by the degrees of freedom of the fit (number of
+     * readings minus number of dimensions).
+     *
+     * @return reduced chi square value, infinity if there are no degrees of freedom or NaN
+     * if estimation failed.
+     */
+    public double getReducedChiSq() {
+        if (!isSuccessful()) {
+            return Double.NaN;
+        }
+
+        final var degreesOfFreedom = numberOfReadings - estimatedPositionCoordinates.length;
+        return degreesOfFreedom > 0 ? chiSq / degreesOfFreedom : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Gets trace of estimated covariance matrix.
+     *
+     * @return trace of estimated covariance matrix or NaN if not available.
+     */
+    public double getCovarianceTrace() {
+        if (covariance == null) {
+            return Double.NaN;
+        }
+
+        final var n = Math.min(covariance.getRows(), covariance.getColumns());
+        var trace = 0.0;
+        for (var i = 0; i < n; i++) {
+            trace += covariance.getElementAt(i, i);
+        }
+        return trace;
+    }
+
+    /**
+     * Gets quality score of this candidate for provided criterion.
+     * The smaller the score, the better the candidate.
+     *
+     * @param criterion quality criterion.
+     * @return quality score or infinity if estimation failed or score is not available.
+     */
+    public double getScore(final CandidateSelectionCriterion criterion) {
+        final var score = criterion == CandidateSelectionCriterion.COVARIANCE_TRACE
+                ? getCovarianceTrace() : getReducedChiSq();
+        return Double.isNaN(score) ? Double.POSITIVE_INFINITY : score;
+    }
+}
@@ -20,14 +20,15 @@ import com.irurueta.algebra.Matrix;
 import com.irurueta.geometry.Point;
 import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.PositionEstimationCache;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceKNearestFinder;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.RadioSourceNoMeanKNearestFinder;
-import com.irurueta.navigation.indoor.RadioSourceWithPower;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiFingerprintLocated;
 import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
 import com.irurueta.numerical.NumericalException;
 import com.irurueta.numerical.fitting.FittingException;
 import com.irurueta.numerical.fitting.LevenbergMarquardtMultiDimensionFitter;
@@ -36,6 +37,9 @@ import com.irurueta.numerical.fitting.LevenbergMarquardtMultiDimensionFunctionEv
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Base class for position estimators based on located fingerprints containing only
@@ -89,6 +93,24 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
     public static final NonLinearFingerprintPositionEstimatorType DEFAULT_TYPE =
             NonLinearFingerprintPositionEstimatorType.THIRD_ORDER;
 
+    /**
+     * Default strategy to select the number of nearest fingerprints.
+     */
+    public static final NearestFingerprintsSearchStrategy DEFAULT_SEARCH_STRATEGY =
+            NearestFingerprintsSearchStrategy.FIRST_SUCCESSFUL;
+
+    /**
+     * Default criterion to select the best candidate when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     */
+    public static final CandidateSelectionCriterion DEFAULT_CANDIDATE_SELECTION_CRITERION =
+            CandidateSelectionCriterion.REDUCED_CHI_SQUARE;
+
+    /**
+     * Indicates whether covariance of estimated position is computed or not by default.
+     */
+    public static final boolean DEFAULT_COVARIANCE_ESTIMATION_ENABLED = true;
+
     /**
      * Small value to be used as the minimum allowed RSSI standard deviations. A value
      * larger than this must be provided to allow convergence to a solution
@@ -141,9 +163,54 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
             DEFAULT_PROPAGATE_RADIO_SOURCE_POSITION_COVARIANCE;
 
     /**
-     * Levenberg-Marquardt fitter to find a non-linear solution.
+     * Strategy to select the number of nearest fingerprints.
+     */
+    private NearestFingerprintsSearchStrategy mSearchStrategy = DEFAULT_SEARCH_STRATEGY;
+
+    /**
+     * Criterion to select the best candidate when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     */
+    private CandidateSelectionCriterion mCandidateSelectionCriterion = DEFAULT_CANDIDATE_SELECTION_CRITERION;
+
+    /**
+     * Indicates whether covariance of estimated position is computed or not.
+     * When disabled, only estimated position is computed, which avoids the additional
+     * cost of refining covariance after each fit.
      */
-    private final LevenbergMarquardtMultiDimensionFitter mFitter = new LevenbergMarquardtMultiDimensionFitter();
+    private boolean mCovarianceEstimationEnabled = DEFAULT_COVARIANCE_ESTIMATION_ENABLED;
+
+    /**
+     * Numbers of nearest fingerprints to be evaluated when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, all values between minimum and maximum number of nearest fingerprints
+     * are evaluated.
+     */
+    private int[] mCandidateNearestFingerprints;
+
+    /**
+     * Executor to fit candidates concurrently when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, candidates are fitted sequentially on the calling thread.
+     */
+    private ExecutorService mExecutor;
+
+    /**
+     * Cache of estimations to reuse for fingerprints having the same signature, or null
+     * if estimations are not cached.
+     */
+    private PositionEstimationCache<P> mCache;
+
+    /**
+     * Candidates evaluated during last estimation.
+     */
+    private List<NonLinearFingerprintPositionCandidate<P>> mCandidates;
+
+    /**
+     * Levenberg-Marquardt fitter and related buffers to find a non-linear solution on
+     * the calling thread.
+     */
+    private final FittingContext mFittingContext = new FittingContext();
 
     /**
      * Estimated covariance matrix for estimated position.
@@ -155,6 +222,12 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
      */
     private double mChiSq;
 
+    /**
+     * Scratch array to store Taylor expansion coefficients of a single reading when
+     * evaluating the function without precomputed coefficients.
+     */
+    private double[] mSingleTaylorCoefficients;
+
     /**
      * Constructor.
      */
@@ -457,6 +530,7 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
 
     /**
      * Gets estimated chi square value.
+     * If estimation was reused from cache, no fitting is made and NaN is returned.
      *
      * @return estimated chi square value.
      */
@@ -464,6 +538,204 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
         return mChiSq;
     }
 
+    /**
+     * Indicates whether covariance of estimated position is computed or not.
+     * When disabled, only estimated position is computed and {@link #getCovariance()}
+     * returns null.
+     *
+     * @return true if covariance estimation is enabled, false otherwise.
+     */
+    public boolean isCovarianceEstimationEnabled() {
+        return mCovarianceEstimationEnabled;
+    }
+
+    /**
+     * Specifies whether covariance of estimated position is computed or not.
+     * When disabled, only estimated position is computed and {@link #getCovariance()}
+     * returns null.
+     * Notice that covariance is still computed for each candidate when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used along with
+     * {@link CandidateSelectionCriterion#COVARIANCE_TRACE} criterion, since it is required
+     * to select the best candidate.
+     *
+     * @param covarianceEstimationEnabled true if covariance estimation is enabled,
+     *                                    false otherwise.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setCovarianceEstimationEnabled(final boolean covarianceEstimationEnabled)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        mCovarianceEstimationEnabled = covarianceEstimationEnabled;
+    }
+
+    /**
+     * Gets strategy to select the number of nearest fingerprints.
+     *
+     * @return strategy to select the number of nearest fingerprints.
+     */
+    public NearestFingerprintsSearchStrategy getSearchStrategy() {
+        return mSearchStrategy;
+    }
+
+    /**
+     * Sets strategy to select the number of nearest fingerprints.
+     *
+     * @param searchStrategy strategy to select the number of nearest fingerprints.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setSearchStrategy(final NearestFingerprintsSearchStrategy searchStrategy)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (searchStrategy == null) {
+            throw new IllegalArgumentException();
+        }
+        mSearchStrategy = searchStrategy;
+    }
+
+    /**
+     * Gets criterion to select the best candidate when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     *
+     * @return criterion to select the best candidate.
+     */
+    public CandidateSelectionCriterion getCandidateSelectionCriterion() {
+        return mCandidateSelectionCriterion;
+    }
+
+    /**
+     * Sets criterion to select the best candidate when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     *
+     * @param candidateSelectionCriterion criterion to select the best candidate.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setCandidateSelectionCriterion(final CandidateSelectionCriterion candidateSelectionCriterion)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (candidateSelectionCriterion == null) {
+            throw new IllegalArgumentException();
+        }
+        mCandidateSelectionCriterion = candidateSelectionCriterion;
+    }
+
+    /**
+     * Gets numbers of nearest fingerprints to be evaluated when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, all values between minimum and maximum number of nearest fingerprints
+     * are evaluated.
+     * A copy is returned, so that internal values cannot be modified.
+     *
+     * @return numbers of nearest fingerprints to be evaluated or null.
+     */
+    public int[] getCandidateNearestFingerprints() {
+        return mCandidateNearestFingerprints != null ? mCandidateNearestFingerprints.clone() : null;
+    }
+
+    /**
+     * Sets numbers of nearest fingerprints to be evaluated when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, all values between minimum and maximum number of nearest fingerprints
+     * are evaluated.
+     * Provided values are copied, so that later changes on provided array do not
+     * affect this estimator.
+     *
+     * @param candidateNearestFingerprints numbers of nearest fingerprints to be evaluated
+     *                                     or null.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided array is empty or contains values
+     *                                  smaller than 1.
+     */
+    public void setCandidateNearestFingerprints(final int[] candidateNearestFingerprints)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (candidateNearestFingerprints != null) {
+            if (candidateNearestFingerprints.length == 0) {
+                throw new IllegalArgumentException();
+            }
+            for (final var k : candidateNearestFingerprints) {
+                if (k < 1) {
+                    throw new IllegalArgumentException();
+                }
+            }
+        }
+        mCandidateNearestFingerprints = candidateNearestFingerprints != null
+                ? candidateNearestFingerprints.clone() : null;
+    }
+
+    /**
+     * Gets executor to fit candidates concurrently when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, candidates are fitted sequentially on the calling thread.
+     *
+     * @return executor to fit candidates or null.
+     */
+    public ExecutorService getExecutor() {
+        return mExecutor;
+    }
+
+    /**
+     * Sets executor to fit candidates concurrently when
+     * {@link NearestFingerprintsSearchStrategy#BEST_CANDIDATE} strategy is used.
+     * If null, candidates are fitted sequentially on the calling thread.
+     * Executor is not shut down by this estimator.
+     *
+     * @param executor executor to fit candidates or null.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setExecutor(final ExecutorService executor) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        mExecutor = executor;
+    }
+
+    /**
+     * Gets cache of estimations to reuse for fingerprints having the same signature,
+     * which is typically the case of consecutive scans of stationary devices.
+     *
+     * @return cache of estimations or null if estimations are not cached.
+     */
+    public PositionEstimationCache<P> getCache() {
+        return mCache;
+    }
+
+    /**
+     * Sets cache of estimations to reuse for fingerprints having the same signature,
+     * which is typically the case of consecutive scans of stationary devices.
+     * When an estimation is reused, no nearest fingerprints or candidates are
+     * available.
+     * A cache must only be shared among estimators having the same located
+     * fingerprints, radio sources and configuration.
+     *
+     * @param cache cache of estimations or null if estimations are not cached.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setCache(final PositionEstimationCache<P> cache) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        mCache = cache;
+    }
+
+    /**
+     * Gets candidates evaluated during last estimation, in the order they were attempted.
+     *
+     * @return candidates evaluated during last estimation or null if not available.
+     */
+    public List<NonLinearFingerprintPositionCandidate<P>> getCandidates() {
+        return mCandidates;
+    }
+
     /**
      * Estimates position based on provided located radio sources and readings of such radio sources at
      * an unknown location.
@@ -491,6 +763,30 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
                 listener.onEstimateStart(this);
             }
 
+            // reuse estimation of a previous fingerprint having the same signature
+            if (mCache != null) {
+                final var cached = mCache.get(fingerprint);
+                if (cached != null) {
+                    final var position = cached.getPosition();
+                    final var coordinates = new double[position.getDimensions()];
+                    for (var i = 0; i < coordinates.length; i++) {
+                        coordinates[i] = position.getInhomogeneousCoordinate(i);
+                    }
+                    estimatedPositionCoordinates = coordinates;
+                    nearestFingerprints = null;
+                    mCandidates = new ArrayList<>();
+                    mCovariance = mCovarianceEstimationEnabled && cached.getCovariance() != null
+                            ? new Matrix(cached.getCovariance()) : null;
+                    // chi square is not cached, since no fitting is made
+                    mChiSq = Double.NaN;
+
+                    if (listener != null) {
+                        listener.onEstimateEnd(this);
+                    }
+                    return;
+                }
+            }
+
             RadioSourceNoMeanKNearestFinder<P, RadioSource> noMeanFinder = null;
             RadioSourceKNearestFinder<P, RadioSource> finder = null;
             if (useNoMeanNearestFingerprintFinder) {
@@ -508,20 +804,22 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
             estimatedPositionCoordinates = null;
             mCovariance = null;
             nearestFingerprints = null;
+            mCandidates = new ArrayList<>();
+
+            // radio sources are indexed once, so that they don't need to be searched for each
+            // attempted number of nearest fingerprints
+            final var model = getVenueModel();
+            final var fingerprintSourceIndices = findFingerprintSourceIndices(model);
 
             final int max = maxNearestFingerprints < 0 ?
                     locatedFingerprints.size() :
                     Math.min(maxNearestFingerprints, locatedFingerprints.size());
-            for (int k = minNearestFingerprints; k <= max; k++) {
-                if (noMeanFinder != null) {
-                    //noinspection unchecked
-                    nearestFingerprints = noMeanFinder.findKNearestTo(
-                            (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
-                } else {
-                    //noinspection unchecked
-                    nearestFingerprints = finder.findKNearestTo(
-                            (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
-                }
+            final var bestCandidate = mSearchStrategy == NearestFingerprintsSearchStrategy.BEST_CANDIDATE;
+            if (bestCandidate) {
+                estimateBestCandidate(noMeanFinder, finder, max, model, fingerprintSourceIndices);
+            }
+            for (int k = minNearestFingerprints; !bestCandidate && k <= max; k++) {
+                nearestFingerprints = findNearestFingerprints(noMeanFinder, finder, k);
 
                 // Demonstration in 2D:
                 // --------------------
@@ -788,23 +1086,16 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
                 //       + 20*n*(x1 - xa)*(z1 - za)/(ln(10)*d1a^4)*(xi - x1)*(zi - z1)
 
                 // The equation above can be solved using a non-linear fitter such as Levenberg-Marquardt
-                try {
-                    setupFitter();
-
-                    mFitter.fit();
-
-                    // estimated position
-                    estimatedPositionCoordinates = mFitter.getA();
-                    mCovariance = mFitter.getCovar();
-                    mChiSq = mFitter.getChisq();
-
+                final var candidate = fitCandidate(mFittingContext, k, nearestFingerprints, model,
+                        fingerprintSourceIndices);
+                mCandidates.add(candidate);
+                if (candidate.isSuccessful()) {
                     // a solution was found so we exit loop
+                    setResult(candidate);
                     break;
-                } catch (NumericalException e) {
+                } else {
                     // solution could not be found with current data
                     // Iterate to use additional nearby fingerprints
-                    estimatedPositionCoordinates = null;
-                    mCovariance = null;
                     nearestFingerprints = null;
                 }
             }
@@ -814,6 +1105,10 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
                 throw new FingerprintEstimationException();
             }
 
+            if (mCache != null) {
+                mCache.put(fingerprint, getEstimatedPosition(), mCovariance);
+            }
+
             if (listener != null) {
                 listener.onEstimateEnd(this);
             }
@@ -833,6 +1128,11 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
      * Evaluates a non-linear multi dimension function at provided point using
      * provided parameters and returns its evaluation and derivatives of the
      * function respect the function parameters.
+     * This method cannot be overridden, since Levenberg-Marquardt fitting evaluates
+     * the function from Taylor coefficients precomputed for all readings instead.
+     * Subclasses define the function by implementing
+     * {@link #computeTaylorCoefficients(double[], double[], int)} and
+     * {@link #evaluateTaylorExpansion(double[], double[], double[], int, double[])}.
      *
      * @param i           number of sample being evaluated.
      * @param point       point where function will be evaluated.
@@ -843,8 +1143,56 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
      *                    provided parameter.
      * @return function evaluation at provided point.
      */
-    protected abstract double evaluate(
-            final int i, final double[] point, final double[] params, final double[] derivatives);
+    protected final double evaluate(
+            final int i, final double[] point, final double[] params, final double[] derivatives) {
+        final var numCoefficients = getNumberOfTaylorCoefficients();
+        if (mSingleTaylorCoefficients == null || mSingleTaylorCoefficients.length != numCoefficients) {
+            mSingleTaylorCoefficients = new double[numCoefficients];
+        }
+        computeTaylorCoefficients(point, mSingleTaylorCoefficients, 0);
+        return evaluateTaylorExpansion(point, params, mSingleTaylorCoefficients, 0, derivatives);
+    }
+
+    /**
+     * Gets number of Taylor expansion coefficients computed for each reading.
+     *
+     * @return number of Taylor expansion coefficients.
+     */
+    protected abstract int getNumberOfTaylorCoefficients();
+
+    /**
+     * Computes the Taylor expansion coefficients of received power for provided sample.
+     * Coefficients only depend on the located fingerprint, the radio source and the
+     * path-loss exponent of the sample, hence they remain constant while the
+     * Levenberg-Marquardt algorithm iterates and only need to be computed once per
+     * reading.
+     *
+     * @param point        point containing sample data. Contains fingerprint RSSI, fingerprint
+     *                     position, radio source position and path-loss exponent.
+     * @param coefficients array where computed coefficients will be stored.
+     * @param offset       position in coefficients array where first coefficient will be stored.
+     */
+    protected abstract void computeTaylorCoefficients(
+            final double[] point, final double[] coefficients, final int offset);
+
+    /**
+     * Evaluates Taylor expansion of received power at provided point using
+     * provided parameters and previously computed Taylor coefficients, and returns its
+     * evaluation and derivatives of the function respect the function parameters.
+     *
+     * @param point        point where function will be evaluated.
+     * @param params       initial parameters estimation to be tried. These will
+     *                     change as the Levenberg-Marquardt algorithm iterates to the best solution.
+     *                     These are used as input parameters along with point to evaluate function.
+     * @param coefficients array containing precomputed Taylor coefficients.
+     * @param offset       position in coefficients array where coefficients of provided point start.
+     * @param derivatives  partial derivatives of the function respect to each
+     *                     provided parameter.
+     * @return function evaluation at provided point.
+     */
+    protected abstract double evaluateTaylorExpansion(
+            final double[] point, final double[] params, final double[] coefficients, final int offset,
+            final double[] derivatives);
 
     /**
      * Propagates provided variances into RSSI variance of non-located fingerprint
@@ -873,21 +1221,30 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
     /**
      * Builds data required to solve the problem.
      *
-     * @param allReceivedPower        list of received powers for readings at unknown positions.
-     * @param allFingerprintPower     list of power readings at fingerprint positions.
-     * @param allFingerprintPositions list of fingerprint positions.
-     * @param allSourcesPositions     list of radio sources positions.
-     * @param allPathLossExponents    list of path loss exponents.
-     * @param allStandardDeviations   list of standard deviations for readings being used.
+     * @param nearestFingerprints       nearest located fingerprints to be used.
+     * @param model                     prepared model of located radio sources.
+     * @param fingerprintSourceIndices  position within model of the radio source of each
+     *                                  reading of fingerprint at unknown location.
+     * @param allReceivedPower          list of received powers for readings at unknown positions.
+     * @param allFingerprintPower       list of power readings at fingerprint positions.
+     * @param allFingerprintPositions   list of fingerprint positions.
+     * @param allSourcesPositions       list of radio sources positions.
+     * @param allPathLossExponents      list of path loss exponents.
+     * @param allStandardDeviations     list of standard deviations for readings being used.
      */
     @SuppressWarnings("Duplicates")
     private void buildData(
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints,
+            final VenueModel<P> model,
+            final int[] fingerprintSourceIndices,
             final List<Double> allReceivedPower,
             final List<Double> allFingerprintPower,
             final List<P> allFingerprintPositions,
             final List<P> allSourcesPositions,
             final List<Double> allPathLossExponents,
             final List<Double> allStandardDeviations) {
+        final var readings = fingerprint.getReadings();
+
         for (final var locatedFingerprint : nearestFingerprints) {
 
             final var locatedReadings = locatedFingerprint.getReadings();
@@ -905,31 +1262,24 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
             }
 
             for (final var locatedReading : locatedReadings) {
-                final var source = locatedReading.getSource();
-
-                // find within the list of located sources the source of
-                // current located fingerprint reading.
+                // find within the venue model the source of current located
+                // fingerprint reading.
                 // Radio sources are compared by their id
                 // regardless of them being located or not
-
-                //noinspection SuspiciousMethodCalls
-                final var pos = sources.indexOf(source);
+                final var pos = model.indexOf(locatedReading.getSource());
                 if (pos < 0) {
                     continue;
                 }
 
-                final var locatedSource = sources.get(pos);
                 var pathLossExponent = this.pathLossExponent;
                 Double pathLossExponentVariance = null;
-                if (useSourcesPathLossExponentWhenAvailable
-                        && locatedSource instanceof RadioSourceWithPower locatedSourceWithPower) {
-                    pathLossExponent = locatedSourceWithPower.getPathLossExponent();
-                    final var std = locatedSourceWithPower.getPathLossExponentStandardDeviation();
-                    pathLossExponentVariance = std != null ? std * std : null;
+                if (useSourcesPathLossExponentWhenAvailable && model.hasPathLossExponent(pos)) {
+                    pathLossExponent = model.getPathLossExponent(pos);
+                    pathLossExponentVariance = model.getPathLossExponentVariance(pos);
                 }
 
-                final var sourcePosition = locatedSource.getPosition();
-                final var sourcePositionCovariance = locatedSource.getPositionCovariance();
+                final var sourcePosition = model.getPosition(pos);
+                final var sourcePositionCovariance = model.getPositionCovariance(pos);
                 var locatedRssi = locatedReading.getRssi();
                 locatedRssi -= locatedMeanRssi;
 
@@ -939,14 +1289,14 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
                     meanRssi = fingerprint.getMeanRssi();
                 }
 
-                final var readings = fingerprint.getReadings();
-                for (final var reading : readings) {
-                    if (reading.getSource() == null || !reading.getSource().equals(locatedSource)) {
+                for (var r = 0; r < fingerprintSourceIndices.length; r++) {
+                    if (fingerprintSourceIndices[r] != pos) {
                         continue;
                     }
 
                     // only take into account reading for matching sources on located and
                     // non-located readings
+                    final var reading = readings.get(r);
                     var rssi = reading.getRssi();
                     rssi -= meanRssi;
 
@@ -996,10 +1346,19 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
     /**
      * Setups fitter to solve position.
      *
+     * @param context                  context containing fitter to be set up.
+     * @param nearestFingerprints      nearest located fingerprints to be used.
+     * @param model                    prepared model of located radio sources.
+     * @param fingerprintSourceIndices position within model of the radio source of each
+     *                                 reading of fingerprint at unknown location.
+     * @return number of readings being fitted.
      * @throws FittingException if Levenberg-Marquardt fitting fails.
      */
     @SuppressWarnings("Duplicates")
-    private void setupFitter() throws FittingException {
+    private int setupFitter(
+            final FittingContext context,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints,
+            final VenueModel<P> model, final int[] fingerprintSourceIndices) throws FittingException {
         // build lists of data
         final var allReceivedPower = new ArrayList<Double>();
         final var allFingerprintPower = new ArrayList<Double>();
@@ -1007,14 +1366,22 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
         final var allSourcesPosition = new ArrayList<P>();
         final var allPathLossExponents = new ArrayList<Double>();
         final var allStandardDeviations = new ArrayList<Double>();
-        buildData(allReceivedPower, allFingerprintPower, allFingerprintPositions, allSourcesPosition,
-                allPathLossExponents, allStandardDeviations);
+        buildData(nearestFingerprints, model, fingerprintSourceIndices, allReceivedPower, allFingerprintPower,
+                allFingerprintPositions, allSourcesPosition, allPathLossExponents, allStandardDeviations);
 
         final var totalReadings = allReceivedPower.size();
         final var dims = getNumberOfDimensions();
         final var n = 2 + 2 * dims;
+        final var numCoefficients = getNumberOfTaylorCoefficients();
+
+        // reuse coefficients array from previous fits when it is large enough
+        final var totalCoefficients = totalReadings * numCoefficients;
+        if (context.taylorCoefficients == null || context.taylorCoefficients.length < totalCoefficients) {
+            context.taylorCoefficients = new double[totalCoefficients];
+        }
+        final var taylorCoefficients = context.taylorCoefficients;
 
-        mFitter.setFunctionEvaluator(new LevenbergMarquardtMultiDimensionFunctionEvaluator() {
+        context.fitter.setFunctionEvaluator(new LevenbergMarquardtMultiDimensionFunctionEvaluator() {
             @Override
             public int getNumberOfDimensions() {
                 return n;
@@ -1057,7 +1424,8 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
             @Override
             public double evaluate(
                     final int i, final double[] point, final double[] params, final double[] derivatives) {
-                return NonLinearFingerprintPositionEstimator.this.evaluate(i, point, params, derivatives);
+                return evaluateTaylorExpansion(point, params, taylorCoefficients, i * numCoefficients,
+                        derivatives);
             }
         });
 
@@ -1065,23 +1433,236 @@ public abstract class NonLinearFingerprintPositionEstimator<P extends Point<?>>
             final var x = new Matrix(totalReadings, n);
             final var y = new double[totalReadings];
             final var standardDeviations = new double[totalReadings];
+            final var row = new double[n];
             for (var i = 0; i < totalReadings; i++) {
                 // fingerprint power Pr(p1)
-                x.setElementAt(i, 0, allFingerprintPower.get(i));
+                row[0] = allFingerprintPower.get(i);
+                final var fingerprintPosition = allFingerprintPositions.get(i);
+                final var sourcePosition = allSourcesPosition.get(i);
                 for (var j = 0; j < dims; j++) {
-                    x.setElementAt(i, j + 1, allFingerprintPositions.get(i).getInhomogeneousCoordinate(j));
-                    x.setElementAt(i, j + 1 + dims, allSourcesPosition.get(i).getInhomogeneousCoordinate(j));
+                    row[j + 1] = fingerprintPosition.getInhomogeneousCoordinate(j);
+                    row[j + 1 + dims] = sourcePosition.getInhomogeneousCoordinate(j);
                 }
-                x.setElementAt(i, 1 + 2 * dims, allPathLossExponents.get(i));
+                row[1 + 2 * dims] = allPathLossExponents.get(i);
+
+                for (var j = 0; j < n; j++) {
+                    x.setElementAt(i, j, row[j]);
+                }
+                computeTaylorCoefficients(row, taylorCoefficients, i * numCoefficients);
 
                 y[i] = allReceivedPower.get(i);
 
                 standardDeviations[i] = allStandardDeviations.get(i);
             }
 
-            mFitter.setInputData(x, y, standardDeviations);
+            context.fitter.setInputData(x, y, standardDeviations);
         } catch (final AlgebraException e) {
             throw new FittingException(e);
         }
+
+        return totalReadings;
+    }
+
+    /**
+     * Fits a candidate solution using provided nearest fingerprints.
+     *
+     * @param context                  context containing fitter to be used.
+     * @param k                        number of nearest fingerprints that was requested.
+     * @param nearestFingerprints      nearest located fingerprints to be used.
+     * @param model                    prepared model of located radio sources.
+     * @param fingerprintSourceIndices position within model of the radio source of each
+     *                                 reading of fingerprint at unknown location.
+     * @return fitted candidate, which will be marked as not successful if no solution
+     * could be found.
+     */
+    private NonLinearFingerprintPositionCandidate<P> fitCandidate(
+            final FittingContext context, final int k,
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> nearestFingerprints,
+            final VenueModel<P> model, final int[] fingerprintSourceIndices) {
+        try {
+            final var numberOfReadings = setupFitter(context, nearestFingerprints, model,
+                    fingerprintSourceIndices);
+
+            final var covarianceRequired = isCovarianceRequired();
+            context.fitter.setCovarianceAdjusted(covarianceRequired);
+            context.fitter.fit();
+
+            return new NonLinearFingerprintPositionCandidate<>(k, nearestFingerprints, numberOfReadings,
+                    context.fitter.getA(), covarianceRequired ? context.fitter.getCovar() : null,
+                    context.fitter.getChisq());
+        } catch (final NumericalException e) {
+            // solution could not be found with current data
+            return new NonLinearFingerprintPositionCandidate<>(k, nearestFingerprints);
+        }
+    }
+
+    /**
+     * Indicates whether fitted candidates require covariance, either because covariance
+     * estimation is enabled or because it is needed to select the best candidate.
+     *
+     * @return true if covariance is required, false otherwise.
+     */
+    private boolean isCovarianceRequired() {
+        return mCovarianceEstimationEnabled
+                || (mSearchStrategy == NearestFingerprintsSearchStrategy.BEST_CANDIDATE
+                && mCandidateSelectionCriterion == CandidateSelectionCriterion.COVARIANCE_TRACE);
+    }
+
+    /**
+     * Estimates a candidate solution for each configured number of nearest fingerprints
+     * and keeps the best one according to configured criterion.
+     * Candidates are fitted concurrently if an executor is available.
+     *
+     * @param noMeanFinder             finder of nearest fingerprints removing mean effects
+     *                                 or null.
+     * @param finder                   finder of nearest fingerprints or null.
+     * @param max                      maximum number of nearest fingerprints.
+     * @param model                    prepared model of located radio sources.
+     * @param fingerprintSourceIndices position within model of the radio source of each
+     *                                 reading of fingerprint at unknown location.
+     * @throws FingerprintEstimationException if fitting of candidates is interrupted or
+     *                                        fails unexpectedly.
+     */
+    private void estimateBestCandidate(
+            final RadioSourceNoMeanKNearestFinder<P, RadioSource> noMeanFinder,
+            final RadioSourceKNearestFinder<P, RadioSource> finder, final int max,
+            final VenueModel<P> model, final int[] fingerprintSourceIndices)
+            throws FingerprintEstimationException {
+
+        // numbers of nearest fingerprints to be evaluated
+        final var ks = new ArrayList<Integer>();
+        if (mCandidateNearestFingerprints != null) {
+            for (final var k : mCandidateNearestFingerprints) {
+                if (k <= locatedFingerprints.size() && !ks.contains(k)) {
+                    ks.add(k);
+                }
+            }
+        } else {
+            for (var k = minNearestFingerprints; k <= max; k++) {
+                ks.add(k);
+            }
+        }
+
+        if (ks.isEmpty()) {
+            return;
+        }
+
+        // nearest fingerprints are sorted from closest to farthest, hence they are searched
+        // only once for the largest candidate and shared among all candidates
+        var maxK = 0;
+        for (final var k : ks) {
+            maxK = Math.max(maxK, k);
+        }
+        final var allNearestFingerprints = findNearestFingerprints(noMeanFinder, finder, maxK);
+
+        final var candidates = new ArrayList<NonLinearFingerprintPositionCandidate<P>>(ks.size());
+        if (mExecutor == null) {
+            for (final var k : ks) {
+                final var candidateNearestFingerprints = new ArrayList<>(
+                        allNearestFingerprints.subList(0, Math.min(k, allNearestFingerprints.size())));
+                candidates.add(fitCandidate(mFittingContext, k, candidateNearestFingerprints, model,
+                        fingerprintSourceIndices));
+            }
+        } else {
+            final var futures = new ArrayList<Future<NonLinearFingerprintPositionCandidate<P>>>(ks.size());
+            for (final var k : ks) {
+                final var candidateNearestFingerprints = new ArrayList<>(
+                        allNearestFingerprints.subList(0, Math.min(k, allNearestFingerprints.size())));
+                // each concurrent task uses its own fitter
+                futures.add(mExecutor.submit(() -> fitCandidate(new FittingContext(), k,
+                        candidateNearestFingerprints, model, fingerprintSourceIndices)));
+            }
+
+            try {
+                for (final var future : futures) {
+                    candidates.add(future.get());
+                }
+            } catch (final InterruptedException e) {
+                for (final var future : futures) {
+                    future.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new FingerprintEstimationException(e);
+            } catch (final ExecutionException e) {
+                for (final var future : futures) {
+                    future.cancel(true);
+                }
+                throw new FingerprintEstimationException(e.getCause());
+            }
+        }
+        mCandidates.addAll(candidates);
+
+        // select best candidate (in case of tie, the one having fewer nearest fingerprints)
+        NonLinearFingerprintPositionCandidate<P> best = null;
+        var bestScore = Double.POSITIVE_INFINITY;
+        for (final var candidate : candidates) {
+            if (!candidate.isSuccessful()) {
+                continue;
+            }
+
+            final var score = candidate.getScore(mCandidateSelectionCriterion);
+            if (best == null || score < bestScore) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+
+        if (best != null) {
+            setResult(best);
+        }
+    }
+
+    /**
+     * Finds k nearest located fingerprints to current fingerprint.
+     *
+     * @param noMeanFinder finder of nearest fingerprints removing mean effects or null.
+     * @param finder       finder of nearest fingerprints or null.
+     * @param k            number of nearest fingerprints to find.
+     * @return nearest fingerprints sorted from closest to farthest.
+     */
+    private List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, P>> findNearestFingerprints(
+            final RadioSourceNoMeanKNearestFinder<P, RadioSource> noMeanFinder,
+            final RadioSourceKNearestFinder<P, RadioSource> finder, final int k) {
+        if (noMeanFinder != null) {
+            //noinspection unchecked
+            return noMeanFinder.findKNearestTo(
+                    (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
+        } else {
+            //noinspection unchecked
+            return finder.findKNearestTo(
+                    (RssiFingerprint<RadioSource, RssiReading<RadioSource>>) fingerprint, k);
+        }
+    }
+
+    /**
+     * Keeps solution of provided candidate as the estimated one.
+     *
+     * @param candidate candidate containing estimated solution.
+     */
+    private void setResult(final NonLinearFingerprintPositionCandidate<P> candidate) {
+        estimatedPositionCoordinates = candidate.getEstimatedPositionCoordinates();
+        mCovariance = mCovarianceEstimationEnabled ? candidate.getCovariance() : null;
+        mChiSq = candidate.getChiSq();
+        nearestFingerprints = candidate.getNearestFingerprints();
+    }
+
+    /**
+     * Contains a Levenberg-Marquardt fitter along with buffers reused among fits.
+     * Each thread fitting a solution requires its own context.
+     */
+    private static class FittingContext {
+
+        /**
+         * Levenberg-Marquardt fitter to find a non-linear solution.
+         */
+        private final LevenbergMarquardtMultiDimensionFitter fitter = new LevenbergMarquardtMultiDimensionFitter();
+
+        /**
+         * Taylor expansion coefficients of all readings being fitted, stored contiguously.
+         * Coefficients only depend on fingerprint, radio source and path-loss exponent of each
+         * reading, hence they are computed once when the fitter is set up and reused on every
+         * Levenberg-Marquardt iteration.
+         */
+        private double[] taylorCoefficients;
     }
 }
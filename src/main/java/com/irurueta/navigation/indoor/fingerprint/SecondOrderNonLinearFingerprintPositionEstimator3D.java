@@ -40,6 +40,11 @@ import java.util.List;
  */
 public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinearFingerprintPositionEstimator3D {
 
+    /**
+     * Number of Taylor expansion coefficients computed for each reading.
+     */
+    private static final int NUMBER_OF_TAYLOR_COEFFICIENTS = 9;
+
     /**
      * Constructor.
      */
@@ -160,24 +165,30 @@ public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinea
     }
 
     /**
-     * Evaluates a non-linear multi dimension function at provided point using
-     * provided parameters and returns its evaluation and derivatives of the
-     * function respect the function parameters.
+     * Gets number of Taylor expansion coefficients computed for each reading.
      *
-     * @param i           number of sample being evaluated.
-     * @param point       point where function will be evaluated.
-     * @param params      initial parameters estimation to be tried. These will
-     *                    change as the Levenberg-Marquardt algorithm iterates to the best solution.
-     *                    These are used as input parameters along with point to evaluate function.
-     * @param derivatives partial derivatives of the function respect to each
-     *                    provided parameter.
-     * @return function evaluation at provided point.
+     * @return number of Taylor expansion coefficients.
      */
     @Override
-    @SuppressWarnings("Duplicates")
-    protected double evaluate(
-            final int i, final double[] point, final double[] params, final double[] derivatives) {
-        // This method implements received power at point pi = (xi, yi, zi) and its derivatives
+    protected int getNumberOfTaylorCoefficients() {
+        return NUMBER_OF_TAYLOR_COEFFICIENTS;
+    }
+
+    /**
+     * Computes the Taylor expansion coefficients of received power for provided sample.
+     * Coefficients only depend on the located fingerprint, the radio source and the
+     * path-loss exponent of the sample, hence they remain constant while the
+     * Levenberg-Marquardt algorithm iterates and only need to be computed once per
+     * reading.
+     *
+     * @param point        point containing sample data. Contains fingerprint RSSI, fingerprint
+     *                     position, radio source position and path-loss exponent.
+     * @param coefficients array where computed coefficients will be stored.
+     * @param offset       position in coefficients array where first coefficient will be stored.
+     */
+    @Override
+    protected void computeTaylorCoefficients(final double[] point, final double[] coefficients, final int offset) {
+        // Received power at point pi = (xi, yi, zi) is approximated by its Taylor expansion
 
         // Pr(pi) = Pr(p1)
         //  - 10*n*(x1 - xa)/(ln(10)*d1a^2)*(xi - x1)
@@ -190,13 +201,6 @@ public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinea
         //  + 20*n*(y1 - ya)*(z1 - za)/(ln(10)*d1a^4)*(yi - y1)*(zi - z1)
         //  + 20*n*(x1 - xa)*(z1 - za)/(ln(10)*d1a^4)*(xi - x1)*(zi - z1)
 
-        final var xi = params[0];
-        final var yi = params[1];
-        final var zi = params[2];
-
-        // received power
-        final var pr = point[0];
-
         // fingerprint coordinates
         final var x1 = point[1];
         final var y1 = point[2];
@@ -212,18 +216,10 @@ public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinea
 
         final var ln10 = Math.log(10.0);
 
-        final var diffXi1 = xi - x1;
-        final var diffYi1 = yi - y1;
-        final var diffZi1 = zi - z1;
-
         final var diffX1a = x1 - xa;
         final var diffY1a = y1 - ya;
         final var diffZ1a = z1 - za;
 
-        final var diffXi12 = diffXi1 * diffXi1;
-        final var diffYi12 = diffYi1 * diffYi1;
-        final var diffZi12 = diffZi1 * diffZi1;
-
         final var diffX1a2 = diffX1a * diffX1a;
         final var diffY1a2 = diffY1a * diffY1a;
         final var diffZ1a2 = diffZ1a * diffZ1a;
@@ -241,6 +237,67 @@ public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinea
         final var value8 = 20.0 * n * diffY1a * diffZ1a / (ln10 * d1a4);
         final var value9 = 20.0 * n * diffX1a * diffZ1a / (ln10 * d1a4);
 
+        coefficients[offset] = value1;
+        coefficients[offset + 1] = value2;
+        coefficients[offset + 2] = value3;
+        coefficients[offset + 3] = value4;
+        coefficients[offset + 4] = value5;
+        coefficients[offset + 5] = value6;
+        coefficients[offset + 6] = value7;
+        coefficients[offset + 7] = value8;
+        coefficients[offset + 8] = value9;
+    }
+
+    /**
+     * Evaluates Taylor expansion of received power at provided point using
+     * provided parameters and previously computed Taylor coefficients, and returns its
+     * evaluation and derivatives of the function respect the function parameters.
+     *
+     * @param point        point where function will be evaluated.
+     * @param params       initial parameters estimation to be tried. These will
+     *                     change as the Levenberg-Marquardt algorithm iterates to the best solution.
+     *                     These are used as input parameters along with point to evaluate function.
+     * @param coefficients array containing precomputed Taylor coefficients.
+     * @param offset       position in coefficients array where coefficients of provided point start.
+     * @param derivatives  partial derivatives of the function respect to each
+     *                     provided parameter.
+     * @return function evaluation at provided point.
+     */
+    @Override
+    @SuppressWarnings("Duplicates")
+    protected double evaluateTaylorExpansion(
+            final double[] point, final double[] params, final double[] coefficients, final int offset,
+            final double[] derivatives) {
+        final var xi = params[0];
+        final var yi = params[1];
+        final var zi = params[2];
+
+        // received power
+        final var pr = point[0];
+
+        // fingerprint coordinates
+        final var x1 = point[1];
+        final var y1 = point[2];
+        final var z1 = point[3];
+
+        final var diffXi1 = xi - x1;
+        final var diffYi1 = yi - y1;
+        final var diffZi1 = zi - z1;
+
+        final var diffXi12 = diffXi1 * diffXi1;
+        final var diffYi12 = diffYi1 * diffYi1;
+        final var diffZi12 = diffZi1 * diffZi1;
+
+        final var value1 = coefficients[offset];
+        final var value2 = coefficients[offset + 1];
+        final var value3 = coefficients[offset + 2];
+        final var value4 = coefficients[offset + 3];
+        final var value5 = coefficients[offset + 4];
+        final var value6 = coefficients[offset + 5];
+        final var value7 = coefficients[offset + 6];
+        final var value8 = coefficients[offset + 7];
+        final var value9 = coefficients[offset + 8];
+
         final var result = pr
                 + value1 * diffXi1
                 + value2 * diffYi1
@@ -257,7 +314,7 @@ public class SecondOrderNonLinearFingerprintPositionEstimator3D extends NonLinea
         // - 10*n*((y1 - ya)^2 + (z1 - za)^2) - (x1 - xa)^2)/(ln(10)*d1a^4)*(xi - x1)
         // + 20*n*(x1 - xa)*(y1 - ya)/(ln(10)*d1a^4)*(yi - y1)
         // + 20*n*(x1 - xa)*(z1 - za)/(ln(10)*d1a^4)*(zi - z1)
-        derivatives[0] = value1 + 2.0 * value4 * diffXi1 + value7 * diffYi1 + value8 * diffZi1;
+        derivatives[0] = value1 + 2.0 * value4 * diffXi1 + value7 * diffYi1 + value9 * diffZi1;
 
         // derivative respect yi
         // diff(Pr(pi))/diff(yi) = - 10*n*(y1 - ya)/(ln(10)*d1a^2)
@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+import com.irurueta.numerical.robust.InliersData;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Function;
+
+/**
+ * Contains results of a batch position estimation stored in columnar arrays.
+ * For a batch of n fingerprints and positions of d dimensions:
+ * - position coordinates are stored in an array of n * d values, where coordinates
+ * of i-th position start at position i * d.
+ * - covariances are stored in an array of n * d * d values in column order, where
+ * covariance of i-th position starts at position i * d * d.
+ * Values of items whose estimation failed or whose covariance is not available are
+ * NaN.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class BatchPositionEstimationResult<P extends Point<?>> {
+
+    /**
+     * Number of dimensions of estimated positions.
+     */
+    private final int numberOfDimensions;
+
+    /**
+     * Coordinates of estimated positions.
+     */
+    private final double[] positionCoordinates;
+
+    /**
+     * Covariances of estimated positions stored in column order.
+     */
+    private final double[] covariances;
+
+    /**
+     * Number of inliers found for each item or -1 if not available.
+     */
+    private final int[] numberOfInliers;
+
+    /**
+     * Inliers found for each item or null if not available.
+     * Inliers refer to the positions and distances internally used for lateration
+     * on each item.
+     */
+    private final BitSet[] inliers;
+
+    /**
+     * Error raised for each item or null if estimation succeeded.
+     */
+    private final Exception[] errors;
+
+    /**
+     * Creates a position from its inhomogeneous coordinates.
+     */
+    private final Function<double[], P> positionFactory;
+
+    /**
+     * Constructor.
+     *
+     * @param size               number of items in the batch.
+     * @param numberOfDimensions number of dimensions of estimated positions.
+     * @param positionFactory    creates a position from its inhomogeneous coordinates.
+     */
+    BatchPositionEstimationResult(final int size, final int numberOfDimensions,
+                                  final Function<double[], P> positionFactory) {
+        this.numberOfDimensions = numberOfDimensions;
+        this.positionFactory = positionFactory;
+
+        positionCoordinates = new double[size * numberOfDimensions];
+        covariances = new double[size * numberOfDimensions * numberOfDimensions];
+        numberOfInliers = new int[size];
+        inliers = new BitSet[size];
+        errors = new Exception[size];
+
+        Arrays.fill(positionCoordinates, Double.NaN);
+        Arrays.fill(covariances, Double.NaN);
+        Arrays.fill(numberOfInliers, -1);
+    }
+
+    /**
+     * Gets number of items in the batch.
+     *
+     * @return number of items in the batch.
+     */
+    public int size() {
+        return errors.length;
+    }
+
+    /**
+     * Gets number of dimensions of estimated positions.
+     *
+     * @return number of dimensions of estimated positions.
+     */
+    public int getNumberOfDimensions() {
+        return numberOfDimensions;
+    }
+
+    /**
+     * Gets number of items whose position was successfully estimated.
+     *
+     * @return number of successful items.
+     */
+    public int getNumberOfSucceeded() {
+        var result = 0;
+        for (final var error : errors) {
+            if (error == null) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets number of items whose position could not be estimated.
+     *
+     * @return number of failed items.
+     */
+    public int getNumberOfFailed() {
+        return size() - getNumberOfSucceeded();
+    }
+
+    /**
+     * Indicates whether position of item at provided index was successfully estimated.
+     *
+     * @param index index of item in the batch.
+     * @return true if estimation succeeded, false otherwise.
+     */
+    public boolean isSucceeded(final int index) {
+        return errors[index] == null;
+    }
+
+    /**
+     * Gets error raised while estimating position of item at provided index.
+     *
+     * @param index index of item in the batch.
+     * @return error or null if estimation succeeded.
+     */
+    public Exception getError(final int index) {
+        return errors[index];
+    }
+
+    /**
+     * Gets coordinates of all estimated positions.
+     * Returned array is not copied, hence it must not be modified.
+     *
+     * @return coordinates of all estimated positions.
+     */
+    public double[] getPositionCoordinates() {
+        return positionCoordinates;
+    }
+
+    /**
+     * Gets covariances of all estimated positions stored in column order.
+     * Returned array is not copied, hence it must not be modified.
+     *
+     * @return covariances of all estimated positions.
+     */
+    public double[] getCovariances() {
+        return covariances;
+    }
+
+    /**
+     * Gets number of inliers found for all items.
+     * Returned array is not copied, hence it must not be modified.
+     *
+     * @return number of inliers of each item or -1 if not available.
+     */
+    public int[] getNumberOfInliers() {
+        return numberOfInliers;
+    }
+
+    /**
+     * Gets estimated position of item at provided index.
+     *
+     * @param index index of item in the batch.
+     * @return estimated position or null if estimation failed.
+     */
+    public P getPosition(final int index) {
+        if (errors[index] != null) {
+            return null;
+        }
+        final var start = index * numberOfDimensions;
+        return positionFactory.apply(Arrays.copyOfRange(positionCoordinates, start, start + numberOfDimensions));
+    }
+
+    /**
+     * Gets covariance of estimated position of item at provided index.
+     *
+     * @param index index of item in the batch.
+     * @return covariance or null if not available.
+     */
+    public Matrix getCovariance(final int index) {
+        final var length = numberOfDimensions * numberOfDimensions;
+        final var start = index * length;
+        if (errors[index] != null || Double.isNaN(covariances[start])) {
+            return null;
+        }
+
+        try {
+            final var result = new Matrix(numberOfDimensions, numberOfDimensions);
+            System.arraycopy(covariances, start, result.getBuffer(), 0, length);
+            return result;
+        } catch (final AlgebraException ignore) {
+            // never happens
+            return null;
+        }
+    }
+
+    /**
+     * Gets inliers found for item at provided index.
+     * Inliers refer to the positions and distances internally used for lateration.
+     *
+     * @param index index of item in the batch.
+     * @return inliers or null if not available.
+     */
+    public BitSet getInliers(final int index) {
+        return inliers[index];
+    }
+
+    /**
+     * Stores estimated position of item at provided index.
+     *
+     * @param index      index of item in the batch.
+     * @param position   estimated position.
+     * @param covariance estimated covariance or null if not available.
+     * @param inlierData data related to inliers or null if not available.
+     */
+    void setEstimation(final int index, final P position, final Matrix covariance,
+                       final InliersData inlierData) {
+        final var start = index * numberOfDimensions;
+        for (var i = 0; i < numberOfDimensions; i++) {
+            positionCoordinates[start + i] = position.getInhomogeneousCoordinate(i);
+        }
+
+        final var length = numberOfDimensions * numberOfDimensions;
+        if (covariance != null && covariance.getRows() == numberOfDimensions
+                && covariance.getColumns() == numberOfDimensions) {
+            System.arraycopy(covariance.getBuffer(), 0, covariances, index * length, length);
+        }
+
+        if (inlierData != null) {
+            numberOfInliers[index] = inlierData.getNumInliers();
+            inliers[index] = inlierData.getInliers();
+        }
+    }
+
+    /**
+     * Stores error raised while estimating position of item at provided index.
+     *
+     * @param index index of item in the batch.
+     * @param error raised error.
+     */
+    void setError(final int index, final Exception error) {
+        errors[index] = error;
+    }
+
+    /**
+     * Copies results of a chunk of items into this instance.
+     *
+     * @param offset index in this batch of the first item in the chunk.
+     * @param chunk  results of the chunk.
+     */
+    void setChunk(final int offset, final BatchPositionEstimationResult<P> chunk) {
+        final var size = chunk.size();
+        final var length = numberOfDimensions * numberOfDimensions;
+        System.arraycopy(chunk.positionCoordinates, 0, positionCoordinates, offset * numberOfDimensions,
+                size * numberOfDimensions);
+        System.arraycopy(chunk.covariances, 0, covariances, offset * length, size * length);
+        System.arraycopy(chunk.numberOfInliers, 0, numberOfInliers, offset, size);
+        System.arraycopy(chunk.inliers, 0, inliers, offset, size);
+        System.arraycopy(chunk.errors, 0, errors, offset, size);
+    }
+}
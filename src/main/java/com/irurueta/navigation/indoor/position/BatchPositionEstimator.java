@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Estimates positions of many fingerprints at once against the same prepared model of
+ * located radio sources.
+ * Fingerprints may contain ranging, RSSI or ranging and RSSI readings, and each of
+ * them is robustly solved using a {@link RobustMixedPositionEstimator} configured with
+ * a shared immutable {@link RobustPositionEstimatorConfig}.
+ * Radio sources are indexed only once when the venue model is prepared, and the batch
+ * is split into chunks that are solved in parallel on a configurable executor, where
+ * each chunk reuses a single internal estimator.
+ * Failures are isolated per fingerprint, so that a fingerprint that cannot be solved
+ * does not prevent the remaining ones from being estimated.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class BatchPositionEstimator<P extends Point<?>> {
+
+    /**
+     * Default number of fingerprints solved sequentially by each parallel task.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    /**
+     * Prepared model of located radio sources shared by all fingerprints.
+     */
+    private final VenueModel<P> venueModel;
+
+    /**
+     * Configuration of robust estimators used to solve each fingerprint.
+     */
+    private final RobustPositionEstimatorConfig config;
+
+    /**
+     * Executor where chunks of fingerprints are solved.
+     */
+    private final Executor executor;
+
+    /**
+     * Quality scores of radio sources, which are the same for all fingerprints.
+     * Each estimation is given its own copy, since estimators keep provided scores by
+     * reference.
+     */
+    private final double[] sourceQualityScores;
+
+    /**
+     * Number of fingerprints solved sequentially by each parallel task.
+     */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * Constructor.
+     * Fingerprints are solved on the common fork-join pool.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @param config     configuration of robust estimators.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    protected BatchPositionEstimator(
+            final VenueModel<P> venueModel, final RobustPositionEstimatorConfig config) {
+        this(venueModel, config, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @param config     configuration of robust estimators.
+     * @param executor   executor where fingerprints are solved.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    protected BatchPositionEstimator(
+            final VenueModel<P> venueModel, final RobustPositionEstimatorConfig config,
+            final Executor executor) {
+        if (venueModel == null || config == null || executor == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.venueModel = venueModel;
+        this.config = config;
+        this.executor = executor;
+
+        sourceQualityScores = new double[venueModel.getNumberOfSources()];
+        Arrays.fill(sourceQualityScores, 1.0);
+    }
+
+    /**
+     * Gets prepared model of located radio sources shared by all fingerprints.
+     *
+     * @return prepared model of located radio sources.
+     */
+    public VenueModel<P> getVenueModel() {
+        return venueModel;
+    }
+
+    /**
+     * Gets configuration of robust estimators used to solve each fingerprint.
+     *
+     * @return configuration of robust estimators.
+     */
+    public RobustPositionEstimatorConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Gets executor where fingerprints are solved.
+     *
+     * @return executor where fingerprints are solved.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Gets number of fingerprints solved sequentially by each parallel task.
+     *
+     * @return number of fingerprints solved by each parallel task.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets number of fingerprints solved sequentially by each parallel task.
+     *
+     * @param chunkSize number of fingerprints solved by each parallel task.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     */
+    public void setChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Estimates positions of all provided fingerprints.
+     *
+     * @param fingerprints fingerprints to be solved.
+     * @return estimated positions, covariances and inliers of all fingerprints along
+     * with errors of fingerprints that could not be solved.
+     * @throws IllegalArgumentException if provided list is null.
+     */
+    public BatchPositionEstimationResult<P> estimate(
+            final List<? extends Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>>>
+                    fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var size = fingerprints.size();
+        final var result = new BatchPositionEstimationResult<>(size, getNumberOfDimensions(), this::createPosition);
+
+        final var tasks = new ArrayList<CompletableFuture<Void>>();
+        for (var start = 0; start < size; start += chunkSize) {
+            final var chunkStart = start;
+            final var chunkEnd = Math.min(start + chunkSize, size);
+            tasks.add(CompletableFuture.runAsync(() -> estimateChunk(fingerprints, chunkStart, chunkEnd, result),
+                    executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        return result;
+    }
+
+    /**
+     * Estimates positions of all fingerprints provided by an iterator.
+     * Fingerprints are read one chunk at a time, and each chunk is submitted as soon as
+     * it is read, so that only fingerprints of chunks being solved are kept in memory.
+     * Reading is paused when too many chunks are pending to be solved.
+     *
+     * @param fingerprints iterator of fingerprints to be solved.
+     * @return estimated positions, covariances and inliers of all fingerprints along
+     * with errors of fingerprints that could not be solved.
+     * @throws IllegalArgumentException if provided iterator is null.
+     */
+    public BatchPositionEstimationResult<P> estimate(
+            final Iterator<? extends Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>>>
+                    fingerprints) {
+        if (fingerprints == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var maxPendingChunks = 2 * Runtime.getRuntime().availableProcessors();
+        final var chunkResults = new ArrayList<BatchPositionEstimationResult<P>>();
+        final var tasks = new ArrayList<CompletableFuture<Void>>();
+        var size = 0;
+        var firstPending = 0;
+        while (fingerprints.hasNext()) {
+            final var chunk = new ArrayList<Fingerprint<? extends RadioSource,
+                    ? extends Reading<? extends RadioSource>>>(chunkSize);
+            while (chunk.size() < chunkSize && fingerprints.hasNext()) {
+                chunk.add(fingerprints.next());
+            }
+
+            final var chunkResult = new BatchPositionEstimationResult<>(chunk.size(), getNumberOfDimensions(),
+                    this::createPosition);
+            chunkResults.add(chunkResult);
+            tasks.add(CompletableFuture.runAsync(() -> estimateChunk(chunk, 0, chunk.size(), chunkResult),
+                    executor));
+            size += chunk.size();
+
+            // wait for oldest chunks so that read fingerprints do not accumulate
+            while (tasks.size() - firstPending > maxPendingChunks) {
+                tasks.get(firstPending++).join();
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+
+        final var result = new BatchPositionEstimationResult<>(size, getNumberOfDimensions(), this::createPosition);
+        var offset = 0;
+        for (final var chunkResult : chunkResults) {
+            result.setChunk(offset, chunkResult);
+            offset += chunkResult.size();
+        }
+        return result;
+    }
+
+    /**
+     * Gets number of dimensions of estimated positions.
+     *
+     * @return number of dimensions of estimated positions.
+     */
+    public abstract int getNumberOfDimensions();
+
+    /**
+     * Creates a robust estimator configured with provided configuration.
+     *
+     * @param config configuration of robust estimator.
+     * @return a robust estimator.
+     */
+    protected abstract RobustMixedPositionEstimator<P> createEstimator(final RobustPositionEstimatorConfig config);
+
+    /**
+     * Creates a position from its inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a position.
+     */
+    protected abstract P createPosition(final double[] coordinates);
+
+    /**
+     * Estimates positions of a chunk of fingerprints reusing the same internal estimator.
+     *
+     * @param fingerprints all fingerprints to be solved.
+     * @param start        index of first fingerprint in the chunk (inclusive).
+     * @param end          index of last fingerprint in the chunk (exclusive).
+     * @param result       instance where results are stored.
+     */
+    private void estimateChunk(
+            final List<? extends Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>>>
+                    fingerprints, final int start, final int end, final BatchPositionEstimationResult<P> result) {
+        RobustMixedPositionEstimator<P> estimator = null;
+        for (var i = start; i < end; i++) {
+            try {
+                if (estimator == null) {
+                    estimator = createEstimator(config);
+                    estimator.setVenueModel(venueModel);
+                }
+                final var position = estimate(estimator, fingerprints.get(i));
+                result.setEstimation(i, position, estimator.getCovariance(), estimator.getInliersData());
+            } catch (final Exception e) {
+                result.setError(i, e);
+                // internal estimator is built again in case it was left in an inconsistent state
+                estimator = null;
+            }
+        }
+    }
+
+    /**
+     * Estimates position of a single fingerprint.
+     *
+     * @param estimator   internal estimator to be reused.
+     * @param fingerprint fingerprint to be solved.
+     * @return estimated position.
+     * @throws LockedException             if internal estimator is locked.
+     * @throws NotReadyException           if fingerprint does not contain enough readings.
+     * @throws RobustEstimatorException    if robust estimation fails.
+     * @throws PositionEstimationException if no position is found.
+     */
+    private P estimate(
+            final RobustMixedPositionEstimator<P> estimator,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint)
+            throws LockedException, NotReadyException, RobustEstimatorException, PositionEstimationException {
+        estimator.setFingerprint(fingerprint);
+
+        final var readingsQualityScores = new double[fingerprint.getReadings().size()];
+        Arrays.fill(readingsQualityScores, 1.0);
+        estimator.setSourceQualityScores(sourceQualityScores.clone());
+        estimator.setFingerprintReadingsQualityScores(readingsQualityScores);
+
+        final var position = estimator.estimate();
+        if (position == null) {
+            throw new PositionEstimationException();
+        }
+        return position;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import com.irurueta.navigation.indoor.VenueModel;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Estimates 3D positions of many fingerprints at once against the same prepared
+ * model of located radio sources.
+ */
+public class BatchPositionEstimator3D extends BatchPositionEstimator<Point3D> {
+
+    /**
+     * Constructor.
+     * Fingerprints are solved on the common fork-join pool.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @param config     configuration of robust estimators.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    public BatchPositionEstimator3D(
+            final VenueModel<Point3D> venueModel, final RobustPositionEstimatorConfig config) {
+        super(venueModel, config);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @param config     configuration of robust estimators.
+     * @param executor   executor where fingerprints are solved.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    public BatchPositionEstimator3D(
+            final VenueModel<Point3D> venueModel, final RobustPositionEstimatorConfig config,
+            final Executor executor) {
+        super(venueModel, config, executor);
+    }
+
+    /**
+     * Gets number of dimensions of estimated positions.
+     *
+     * @return number of dimensions of estimated positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point3D.POINT3D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates a robust 3D estimator configured with provided configuration.
+     *
+     * @param config configuration of robust estimator.
+     * @return a robust 3D estimator.
+     */
+    @Override
+    protected RobustMixedPositionEstimator<Point3D> createEstimator(final RobustPositionEstimatorConfig config) {
+        return RobustMixedPositionEstimator3D.create(config);
+    }
+
+    /**
+     * Creates a 3D position from its inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a 3D position.
+     */
+    @Override
+    protected Point3D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint3D(coordinates[0], coordinates[1], coordinates[2]);
+    }
+}
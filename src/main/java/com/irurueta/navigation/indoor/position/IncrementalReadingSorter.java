@@ -0,0 +1,729 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.ReadingType;
+import com.irurueta.navigation.indoor.VenueModel;
+
+/**
+ * Reusable sorter that evenly distributes readings of a fingerprint among different
+ * radio sources taking into account their respective quality scores, in the same way
+ * as {@link ReadingSorter} does.
+ * Contrary to {@link ReadingSorter}, sorted order is kept in primitive index arrays
+ * that are only reallocated when their capacity is exceeded, radio sources are found
+ * in constant time through a prepared {@link VenueModel}, and when the same venue model
+ * and fingerprint are sorted again, only the radio sources and readings whose quality
+ * scores or readings have changed are re-positioned.
+ * Radio sources are sorted from highest to lowest quality score, and readings of each
+ * radio source are sorted so that ranging readings go first, then ranging and RSSI
+ * readings and finally RSSI readings, and within each reading type, from highest to
+ * lowest quality score. Ties keep original order.
+ * Readings whose radio source is not found within the venue model are ignored.
+ * Readings can also be provided as a {@link ReadingBatch}, in which case a reading
+ * is considered changed when its radio source or type changes, since batches are
+ * typically cleared and refilled for each new scan.
+ * This class is not thread-safe.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public class IncrementalReadingSorter<P extends Point<?>> {
+
+    /**
+     * Maximum ratio of changed quality scores or readings respect the total number
+     * of radio sources and readings that are incrementally re-positioned. When more
+     * values change, everything is sorted again.
+     */
+    static final double MAX_INCREMENTAL_CHANGES_RATIO = 0.25;
+
+    /**
+     * Rank of readings whose radio source is unknown.
+     */
+    private static final int UNKNOWN_RANK = Integer.MAX_VALUE;
+
+    /**
+     * Prepared model of located radio sources of last sort.
+     */
+    private VenueModel<P> venueModel;
+
+    /**
+     * Fingerprint of last sort.
+     */
+    private Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint;
+
+    /**
+     * Batch of readings of last sort.
+     */
+    private ReadingBatch batch;
+
+    /**
+     * Number of radio sources.
+     */
+    private int numSources;
+
+    /**
+     * Number of readings.
+     */
+    private int numReadings;
+
+    /**
+     * Quality scores of radio sources used for last sort.
+     */
+    private double[] sourceQualityScores = new double[0];
+
+    /**
+     * Quality scores of readings used for last sort.
+     */
+    private double[] readingQualityScores = new double[0];
+
+    /**
+     * Readings used for last sort, to detect replaced readings within the same
+     * fingerprint.
+     */
+    private Object[] readings = new Object[0];
+
+    /**
+     * Index of radio source of each reading within the venue model or the number of
+     * radio sources if unknown.
+     */
+    private int[] readingSources = new int[0];
+
+    /**
+     * Rank of each reading type (ranging readings go first, then ranging and RSSI and
+     * finally RSSI).
+     */
+    private int[] readingRanks = new int[0];
+
+    /**
+     * Indices of radio sources sorted from highest to lowest quality.
+     */
+    private int[] sortedSources = new int[0];
+
+    /**
+     * Indices of readings grouped by radio source in the order of radio sources within
+     * the venue model. Readings of unknown radio sources are stored in a last extra
+     * group. Each group is sorted.
+     */
+    private int[] groupedReadings = new int[0];
+
+    /**
+     * Start position of each group of readings within grouped readings. Contains
+     * number of radio sources + 2 values, where the last one is the number of readings.
+     */
+    private int[] groupStarts = new int[0];
+
+    /**
+     * Indicates whether last sort only re-positioned changed quality scores and readings.
+     */
+    private boolean incremental;
+
+    /**
+     * Compares radio sources by their quality scores.
+     */
+    private final IndexComparator sourceComparator = (s1, s2) -> {
+        final var result = Double.compare(sourceQualityScores[s2], sourceQualityScores[s1]);
+        return result != 0 ? result : Integer.compare(s1, s2);
+    };
+
+    /**
+     * Compares readings by their type and quality scores.
+     */
+    private final IndexComparator readingComparator = (r1, r2) -> {
+        var result = Integer.compare(readingRanks[r1], readingRanks[r2]);
+        if (result != 0) {
+            return result;
+        }
+        result = Double.compare(readingQualityScores[r2], readingQualityScores[r1]);
+        return result != 0 ? result : Integer.compare(r1, r2);
+    };
+
+    /**
+     * Sorts radio sources and readings.
+     * If provided venue model and fingerprint are the same instances as in last sort,
+     * and the number of readings has not changed, only changed quality scores and
+     * readings are re-positioned.
+     * Provided arrays are copied, so they can be modified afterwards.
+     *
+     * @param venueModel                       prepared model of located radio sources.
+     * @param fingerprint                      fingerprint containing readings.
+     * @param sourceQualityScores              quality scores of each radio source.
+     * @param fingerprintReadingsQualityScores quality scores of each reading.
+     * @throws IllegalArgumentException if any value is null, number of source quality
+     *                                  scores is not equal to the number of sources,
+     *                                  or number of reading quality scores is not
+     *                                  equal to the number of readings.
+     */
+    public void sort(final VenueModel<P> venueModel,
+                     final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+                     final double[] sourceQualityScores, final double[] fingerprintReadingsQualityScores) {
+        if (venueModel == null || fingerprint == null || fingerprint.getReadings() == null
+                || sourceQualityScores == null || fingerprintReadingsQualityScores == null) {
+            throw new IllegalArgumentException();
+        }
+        if (venueModel.getNumberOfSources() != sourceQualityScores.length
+                || fingerprint.getReadings().size() != fingerprintReadingsQualityScores.length) {
+            throw new IllegalArgumentException();
+        }
+
+        incremental = venueModel == this.venueModel && fingerprint == this.fingerprint
+                && sourceQualityScores.length == numSources && fingerprintReadingsQualityScores.length == numReadings
+                && updateIncrementally(sourceQualityScores, fingerprintReadingsQualityScores);
+        if (!incremental) {
+            this.fingerprint = fingerprint;
+            batch = null;
+            sortAll(venueModel, sourceQualityScores, fingerprintReadingsQualityScores);
+        }
+    }
+
+    /**
+     * Sorts radio sources and readings contained in a batch.
+     * If provided venue model and batch are the same instances as in last sort, and
+     * the number of readings has not changed, only changed quality scores and
+     * readings whose radio source or type has changed are re-positioned.
+     * Provided arrays are copied, so they can be modified afterwards.
+     *
+     * @param venueModel            prepared model of located radio sources.
+     * @param batch                 batch of readings.
+     * @param sourceQualityScores   quality scores of each radio source.
+     * @param readingsQualityScores quality scores of each reading.
+     * @throws IllegalArgumentException if any value is null, number of source quality
+     *                                  scores is not equal to the number of sources,
+     *                                  or number of reading quality scores is not
+     *                                  equal to the number of readings.
+     */
+    public void sort(final VenueModel<P> venueModel, final ReadingBatch batch,
+                     final double[] sourceQualityScores, final double[] readingsQualityScores) {
+        if (venueModel == null || batch == null || sourceQualityScores == null || readingsQualityScores == null) {
+            throw new IllegalArgumentException();
+        }
+        if (venueModel.getNumberOfSources() != sourceQualityScores.length
+                || batch.size() != readingsQualityScores.length) {
+            throw new IllegalArgumentException();
+        }
+
+        incremental = venueModel == this.venueModel && batch == this.batch
+                && sourceQualityScores.length == numSources && readingsQualityScores.length == numReadings
+                && updateIncrementally(sourceQualityScores, readingsQualityScores);
+        if (!incremental) {
+            this.fingerprint = null;
+            this.batch = batch;
+            sortAll(venueModel, sourceQualityScores, readingsQualityScores);
+        }
+    }
+
+    /**
+     * Changes quality score of a single radio source and re-positions it.
+     *
+     * @param sourceIndex  index of radio source within the venue model.
+     * @param qualityScore new quality score.
+     * @throws IndexOutOfBoundsException if index is not valid.
+     */
+    public void setSourceQualityScore(final int sourceIndex, final double qualityScore) {
+        if (sourceIndex < 0 || sourceIndex >= numSources) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        sourceQualityScores[sourceIndex] = qualityScore;
+        reposition(sortedSources, 0, numSources, indexOf(sortedSources, 0, numSources, sourceIndex),
+                sourceComparator);
+    }
+
+    /**
+     * Changes quality score of a single reading and re-positions it.
+     *
+     * @param readingIndex index of reading within the fingerprint.
+     * @param qualityScore new quality score.
+     * @throws IndexOutOfBoundsException if index is not valid.
+     */
+    public void setReadingQualityScore(final int readingIndex, final double qualityScore) {
+        if (readingIndex < 0 || readingIndex >= numReadings) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        readingQualityScores[readingIndex] = qualityScore;
+        final var group = readingSources[readingIndex];
+        final var from = groupStarts[group];
+        final var to = groupStarts[group + 1];
+        reposition(groupedReadings, from, to, indexOf(groupedReadings, from, to, readingIndex), readingComparator);
+    }
+
+    /**
+     * Notifies that reading at provided index has been replaced within the fingerprint,
+     * so that it is re-positioned taking into account its radio source and type.
+     *
+     * @param readingIndex index of reading within the fingerprint.
+     * @throws IndexOutOfBoundsException if index is not valid.
+     */
+    public void readingChanged(final int readingIndex) {
+        if (readingIndex < 0 || readingIndex >= numReadings) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        final var oldGroup = readingSources[readingIndex];
+        loadReading(readingIndex);
+        final var newGroup = readingSources[readingIndex];
+
+        if (oldGroup != newGroup) {
+            // move the hole left by the reading across groups by moving a single
+            // element at the boundary of each group in between
+            var hole = indexOf(groupedReadings, groupStarts[oldGroup], groupStarts[oldGroup + 1], readingIndex);
+            if (oldGroup < newGroup) {
+                for (var g = oldGroup; g < newGroup; g++) {
+                    final var last = groupStarts[g + 1] - 1;
+                    groupedReadings[hole] = groupedReadings[last];
+                    hole = last;
+                    groupStarts[g + 1]--;
+                }
+            } else {
+                for (var g = oldGroup; g > newGroup; g--) {
+                    final var first = groupStarts[g];
+                    groupedReadings[hole] = groupedReadings[first];
+                    hole = first;
+                    groupStarts[g]++;
+                }
+            }
+            groupedReadings[hole] = readingIndex;
+
+            // restore order of groups whose boundary elements have been moved
+            final var from = Math.min(oldGroup, newGroup);
+            final var to = Math.max(oldGroup, newGroup);
+            for (var g = from; g <= to; g++) {
+                final var start = groupStarts[g];
+                final var end = groupStarts[g + 1];
+                for (var i = start + 1; i < end; i++) {
+                    reposition(groupedReadings, start, i + 1, i, readingComparator);
+                }
+            }
+        } else {
+            final var from = groupStarts[newGroup];
+            final var to = groupStarts[newGroup + 1];
+            reposition(groupedReadings, from, to, indexOf(groupedReadings, from, to, readingIndex),
+                    readingComparator);
+        }
+    }
+
+    /**
+     * Evenly distributes readings among radio sources by replacing provided quality
+     * scores with new values, so that first reading of each radio source goes first
+     * (from highest to lowest radio source quality), then second reading of each
+     * radio source, and so on.
+     * Quality scores of readings whose radio source is unknown are not modified.
+     *
+     * @param sourceQualityScores              array where new quality scores of radio
+     *                                         sources are stored.
+     * @param fingerprintReadingsQualityScores array where new quality scores of
+     *                                         readings are stored.
+     * @throws IllegalArgumentException if provided arrays do not have the number of
+     *                                  radio sources and readings of last sort.
+     */
+    public void distribute(final double[] sourceQualityScores, final double[] fingerprintReadingsQualityScores) {
+        if (sourceQualityScores == null || sourceQualityScores.length != numSources
+                || fingerprintReadingsQualityScores == null
+                || fingerprintReadingsQualityScores.length != numReadings) {
+            throw new IllegalArgumentException();
+        }
+
+        var j = 0;
+        var k = 0;
+        boolean finished;
+        do {
+            var i = 0;
+            finished = true;
+            for (var n = 0; n < numSources; n++) {
+                final var source = sortedSources[n];
+                sourceQualityScores[source] = i;
+                i--;
+
+                final var position = groupStarts[source] + k;
+                if (position < groupStarts[source + 1]) {
+                    finished = false;
+                    fingerprintReadingsQualityScores[groupedReadings[position]] = j;
+                    j--;
+                }
+            }
+            k++;
+        } while (!finished);
+    }
+
+    /**
+     * Indicates whether last sort only re-positioned changed quality scores and
+     * readings instead of sorting everything again.
+     *
+     * @return true if last sort was incremental, false otherwise.
+     */
+    public boolean isLastSortIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Gets number of radio sources of last sort.
+     *
+     * @return number of radio sources.
+     */
+    public int getNumberOfSources() {
+        return numSources;
+    }
+
+    /**
+     * Gets number of readings of last sort.
+     *
+     * @return number of readings.
+     */
+    public int getNumberOfReadings() {
+        return numReadings;
+    }
+
+    /**
+     * Gets index of radio source at provided position in sorted order.
+     *
+     * @param position position in sorted order.
+     * @return index of radio source within the venue model.
+     * @throws IndexOutOfBoundsException if position is not valid.
+     */
+    public int getSortedSource(final int position) {
+        if (position < 0 || position >= numSources) {
+            throw new IndexOutOfBoundsException();
+        }
+        return sortedSources[position];
+    }
+
+    /**
+     * Gets number of readings of radio source at provided index.
+     *
+     * @param sourceIndex index of radio source within the venue model.
+     * @return number of readings of radio source.
+     * @throws IndexOutOfBoundsException if index is not valid.
+     */
+    public int getNumberOfReadings(final int sourceIndex) {
+        if (sourceIndex < 0 || sourceIndex >= numSources) {
+            throw new IndexOutOfBoundsException();
+        }
+        return groupStarts[sourceIndex + 1] - groupStarts[sourceIndex];
+    }
+
+    /**
+     * Gets index of reading at provided position in sorted order of readings of a
+     * radio source.
+     *
+     * @param sourceIndex index of radio source within the venue model.
+     * @param position    position in sorted order of readings of radio source.
+     * @return index of reading within the fingerprint.
+     * @throws IndexOutOfBoundsException if any index is not valid.
+     */
+    public int getSortedReading(final int sourceIndex, final int position) {
+        if (position < 0 || position >= getNumberOfReadings(sourceIndex)) {
+            throw new IndexOutOfBoundsException();
+        }
+        return groupedReadings[groupStarts[sourceIndex] + position];
+    }
+
+    /**
+     * Re-positions changed quality scores and readings when they are few.
+     *
+     * @param sourceQualityScores              new quality scores of radio sources.
+     * @param fingerprintReadingsQualityScores new quality scores of readings.
+     * @return true if incremental update was done, false if everything must be sorted
+     * again.
+     */
+    private boolean updateIncrementally(final double[] sourceQualityScores,
+                                        final double[] fingerprintReadingsQualityScores) {
+        final var maxChanges = (int) (MAX_INCREMENTAL_CHANGES_RATIO * (numSources + numReadings));
+
+        // count changes first so that nothing is modified when everything must be sorted again
+        var changes = 0;
+        for (var i = 0; i < numSources; i++) {
+            if (Double.compare(sourceQualityScores[i], this.sourceQualityScores[i]) != 0) {
+                changes++;
+            }
+        }
+        for (var i = 0; i < numReadings; i++) {
+            if (hasReadingChanged(i)
+                    || Double.compare(fingerprintReadingsQualityScores[i], readingQualityScores[i]) != 0) {
+                changes++;
+            }
+        }
+        if (changes > maxChanges) {
+            return false;
+        }
+
+        for (var i = 0; i < numSources; i++) {
+            if (Double.compare(sourceQualityScores[i], this.sourceQualityScores[i]) != 0) {
+                setSourceQualityScore(i, sourceQualityScores[i]);
+            }
+        }
+        for (var i = 0; i < numReadings; i++) {
+            if (hasReadingChanged(i)) {
+                readingQualityScores[i] = fingerprintReadingsQualityScores[i];
+                readingChanged(i);
+            } else if (Double.compare(fingerprintReadingsQualityScores[i], readingQualityScores[i]) != 0) {
+                setReadingQualityScore(i, fingerprintReadingsQualityScores[i]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts all radio sources and readings, reusing internal arrays when possible.
+     *
+     * Readings are taken from current fingerprint or batch.
+     *
+     * @param venueModel                       prepared model of located radio sources.
+     * @param sourceQualityScores              quality scores of each radio source.
+     * @param fingerprintReadingsQualityScores quality scores of each reading.
+     */
+    private void sortAll(final VenueModel<P> venueModel, final double[] sourceQualityScores,
+                         final double[] fingerprintReadingsQualityScores) {
+        this.venueModel = venueModel;
+        numSources = sourceQualityScores.length;
+        numReadings = fingerprintReadingsQualityScores.length;
+        ensureCapacity();
+
+        System.arraycopy(sourceQualityScores, 0, this.sourceQualityScores, 0, numSources);
+        System.arraycopy(fingerprintReadingsQualityScores, 0, readingQualityScores, 0, numReadings);
+
+        // count readings of each radio source
+        final var numGroups = numSources + 1;
+        for (var g = 0; g <= numGroups; g++) {
+            groupStarts[g] = 0;
+        }
+        for (var i = 0; i < numReadings; i++) {
+            loadReading(i);
+            groupStarts[readingSources[i] + 1]++;
+        }
+        for (var g = 0; g < numGroups; g++) {
+            groupStarts[g + 1] += groupStarts[g];
+        }
+
+        // place readings within their groups using group starts as cursors, which
+        // are afterwards restored
+        for (var i = 0; i < numReadings; i++) {
+            groupedReadings[groupStarts[readingSources[i]]++] = i;
+        }
+        for (var g = numGroups; g > 0; g--) {
+            groupStarts[g] = groupStarts[g - 1];
+        }
+        groupStarts[0] = 0;
+
+        for (var g = 0; g < numSources; g++) {
+            heapSort(groupedReadings, groupStarts[g], groupStarts[g + 1], readingComparator);
+        }
+
+        for (var i = 0; i < numSources; i++) {
+            sortedSources[i] = i;
+        }
+        heapSort(sortedSources, 0, numSources, sourceComparator);
+    }
+
+    /**
+     * Ensures that internal arrays can contain current number of radio sources and
+     * readings.
+     */
+    private void ensureCapacity() {
+        if (sortedSources.length < numSources) {
+            sortedSources = new int[numSources];
+            sourceQualityScores = new double[numSources];
+        }
+        if (groupStarts.length < numSources + 2) {
+            groupStarts = new int[numSources + 2];
+        }
+        if (groupedReadings.length < numReadings) {
+            groupedReadings = new int[numReadings];
+            readingSources = new int[numReadings];
+            readingRanks = new int[numReadings];
+            readingQualityScores = new double[numReadings];
+            readings = new Object[numReadings];
+        }
+    }
+
+    /**
+     * Stores reading at provided index, along with its rank and group, from current
+     * fingerprint or batch.
+     *
+     * @param readingIndex index of reading.
+     */
+    private void loadReading(final int readingIndex) {
+        if (batch != null) {
+            readings[readingIndex] = null;
+            readingRanks[readingIndex] = rankOf(batch.getType(readingIndex));
+            readingSources[readingIndex] = groupOf(batch.getSourceIndex(readingIndex));
+        } else {
+            final var reading = fingerprint.getReadings().get(readingIndex);
+            readings[readingIndex] = reading;
+            readingRanks[readingIndex] = reading != null ? rankOf(reading.getType()) : UNKNOWN_RANK;
+            readingSources[readingIndex] = reading != null
+                    ? groupOf(venueModel.indexOf(reading.getSource())) : numSources;
+        }
+    }
+
+    /**
+     * Indicates whether reading at provided index has changed since it was stored.
+     * Readings of a fingerprint are compared by identity, whereas readings of a batch
+     * are compared by their radio source and type.
+     *
+     * @param readingIndex index of reading.
+     * @return true if reading has changed, false otherwise.
+     */
+    private boolean hasReadingChanged(final int readingIndex) {
+        if (batch != null) {
+            return readingRanks[readingIndex] != rankOf(batch.getType(readingIndex))
+                    || readingSources[readingIndex] != groupOf(batch.getSourceIndex(readingIndex));
+        }
+        return readings[readingIndex] != fingerprint.getReadings().get(readingIndex);
+    }
+
+    /**
+     * Gets group of a reading from the index of its radio source within the venue
+     * model, which is the number of radio sources if unknown.
+     *
+     * @param sourceIndex index of radio source within the venue model or -1.
+     * @return group of reading.
+     */
+    private int groupOf(final int sourceIndex) {
+        return sourceIndex >= 0 && sourceIndex < numSources ? sourceIndex : numSources;
+    }
+
+    /**
+     * Gets rank of provided reading type, so that ranging readings go first, then
+     * ranging and RSSI readings and finally RSSI readings.
+     *
+     * @param type a reading type.
+     * @return rank of reading.
+     */
+    private static int rankOf(final ReadingType type) {
+        if (type == null) {
+            return UNKNOWN_RANK;
+        }
+        return switch (type) {
+            case RANGING_READING -> 0;
+            case RANGING_AND_RSSI_READING -> 1;
+            default -> 2;
+        };
+    }
+
+    /**
+     * Finds position of a value within a range of an array.
+     *
+     * @param array array to look into.
+     * @param from  start position (inclusive).
+     * @param to    end position (exclusive).
+     * @param value value to look for.
+     * @return position of value.
+     */
+    private static int indexOf(final int[] array, final int from, final int to, final int value) {
+        for (var i = from; i < to; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * Moves element at provided position within an otherwise sorted range until the
+     * range is sorted again.
+     *
+     * @param array      array containing the range.
+     * @param from       start position of the range (inclusive).
+     * @param to         end position of the range (exclusive).
+     * @param position   position of element to be moved.
+     * @param comparator comparator defining order.
+     */
+    private static void reposition(final int[] array, final int from, final int to, final int position,
+                                   final IndexComparator comparator) {
+        final var value = array[position];
+        var i = position;
+        while (i > from && comparator.compare(array[i - 1], value) > 0) {
+            array[i] = array[i - 1];
+            i--;
+        }
+        while (i < to - 1 && comparator.compare(array[i + 1], value) < 0) {
+            array[i] = array[i + 1];
+            i++;
+        }
+        array[i] = value;
+    }
+
+    /**
+     * Sorts a range of an array of indices without allocating memory.
+     *
+     * @param array      array containing the range.
+     * @param from       start position of the range (inclusive).
+     * @param to         end position of the range (exclusive).
+     * @param comparator comparator defining order.
+     */
+    private static void heapSort(final int[] array, final int from, final int to, final IndexComparator comparator) {
+        final var n = to - from;
+        for (var i = n / 2 - 1; i >= 0; i--) {
+            siftDown(array, from, i, n, comparator);
+        }
+        for (var end = n - 1; end > 0; end--) {
+            final var tmp = array[from];
+            array[from] = array[from + end];
+            array[from + end] = tmp;
+            siftDown(array, from, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Restores heap property of a range of an array.
+     *
+     * @param array      array containing the heap.
+     * @param offset     start position of the heap within the array.
+     * @param root       position of element to be sifted down, relative to offset.
+     * @param size       size of the heap.
+     * @param comparator comparator defining order.
+     */
+    private static void siftDown(final int[] array, final int offset, final int root, final int size,
+                                 final IndexComparator comparator) {
+        var parent = root;
+        while (true) {
+            var child = 2 * parent + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && comparator.compare(array[offset + child], array[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (comparator.compare(array[offset + parent], array[offset + child]) >= 0) {
+                return;
+            }
+            final var tmp = array[offset + parent];
+            array[offset + parent] = array[offset + child];
+            array[offset + child] = tmp;
+            parent = child;
+        }
+    }
+
+    /**
+     * Compares elements by their indices.
+     */
+    private interface IndexComparator {
+
+        /**
+         * Compares two elements.
+         *
+         * @param i1 index of 1st element.
+         * @param i2 index of 2nd element.
+         * @return negative if first element goes first, zero if both are equal and
+         * positive if first element goes second.
+         */
+        int compare(final int i1, final int i2);
+    }
+}
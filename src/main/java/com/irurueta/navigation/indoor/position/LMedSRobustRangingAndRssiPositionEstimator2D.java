@@ -198,9 +198,34 @@ public class LMedSRobustRangingAndRssiPositionEstimator2D extends RobustRangingA
      * @throws LockedException          if this solver is locked.
      */
     public void setStopThreshold(final double stopThreshold) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((LMedSRobustLateration2DSolver) laterationSolver).setStopThreshold(stopThreshold);
     }
 
+    /**
+     * Gets stop threshold of internal robust lateration solver.
+     *
+     * @return stop threshold of internal robust lateration solver.
+     */
+    @Override
+    protected double getRobustThreshold() {
+        return getStopThreshold();
+    }
+
+    /**
+     * Sets stop threshold of internal robust lateration solver.
+     *
+     * @param threshold stop threshold to be set.
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     * @throws LockedException          if this estimator is locked.
+     */
+    @Override
+    protected void setRobustThreshold(final double threshold) throws LockedException {
+        setStopThreshold(threshold);
+    }
+
     /**
      * Returns method being used for robust estimation.
      *
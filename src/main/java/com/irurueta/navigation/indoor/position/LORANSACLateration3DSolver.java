@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLateration3DSolver;
+import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLateration3DSolver;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLateration3DSolver;
+
+/**
+ * Solves 3D lateration using locally optimized RANSAC (LO-RANSAC).
+ */
+public class LORANSACLateration3DSolver extends LORANSACLaterationSolver<Point3D> {
+
+    /**
+     * Constructor.
+     */
+    public LORANSACLateration3DSolver() {
+        super(new InhomogeneousLinearLeastSquaresLateration3DSolver(),
+                new HomogeneousLinearLeastSquaresLateration3DSolver(),
+                new NonLinearLeastSquaresLateration3DSolver());
+    }
+
+    /**
+     * Creates a position from its inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a position.
+     */
+    @Override
+    protected Point3D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint3D(coordinates[0], coordinates[1], coordinates[2]);
+    }
+}
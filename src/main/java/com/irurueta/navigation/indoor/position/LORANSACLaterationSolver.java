@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.indoor.radiosource.LORANSACRobustEstimator;
+import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.RobustLaterationSolver;
+import com.irurueta.numerical.robust.RANSACRobustEstimatorListener;
+import com.irurueta.numerical.robust.RobustEstimator;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+
+import java.util.List;
+
+/**
+ * Solves lateration using locally optimized RANSAC (LO-RANSAC).
+ * Each time a hypothesis better than the best one found so far is obtained from a
+ * minimal subset of positions and distances, it is estimated again using all of its
+ * inliers, which increases the inlier ratio used to adapt the number of iterations,
+ * so that fewer iterations are required for a given confidence.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class LORANSACLaterationSolver<P extends Point<?>> extends SampleConsensusLaterationSolver<P> {
+
+    /**
+     * Amount of confidence expressed as a value between 0.0 and 1.0 (which is
+     * equivalent to 100%).
+     */
+    private double confidence = RobustLaterationSolver.DEFAULT_CONFIDENCE;
+
+    /**
+     * Maximum allowed number of iterations.
+     */
+    private int maxIterations = RobustLaterationSolver.DEFAULT_MAX_ITERATIONS;
+
+    /**
+     * Maximum number of times that local optimization is repeated each time a better
+     * hypothesis is found.
+     */
+    private int localOptimizationIterations = LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS;
+
+    /**
+     * Number of iterations performed on last estimation.
+     */
+    private int numberOfIterations;
+
+    /**
+     * Constructor.
+     *
+     * @param linearSolver            inhomogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param homogeneousLinearSolver homogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param nonLinearSolver         non-linear solver used to refine hypotheses.
+     */
+    protected LORANSACLaterationSolver(
+            final InhomogeneousLinearLeastSquaresLaterationSolver<P> linearSolver,
+            final HomogeneousLinearLeastSquaresLaterationSolver<P> homogeneousLinearSolver,
+            final NonLinearLeastSquaresLaterationSolver<P> nonLinearSolver) {
+        super(linearSolver, homogeneousLinearSolver, nonLinearSolver);
+    }
+
+    /**
+     * Returns amount of confidence expressed as a value between 0.0 and 1.0.
+     *
+     * @return amount of confidence as a value between 0.0 and 1.0.
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Sets amount of confidence expressed as a value between 0.0 and 1.0.
+     *
+     * @param confidence confidence to be set as a value between 0.0 and 1.0.
+     * @throws IllegalArgumentException if provided value is not between 0.0 and 1.0.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setConfidence(final double confidence) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (confidence < 0.0 || confidence > 1.0) {
+            throw new IllegalArgumentException();
+        }
+        this.confidence = confidence;
+    }
+
+    /**
+     * Returns maximum allowed number of iterations.
+     *
+     * @return maximum allowed number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets maximum allowed number of iterations.
+     *
+     * @param maxIterations maximum allowed number of iterations.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setMaxIterations(final int maxIterations) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Gets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found.
+     *
+     * @return maximum number of local optimization iterations.
+     */
+    public int getLocalOptimizationIterations() {
+        return localOptimizationIterations;
+    }
+
+    /**
+     * Sets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found.
+     *
+     * @param localOptimizationIterations maximum number of local optimization
+     *                                    iterations.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setLocalOptimizationIterations(final int localOptimizationIterations) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (localOptimizationIterations < LORANSACRobustEstimator.MIN_LOCAL_OPTIMIZATION_ITERATIONS) {
+            throw new IllegalArgumentException();
+        }
+        this.localOptimizationIterations = localOptimizationIterations;
+    }
+
+    /**
+     * Gets number of iterations performed on last estimation.
+     *
+     * @return number of iterations performed on last estimation.
+     */
+    public int getNumberOfIterations() {
+        return numberOfIterations;
+    }
+
+    /**
+     * Finds coordinates of best hypothesis using LO-RANSAC.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null if not
+     *                                   available.
+     * @param coordinates                inhomogeneous coordinates of all known positions.
+     * @param threshold                  threshold to determine whether samples are
+     *                                   inliers or not.
+     * @param subsetSize                 number of samples used to generate each
+     *                                   hypothesis.
+     * @return coordinates of best hypothesis.
+     * @throws RobustEstimatorException if no hypothesis can be generated.
+     */
+    @Override
+    protected double[] findBestHypothesis(
+            final P[] positions, final double[] distances, final double[] distanceStandardDeviations,
+            final double[] coordinates, final double threshold, final int subsetSize)
+            throws RobustEstimatorException {
+        final var dims = getNumberOfDimensions();
+        final var innerEstimator = new LORANSACRobustEstimator<>(new RANSACRobustEstimatorListener<double[]>() {
+            @Override
+            public double getThreshold() {
+                return threshold;
+            }
+
+            @Override
+            public int getTotalSamples() {
+                return positions.length;
+            }
+
+            @Override
+            public int getSubsetSize() {
+                return subsetSize;
+            }
+
+            @Override
+            public void estimatePreliminarSolutions(final int[] samplesIndices, final List<double[]> solutions) {
+                final var solution = solveSubset(positions, distances, distanceStandardDeviations,
+                        samplesIndices, samplesIndices.length);
+                if (solution != null) {
+                    solutions.add(solution);
+                }
+            }
+
+            @Override
+            public double computeResidual(final double[] currentEstimation, final int i) {
+                return residual(currentEstimation, 0, coordinates, i, distances[i], dims);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void onEstimateStart(final RobustEstimator<double[]> estimator) {
+                // no action needed
+            }
+
+            @Override
+            public void onEstimateEnd(final RobustEstimator<double[]> estimator) {
+                // no action needed
+            }
+
+            @Override
+            public void onEstimateNextIteration(final RobustEstimator<double[]> estimator, final int iteration) {
+                // no action needed
+            }
+
+            @Override
+            public void onEstimateProgressChange(final RobustEstimator<double[]> estimator, final float progress) {
+                // no action needed
+            }
+        });
+
+        try {
+            innerEstimator.setConfidence(confidence);
+            innerEstimator.setMaxIterations(maxIterations);
+            innerEstimator.setLocalOptimizationIterations(localOptimizationIterations);
+            innerEstimator.setComputeAndKeepInliersEnabled(false);
+            innerEstimator.setComputeAndKeepResidualsEnabled(false);
+            return innerEstimator.estimate();
+        } catch (final com.irurueta.numerical.LockedException | com.irurueta.numerical.NotReadyException e) {
+            throw new RobustEstimatorException(e);
+        } finally {
+            numberOfIterations = innerEstimator.getNIters();
+        }
+    }
+}
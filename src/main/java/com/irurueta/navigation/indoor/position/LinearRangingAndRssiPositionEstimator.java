@@ -22,6 +22,8 @@ import com.irurueta.navigation.indoor.Fingerprint;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.RangingAndRssiReading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.ReadingType;
 import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLaterationSolver;
 import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLaterationSolver;
 import com.irurueta.navigation.lateration.LaterationException;
@@ -221,6 +223,19 @@ public abstract class LinearRangingAndRssiPositionEstimator<P extends Point<P>>
         buildPositionsAndDistances();
     }
 
+    /**
+     * Internally sets batch of readings at an unknown location for provided located
+     * radio sources.
+     *
+     * @param batch batch of readings at an unknown location.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    @Override
+    protected void internalSetReadingBatch(final ReadingBatch batch) {
+        super.internalSetReadingBatch(batch);
+        buildPositionsAndDistances();
+    }
+
     /**
      * Sets positions and distances on internal lateration solver.
      *
@@ -262,14 +277,19 @@ public abstract class LinearRangingAndRssiPositionEstimator<P extends Point<P>>
         }
 
         final int min = getMinRequiredSources();
-        if (sources == null || fingerprint == null || sources.size() < min || fingerprint.getReadings() == null
-                || fingerprint.getReadings().size() < min) {
+        if (sources == null || sources.size() < min || getNumberOfReadings() < min) {
             return;
         }
 
         final var positions = new ArrayList<P>();
         final var distances = new ArrayList<Double>();
-        PositionEstimatorHelper.buildPositionsAndDistances(sources, fingerprint, positions, distances);
+        if (readingBatch != null) {
+            PositionEstimatorHelper.buildPositionsAndDistancesFromBatch(getVenueModel(), readingBatch,
+                    ReadingType.RANGING_AND_RSSI_READING, positions, distances);
+        } else {
+            PositionEstimatorHelper.buildPositionsAndDistancesFromModel(getVenueModel(), fingerprint, positions,
+                    distances);
+        }
 
         setPositionsAndDistances(positions, distances);
     }
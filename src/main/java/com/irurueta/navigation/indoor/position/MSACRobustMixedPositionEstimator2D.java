@@ -169,9 +169,36 @@ public class MSACRobustMixedPositionEstimator2D extends RobustMixedPositionEstim
      * @throws LockedException          if this solver is locked.
      */
     public void setThreshold(final double threshold) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((MSACRobustLateration2DSolver) laterationSolver).setThreshold(threshold);
     }
 
+    /**
+     * Gets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @return threshold of internal robust lateration solver.
+     */
+    @Override
+    protected double getRobustThreshold() {
+        return getThreshold();
+    }
+
+    /**
+     * Sets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @param threshold threshold to be set.
+     * @throws IllegalArgumentException if provided value is equal or less than zero.
+     * @throws LockedException          if this estimator is locked.
+     */
+    @Override
+    protected void setRobustThreshold(final double threshold) throws LockedException {
+        setThreshold(threshold);
+    }
+
     /**
      * Returns method being used for robust estimation.
      *
@@ -23,6 +23,8 @@ import com.irurueta.navigation.indoor.Fingerprint;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.RangingAndRssiReading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.ReadingType;
 import com.irurueta.navigation.lateration.LaterationException;
 import com.irurueta.navigation.lateration.LaterationSolver;
 import com.irurueta.navigation.lateration.LaterationSolverListener;
@@ -318,6 +320,19 @@ public abstract class NonLinearRangingAndRssiPositionEstimator<P extends Point<?
         buildPositionsDistancesAndDistanceStandardDeviations();
     }
 
+    /**
+     * Internally sets batch of readings at an unknown location for provided located
+     * radio sources.
+     *
+     * @param batch batch of readings at an unknown location.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    @Override
+    protected void internalSetReadingBatch(final ReadingBatch batch) {
+        super.internalSetReadingBatch(batch);
+        buildPositionsDistancesAndDistanceStandardDeviations();
+    }
+
     /**
      * Sets positions, distances and standard deviations of distances on internal
      * lateration solver.
@@ -362,17 +377,24 @@ public abstract class NonLinearRangingAndRssiPositionEstimator<P extends Point<?
         }
 
         final int min = getMinRequiredSources();
-        if (sources == null || fingerprint == null || sources.size() < min || fingerprint.getReadings() == null
-                || fingerprint.getReadings().size() < min) {
+        if (sources == null || sources.size() < min || getNumberOfReadings() < min) {
             return;
         }
 
         final var positions = new ArrayList<P>();
         final var distances = new ArrayList<Double>();
         final var distanceStandardDeviations = new ArrayList<Double>();
-        PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviations(
-                sources, fingerprint, useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation, positions,
-                distances, distanceStandardDeviations);
+        if (readingBatch != null) {
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(
+                    getVenueModel(), readingBatch, ReadingType.RANGING_AND_RSSI_READING,
+                    useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation, positions, distances,
+                    distanceStandardDeviations);
+        } else {
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(
+                    getVenueModel(), fingerprint,
+                    useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation, positions, distances,
+                    distanceStandardDeviations);
+        }
 
         setPositionsDistancesAndDistanceStandardDeviations(positions, distances, distanceStandardDeviations);
     }
@@ -444,9 +444,36 @@ public class PROSACRobustMixedPositionEstimator2D extends RobustMixedPositionEst
      * @throws LockedException          if this solver is locked.
      */
     public void setThreshold(final double threshold) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((PROSACRobustLateration2DSolver) laterationSolver).setThreshold(threshold);
     }
 
+    /**
+     * Gets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @return threshold of internal robust lateration solver.
+     */
+    @Override
+    protected double getRobustThreshold() {
+        return getThreshold();
+    }
+
+    /**
+     * Sets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @param threshold threshold to be set.
+     * @throws IllegalArgumentException if provided value is equal or less than zero.
+     * @throws LockedException          if this estimator is locked.
+     */
+    @Override
+    protected void setRobustThreshold(final double threshold) throws LockedException {
+        setThreshold(threshold);
+    }
+
     /**
      * Indicates whether inliers must be computed and kept.
      *
@@ -465,6 +492,9 @@ public class PROSACRobustMixedPositionEstimator2D extends RobustMixedPositionEst
      * @throws LockedException if this solver is locked.
      */
     public void setComputeAndKeepInliersEnabled(final boolean computeAndKeepInliers) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((PROSACRobustLateration2DSolver) laterationSolver).setComputeAndKeepInliersEnabled(computeAndKeepInliers);
     }
 
@@ -486,6 +516,9 @@ public class PROSACRobustMixedPositionEstimator2D extends RobustMixedPositionEst
      * @throws LockedException if this solver is locked.
      */
     public void setComputeAndKeepResidualsEnabled(final boolean computeAndKeepResiduals) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((PROSACRobustLateration2DSolver) laterationSolver).setComputeAndKeepResidualsEnabled(computeAndKeepResiduals);
     }
 
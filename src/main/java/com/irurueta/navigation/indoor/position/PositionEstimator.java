@@ -22,6 +22,8 @@ import com.irurueta.navigation.indoor.Fingerprint;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.VenueModel;
 
 import java.util.List;
 
@@ -45,11 +47,30 @@ public abstract class PositionEstimator<P extends Point<?>,
      */
     protected List<? extends RadioSourceLocated<P>> sources;
 
+    /**
+     * Prepared model of located radio sources used for lateration.
+     * Model is built lazily from located radio sources when not provided.
+     */
+    protected VenueModel<P> venueModel;
+
+    /**
+     * Indicates whether located radio sources are being set from a provided venue
+     * model, so that such model is kept.
+     */
+    private boolean settingVenueModel;
+
     /**
      * Fingerprint containing readings at an unknown location for provided located radio sources.
      */
     protected Fingerprint<? extends RadioSource, ? extends R> fingerprint;
 
+    /**
+     * Batch of readings at an unknown location for provided located radio sources,
+     * identified by their index within the venue model. When set, it is used instead
+     * of the fingerprint.
+     */
+    protected ReadingBatch readingBatch;
+
     /**
      * Listener to be notified of events raised by this instance.
      */
@@ -101,6 +122,42 @@ public abstract class PositionEstimator<P extends Point<?>,
         internalSetSources(sources);
     }
 
+    /**
+     * Gets prepared model of located radio sources used for lateration.
+     * If no model has been provided, it is built from current located radio sources.
+     * Model is built again each time located radio sources are set, hence if provided
+     * list of located radio sources is modified, it must be set again.
+     * A venue model can be shared among estimators using the same located radio sources
+     * so that radio sources of readings are found in constant time without indexing
+     * radio sources on each estimator.
+     *
+     * @return prepared model of located radio sources or null if no sources are available.
+     */
+    public VenueModel<P> getVenueModel() {
+        if (venueModel == null && sources != null) {
+            venueModel = new VenueModel<>(sources);
+        }
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources used for lateration.
+     * Located radio sources are replaced by the ones contained in provided model.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetVenueModel(venueModel);
+    }
+
     /**
      * Gets fingerprint containing readings at an unknown location for provided located
      * radio sources.
@@ -131,6 +188,35 @@ public abstract class PositionEstimator<P extends Point<?>,
         internalSetFingerprint(fingerprint);
     }
 
+    /**
+     * Gets batch of readings at an unknown location for provided located radio
+     * sources.
+     *
+     * @return batch of readings or null if a fingerprint is used instead.
+     */
+    public ReadingBatch getReadingBatch() {
+        return readingBatch;
+    }
+
+    /**
+     * Sets batch of readings at an unknown location for provided located radio
+     * sources, identified by their index within the venue model.
+     * Readings are taken from provided batch instead of any previously set
+     * fingerprint. Provided batch is not copied, so it must be set again after being
+     * modified.
+     *
+     * @param readingBatch batch of readings at an unknown location.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setReadingBatch(final ReadingBatch readingBatch) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetReadingBatch(readingBatch);
+    }
+
     /**
      * Gets listener to be notified of events raised by this instance.
      *
@@ -250,6 +336,38 @@ public abstract class PositionEstimator<P extends Point<?>,
         }
 
         this.sources = sources;
+        if (!settingVenueModel) {
+            // model is built again even if the same list is provided, since its
+            // located radio sources might have been modified
+            venueModel = null;
+        }
+    }
+
+    /**
+     * Internally sets prepared model of located radio sources used for lateration.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    protected void internalSetVenueModel(final VenueModel<P> venueModel) {
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (venueModel.getNumberOfSources() < getMinRequiredSources()) {
+            throw new IllegalArgumentException();
+        }
+
+        // model is kept when setting its own sources
+        this.venueModel = venueModel;
+        settingVenueModel = true;
+        try {
+            internalSetSources(venueModel.getSources());
+        } finally {
+            settingVenueModel = false;
+        }
     }
 
     /**
@@ -266,5 +384,35 @@ public abstract class PositionEstimator<P extends Point<?>,
         }
 
         this.fingerprint = fingerprint;
+        readingBatch = null;
+    }
+
+    /**
+     * Gets number of readings at an unknown location contained either in the reading
+     * batch or in the fingerprint.
+     *
+     * @return number of readings or 0 if none has been provided.
+     */
+    protected int getNumberOfReadings() {
+        if (readingBatch != null) {
+            return readingBatch.size();
+        }
+        return fingerprint != null && fingerprint.getReadings() != null ? fingerprint.getReadings().size() : 0;
+    }
+
+    /**
+     * Internally sets batch of readings at an unknown location for provided located
+     * radio sources.
+     *
+     * @param batch batch of readings at an unknown location.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    protected void internalSetReadingBatch(final ReadingBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException();
+        }
+
+        readingBatch = batch;
+        fingerprint = null;
     }
 }
@@ -110,6 +110,80 @@ public class PositionEstimatorHelper {
         }
     }
 
+    /**
+     * Builds positions and distances from provided prepared model of located radio
+     * sources and fingerprint readings.
+     * Radio sources of readings are looked up in provided model in constant time, hence
+     * the same model should be reused for all the fingerprints being processed against
+     * the same located radio sources.
+     * Notice that positions and distances lists might not have the same size
+     * as provided sources list or fingerprint readings list if not all radio sources
+     * between sources and fingerprint readings match.
+     * If no model, fingerprint readings, positions and distances are provided, this
+     * method makes no action.
+     *
+     * @param model       prepared model of located radio sources to obtain positions and
+     *                    other parameters.
+     * @param fingerprint fingerprint containing ranged RSSI readings.
+     * @param positions   list where extracted positions will be stored.
+     * @param distances   list where extracted distances will be stored.
+     * @param <P>         a {@link Point} type.
+     */
+    public static <P extends Point<?>> void buildPositionsAndDistancesFromModel(
+            final VenueModel<P> model,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final List<P> positions, final List<Double> distances) {
+
+        if (model == null || fingerprint == null || fingerprint.getReadings() == null || positions == null
+                || distances == null) {
+            return;
+        }
+
+        positions.clear();
+        distances.clear();
+
+        final var readings = fingerprint.getReadings();
+        for (final var reading : readings) {
+            final var index = model.indexOf(reading.getSource());
+            if (index >= 0) {
+                final var locatedSource = model.getSource(index);
+                final var position = model.getPosition(index);
+
+                // compute distance
+                Double distance1 = null;
+                Double distance2 = null;
+                switch (reading.getType()) {
+                    case RANGING_READING:
+                        distance1 = computeDistanceRanging((RangingReading<? extends RadioSource>) reading);
+                        break;
+                    case RSSI_READING:
+                        distance1 = computeDistanceRssi(locatedSource, (RssiReading<? extends RadioSource>) reading);
+                        break;
+                    case RANGING_AND_RSSI_READING:
+                        // in this case two positions and distance might be added to
+                        // the lateration solver
+                        distance1 = computeDistanceRanging((RangingAndRssiReading<? extends RadioSource>) reading);
+                        distance2 = computeDistanceRssi(locatedSource,
+                                (RangingAndRssiReading<? extends RadioSource>) reading);
+                        break;
+                    default:
+                        break;
+                }
+
+                if (position != null) {
+                    if (distance1 != null) {
+                        positions.add(position);
+                        distances.add(distance1);
+                    }
+                    if (distance2 != null) {
+                        positions.add(position);
+                        distances.add(distance2);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Builds positions, distances and standard deviations from provided located radio
      * sources and fingerprint readings.
@@ -147,6 +221,45 @@ public class PositionEstimatorHelper {
                 positions, distances, distanceStandardDeviations, null);
     }
 
+    /**
+     * Builds positions, distances and standard deviations from provided prepared model
+     * of located radio sources and fingerprint readings.
+     * Radio sources of readings are looked up in provided model in constant time.
+     * Notice that positions, distances and standard deviations lists might not have
+     * the same size as provided sources list or fingerprint readings list if not all
+     * radio sources between sources and fingerprint readings match.
+     * If no model, fingerprint readings, positions, distances and standard deviations
+     * are provided, this method makes no action.
+     *
+     * @param model                             prepared model of located radio sources
+     *                                          to obtain positions and other parameters.
+     * @param fingerprint                       fingerprint containing ranged or RSSI
+     *                                          readings.
+     * @param useRadioSourcePositionCovariance  true to take into account radio source
+     *                                          position covariance, false otherwise.
+     * @param fallbackDistanceStandardDeviation distance standard deviation to be
+     *                                          assumed when it cannot be determined.
+     * @param positions                         list where extracted positions will be
+     *                                          stored.
+     * @param distances                         list where extracted distances will be
+     *                                          stored.
+     * @param distanceStandardDeviations        list where extracted standard deviations
+     *                                          of distances will be stored.
+     * @param <P>                               a {@link Point} type.
+     * @throws IllegalArgumentException if provided distance standard deviation fallback
+     *                                  is negative.
+     */
+    public static <P extends Point<?>> void buildPositionsDistancesAndDistanceStandardDeviationsFromModel(
+            final VenueModel<P> model,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final boolean useRadioSourcePositionCovariance, final double fallbackDistanceStandardDeviation,
+            final List<P> positions, final List<Double> distances, final List<Double> distanceStandardDeviations) {
+        buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromModel(model, fingerprint,
+                null,
+                null, useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation,
+                positions, distances, distanceStandardDeviations, null);
+    }
+
     /**
      * Builds positions, distances and standard deviations from provided located radio
      * sources and fingerprint readings.
@@ -325,6 +438,386 @@ public class PositionEstimatorHelper {
         }
     }
 
+    /**
+     * Builds positions, distances and standard deviations from provided prepared model
+     * of located radio sources and fingerprint readings.
+     * Radio sources of readings are looked up in provided model in constant time.
+     * Notice that positions, distance and standard deviations lists might not have the
+     * same size as provided sources list or fingerprint readings list if not all radio
+     * sources between sources and fingerprint readings match.
+     * If no model, fingerprint readings, positions, distances and standard deviations
+     * are provided, this method makes no action.
+     *
+     * @param model                             prepared model of located radio sources
+     *                                          to obtain positions and other parameters.
+     * @param fingerprint                       fingerprint containing ranged or RSSI
+     *                                          readings.
+     * @param sourceQualityScores               quality scores corresponding to each
+     *                                          located radio source within provided
+     *                                          model. The larger the score value the
+     *                                          better the quality of the sample. If null,
+     *                                          no quality scores will be stored.
+     * @param fingerprintReadingsQualityScores  quality scores corresponding to each
+     *                                          reading within provided fingerprint.
+     * @param useRadioSourcePositionCovariance  true to take into account radio source
+     *                                          position covariance, false otherwise.
+     * @param fallbackDistanceStandardDeviation distance standard deviation to be
+     *                                          assumed when it cannot be determined.
+     * @param positions                         list where extracted positions will be stored.
+     * @param distances                         list where extracted distances will be stored.
+     * @param distanceStandardDeviations        list where extracted standard deviations of
+     *                                          distances will be stored.
+     * @param distanceQualityScores             list where extracted quality scores will
+     *                                          be stored. If null, quality scores will
+     *                                          be ignored.
+     * @param <P>                               a {@link Point} type.
+     * @throws IllegalArgumentException if provided distance standard deviation
+     *                                  fallback is negative.
+     */
+    @SuppressWarnings("DuplicatedCode")
+    public static <P extends Point<?>> void buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromModel(
+            final VenueModel<P> model,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final double[] sourceQualityScores, final double[] fingerprintReadingsQualityScores,
+            final boolean useRadioSourcePositionCovariance, final double fallbackDistanceStandardDeviation,
+            final List<P> positions, final List<Double> distances, final List<Double> distanceStandardDeviations,
+            final List<Double> distanceQualityScores) {
+
+        if (fallbackDistanceStandardDeviation < 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (model == null || fingerprint == null || fingerprint.getReadings() == null || positions == null
+                || distances == null || distanceStandardDeviations == null) {
+            return;
+        }
+
+        positions.clear();
+        distances.clear();
+        distanceStandardDeviations.clear();
+
+        if ((sourceQualityScores != null || fingerprintReadingsQualityScores != null)
+                && distanceQualityScores != null) {
+            distanceQualityScores.clear();
+        }
+
+        final var result1 = new Double[2];
+        final var result2 = new Double[2];
+
+        final var readings = fingerprint.getReadings();
+        var readingIndex = 0;
+        for (final var reading : readings) {
+            final var sourceIndex = model.indexOf(reading.getSource());
+            final var readingQualityScore = fingerprintReadingsQualityScores != null
+                    ? fingerprintReadingsQualityScores[readingIndex] : null;
+            Double sourceQualityScore = null;
+            Double qualityScore = null;
+            if (sourceIndex >= 0) {
+                final var locatedSource = model.getSource(sourceIndex);
+                final var position = model.getPosition(sourceIndex);
+                if (sourceQualityScores != null) {
+                    sourceQualityScore = sourceQualityScores[sourceIndex];
+                }
+                readingIndex++;
+
+                if (readingQualityScore != null || sourceQualityScore != null) {
+                    qualityScore = 0.0;
+                    if (readingQualityScore != null) {
+                        qualityScore += readingQualityScore;
+                    }
+                    if (sourceQualityScore != null) {
+                        qualityScore += sourceQualityScore;
+                    }
+                }
+
+                // position uncertainty is cached within model, so that position
+                // covariances are not decomposed on each estimation
+                Double positionStandardDeviation = null;
+                if (useRadioSourcePositionCovariance) {
+                    positionStandardDeviation = model.getPositionStandardDeviation(sourceIndex);
+                }
+
+                // compute distance and standard deviation
+                result1[0] = result1[1] = result2[0] = result2[1] = null;
+                switch (reading.getType()) {
+                    case RANGING_READING:
+                        computeDistanceAndStandardDeviationRanging(
+                                (RangingReading<? extends RadioSource>) reading, positionStandardDeviation, result1);
+                        break;
+                    case RSSI_READING:
+                        computeDistanceAndStandardDeviationRssi(locatedSource,
+                                (RssiReading<? extends RadioSource>) reading, positionStandardDeviation, result1);
+                        break;
+                    case RANGING_AND_RSSI_READING:
+                        computeDistanceAndStandardDeviationRanging(
+                                (RangingAndRssiReading<? extends RadioSource>) reading, positionStandardDeviation,
+                                result1);
+                        computeDistanceAndStandardDeviationRssi(locatedSource,
+                                (RangingAndRssiReading<? extends RadioSource>) reading, positionStandardDeviation,
+                                result2);
+                        break;
+                    default:
+                        break;
+                }
+
+                if (position != null) {
+                    final var distance1 = result1[0];
+                    final var distance2 = result2[0];
+                    if (distance1 != null) {
+                        final var standardDeviation1 = result1[1];
+
+                        positions.add(position);
+                        distances.add(distance1);
+                        distanceStandardDeviations.add(standardDeviation1 != null ? standardDeviation1
+                                : fallbackDistanceStandardDeviation);
+
+                        if (qualityScore != null && distanceQualityScores != null) {
+                            distanceQualityScores.add(qualityScore);
+                        }
+                    }
+
+                    if (distance2 != null) {
+                        final var standardDeviation2 = result2[1];
+
+                        positions.add(position);
+                        distances.add(distance2);
+                        distanceStandardDeviations.add(standardDeviation2 != null ? standardDeviation2
+                                : fallbackDistanceStandardDeviation);
+
+                        if (qualityScore != null && distanceQualityScores != null) {
+                            distanceQualityScores.add(qualityScore);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds positions and distances from provided prepared model of located radio
+     * sources and a batch of readings.
+     * Radio sources of readings are identified by their index within provided model,
+     * and readings of unknown radio sources are ignored.
+     * Only distances of the kind indicated by provided reading type are used, hence
+     * readings containing both distance and RSSI add two positions and distances only
+     * when both kinds are used.
+     * If no model, batch, positions and distances are provided, this method makes no
+     * action.
+     *
+     * @param model       prepared model of located radio sources to obtain positions
+     *                    and other parameters.
+     * @param batch       batch of readings.
+     * @param readingType kind of distances to be used. {@link ReadingType#RANGING_READING}
+     *                    only uses ranging distances, {@link ReadingType#RSSI_READING}
+     *                    only uses distances estimated from RSSI and
+     *                    {@link ReadingType#RANGING_AND_RSSI_READING} uses both.
+     * @param positions   list where extracted positions will be stored.
+     * @param distances   list where extracted distances will be stored.
+     * @param <P>         a {@link Point} type.
+     */
+    public static <P extends Point<?>> void buildPositionsAndDistancesFromBatch(
+            final VenueModel<P> model, final ReadingBatch batch, final ReadingType readingType,
+            final List<P> positions, final List<Double> distances) {
+
+        if (model == null || batch == null || readingType == null || positions == null || distances == null) {
+            return;
+        }
+
+        positions.clear();
+        distances.clear();
+
+        final var useRanging = readingType != ReadingType.RSSI_READING;
+        final var useRssi = readingType != ReadingType.RANGING_READING;
+        final var numSources = model.getNumberOfSources();
+        final var size = batch.size();
+        for (var i = 0; i < size; i++) {
+            final var index = batch.getSourceIndex(i);
+            if (index >= numSources) {
+                continue;
+            }
+
+            final var position = model.getPosition(index);
+            if (position == null) {
+                continue;
+            }
+
+            if (useRanging && batch.hasDistance(i)) {
+                positions.add(position);
+                distances.add(batch.getDistance(i));
+            }
+            if (useRssi && batch.hasRssi(i)) {
+                final var distance = computeDistanceRssi(model.getSource(index), batch.getRssi(i));
+                if (distance != null) {
+                    positions.add(position);
+                    distances.add(distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds positions, distances and standard deviations from provided prepared model
+     * of located radio sources and a batch of readings.
+     * Radio sources of readings are identified by their index within provided model,
+     * and readings of unknown radio sources are ignored.
+     * Only distances of the kind indicated by provided reading type are used.
+     * If no model, batch, positions, distances and standard deviations are provided,
+     * this method makes no action.
+     *
+     * @param model                             prepared model of located radio sources
+     *                                          to obtain positions and other parameters.
+     * @param batch                             batch of readings.
+     * @param readingType                       kind of distances to be used (ranging,
+     *                                          RSSI or both).
+     * @param useRadioSourcePositionCovariance  true to take into account radio source
+     *                                          position covariance, false otherwise.
+     * @param fallbackDistanceStandardDeviation distance standard deviation to be
+     *                                          assumed when it cannot be determined.
+     * @param positions                         list where extracted positions will be
+     *                                          stored.
+     * @param distances                         list where extracted distances will be
+     *                                          stored.
+     * @param distanceStandardDeviations        list where extracted standard deviations
+     *                                          of distances will be stored.
+     * @param <P>                               a {@link Point} type.
+     * @throws IllegalArgumentException if provided distance standard deviation fallback
+     *                                  is negative.
+     */
+    public static <P extends Point<?>> void buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(
+            final VenueModel<P> model, final ReadingBatch batch, final ReadingType readingType,
+            final boolean useRadioSourcePositionCovariance, final double fallbackDistanceStandardDeviation,
+            final List<P> positions, final List<Double> distances, final List<Double> distanceStandardDeviations) {
+        buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromBatch(model, batch, readingType,
+                null, null, useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation,
+                positions, distances, distanceStandardDeviations, null);
+    }
+
+    /**
+     * Builds positions, distances, standard deviations and quality scores from provided
+     * prepared model of located radio sources and a batch of readings.
+     * Radio sources of readings are identified by their index within provided model,
+     * and readings of unknown radio sources are ignored.
+     * Only distances of the kind indicated by provided reading type are used.
+     * If no model, batch, positions, distances and standard deviations are provided,
+     * this method makes no action.
+     *
+     * @param model                             prepared model of located radio sources
+     *                                          to obtain positions and other parameters.
+     * @param batch                             batch of readings.
+     * @param readingType                       kind of distances to be used (ranging,
+     *                                          RSSI or both).
+     * @param sourceQualityScores               quality scores corresponding to each
+     *                                          located radio source within provided
+     *                                          model. If null, no quality scores will be
+     *                                          stored.
+     * @param readingsQualityScores             quality scores corresponding to each
+     *                                          reading within provided batch.
+     * @param useRadioSourcePositionCovariance  true to take into account radio source
+     *                                          position covariance, false otherwise.
+     * @param fallbackDistanceStandardDeviation distance standard deviation to be
+     *                                          assumed when it cannot be determined.
+     * @param positions                         list where extracted positions will be stored.
+     * @param distances                         list where extracted distances will be stored.
+     * @param distanceStandardDeviations        list where extracted standard deviations of
+     *                                          distances will be stored.
+     * @param distanceQualityScores             list where extracted quality scores will
+     *                                          be stored. If null, quality scores will
+     *                                          be ignored.
+     * @param <P>                               a {@link Point} type.
+     * @throws IllegalArgumentException if provided distance standard deviation
+     *                                  fallback is negative.
+     */
+    @SuppressWarnings("DuplicatedCode")
+    public static <P extends Point<?>> void buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromBatch(
+            final VenueModel<P> model, final ReadingBatch batch, final ReadingType readingType,
+            final double[] sourceQualityScores, final double[] readingsQualityScores,
+            final boolean useRadioSourcePositionCovariance, final double fallbackDistanceStandardDeviation,
+            final List<P> positions, final List<Double> distances, final List<Double> distanceStandardDeviations,
+            final List<Double> distanceQualityScores) {
+
+        if (fallbackDistanceStandardDeviation < 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        if (model == null || batch == null || readingType == null || positions == null || distances == null
+                || distanceStandardDeviations == null) {
+            return;
+        }
+
+        positions.clear();
+        distances.clear();
+        distanceStandardDeviations.clear();
+
+        final var useQualityScores = (sourceQualityScores != null || readingsQualityScores != null)
+                && distanceQualityScores != null;
+        if (useQualityScores) {
+            distanceQualityScores.clear();
+        }
+
+        final var result = new Double[2];
+
+        final var useRanging = readingType != ReadingType.RSSI_READING;
+        final var useRssi = readingType != ReadingType.RANGING_READING;
+        final var numSources = model.getNumberOfSources();
+        final var size = batch.size();
+        for (var i = 0; i < size; i++) {
+            final var sourceIndex = batch.getSourceIndex(i);
+            if (sourceIndex >= numSources) {
+                continue;
+            }
+
+            final var position = model.getPosition(sourceIndex);
+            if (position == null) {
+                continue;
+            }
+
+            var qualityScore = 0.0;
+            if (readingsQualityScores != null) {
+                qualityScore += readingsQualityScores[i];
+            }
+            if (sourceQualityScores != null) {
+                qualityScore += sourceQualityScores[sourceIndex];
+            }
+
+            // position uncertainty is cached within model, so that position
+            // covariances are not decomposed on each estimation
+            Double positionStandardDeviation = null;
+            if (useRadioSourcePositionCovariance) {
+                positionStandardDeviation = model.getPositionStandardDeviation(sourceIndex);
+            }
+
+            if (useRanging && batch.hasDistance(i)) {
+                final var std = batch.getDistanceStandardDeviation(i);
+                computeDistanceAndStandardDeviationRanging(batch.getDistance(i), Double.isNaN(std) ? null : std,
+                        positionStandardDeviation, result);
+
+                positions.add(position);
+                distances.add(result[0]);
+                distanceStandardDeviations.add(result[1] != null ? result[1] : fallbackDistanceStandardDeviation);
+                if (useQualityScores) {
+                    distanceQualityScores.add(qualityScore);
+                }
+            }
+
+            if (useRssi && batch.hasRssi(i)) {
+                final var std = batch.getRssiStandardDeviation(i);
+                result[0] = result[1] = null;
+                computeDistanceAndStandardDeviationRssi(model.getSource(sourceIndex), batch.getRssi(i),
+                        Double.isNaN(std) ? null : std, positionStandardDeviation, result);
+
+                if (result[0] != null) {
+                    positions.add(position);
+                    distances.add(result[0]);
+                    distanceStandardDeviations.add(result[1] != null ? result[1]
+                            : fallbackDistanceStandardDeviation);
+                    if (useQualityScores) {
+                        distanceQualityScores.add(qualityScore);
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Obtains distance for a ranging reading.
      *
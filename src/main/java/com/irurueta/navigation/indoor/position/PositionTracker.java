@@ -0,0 +1,928 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.Utils;
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.lateration.LaterationException;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLaterationSolver;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks position of a single device along time from a stream of fingerprints.
+ * Unlike position estimators, which solve each fingerprint independently, this tracker
+ * keeps a filtered position and its covariance, which are predicted on each new
+ * fingerprint assuming a random walk whose variance grows with elapsed time, and then
+ * corrected with the position obtained by lateration using a Kalman filter.
+ * Because lateration outputs are positions, the measurement model is linear and the
+ * Kalman filter does not require any linearization.
+ * Predicted position is used to gate readings: readings whose distances are not
+ * explained by the predicted position within a given number of standard deviations are
+ * discarded as outliers, and if enough readings are explained, position is solved by a
+ * non-linear lateration solver started at the predicted position, skipping the much more
+ * expensive robust estimation. Robust estimation is only used to initialize tracking,
+ * or when predicted position does not explain enough readings (e.g. when the device
+ * moves much faster than expected).
+ * A tracker must only be used for a single device, as it keeps the state of such
+ * device.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class PositionTracker<P extends Point<?>> {
+
+    /**
+     * Default variance of position increments per unit of time, expressed in squared
+     * meters per second (m^2/s). This is suitable for walking persons.
+     */
+    public static final double DEFAULT_PROCESS_NOISE_VARIANCE = 1.0;
+
+    /**
+     * Default number of standard deviations that a reading distance can differ from
+     * the distance to predicted position to be considered as explained by such
+     * prediction.
+     */
+    public static final double DEFAULT_GATE_THRESHOLD = 3.0;
+
+    /**
+     * Default minimum ratio of readings that must be explained by predicted position to
+     * skip robust estimation.
+     */
+    public static final double DEFAULT_MIN_EXPLAINED_READINGS_RATIO = 0.8;
+
+    /**
+     * Default variance of lateration positions, expressed in squared meters (m^2), to
+     * be used when lateration does not provide any covariance.
+     */
+    public static final double DEFAULT_MEASUREMENT_VARIANCE = 1.0;
+
+    /**
+     * Indicates that by default located radio source position covariance is taken into
+     * account (if available) to determine distance standard deviation.
+     */
+    public static final boolean DEFAULT_USE_RADIO_SOURCE_POSITION_COVARIANCE = true;
+
+    /**
+     * Default distance standard deviation assumed for provided distances as a fallback
+     * when none can be determined.
+     */
+    public static final double FALLBACK_DISTANCE_STANDARD_DEVIATION =
+            NonLinearMixedPositionEstimator.FALLBACK_DISTANCE_STANDARD_DEVIATION;
+
+    /**
+     * Number of nanoseconds per second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Non-linear lateration solver used when predicted position explains readings.
+     */
+    protected NonLinearLeastSquaresLaterationSolver<P> laterationSolver;
+
+    /**
+     * Robust estimator used to initialize tracking or when predicted position does not
+     * explain readings.
+     */
+    protected SequentialRobustMixedPositionEstimator<P> robustEstimator;
+
+    /**
+     * Prepared model of located radio sources of the venue where device is tracked.
+     */
+    private VenueModel<P> venueModel;
+
+    /**
+     * Variance of position increments per unit of time, expressed in squared meters per
+     * second (m^2/s).
+     */
+    private double processNoiseVariance = DEFAULT_PROCESS_NOISE_VARIANCE;
+
+    /**
+     * Number of standard deviations that a reading distance can differ from the distance
+     * to predicted position to be considered as explained by such prediction.
+     */
+    private double gateThreshold = DEFAULT_GATE_THRESHOLD;
+
+    /**
+     * Minimum ratio of readings that must be explained by predicted position to skip
+     * robust estimation.
+     */
+    private double minExplainedReadingsRatio = DEFAULT_MIN_EXPLAINED_READINGS_RATIO;
+
+    /**
+     * Variance of lateration positions, expressed in squared meters (m^2), to be used
+     * when lateration does not provide any covariance.
+     */
+    private double measurementVariance = DEFAULT_MEASUREMENT_VARIANCE;
+
+    /**
+     * Indicates whether located radio source position covariance is taken into account
+     * (if available) to determine distance standard deviation.
+     */
+    private boolean useRadioSourcePositionCovariance = DEFAULT_USE_RADIO_SOURCE_POSITION_COVARIANCE;
+
+    /**
+     * Distance standard deviation fallback value to use when none can be determined
+     * from provided radio sources and fingerprint readings.
+     */
+    private double fallbackDistanceStandardDeviation = FALLBACK_DISTANCE_STANDARD_DEVIATION;
+
+    /**
+     * Inhomogeneous coordinates of filtered position or null if tracking has not
+     * started yet.
+     */
+    private double[] state;
+
+    /**
+     * Covariance of filtered position or null if tracking has not started yet.
+     */
+    private Matrix stateCovariance;
+
+    /**
+     * Timestamp of last update expressed in nanoseconds.
+     */
+    private long timestampNanos;
+
+    /**
+     * Indicates whether last update skipped robust estimation because predicted
+     * position explained readings.
+     */
+    private boolean lastUpdateGated;
+
+    /**
+     * Number of updates that have been processed since tracking started.
+     */
+    private int numUpdates;
+
+    /**
+     * Number of updates that skipped robust estimation since tracking started.
+     */
+    private int numGatedUpdates;
+
+    /**
+     * Indicates whether this tracker is locked because an update is in progress.
+     */
+    private boolean locked;
+
+    /**
+     * Inhomogeneous coordinates of position obtained by lateration on last update.
+     */
+    private double[] measurement;
+
+    /**
+     * Covariance of position obtained by lateration on last update or null if not
+     * available.
+     */
+    private Matrix measurementCovariance;
+
+    /**
+     * Quality scores of radio sources used for robust estimation.
+     * All radio sources are considered to have the same quality.
+     */
+    private double[] sourceQualityScores;
+
+    /**
+     * Quality scores of fingerprint readings used for robust estimation.
+     * All readings are considered to have the same quality.
+     */
+    private double[] fingerprintReadingsQualityScores;
+
+    /**
+     * Positions of radio sources of last fingerprint.
+     * Lists are reused between updates.
+     */
+    private final List<P> positions = new ArrayList<>();
+
+    /**
+     * Distances of last fingerprint.
+     */
+    private final List<Double> distances = new ArrayList<>();
+
+    /**
+     * Standard deviations of distances of last fingerprint.
+     */
+    private final List<Double> distanceStandardDeviations = new ArrayList<>();
+
+    /**
+     * Positions of radio sources whose readings are explained by predicted position.
+     */
+    private final List<P> gatedPositions = new ArrayList<>();
+
+    /**
+     * Distances explained by predicted position.
+     */
+    private final List<Double> gatedDistances = new ArrayList<>();
+
+    /**
+     * Standard deviations of distances explained by predicted position.
+     */
+    private final List<Double> gatedDistanceStandardDeviations = new ArrayList<>();
+
+    /**
+     * Constructor.
+     */
+    protected PositionTracker() {
+    }
+
+    /**
+     * Gets prepared model of located radio sources of the venue where device is tracked.
+     *
+     * @return prepared model of located radio sources.
+     */
+    public VenueModel<P> getVenueModel() {
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources of the venue where device is tracked.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetVenueModel(venueModel);
+    }
+
+    /**
+     * Gets variance of position increments per unit of time, expressed in squared meters
+     * per second (m^2/s).
+     * The larger this value, the faster the device is expected to move.
+     *
+     * @return variance of position increments per unit of time.
+     */
+    public double getProcessNoiseVariance() {
+        return processNoiseVariance;
+    }
+
+    /**
+     * Sets variance of position increments per unit of time, expressed in squared meters
+     * per second (m^2/s).
+     * The larger this value, the faster the device is expected to move.
+     *
+     * @param processNoiseVariance variance of position increments per unit of time.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setProcessNoiseVariance(final double processNoiseVariance) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (processNoiseVariance < 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.processNoiseVariance = processNoiseVariance;
+    }
+
+    /**
+     * Gets number of standard deviations that a reading distance can differ from the
+     * distance to predicted position to be considered as explained by such prediction.
+     *
+     * @return gate threshold expressed in number of standard deviations.
+     */
+    public double getGateThreshold() {
+        return gateThreshold;
+    }
+
+    /**
+     * Sets number of standard deviations that a reading distance can differ from the
+     * distance to predicted position to be considered as explained by such prediction.
+     *
+     * @param gateThreshold gate threshold expressed in number of standard deviations.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     */
+    public void setGateThreshold(final double gateThreshold) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (gateThreshold <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.gateThreshold = gateThreshold;
+    }
+
+    /**
+     * Gets minimum ratio of readings that must be explained by predicted position to skip
+     * robust estimation.
+     *
+     * @return minimum ratio of explained readings.
+     */
+    public double getMinExplainedReadingsRatio() {
+        return minExplainedReadingsRatio;
+    }
+
+    /**
+     * Sets minimum ratio of readings that must be explained by predicted position to skip
+     * robust estimation.
+     * A value larger than 1.0 forces robust estimation on every update.
+     *
+     * @param minExplainedReadingsRatio minimum ratio of explained readings.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setMinExplainedReadingsRatio(final double minExplainedReadingsRatio) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (minExplainedReadingsRatio < 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.minExplainedReadingsRatio = minExplainedReadingsRatio;
+    }
+
+    /**
+     * Gets variance of lateration positions, expressed in squared meters (m^2), to be
+     * used when lateration does not provide any covariance.
+     *
+     * @return variance of lateration positions.
+     */
+    public double getMeasurementVariance() {
+        return measurementVariance;
+    }
+
+    /**
+     * Sets variance of lateration positions, expressed in squared meters (m^2), to be
+     * used when lateration does not provide any covariance.
+     *
+     * @param measurementVariance variance of lateration positions.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is zero or negative.
+     */
+    public void setMeasurementVariance(final double measurementVariance) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (measurementVariance <= 0.0) {
+            throw new IllegalArgumentException();
+        }
+
+        this.measurementVariance = measurementVariance;
+    }
+
+    /**
+     * Indicates whether located radio source position covariance is taken into account
+     * (if available) to determine distance standard deviation.
+     *
+     * @return true to take into account radio source position covariance, false
+     * otherwise.
+     */
+    public boolean isRadioSourcePositionCovarianceUsed() {
+        return useRadioSourcePositionCovariance;
+    }
+
+    /**
+     * Specifies whether located radio source position covariance is taken into account
+     * (if available) to determine distance standard deviation.
+     *
+     * @param useRadioSourcePositionCovariance true to take into account radio source
+     *                                         position covariance, false otherwise.
+     * @throws LockedException if tracker is locked.
+     */
+    public void setRadioSourcePositionCovarianceUsed(final boolean useRadioSourcePositionCovariance)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.useRadioSourcePositionCovariance = useRadioSourcePositionCovariance;
+    }
+
+    /**
+     * Gets distance standard deviation fallback value to use when none can be determined
+     * from provided radio sources and fingerprint readings.
+     *
+     * @return distance standard deviation fallback value.
+     */
+    public double getFallbackDistanceStandardDeviation() {
+        return fallbackDistanceStandardDeviation;
+    }
+
+    /**
+     * Sets distance standard deviation fallback value to use when none can be determined
+     * from provided radio sources and fingerprint readings.
+     *
+     * @param fallbackDistanceStandardDeviation distance standard deviation fallback
+     *                                          value.
+     * @throws LockedException          if tracker is locked.
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setFallbackDistanceStandardDeviation(final double fallbackDistanceStandardDeviation)
+            throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (fallbackDistanceStandardDeviation < 0.0) {
+            throw new IllegalArgumentException();
+        }
+        this.fallbackDistanceStandardDeviation = fallbackDistanceStandardDeviation;
+    }
+
+    /**
+     * Gets robust estimator used to initialize tracking or when predicted position does
+     * not explain readings.
+     * This can be used to configure robust estimation (e.g. robust methods or
+     * thresholds). Located radio sources, fingerprint, quality scores and initial
+     * position are set by this tracker on each update.
+     *
+     * @return robust estimator.
+     */
+    public SequentialRobustMixedPositionEstimator<P> getRobustEstimator() {
+        return robustEstimator;
+    }
+
+    /**
+     * Indicates whether tracker is ready to process fingerprints.
+     *
+     * @return true if tracker is ready, false otherwise.
+     */
+    public boolean isReady() {
+        return venueModel != null;
+    }
+
+    /**
+     * Indicates whether this tracker is locked because an update is in progress.
+     *
+     * @return true if tracker is locked, false otherwise.
+     */
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * Indicates whether tracking has started because at least one fingerprint has been
+     * processed.
+     *
+     * @return true if tracking has started, false otherwise.
+     */
+    public boolean isTracking() {
+        return state != null;
+    }
+
+    /**
+     * Gets filtered position.
+     *
+     * @return filtered position or null if tracking has not started yet.
+     */
+    public P getPosition() {
+        return state != null ? createPosition(state) : null;
+    }
+
+    /**
+     * Gets inhomogeneous coordinates of filtered position.
+     * Returned array is a copy of the filtered state, so it can be safely modified.
+     *
+     * @return inhomogeneous coordinates of filtered position or null if tracking has
+     * not started yet.
+     */
+    public double[] getPositionCoordinates() {
+        return state != null ? state.clone() : null;
+    }
+
+    /**
+     * Gets covariance of filtered position.
+     * Returned matrix is a copy of the filtered state covariance, so it can be safely
+     * modified.
+     *
+     * @return covariance of filtered position or null if tracking has not started yet.
+     */
+    public Matrix getPositionCovariance() {
+        return stateCovariance != null ? new Matrix(stateCovariance) : null;
+    }
+
+    /**
+     * Gets timestamp of last update expressed in nanoseconds.
+     *
+     * @return timestamp of last update.
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Indicates whether last update skipped robust estimation because predicted
+     * position explained readings.
+     *
+     * @return true if last update skipped robust estimation, false otherwise.
+     */
+    public boolean isLastUpdateGated() {
+        return lastUpdateGated;
+    }
+
+    /**
+     * Gets number of updates that have been processed since tracking started.
+     *
+     * @return number of processed updates.
+     */
+    public int getNumberOfUpdates() {
+        return numUpdates;
+    }
+
+    /**
+     * Gets number of updates that skipped robust estimation since tracking started.
+     *
+     * @return number of updates that skipped robust estimation.
+     */
+    public int getNumberOfGatedUpdates() {
+        return numGatedUpdates;
+    }
+
+    /**
+     * Resets tracking state, so that next update initializes tracking again.
+     *
+     * @throws LockedException if tracker is locked.
+     */
+    public void reset() throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        state = null;
+        stateCovariance = null;
+        timestampNanos = 0;
+        lastUpdateGated = false;
+        numUpdates = 0;
+        numGatedUpdates = 0;
+    }
+
+    /**
+     * Updates tracked position with a new fingerprint.
+     * Timestamps of consecutive fingerprints are used to determine how much position
+     * uncertainty grows between updates. Fingerprints older than the last update are
+     * used without increasing position uncertainty, and the timestamp of last update
+     * is kept.
+     * If update fails, tracking state is left unchanged.
+     *
+     * @param fingerprint    fingerprint containing readings at current device location.
+     * @param timestampNanos timestamp of fingerprint expressed in nanoseconds.
+     * @return filtered position.
+     * @throws LockedException             if tracker is locked.
+     * @throws NotReadyException           if tracker is not ready or fingerprint does not
+     *                                     contain enough readings.
+     * @throws PositionEstimationException if position cannot be estimated.
+     */
+    public P update(final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+                    final long timestampNanos)
+            throws LockedException, NotReadyException, PositionEstimationException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        if (!isReady() || fingerprint == null || fingerprint.getReadings() == null
+                || fingerprint.getReadings().size() < getMinRequiredSources()) {
+            throw new NotReadyException();
+        }
+
+        locked = true;
+        try {
+            // state is only modified once position has been solved, so that a failed
+            // update does not leave a predicted covariance behind
+            Matrix predictedCovariance = null;
+            if (state != null) {
+                predictedCovariance = predict(timestampNanos);
+            }
+
+            final var gated = state != null && solveGated(fingerprint, predictedCovariance);
+            if (!gated) {
+                solveRobust(fingerprint);
+            }
+
+            if (state == null) {
+                state = measurement.clone();
+                stateCovariance = getMeasurementCovariance();
+                this.timestampNanos = timestampNanos;
+            } else {
+                correct(measurement, getMeasurementCovariance(), predictedCovariance);
+                // timestamps of out-of-order fingerprints are ignored
+                this.timestampNanos = Math.max(this.timestampNanos, timestampNanos);
+            }
+
+            lastUpdateGated = gated;
+            numUpdates++;
+            if (gated) {
+                numGatedUpdates++;
+            }
+
+            return createPosition(state);
+        } catch (final AlgebraException e) {
+            throw new PositionEstimationException(e);
+        } finally {
+            locked = false;
+        }
+    }
+
+    /**
+     * Gets number of dimensions of tracked positions.
+     *
+     * @return number of dimensions of tracked positions.
+     */
+    public abstract int getNumberOfDimensions();
+
+    /**
+     * Gets minimum required number of readings to estimate position.
+     *
+     * @return minimum required number of readings.
+     */
+    public int getMinRequiredSources() {
+        return laterationSolver.getMinRequiredPositionsAndDistances();
+    }
+
+    /**
+     * Creates a position from provided inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a new position.
+     */
+    protected abstract P createPosition(final double[] coordinates);
+
+    /**
+     * Converts provided list of positions into an array.
+     *
+     * @param positions list of positions.
+     * @return array of positions.
+     */
+    protected abstract P[] toArray(final List<P> positions);
+
+    /**
+     * Internally sets prepared model of located radio sources of the venue where device
+     * is tracked.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    protected void internalSetVenueModel(final VenueModel<P> venueModel) {
+        if (venueModel == null || venueModel.getNumberOfSources() < getMinRequiredSources()) {
+            throw new IllegalArgumentException();
+        }
+
+        try {
+            robustEstimator.setVenueModel(venueModel);
+        } catch (final LockedException e) {
+            throw new IllegalArgumentException(e);
+        }
+
+        this.venueModel = venueModel;
+        sourceQualityScores = new double[venueModel.getNumberOfSources()];
+        Arrays.fill(sourceQualityScores, 1.0);
+    }
+
+    /**
+     * Initializes internal robust estimator so that it keeps covariance of estimated
+     * positions.
+     */
+    protected void initRobustEstimator() {
+        try {
+            robustEstimator.setResultRefined(true);
+            robustEstimator.setCovarianceKept(true);
+        } catch (final LockedException ignore) {
+            // never happens
+        }
+    }
+
+    /**
+     * Predicts position covariance at provided timestamp.
+     * Position is assumed to follow a random walk, hence predicted position does not
+     * change and its variance grows linearly with elapsed time. If provided timestamp
+     * is older than the one of last update, no time is assumed to have elapsed.
+     * Tracking state is not modified.
+     *
+     * @param timestampNanos timestamp expressed in nanoseconds.
+     * @return predicted position covariance.
+     */
+    Matrix predict(final long timestampNanos) {
+        final var dt = Math.max(0.0, (timestampNanos - this.timestampNanos) / NANOS_PER_SECOND);
+        final var increment = processNoiseVariance * dt;
+        final var dims = state.length;
+        final var predictedCovariance = new Matrix(stateCovariance);
+        for (var i = 0; i < dims; i++) {
+            predictedCovariance.setElementAt(i, i, predictedCovariance.getElementAt(i, i) + increment);
+        }
+        return predictedCovariance;
+    }
+
+    /**
+     * Corrects filtered position with a position obtained by lateration.
+     * Filtered position and its covariance are only modified if correction succeeds.
+     *
+     * @param measurement           inhomogeneous coordinates of position obtained by
+     *                              lateration.
+     * @param measurementCovariance covariance of position obtained by lateration.
+     * @param predictedCovariance   predicted covariance of filtered position.
+     * @throws AlgebraException if covariance of innovation is singular.
+     */
+    void correct(final double[] measurement, final Matrix measurementCovariance,
+                 final Matrix predictedCovariance) throws AlgebraException {
+        final var dims = state.length;
+
+        // innovation covariance S = P + R and gain K = P * S^-1
+        final var innovationCovariance = predictedCovariance.addAndReturnNew(measurementCovariance);
+        final var gain = predictedCovariance.multiplyAndReturnNew(Utils.inverse(innovationCovariance));
+
+        // x = x + K * (z - x)
+        final var innovation = new double[dims];
+        for (var i = 0; i < dims; i++) {
+            innovation[i] = measurement[i] - state[i];
+        }
+        final var correctedState = new double[dims];
+        for (var i = 0; i < dims; i++) {
+            var value = state[i];
+            for (var j = 0; j < dims; j++) {
+                value += gain.getElementAt(i, j) * innovation[j];
+            }
+            correctedState[i] = value;
+        }
+
+        // P = (I - K) * P
+        final var identityMinusGain = Matrix.identity(dims, dims);
+        identityMinusGain.subtract(gain);
+        final var correctedCovariance = identityMinusGain.multiplyAndReturnNew(predictedCovariance);
+
+        state = correctedState;
+        stateCovariance = correctedCovariance;
+    }
+
+    /**
+     * Initializes filtered position and its covariance.
+     * This is only meant to be used for testing purposes.
+     *
+     * @param coordinates    inhomogeneous coordinates of position.
+     * @param covariance     covariance of position.
+     * @param timestampNanos timestamp expressed in nanoseconds.
+     */
+    void setState(final double[] coordinates, final Matrix covariance, final long timestampNanos) {
+        state = coordinates;
+        stateCovariance = covariance;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Gates readings of provided fingerprint against predicted position, and solves
+     * position with a non-linear lateration solver started at predicted position if
+     * enough readings are explained by such prediction.
+     *
+     * @param fingerprint         fingerprint containing readings.
+     * @param predictedCovariance predicted covariance of filtered position.
+     * @return true if position was solved, false if robust estimation is needed.
+     */
+    private boolean solveGated(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final Matrix predictedCovariance) {
+        positions.clear();
+        distances.clear();
+        distanceStandardDeviations.clear();
+        PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(venueModel, fingerprint,
+                useRadioSourcePositionCovariance, fallbackDistanceStandardDeviation, positions, distances,
+                distanceStandardDeviations);
+
+        final var num = positions.size();
+        if (num == 0) {
+            return false;
+        }
+
+        // average variance of predicted position
+        final var dims = state.length;
+        var positionVariance = 0.0;
+        for (var i = 0; i < dims; i++) {
+            positionVariance += predictedCovariance.getElementAt(i, i) / dims;
+        }
+
+        gatedPositions.clear();
+        gatedDistances.clear();
+        gatedDistanceStandardDeviations.clear();
+        for (var i = 0; i < num; i++) {
+            final var position = positions.get(i);
+            var sqrDistance = 0.0;
+            for (var j = 0; j < dims; j++) {
+                final var diff = state[j] - position.getInhomogeneousCoordinate(j);
+                sqrDistance += diff * diff;
+            }
+
+            final var distance = distances.get(i);
+            final var std = distanceStandardDeviations.get(i);
+            final var residual = Math.abs(distance - Math.sqrt(sqrDistance));
+            final var sigma = Math.sqrt(std * std + positionVariance);
+            if (residual <= gateThreshold * sigma) {
+                gatedPositions.add(position);
+                gatedDistances.add(distance);
+                gatedDistanceStandardDeviations.add(std);
+            }
+        }
+
+        final var numGated = gatedPositions.size();
+        if (numGated < getMinRequiredSources() || numGated < minExplainedReadingsRatio * num) {
+            return false;
+        }
+
+        final var distancesArray = new double[numGated];
+        final var distanceStandardDeviationsArray = new double[numGated];
+        for (var i = 0; i < numGated; i++) {
+            distancesArray[i] = gatedDistances.get(i);
+            distanceStandardDeviationsArray[i] = gatedDistanceStandardDeviations.get(i);
+        }
+
+        try {
+            laterationSolver.setPositionsDistancesAndStandardDeviations(toArray(gatedPositions), distancesArray,
+                    distanceStandardDeviationsArray);
+            laterationSolver.setInitialPosition(createPosition(state));
+            laterationSolver.solve();
+        } catch (final LockedException | NotReadyException | LaterationException e) {
+            return false;
+        }
+
+        measurement = laterationSolver.getEstimatedPositionCoordinates();
+        measurementCovariance = laterationSolver.getCovariance();
+        return measurement != null;
+    }
+
+    /**
+     * Solves position of provided fingerprint using robust estimation started at
+     * predicted position, if available.
+     *
+     * @param fingerprint fingerprint containing readings.
+     * @throws LockedException             if robust estimator is locked.
+     * @throws NotReadyException           if robust estimator is not ready.
+     * @throws PositionEstimationException if robust estimation fails.
+     */
+    private void solveRobust(
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint)
+            throws LockedException, NotReadyException, PositionEstimationException {
+        final var numReadings = fingerprint.getReadings().size();
+        if (fingerprintReadingsQualityScores == null || fingerprintReadingsQualityScores.length != numReadings) {
+            fingerprintReadingsQualityScores = new double[numReadings];
+            Arrays.fill(fingerprintReadingsQualityScores, 1.0);
+        }
+
+        robustEstimator.setFingerprint(fingerprint);
+        robustEstimator.setSourceQualityScores(sourceQualityScores);
+        robustEstimator.setFingerprintReadingsQualityScores(fingerprintReadingsQualityScores);
+        robustEstimator.setInitialPosition(state != null ? createPosition(state) : null);
+
+        try {
+            final var position = robustEstimator.estimate();
+            if (position == null) {
+                throw new PositionEstimationException();
+            }
+
+            final var dims = getNumberOfDimensions();
+            measurement = new double[dims];
+            for (var i = 0; i < dims; i++) {
+                measurement[i] = position.getInhomogeneousCoordinate(i);
+            }
+            measurementCovariance = robustEstimator.getCovariance();
+        } catch (final RobustEstimatorException e) {
+            throw new PositionEstimationException(e);
+        }
+    }
+
+    /**
+     * Gets covariance of position obtained by lateration on last update, or a diagonal
+     * covariance using provided measurement variance if not available.
+     *
+     * @return covariance of position obtained by lateration.
+     * @throws AlgebraException if covariance cannot be built.
+     */
+    private Matrix getMeasurementCovariance() throws AlgebraException {
+        final var dims = getNumberOfDimensions();
+        if (measurementCovariance != null && measurementCovariance.getRows() >= dims
+                && measurementCovariance.getColumns() >= dims) {
+            return measurementCovariance.getSubmatrix(0, 0, dims - 1, dims - 1);
+        }
+
+        final var result = Matrix.identity(dims, dims);
+        result.multiplyByScalar(measurementVariance);
+        return result;
+    }
+}
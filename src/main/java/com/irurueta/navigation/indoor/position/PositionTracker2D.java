@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.RadioSourceLocated;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLateration2DSolver;
+
+import java.util.List;
+
+/**
+ * Tracks 2D position of a single device along time from a stream of fingerprints.
+ *
+ * @see PositionTracker
+ */
+public class PositionTracker2D extends PositionTracker<Point2D> {
+
+    /**
+     * Constructor.
+     */
+    public PositionTracker2D() {
+        super();
+        init();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources of the venue where
+     *                   device is tracked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public PositionTracker2D(final VenueModel<Point2D> venueModel) {
+        this();
+        internalSetVenueModel(venueModel);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sources located radio sources of the venue where device is tracked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  provided sources is less than the required
+     *                                  minimum.
+     */
+    public PositionTracker2D(final List<? extends RadioSourceLocated<Point2D>> sources) {
+        this(sources != null ? new VenueModel<>(sources) : null);
+    }
+
+    /**
+     * Gets number of dimensions of tracked positions.
+     *
+     * @return number of dimensions of tracked positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates a position from provided inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a new position.
+     */
+    @Override
+    protected Point2D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint2D(coordinates[0], coordinates[1]);
+    }
+
+    /**
+     * Converts provided list of positions into an array.
+     *
+     * @param positions list of positions.
+     * @return array of positions.
+     */
+    @Override
+    protected Point2D[] toArray(final List<Point2D> positions) {
+        return positions.toArray(new Point2D[0]);
+    }
+
+    /**
+     * Initializes lateration solver and robust estimator.
+     */
+    private void init() {
+        laterationSolver = new NonLinearLeastSquaresLateration2DSolver();
+        robustEstimator = new SequentialRobustMixedPositionEstimator2D();
+        initRobustEstimator();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import com.irurueta.navigation.indoor.RadioSourceLocated;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLateration3DSolver;
+
+import java.util.List;
+
+/**
+ * Tracks 3D position of a single device along time from a stream of fingerprints.
+ *
+ * @see PositionTracker
+ */
+public class PositionTracker3D extends PositionTracker<Point3D> {
+
+    /**
+     * Constructor.
+     */
+    public PositionTracker3D() {
+        super();
+        init();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources of the venue where
+     *                   device is tracked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public PositionTracker3D(final VenueModel<Point3D> venueModel) {
+        this();
+        internalSetVenueModel(venueModel);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param sources located radio sources of the venue where device is tracked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  provided sources is less than the required
+     *                                  minimum.
+     */
+    public PositionTracker3D(final List<? extends RadioSourceLocated<Point3D>> sources) {
+        this(sources != null ? new VenueModel<>(sources) : null);
+    }
+
+    /**
+     * Gets number of dimensions of tracked positions.
+     *
+     * @return number of dimensions of tracked positions.
+     */
+    @Override
+    public int getNumberOfDimensions() {
+        return Point3D.POINT3D_INHOMOGENEOUS_COORDINATES_LENGTH;
+    }
+
+    /**
+     * Creates a position from provided inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a new position.
+     */
+    @Override
+    protected Point3D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint3D(coordinates[0], coordinates[1], coordinates[2]);
+    }
+
+    /**
+     * Converts provided list of positions into an array.
+     *
+     * @param positions list of positions.
+     * @return array of positions.
+     */
+    @Override
+    protected Point3D[] toArray(final List<Point3D> positions) {
+        return positions.toArray(new Point3D[0]);
+    }
+
+    /**
+     * Initializes lateration solver and robust estimator.
+     */
+    private void init() {
+        laterationSolver = new NonLinearLeastSquaresLateration3DSolver();
+        robustEstimator = new SequentialRobustMixedPositionEstimator3D();
+        initRobustEstimator();
+    }
+}
@@ -0,0 +1,558 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.VenueModel;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manages position tracking sessions of many devices concurrently.
+ * Each device, identified by its id, has its own session containing a
+ * {@link PositionTracker} that keeps the state of such device. Updates are executed
+ * asynchronously on an executor, and updates of the same device are always executed
+ * one after the other in the same order they were submitted, so that trackers never
+ * need to be locked by callers and are never used concurrently. Updates of different
+ * devices are executed in parallel.
+ * Sessions that have not been updated for a given amount of time can be evicted to
+ * release their resources. If an evicted device is updated again, a new session is
+ * started.
+ * Once closed, no more updates can be submitted.
+ * This class is thread-safe.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class PositionTrackerSessionManager<P extends Point<?>> implements AutoCloseable {
+
+    /**
+     * Default amount of time after which sessions that have not been updated are
+     * considered idle and can be evicted, expressed in nanoseconds (5 minutes).
+     */
+    public static final long DEFAULT_SESSION_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    /**
+     * Default maximum number of pending updates of the default executor. When exceeded,
+     * or once the default executor is shut down, updates are executed on the calling
+     * thread, which slows down callers until the executor catches up.
+     */
+    public static final int DEFAULT_MAX_PENDING_UPDATES = 10000;
+
+    /**
+     * Prepared model of located radio sources shared by all sessions.
+     */
+    private final VenueModel<P> venueModel;
+
+    /**
+     * Executor where updates are executed.
+     */
+    private final Executor executor;
+
+    /**
+     * Indicates whether executor was created by this instance and must be shut down
+     * when closed.
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * Sessions indexed by device id.
+     */
+    private final ConcurrentHashMap<String, Session<P>> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Indicates whether this instance has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Amount of time after which sessions that have not been updated are considered
+     * idle, expressed in nanoseconds.
+     */
+    private volatile long sessionTimeoutNanos = DEFAULT_SESSION_TIMEOUT_NANOS;
+
+    /**
+     * Timestamp when this instance was created expressed in nanoseconds.
+     */
+    private final long creationNanos = System.nanoTime();
+
+    /**
+     * Number of successful updates.
+     */
+    private final LongAdder numUpdates = new LongAdder();
+
+    /**
+     * Number of failed updates.
+     */
+    private final LongAdder numFailedUpdates = new LongAdder();
+
+    /**
+     * Number of evicted sessions.
+     */
+    private final LongAdder numEvictedSessions = new LongAdder();
+
+    /**
+     * Accumulated latency of updates since they are submitted until they are completed,
+     * expressed in nanoseconds.
+     */
+    private final LongAdder totalLatencyNanos = new LongAdder();
+
+    /**
+     * Maximum latency of an update expressed in nanoseconds.
+     */
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    /**
+     * Constructor.
+     * Updates are executed on an internal thread pool having as many threads as
+     * available processors.
+     *
+     * @param venueModel prepared model of located radio sources shared by all sessions.
+     * @throws IllegalArgumentException if provided venue model is null.
+     */
+    protected PositionTrackerSessionManager(final VenueModel<P> venueModel) {
+        this(venueModel, createDefaultExecutor(), true);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources shared by all sessions.
+     * @param executor   executor where updates are executed. Provided executor is not
+     *                   shut down when this instance is closed.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    protected PositionTrackerSessionManager(final VenueModel<P> venueModel, final Executor executor) {
+        this(venueModel, executor, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel   prepared model of located radio sources shared by all
+     *                     sessions.
+     * @param executor     executor where updates are executed.
+     * @param ownsExecutor true if executor must be shut down when closed.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    private PositionTrackerSessionManager(final VenueModel<P> venueModel, final Executor executor,
+                                          final boolean ownsExecutor) {
+        if (venueModel == null || executor == null) {
+            throw new IllegalArgumentException();
+        }
+
+        this.venueModel = venueModel;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Gets prepared model of located radio sources shared by all sessions.
+     *
+     * @return prepared model of located radio sources.
+     */
+    public VenueModel<P> getVenueModel() {
+        return venueModel;
+    }
+
+    /**
+     * Gets amount of time after which sessions that have not been updated are
+     * considered idle and can be evicted, expressed in nanoseconds.
+     *
+     * @return session timeout expressed in nanoseconds.
+     */
+    public long getSessionTimeoutNanos() {
+        return sessionTimeoutNanos;
+    }
+
+    /**
+     * Sets amount of time after which sessions that have not been updated are
+     * considered idle and can be evicted, expressed in nanoseconds.
+     *
+     * @param sessionTimeoutNanos session timeout expressed in nanoseconds.
+     * @throws IllegalArgumentException if provided value is negative.
+     */
+    public void setSessionTimeoutNanos(final long sessionTimeoutNanos) {
+        if (sessionTimeoutNanos < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.sessionTimeoutNanos = sessionTimeoutNanos;
+    }
+
+    /**
+     * Asynchronously updates position of a device with a new fingerprint.
+     * Updates of the same device are executed in the same order they are submitted.
+     * If update fails, returned future completes exceptionally with a
+     * {@link CompletionException} whose cause is the exception raised by the tracker
+     * of the device, or a {@link RejectedExecutionException} if executor rejects the
+     * update.
+     *
+     * @param deviceId       id of device.
+     * @param fingerprint    fingerprint containing readings at current device location.
+     * @param timestampNanos timestamp of fingerprint expressed in nanoseconds.
+     * @return a future containing filtered position of device once update completes.
+     * @throws IllegalArgumentException if device id is null.
+     * @throws IllegalStateException    if this instance has been closed.
+     */
+    public CompletableFuture<P> update(
+            final String deviceId,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final long timestampNanos) {
+        if (deviceId == null) {
+            throw new IllegalArgumentException();
+        }
+        if (closed) {
+            throw new IllegalStateException();
+        }
+
+        final var submissionNanos = System.nanoTime();
+        final var next = new CompletableFuture<Void>();
+        Session<P> session;
+        CompletableFuture<Void> previous;
+        while (true) {
+            session = sessions.computeIfAbsent(deviceId, id -> new Session<>(createTracker()));
+            synchronized (session) {
+                if (session.evicted) {
+                    // session was evicted concurrently, a new one is needed
+                    continue;
+                }
+
+                session.lastAccessNanos = submissionNanos;
+                session.pendingUpdates++;
+
+                // only the tail is swapped while holding the lock, so that the update is
+                // never executed inline while the session is locked
+                previous = session.tail;
+                session.tail = next;
+                break;
+            }
+        }
+
+        // chain update after previous update of the same device to keep ordering
+        final var updatedSession = session;
+        final var result = new CompletableFuture<P>();
+        previous.whenComplete((ignored, error) -> submit(updatedSession, fingerprint, timestampNanos,
+                submissionNanos, result, next));
+        return result;
+    }
+
+    /**
+     * Gets filtered position of a device obtained on its last completed update.
+     *
+     * @param deviceId id of device.
+     * @return filtered position or null if device has no session or its position is not
+     * known yet.
+     */
+    public P getPosition(final String deviceId) {
+        final var session = deviceId != null ? sessions.get(deviceId) : null;
+        return session != null ? session.position : null;
+    }
+
+    /**
+     * Indicates whether provided device has an active session.
+     *
+     * @param deviceId id of device.
+     * @return true if device has an active session, false otherwise.
+     */
+    public boolean hasSession(final String deviceId) {
+        return deviceId != null && sessions.containsKey(deviceId);
+    }
+
+    /**
+     * Gets number of active sessions.
+     *
+     * @return number of active sessions.
+     */
+    public int getNumberOfSessions() {
+        return sessions.size();
+    }
+
+    /**
+     * Evicts sessions that have not been updated for longer than session timeout and
+     * have no pending updates.
+     * This should be called periodically (e.g. on a scheduled executor).
+     *
+     * @return number of evicted sessions.
+     */
+    public int evictIdleSessions() {
+        final var now = System.nanoTime();
+        final var timeout = sessionTimeoutNanos;
+        var evicted = 0;
+        for (final var entry : sessions.entrySet()) {
+            final var session = entry.getValue();
+            synchronized (session) {
+                if (session.pendingUpdates == 0 && now - session.lastAccessNanos >= timeout) {
+                    session.evicted = true;
+                    sessions.remove(entry.getKey(), session);
+                    evicted++;
+                }
+            }
+        }
+
+        numEvictedSessions.add(evicted);
+        return evicted;
+    }
+
+    /**
+     * Gets number of successful updates.
+     *
+     * @return number of successful updates.
+     */
+    public long getNumberOfUpdates() {
+        return numUpdates.sum();
+    }
+
+    /**
+     * Gets number of failed updates.
+     *
+     * @return number of failed updates.
+     */
+    public long getNumberOfFailedUpdates() {
+        return numFailedUpdates.sum();
+    }
+
+    /**
+     * Gets number of sessions that have been evicted.
+     *
+     * @return number of evicted sessions.
+     */
+    public long getNumberOfEvictedSessions() {
+        return numEvictedSessions.sum();
+    }
+
+    /**
+     * Gets average number of completed updates (either successful or failed) per
+     * second since this instance was created.
+     *
+     * @return throughput expressed in updates per second.
+     */
+    public double getThroughput() {
+        final var elapsedNanos = System.nanoTime() - creationNanos;
+        final var completed = numUpdates.sum() + numFailedUpdates.sum();
+        return elapsedNanos > 0 ? completed * 1e9 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Gets average latency of completed updates since they are submitted until they
+     * complete, expressed in nanoseconds.
+     *
+     * @return average latency or NaN if no update has completed yet.
+     */
+    public double getAverageLatencyNanos() {
+        final var completed = numUpdates.sum() + numFailedUpdates.sum();
+        return completed > 0 ? (double) totalLatencyNanos.sum() / completed : Double.NaN;
+    }
+
+    /**
+     * Gets maximum latency of completed updates since they are submitted until they
+     * complete, expressed in nanoseconds.
+     *
+     * @return maximum latency.
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Indicates whether this instance has been closed.
+     *
+     * @return true if this instance has been closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes this instance, shutting down internal executor if it was created by this
+     * instance. No more updates can be submitted, but pending updates are still
+     * executed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Creates a tracker for a new session.
+     * Subclasses can override this method to configure trackers.
+     *
+     * @return a new tracker.
+     */
+    protected abstract PositionTracker<P> createTracker();
+
+    /**
+     * Submits an update of a session to the executor once previous update of the same
+     * session has completed.
+     * If executor rejects the update, it is completed as failed so that callers and
+     * next updates of the same session are never left waiting.
+     *
+     * @param session         session to be updated.
+     * @param fingerprint     fingerprint containing readings.
+     * @param timestampNanos  timestamp of fingerprint expressed in nanoseconds.
+     * @param submissionNanos timestamp when update was submitted expressed in
+     *                        nanoseconds.
+     * @param result          future to be completed with filtered position.
+     * @param next            future to be completed once update completes, so that
+     *                        next update of the same session can start.
+     */
+    private void submit(
+            final Session<P> session,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final long timestampNanos, final long submissionNanos, final CompletableFuture<P> result,
+            final CompletableFuture<Void> next) {
+        try {
+            executor.execute(() -> {
+                try {
+                    final var position = process(session, fingerprint, timestampNanos);
+                    onComplete(session, submissionNanos, null);
+                    result.complete(position);
+                } catch (final CompletionException e) {
+                    onComplete(session, submissionNanos, e);
+                    result.completeExceptionally(e);
+                } finally {
+                    next.complete(null);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // update is never executed
+            onComplete(session, submissionNanos, e);
+            result.completeExceptionally(new CompletionException(e));
+            next.complete(null);
+        }
+    }
+
+    /**
+     * Processes an update of a session.
+     *
+     * @param session        session to be updated.
+     * @param fingerprint    fingerprint containing readings.
+     * @param timestampNanos timestamp of fingerprint expressed in nanoseconds.
+     * @return filtered position.
+     * @throws CompletionException if update fails.
+     */
+    private P process(
+            final Session<P> session,
+            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+            final long timestampNanos) {
+        try {
+            final var position = session.tracker.update(fingerprint, timestampNanos);
+            session.position = position;
+            return position;
+        } catch (final Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Updates session and metrics once an update completes.
+     *
+     * @param session         session being updated.
+     * @param submissionNanos timestamp when update was submitted expressed in
+     *                        nanoseconds.
+     * @param error           error raised by update or null if successful.
+     */
+    private void onComplete(final Session<P> session, final long submissionNanos, final Throwable error) {
+        synchronized (session) {
+            session.pendingUpdates--;
+        }
+
+        final var latency = System.nanoTime() - submissionNanos;
+        totalLatencyNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        if (error != null) {
+            numFailedUpdates.increment();
+        } else {
+            numUpdates.increment();
+        }
+    }
+
+    /**
+     * Creates default bounded executor having as many threads as available processors.
+     * Rejected updates are executed on the calling thread. Unlike
+     * {@link ThreadPoolExecutor.CallerRunsPolicy}, this is also done once the executor
+     * is shut down, so that updates pending when closed are never discarded.
+     *
+     * @return default executor.
+     */
+    private static ExecutorService createDefaultExecutor() {
+        final var threads = Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(DEFAULT_MAX_PENDING_UPDATES), (task, pool) -> task.run());
+    }
+
+    /**
+     * Tracking session of a single device.
+     *
+     * @param <P> a {@link Point} type.
+     */
+    private static class Session<P extends Point<?>> {
+
+        /**
+         * Tracker keeping the state of the device.
+         */
+        private final PositionTracker<P> tracker;
+
+        /**
+         * Future completed once last submitted update completes. Next updates are
+         * chained after it.
+         */
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        /**
+         * Filtered position obtained on last completed update.
+         */
+        private volatile P position;
+
+        /**
+         * Timestamp of last submitted update expressed in nanoseconds.
+         */
+        private long lastAccessNanos;
+
+        /**
+         * Number of submitted updates that have not completed yet.
+         */
+        private int pendingUpdates;
+
+        /**
+         * Indicates whether this session has been evicted.
+         */
+        private boolean evicted;
+
+        /**
+         * Constructor.
+         *
+         * @param tracker tracker keeping the state of the device.
+         */
+        private Session(final PositionTracker<P> tracker) {
+            this.tracker = tracker;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.VenueModel;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Manages 2D position tracking sessions of many devices concurrently.
+ *
+ * @see PositionTrackerSessionManager
+ */
+public class PositionTrackerSessionManager2D extends PositionTrackerSessionManager<Point2D> {
+
+    /**
+     * Constructor.
+     * Updates are executed on an internal thread pool having as many threads as
+     * available processors.
+     *
+     * @param venueModel prepared model of located radio sources shared by all sessions.
+     * @throws IllegalArgumentException if provided venue model is null.
+     */
+    public PositionTrackerSessionManager2D(final VenueModel<Point2D> venueModel) {
+        super(venueModel);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param venueModel prepared model of located radio sources shared by all sessions.
+     * @param executor   executor where updates are executed. Provided executor is not
+     *                   shut down when this instance is closed.
+     * @throws IllegalArgumentException if any of provided values is null.
+     */
+    public PositionTrackerSessionManager2D(final VenueModel<Point2D> venueModel, final Executor executor) {
+        super(venueModel, executor);
+    }
+
+    /**
+     * Creates a tracker for a new session.
+     *
+     * @return a new tracker.
+     */
+    @Override
+    protected PositionTracker<Point2D> createTracker() {
+        return new PositionTracker2D(getVenueModel());
+    }
+}
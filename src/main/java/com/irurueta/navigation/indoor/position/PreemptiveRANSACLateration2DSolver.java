@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLateration2DSolver;
+import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLateration2DSolver;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLateration2DSolver;
+
+/**
+ * Solves 2D lateration using preemptive (breadth-first) RANSAC.
+ */
+public class PreemptiveRANSACLateration2DSolver extends PreemptiveRANSACLaterationSolver<Point2D> {
+
+    /**
+     * Constructor.
+     */
+    public PreemptiveRANSACLateration2DSolver() {
+        super(new InhomogeneousLinearLeastSquaresLateration2DSolver(),
+                new HomogeneousLinearLeastSquaresLateration2DSolver(),
+                new NonLinearLeastSquaresLateration2DSolver());
+    }
+
+    /**
+     * Creates a position from its inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a position.
+     */
+    @Override
+    protected Point2D createPosition(final double[] coordinates) {
+        return new InhomogeneousPoint2D(coordinates[0], coordinates[1]);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLaterationSolver;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+import com.irurueta.statistics.UniformRandomizer;
+
+/**
+ * Solves lateration using preemptive (breadth-first) RANSAC.
+ * Unlike RANSAC, where the number of iterations adapts to the confidence and the
+ * amount of outliers found, this solver generates a fixed number of hypotheses from
+ * random minimal subsets and scores all of them on progressively larger blocks of
+ * positions and distances. After each block, the worst half of the hypotheses is
+ * discarded, until a single hypothesis remains or all samples have been scored.
+ * Hence, the cost of solving each fingerprint is bounded and predictable, which is
+ * useful under hard latency budgets.
+ * Hypotheses are scored using a truncated quadratic cost on the error of distances,
+ * and the best one is optionally refined using all of its inliers.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class PreemptiveRANSACLaterationSolver<P extends Point<?>> extends SampleConsensusLaterationSolver<P> {
+
+    /**
+     * Default number of hypotheses generated on each estimation.
+     */
+    public static final int DEFAULT_NUMBER_OF_HYPOTHESES = 64;
+
+    /**
+     * Minimum allowed number of hypotheses.
+     */
+    public static final int MIN_NUMBER_OF_HYPOTHESES = 1;
+
+    /**
+     * Default number of samples scored on each round before discarding half of the
+     * hypotheses.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4;
+
+    /**
+     * Minimum allowed block size.
+     */
+    public static final int MIN_BLOCK_SIZE = 1;
+
+    /**
+     * Randomizer used to generate random subsets and order of scored samples.
+     */
+    private UniformRandomizer randomizer = new UniformRandomizer();
+
+    /**
+     * Number of hypotheses generated on each estimation.
+     */
+    private int numberOfHypotheses = DEFAULT_NUMBER_OF_HYPOTHESES;
+
+    /**
+     * Number of samples scored on each round before discarding half of the hypotheses.
+     */
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    /**
+     * Constructor.
+     *
+     * @param linearSolver            inhomogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param homogeneousLinearSolver homogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param nonLinearSolver         non-linear solver used to refine hypotheses.
+     */
+    protected PreemptiveRANSACLaterationSolver(
+            final InhomogeneousLinearLeastSquaresLaterationSolver<P> linearSolver,
+            final HomogeneousLinearLeastSquaresLaterationSolver<P> homogeneousLinearSolver,
+            final NonLinearLeastSquaresLaterationSolver<P> nonLinearSolver) {
+        super(linearSolver, homogeneousLinearSolver, nonLinearSolver);
+    }
+
+    /**
+     * Gets randomizer used to generate random subsets and order of scored samples.
+     *
+     * @return randomizer used to generate random subsets and order of scored samples.
+     */
+    public UniformRandomizer getRandomizer() {
+        return randomizer;
+    }
+
+    /**
+     * Sets randomizer used to generate random subsets and order of scored samples.
+     * A randomizer initialized with a fixed seed can be provided to obtain
+     * reproducible results.
+     *
+     * @param randomizer randomizer used to generate random subsets and order of scored
+     *                   samples.
+     * @throws IllegalArgumentException if provided value is null.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setRandomizer(final UniformRandomizer randomizer) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (randomizer == null) {
+            throw new IllegalArgumentException();
+        }
+        this.randomizer = randomizer;
+    }
+
+    /**
+     * Gets number of hypotheses generated on each estimation.
+     *
+     * @return number of hypotheses generated on each estimation.
+     */
+    public int getNumberOfHypotheses() {
+        return numberOfHypotheses;
+    }
+
+    /**
+     * Sets number of hypotheses generated on each estimation.
+     *
+     * @param numberOfHypotheses number of hypotheses generated on each estimation.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setNumberOfHypotheses(final int numberOfHypotheses) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (numberOfHypotheses < MIN_NUMBER_OF_HYPOTHESES) {
+            throw new IllegalArgumentException();
+        }
+        this.numberOfHypotheses = numberOfHypotheses;
+    }
+
+    /**
+     * Gets number of samples scored on each round before discarding half of the
+     * hypotheses.
+     *
+     * @return number of samples scored on each round.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets number of samples scored on each round before discarding half of the
+     * hypotheses.
+     *
+     * @param blockSize number of samples scored on each round.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if solver is locked.
+     */
+    public void setBlockSize(final int blockSize) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (blockSize < MIN_BLOCK_SIZE) {
+            throw new IllegalArgumentException();
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Finds coordinates of best hypothesis by scoring a fixed number of hypotheses on
+     * progressively larger blocks of samples.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null if not
+     *                                   available.
+     * @param coordinates                inhomogeneous coordinates of all known positions.
+     * @param threshold                  threshold to determine whether samples are
+     *                                   inliers or not.
+     * @param subsetSize                 number of samples used to generate each
+     *                                   hypothesis.
+     * @return coordinates of best hypothesis.
+     * @throws RobustEstimatorException if no hypothesis can be generated.
+     */
+    @Override
+    protected double[] findBestHypothesis(
+            final P[] positions, final double[] distances, final double[] distanceStandardDeviations,
+            final double[] coordinates, final double threshold, final int subsetSize)
+            throws RobustEstimatorException {
+        final var n = positions.length;
+        final var dims = getNumberOfDimensions();
+
+        // generate all hypotheses from random minimal subsets
+        final var hypotheses = new double[numberOfHypotheses * dims];
+        final var indices = new int[n];
+        var numValid = 0;
+        for (var h = 0; h < numberOfHypotheses; h++) {
+            shuffle(indices, subsetSize);
+            final var hypothesis = solveSubset(positions, distances, distanceStandardDeviations, indices,
+                    subsetSize);
+            if (hypothesis != null) {
+                System.arraycopy(hypothesis, 0, hypotheses, numValid * dims, dims);
+                numValid++;
+            }
+        }
+
+        if (numValid == 0) {
+            throw new RobustEstimatorException();
+        }
+
+        // score hypotheses on blocks of samples taken in random order, and keep the
+        // best half after each block
+        shuffle(indices, n);
+        final var costs = new double[numValid];
+        final var order = new int[numValid];
+        for (var h = 0; h < numValid; h++) {
+            order[h] = h;
+        }
+        final var squaredThreshold = threshold * threshold;
+        var alive = numValid;
+        var scored = 0;
+        while (scored < n && alive > 1) {
+            final var end = Math.min(scored + blockSize, n);
+            for (var k = 0; k < alive; k++) {
+                final var h = order[k];
+                for (var s = scored; s < end; s++) {
+                    final var i = indices[s];
+                    final var residual = residual(hypotheses, h, coordinates, i, distances[i], dims);
+                    costs[h] += Math.min(residual * residual, squaredThreshold);
+                }
+            }
+            scored = end;
+
+            sortByCost(order, alive, costs);
+            alive = Math.max(1, alive / 2);
+        }
+
+        final var best = order[0];
+        final var result = new double[dims];
+        System.arraycopy(hypotheses, best * dims, result, 0, dims);
+        return result;
+    }
+
+    /**
+     * Randomly selects the first elements of an array of indices.
+     * Array is reset to consecutive indices before selecting them.
+     *
+     * @param indices array of indices.
+     * @param count   number of elements to be selected.
+     */
+    private void shuffle(final int[] indices, final int count) {
+        for (var i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        for (var i = 0; i < count; i++) {
+            final var j = i + randomizer.nextInt(indices.length - i);
+            final var tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+        }
+    }
+
+    /**
+     * Sorts the first elements of an array of hypothesis indices by ascending cost.
+     *
+     * @param order  array of hypothesis indices.
+     * @param length number of elements to be sorted.
+     * @param costs  costs of hypotheses.
+     */
+    private static void sortByCost(final int[] order, final int length, final double[] costs) {
+        for (var i = 1; i < length; i++) {
+            final var h = order[i];
+            var j = i - 1;
+            while (j >= 0 && costs[order[j]] > costs[h]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = h;
+        }
+    }
+}
@@ -178,9 +178,36 @@ public class RANSACRobustRangingAndRssiPositionEstimator2D extends RobustRanging
      * @throws LockedException          if this estimator is locked.
      */
     public void setThreshold(final double threshold) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((RANSACRobustLateration2DSolver) laterationSolver).setThreshold(threshold);
     }
 
+    /**
+     * Gets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @return threshold of internal robust lateration solver.
+     */
+    @Override
+    protected double getRobustThreshold() {
+        return getThreshold();
+    }
+
+    /**
+     * Sets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not.
+     *
+     * @param threshold threshold to be set.
+     * @throws IllegalArgumentException if provided value is equal or less than zero.
+     * @throws LockedException          if this estimator is locked.
+     */
+    @Override
+    protected void setRobustThreshold(final double threshold) throws LockedException {
+        setThreshold(threshold);
+    }
+
     /**
      * Indicates whether inliers must be computed and kept.
      *
@@ -200,6 +227,9 @@ public class RANSACRobustRangingAndRssiPositionEstimator2D extends RobustRanging
      * @throws LockedException if this estimator is locked.
      */
     public void setComputeAndKeepInliersEnabled(final boolean computeAndKeepInliers) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((RANSACRobustLateration2DSolver) laterationSolver).setComputeAndKeepInliersEnabled(computeAndKeepInliers);
     }
 
@@ -221,9 +251,11 @@ public class RANSACRobustRangingAndRssiPositionEstimator2D extends RobustRanging
      * @throws LockedException if this estimator is locked.
      */
     public void setComputeAndKeepResidualsEnabled(final boolean computeAndKeepResiduals) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         ((RANSACRobustLateration2DSolver) laterationSolver).setComputeAndKeepResidualsEnabled(computeAndKeepResiduals);
     }
-
     /**
      * Returns method being used for robust estimation.
      *
@@ -235,9 +267,11 @@ public class RANSACRobustRangingAndRssiPositionEstimator2D extends RobustRanging
     }
 
     /**
-     * Initializes robust lateration solver.
+     * Initializes robust lateration solver, preemptive RANSAC solver and LO-RANSAC solver.
      */
     private void init() {
         laterationSolver = new RANSACRobustLateration2DSolver(trilaterationSolverListener);
+        preemptiveSolver = new PreemptiveRANSACLateration2DSolver();
+        localOptimizationSolver = new LORANSACLateration2DSolver();
     }
 }
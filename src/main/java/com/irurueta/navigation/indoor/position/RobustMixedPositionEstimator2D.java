@@ -82,6 +82,28 @@ public abstract class RobustMixedPositionEstimator2D extends RobustMixedPosition
         };
     }
 
+    /**
+     * Creates a robust 2D position estimator configured with provided shared
+     * configuration.
+     *
+     * @param config configuration to be set on created estimator.
+     * @return a robust 2D position estimator.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public static RobustMixedPositionEstimator2D create(final RobustPositionEstimatorConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var estimator = create(config.getRobustMethod());
+        try {
+            estimator.setConfig(config);
+        } catch (final LockedException ignore) {
+            // never happens
+        }
+        return estimator;
+    }
+
     /**
      * Creates a robust 2D position estimator.
      *
@@ -799,6 +821,17 @@ public abstract class RobustMixedPositionEstimator2D extends RobustMixedPosition
                 DEFAULT_ROBUST_METHOD);
     }
 
+    /**
+     * Creates a copy of provided position.
+     *
+     * @param position position to be copied.
+     * @return copy of provided position.
+     */
+    @Override
+    protected Point2D copyPosition(final Point2D position) {
+        return new InhomogeneousPoint2D(position);
+    }
+
     /**
      * Sets positions, distances and standard deviations of distances on internal
      * lateration solver.
@@ -73,6 +73,28 @@ public abstract class RobustMixedPositionEstimator3D extends RobustMixedPosition
         };
     }
 
+    /**
+     * Creates a robust 3D position estimator configured with provided shared
+     * configuration.
+     *
+     * @param config configuration to be set on created estimator.
+     * @return a robust 3D position estimator.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public static RobustMixedPositionEstimator3D create(final RobustPositionEstimatorConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var estimator = create(config.getRobustMethod());
+        try {
+            estimator.setConfig(config);
+        } catch (final LockedException ignore) {
+            // never happens
+        }
+        return estimator;
+    }
+
     /**
      * Creates a robust 3D position estimator.
      *
@@ -801,6 +823,17 @@ public abstract class RobustMixedPositionEstimator3D extends RobustMixedPosition
         return Point3D.POINT3D_HOMOGENEOUS_COORDINATES_LENGTH;
     }
 
+    /**
+     * Creates a copy of provided position.
+     *
+     * @param position position to be copied.
+     * @return copy of provided position.
+     */
+    @Override
+    protected Point3D copyPosition(final Point3D position) {
+        return new InhomogeneousPoint3D(position);
+    }
+
     /**
      * Sets positions, distances and standard deviations of distances on internal
      * lateration solver.
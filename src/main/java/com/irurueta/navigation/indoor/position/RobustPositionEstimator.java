@@ -20,9 +20,14 @@ import com.irurueta.geometry.Point;
 import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.PositionEstimationCache;
 import com.irurueta.navigation.indoor.RadioSource;
 import com.irurueta.navigation.indoor.RadioSourceLocated;
 import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.ReadingType;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.radiosource.LORANSACRobustEstimator;
 import com.irurueta.navigation.lateration.NonLinearLeastSquaresLaterationSolver;
 import com.irurueta.navigation.lateration.RobustLaterationSolver;
 import com.irurueta.navigation.lateration.RobustLaterationSolverListener;
@@ -79,12 +84,31 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      */
     protected List<? extends RadioSourceLocated<P>> sources;
 
+    /**
+     * Prepared model of located radio sources used for lateration.
+     * Model is built lazily from located radio sources when not provided.
+     */
+    protected VenueModel<P> venueModel;
+
+    /**
+     * Indicates whether located radio sources are being set from a provided venue
+     * model, so that such model is kept.
+     */
+    private boolean settingVenueModel;
+
     /**
      * Fingerprint containing readings at an unknown location for provided located
      * radio sources.
      */
     protected Fingerprint<? extends RadioSource, ? extends R> fingerprint;
 
+    /**
+     * Batch of readings at an unknown location for provided located radio sources,
+     * identified by their index within the venue model. When set, it is used instead
+     * of the fingerprint.
+     */
+    protected ReadingBatch readingBatch;
+
     /**
      * Indicates whether located radio source position covariances must be taken into
      * account (if available) to determine distance standard deviation.
@@ -123,6 +147,70 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      */
     protected int preliminarySubsetSize;
 
+    /**
+     * Sorter to evenly distribute readings among radio sources, which is reused
+     * between builds of positions and distances.
+     */
+    private IncrementalReadingSorter<P> readingSorter;
+
+    /**
+     * Quality scores of radio sources evenly distributed among readings, which are
+     * reused between builds of positions and distances so that provided quality scores
+     * are never modified.
+     */
+    private double[] distributedSourceQualityScores;
+
+    /**
+     * Quality scores of readings evenly distributed among radio sources, which are
+     * reused between builds of positions and distances so that provided quality scores
+     * are never modified.
+     */
+    private double[] distributedReadingsQualityScores;
+
+    /**
+     * Preemptive RANSAC solver, which is only available for RANSAC estimators.
+     */
+    protected PreemptiveRANSACLaterationSolver<P> preemptiveSolver;
+
+    /**
+     * Indicates whether preemptive RANSAC is used instead of the internal robust
+     * lateration solver.
+     */
+    protected boolean preemptive;
+
+    /**
+     * LO-RANSAC solver, which is only available for RANSAC estimators.
+     */
+    protected LORANSACLaterationSolver<P> localOptimizationSolver;
+
+    /**
+     * Indicates whether LO-RANSAC is used instead of the internal robust lateration
+     * solver.
+     */
+    protected boolean locallyOptimized;
+
+    /**
+     * Cache of estimations to reuse for fingerprints having the same signature, or null
+     * if estimations are not cached.
+     */
+    private PositionEstimationCache<P> cache;
+
+    /**
+     * Position reused from cache during last estimation or null if last estimation was
+     * not reused.
+     */
+    private P cachedPosition;
+
+    /**
+     * Covariance reused from cache during last estimation or null if not available.
+     */
+    private Matrix cachedCovariance;
+
+    /**
+     * Indicates whether an estimation is being reused from cache.
+     */
+    private boolean reusingCachedEstimation;
+
     /**
      * Constructor.
      */
@@ -165,6 +253,42 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         internalSetSources(sources);
     }
 
+    /**
+     * Gets prepared model of located radio sources used for lateration.
+     * If no model has been provided, it is built from current located radio sources.
+     * Model is built again each time located radio sources are set, hence if provided
+     * list of located radio sources is modified, it must be set again.
+     * A venue model can be shared among estimators using the same located radio sources
+     * so that radio sources of readings are found in constant time without indexing
+     * radio sources on each estimator.
+     *
+     * @return prepared model of located radio sources or null if no sources are available.
+     */
+    public VenueModel<P> getVenueModel() {
+        if (venueModel == null && sources != null) {
+            venueModel = new VenueModel<>(sources);
+        }
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources used for lateration.
+     * Located radio sources are replaced by the ones contained in provided model.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetVenueModel(venueModel);
+    }
+
     /**
      * Gets fingerprint containing readings at an unknown location for provided located
      * radio sources.
@@ -194,6 +318,35 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         internalSetFingerprint(fingerprint);
     }
 
+    /**
+     * Gets batch of readings at an unknown location for provided located radio
+     * sources.
+     *
+     * @return batch of readings or null if a fingerprint is used instead.
+     */
+    public ReadingBatch getReadingBatch() {
+        return readingBatch;
+    }
+
+    /**
+     * Sets batch of readings at an unknown location for provided located radio
+     * sources, identified by their index within the venue model.
+     * Readings are taken from provided batch instead of any previously set
+     * fingerprint. Provided batch is not copied, so it must be set again after being
+     * modified.
+     *
+     * @param readingBatch batch of readings at an unknown location.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    public void setReadingBatch(final ReadingBatch readingBatch) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetReadingBatch(readingBatch);
+    }
+
     /**
      * Gets listener to be notified of events raised by this instance.
      *
@@ -300,6 +453,44 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
     }
 
+    /**
+     * Gets cache of estimations to reuse for fingerprints having the same signature,
+     * which is typically the case of consecutive scans of stationary devices.
+     *
+     * @return cache of estimations or null if estimations are not cached.
+     */
+    public PositionEstimationCache<P> getCache() {
+        return cache;
+    }
+
+    /**
+     * Sets cache of estimations to reuse for fingerprints having the same signature,
+     * which is typically the case of consecutive scans of stationary devices.
+     * Estimations are only cached when a fingerprint is provided instead of a batch of
+     * readings. When an estimation is reused, no inliers data is available.
+     * A cache must only be shared among estimators having the same radio sources and
+     * configuration, hence provided cache is cleared whenever located radio sources,
+     * venue model or configuration are set.
+     *
+     * @param cache cache of estimations or null if estimations are not cached.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setCache(final PositionEstimationCache<P> cache) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.cache = cache;
+    }
+
+    /**
+     * Indicates whether last estimation was reused from cache.
+     *
+     * @return true if last estimation was reused from cache, false otherwise.
+     */
+    public boolean isEstimationCached() {
+        return cachedPosition != null;
+    }
+
     /**
      * Returns boolean indicating if estimator is locked because estimation is
      * under progress.
@@ -307,7 +498,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @return true if estimator is locked, false otherwise.
      */
     public boolean isLocked() {
-        return laterationSolver.isLocked();
+        return reusingCachedEstimation || laterationSolver.isLocked()
+                || (preemptiveSolver != null && preemptiveSolver.isLocked())
+                || (localOptimizationSolver != null && localOptimizationSolver.isLocked());
     }
 
     /**
@@ -332,6 +525,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      *                                  than 1.
      */
     public void setProgressDelta(final float progressDelta) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setProgressDelta(progressDelta);
     }
 
@@ -358,6 +554,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws IllegalArgumentException if provided value is not between 0.0 and 1.0.
      */
     public void setConfidence(final double confidence) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setConfidence(confidence);
     }
 
@@ -382,6 +581,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws IllegalArgumentException if provided value is less than 1.
      */
     public void setMaxIterations(final int maxIterations) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setMaxIterations(maxIterations);
     }
 
@@ -405,6 +607,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if this instance is locked.
      */
     public void setResultRefined(final boolean refineResult) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setResultRefined(refineResult);
     }
 
@@ -427,6 +632,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if this instance is locked.
      */
     public void setCovarianceKept(final boolean keepCovariance) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setCovarianceKept(keepCovariance);
     }
 
@@ -450,6 +658,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if this instance is locked.
      */
     public void setInitialPosition(final P initialPosition) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setInitialPosition(initialPosition);
     }
 
@@ -471,6 +682,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if this instance is locked.
      */
     public void setLinearSolverUsed(final boolean linearSolverUsed) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setLinearSolverUsed(linearSolverUsed);
     }
 
@@ -495,6 +709,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if estimator is locked.
      */
     public void setHomogeneousLinearSolverUsed(final boolean useHomogeneousLinearSolver) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setHomogeneousLinearSolverUsed(useHomogeneousLinearSolver);
     }
 
@@ -525,6 +742,9 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws LockedException if estimator is locked.
      */
     public void setPreliminarySolutionRefined(final boolean preliminarySolutionRefined) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
         laterationSolver.setPreliminarySolutionRefined(preliminarySolutionRefined);
     }
 
@@ -533,9 +753,17 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * Inlier data is related to the internal positions and distances used for
      * solving lateration.
      *
-     * @return data related to inliers found after estimation.
+     * @return data related to inliers found after estimation or null if last
+     * estimation was reused from cache.
      */
     public InliersData getInliersData() {
+        if (cachedPosition != null) {
+            return null;
+        }
+        final var solver = getSampleConsensusSolver();
+        if (solver != null) {
+            return solver.getInliersData();
+        }
         return laterationSolver.getInliersData();
     }
 
@@ -665,6 +893,65 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
     }
 
+    /**
+     * Gets an immutable snapshot of current configuration of this estimator, which can
+     * be safely shared among threads to configure other estimators.
+     *
+     * @return current configuration of this estimator.
+     */
+    public RobustPositionEstimatorConfig getConfig() {
+        final var method = getMethod();
+        final var robustThreshold = getRobustThreshold();
+        final var threshold = Double.isNaN(robustThreshold) ? null : robustThreshold;
+        final var stopThreshold = RobustPositionEstimatorConfig.usesStopThreshold(method);
+        return new RobustPositionEstimatorConfig(method, useRadioSourcePositionCovariance,
+                evenlyDistributeReadings, fallbackDistanceStandardDeviation, getProgressDelta(),
+                getConfidence(), getMaxIterations(), isResultRefined(), isCovarianceKept(),
+                isLinearSolverUsed(), isHomogeneousLinearSolverUsed(), isPreliminarySolutionRefined(),
+                preliminarySubsetSize, stopThreshold ? null : threshold, stopThreshold ? threshold : null);
+    }
+
+    /**
+     * Sets all configuration parameters of this estimator at once from provided
+     * configuration.
+     * If configuration has no threshold for the robust method of this estimator,
+     * current threshold is kept.
+     *
+     * @param config configuration to be set.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided configuration is null or its robust
+     *                                  method differs from the method of this estimator.
+     */
+    public void setConfig(final RobustPositionEstimatorConfig config) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (config == null || config.getRobustMethod() != getMethod()) {
+            throw new IllegalArgumentException();
+        }
+
+        laterationSolver.setProgressDelta(config.getProgressDelta());
+        laterationSolver.setConfidence(config.getConfidence());
+        laterationSolver.setMaxIterations(config.getMaxIterations());
+        laterationSolver.setResultRefined(config.isResultRefined());
+        laterationSolver.setCovarianceKept(config.isCovarianceKept());
+        laterationSolver.setLinearSolverUsed(config.isLinearSolverUsed());
+        laterationSolver.setHomogeneousLinearSolverUsed(config.isHomogeneousLinearSolverUsed());
+        laterationSolver.setPreliminarySolutionRefined(config.isPreliminarySolutionRefined());
+        final var threshold = config.getMethodThreshold();
+        if (threshold != null) {
+            setRobustThreshold(threshold);
+        }
+
+        useRadioSourcePositionCovariance = config.isRadioSourcePositionCovarianceUsed();
+        evenlyDistributeReadings = config.getEvenlyDistributeReadings();
+        fallbackDistanceStandardDeviation = config.getFallbackDistanceStandardDeviation();
+        preliminarySubsetSize = Math.max(config.getPreliminarySubsetSize(), getMinRequiredSources());
+        clearCache();
+
+        buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
+    }
+
     /**
      * Gets estimated covariance of estimated position if available.
      * This is only available when result has been refined and covariance is kept.
@@ -672,6 +959,13 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @return estimated covariance or null.
      */
     public Matrix getCovariance() {
+        if (cachedPosition != null) {
+            return cachedCovariance;
+        }
+        final var solver = getSampleConsensusSolver();
+        if (solver != null) {
+            return solver.getCovariance();
+        }
         return laterationSolver.getCovariance();
     }
 
@@ -681,6 +975,13 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @return estimated position.
      */
     public P getEstimatedPosition() {
+        if (cachedPosition != null) {
+            return cachedPosition;
+        }
+        final var solver = getSampleConsensusSolver();
+        if (solver != null) {
+            return solver.getEstimatedPosition();
+        }
         return laterationSolver.getEstimatedPosition();
     }
 
@@ -703,8 +1004,187 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      * @throws RobustEstimatorException if estimation fails for some other reason.
      */
     public P estimate() throws LockedException, NotReadyException, RobustEstimatorException {
-        laterationSolver.setPreliminarySubsetSize(preliminarySubsetSize);
-        return laterationSolver.solve();
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        cachedPosition = null;
+        cachedCovariance = null;
+
+        // reuse estimation of a previous fingerprint having the same signature
+        final var cacheUsed = cache != null && readingBatch == null && fingerprint != null;
+        if (cacheUsed) {
+            final var cached = cache.get(fingerprint);
+            if (cached != null) {
+                // listener is notified as if estimation was solved
+                reusingCachedEstimation = true;
+                try {
+                    trilaterationSolverListener.onSolveStart(laterationSolver);
+                    cachedPosition = copyPosition(cached.getPosition());
+                    cachedCovariance = cached.getCovariance() != null ? new Matrix(cached.getCovariance()) : null;
+                    trilaterationSolverListener.onSolveEnd(laterationSolver);
+                } finally {
+                    reusingCachedEstimation = false;
+                }
+                return cachedPosition;
+            }
+        }
+
+        final P result;
+        final var solver = getSampleConsensusSolver();
+        if (solver != null) {
+            result = estimateSampleConsensus(solver);
+        } else {
+            laterationSolver.setPreliminarySubsetSize(preliminarySubsetSize);
+            result = laterationSolver.solve();
+        }
+
+        if (cacheUsed && result != null) {
+            cache.put(fingerprint, result, getCovariance());
+        }
+        return result;
+    }
+
+    /**
+     * Indicates whether preemptive RANSAC is used instead of the internal robust
+     * lateration solver.
+     *
+     * @return true if preemptive RANSAC is used, false otherwise.
+     */
+    public boolean isPreemptive() {
+        return preemptive && preemptiveSolver != null;
+    }
+
+    /**
+     * Indicates whether LO-RANSAC is used instead of the internal robust lateration
+     * solver.
+     * When both preemptive RANSAC and LO-RANSAC are enabled, preemptive RANSAC is used.
+     *
+     * @return true if LO-RANSAC is used, false otherwise.
+     */
+    public boolean isLocallyOptimized() {
+        return locallyOptimized && localOptimizationSolver != null;
+    }
+
+    /**
+     * Specifies whether preemptive RANSAC is used instead of the internal robust
+     * lateration solver.
+     * Preemptive RANSAC evaluates a fixed number of hypotheses on progressively larger
+     * blocks of readings, discarding half of them after each block, so that estimation
+     * cost is bounded regardless of the amount of outliers.
+     * Only RANSAC estimators provide a preemptive RANSAC solver. Other estimators
+     * ignore this value.
+     *
+     * @param preemptive true to use preemptive RANSAC, false otherwise.
+     * @throws LockedException if this estimator is locked.
+     */
+    public void setPreemptive(final boolean preemptive) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.preemptive = preemptive;
+    }
+
+    /**
+     * Gets number of hypotheses generated when preemptive RANSAC is used.
+     *
+     * @return number of hypotheses generated when preemptive RANSAC is used.
+     */
+    public int getNumberOfHypotheses() {
+        return preemptiveSolver != null ? preemptiveSolver.getNumberOfHypotheses()
+                : PreemptiveRANSACLaterationSolver.DEFAULT_NUMBER_OF_HYPOTHESES;
+    }
+
+    /**
+     * Sets number of hypotheses generated when preemptive RANSAC is used.
+     * Estimators not providing a preemptive RANSAC solver ignore this value.
+     *
+     * @param numberOfHypotheses number of hypotheses generated when preemptive RANSAC
+     *                           is used.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if this estimator is locked.
+     */
+    public void setNumberOfHypotheses(final int numberOfHypotheses) throws LockedException {
+        if (preemptiveSolver != null) {
+            preemptiveSolver.setNumberOfHypotheses(numberOfHypotheses);
+        } else if (isLocked()) {
+            throw new LockedException();
+        }
+    }
+
+    /**
+     * Gets number of readings scored on each round of preemptive RANSAC before
+     * discarding half of the hypotheses.
+     *
+     * @return number of readings scored on each round.
+     */
+    public int getPreemptionBlockSize() {
+        return preemptiveSolver != null ? preemptiveSolver.getBlockSize()
+                : PreemptiveRANSACLaterationSolver.DEFAULT_BLOCK_SIZE;
+    }
+
+    /**
+     * Sets number of readings scored on each round of preemptive RANSAC before
+     * discarding half of the hypotheses.
+     * Estimators not providing a preemptive RANSAC solver ignore this value.
+     *
+     * @param blockSize number of readings scored on each round.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if this estimator is locked.
+     */
+    public void setPreemptionBlockSize(final int blockSize) throws LockedException {
+        if (preemptiveSolver != null) {
+            preemptiveSolver.setBlockSize(blockSize);
+        } else if (isLocked()) {
+            throw new LockedException();
+        }
+    }
+
+    /**
+     * Specifies whether locally optimized RANSAC (LO-RANSAC) is used instead of the
+     * internal robust lateration solver.
+     * LO-RANSAC estimates each new best hypothesis again using all of its inliers,
+     * so that fewer iterations are required for a given confidence.
+     * Only RANSAC estimators provide a LO-RANSAC solver. Other estimators ignore this
+     * value.
+     *
+     * @param locallyOptimized true to use LO-RANSAC, false otherwise.
+     * @throws LockedException if this estimator is locked.
+     */
+    public void setLocallyOptimized(final boolean locallyOptimized) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.locallyOptimized = locallyOptimized;
+    }
+
+    /**
+     * Gets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found when LO-RANSAC is used.
+     *
+     * @return maximum number of local optimization iterations.
+     */
+    public int getLocalOptimizationIterations() {
+        return localOptimizationSolver != null ? localOptimizationSolver.getLocalOptimizationIterations()
+                : LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS;
+    }
+
+    /**
+     * Sets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found when LO-RANSAC is used.
+     * Estimators not providing a LO-RANSAC solver ignore this value.
+     *
+     * @param localOptimizationIterations maximum number of local optimization
+     *                                    iterations.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if this estimator is locked.
+     */
+    public void setLocalOptimizationIterations(final int localOptimizationIterations) throws LockedException {
+        if (localOptimizationSolver != null) {
+            localOptimizationSolver.setLocalOptimizationIterations(localOptimizationIterations);
+        } else if (isLocked()) {
+            throw new LockedException();
+        }
     }
 
     /**
@@ -722,6 +1202,131 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
      */
     public abstract RobustEstimatorMethod getMethod();
 
+    /**
+     * Gets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not. For LMedS and PROMedS methods this is the stop threshold.
+     * By default, no threshold is exposed and NaN is returned, so that configurations
+     * taken from this estimator keep the default threshold of the robust method.
+     *
+     * @return threshold of internal robust lateration solver or NaN if not available.
+     */
+    protected double getRobustThreshold() {
+        return Double.NaN;
+    }
+
+    /**
+     * Sets threshold of internal robust lateration solver to determine when samples
+     * are inliers or not. For LMedS and PROMedS methods this is the stop threshold.
+     * By default, thresholds cannot be set and an exception is raised.
+     *
+     * @param threshold threshold to be set.
+     * @throws IllegalArgumentException      if provided value is equal or less than zero.
+     * @throws LockedException               if estimator is locked.
+     * @throws UnsupportedOperationException if this estimator does not support setting
+     *                                       a threshold.
+     */
+    protected void setRobustThreshold(final double threshold) throws LockedException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Creates a copy of provided position, so that positions reused from cache are
+     * never shared with the cache or with other estimators.
+     * By default, provided position is returned as it is, hence subclasses must
+     * override this method to return a new instance if cached positions must not be
+     * shared.
+     *
+     * @param position position to be copied.
+     * @return copy of provided position.
+     */
+    protected P copyPosition(final P position) {
+        return position;
+    }
+
+    /**
+     * Gets type of readings whose distances are used when readings are provided as a
+     * batch. By default, both ranging and RSSI distances are used.
+     *
+     * @return type of readings whose distances are used.
+     */
+    protected ReadingType getReadingType() {
+        return ReadingType.RANGING_AND_RSSI_READING;
+    }
+
+    /**
+     * Gets solver used instead of the internal robust lateration solver when either
+     * preemptive RANSAC or LO-RANSAC is enabled.
+     *
+     * @return solver to be used or null if the internal robust lateration solver is
+     * used.
+     */
+    private SampleConsensusLaterationSolver<P> getSampleConsensusSolver() {
+        if (isPreemptive()) {
+            return preemptiveSolver;
+        } else if (isLocallyOptimized()) {
+            return localOptimizationSolver;
+        }
+        return null;
+    }
+
+    /**
+     * Estimates position using preemptive RANSAC or LO-RANSAC on the positions and
+     * distances of the internal robust lateration solver.
+     *
+     * @param solver solver to be used.
+     * @return estimated position.
+     * @throws LockedException          if estimator is locked.
+     * @throws NotReadyException        if estimator is not ready.
+     * @throws RobustEstimatorException if no hypothesis can be generated.
+     */
+    private P estimateSampleConsensus(final SampleConsensusLaterationSolver<P> solver)
+            throws LockedException, NotReadyException, RobustEstimatorException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (!isReady()) {
+            throw new NotReadyException();
+        }
+
+        if (solver instanceof LORANSACLaterationSolver<P> loSolver) {
+            loSolver.setConfidence(getConfidence());
+            loSolver.setMaxIterations(getMaxIterations());
+        }
+        solver.setLinearSolverUsed(laterationSolver.isLinearSolverUsed());
+        solver.setHomogeneousLinearSolverUsed(laterationSolver.isHomogeneousLinearSolverUsed());
+        solver.setPreliminarySolutionRefined(laterationSolver.isPreliminarySolutionRefined());
+
+        final var threshold = getRobustThreshold();
+        trilaterationSolverListener.onSolveStart(laterationSolver);
+        try {
+            return solver.solve(laterationSolver.getPositions(), laterationSolver.getDistances(),
+                    laterationSolver.getDistanceStandardDeviations(), threshold, preliminarySubsetSize,
+                    laterationSolver.isResultRefined(), laterationSolver.isCovarianceKept());
+        } finally {
+            // listener is notified of the end of estimation even if it fails
+            trilaterationSolverListener.onSolveEnd(laterationSolver);
+        }
+    }
+
+    /**
+     * Clears cache of estimations, if any, since cached estimations are no longer valid
+     * when located radio sources or configuration change.
+     */
+    private void clearCache() {
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Gets sorter used to evenly distribute readings among radio sources.
+     *
+     * @return sorter or null if readings have not been distributed yet.
+     */
+    IncrementalReadingSorter<P> getReadingSorter() {
+        return readingSorter;
+    }
+
     /**
      * Internally sets located radio sources used for lateration.
      *
@@ -740,10 +1345,43 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         }
 
         this.sources = sources;
+        clearCache();
+        if (!settingVenueModel) {
+            // model is built again even if the same list is provided, since its
+            // located radio sources might have been modified
+            venueModel = null;
+        }
 
         buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
     }
 
+    /**
+     * Internally sets prepared model of located radio sources used for lateration.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    protected void internalSetVenueModel(final VenueModel<P> venueModel) {
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (venueModel.getNumberOfSources() < getMinRequiredSources()) {
+            throw new IllegalArgumentException();
+        }
+
+        // model is kept when setting its own sources
+        this.venueModel = venueModel;
+        settingVenueModel = true;
+        try {
+            internalSetSources(venueModel.getSources());
+        } finally {
+            settingVenueModel = false;
+        }
+    }
+
     /**
      * Internally sets fingerprint containing readings at an unknown location for
      * provided located radio sources.
@@ -758,6 +1396,25 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         }
 
         this.fingerprint = fingerprint;
+        readingBatch = null;
+
+        buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
+    }
+
+    /**
+     * Internally sets batch of readings at an unknown location for provided located
+     * radio sources.
+     *
+     * @param batch batch of readings at an unknown location.
+     * @throws IllegalArgumentException if provided value is null.
+     */
+    protected void internalSetReadingBatch(final ReadingBatch batch) {
+        if (batch == null) {
+            throw new IllegalArgumentException();
+        }
+
+        readingBatch = batch;
+        fingerprint = null;
 
         buildPositionsDistancesDistanceStandardDeviationsAndQualityScores();
     }
@@ -786,8 +1443,19 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         }
 
         final var min = getPreliminarySubsetSize();
-        if (sources == null || fingerprint == null || sources.size() < min || fingerprint.getReadings() == null
-                || fingerprint.getReadings().size() < min) {
+        if (sources == null || sources.size() < min) {
+            return;
+        }
+
+        final int numReadings;
+        if (readingBatch != null) {
+            numReadings = readingBatch.size();
+        } else if (fingerprint != null && fingerprint.getReadings() != null) {
+            numReadings = fingerprint.getReadings().size();
+        } else {
+            return;
+        }
+        if (numReadings < min) {
             return;
         }
 
@@ -799,51 +1467,62 @@ public abstract class RobustPositionEstimator<P extends Point<?>,
         var fingerprintReadingsQualityScores = getFingerprintReadingsQualityScores();
 
         if (evenlyDistributeReadings) {
-            // distribute evenly by modifying the relative values of quality scores
+            // distribute evenly by replacing quality scores with their relative order,
+            // which is stored in arrays owned by this estimator so that provided scores
+            // are kept for the next incremental sort
             if (sourceQualityScores == null) {
                 sourceQualityScores = new double[sources.size()];
             }
             if (fingerprintReadingsQualityScores == null) {
-                fingerprintReadingsQualityScores = new double[fingerprint.getReadings().size()];
+                fingerprintReadingsQualityScores = new double[numReadings];
             }
 
-            final var sorter = new ReadingSorter<P, R>(sources, fingerprint, sourceQualityScores,
-                    fingerprintReadingsQualityScores);
-            sorter.sort();
-
-            final var sortedSources = sorter.getSortedSourcesAndReadings();
-
-            var j = 0;
-            var k = 0;
-            boolean finished;
-            do {
-                var i = 0;
-                finished = true;
-                for (final var sortedSource : sortedSources) {
-                    sourceQualityScores[sortedSource.position] = i;
-                    i--;
-
-                    final var sortedReadings = sortedSource.readingsWithQualityScores;
-                    if (k < sortedReadings.size()) {
-                        finished = false;
-                        ReadingSorter.ReadingWithQualityScore<R> sortedReading = sortedReadings.get(k);
-
-                        fingerprintReadingsQualityScores[sortedReading.position] = j;
-                        j--;
-                    }
-                }
-                k++;
-            } while (!finished);
+            // sorter is kept so that only changed quality scores or readings are sorted
+            // again when positions are rebuilt for the same venue model and fingerprint
+            if (readingSorter == null) {
+                readingSorter = new IncrementalReadingSorter<>();
+            }
+            if (readingBatch != null) {
+                readingSorter.sort(getVenueModel(), readingBatch, sourceQualityScores,
+                        fingerprintReadingsQualityScores);
+            } else {
+                readingSorter.sort(getVenueModel(), fingerprint, sourceQualityScores,
+                        fingerprintReadingsQualityScores);
+            }
+
+            if (distributedSourceQualityScores == null
+                    || distributedSourceQualityScores.length != sourceQualityScores.length) {
+                distributedSourceQualityScores = new double[sourceQualityScores.length];
+            }
+            if (distributedReadingsQualityScores == null
+                    || distributedReadingsQualityScores.length != fingerprintReadingsQualityScores.length) {
+                distributedReadingsQualityScores = new double[fingerprintReadingsQualityScores.length];
+            }
+            // quality scores of readings of unknown radio sources are kept
+            System.arraycopy(fingerprintReadingsQualityScores, 0, distributedReadingsQualityScores, 0,
+                    fingerprintReadingsQualityScores.length);
+            readingSorter.distribute(distributedSourceQualityScores, distributedReadingsQualityScores);
+
+            sourceQualityScores = distributedSourceQualityScores;
+            fingerprintReadingsQualityScores = distributedReadingsQualityScores;
         }
 
         List<Double> distanceQualityScores = null;
         if (sourceQualityScores != null || fingerprintReadingsQualityScores != null) {
             distanceQualityScores = new ArrayList<>();
         }
-        PositionEstimatorHelper.buildPositionsDistancesDistanceStandardDeviationsAndQualityScores(
-                sources, fingerprint, sourceQualityScores, fingerprintReadingsQualityScores,
-                isRadioSourcePositionCovarianceUsed(), getFallbackDistanceStandardDeviation(), positions, distances,
-                distanceStandardDeviations, distanceQualityScores);
+        if (readingBatch != null) {
+            PositionEstimatorHelper.buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromBatch(
+                    getVenueModel(), readingBatch, getReadingType(), sourceQualityScores,
+                    fingerprintReadingsQualityScores, isRadioSourcePositionCovarianceUsed(),
+                    getFallbackDistanceStandardDeviation(), positions, distances, distanceStandardDeviations,
+                    distanceQualityScores);
+        } else {
+            PositionEstimatorHelper.buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromModel(
+                    getVenueModel(), fingerprint, sourceQualityScores, fingerprintReadingsQualityScores,
+                    isRadioSourcePositionCovarianceUsed(), getFallbackDistanceStandardDeviation(), positions,
+                    distances, distanceStandardDeviations, distanceQualityScores);
+        }
 
         setPositionsDistancesDistanceStandardDeviationsAndQualityScores(positions, distances,
                 distanceStandardDeviations, distanceQualityScores);
@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.navigation.lateration.RobustLaterationSolver;
+import com.irurueta.numerical.robust.RobustEstimatorMethod;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable configuration of robust position estimators.
+ * A configuration contains all the parameters of a robust position estimator that do
+ * not depend on the data being estimated (robust method, thresholds, confidence,
+ * flags, etc.), so that it can be safely shared among threads.
+ * Each thread must use its own estimator instance, which can be cheaply created for
+ * each estimation from a shared configuration by calling
+ * {@link RobustPositionEstimator#setConfig(RobustPositionEstimatorConfig)} or any of
+ * the create methods taking a configuration.
+ * A configuration can be obtained with default values or by taking a snapshot of an
+ * already configured estimator by calling {@link RobustPositionEstimator#getConfig()}.
+ */
+public final class RobustPositionEstimatorConfig implements Serializable {
+
+    /**
+     * Default configuration.
+     */
+    public static final RobustPositionEstimatorConfig DEFAULT = new RobustPositionEstimatorConfig();
+
+    /**
+     * Robust estimator method.
+     */
+    private final RobustEstimatorMethod robustMethod;
+
+    /**
+     * Indicates whether located radio source position covariance must be taken into
+     * account (if available) to determine distance standard deviation.
+     */
+    private final boolean useRadioSourcePositionCovariance;
+
+    /**
+     * Indicates whether readings are evenly distributed among radio sources taking
+     * into account quality scores of both radio sources and readings.
+     */
+    private final boolean evenlyDistributeReadings;
+
+    /**
+     * Distance standard deviation fallback value to use when none can be determined
+     * from provided radio sources and fingerprint readings.
+     */
+    private final double fallbackDistanceStandardDeviation;
+
+    /**
+     * Amount of progress variation before notifying a progress change during estimation.
+     */
+    private final float progressDelta;
+
+    /**
+     * Amount of confidence expressed as a value between 0.0 and 1.0.
+     */
+    private final double confidence;
+
+    /**
+     * Maximum allowed number of iterations.
+     */
+    private final int maxIterations;
+
+    /**
+     * Indicates whether result must be refined using a non-linear estimator over found
+     * inliers.
+     */
+    private final boolean refineResult;
+
+    /**
+     * Indicates whether covariance must be kept after refining result.
+     */
+    private final boolean keepCovariance;
+
+    /**
+     * Indicates whether a linear solver is used or not for preliminary solutions.
+     */
+    private final boolean useLinearSolver;
+
+    /**
+     * Indicates whether an homogeneous linear solver is used either to estimate
+     * preliminary solutions or an initial solution for preliminary solutions that will
+     * be later refined.
+     */
+    private final boolean useHomogeneousLinearSolver;
+
+    /**
+     * Indicates whether preliminary solutions must be refined after an initial linear
+     * solution is found.
+     */
+    private final boolean refinePreliminarySolutions;
+
+    /**
+     * Size of subsets to be checked during robust estimation.
+     * If less than the minimum number of required sources of an estimator, such
+     * minimum is used instead.
+     */
+    private final int preliminarySubsetSize;
+
+    /**
+     * Threshold to determine when samples are inliers or not. Only used by RANSAC,
+     * MSAC and PROSAC methods.
+     * If not defined, default threshold of each method will be used.
+     */
+    private final Double threshold;
+
+    /**
+     * Threshold to stop estimation as soon as the median of residuals is below it.
+     * Only used by LMedS and PROMedS methods.
+     * If not defined, default stop threshold of each method will be used.
+     */
+    private final Double stopThreshold;
+
+    /**
+     * Constructor with default values.
+     */
+    public RobustPositionEstimatorConfig() {
+        this(RobustPositionEstimator.DEFAULT_ROBUST_METHOD);
+    }
+
+    /**
+     * Constructor with default values for provided robust method.
+     *
+     * @param robustMethod robust estimator method.
+     * @throws IllegalArgumentException if provided method is null.
+     */
+    public RobustPositionEstimatorConfig(final RobustEstimatorMethod robustMethod) {
+        this(robustMethod, RobustPositionEstimator.DEFAULT_USE_RADIO_SOURCE_POSITION_COVARIANCE,
+                RobustPositionEstimator.DEFAULT_EVENLY_DISTRIBUTE_READINGS,
+                RobustPositionEstimator.FALLBACK_DISTANCE_STANDARD_DEVIATION,
+                RobustLaterationSolver.DEFAULT_PROGRESS_DELTA, RobustLaterationSolver.DEFAULT_CONFIDENCE,
+                RobustLaterationSolver.DEFAULT_MAX_ITERATIONS, RobustLaterationSolver.DEFAULT_REFINE_RESULT,
+                RobustLaterationSolver.DEFAULT_KEEP_COVARIANCE, RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER,
+                RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER,
+                RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS, 0, null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param robustMethod                      robust estimator method.
+     * @param useRadioSourcePositionCovariance  true to take radio source position
+     *                                          covariance into account, false otherwise.
+     * @param evenlyDistributeReadings          true if readings are evenly distributed,
+     *                                          false otherwise.
+     * @param fallbackDistanceStandardDeviation distance standard deviation to use as
+     *                                          fallback.
+     * @param progressDelta                     amount of progress variation before
+     *                                          notifying a progress change during
+     *                                          estimation.
+     * @param confidence                        confidence as a value between 0.0 and 1.0.
+     * @param maxIterations                     maximum allowed number of iterations.
+     * @param refineResult                      true to refine result, false otherwise.
+     * @param keepCovariance                    true if covariance must be kept after
+     *                                          refining result, false otherwise.
+     * @param useLinearSolver                   true if a linear solver is used, false
+     *                                          otherwise.
+     * @param useHomogeneousLinearSolver        true if homogeneous linear solver is used,
+     *                                          false otherwise.
+     * @param refinePreliminarySolutions        true if preliminary solutions must be
+     *                                          refined, false otherwise.
+     * @param preliminarySubsetSize             size of subsets to be checked during
+     *                                          robust estimation or zero to use the
+     *                                          minimum required number of sources.
+     * @param threshold                         threshold to determine when samples are
+     *                                          inliers or not for RANSAC, MSAC and PROSAC
+     *                                          methods, or null to use default threshold.
+     * @param stopThreshold                     stop threshold for LMedS and PROMedS
+     *                                          methods, or null to use default stop
+     *                                          threshold.
+     * @throws IllegalArgumentException if robust method is null, progress delta or
+     *                                  confidence are not between 0.0 and 1.0, maximum
+     *                                  number of iterations is less than 1, preliminary
+     *                                  subset size is negative, any threshold is not
+     *                                  positive or a threshold is provided for a robust
+     *                                  method not using it.
+     */
+    public RobustPositionEstimatorConfig(
+            final RobustEstimatorMethod robustMethod, final boolean useRadioSourcePositionCovariance,
+            final boolean evenlyDistributeReadings, final double fallbackDistanceStandardDeviation,
+            final float progressDelta, final double confidence, final int maxIterations,
+            final boolean refineResult, final boolean keepCovariance, final boolean useLinearSolver,
+            final boolean useHomogeneousLinearSolver, final boolean refinePreliminarySolutions,
+            final int preliminarySubsetSize, final Double threshold, final Double stopThreshold) {
+        if (robustMethod == null) {
+            throw new IllegalArgumentException();
+        }
+        if (progressDelta < 0.0f || progressDelta > 1.0f) {
+            throw new IllegalArgumentException();
+        }
+        if (confidence < 0.0 || confidence > 1.0) {
+            throw new IllegalArgumentException();
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException();
+        }
+        if (preliminarySubsetSize < 0) {
+            throw new IllegalArgumentException();
+        }
+        if (threshold != null && (threshold <= 0.0 || usesStopThreshold(robustMethod))) {
+            throw new IllegalArgumentException();
+        }
+        if (stopThreshold != null && (stopThreshold <= 0.0 || !usesStopThreshold(robustMethod))) {
+            throw new IllegalArgumentException();
+        }
+
+        this.robustMethod = robustMethod;
+        this.useRadioSourcePositionCovariance = useRadioSourcePositionCovariance;
+        this.evenlyDistributeReadings = evenlyDistributeReadings;
+        this.fallbackDistanceStandardDeviation = fallbackDistanceStandardDeviation;
+        this.progressDelta = progressDelta;
+        this.confidence = confidence;
+        this.maxIterations = maxIterations;
+        this.refineResult = refineResult;
+        this.keepCovariance = keepCovariance;
+        this.useLinearSolver = useLinearSolver;
+        this.useHomogeneousLinearSolver = useHomogeneousLinearSolver;
+        this.refinePreliminarySolutions = refinePreliminarySolutions;
+        this.preliminarySubsetSize = preliminarySubsetSize;
+        this.threshold = threshold;
+        this.stopThreshold = stopThreshold;
+    }
+
+    /**
+     * Gets robust estimator method.
+     *
+     * @return robust estimator method.
+     */
+    public RobustEstimatorMethod getRobustMethod() {
+        return robustMethod;
+    }
+
+    /**
+     * Indicates whether located radio source position covariance must be taken into
+     * account (if available) to determine distance standard deviation.
+     *
+     * @return true to take radio source position covariance into account, false
+     * otherwise.
+     */
+    public boolean isRadioSourcePositionCovarianceUsed() {
+        return useRadioSourcePositionCovariance;
+    }
+
+    /**
+     * Indicates whether readings are evenly distributed among radio sources taking
+     * into account quality scores of both radio sources and readings.
+     *
+     * @return true if readings are evenly distributed, false otherwise.
+     */
+    public boolean getEvenlyDistributeReadings() {
+        return evenlyDistributeReadings;
+    }
+
+    /**
+     * Gets distance standard deviation fallback value to use when none can be
+     * determined from provided radio sources and fingerprint readings.
+     *
+     * @return distance standard deviation to use as fallback.
+     */
+    public double getFallbackDistanceStandardDeviation() {
+        return fallbackDistanceStandardDeviation;
+    }
+
+    /**
+     * Returns amount of progress variation before notifying a progress change during
+     * estimation.
+     *
+     * @return amount of progress variation before notifying a progress change during
+     * estimation.
+     */
+    public float getProgressDelta() {
+        return progressDelta;
+    }
+
+    /**
+     * Returns amount of confidence expressed as a value between 0.0 and 1.0 (which is
+     * equivalent to 100%).
+     *
+     * @return amount of confidence as a value between 0.0 and 1.0.
+     */
+    public double getConfidence() {
+        return confidence;
+    }
+
+    /**
+     * Returns maximum allowed number of iterations.
+     *
+     * @return maximum allowed number of iterations.
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Indicates whether result must be refined using a non-linear estimator over found
+     * inliers.
+     *
+     * @return true to refine result, false otherwise.
+     */
+    public boolean isResultRefined() {
+        return refineResult;
+    }
+
+    /**
+     * Indicates whether covariance must be kept after refining result.
+     *
+     * @return true if covariance must be kept after refining result, false otherwise.
+     */
+    public boolean isCovarianceKept() {
+        return keepCovariance;
+    }
+
+    /**
+     * Indicates whether a linear solver is used or not (either homogeneous or
+     * inhomogeneous) for preliminary solutions.
+     *
+     * @return true if a linear solver is used, false otherwise.
+     */
+    public boolean isLinearSolverUsed() {
+        return useLinearSolver;
+    }
+
+    /**
+     * Indicates whether an homogeneous linear solver is used either to estimate
+     * preliminary solutions or an initial solution for preliminary solutions that will
+     * be later refined.
+     *
+     * @return true if homogeneous linear solver is used, false otherwise.
+     */
+    public boolean isHomogeneousLinearSolverUsed() {
+        return useHomogeneousLinearSolver;
+    }
+
+    /**
+     * Indicates whether preliminary solutions must be refined after an initial linear
+     * solution is found.
+     *
+     * @return true if preliminary solutions must be refined, false otherwise.
+     */
+    public boolean isPreliminarySolutionRefined() {
+        return refinePreliminarySolutions;
+    }
+
+    /**
+     * Gets size of subsets to be checked during robust estimation.
+     * If less than the minimum number of required sources of an estimator, such
+     * minimum is used instead.
+     *
+     * @return size of subsets to be checked during robust estimation.
+     */
+    public int getPreliminarySubsetSize() {
+        return preliminarySubsetSize;
+    }
+
+    /**
+     * Gets threshold to determine when samples are inliers or not. Only used by RANSAC,
+     * MSAC and PROSAC methods.
+     * If not defined, default threshold of robust method will be used.
+     *
+     * @return threshold or null.
+     */
+    public Double getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Gets threshold to stop estimation as soon as the median of residuals is below it.
+     * Only used by LMedS and PROMedS methods.
+     * If not defined, default stop threshold of robust method will be used.
+     *
+     * @return stop threshold or null.
+     */
+    public Double getStopThreshold() {
+        return stopThreshold;
+    }
+
+    /**
+     * Gets threshold to be applied to estimators using robust method of this
+     * configuration, which is either the inlier threshold or the stop threshold
+     * depending on the method.
+     *
+     * @return threshold of robust method or null.
+     */
+    Double getMethodThreshold() {
+        return usesStopThreshold(robustMethod) ? stopThreshold : threshold;
+    }
+
+    /**
+     * Checks whether provided object is equal to this configuration.
+     *
+     * @param o object to be compared.
+     * @return true if both objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RobustPositionEstimatorConfig other)) {
+            return false;
+        }
+        return robustMethod == other.robustMethod
+                && useRadioSourcePositionCovariance == other.useRadioSourcePositionCovariance
+                && evenlyDistributeReadings == other.evenlyDistributeReadings
+                && Double.compare(fallbackDistanceStandardDeviation, other.fallbackDistanceStandardDeviation) == 0
+                && Float.compare(progressDelta, other.progressDelta) == 0
+                && Double.compare(confidence, other.confidence) == 0
+                && maxIterations == other.maxIterations
+                && refineResult == other.refineResult
+                && keepCovariance == other.keepCovariance
+                && useLinearSolver == other.useLinearSolver
+                && useHomogeneousLinearSolver == other.useHomogeneousLinearSolver
+                && refinePreliminarySolutions == other.refinePreliminarySolutions
+                && preliminarySubsetSize == other.preliminarySubsetSize
+                && Objects.equals(threshold, other.threshold)
+                && Objects.equals(stopThreshold, other.stopThreshold);
+    }
+
+    /**
+     * Computes hash code of this configuration.
+     *
+     * @return hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(robustMethod, useRadioSourcePositionCovariance, evenlyDistributeReadings,
+                fallbackDistanceStandardDeviation, progressDelta, confidence, maxIterations, refineResult,
+                keepCovariance, useLinearSolver, useHomogeneousLinearSolver, refinePreliminarySolutions,
+                preliminarySubsetSize, threshold, stopThreshold);
+    }
+
+    /**
+     * Indicates whether provided robust method uses a stop threshold instead of an
+     * inlier threshold.
+     *
+     * @param robustMethod robust estimator method.
+     * @return true if method uses a stop threshold, false otherwise.
+     */
+    static boolean usesStopThreshold(final RobustEstimatorMethod robustMethod) {
+        return robustMethod == RobustEstimatorMethod.LMEDS || robustMethod == RobustEstimatorMethod.PROMEDS;
+    }
+}
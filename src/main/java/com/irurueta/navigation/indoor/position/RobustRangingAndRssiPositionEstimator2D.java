@@ -84,6 +84,28 @@ public abstract class RobustRangingAndRssiPositionEstimator2D extends RobustRang
         };
     }
 
+    /**
+     * Creates a robust 2D position estimator configured with provided shared
+     * configuration.
+     *
+     * @param config configuration to be set on created estimator.
+     * @return a robust 2D position estimator.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public static RobustRangingAndRssiPositionEstimator2D create(final RobustPositionEstimatorConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        final var estimator = create(config.getRobustMethod());
+        try {
+            estimator.setConfig(config);
+        } catch (final LockedException ignore) {
+            // never happens
+        }
+        return estimator;
+    }
+
     /**
      * Creates a robust 2D position estimator.
      *
@@ -824,6 +846,17 @@ public abstract class RobustRangingAndRssiPositionEstimator2D extends RobustRang
                 DEFAULT_ROBUST_METHOD);
     }
 
+    /**
+     * Creates a copy of provided position.
+     *
+     * @param position position to be copied.
+     * @return copy of provided position.
+     */
+    @Override
+    protected Point2D copyPosition(final Point2D position) {
+        return new InhomogeneousPoint2D(position);
+    }
+
     /**
      * Sets positions, distances and standard deviations of distances on internal
      * lateration solver.
@@ -17,6 +17,7 @@ package com.irurueta.navigation.indoor.position;
 
 import com.irurueta.geometry.Point;
 import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.ReadingType;
 import com.irurueta.navigation.indoor.RssiReading;
 import com.irurueta.navigation.lateration.RobustLaterationSolver;
 import com.irurueta.navigation.lateration.RobustLaterationSolverListener;
@@ -53,6 +54,17 @@ public abstract class RobustRssiPositionEstimator<P extends Point<?>> extends Ro
         init();
     }
 
+    /**
+     * Gets type of readings whose distances are used when readings are provided as a
+     * batch. Only RSSI distances are used.
+     *
+     * @return type of readings whose distances are used.
+     */
+    @Override
+    protected ReadingType getReadingType() {
+        return ReadingType.RSSI_READING;
+    }
+
     /**
      * Initializes robust lateration solver listener.
      */
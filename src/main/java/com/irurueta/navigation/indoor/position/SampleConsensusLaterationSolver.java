@@ -0,0 +1,534 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.Point;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.lateration.HomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.InhomogeneousLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.LaterationException;
+import com.irurueta.navigation.lateration.LaterationSolver;
+import com.irurueta.navigation.lateration.NonLinearLeastSquaresLaterationSolver;
+import com.irurueta.navigation.lateration.RobustLaterationSolver;
+import com.irurueta.numerical.robust.InliersData;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Base class for variants of RANSAC to robustly solve lateration that are implemented
+ * on top of non-robust lateration solvers.
+ * Hypotheses are generated by solving subsets of positions and distances with either
+ * an inhomogeneous or a homogeneous linear solver, optionally refined with a
+ * non-linear solver, or only with a non-linear solver if no linear solver is used.
+ * Once the best hypothesis is found by an implementation, its inliers are found and
+ * it is optionally refined using all of its inliers with a non-linear solver.
+ *
+ * @param <P> a {@link Point} type.
+ */
+public abstract class SampleConsensusLaterationSolver<P extends Point<?>> {
+
+    /**
+     * Inhomogeneous linear solver used to generate hypotheses from subsets.
+     */
+    private final InhomogeneousLinearLeastSquaresLaterationSolver<P> linearSolver;
+
+    /**
+     * Homogeneous linear solver used to generate hypotheses from subsets.
+     */
+    private final HomogeneousLinearLeastSquaresLaterationSolver<P> homogeneousLinearSolver;
+
+    /**
+     * Non-linear solver used to refine hypotheses and the best hypothesis using its
+     * inliers.
+     */
+    private final NonLinearLeastSquaresLaterationSolver<P> nonLinearSolver;
+
+    /**
+     * Indicates whether a linear solver is used to generate hypotheses.
+     */
+    private boolean useLinearSolver = RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER;
+
+    /**
+     * Indicates whether the homogeneous linear solver is used instead of the
+     * inhomogeneous one to generate hypotheses.
+     */
+    private boolean useHomogeneousLinearSolver = RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER;
+
+    /**
+     * Indicates whether hypotheses obtained with a linear solver are refined with the
+     * non-linear solver.
+     */
+    private boolean refinePreliminarySolutions = RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS;
+
+    /**
+     * Indicates whether solver is locked because estimation is in progress.
+     */
+    private boolean locked;
+
+    /**
+     * Estimated position.
+     */
+    private P estimatedPosition;
+
+    /**
+     * Covariance of estimated position or null if not available.
+     */
+    private Matrix covariance;
+
+    /**
+     * Data related to inliers of estimated position.
+     */
+    private SampleConsensusInliersData inliersData;
+
+    /**
+     * Constructor.
+     *
+     * @param linearSolver            inhomogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param homogeneousLinearSolver homogeneous linear solver used to generate
+     *                                hypotheses.
+     * @param nonLinearSolver         non-linear solver used to refine hypotheses.
+     */
+    protected SampleConsensusLaterationSolver(
+            final InhomogeneousLinearLeastSquaresLaterationSolver<P> linearSolver,
+            final HomogeneousLinearLeastSquaresLaterationSolver<P> homogeneousLinearSolver,
+            final NonLinearLeastSquaresLaterationSolver<P> nonLinearSolver) {
+        this.linearSolver = linearSolver;
+        this.homogeneousLinearSolver = homogeneousLinearSolver;
+        this.nonLinearSolver = nonLinearSolver;
+    }
+
+    /**
+     * Indicates whether solver is locked because estimation is in progress.
+     *
+     * @return true if solver is locked, false otherwise.
+     */
+    public boolean isLocked() {
+        return locked;
+    }
+
+    /**
+     * Indicates whether a linear solver is used to generate hypotheses. If not, hypotheses
+     * are obtained with the non-linear solver starting at the centroid of each subset.
+     *
+     * @return true if a linear solver is used, false otherwise.
+     */
+    public boolean isLinearSolverUsed() {
+        return useLinearSolver;
+    }
+
+    /**
+     * Specifies whether a linear solver is used to generate hypotheses. If not,
+     * hypotheses are obtained with the non-linear solver starting at the centroid of
+     * each subset.
+     *
+     * @param linearSolverUsed true if a linear solver is used, false otherwise.
+     * @throws LockedException if solver is locked.
+     */
+    public void setLinearSolverUsed(final boolean linearSolverUsed) throws LockedException {
+        if (locked) {
+            throw new LockedException();
+        }
+        useLinearSolver = linearSolverUsed;
+    }
+
+    /**
+     * Indicates whether the homogeneous linear solver is used instead of the
+     * inhomogeneous one to generate hypotheses when a linear solver is used.
+     *
+     * @return true if homogeneous linear solver is used, false otherwise.
+     */
+    public boolean isHomogeneousLinearSolverUsed() {
+        return useHomogeneousLinearSolver;
+    }
+
+    /**
+     * Specifies whether the homogeneous linear solver is used instead of the
+     * inhomogeneous one to generate hypotheses when a linear solver is used.
+     *
+     * @param useHomogeneousLinearSolver true if homogeneous linear solver is used, false
+     *                                   otherwise.
+     * @throws LockedException if solver is locked.
+     */
+    public void setHomogeneousLinearSolverUsed(final boolean useHomogeneousLinearSolver) throws LockedException {
+        if (locked) {
+            throw new LockedException();
+        }
+        this.useHomogeneousLinearSolver = useHomogeneousLinearSolver;
+    }
+
+    /**
+     * Indicates whether hypotheses obtained with a linear solver are refined with the
+     * non-linear solver.
+     *
+     * @return true if hypotheses are refined, false otherwise.
+     */
+    public boolean isPreliminarySolutionRefined() {
+        return refinePreliminarySolutions;
+    }
+
+    /**
+     * Specifies whether hypotheses obtained with a linear solver are refined with the
+     * non-linear solver.
+     *
+     * @param preliminarySolutionRefined true if hypotheses are refined, false otherwise.
+     * @throws LockedException if solver is locked.
+     */
+    public void setPreliminarySolutionRefined(final boolean preliminarySolutionRefined) throws LockedException {
+        if (locked) {
+            throw new LockedException();
+        }
+        refinePreliminarySolutions = preliminarySolutionRefined;
+    }
+
+    /**
+     * Gets estimated position.
+     *
+     * @return estimated position or null if not available.
+     */
+    public P getEstimatedPosition() {
+        return estimatedPosition;
+    }
+
+    /**
+     * Gets covariance of estimated position.
+     *
+     * @return covariance of estimated position or null if not available.
+     */
+    public Matrix getCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Gets data related to inliers found after estimation.
+     *
+     * @return data related to inliers or null if not available.
+     */
+    public InliersData getInliersData() {
+        return inliersData;
+    }
+
+    /**
+     * Gets number of dimensions of estimated positions.
+     *
+     * @return number of dimensions of estimated positions.
+     */
+    public int getNumberOfDimensions() {
+        return linearSolver.getNumberOfDimensions();
+    }
+
+    /**
+     * Gets minimum number of positions and distances required to generate a
+     * hypothesis.
+     *
+     * @return minimum number of positions and distances.
+     */
+    public int getMinRequiredPositionsAndDistances() {
+        return linearSolver.getMinRequiredPositionsAndDistances();
+    }
+
+    /**
+     * Solves lateration.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null if not
+     *                                   available.
+     * @param threshold                  threshold to determine whether samples are
+     *                                   inliers or not.
+     * @param subsetSize                 number of samples used to generate each
+     *                                   hypothesis.
+     * @param refineResult               true if best hypothesis must be refined using its
+     *                                   inliers.
+     * @param keepCovariance             true if covariance of refined position must be
+     *                                   kept.
+     * @return estimated position.
+     * @throws IllegalArgumentException if threshold is zero or negative or subset size
+     *                                  is less than the required minimum.
+     * @throws LockedException          if solver is locked.
+     * @throws NotReadyException        if not enough positions and distances are
+     *                                  provided.
+     * @throws RobustEstimatorException if no hypothesis can be generated.
+     */
+    public P solve(final P[] positions, final double[] distances, final double[] distanceStandardDeviations,
+                   final double threshold, final int subsetSize, final boolean refineResult,
+                   final boolean keepCovariance) throws LockedException, NotReadyException, RobustEstimatorException {
+        if (locked) {
+            throw new LockedException();
+        }
+        if (threshold <= 0.0 || subsetSize < getMinRequiredPositionsAndDistances()) {
+            throw new IllegalArgumentException();
+        }
+        if (positions == null || distances == null || positions.length != distances.length
+                || positions.length < subsetSize) {
+            throw new NotReadyException();
+        }
+
+        try {
+            locked = true;
+            estimatedPosition = null;
+            covariance = null;
+            inliersData = null;
+
+            final var n = positions.length;
+            final var dims = getNumberOfDimensions();
+            final var coordinates = new double[n * dims];
+            for (var i = 0; i < n; i++) {
+                for (var j = 0; j < dims; j++) {
+                    coordinates[i * dims + j] = positions[i].getInhomogeneousCoordinate(j);
+                }
+            }
+
+            final var bestCoordinates = findBestHypothesis(positions, distances, distanceStandardDeviations,
+                    coordinates, threshold, subsetSize);
+
+            // find inliers of best hypothesis among all samples
+            final var inliers = new BitSet(n);
+            final var residuals = new double[n];
+            var numInliers = 0;
+            for (var i = 0; i < n; i++) {
+                residuals[i] = residual(bestCoordinates, 0, coordinates, i, distances[i], dims);
+                if (residuals[i] <= threshold) {
+                    inliers.set(i);
+                    numInliers++;
+                }
+            }
+            inliersData = new SampleConsensusInliersData(inliers, residuals, numInliers);
+
+            estimatedPosition = createPosition(bestCoordinates);
+            if (refineResult && numInliers >= nonLinearSolver.getMinRequiredPositionsAndDistances()) {
+                refine(positions, distances, distanceStandardDeviations, inliers, numInliers, keepCovariance);
+            }
+
+            return estimatedPosition;
+        } finally {
+            locked = false;
+        }
+    }
+
+    /**
+     * Finds coordinates of best hypothesis.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null if not
+     *                                   available.
+     * @param coordinates                inhomogeneous coordinates of all known positions.
+     * @param threshold                  threshold to determine whether samples are
+     *                                   inliers or not.
+     * @param subsetSize                 number of samples used to generate each
+     *                                   hypothesis.
+     * @return coordinates of best hypothesis.
+     * @throws RobustEstimatorException if no hypothesis can be generated.
+     */
+    protected abstract double[] findBestHypothesis(
+            final P[] positions, final double[] distances, final double[] distanceStandardDeviations,
+            final double[] coordinates, final double threshold, final int subsetSize)
+            throws RobustEstimatorException;
+
+    /**
+     * Creates a position from its inhomogeneous coordinates.
+     *
+     * @param coordinates inhomogeneous coordinates.
+     * @return a position.
+     */
+    protected abstract P createPosition(final double[] coordinates);
+
+    /**
+     * Solves a subset of positions and distances.
+     * If a linear solver is used, subset is solved with either the inhomogeneous or the
+     * homogeneous linear solver, and the solution is optionally refined with the
+     * non-linear solver. Otherwise, subset is solved with the non-linear solver starting
+     * at the centroid of the positions in the subset.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null if not
+     *                                   available.
+     * @param indices                    indices of samples in the subset.
+     * @param count                      number of samples in the subset.
+     * @return coordinates of solved position or null if subset is degenerate.
+     */
+    protected double[] solveSubset(final P[] positions, final double[] distances,
+                                   final double[] distanceStandardDeviations, final int[] indices,
+                                   final int count) {
+        final var dims = getNumberOfDimensions();
+        final var subsetPositions = Arrays.copyOf(positions, count);
+        final var subsetDistances = new double[count];
+        for (var k = 0; k < count; k++) {
+            subsetPositions[k] = positions[indices[k]];
+            subsetDistances[k] = distances[indices[k]];
+        }
+
+        double[] solution = null;
+        if (useLinearSolver) {
+            final LaterationSolver<P> solver = useHomogeneousLinearSolver ? homogeneousLinearSolver : linearSolver;
+            try {
+                solver.setPositionsAndDistances(subsetPositions, subsetDistances);
+                solver.solve();
+                solution = Arrays.copyOf(solver.getEstimatedPositionCoordinates(), dims);
+            } catch (final LaterationException | NotReadyException e) {
+                // degenerate subset
+                return null;
+            } catch (final LockedException ignore) {
+                // never happens
+                return null;
+            }
+
+            if (!refinePreliminarySolutions) {
+                return solution;
+            }
+        }
+
+        final P initialPosition;
+        if (solution != null) {
+            initialPosition = createPosition(solution);
+        } else {
+            // start at centroid of subset positions
+            final var centroid = new double[dims];
+            for (final var position : subsetPositions) {
+                for (var j = 0; j < dims; j++) {
+                    centroid[j] += position.getInhomogeneousCoordinate(j) / count;
+                }
+            }
+            initialPosition = createPosition(centroid);
+        }
+
+        final var subsetStandardDeviations = new double[count];
+        for (var k = 0; k < count; k++) {
+            subsetStandardDeviations[k] = distanceStandardDeviations != null
+                    ? distanceStandardDeviations[indices[k]]
+                    : NonLinearLeastSquaresLaterationSolver.DEFAULT_DISTANCE_STANDARD_DEVIATION;
+        }
+
+        try {
+            nonLinearSolver.setPositionsDistancesAndStandardDeviations(subsetPositions, subsetDistances,
+                    subsetStandardDeviations);
+            nonLinearSolver.setInitialPosition(initialPosition);
+            nonLinearSolver.solve();
+            return Arrays.copyOf(nonLinearSolver.getEstimatedPositionCoordinates(), dims);
+        } catch (final LaterationException | NotReadyException e) {
+            // refinement failed, linear solution is kept if available
+            return solution;
+        } catch (final LockedException ignore) {
+            // never happens
+            return solution;
+        }
+    }
+
+    /**
+     * Computes error between distance from a hypothesis to a known position and the
+     * measured distance.
+     *
+     * @param hypotheses  coordinates of hypotheses.
+     * @param h           index of hypothesis.
+     * @param coordinates coordinates of all known positions.
+     * @param i           index of known position.
+     * @param distance    measured distance.
+     * @param dims        number of dimensions.
+     * @return absolute error of distance.
+     */
+    protected static double residual(final double[] hypotheses, final int h, final double[] coordinates,
+                                     final int i, final double distance, final int dims) {
+        var sqrDistance = 0.0;
+        for (var j = 0; j < dims; j++) {
+            final var diff = hypotheses[h * dims + j] - coordinates[i * dims + j];
+            sqrDistance += diff * diff;
+        }
+        return Math.abs(Math.sqrt(sqrDistance) - distance);
+    }
+
+    /**
+     * Refines estimated position using the non-linear solver on inlier samples.
+     * If refinement fails, estimated position is kept unrefined.
+     *
+     * @param positions                  known positions of radio sources.
+     * @param distances                  distances to known positions.
+     * @param distanceStandardDeviations standard deviations of distances or null.
+     * @param inliers                    inlier samples.
+     * @param numInliers                 number of inliers.
+     * @param keepCovariance             true if covariance must be kept.
+     * @throws LockedException if non-linear solver is locked.
+     */
+    private void refine(final P[] positions, final double[] distances, final double[] distanceStandardDeviations,
+                        final BitSet inliers, final int numInliers, final boolean keepCovariance)
+            throws LockedException {
+        final var inlierPositions = Arrays.copyOf(positions, numInliers);
+        final var inlierDistances = new double[numInliers];
+        final var inlierStandardDeviations = new double[numInliers];
+        var pos = 0;
+        for (var i = inliers.nextSetBit(0); i >= 0; i = inliers.nextSetBit(i + 1)) {
+            inlierPositions[pos] = positions[i];
+            inlierDistances[pos] = distances[i];
+            inlierStandardDeviations[pos] = distanceStandardDeviations != null
+                    ? distanceStandardDeviations[i]
+                    : NonLinearLeastSquaresLaterationSolver.DEFAULT_DISTANCE_STANDARD_DEVIATION;
+            pos++;
+        }
+
+        try {
+            nonLinearSolver.setPositionsDistancesAndStandardDeviations(inlierPositions, inlierDistances,
+                    inlierStandardDeviations);
+            nonLinearSolver.setInitialPosition(estimatedPosition);
+            nonLinearSolver.solve();
+
+            estimatedPosition = nonLinearSolver.getEstimatedPosition();
+            if (keepCovariance) {
+                covariance = nonLinearSolver.getCovariance();
+            }
+        } catch (final LaterationException | NotReadyException ignore) {
+            // refinement failed, unrefined position is kept
+        }
+    }
+
+    /**
+     * Contains inliers of estimated position.
+     */
+    public static class SampleConsensusInliersData extends InliersData {
+
+        /**
+         * Inlier samples.
+         */
+        private final BitSet inliers;
+
+        /**
+         * Constructor.
+         *
+         * @param inliers    inlier samples.
+         * @param residuals  residuals of all samples.
+         * @param numInliers number of inliers.
+         */
+        SampleConsensusInliersData(final BitSet inliers, final double[] residuals, final int numInliers) {
+            this.inliers = inliers;
+            this.residuals = residuals;
+            this.numInliers = numInliers;
+        }
+
+        /**
+         * Returns inlier samples.
+         *
+         * @return inlier samples.
+         */
+        @Override
+        public BitSet getInliers() {
+            return inliers;
+        }
+    }
+}
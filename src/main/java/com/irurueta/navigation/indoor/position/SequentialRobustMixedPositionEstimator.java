@@ -28,6 +28,7 @@ import com.irurueta.navigation.indoor.RangingReading;
 import com.irurueta.navigation.indoor.Reading;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
 import com.irurueta.numerical.robust.InliersData;
 import com.irurueta.numerical.robust.RobustEstimatorException;
 import com.irurueta.numerical.robust.RobustEstimatorMethod;
@@ -186,14 +187,80 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
 
     /**
      * Internal robust estimator for position estimation using ranging readings.
+     * Internal estimator is kept between estimations and is only built again when
+     * ranging robust method changes.
      */
     protected RobustRangingPositionEstimator<P> rangingEstimator;
 
     /**
      * Internal robust estimator for coarse position estimation using RSSI readings.
+     * Internal estimator is kept between estimations and is only built again when
+     * RSSI robust method changes.
      */
     protected RobustRssiPositionEstimator<P> rssiEstimator;
 
+    /**
+     * Listener of internal ranging estimator to notify estimation progress.
+     */
+    private final RobustRangingPositionEstimatorListener<P> rangingEstimatorListener =
+            new RobustRangingPositionEstimatorListener<>() {
+                @Override
+                public void onEstimateStart(final RobustRangingPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateEnd(final RobustRangingPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateNextIteration(
+                        final RobustRangingPositionEstimator<P> estimator, final int iteration) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateProgressChange(
+                        final RobustRangingPositionEstimator<P> estimator, final float progress) {
+                    if (listener != null) {
+                        final var p = rssiEstimatorAvailable ? 0.5f + 0.5f * progress : progress;
+                        listener.onEstimateProgressChange(SequentialRobustMixedPositionEstimator.this, p);
+                    }
+                }
+            };
+
+    /**
+     * Listener of internal RSSI estimator to notify estimation progress.
+     */
+    private final RobustRssiPositionEstimatorListener<P> rssiEstimatorListener =
+            new RobustRssiPositionEstimatorListener<>() {
+                @Override
+                public void onEstimateStart(final RobustRssiPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateEnd(final RobustRssiPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateNextIteration(
+                        final RobustRssiPositionEstimator<P> estimator, final int iteration) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateProgressChange(
+                        final RobustRssiPositionEstimator<P> estimator, final float progress) {
+                    if (listener != null) {
+                        final var p = rangingEstimatorAvailable ? 0.5f * progress : progress;
+                        listener.onEstimateProgressChange(SequentialRobustMixedPositionEstimator.this, p);
+                    }
+                }
+            };
+
     /**
      * Robust method used for robust position estimation using ranging data.
      */
@@ -359,6 +426,12 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      */
     private List<? extends RadioSourceLocated<P>> sources;
 
+    /**
+     * Prepared model of located radio sources used for lateration.
+     * Model is built lazily from located radio sources when not provided.
+     */
+    private VenueModel<P> venueModel;
+
     /**
      * Fingerprint containing readings at an unknown location for provided located
      * radio sources.
@@ -1405,6 +1478,10 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             throw new LockedException();
         }
         this.rangingThreshold = rangingThreshold;
+        if (rangingThreshold == null) {
+            // internal estimator is built again to restore its default threshold
+            rangingEstimator = null;
+        }
     }
 
     /**
@@ -1431,6 +1508,108 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             throw new LockedException();
         }
         this.rssiThreshold = rssiThreshold;
+        if (rssiThreshold == null) {
+            // internal estimator is built again to restore its default threshold
+            rssiEstimator = null;
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of current configuration used for robust ranging
+     * position estimation.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations.
+     *
+     * @return current configuration used for ranging estimation.
+     */
+    public RobustPositionEstimatorConfig getRangingConfig() {
+        return new RobustPositionEstimatorConfig(rangingRobustMethod, useRangingRadioSourcePositionCovariance,
+                evenlyDistributeRangingReadings, rangingFallbackDistanceStandardDeviation, progressDelta,
+                rangingConfidence, rangingMaxIterations, refineResult, keepCovariance, useRangingLinearSolver,
+                useRangingHomogeneousLinearSolver, refineRangingPreliminarySolutions, rangingPreliminarySubsetSize,
+                RobustPositionEstimatorConfig.usesStopThreshold(rangingRobustMethod) ? null : rangingThreshold,
+                RobustPositionEstimatorConfig.usesStopThreshold(rangingRobustMethod) ? rangingThreshold : null);
+    }
+
+    /**
+     * Sets all parameters used for robust ranging position estimation at once from
+     * provided configuration.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations, hence they are not taken from provided
+     * configuration.
+     *
+     * @param config configuration to be set.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public void setRangingConfig(final RobustPositionEstimatorConfig config) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        setRangingRobustMethod(config.getRobustMethod());
+        setRangingRadioSourcePositionCovarianceUsed(config.isRadioSourcePositionCovarianceUsed());
+        setRangingReadingsEvenlyDistributed(config.getEvenlyDistributeReadings());
+        setRangingFallbackDistanceStandardDeviation(config.getFallbackDistanceStandardDeviation());
+        setRangingConfidence(config.getConfidence());
+        setRangingMaxIterations(config.getMaxIterations());
+        setRangingLinearSolverUsed(config.isLinearSolverUsed());
+        setRangingHomogeneousLinearSolverUsed(config.isHomogeneousLinearSolverUsed());
+        setRangingPreliminarySolutionRefined(config.isPreliminarySolutionRefined());
+        setRangingPreliminarySubsetSize(Math.max(config.getPreliminarySubsetSize(), getMinRequiredSources()));
+        setRangingThreshold(config.getMethodThreshold());
+    }
+
+    /**
+     * Gets an immutable snapshot of current configuration used for robust RSSI
+     * position estimation.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations.
+     *
+     * @return current configuration used for RSSI estimation.
+     */
+    public RobustPositionEstimatorConfig getRssiConfig() {
+        return new RobustPositionEstimatorConfig(rssiRobustMethod, useRssiRadioSourcePositionCovariance,
+                evenlyDistributeRssiReadings, rssiFallbackDistanceStandardDeviation, progressDelta,
+                rssiConfidence, rssiMaxIterations, refineResult, keepCovariance, useRssiLinearSolver,
+                useRssiHomogeneousLinearSolver, refineRssiPreliminarySolutions, rssiPreliminarySubsetSize,
+                RobustPositionEstimatorConfig.usesStopThreshold(rssiRobustMethod) ? null : rssiThreshold,
+                RobustPositionEstimatorConfig.usesStopThreshold(rssiRobustMethod) ? rssiThreshold : null);
+    }
+
+    /**
+     * Sets all parameters used for robust RSSI position estimation at once from
+     * provided configuration.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations, hence they are not taken from provided
+     * configuration.
+     *
+     * @param config configuration to be set.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public void setRssiConfig(final RobustPositionEstimatorConfig config) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        setRssiRobustMethod(config.getRobustMethod());
+        setRssiRadioSourcePositionCovarianceUsed(config.isRadioSourcePositionCovarianceUsed());
+        setRssiReadingsEvenlyDistributed(config.getEvenlyDistributeReadings());
+        setRssiFallbackDistanceStandardDeviation(config.getFallbackDistanceStandardDeviation());
+        setRssiConfidence(config.getConfidence());
+        setRssiMaxIterations(config.getMaxIterations());
+        setRssiLinearSolverUsed(config.isLinearSolverUsed());
+        setRssiHomogeneousLinearSolverUsed(config.isHomogeneousLinearSolverUsed());
+        setRssiPreliminarySolutionRefined(config.isPreliminarySolutionRefined());
+        setRssiPreliminarySubsetSize(Math.max(config.getPreliminarySubsetSize(), getMinRequiredSources()));
+        setRssiThreshold(config.getMethodThreshold());
     }
 
     /**
@@ -1460,6 +1639,42 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
         internalSetSources(sources);
     }
 
+    /**
+     * Gets prepared model of located radio sources used for lateration.
+     * If no model has been provided, it is built from current located radio sources.
+     * Model is built again each time located radio sources are set, hence if provided
+     * list of located radio sources is modified, it must be set again.
+     * A venue model can be shared among estimators using the same located radio sources
+     * so that radio sources of readings are found in constant time without indexing
+     * radio sources on each estimator.
+     *
+     * @return prepared model of located radio sources or null if no sources are available.
+     */
+    public VenueModel<P> getVenueModel() {
+        if (venueModel == null && sources != null) {
+            venueModel = new VenueModel<>(sources);
+        }
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources used for lateration.
+     * Located radio sources are replaced by the ones contained in provided model.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetVenueModel(venueModel);
+    }
+
     /**
      * Gets fingerprint containing readings at an unknown location for provided located
      * radio sources.
@@ -1632,8 +1847,13 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             throw new NotReadyException();
         }
 
+        // internal estimators are kept between estimations, and they are only built
+        // again when their robust method changes, so that only readings need to be
+        // provided on each estimation
         if (rssiEstimatorAvailable) {
-            buildRssiEstimator();
+            if (rssiEstimator == null || rssiEstimator.getMethod() != rssiRobustMethod) {
+                buildRssiEstimator();
+            }
             setupRssiEstimator();
 
             if (!rssiEstimator.isReady()) {
@@ -1642,7 +1862,9 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
         }
 
         if (rangingEstimatorAvailable) {
-            buildRangingEstimator();
+            if (rangingEstimator == null || rangingEstimator.getMethod() != rangingRobustMethod) {
+                buildRangingEstimator();
+            }
             setupRangingEstimator();
 
             if (!rangingEstimator.isReady()) {
@@ -1656,7 +1878,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
         }
 
         var coarsePosition = initialPosition;
-        if (rssiEstimator != null) {
+        if (rssiEstimatorAvailable) {
             rssiEstimator.setInitialPosition(initialPosition);
 
             try {
@@ -1668,12 +1890,12 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
         }
 
         // use coarse position as initial position for ranging estimation
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable) {
             rangingEstimator.setInitialPosition(coarsePosition != null ? coarsePosition : initialPosition);
         }
 
         try {
-            final var result = rangingEstimator != null ? rangingEstimator.estimate() : coarsePosition;
+            final var result = rangingEstimatorAvailable ? rangingEstimator.estimate() : coarsePosition;
 
             if (listener != null) {
                 listener.onEstimateEnd(this);
@@ -1691,7 +1913,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return data related to inliers found after estimation.
      */
     public InliersData getInliersData() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getInliersData();
         } else {
             return rssiEstimator != null ? rssiEstimator.getInliersData() : null;
@@ -1704,7 +1926,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return known positions used internally.
      */
     public P[] getPositions() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getPositions();
         } else {
             return rssiEstimator != null ? rssiEstimator.getPositions() : null;
@@ -1719,7 +1941,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return Euclidean distances used internally.
      */
     public double[] getDistances() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getDistances();
         } else {
             return rssiEstimator != null ? rssiEstimator.getDistances() : null;
@@ -1734,7 +1956,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return standard deviations used internally.
      */
     public double[] getDistanceStandardDeviations() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getDistanceStandardDeviations();
         } else {
             return rssiEstimator != null ? rssiEstimator.getDistanceStandardDeviations() : null;
@@ -1748,7 +1970,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return estimated covariance or null.
      */
     public Matrix getCovariance() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getCovariance();
         } else {
             return rssiEstimator != null ? rssiEstimator.getCovariance() : null;
@@ -1761,7 +1983,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
      * @return estimated position.
      */
     public P getEstimatedPosition() {
-        if (rangingEstimator != null) {
+        if (rangingEstimatorAvailable && rangingEstimator != null) {
             return rangingEstimator.getEstimatedPosition();
         } else {
             return rssiEstimator != null ? rssiEstimator.getEstimatedPosition() : null;
@@ -1827,7 +2049,8 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             final var rangingFingerprint = new RangingFingerprint<>(rangingReadings);
 
             // set data and configuration on both internal estimators
-            rangingEstimator.setSources(sources);
+            // both internal estimators share the same prepared model of radio sources
+            rangingEstimator.setVenueModel(getVenueModel());
             rangingEstimator.setFingerprint(rangingFingerprint);
             rangingEstimator.setRadioSourcePositionCovarianceUsed(useRangingRadioSourcePositionCovariance);
             rangingEstimator.setEvenlyDistributeReadings(evenlyDistributeRangingReadings);
@@ -1842,32 +2065,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             rangingEstimator.setPreliminarySolutionRefined(refineRangingPreliminarySolutions);
             rangingEstimator.setSourceQualityScores(sourceQualityScores);
             rangingEstimator.setFingerprintReadingsQualityScores(newFingerprintReadingsQualityScores);
-            rangingEstimator.setListener(new RobustRangingPositionEstimatorListener<>() {
-                @Override
-                public void onEstimateStart(final RobustRangingPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateEnd(final RobustRangingPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateNextIteration(
-                        final RobustRangingPositionEstimator<P> estimator, final int iteration) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateProgressChange(
-                        final RobustRangingPositionEstimator<P> estimator, final float progress) {
-                    if (listener != null) {
-                        final var p = rssiEstimatorAvailable ? 0.5f + 0.5f * progress : progress;
-                        listener.onEstimateProgressChange(SequentialRobustMixedPositionEstimator.this, p);
-                    }
-                }
-            });
+            rangingEstimator.setListener(rangingEstimatorListener);
 
             rangingEstimator.setPreliminarySubsetSize(
                     Math.max(rangingPreliminarySubsetSize, rangingEstimator.getMinRequiredSources()));
@@ -1907,7 +2105,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             final var rssiFingerprint = new RssiFingerprint<>(rssiReadings);
 
             // set data and configuration on both internal estimators
-            rssiEstimator.setSources(sources);
+            rssiEstimator.setVenueModel(getVenueModel());
             rssiEstimator.setFingerprint(rssiFingerprint);
             rssiEstimator.setRadioSourcePositionCovarianceUsed(useRssiRadioSourcePositionCovariance);
             rssiEstimator.setEvenlyDistributeReadings(evenlyDistributeRssiReadings);
@@ -1923,32 +2121,7 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
             rssiEstimator.setPreliminarySolutionRefined(refineRssiPreliminarySolutions);
             rssiEstimator.setSourceQualityScores(sourceQualityScores);
             rssiEstimator.setFingerprintReadingsQualityScores(newFingerprintReadingsQualityScores);
-            rssiEstimator.setListener(new RobustRssiPositionEstimatorListener<>() {
-                @Override
-                public void onEstimateStart(final RobustRssiPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateEnd(final RobustRssiPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateNextIteration(
-                        final RobustRssiPositionEstimator<P> estimator, final int iteration) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateProgressChange(
-                        final RobustRssiPositionEstimator<P> estimator, final float progress) {
-                    if (listener != null) {
-                        final var p = rangingEstimatorAvailable ? 0.5f * progress : progress;
-                        listener.onEstimateProgressChange(SequentialRobustMixedPositionEstimator.this, p);
-                    }
-                }
-            });
+            rssiEstimator.setListener(rssiEstimatorListener);
 
             rssiEstimator.setPreliminarySubsetSize(
                     Math.max(rssiPreliminarySubsetSize, rssiEstimator.getMinRequiredSources()));
@@ -1972,6 +2145,30 @@ public abstract class SequentialRobustMixedPositionEstimator<P extends Point<?>>
         }
 
         this.sources = sources;
+        // model is built again even if the same list is provided, since its located
+        // radio sources might have been modified
+        venueModel = null;
+    }
+
+    /**
+     * Internally sets prepared model of located radio sources used for lateration.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    private void internalSetVenueModel(final VenueModel<P> venueModel) {
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (venueModel.getNumberOfSources() < getMinRequiredSources()) {
+            throw new IllegalArgumentException();
+        }
+
+        internalSetSources(venueModel.getSources());
+        this.venueModel = venueModel;
     }
 
     /**
@@ -27,6 +27,7 @@ import com.irurueta.navigation.indoor.RangingFingerprint;
 import com.irurueta.navigation.indoor.RangingReading;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
 import com.irurueta.numerical.robust.InliersData;
 import com.irurueta.numerical.robust.RobustEstimatorException;
 import com.irurueta.numerical.robust.RobustEstimatorMethod;
@@ -181,14 +182,82 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
 
     /**
      * Internal robust estimator for position estimation using ranging readings.
+     * Internal estimator is kept between estimations and is only built again when
+     * robust methods change.
      */
     protected RobustRangingPositionEstimator<P> rangingEstimator;
 
     /**
      * Internal robust estimator for coarse position estimation using RSSI readings.
+     * Internal estimator is kept between estimations and is only built again when
+     * robust methods change.
      */
     protected RobustRssiPositionEstimator<P> rssiEstimator;
 
+    /**
+     * Listener of internal RSSI estimator to notify estimation progress.
+     */
+    private final RobustRssiPositionEstimatorListener<P> rssiEstimatorListener =
+            new RobustRssiPositionEstimatorListener<>() {
+                @Override
+                public void onEstimateStart(final RobustRssiPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateEnd(final RobustRssiPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateNextIteration(
+                        final RobustRssiPositionEstimator<P> estimator, final int iteration) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateProgressChange(
+                        final RobustRssiPositionEstimator<P> estimator, final float progress) {
+                    if (listener != null) {
+                        listener.onEstimateProgressChange(
+                                SequentialRobustRangingAndRssiPositionEstimator.this,
+                                0.5f * progress);
+                    }
+                }
+            };
+
+    /**
+     * Listener of internal ranging estimator to notify estimation progress.
+     */
+    private final RobustRangingPositionEstimatorListener<P> rangingEstimatorListener =
+            new RobustRangingPositionEstimatorListener<>() {
+                @Override
+                public void onEstimateStart(final RobustRangingPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateEnd(final RobustRangingPositionEstimator<P> estimator) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateNextIteration(
+                        final RobustRangingPositionEstimator<P> estimator, final int iteration) {
+                    // not used
+                }
+
+                @Override
+                public void onEstimateProgressChange(
+                        final RobustRangingPositionEstimator<P> estimator, final float progress) {
+                    if (listener != null) {
+                        listener.onEstimateProgressChange(
+                                SequentialRobustRangingAndRssiPositionEstimator.this,
+                                0.5f + 0.5f * progress);
+                    }
+                }
+            };
+
     /**
      * Robust method used for robust position estimation using ranging data.
      */
@@ -353,6 +422,12 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
      */
     private List<? extends RadioSourceLocated<P>> sources;
 
+    /**
+     * Prepared model of located radio sources used for lateration.
+     * Model is built lazily from located radio sources when not provided.
+     */
+    private VenueModel<P> venueModel;
+
     /**
      * Fingerprint containing readings at an unknown location for provided located
      * radio sources.
@@ -1385,6 +1460,10 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             throw new LockedException();
         }
         this.rangingThreshold = rangingThreshold;
+        if (rangingThreshold == null) {
+            // internal estimator is built again to restore its default threshold
+            rangingEstimator = null;
+        }
     }
 
     /**
@@ -1411,6 +1490,108 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             throw new LockedException();
         }
         this.rssiThreshold = rssiThreshold;
+        if (rssiThreshold == null) {
+            // internal estimator is built again to restore its default threshold
+            rssiEstimator = null;
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of current configuration used for robust ranging
+     * position estimation.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations.
+     *
+     * @return current configuration used for ranging estimation.
+     */
+    public RobustPositionEstimatorConfig getRangingConfig() {
+        return new RobustPositionEstimatorConfig(rangingRobustMethod, useRangingRadioSourcePositionCovariance,
+                evenlyDistributeRangingReadings, rangingFallbackDistanceStandardDeviation, progressDelta,
+                rangingConfidence, rangingMaxIterations, refineResult, keepCovariance, useRangingLinearSolver,
+                useRangingHomogeneousLinearSolver, refineRangingPreliminarySolutions, rangingPreliminarySubsetSize,
+                RobustPositionEstimatorConfig.usesStopThreshold(rangingRobustMethod) ? null : rangingThreshold,
+                RobustPositionEstimatorConfig.usesStopThreshold(rangingRobustMethod) ? rangingThreshold : null);
+    }
+
+    /**
+     * Sets all parameters used for robust ranging position estimation at once from
+     * provided configuration.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations, hence they are not taken from provided
+     * configuration.
+     *
+     * @param config configuration to be set.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public void setRangingConfig(final RobustPositionEstimatorConfig config) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        setRangingRobustMethod(config.getRobustMethod());
+        setRangingRadioSourcePositionCovarianceUsed(config.isRadioSourcePositionCovarianceUsed());
+        setRangingReadingsEvenlyDistributed(config.getEvenlyDistributeReadings());
+        setRangingFallbackDistanceStandardDeviation(config.getFallbackDistanceStandardDeviation());
+        setRangingConfidence(config.getConfidence());
+        setRangingMaxIterations(config.getMaxIterations());
+        setRangingLinearSolverUsed(config.isLinearSolverUsed());
+        setRangingHomogeneousLinearSolverUsed(config.isHomogeneousLinearSolverUsed());
+        setRangingPreliminarySolutionRefined(config.isPreliminarySolutionRefined());
+        setRangingPreliminarySubsetSize(Math.max(config.getPreliminarySubsetSize(), getMinRequiredSources()));
+        setRangingThreshold(config.getMethodThreshold());
+    }
+
+    /**
+     * Gets an immutable snapshot of current configuration used for robust RSSI
+     * position estimation.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations.
+     *
+     * @return current configuration used for RSSI estimation.
+     */
+    public RobustPositionEstimatorConfig getRssiConfig() {
+        return new RobustPositionEstimatorConfig(rssiRobustMethod, useRssiRadioSourcePositionCovariance,
+                evenlyDistributeRssiReadings, rssiFallbackDistanceStandardDeviation, progressDelta,
+                rssiConfidence, rssiMaxIterations, refineResult, keepCovariance, useRssiLinearSolver,
+                useRssiHomogeneousLinearSolver, refineRssiPreliminarySolutions, rssiPreliminarySubsetSize,
+                RobustPositionEstimatorConfig.usesStopThreshold(rssiRobustMethod) ? null : rssiThreshold,
+                RobustPositionEstimatorConfig.usesStopThreshold(rssiRobustMethod) ? rssiThreshold : null);
+    }
+
+    /**
+     * Sets all parameters used for robust RSSI position estimation at once from
+     * provided configuration.
+     * Progress delta, result refinement and covariance keeping are shared by both
+     * ranging and RSSI estimations, hence they are not taken from provided
+     * configuration.
+     *
+     * @param config configuration to be set.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided configuration is null.
+     */
+    public void setRssiConfig(final RobustPositionEstimatorConfig config) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (config == null) {
+            throw new IllegalArgumentException();
+        }
+
+        setRssiRobustMethod(config.getRobustMethod());
+        setRssiRadioSourcePositionCovarianceUsed(config.isRadioSourcePositionCovarianceUsed());
+        setRssiReadingsEvenlyDistributed(config.getEvenlyDistributeReadings());
+        setRssiFallbackDistanceStandardDeviation(config.getFallbackDistanceStandardDeviation());
+        setRssiConfidence(config.getConfidence());
+        setRssiMaxIterations(config.getMaxIterations());
+        setRssiLinearSolverUsed(config.isLinearSolverUsed());
+        setRssiHomogeneousLinearSolverUsed(config.isHomogeneousLinearSolverUsed());
+        setRssiPreliminarySolutionRefined(config.isPreliminarySolutionRefined());
+        setRssiPreliminarySubsetSize(Math.max(config.getPreliminarySubsetSize(), getMinRequiredSources()));
+        setRssiThreshold(config.getMethodThreshold());
     }
 
     /**
@@ -1440,6 +1621,42 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
         internalSetSources(sources);
     }
 
+    /**
+     * Gets prepared model of located radio sources used for lateration.
+     * If no model has been provided, it is built from current located radio sources.
+     * Model is built again each time located radio sources are set, hence if provided
+     * list of located radio sources is modified, it must be set again.
+     * A venue model can be shared among estimators using the same located radio sources
+     * so that radio sources of readings are found in constant time without indexing
+     * radio sources on each estimator.
+     *
+     * @return prepared model of located radio sources or null if no sources are available.
+     */
+    public VenueModel<P> getVenueModel() {
+        if (venueModel == null && sources != null) {
+            venueModel = new VenueModel<>(sources);
+        }
+        return venueModel;
+    }
+
+    /**
+     * Sets prepared model of located radio sources used for lateration.
+     * Located radio sources are replaced by the ones contained in provided model.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws LockedException          if estimator is locked.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    public void setVenueModel(final VenueModel<P> venueModel) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+
+        internalSetVenueModel(venueModel);
+    }
+
     /**
      * Gets fingerprint containing ranging+RSSI readings at an unknown location for
      * provided located radio sources.
@@ -1611,8 +1828,14 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             throw new LockedException();
         }
 
-        // create inner estimators
-        buildEstimators();
+        // inner estimators are kept between estimations, and they are only built again
+        // when their robust methods change, so that only readings need to be provided
+        // on each estimation
+        if (rssiEstimator == null || rangingEstimator == null
+                || rssiEstimator.getMethod() != rssiRobustMethod
+                || rangingEstimator.getMethod() != rangingRobustMethod) {
+            buildEstimators();
+        }
         setupEstimators();
 
         if (!isReady() || !rssiEstimator.isReady() || !rangingEstimator.isReady()) {
@@ -1752,7 +1975,7 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             final var rangingFingerprint = new RangingFingerprint<>(rangingReadings);
 
             // set data and configuration on both internal estimators
-            rssiEstimator.setSources(sources);
+            rssiEstimator.setVenueModel(getVenueModel());
             rssiEstimator.setFingerprint(rssiFingerprint);
             rssiEstimator.setRadioSourcePositionCovarianceUsed(useRssiRadioSourcePositionCovariance);
             rssiEstimator.setEvenlyDistributeReadings(evenlyDistributeRssiReadings);
@@ -1768,38 +1991,16 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             rssiEstimator.setPreliminarySolutionRefined(refineRssiPreliminarySolutions);
             rssiEstimator.setSourceQualityScores(sourceQualityScores);
             rssiEstimator.setFingerprintReadingsQualityScores(fingerprintReadingsQualityScores);
-            rssiEstimator.setListener(new RobustRssiPositionEstimatorListener<>() {
-                @Override
-                public void onEstimateStart(final RobustRssiPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateEnd(final RobustRssiPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateNextIteration(
-                        final RobustRssiPositionEstimator<P> estimator, final int iteration) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateProgressChange(
-                        final RobustRssiPositionEstimator<P> estimator, final float progress) {
-                    if (listener != null) {
-                        listener.onEstimateProgressChange(
-                                SequentialRobustRangingAndRssiPositionEstimator.this,
-                                0.5f * progress);
-                    }
-                }
-            });
+            rssiEstimator.setListener(rssiEstimatorListener);
 
             rssiEstimator.setPreliminarySubsetSize(
                     Math.max(rssiPreliminarySubsetSize, rssiEstimator.getMinRequiredSources()));
+            if (rssiThreshold != null) {
+                rssiEstimator.setRobustThreshold(rssiThreshold);
+            }
 
-            rangingEstimator.setSources(sources);
+            // both internal estimators share the same prepared model of radio sources
+            rangingEstimator.setVenueModel(getVenueModel());
             rangingEstimator.setFingerprint(rangingFingerprint);
             rangingEstimator.setRadioSourcePositionCovarianceUsed(useRangingRadioSourcePositionCovariance);
             rangingEstimator.setEvenlyDistributeReadings(evenlyDistributeRangingReadings);
@@ -1814,36 +2015,13 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
             rangingEstimator.setPreliminarySolutionRefined(refineRangingPreliminarySolutions);
             rangingEstimator.setSourceQualityScores(sourceQualityScores);
             rangingEstimator.setFingerprintReadingsQualityScores(fingerprintReadingsQualityScores);
-            rangingEstimator.setListener(new RobustRangingPositionEstimatorListener<P>() {
-                @Override
-                public void onEstimateStart(final RobustRangingPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateEnd(final RobustRangingPositionEstimator<P> estimator) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateNextIteration(
-                        final RobustRangingPositionEstimator<P> estimator, final int iteration) {
-                    // not used
-                }
-
-                @Override
-                public void onEstimateProgressChange(
-                        final RobustRangingPositionEstimator<P> estimator, final float progress) {
-                    if (listener != null) {
-                        listener.onEstimateProgressChange(
-                                SequentialRobustRangingAndRssiPositionEstimator.this,
-                                0.5f + 0.5f * progress);
-                    }
-                }
-            });
+            rangingEstimator.setListener(rangingEstimatorListener);
 
             rangingEstimator.setPreliminarySubsetSize(
                     Math.max(rangingPreliminarySubsetSize, rangingEstimator.getMinRequiredSources()));
+            if (rangingThreshold != null) {
+                rangingEstimator.setRobustThreshold(rangingThreshold);
+            }
         }
     }
 
@@ -1864,6 +2042,30 @@ public abstract class SequentialRobustRangingAndRssiPositionEstimator<P extends
         }
 
         this.sources = sources;
+        // model is built again even if the same list is provided, since its located
+        // radio sources might have been modified
+        venueModel = null;
+    }
+
+    /**
+     * Internally sets prepared model of located radio sources used for lateration.
+     *
+     * @param venueModel prepared model of located radio sources.
+     * @throws IllegalArgumentException if provided value is null or the number of
+     *                                  sources contained in provided model is less than
+     *                                  the required minimum.
+     */
+    private void internalSetVenueModel(final VenueModel<P> venueModel) {
+        if (venueModel == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (venueModel.getNumberOfSources() < getMinRequiredSources()) {
+            throw new IllegalArgumentException();
+        }
+
+        internalSetSources(venueModel.getSources());
+        this.venueModel = venueModel;
     }
 
     /**
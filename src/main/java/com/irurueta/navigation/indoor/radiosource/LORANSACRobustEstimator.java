@@ -0,0 +1,459 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.radiosource;
+
+import com.irurueta.numerical.LockedException;
+import com.irurueta.numerical.NotReadyException;
+import com.irurueta.numerical.robust.InliersData;
+import com.irurueta.numerical.robust.RANSACRobustEstimator;
+import com.irurueta.numerical.robust.RANSACRobustEstimatorListener;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Robust estimator based on locally optimized RANSAC (LO-RANSAC).
+ * This estimator works as RANSAC, but whenever a hypothesis better than the best one
+ * found so far is obtained from a minimal subset of samples, a local optimization is
+ * performed by estimating solutions again using all the inliers of that hypothesis.
+ * Local optimization is repeated while the number of inliers increases, up to a
+ * maximum number of times.
+ * Because hypotheses estimated from all their inliers are usually much more accurate
+ * than those estimated from minimal subsets, the inlier ratio used to adapt the number
+ * of iterations increases faster, and fewer iterations are required for a given
+ * confidence.
+ * This estimator uses the same listener as {@link RANSACRobustEstimator}, and solutions
+ * are estimated from non-minimal subsets by calling
+ * {@link RANSACRobustEstimatorListener#estimatePreliminarSolutions(int[], List)}
+ * with the indices of all inliers, hence such method must support subsets larger than
+ * the minimal one.
+ *
+ * @param <T> type of object to be estimated.
+ */
+public class LORANSACRobustEstimator<T> extends RANSACRobustEstimator<T> {
+
+    /**
+     * Default maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found.
+     */
+    public static final int DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS = 4;
+
+    /**
+     * Minimum allowed number of local optimization iterations.
+     */
+    public static final int MIN_LOCAL_OPTIMIZATION_ITERATIONS = 1;
+
+    /**
+     * Generates random subsets of samples.
+     */
+    private final Random random = new Random();
+
+    /**
+     * Maximum number of times that local optimization is repeated each time a better
+     * hypothesis is found.
+     */
+    private int localOptimizationIterations = DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS;
+
+    /**
+     * Number of iterations performed on last estimation.
+     */
+    private int nIters;
+
+    /**
+     * Number of local optimizations performed on last estimation.
+     */
+    private int numberOfLocalOptimizations;
+
+    /**
+     * Best solution found on last estimation.
+     */
+    private T bestResult;
+
+    /**
+     * Data related to inliers of best solution found on last estimation.
+     */
+    private RANSACInliersData bestInliersData;
+
+    /**
+     * Constructor.
+     */
+    public LORANSACRobustEstimator() {
+        super();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param listener listener to be notified of events, which also provides data
+     *                 needed for estimation.
+     */
+    public LORANSACRobustEstimator(final RANSACRobustEstimatorListener<T> listener) {
+        super(listener);
+    }
+
+    /**
+     * Gets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found.
+     *
+     * @return maximum number of local optimization iterations.
+     */
+    public int getLocalOptimizationIterations() {
+        return localOptimizationIterations;
+    }
+
+    /**
+     * Sets maximum number of times that local optimization is repeated each time a
+     * better hypothesis is found.
+     *
+     * @param localOptimizationIterations maximum number of local optimization
+     *                                    iterations.
+     * @throws IllegalArgumentException if provided value is less than 1.
+     * @throws LockedException          if estimator is locked.
+     */
+    public void setLocalOptimizationIterations(final int localOptimizationIterations) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (localOptimizationIterations < MIN_LOCAL_OPTIMIZATION_ITERATIONS) {
+            throw new IllegalArgumentException();
+        }
+        this.localOptimizationIterations = localOptimizationIterations;
+    }
+
+    /**
+     * Gets number of local optimizations performed on last estimation.
+     *
+     * @return number of local optimizations performed on last estimation.
+     */
+    public int getNumberOfLocalOptimizations() {
+        return numberOfLocalOptimizations;
+    }
+
+    /**
+     * Returns number of iterations performed on last estimation.
+     *
+     * @return number of iterations performed on last estimation.
+     */
+    @Override
+    public int getNIters() {
+        return nIters;
+    }
+
+    /**
+     * Returns best solution found on last estimation.
+     *
+     * @return best solution found on last estimation.
+     */
+    @Override
+    public T getBestResult() {
+        return bestResult;
+    }
+
+    /**
+     * Returns data related to inliers of best solution found on last estimation.
+     *
+     * @return data related to inliers of best solution.
+     */
+    @Override
+    public RANSACInliersData getBestInliersData() {
+        return bestInliersData;
+    }
+
+    /**
+     * Returns data related to inliers found after estimation.
+     *
+     * @return data related to inliers found after estimation.
+     */
+    @Override
+    public InliersData getInliersData() {
+        return bestInliersData;
+    }
+
+    /**
+     * Robustly estimates an instance of T.
+     *
+     * @return estimated object.
+     * @throws LockedException          if robust estimator is locked.
+     * @throws NotReadyException        if provided input data is not enough to start
+     *                                  the estimation.
+     * @throws RobustEstimatorException if estimation fails for any reason (i.e.
+     *                                  numerical instability, no solution available, etc).
+     */
+    @Override
+    public T estimate() throws LockedException, NotReadyException, RobustEstimatorException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        if (!isReady()) {
+            throw new NotReadyException();
+        }
+
+        try {
+            locked = true;
+
+            final var ransacListener = (RANSACRobustEstimatorListener<T>) listener;
+            ransacListener.onEstimateStart(this);
+
+            final var totalSamples = ransacListener.getTotalSamples();
+            final var subsetSize = ransacListener.getSubsetSize();
+            final var threshold = ransacListener.getThreshold();
+
+            final var indices = new int[totalSamples];
+            final var subset = new int[subsetSize];
+            final var solutions = new ArrayList<T>();
+            final var current = new Evaluation(totalSamples);
+            final var best = new Evaluation(totalSamples);
+
+            nIters = 0;
+            numberOfLocalOptimizations = 0;
+            bestResult = null;
+            bestInliersData = null;
+
+            var neededIters = getMaxIterations();
+            var previousProgress = 0.0f;
+            while (nIters < neededIters) {
+                selectSubset(indices, subset);
+
+                solutions.clear();
+                ransacListener.estimatePreliminarSolutions(subset, solutions);
+
+                for (final var solution : solutions) {
+                    current.evaluate(ransacListener, solution, totalSamples, threshold);
+                    if (current.isBetterThan(best)) {
+                        best.copyFrom(current);
+                        bestResult = localOptimize(ransacListener, solution, best, current, totalSamples,
+                                subsetSize, threshold);
+                        neededIters = Math.min(getMaxIterations(),
+                                computeIterations(best.numInliers, totalSamples, subsetSize));
+                    }
+                }
+
+                nIters++;
+                ransacListener.onEstimateNextIteration(this, nIters);
+
+                final var progress = Math.min(1.0f, (float) nIters / (float) neededIters);
+                if (progress - previousProgress > progressDelta) {
+                    previousProgress = progress;
+                    ransacListener.onEstimateProgressChange(this, progress);
+                }
+            }
+
+            if (bestResult == null) {
+                throw new RobustEstimatorException();
+            }
+
+            bestInliersData = createInliersData(best, totalSamples, isComputeAndKeepInliersEnabled(),
+                    isComputeAndKeepResidualsEnabled());
+
+            ransacListener.onEstimateEnd(this);
+
+            return bestResult;
+        } finally {
+            locked = false;
+        }
+    }
+
+    /**
+     * Repeatedly estimates solutions using all inliers of the best hypothesis while
+     * the number of inliers increases.
+     *
+     * @param listener     listener providing data needed for estimation.
+     * @param solution     best hypothesis found so far.
+     * @param best         evaluation of best hypothesis, which is updated if a better
+     *                     one is found.
+     * @param scratch      instance to be reused to evaluate new hypotheses.
+     * @param totalSamples total number of samples.
+     * @param subsetSize   size of minimal subsets.
+     * @param threshold    threshold to determine whether samples are inliers or not.
+     * @return best hypothesis after local optimization.
+     */
+    private T localOptimize(final RANSACRobustEstimatorListener<T> listener, final T solution,
+                            final Evaluation best, final Evaluation scratch, final int totalSamples,
+                            final int subsetSize, final double threshold) {
+        numberOfLocalOptimizations++;
+
+        var result = solution;
+        final var solutions = new ArrayList<T>();
+        for (var k = 0; k < localOptimizationIterations && best.numInliers >= subsetSize; k++) {
+            solutions.clear();
+            listener.estimatePreliminarSolutions(best.inliers.stream().toArray(), solutions);
+
+            var improved = false;
+            for (final var candidate : solutions) {
+                scratch.evaluate(listener, candidate, totalSamples, threshold);
+                if (scratch.isBetterThan(best)) {
+                    best.copyFrom(scratch);
+                    result = candidate;
+                    improved = true;
+                }
+            }
+
+            if (!improved) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes number of iterations required to find a subset containing only inliers
+     * with the configured confidence.
+     *
+     * @param numInliers   number of inliers of best hypothesis.
+     * @param totalSamples total number of samples.
+     * @param subsetSize   size of minimal subsets.
+     * @return number of required iterations.
+     */
+    private int computeIterations(final int numInliers, final int totalSamples, final int subsetSize) {
+        final var probability = Math.pow((double) numInliers / (double) totalSamples, subsetSize);
+        if (probability >= 1.0) {
+            return 1;
+        }
+        if (probability <= 0.0) {
+            return Integer.MAX_VALUE;
+        }
+
+        final var iterations = Math.ceil(Math.log(1.0 - getConfidence()) / Math.log(1.0 - probability));
+        return iterations >= Integer.MAX_VALUE ? Integer.MAX_VALUE : Math.max(1, (int) iterations);
+    }
+
+    /**
+     * Randomly selects a subset of samples.
+     *
+     * @param indices array to be reused containing indices of all samples.
+     * @param subset  array where selected indices are stored.
+     */
+    private void selectSubset(final int[] indices, final int[] subset) {
+        for (var i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        for (var i = 0; i < subset.length; i++) {
+            final var j = i + random.nextInt(indices.length - i);
+            final var tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+            subset[i] = indices[i];
+        }
+    }
+
+    /**
+     * Creates data related to inliers of best solution.
+     *
+     * @param best          evaluation of best solution.
+     * @param totalSamples  total number of samples.
+     * @param keepInliers   true to keep inliers.
+     * @param keepResiduals true to keep residuals.
+     * @return data related to inliers.
+     */
+    private static RANSACInliersData createInliersData(
+            final Evaluation best, final int totalSamples, final boolean keepInliers,
+            final boolean keepResiduals) {
+        return new RANSACInliersData(totalSamples, keepInliers, keepResiduals) {
+            {
+                update(best.inliers, best.residuals, best.numInliers);
+            }
+        };
+    }
+
+    /**
+     * Contains inliers and residuals of a hypothesis.
+     */
+    private static class Evaluation {
+
+        /**
+         * Inlier samples.
+         */
+        private final BitSet inliers;
+
+        /**
+         * Residuals of all samples.
+         */
+        private final double[] residuals;
+
+        /**
+         * Number of inliers.
+         */
+        private int numInliers;
+
+        /**
+         * Sum of residuals of inliers.
+         */
+        private double inlierResiduals = Double.MAX_VALUE;
+
+        /**
+         * Constructor.
+         *
+         * @param totalSamples total number of samples.
+         */
+        Evaluation(final int totalSamples) {
+            inliers = new BitSet(totalSamples);
+            residuals = new double[totalSamples];
+        }
+
+        /**
+         * Evaluates a hypothesis on all samples.
+         *
+         * @param listener     listener to compute residuals.
+         * @param solution     hypothesis to be evaluated.
+         * @param totalSamples total number of samples.
+         * @param threshold    threshold to determine whether samples are inliers or not.
+         * @param <T>          type of hypothesis.
+         */
+        <T> void evaluate(final RANSACRobustEstimatorListener<T> listener, final T solution,
+                          final int totalSamples, final double threshold) {
+            inliers.clear();
+            numInliers = 0;
+            inlierResiduals = 0.0;
+            for (var i = 0; i < totalSamples; i++) {
+                final var residual = listener.computeResidual(solution, i);
+                residuals[i] = residual;
+                if (residual <= threshold) {
+                    inliers.set(i);
+                    numInliers++;
+                    inlierResiduals += residual;
+                }
+            }
+        }
+
+        /**
+         * Indicates whether this hypothesis has more inliers than provided one, or the
+         * same number of inliers with smaller residuals.
+         *
+         * @param other other hypothesis.
+         * @return true if this hypothesis is better, false otherwise.
+         */
+        boolean isBetterThan(final Evaluation other) {
+            return numInliers > other.numInliers
+                    || (numInliers == other.numInliers && numInliers > 0 && inlierResiduals < other.inlierResiduals);
+        }
+
+        /**
+         * Copies data from provided hypothesis.
+         *
+         * @param other hypothesis to copy data from.
+         */
+        void copyFrom(final Evaluation other) {
+            inliers.clear();
+            inliers.or(other.inliers);
+            System.arraycopy(other.residuals, 0, residuals, 0, residuals.length);
+            numInliers = other.numInliers;
+            inlierResiduals = other.inlierResiduals;
+        }
+    }
+}
@@ -87,6 +87,11 @@ public class RANSACRobustRssiRadioSourceEstimator2D<S extends RadioSource> exten
      */
     public static final boolean DEFAULT_COMPUTE_AND_KEEP_RESIDUALS = false;
 
+    /**
+     * Indicates that by default RANSAC is used instead of LO-RANSAC.
+     */
+    public static final boolean DEFAULT_LOCALLY_OPTIMIZED = false;
+
     /**
      * Threshold to determine whether samples are inliers or not when testing possible solutions.
      * The threshold refers to the amount of error on received power (RSSI) expressed
@@ -105,6 +110,11 @@ public class RANSACRobustRssiRadioSourceEstimator2D<S extends RadioSource> exten
      */
     private boolean computeAndKeepResiduals = DEFAULT_COMPUTE_AND_KEEP_RESIDUALS;
 
+    /**
+     * Indicates whether locally optimized RANSAC (LO-RANSAC) is used instead of RANSAC.
+     */
+    private boolean locallyOptimized = DEFAULT_LOCALLY_OPTIMIZED;
+
     /**
      * Constructor.
      */
@@ -477,6 +487,30 @@ public class RANSACRobustRssiRadioSourceEstimator2D<S extends RadioSource> exten
         this.computeAndKeepResiduals = computeAndKeepResiduals;
     }
 
+    /**
+     * Indicates whether locally optimized RANSAC (LO-RANSAC) is used instead of RANSAC.
+     * LO-RANSAC estimates each new best solution again using all of its inliers, so
+     * that fewer iterations are required for a given confidence.
+     *
+     * @return true if LO-RANSAC is used, false otherwise.
+     */
+    public boolean isLocallyOptimized() {
+        return locallyOptimized;
+    }
+
+    /**
+     * Specifies whether locally optimized RANSAC (LO-RANSAC) is used instead of RANSAC.
+     *
+     * @param locallyOptimized true to use LO-RANSAC, false to use RANSAC.
+     * @throws LockedException if this solver is locked.
+     */
+    public void setLocallyOptimized(final boolean locallyOptimized) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.locallyOptimized = locallyOptimized;
+    }
+
     /**
      * Robustly estimates position, transmitted power and path-loss exponent for a
      * radio source.
@@ -495,7 +529,7 @@ public class RANSACRobustRssiRadioSourceEstimator2D<S extends RadioSource> exten
             throw new NotReadyException();
         }
 
-        final var innerEstimator = new RANSACRobustEstimator<>(new RANSACRobustEstimatorListener<Solution<Point2D>>() {
+        final var innerListener = new RANSACRobustEstimatorListener<Solution<Point2D>>() {
             @Override
             public double getThreshold() {
                 return threshold;
@@ -554,7 +588,10 @@ public class RANSACRobustRssiRadioSourceEstimator2D<S extends RadioSource> exten
                             RANSACRobustRssiRadioSourceEstimator2D.this, progress);
                 }
             }
-        });
+        };
+
+        final RANSACRobustEstimator<Solution<Point2D>> innerEstimator = locallyOptimized
+                ? new LORANSACRobustEstimator<>(innerListener) : new RANSACRobustEstimator<>(innerListener);
 
         try {
             locked = true;
@@ -2347,6 +2347,9 @@ public abstract class RobustRssiRadioSourceEstimator2D<S extends RadioSource> ex
             innerEstimator.setPositionEstimationEnabled(positionEstimationEnabled);
             innerEstimator.setPathLossEstimationEnabled(pathLossEstimationEnabled);
 
+            // covariance of preliminary solutions is never used
+            innerEstimator.setCovarianceEstimationEnabled(false);
+
             innerEstimator.setReadings(innerReadings);
 
             innerEstimator.estimate();
@@ -2396,6 +2399,7 @@ public abstract class RobustRssiRadioSourceEstimator2D<S extends RadioSource> ex
                 innerEstimator.setTransmittedPowerEstimationEnabled(transmittedPowerEstimationEnabled);
                 innerEstimator.setPositionEstimationEnabled(positionEstimationEnabled);
                 innerEstimator.setPathLossEstimationEnabled(pathLossEstimationEnabled);
+                innerEstimator.setCovarianceEstimationEnabled(keepCovariance);
                 innerEstimator.setReadings(innerReadings);
 
                 innerEstimator.estimate();
@@ -2345,6 +2345,9 @@ public abstract class RobustRssiRadioSourceEstimator3D<S extends RadioSource> ex
             innerEstimator.setPositionEstimationEnabled(positionEstimationEnabled);
             innerEstimator.setPathLossEstimationEnabled(pathLossEstimationEnabled);
 
+            // covariance of preliminary solutions is never used
+            innerEstimator.setCovarianceEstimationEnabled(false);
+
             innerEstimator.setReadings(innerReadings);
 
             innerEstimator.estimate();
@@ -2394,6 +2397,7 @@ public abstract class RobustRssiRadioSourceEstimator3D<S extends RadioSource> ex
                 innerEstimator.setTransmittedPowerEstimationEnabled(transmittedPowerEstimationEnabled);
                 innerEstimator.setPositionEstimationEnabled(positionEstimationEnabled);
                 innerEstimator.setPathLossEstimationEnabled(pathLossEstimationEnabled);
+                innerEstimator.setCovarianceEstimationEnabled(keepCovariance);
                 innerEstimator.setReadings(innerReadings);
 
                 innerEstimator.estimate();
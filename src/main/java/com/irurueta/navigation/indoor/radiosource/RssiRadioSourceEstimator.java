@@ -101,6 +101,10 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
      */
     public static final boolean DEFAULT_PATHLOSS_ESTIMATION_ENABLED = false;
 
+    /**
+     * Indicates whether covariance of estimated parameters is computed or not by default.
+     */
+    public static final boolean DEFAULT_COVARIANCE_ESTIMATION_ENABLED = true;
 
     /**
      * Indicates whether radio source position estimation is enabled or not.
@@ -184,6 +188,19 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
      */
     private boolean pathLossEstimationEnabled = DEFAULT_PATHLOSS_ESTIMATION_ENABLED;
 
+    /**
+     * Indicates whether covariance of estimated parameters is computed or not.
+     * When disabled, only estimated parameters are computed, which avoids the additional
+     * cost of refining covariance after each fit.
+     */
+    private boolean covarianceEstimationEnabled = DEFAULT_COVARIANCE_ESTIMATION_ENABLED;
+
+    /**
+     * Indicates whether estimated position covariance must still be extracted from
+     * estimated covariance on first access after last estimation.
+     */
+    private boolean positionCovariancePending;
+
     /**
      * Levenberg-Marquardt fitter to find a solution.
      */
@@ -733,6 +750,61 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
         this.pathLossEstimationEnabled = pathLossEstimationEnabled;
     }
 
+    /**
+     * Indicates whether covariance of estimated parameters is computed or not.
+     * When disabled, only estimated parameters are computed and covariance and variances
+     * of estimated parameters are not available.
+     *
+     * @return true if covariance estimation is enabled, false otherwise.
+     */
+    public boolean isCovarianceEstimationEnabled() {
+        return covarianceEstimationEnabled;
+    }
+
+    /**
+     * Specifies whether covariance of estimated parameters is computed or not.
+     * When disabled, only estimated parameters are computed and covariance and variances
+     * of estimated parameters are not available.
+     * Disabling covariance estimation is useful when this estimator is used many times
+     * (e.g. to find preliminary solutions within a robust estimator) and covariance is
+     * never read.
+     *
+     * @param covarianceEstimationEnabled true if covariance estimation is enabled,
+     *                                    false otherwise.
+     * @throws LockedException if estimator is locked.
+     */
+    public void setCovarianceEstimationEnabled(final boolean covarianceEstimationEnabled) throws LockedException {
+        if (isLocked()) {
+            throw new LockedException();
+        }
+        this.covarianceEstimationEnabled = covarianceEstimationEnabled;
+    }
+
+    /**
+     * Gets estimated position covariance.
+     * Size of this matrix will depend on the number of dimensions
+     * of estimated position (either 2 or 3).
+     * This value will only be available when position and covariance estimations
+     * are enabled.
+     * Position covariance is extracted from estimated covariance on first access after
+     * each estimation.
+     *
+     * @return estimated position covariance or null.
+     */
+    @Override
+    public Matrix getEstimatedPositionCovariance() {
+        if (positionCovariancePending) {
+            final var d = getNumberOfDimensions() - 1;
+            if (estimatedPositionCovariance == null) {
+                estimatedPositionCovariance = estimatedCovariance.getSubmatrix(0, 0, d, d);
+            } else {
+                estimatedCovariance.getSubmatrix(0, 0, d, d, estimatedPositionCovariance);
+            }
+            positionCovariancePending = false;
+        }
+        return estimatedPositionCovariance;
+    }
+
     /**
      * Indicates whether this instance is ready to start the estimation.
      *
@@ -797,13 +869,14 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
                 setupFitterPositionTransmittedPowerAndPathLossExponent();
             }
 
+            fitter.setCovarianceAdjusted(covarianceEstimationEnabled);
             fitter.fit();
 
             // estimated position and transmitted power
             final var a = fitter.getA();
             final var dims = getNumberOfDimensions();
 
-            estimatedCovariance = fitter.getCovar();
+            estimatedCovariance = covarianceEstimationEnabled ? fitter.getCovar() : null;
             chiSq = fitter.getChisq();
 
             var pos = 0;
@@ -812,15 +885,10 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
                 // position estimation enabled
                 System.arraycopy(a, 0, estimatedPositionCoordinates, 0, dims);
 
-                if (estimatedCovariance != null) {
-                    final var d = dims - 1;
-                    if (estimatedPositionCovariance == null) {
-                        estimatedPositionCovariance = estimatedCovariance.getSubmatrix(0, 0, d,
-                                d);
-                    } else {
-                        estimatedCovariance.getSubmatrix(0, 0, d, d,
-                                estimatedPositionCovariance);
-                    }
+                // position covariance is extracted on first access
+                positionCovariancePending = estimatedCovariance != null;
+                if (!positionCovariancePending) {
+                    estimatedPositionCovariance = null;
                 }
                 pos += dims;
             } else {
@@ -832,15 +900,15 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
                 }
 
                 estimatedPositionCovariance = null;
+                positionCovariancePending = false;
             }
 
             if (transmittedPowerEstimationEnabled) {
                 // transmitted power estimation enabled
                 estimatedTransmittedPowerdBm = a[pos];
 
-                if (estimatedCovariance != null) {
-                    estimatedTransmittedPowerVariance = estimatedCovariance.getElementAt(pos, pos);
-                }
+                estimatedTransmittedPowerVariance = estimatedCovariance != null
+                        ? estimatedCovariance.getElementAt(pos, pos) : null;
                 pos++;
             } else {
                 // transmitted power estimation disabled
@@ -854,9 +922,8 @@ public abstract class RssiRadioSourceEstimator<S extends RadioSource, P extends
                 // pathloss exponent estimation enabled
                 estimatedPathLossExponent = a[pos];
 
-                if (estimatedCovariance != null) {
-                    estimatedPathLossExponentVariance = estimatedCovariance.getElementAt(pos, pos);
-                }
+                estimatedPathLossExponentVariance = estimatedCovariance != null
+                        ? estimatedCovariance.getElementAt(pos, pos) : null;
             } else {
                 // pathloss exponent estimation disabled
                 estimatedPathLossExponent = initialPathLossExponent;
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeaconAdvertisementParserTest {
+
+    @Test
+    void testConstructor() {
+        var parser = new BeaconAdvertisementParser(2, 2, 0x0215, 0, -1,
+                new int[]{4, 20, 22}, new int[]{16, 2, 2}, 24, 0);
+
+        // check default values
+        assertEquals(25, parser.getMinLength());
+        assertEquals(BeaconAdvertisementParser.DEFAULT_MAX_CACHED_BEACONS, parser.getMaxCachedBeacons());
+        assertEquals(0, parser.getNumberOfCachedBeacons());
+
+        parser = new BeaconAdvertisementParser(2, 2, 0x0215, 0, -1,
+                new int[]{4, 20, 22}, new int[]{16, 2, 2}, 24, 0, 10);
+
+        // check
+        assertEquals(10, parser.getMaxCachedBeacons());
+
+        // force IllegalArgumentException
+        final var offsets = new int[]{4, 20, 22};
+        final var lengths = new int[]{16, 2, 2};
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(-1, 2, 0x0215,
+                0, -1, offsets, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 0, 0x0215,
+                0, -1, offsets, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 5, 0x0215,
+                0, -1, offsets, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                -2, -1, offsets, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, null, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, offsets, null, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, new int[]{4, 20}, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, new int[]{-1, 20, 22}, lengths, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, offsets, new int[]{16, 4, 2}, 24, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, offsets, lengths, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BeaconAdvertisementParser(2, 2, 0x0215,
+                0, -1, offsets, lengths, 24, 0, 0));
+    }
+
+    @Test
+    void testParseIBeacon() {
+        final var randomizer = new UniformRandomizer();
+        final var uuid = UUID.randomUUID();
+        final var major = randomizer.nextInt(0, 65536);
+        final var minor = randomizer.nextInt(0, 65536);
+        final var power = randomizer.nextInt(-100, -30);
+
+        final var data = createIBeaconData(uuid, major, minor, power);
+
+        final var parser = BeaconAdvertisementParser.createIBeaconParser();
+        final var beacon = parser.parse(data);
+
+        // check
+        assertNotNull(beacon);
+        assertEquals(BeaconIdentifier.fromUuid(uuid), beacon.getId1());
+        assertEquals(BeaconIdentifier.fromInt(major), beacon.getId2());
+        assertEquals(BeaconIdentifier.fromInt(minor), beacon.getId3());
+        assertEquals(power, beacon.getTransmittedPower(), 0.0);
+        assertEquals(BeaconAdvertisementParser.IBEACON_MANUFACTURER, beacon.getManufacturer());
+        assertEquals(BeaconAdvertisementParser.IBEACON_TYPE_CODE, beacon.getBeaconTypeCode());
+        assertEquals(-1, beacon.getServiceUuid());
+        assertEquals(new Beacon(List.of(BeaconIdentifier.fromUuid(uuid), BeaconIdentifier.fromInt(major),
+                BeaconIdentifier.fromInt(minor)), power), beacon);
+        assertEquals(1, parser.getNumberOfCachedBeacons());
+
+        // parsing again returns cached instance
+        assertSame(beacon, parser.parse(data.clone()));
+        assertEquals(1, parser.getNumberOfCachedBeacons());
+
+        // parse from slice of a larger array
+        final var larger = new byte[data.length + 10];
+        System.arraycopy(data, 0, larger, 5, data.length);
+        assertSame(beacon, parser.parse(larger, 5, data.length));
+
+        // parse from buffer
+        final var buffer = ByteBuffer.wrap(larger);
+        buffer.position(5);
+        assertSame(beacon, parser.parse(buffer));
+        assertEquals(5, buffer.position());
+
+        // other beacons are not confused with cached one
+        final var other = parser.parse(createIBeaconData(uuid, major, (minor + 1) % 65536, power));
+        assertNotNull(other);
+        assertNotEquals(beacon, other);
+        assertEquals(2, parser.getNumberOfCachedBeacons());
+
+        // clear cache
+        parser.clearCache();
+        assertEquals(0, parser.getNumberOfCachedBeacons());
+        final var beacon2 = parser.parse(data);
+        assertNotSame(beacon, beacon2);
+        assertEquals(beacon, beacon2);
+    }
+
+    @Test
+    void testParseFromDirectBuffer() {
+        final var uuid = UUID.randomUUID();
+        final var data = createIBeaconData(uuid, 1, 2, -59);
+
+        final var buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+
+        final var parser = BeaconAdvertisementParser.createIBeaconParser();
+        final var beacon = parser.parse(buffer);
+
+        // check
+        assertNotNull(beacon);
+        assertEquals(BeaconIdentifier.fromUuid(uuid), beacon.getId1());
+        assertEquals(BeaconIdentifier.fromInt(1), beacon.getId2());
+        assertEquals(BeaconIdentifier.fromInt(2), beacon.getId3());
+        assertEquals(-59.0, beacon.getTransmittedPower(), 0.0);
+        assertSame(beacon, parser.parse(data));
+    }
+
+    @Test
+    void testParseAltBeacon() {
+        final var data = createIBeaconData(UUID.randomUUID(), 1, 2, -59);
+        data[2] = (byte) 0xBE;
+        data[3] = (byte) 0xAC;
+
+        // check
+        assertNull(BeaconAdvertisementParser.createIBeaconParser().parse(data));
+
+        final var beacon = BeaconAdvertisementParser.createAltBeaconParser().parse(data);
+        assertNotNull(beacon);
+        assertEquals(BeaconAdvertisementParser.ALTBEACON_TYPE_CODE, beacon.getBeaconTypeCode());
+    }
+
+    @Test
+    void testParseEddystoneUid() {
+        final var data = new byte[20];
+        data[0] = (byte) 0xAA;
+        data[1] = (byte) 0xFE;
+        data[2] = 0x00;
+        data[3] = (byte) -18;
+        for (var i = 4; i < 20; i++) {
+            data[i] = (byte) i;
+        }
+
+        final var parser = BeaconAdvertisementParser.createEddystoneUidParser();
+        final var beacon = parser.parse(data);
+
+        // check
+        assertNotNull(beacon);
+        assertEquals(BeaconIdentifier.parse("0x0405060708090a0b0c0d"), beacon.getId1());
+        assertEquals(BeaconIdentifier.parse("0x0e0f10111213"), beacon.getId2());
+        assertNull(beacon.getId3());
+        assertEquals(-18 + BeaconAdvertisementParser.EDDYSTONE_POWER_CORRECTION,
+                beacon.getTransmittedPower(), 0.0);
+        assertEquals(BeaconAdvertisementParser.EDDYSTONE_SERVICE_UUID, beacon.getServiceUuid());
+        assertEquals(0, beacon.getManufacturer());
+
+        // service data of other services is not parsed
+        data[1] = (byte) 0xFD;
+        assertNull(parser.parse(data));
+        data[0] = (byte) 0xFE;
+        data[1] = (byte) 0xAA;
+        assertNull(parser.parse(data));
+        assertEquals(1, parser.getNumberOfCachedBeacons());
+    }
+
+    @Test
+    void testCachedBeaconIsReplacedWhenPowerOrManufacturerChanges() {
+        final var uuid = UUID.randomUUID();
+        final var parser = BeaconAdvertisementParser.createAltBeaconParser();
+        final var data = createIBeaconData(uuid, 1, 2, -59);
+        data[2] = (byte) 0xBE;
+        data[3] = (byte) 0xAC;
+
+        final var beacon = parser.parse(data);
+        assertNotNull(beacon);
+        assertSame(beacon, parser.parse(data.clone()));
+
+        // changed transmitted power is not lost
+        data[24] = (byte) -65;
+        final var beacon2 = parser.parse(data);
+        assertNotNull(beacon2);
+        assertNotSame(beacon, beacon2);
+        assertEquals(-65.0, beacon2.getTransmittedPower(), 0.0);
+        assertSame(beacon2, parser.parse(data.clone()));
+
+        // changed company identifier is not lost
+        data[0] = 0x18;
+        data[1] = 0x01;
+        final var beacon3 = parser.parse(data);
+        assertNotNull(beacon3);
+        assertNotSame(beacon2, beacon3);
+        assertEquals(0x0118, beacon3.getManufacturer());
+        assertEquals(-65.0, beacon3.getTransmittedPower(), 0.0);
+
+        // a single beacon is cached
+        assertEquals(1, parser.getNumberOfCachedBeacons());
+    }
+
+    @Test
+    void testParseInvalid() {
+        final var parser = BeaconAdvertisementParser.createIBeaconParser();
+        final var data = createIBeaconData(UUID.randomUUID(), 1, 2, -59);
+
+        // too short
+        assertNull(parser.parse(new byte[10]));
+        assertNull(parser.parse(data, 0, data.length - 1));
+
+        // wrong type code
+        data[3] = 0;
+        assertNull(parser.parse(data));
+        assertEquals(0, parser.getNumberOfCachedBeacons());
+
+        // force NullPointerException
+        assertThrows(NullPointerException.class, () -> parser.parse((byte[]) null));
+        assertThrows(NullPointerException.class, () -> parser.parse(null, 0, 0));
+        assertThrows(NullPointerException.class, () -> parser.parse((ByteBuffer) null));
+
+        // force IndexOutOfBoundsException
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(data, -1, data.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(data, 1, data.length));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(data, 0, -1));
+    }
+
+    @Test
+    void testCacheEviction() {
+        final var parser = new BeaconAdvertisementParser(2, 2, BeaconAdvertisementParser.IBEACON_TYPE_CODE,
+                0, -1, new int[]{4, 20, 22}, new int[]{16, 2, 2}, 24, 0, 4);
+        final var uuid = UUID.randomUUID();
+
+        final var first = parser.parse(createIBeaconData(uuid, 0, 0, -59));
+        for (var i = 1; i < 4; i++) {
+            assertNotNull(parser.parse(createIBeaconData(uuid, 0, i, -59)));
+        }
+
+        // check
+        assertEquals(4, parser.getNumberOfCachedBeacons());
+        assertSame(first, parser.parse(createIBeaconData(uuid, 0, 0, -59)));
+
+        // exceeding capacity clears cache
+        assertNotNull(parser.parse(createIBeaconData(uuid, 0, 4, -59)));
+        assertEquals(1, parser.getNumberOfCachedBeacons());
+        final var first2 = parser.parse(createIBeaconData(uuid, 0, 0, -59));
+        assertNotSame(first, first2);
+        assertEquals(first, first2);
+    }
+
+    private static byte[] createIBeaconData(final UUID uuid, final int major, final int minor, final int power) {
+        final var buffer = ByteBuffer.allocate(25);
+        buffer.put((byte) 0x4C);
+        buffer.put((byte) 0x00);
+        buffer.put((byte) 0x02);
+        buffer.put((byte) 0x15);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+        buffer.putShort((short) major);
+        buffer.putShort((short) minor);
+        buffer.put((byte) power);
+        return buffer.array();
+    }
+}
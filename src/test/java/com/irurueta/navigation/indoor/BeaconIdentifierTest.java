@@ -19,6 +19,7 @@ import com.irurueta.statistics.UniformRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -166,6 +167,44 @@ class BeaconIdentifierTest {
         assertThrows(IllegalArgumentException.class, () -> BeaconIdentifier.parse("hello"));
     }
 
+    @Test
+    void testFromByteBuffer() {
+        final var randomizer = new UniformRandomizer();
+        final var value = randomizer.nextLong();
+        final var id = BeaconIdentifier.fromLong(value, Long.SIZE / Byte.SIZE);
+        final var bytes = id.toByteArray();
+
+        final var larger = new byte[bytes.length + 2];
+        System.arraycopy(bytes, 0, larger, 1, bytes.length);
+        final var buffer = ByteBuffer.wrap(larger);
+
+        var id2 = BeaconIdentifier.fromByteBuffer(buffer, 1, bytes.length + 1, false);
+        assertEquals(id, id2);
+        assertArrayEquals(id.toByteArray(), id2.toByteArray());
+        assertEquals(0, buffer.position());
+
+        // test with little endian
+        id2 = BeaconIdentifier.fromByteBuffer(buffer, 1, bytes.length + 1, true);
+        final var bytes2 = id2.toByteArray();
+        for (var i = 0; i < bytes.length; i++) {
+            assertEquals(bytes[i], bytes2[bytes.length - 1 - i]);
+        }
+
+        // force NullPointerException
+        assertThrows(NullPointerException.class, () -> BeaconIdentifier.fromByteBuffer(null, 0, 1,
+                true));
+
+        // force IndexOutOfBoundsException
+        assertThrows(IndexOutOfBoundsException.class, () -> BeaconIdentifier.fromByteBuffer(buffer, -1,
+                bytes.length, true));
+        assertThrows(IndexOutOfBoundsException.class, () -> BeaconIdentifier.fromByteBuffer(buffer, 0,
+                larger.length + 1, true));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> BeaconIdentifier.fromByteBuffer(buffer,
+                bytes.length, 0, true));
+    }
+
     @Test
     void testFromUuid() {
         final var value = new byte[16];
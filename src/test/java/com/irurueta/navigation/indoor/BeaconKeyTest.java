@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeaconKeyTest {
+
+    @Test
+    void testFromIdentifiersIBeaconLayout() {
+        final var randomizer = new UniformRandomizer();
+        final var uuid = UUID.randomUUID();
+        final var major = randomizer.nextInt(0, 65536);
+        final var minor = randomizer.nextInt(0, 65536);
+
+        final var key = BeaconKey.fromIdentifiers(List.of(BeaconIdentifier.fromUuid(uuid),
+                BeaconIdentifier.fromInt(major), BeaconIdentifier.fromInt(minor)));
+
+        // check
+        assertNotNull(key);
+        assertEquals(uuid.getMostSignificantBits(), key.getMostSignificantBits());
+        assertEquals(uuid.getLeastSignificantBits(), key.getLeastSignificantBits());
+        assertEquals((major << 16) | minor, key.getTail());
+        assertEquals(3, key.getNumberOfIdentifiers());
+        assertEquals(16, key.getIdentifierByteCount(0));
+        assertEquals(2, key.getIdentifierByteCount(1));
+        assertEquals(2, key.getIdentifierByteCount(2));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> key.getIdentifierByteCount(-1));
+        assertThrows(IllegalArgumentException.class, () -> key.getIdentifierByteCount(3));
+    }
+
+    @Test
+    void testFromIdentifiersEddystoneLayout() {
+        final var namespace = BeaconIdentifier.parse("0x00010203040506070809");
+        final var instance = BeaconIdentifier.parse("0x0a0b0c0d0e0f");
+
+        final var key = BeaconKey.fromIdentifiers(List.of(namespace, instance));
+
+        // check
+        assertNotNull(key);
+        assertEquals(0x0001020304050607L, key.getMostSignificantBits());
+        assertEquals(0x08090a0b0c0d0e0fL, key.getLeastSignificantBits());
+        assertEquals(0, key.getTail());
+        assertEquals(2, key.getNumberOfIdentifiers());
+        assertEquals(10, key.getIdentifierByteCount(0));
+        assertEquals(6, key.getIdentifierByteCount(1));
+
+        // same bytes split in a different layout are not equal
+        final var uuidKey = BeaconKey.fromIdentifiers(List.of(
+                BeaconIdentifier.parse("0x000102030405060708090a0b0c0d0e0f")));
+        assertNotNull(uuidKey);
+        assertEquals(key.getMostSignificantBits(), uuidKey.getMostSignificantBits());
+        assertEquals(key.getLeastSignificantBits(), uuidKey.getLeastSignificantBits());
+        assertNotEquals(key, uuidKey);
+    }
+
+    @Test
+    void testFromIdentifiersNotPackable() {
+        final var id = BeaconIdentifier.fromLong(1L, Long.BYTES);
+
+        assertNull(BeaconKey.fromIdentifiers(null));
+        assertNull(BeaconKey.fromIdentifiers(List.of(id, id, id)));
+        assertNull(BeaconKey.fromIdentifiers(List.of(id, id, id, id)));
+
+        final var identifiers = new ArrayList<BeaconIdentifier>();
+        identifiers.add(null);
+        assertNull(BeaconKey.fromIdentifiers(identifiers));
+
+        final var empty = BeaconKey.fromIdentifiers(new ArrayList<>());
+        assertNotNull(empty);
+        assertEquals(0, empty.getNumberOfIdentifiers());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        final var uuid = UUID.randomUUID();
+
+        final var key1 = BeaconKey.fromIdentifiers(List.of(BeaconIdentifier.fromUuid(uuid),
+                BeaconIdentifier.fromInt(1), BeaconIdentifier.fromInt(2)));
+        final var key2 = BeaconKey.fromIdentifiers(List.of(BeaconIdentifier.fromUuid(uuid),
+                BeaconIdentifier.fromInt(1), BeaconIdentifier.fromInt(2)));
+        final var key3 = BeaconKey.fromIdentifiers(List.of(BeaconIdentifier.fromUuid(uuid),
+                BeaconIdentifier.fromInt(2), BeaconIdentifier.fromInt(1)));
+
+        // check
+        assertNotNull(key1);
+        //noinspection EqualsWithItself
+        assertEquals(key1, key1);
+        assertEquals(key1, key2);
+        assertNotEquals(key1, key3);
+        assertNotEquals(new Object(), key1);
+
+        assertEquals(key1.hashCode(), key2.hashCode());
+        assertNotEquals(key1.hashCode(), key3.hashCode());
+    }
+
+    @Test
+    void testSerializeDeserialize() throws IOException, ClassNotFoundException {
+        final var key1 = BeaconKey.fromIdentifiers(List.of(BeaconIdentifier.fromUuid(UUID.randomUUID()),
+                BeaconIdentifier.fromInt(1), BeaconIdentifier.fromInt(2)));
+
+        final var bytes = SerializationHelper.serialize(key1);
+        final var key2 = SerializationHelper.<BeaconKey>deserialize(bytes);
+
+        // check
+        assertEquals(key1, key2);
+        assertNotSame(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+    }
+}
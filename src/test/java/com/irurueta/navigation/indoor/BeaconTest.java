@@ -15,11 +15,14 @@
  */
 package com.irurueta.navigation.indoor;
 
+import com.irurueta.geometry.InhomogeneousPoint2D;
 import com.irurueta.statistics.UniformRandomizer;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -218,6 +221,75 @@ class BeaconTest {
         assertNotEquals(b1.hashCode(), b3.hashCode());
     }
 
+    @Test
+    void testGetKey() {
+        final var uuid = UUID.randomUUID();
+        final var identifiers = new ArrayList<BeaconIdentifier>();
+        identifiers.add(BeaconIdentifier.fromUuid(uuid));
+        identifiers.add(BeaconIdentifier.fromInt(1));
+        identifiers.add(BeaconIdentifier.fromInt(2));
+
+        final var b = new Beacon(identifiers, -60.0);
+
+        // check
+        final var key = b.getKey();
+        assertNotNull(key);
+        assertSame(key, b.getKey());
+        assertEquals(BeaconKey.fromIdentifiers(identifiers), key);
+        assertEquals(key.hashCode(), b.hashCode());
+
+        // identifiers too large to be packed
+        final var randomizer = new UniformRandomizer();
+        final var largeIdentifiers = new ArrayList<BeaconIdentifier>();
+        largeIdentifiers.add(BeaconIdentifier.fromLong(randomizer.nextLong(), Long.SIZE / Byte.SIZE));
+        largeIdentifiers.add(BeaconIdentifier.fromLong(randomizer.nextLong(), Long.SIZE / Byte.SIZE));
+        largeIdentifiers.add(BeaconIdentifier.fromLong(randomizer.nextLong(), Long.SIZE / Byte.SIZE));
+
+        final var b2 = new Beacon(largeIdentifiers, -60.0);
+        assertNull(b2.getKey());
+        assertEquals(largeIdentifiers.hashCode(), b2.hashCode());
+
+        // empty beacon
+        assertNull(new Beacon().getKey());
+    }
+
+    @Test
+    void testEqualsPackedIdentifiers() {
+        final var uuid = UUID.randomUUID();
+
+        final var identifiers1 = new ArrayList<BeaconIdentifier>();
+        identifiers1.add(BeaconIdentifier.fromUuid(uuid));
+        identifiers1.add(BeaconIdentifier.fromInt(1));
+        identifiers1.add(BeaconIdentifier.fromInt(2));
+
+        final var identifiers2 = new ArrayList<BeaconIdentifier>();
+        identifiers2.add(BeaconIdentifier.fromUuid(uuid));
+        identifiers2.add(BeaconIdentifier.fromInt(1));
+        identifiers2.add(BeaconIdentifier.fromInt(3));
+
+        final var b1 = new Beacon(identifiers1, -60.0);
+        final var b2 = new BeaconLocated2D(identifiers1, -50.0, new InhomogeneousPoint2D());
+        final var b3 = new Beacon(identifiers2, -60.0);
+
+        // check
+        //noinspection EqualsWithItself
+        assertEquals(b1, b1);
+        assertEquals(b1, b2);
+        assertEquals(b2, b1);
+        assertNotEquals(b1, b3);
+        assertNotEquals(new Beacon(), new Beacon());
+
+        assertEquals(b1.hashCode(), b2.hashCode());
+        assertNotEquals(b1.hashCode(), b3.hashCode());
+
+        // check hash-keyed lookups
+        final var map = new HashMap<RadioSource, Integer>();
+        map.put(b1, 1);
+        map.put(b3, 3);
+        assertEquals(1, map.get(b2));
+        assertEquals(3, map.get(new Beacon(identifiers2, -40.0)));
+    }
+
     @Test
     void testSerializeDeserialize() throws IOException, ClassNotFoundException {
         final var randomizer = new UniformRandomizer();
@@ -0,0 +1,349 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryDecoderTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        assertNotNull(new BinaryDecoder(new ByteArrayInputStream(new byte[0])));
+        assertNotNull(new BinaryDecoder(new ByteArrayInputStream(new byte[0]), 16));
+        assertNotNull(new BinaryDecoder(ByteBuffer.allocate(0)));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new BinaryDecoder((ByteBuffer) null));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryDecoder((ByteArrayInputStream) null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryDecoder(new ByteArrayInputStream(new byte[0]), 0));
+    }
+
+    @Test
+    void testRadioSources() throws IOException, AlgebraException {
+        final var sources = createSources();
+
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+        for (final var source : sources) {
+            encoder.writeRadioSource(source);
+        }
+        // repeated sources are decoded as the same instance
+        encoder.writeRadioSource(sources.get(0));
+        encoder.flush();
+
+        // small internal buffer forces refills in the middle of records
+        final var decoder = new BinaryDecoder(new ByteArrayInputStream(stream.toByteArray()), 3);
+        final var decoded = new ArrayList<RadioSource>();
+        for (var i = 0; i < sources.size(); i++) {
+            final var source = decoder.readRadioSource();
+            assertSameSource(sources.get(i), source);
+            decoded.add(source);
+        }
+        assertSame(decoded.get(0), decoder.readRadioSource());
+        assertEquals(sources.size(), decoder.getNumberOfSources());
+        assertFalse(decoder.hasRemaining());
+
+        // force EOFException
+        assertThrows(EOFException.class, decoder::readRadioSource);
+    }
+
+    @Test
+    void testReadings() throws IOException, AlgebraException {
+        final var readings = createReadings(new WifiAccessPoint("bssid", FREQUENCY, "ssid"));
+
+        final var buffer = ByteBuffer.allocate(4096);
+        final var encoder = new BinaryEncoder(buffer);
+        for (final var reading : readings) {
+            encoder.writeReading(reading);
+        }
+        buffer.flip();
+
+        final var decoder = new BinaryDecoder(buffer);
+        for (final var reading : readings) {
+            assertTrue(decoder.hasRemaining());
+            assertSameReading(reading, decoder.readReading());
+        }
+        assertFalse(decoder.hasRemaining());
+        assertEquals(1, decoder.getNumberOfSources());
+    }
+
+    @Test
+    void testFingerprints() throws IOException, AlgebraException {
+        final var source = new BeaconWithPowerAndLocated3D(
+                List.of(BeaconIdentifier.fromInt(1), BeaconIdentifier.fromInt(2)), -50.0, FREQUENCY,
+                "address", 0x0215, 0x004C, -1, "name", 2.5, 0.5, 0.1,
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0), Matrix.identity(3, 3));
+
+        final var fingerprints = new ArrayList<Fingerprint<?, ?>>();
+        fingerprints.add(new Fingerprint<>(createReadings(source)));
+        fingerprints.add(new RssiFingerprint<>(List.of(new RssiReading<>(source, -60.0),
+                new RssiReading<>(source, -60.25, 1.5))));
+        fingerprints.add(new RangingFingerprint<>(List.of(new RangingReading<>(source, 1.0),
+                new RangingReading<>(source, 2.0, 0.5, 4, 3))));
+        fingerprints.add(new RangingAndRssiFingerprint<>(List.of(
+                new RangingAndRssiReading<>(source, 1.0, -70.0))));
+        final var rssiReadings = List.of(new RssiReading<RadioSource>(source, -60.0));
+        final var rangingReadings = List.of(new RangingReading<RadioSource>(source, 1.0));
+        final var rangingAndRssiReadings = List.of(new RangingAndRssiReading<RadioSource>(source, 1.0, -70.0));
+        fingerprints.add(new RssiFingerprintLocated2D<>(rssiReadings, new InhomogeneousPoint2D(1.0, 2.0)));
+        fingerprints.add(new RssiFingerprintLocated3D<>(rssiReadings, new InhomogeneousPoint3D(1.0, 2.0, 3.0),
+                Matrix.identity(3, 3)));
+        fingerprints.add(new RangingFingerprintLocated2D<>(rangingReadings, new InhomogeneousPoint2D(1.0, 2.0),
+                nonSymmetric(2)));
+        fingerprints.add(new RangingFingerprintLocated3D<>(rangingReadings,
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0)));
+        fingerprints.add(new RangingAndRssiFingerprintLocated2D<>(rangingAndRssiReadings,
+                new InhomogeneousPoint2D(1.0, 2.0)));
+        fingerprints.add(new RangingAndRssiFingerprintLocated3D<>(rangingAndRssiReadings,
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0), Matrix.identity(3, 3)));
+
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+        for (final var fingerprint : fingerprints) {
+            encoder.writeFingerprint(fingerprint);
+        }
+        encoder.flush();
+
+        final var decoder = new BinaryDecoder(new ByteArrayInputStream(stream.toByteArray()));
+        for (final var fingerprint : fingerprints) {
+            final Fingerprint<?, ?> decoded = decoder.readFingerprint();
+
+            assertSame(fingerprint.getClass(), decoded.getClass());
+            assertEquals(fingerprint.getReadings().size(), decoded.getReadings().size());
+            for (var i = 0; i < fingerprint.getReadings().size(); i++) {
+                assertSameReading(fingerprint.getReadings().get(i), decoded.getReadings().get(i));
+            }
+            if (fingerprint instanceof FingerprintLocated<?> located) {
+                final var decodedLocated = (FingerprintLocated<?>) decoded;
+                assertSamePosition(located.getPosition(), decodedLocated.getPosition());
+                assertSameMatrix(located.getPositionCovariance(), decodedLocated.getPositionCovariance());
+            }
+        }
+        assertFalse(decoder.hasRemaining());
+
+        // decoded fingerprints can be assigned to their expected types
+        final var decoder2 = new BinaryDecoder(new ByteArrayInputStream(stream.toByteArray()));
+        decoder2.readFingerprint();
+        final RssiFingerprint<RadioSource, RssiReading<RadioSource>> rssiFingerprint = decoder2.readFingerprint();
+        assertEquals(-60.25, rssiFingerprint.getReadings().get(1).getRssi(), 0.0);
+    }
+
+    @Test
+    void testEmptyData() throws IOException {
+        final var decoder = new BinaryDecoder(ByteBuffer.allocate(0));
+
+        assertFalse(decoder.hasRemaining());
+
+        // force EOFException
+        assertThrows(EOFException.class, decoder::readReading);
+
+        // a flushed encoder produces decodable empty data
+        final var stream = new ByteArrayOutputStream();
+        new BinaryEncoder(stream).flush();
+        assertFalse(new BinaryDecoder(new ByteArrayInputStream(stream.toByteArray())).hasRemaining());
+    }
+
+    @Test
+    void testInvalidData() throws IOException {
+        // invalid magic number
+        final var decoder1 = new BinaryDecoder(ByteBuffer.wrap(new byte[]{'X', 'N', 'D', 'R', 1}));
+        assertThrows(StreamCorruptedException.class, decoder1::hasRemaining);
+
+        // unsupported version
+        final var decoder2 = new BinaryDecoder(ByteBuffer.wrap(
+                new byte[]{'I', 'N', 'D', 'R', (byte) (BinaryEncoder.VERSION + 1)}));
+        assertThrows(StreamCorruptedException.class, decoder2::readRadioSource);
+
+        // record of unexpected kind
+        final var buffer = ByteBuffer.allocate(1024);
+        final var encoder = new BinaryEncoder(buffer);
+        encoder.writeReading(new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY), -60.0));
+        buffer.flip();
+        final var bytes = Arrays.copyOf(buffer.array(), buffer.limit());
+
+        final var decoder3 = new BinaryDecoder(ByteBuffer.wrap(bytes));
+        assertThrows(StreamCorruptedException.class, decoder3::readFingerprint);
+
+        // reference to unknown radio source
+        final var decoder4 = new BinaryDecoder(ByteBuffer.wrap(
+                new byte[]{'I', 'N', 'D', 'R', BinaryEncoder.VERSION, 5}));
+        assertThrows(StreamCorruptedException.class, decoder4::readRadioSource);
+
+        // truncated data
+        final var decoder5 = new BinaryDecoder(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(EOFException.class, decoder5::readReading);
+    }
+
+    private static List<RadioSource> createSources() throws AlgebraException {
+        final var identifiers = List.of(BeaconIdentifier.fromUuid(java.util.UUID.randomUUID()),
+                BeaconIdentifier.fromInt(1), BeaconIdentifier.fromInt(2));
+        final var position2D = new InhomogeneousPoint2D(1.0, 2.0);
+        final var position3D = new InhomogeneousPoint3D(1.0, 2.0, 3.0);
+
+        final var sources = new ArrayList<RadioSource>();
+        sources.add(new WifiAccessPoint("bssid1", FREQUENCY));
+        sources.add(new WifiAccessPoint("bssid2", FREQUENCY, "ssid-ñ"));
+        sources.add(new WifiAccessPointWithPower("bssid3", FREQUENCY, "ssid", -50.0, 0.5, 2.5, 0.1));
+        sources.add(new WifiAccessPointWithPower("bssid4", FREQUENCY, -50.0));
+        sources.add(new WifiAccessPointLocated2D("bssid5", FREQUENCY, position2D));
+        sources.add(new WifiAccessPointLocated3D("bssid6", FREQUENCY, "ssid", position3D,
+                Matrix.identity(3, 3)));
+        sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid7", FREQUENCY, "ssid", -50.0, 0.5, 2.5,
+                0.1, position2D, nonSymmetric(2)));
+        sources.add(new WifiAccessPointWithPowerAndLocated3D("bssid8", FREQUENCY, -50.0, position3D));
+        sources.add(new Beacon(identifiers, -50.0));
+        sources.add(new Beacon(identifiers, -51.0, FREQUENCY, "address", 0xBEAC, 0x0118, 0xFEAA, "name"));
+        sources.add(new BeaconWithPower(identifiers, -50.0, FREQUENCY, null, 0, 0, -1, null, 2.5, 0.5,
+                null));
+        sources.add(new BeaconLocated2D(identifiers, -50.0, position2D));
+        sources.add(new BeaconLocated3D(identifiers, -50.0, FREQUENCY, "address", 0, 0, -1, "name",
+                position3D, Matrix.identity(3, 3)));
+        sources.add(new BeaconWithPowerAndLocated2D(identifiers, -50.0, FREQUENCY, "address", 0, 0, -1,
+                "name", 2.5, 0.5, 0.1, position2D, Matrix.identity(2, 2)));
+        sources.add(new BeaconWithPowerAndLocated3D(identifiers, -50.0, position3D));
+        return sources;
+    }
+
+    private static List<Reading<RadioSource>> createReadings(final RadioSource source) throws AlgebraException {
+        final var position2D = new InhomogeneousPoint2D(1.0, 2.0);
+        final var position3D = new InhomogeneousPoint3D(1.0, 2.0, 3.0);
+
+        final var readings = new ArrayList<Reading<RadioSource>>();
+        readings.add(new RssiReading<>(source, -60.0));
+        readings.add(new RssiReading<>(source, -60.5, 2.0));
+        readings.add(new RssiReading<>(source, -0.0));
+        readings.add(new RangingReading<>(source, 5.0));
+        readings.add(new RangingReading<>(source, 5.0, 0.5, 10, 8));
+        readings.add(new RangingAndRssiReading<>(source, 5.0, -90.0));
+        readings.add(new RangingAndRssiReading<>(source, 5.0, -30.0, 0.5, 1.0, 3, 2));
+        readings.add(new RssiReadingLocated2D<>(source, -60.0, position2D));
+        readings.add(new RssiReadingLocated3D<>(source, -60.0, position3D, 2.0, Matrix.identity(3, 3)));
+        readings.add(new RangingReadingLocated2D<>(source, 5.0, position2D, 0.5, nonSymmetric(2), 4, 3));
+        readings.add(new RangingReadingLocated3D<>(source, 5.0, position3D));
+        readings.add(new RangingAndRssiReadingLocated2D<>(source, 5.0, -60.0, position2D));
+        readings.add(new RangingAndRssiReadingLocated3D<>(source, 5.0, -60.0, position3D, 0.5, 2.0,
+                Matrix.identity(3, 3), 5, 5));
+        return readings;
+    }
+
+    private static Matrix nonSymmetric(final int n) throws AlgebraException {
+        final var m = Matrix.identity(n, n);
+        m.setElementAt(0, 1, 0.25);
+        return m;
+    }
+
+    private static void assertSameSource(final RadioSource expected, final RadioSource actual) {
+        assertSame(expected.getClass(), actual.getClass());
+        assertEquals(expected, actual);
+        assertEquals(expected.getFrequency(), actual.getFrequency(), 0.0);
+
+        if (expected instanceof WifiAccessPoint accessPoint) {
+            assertEquals(accessPoint.getSsid(), ((WifiAccessPoint) actual).getSsid());
+        } else {
+            final var beacon1 = (Beacon) expected;
+            final var beacon2 = (Beacon) actual;
+            assertEquals(beacon1.getIdentifiers(), beacon2.getIdentifiers());
+            assertEquals(beacon1.getTransmittedPower(), beacon2.getTransmittedPower(), 0.0);
+            assertEquals(beacon1.getBluetoothAddress(), beacon2.getBluetoothAddress());
+            assertEquals(beacon1.getBluetoothName(), beacon2.getBluetoothName());
+            assertEquals(beacon1.getBeaconTypeCode(), beacon2.getBeaconTypeCode());
+            assertEquals(beacon1.getManufacturer(), beacon2.getManufacturer());
+            assertEquals(beacon1.getServiceUuid(), beacon2.getServiceUuid());
+        }
+
+        if (expected instanceof RadioSourceWithPower withPower1) {
+            final var withPower2 = (RadioSourceWithPower) actual;
+            assertEquals(withPower1.getTransmittedPower(), withPower2.getTransmittedPower(), 0.0);
+            assertEquals(withPower1.getTransmittedPowerStandardDeviation(),
+                    withPower2.getTransmittedPowerStandardDeviation());
+            assertEquals(withPower1.getPathLossExponent(), withPower2.getPathLossExponent(), 0.0);
+            assertEquals(withPower1.getPathLossExponentStandardDeviation(),
+                    withPower2.getPathLossExponentStandardDeviation());
+        }
+        if (expected instanceof RadioSourceLocated<?> located1) {
+            final var located2 = (RadioSourceLocated<?>) actual;
+            assertSamePosition(located1.getPosition(), located2.getPosition());
+            assertSameMatrix(located1.getPositionCovariance(), located2.getPositionCovariance());
+        }
+    }
+
+    private static void assertSameReading(final Reading<?> expected, final Reading<?> actual) {
+        assertSame(expected.getClass(), actual.getClass());
+        assertSameSource(expected.getSource(), actual.getSource());
+
+        if (expected instanceof RssiReading<?> rssi1) {
+            final var rssi2 = (RssiReading<?>) actual;
+            assertEquals(rssi1.getRssi(), rssi2.getRssi(), 0.0);
+            assertEquals(rssi1.getRssiStandardDeviation(), rssi2.getRssiStandardDeviation());
+        } else if (expected instanceof RangingReading<?> ranging1) {
+            final var ranging2 = (RangingReading<?>) actual;
+            assertEquals(ranging1.getDistance(), ranging2.getDistance(), 0.0);
+            assertEquals(ranging1.getDistanceStandardDeviation(), ranging2.getDistanceStandardDeviation());
+            assertEquals(ranging1.getNumAttemptedMeasurements(), ranging2.getNumAttemptedMeasurements());
+            assertEquals(ranging1.getNumSuccessfulMeasurements(), ranging2.getNumSuccessfulMeasurements());
+        } else {
+            final var reading1 = (RangingAndRssiReading<?>) expected;
+            final var reading2 = (RangingAndRssiReading<?>) actual;
+            assertEquals(reading1.getRssi(), reading2.getRssi(), 0.0);
+            assertEquals(reading1.getRssiStandardDeviation(), reading2.getRssiStandardDeviation());
+            assertEquals(reading1.getDistance(), reading2.getDistance(), 0.0);
+            assertEquals(reading1.getDistanceStandardDeviation(), reading2.getDistanceStandardDeviation());
+            assertEquals(reading1.getNumAttemptedMeasurements(), reading2.getNumAttemptedMeasurements());
+            assertEquals(reading1.getNumSuccessfulMeasurements(), reading2.getNumSuccessfulMeasurements());
+        }
+
+        if (expected instanceof ReadingLocated<?> located1) {
+            final var located2 = (ReadingLocated<?>) actual;
+            assertSamePosition(located1.getPosition(), located2.getPosition());
+            assertSameMatrix(located1.getPositionCovariance(), located2.getPositionCovariance());
+        }
+    }
+
+    private static void assertSamePosition(final Point<?> expected, final Point<?> actual) {
+        assertEquals(expected.getDimensions(), actual.getDimensions());
+        for (var i = 0; i < expected.getDimensions(); i++) {
+            assertEquals(expected.getInhomogeneousCoordinate(i), actual.getInhomogeneousCoordinate(i), 0.0);
+        }
+    }
+
+    private static void assertSameMatrix(final Matrix expected, final Matrix actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertTrue(expected.equals(actual, 0.0));
+        }
+    }
+}
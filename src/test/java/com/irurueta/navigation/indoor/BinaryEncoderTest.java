@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryEncoderTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int HEADER_LENGTH = 5;
+
+    @Test
+    void testConstructor() {
+        assertNotNull(new BinaryEncoder(new ByteArrayOutputStream()));
+        assertNotNull(new BinaryEncoder(new ByteArrayOutputStream(), 16));
+        assertNotNull(new BinaryEncoder(ByteBuffer.allocate(16)));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new BinaryEncoder((ByteBuffer) null));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryEncoder((ByteArrayOutputStream) null));
+        assertThrows(IllegalArgumentException.class, () -> new BinaryEncoder(new ByteArrayOutputStream(), 0));
+    }
+
+    @Test
+    void testFlushWritesHeader() throws IOException {
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+
+        encoder.flush();
+
+        // check
+        final var bytes = stream.toByteArray();
+        assertEquals(HEADER_LENGTH, bytes.length);
+        assertEquals('I', bytes[0]);
+        assertEquals('N', bytes[1]);
+        assertEquals('D', bytes[2]);
+        assertEquals('R', bytes[3]);
+        assertEquals(BinaryEncoder.VERSION, bytes[4]);
+
+        // header is written only once
+        encoder.flush();
+        assertEquals(HEADER_LENGTH, stream.size());
+    }
+
+    @Test
+    void testDataIsBufferedUntilFlush() throws IOException {
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+
+        encoder.writeRadioSource(new WifiAccessPoint("bssid", FREQUENCY));
+
+        // check
+        assertEquals(0, stream.size());
+
+        encoder.flush();
+        assertTrue(stream.size() > HEADER_LENGTH);
+    }
+
+    @Test
+    void testIdenticalSourcesAreEncodedOnce() throws IOException {
+        final var buffer = ByteBuffer.allocate(1024);
+        final var encoder = new BinaryEncoder(buffer);
+
+        encoder.writeReading(new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY, "ssid"), -60.0));
+        final var first = buffer.position();
+
+        // an equal but distinct instance is encoded as a reference
+        encoder.writeReading(new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY, "ssid"), -61.0));
+        final var second = buffer.position() - first;
+
+        // check
+        assertEquals(1, encoder.getNumberOfSources());
+        // tag, flags, source reference and RSSI delta
+        assertEquals(4, second);
+
+        // sources having the same identifier but different contents are kept
+        encoder.writeReading(new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY), -60.0));
+        assertEquals(2, encoder.getNumberOfSources());
+    }
+
+    @Test
+    void testIntegralRssiIsDeltaEncoded() throws IOException {
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+
+        final var buffer = ByteBuffer.allocate(1024);
+        final var encoder = new BinaryEncoder(buffer);
+        encoder.writeReading(new RssiReading<>(source, -60.0));
+        var position = buffer.position();
+
+        encoder.writeReading(new RssiReading<>(source, -62.0));
+
+        // check
+        assertEquals(4, buffer.position() - position);
+        position = buffer.position();
+
+        // non integral values are written with full precision
+        encoder.writeReading(new RssiReading<>(source, -62.5));
+        assertEquals(3 + Double.BYTES, buffer.position() - position);
+    }
+
+    @Test
+    void testIsSmallerThanJavaSerialization() throws IOException, AlgebraException {
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        for (var i = 0; i < 10; i++) {
+            sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY, -50.0,
+                    new InhomogeneousPoint2D(i, 2.0 * i)));
+        }
+
+        final var fingerprints = new ArrayList<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>();
+        for (var j = 0; j < 20; j++) {
+            final var readings = new ArrayList<RssiReading<RadioSource>>();
+            for (final var source : sources) {
+                readings.add(new RssiReading<>(source, -60.0 - j));
+            }
+            fingerprints.add(new RssiFingerprintLocated2D<>(readings, new InhomogeneousPoint2D(j, j),
+                    Matrix.identity(2, 2)));
+        }
+
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+        for (final var fingerprint : fingerprints) {
+            encoder.writeFingerprint(fingerprint);
+        }
+        encoder.flush();
+
+        // check
+        assertEquals(sources.size(), encoder.getNumberOfSources());
+        assertTrue(stream.size() < SerializationHelper.serialize(fingerprints).length / 3);
+    }
+
+    @Test
+    void testBufferOverflowLeavesBufferUntouched() throws IOException {
+        final var buffer = ByteBuffer.allocate(64);
+        final var encoder = new BinaryEncoder(buffer);
+
+        final var large = new RssiReading<>(new WifiAccessPoint("x".repeat(64), FREQUENCY), -60.0);
+
+        // force BufferOverflowException
+        assertThrows(BufferOverflowException.class, () -> encoder.writeReading(large));
+
+        // check
+        assertEquals(0, buffer.position());
+        assertEquals(0, encoder.getNumberOfSources());
+
+        // records that fit are still encoded along with header and sources
+        final var small = new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY), -60.0);
+        encoder.writeReading(small);
+        assertEquals(1, encoder.getNumberOfSources());
+
+        buffer.flip();
+        final var decoder = new BinaryDecoder(buffer);
+        final var reading = (RssiReading<RadioSource>) decoder.readReading();
+        assertEquals(small.getSource(), reading.getSource());
+        assertEquals(-60.0, reading.getRssi(), 0.0);
+        assertFalse(decoder.hasRemaining());
+    }
+
+    @Test
+    void testUnsupportedClasses() {
+        final var encoder = new BinaryEncoder(ByteBuffer.allocate(1024));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeRadioSource(null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeReading(null));
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeFingerprint(null));
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY) {
+        };
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeRadioSource(source));
+
+        final var readings = List.of(new RssiReading<RadioSource>(new WifiAccessPoint("bssid", FREQUENCY),
+                -60.0), new RssiReading<RadioSource>(source, -60.0));
+        assertThrows(IllegalArgumentException.class, () -> encoder.writeFingerprint(new Fingerprint<>(readings)));
+
+        // check that nothing was written and no source was kept
+        assertEquals(0, encoder.getNumberOfSources());
+    }
+}
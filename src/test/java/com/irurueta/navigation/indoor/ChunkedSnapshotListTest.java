@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedSnapshotListTest {
+
+    private static final int NUM_ELEMENTS = 5 * ChunkedSnapshotList.CHUNK_SIZE + 3;
+
+    private static final int TIMES = 1000;
+
+    @Test
+    void testAddSetAndRemoveLast() {
+        final var list = new ChunkedSnapshotList<Integer>();
+
+        // check default value
+        assertEquals(0, list.size());
+        assertEquals(List.of(), list.snapshot());
+
+        for (var i = 0; i < NUM_ELEMENTS; i++) {
+            list.add(i);
+        }
+
+        // check
+        assertEquals(NUM_ELEMENTS, list.size());
+        for (var i = 0; i < NUM_ELEMENTS; i++) {
+            assertEquals(i, list.get(i));
+        }
+
+        assertEquals(3, list.set(3, -3));
+        assertEquals(-3, list.get(3));
+        assertEquals(NUM_ELEMENTS - 1, list.removeLast());
+        assertEquals(NUM_ELEMENTS - 1, list.size());
+
+        // force IndexOutOfBoundsException
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(NUM_ELEMENTS - 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.set(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> new ChunkedSnapshotList<Integer>().removeLast());
+    }
+
+    @Test
+    void testSnapshotsAreNotModified() {
+        final var random = new Random();
+        final var list = new ChunkedSnapshotList<Integer>();
+        final var expected = new ArrayList<Integer>();
+        final var snapshots = new ArrayList<List<Integer>>();
+        final var expectedSnapshots = new ArrayList<List<Integer>>();
+
+        for (var t = 0; t < TIMES; t++) {
+            final var operation = random.nextInt(4);
+            if (operation == 0 && !expected.isEmpty()) {
+                final var index = random.nextInt(expected.size());
+                expected.set(index, t);
+                list.set(index, t);
+            } else if (operation == 1 && !expected.isEmpty()) {
+                expected.remove(expected.size() - 1);
+                list.removeLast();
+            } else {
+                expected.add(t);
+                list.add(t);
+            }
+
+            if (random.nextInt(10) == 0) {
+                snapshots.add(list.snapshot());
+                expectedSnapshots.add(List.copyOf(expected));
+            }
+        }
+
+        // check that every snapshot keeps the elements it had when published
+        assertEquals(expectedSnapshots, snapshots);
+        assertEquals(expected, list.snapshot());
+    }
+
+    @Test
+    void testSnapshotIsUnmodifiable() {
+        final var list = new ChunkedSnapshotList<Integer>();
+        list.add(1);
+        final var snapshot = list.snapshot();
+
+        // check
+        assertEquals(1, snapshot.size());
+        assertEquals(1, snapshot.get(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> snapshot.get(1));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(2));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.set(0, 2));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove(0));
+    }
+}
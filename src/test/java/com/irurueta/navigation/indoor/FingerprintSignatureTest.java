@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintSignatureTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double RSSI_BIN_SIZE = 2.0;
+
+    private static final double DISTANCE_BIN_SIZE = 0.5;
+
+    @Test
+    void testConstructor() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var source3 = new WifiAccessPoint("bssid3", FREQUENCY);
+        final var fingerprint = new Fingerprint<RadioSource, Reading<RadioSource>>(List.of(
+                new RssiReading<>(source1, -60.0), new RssiReading<>(source1, -64.0),
+                new RangingReading<>(source2, 3.0),
+                new RangingAndRssiReading<>(source3, 1.0, -50.0)));
+
+        final var signature = new FingerprintSignature(fingerprint, RSSI_BIN_SIZE, DISTANCE_BIN_SIZE);
+
+        // check
+        assertEquals(2, signature.getRssiBins().size());
+        assertEquals(-31L, signature.getRssiBins().get(source1));
+        assertEquals(-25L, signature.getRssiBins().get(source3));
+        assertEquals(2, signature.getDistanceBins().size());
+        assertEquals(6L, signature.getDistanceBins().get(source2));
+        assertEquals(2L, signature.getDistanceBins().get(source3));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new FingerprintSignature(null, RSSI_BIN_SIZE,
+                DISTANCE_BIN_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> new FingerprintSignature(fingerprint, 0.0,
+                DISTANCE_BIN_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> new FingerprintSignature(fingerprint, RSSI_BIN_SIZE,
+                0.0));
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+
+        final var fingerprint1 = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(source1, -60.1), new RssiReading<>(source2, -70.2)));
+        // same sources in other order with readings within the same bins
+        final var fingerprint2 = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(new WifiAccessPoint("bssid2", FREQUENCY), -69.8),
+                new RssiReading<>(new WifiAccessPoint("bssid1", FREQUENCY), -59.9)));
+        // reading in another bin
+        final var fingerprint3 = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(source1, -60.1), new RssiReading<>(source2, -75.0)));
+        // missing source
+        final var fingerprint4 = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(source1, -60.1)));
+
+        final var signature1 = new FingerprintSignature(fingerprint1, RSSI_BIN_SIZE, DISTANCE_BIN_SIZE);
+        final var signature2 = new FingerprintSignature(fingerprint2, RSSI_BIN_SIZE, DISTANCE_BIN_SIZE);
+        final var signature3 = new FingerprintSignature(fingerprint3, RSSI_BIN_SIZE, DISTANCE_BIN_SIZE);
+        final var signature4 = new FingerprintSignature(fingerprint4, RSSI_BIN_SIZE, DISTANCE_BIN_SIZE);
+
+        // check
+        //noinspection EqualsWithItself
+        assertEquals(signature1, signature1);
+        assertEquals(signature1, signature2);
+        assertEquals(signature1.hashCode(), signature2.hashCode());
+        assertNotEquals(signature1, signature3);
+        assertNotEquals(signature1, signature4);
+        assertNotEquals(signature1, new Object());
+        assertNotEquals(null, signature1);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedRadioMap2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testInsertWithLabels() {
+        final var radioMap = new PartitionedRadioMap2D();
+
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint1 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0)), new InhomogeneousPoint2D());
+        final var fingerprint2 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source2, -60.0)), new InhomogeneousPoint2D());
+
+        // partitions cannot be derived from 2D positions
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(fingerprint1));
+
+        final var key1 = new RadioMapPartitionKey("north", 0);
+        final var key2 = new RadioMapPartitionKey("south", 0);
+        radioMap.insert(key1, fingerprint1);
+        radioMap.insert(key2, fingerprint2);
+
+        // check
+        assertEquals(2, radioMap.size());
+        assertInstanceOf(RadioMap2D.class, radioMap.getRadioMap(key1));
+
+        final var query = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source2, -65.0)));
+        assertEquals(List.of(key2), radioMap.classify(query, 1));
+        assertSame(fingerprint2, radioMap.findNearestTo(query));
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimator3D;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimatorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedRadioMap3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private final WifiAccessPoint sourceA = new WifiAccessPoint("a", FREQUENCY);
+
+    private final WifiAccessPoint sourceB = new WifiAccessPoint("b", FREQUENCY);
+
+    private final WifiAccessPoint sourceC = new WifiAccessPoint("c", FREQUENCY);
+
+    @Test
+    void testConstructor() {
+        var radioMap = new PartitionedRadioMap3D();
+
+        // check default values
+        assertNull(radioMap.getBuilding());
+        assertEquals(PartitionedRadioMap3D.DEFAULT_FLOOR_HEIGHT, radioMap.getFloorHeight(), 0.0);
+        assertEquals(PartitionedRadioMap3D.DEFAULT_GROUND_HEIGHT, radioMap.getGroundHeight(), 0.0);
+        assertEquals(PartitionedRadioMap.DEFAULT_MAX_SEARCHED_PARTITIONS, radioMap.getMaxSearchedPartitions());
+        assertEquals(PartitionedRadioMap.DEFAULT_MISSING_RSSI, radioMap.getMissingRssi(), 0.0);
+        assertTrue(radioMap.getPartitions().isEmpty());
+        assertEquals(0, radioMap.size());
+
+        radioMap = new PartitionedRadioMap3D("building", 4.0, -1.0);
+
+        // check
+        assertEquals("building", radioMap.getBuilding());
+        assertEquals(4.0, radioMap.getFloorHeight(), 0.0);
+        assertEquals(-1.0, radioMap.getGroundHeight(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedRadioMap3D("building", 0.0, 0.0));
+    }
+
+    @Test
+    void testSetters() {
+        final var radioMap = new PartitionedRadioMap3D();
+
+        radioMap.setMaxSearchedPartitions(2);
+        radioMap.setMissingRssi(-110.0);
+
+        // check
+        assertEquals(2, radioMap.getMaxSearchedPartitions());
+        assertEquals(-110.0, radioMap.getMissingRssi(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.setMaxSearchedPartitions(0));
+    }
+
+    @Test
+    void testInsertAndRemove() {
+        final var radioMap = new PartitionedRadioMap3D("building", 3.0, 0.0);
+
+        final var fingerprint0 = createFingerprint(1.0, List.of(sourceA), -60.0);
+        final var fingerprint1 = createFingerprint(4.0, List.of(sourceA), -60.0);
+        final var fingerprint2 = createFingerprint(1.0, List.of(sourceA), -60.0);
+
+        // floors are derived from heights
+        assertEquals(new RadioMapPartitionKey("building", 0), radioMap.insert(fingerprint0));
+        assertEquals(new RadioMapPartitionKey("building", 1), radioMap.insert(fingerprint1));
+
+        // or explicitly provided
+        final var key = new RadioMapPartitionKey("other", 3);
+        radioMap.insert(key, fingerprint2);
+
+        // check
+        assertEquals(3, radioMap.size());
+        assertEquals(Set.of(new RadioMapPartitionKey("building", 0), new RadioMapPartitionKey("building", 1),
+                key), radioMap.getPartitions());
+        assertEquals(List.of(fingerprint2), radioMap.getRadioMap(key).getFingerprints());
+        assertTrue(radioMap.contains(fingerprint1));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(fingerprint0));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(key, fingerprint0));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(null));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(null, fingerprint0));
+
+        // empty partitions are removed
+        assertTrue(radioMap.remove(fingerprint2));
+        assertFalse(radioMap.remove(fingerprint2));
+        assertNull(radioMap.getRadioMap(key));
+        assertEquals(2, radioMap.getPartitions().size());
+
+        assertEquals(2, radioMap.removeSource(sourceA));
+        assertEquals(0, radioMap.size());
+        assertTrue(radioMap.getPartitions().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> radioMap.removeSource(null));
+    }
+
+    @Test
+    void testClassifyAndFind() {
+        final var radioMap = new PartitionedRadioMap3D();
+
+        // source B is received with similar RSSI on both floors, while source C is only
+        // received on first floor
+        final var ground = createFingerprint(1.0, List.of(sourceA, sourceB), -70.0);
+        final var first1 = createFingerprint(4.0, List.of(sourceB, sourceC), -72.0);
+        final var first2 = createFingerprint(4.5, List.of(sourceB, sourceC), -50.0);
+        radioMap.insert(ground);
+        radioMap.insert(first1);
+        radioMap.insert(first2);
+
+        final var query = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(sourceB, -70.0), new RssiReading<>(sourceC, -52.0)));
+
+        // a flat search matches a fingerprint on another floor
+        final var all = new ArrayList<>(List.of(ground, first1, first2));
+        assertSame(ground, RadioSourceKNearestFinder.findNearestTo(query, all));
+
+        // check
+        final var floor1 = new RadioMapPartitionKey(1);
+        assertEquals(List.of(floor1, new RadioMapPartitionKey(0)), radioMap.classify(query, 2));
+        assertEquals(List.of(floor1), radioMap.classify(query, 1));
+        assertEquals(List.of(first1, first2), radioMap.getCandidateFingerprints(query));
+        assertNotSame(ground, radioMap.findNearestTo(query));
+        assertEquals(2, radioMap.findKNearestTo(query, 3).size());
+
+        radioMap.setMaxSearchedPartitions(2);
+        assertEquals(3, radioMap.getCandidateFingerprints(query).size());
+
+        // signatures are updated when partitions change
+        radioMap.remove(first1);
+        radioMap.remove(first2);
+        assertEquals(List.of(new RadioMapPartitionKey(0)), radioMap.classify(query, 2));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.classify(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.classify(query, 0));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.findKNearestTo(query, 0));
+    }
+
+    @Test
+    void testSetup() throws LockedException {
+        final var radioMap = new PartitionedRadioMap3D();
+        final var ground = createFingerprint(1.0, List.of(sourceA, sourceB, sourceC), -80.0);
+        final var first = createFingerprint(4.0, List.of(sourceA, sourceB, sourceC), -50.0);
+        radioMap.insert(ground);
+        radioMap.insert(first);
+
+        final var query = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(sourceA, -52.0), new RssiReading<>(sourceB, -51.0)));
+        final var estimator = NonLinearFingerprintPositionEstimator3D.create(
+                NonLinearFingerprintPositionEstimatorType.FIRST_ORDER);
+        radioMap.setup(estimator, query);
+
+        // check
+        assertEquals(List.of(first), estimator.getLocatedFingerprints());
+        assertSame(query, estimator.getFingerprint());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.setup(null, query));
+    }
+
+    private static RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>> createFingerprint(
+            final double z, final List<? extends RadioSource> sources, final double rssi) {
+        final var readings = new ArrayList<RssiReading<RadioSource>>();
+        for (final var source : sources) {
+            readings.add(new RssiReading<>(source, rssi));
+        }
+        return new RssiFingerprintLocated3D<>(readings, new InhomogeneousPoint3D(0.0, 0.0, z));
+    }
+}
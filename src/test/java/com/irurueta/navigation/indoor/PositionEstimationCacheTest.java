@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.WrongSizeException;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionEstimationCacheTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        var cache = new PositionEstimationCache<Point2D>();
+
+        // check default values
+        assertEquals(PositionEstimationCache.DEFAULT_MAX_SIZE, cache.getMaxSize());
+        assertEquals(PositionEstimationCache.DEFAULT_TIME_TO_LIVE, cache.getTimeToLive());
+        assertEquals(PositionEstimationCache.DEFAULT_RSSI_BIN_SIZE, cache.getRssiBinSize(), 0.0);
+        assertEquals(PositionEstimationCache.DEFAULT_DISTANCE_BIN_SIZE, cache.getDistanceBinSize(), 0.0);
+        assertEquals(PositionEstimationCache.DEFAULT_EVICTION_POLICY, cache.getEvictionPolicy());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+        assertEquals(0.0, cache.getHitRatio(), 0.0);
+        assertEquals(0, cache.getEvictions());
+        assertEquals(0, cache.getExpirations());
+
+        cache = new PositionEstimationCache<>(10, 0);
+
+        // check
+        assertEquals(10, cache.getMaxSize());
+        assertEquals(0, cache.getTimeToLive());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new PositionEstimationCache<Point2D>(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PositionEstimationCache<Point2D>(10, -1));
+    }
+
+    @Test
+    void testSetters() {
+        final var cache = new PositionEstimationCache<Point2D>();
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        assertEquals(1, cache.size());
+
+        cache.setTimeToLive(1000);
+        cache.setEvictionPolicy(PositionEstimationCacheEvictionPolicy.LEAST_FREQUENTLY_USED);
+
+        // check
+        assertEquals(1000, cache.getTimeToLive());
+        assertEquals(PositionEstimationCacheEvictionPolicy.LEAST_FREQUENTLY_USED, cache.getEvictionPolicy());
+        assertEquals(1, cache.size());
+
+        // changing bins invalidates cached signatures
+        cache.setRssiBinSize(1.0);
+        assertEquals(1.0, cache.getRssiBinSize(), 0.0);
+        assertEquals(0, cache.size());
+
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.setDistanceBinSize(1.0);
+        assertEquals(1.0, cache.getDistanceBinSize(), 0.0);
+        assertEquals(0, cache.size());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaxSize(0));
+        assertThrows(IllegalArgumentException.class, () -> cache.setTimeToLive(-1));
+        assertThrows(IllegalArgumentException.class, () -> cache.setRssiBinSize(0.0));
+        assertThrows(IllegalArgumentException.class, () -> cache.setDistanceBinSize(0.0));
+        assertThrows(IllegalArgumentException.class, () -> cache.setEvictionPolicy(null));
+    }
+
+    @Test
+    void testGetAndPut() throws WrongSizeException {
+        final var cache = new PositionEstimationCache<Point2D>();
+        final var fingerprint = createFingerprint(0);
+
+        // check
+        assertNull(cache.get(fingerprint));
+        assertEquals(1, cache.getMisses());
+
+        final var position = new InhomogeneousPoint2D(1.0, 2.0);
+        final var covariance = Matrix.identity(2, 2);
+        final var entry = cache.put(fingerprint, position, covariance);
+
+        // covariance is copied
+        assertSame(position, entry.getPosition());
+        assertEquals(covariance, entry.getCovariance());
+        assertNotSame(covariance, entry.getCovariance());
+
+        // a nearly identical fingerprint reuses the estimation
+        final var nearlyIdentical = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(new WifiAccessPoint("bssid0", FREQUENCY), -60.3)));
+        assertSame(entry, cache.get(nearlyIdentical));
+        assertEquals(1, entry.getHits());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio(), 0.0);
+
+        // replacing an estimation does not increase size
+        cache.put(nearlyIdentical, new InhomogeneousPoint2D(), null);
+        assertEquals(1, cache.size());
+        assertNull(cache.get(fingerprint).getCovariance());
+
+        assertTrue(cache.remove(fingerprint));
+        assertFalse(cache.remove(fingerprint));
+        assertEquals(0, cache.size());
+
+        cache.resetStatistics();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getMisses());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> cache.get(null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(null, position, null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(fingerprint, null, null));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() {
+        final var cache = new PositionEstimationCache<Point2D>(2, 0);
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.put(createFingerprint(1), new InhomogeneousPoint2D(), null);
+
+        // use first estimation so that second one is the least recently used
+        assertNotNull(cache.get(createFingerprint(0)));
+        cache.put(createFingerprint(2), new InhomogeneousPoint2D(), null);
+
+        // check
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertNull(cache.get(createFingerprint(1)));
+        assertNotNull(cache.get(createFingerprint(2)));
+
+        // reducing maximum size evicts estimations
+        cache.setMaxSize(1);
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictions());
+        assertNotNull(cache.get(createFingerprint(2)));
+    }
+
+    @Test
+    void testLeastFrequentlyUsedEviction() {
+        final var cache = new PositionEstimationCache<Point2D>(2, 0);
+        cache.setEvictionPolicy(PositionEstimationCacheEvictionPolicy.LEAST_FREQUENTLY_USED);
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.put(createFingerprint(1), new InhomogeneousPoint2D(), null);
+
+        // first estimation is used more often, although less recently
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertNotNull(cache.get(createFingerprint(1)));
+        cache.put(createFingerprint(2), new InhomogeneousPoint2D(), null);
+
+        // check
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertNull(cache.get(createFingerprint(1)));
+        assertNotNull(cache.get(createFingerprint(2)));
+    }
+
+    @Test
+    void testLeastFrequentlyUsedEvictionBreaksTiesByRecency() {
+        final var cache = new PositionEstimationCache<Point2D>(3, 0);
+        cache.setEvictionPolicy(PositionEstimationCacheEvictionPolicy.LEAST_FREQUENTLY_USED);
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.put(createFingerprint(1), new InhomogeneousPoint2D(), null);
+        cache.put(createFingerprint(2), new InhomogeneousPoint2D(), null);
+
+        // all estimations are used once, first one being the least recently used
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertNotNull(cache.get(createFingerprint(1)));
+        assertNotNull(cache.get(createFingerprint(2)));
+        cache.put(createFingerprint(3), new InhomogeneousPoint2D(), null);
+
+        // check
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(createFingerprint(0)));
+
+        // removed estimations are no longer candidates for eviction
+        assertTrue(cache.remove(createFingerprint(3)));
+        cache.put(createFingerprint(4), new InhomogeneousPoint2D(), null);
+        cache.put(createFingerprint(5), new InhomogeneousPoint2D(), null);
+
+        // check
+        assertEquals(2, cache.getEvictions());
+        assertEquals(3, cache.size());
+        assertNull(cache.get(createFingerprint(4)));
+        assertNotNull(cache.get(createFingerprint(1)));
+        assertNotNull(cache.get(createFingerprint(2)));
+        assertNotNull(cache.get(createFingerprint(5)));
+    }
+
+    @Test
+    void testExpiration() {
+        final var cache = new ManualClockCache(1000);
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.time = 500;
+        cache.put(createFingerprint(1), new InhomogeneousPoint2D(), null);
+
+        cache.time = 999;
+        assertNotNull(cache.get(createFingerprint(0)));
+
+        // check that first estimation expires
+        cache.time = 1000;
+        assertNull(cache.get(createFingerprint(0)));
+        assertEquals(1, cache.getExpirations());
+        assertEquals(1, cache.size());
+
+        // second estimation is purged
+        cache.time = 1500;
+        assertEquals(1, cache.purgeExpired());
+        assertEquals(2, cache.getExpirations());
+        assertEquals(0, cache.size());
+
+        // estimations never expire when time to live is zero
+        cache.setTimeToLive(0);
+        cache.put(createFingerprint(0), new InhomogeneousPoint2D(), null);
+        cache.time = Long.MAX_VALUE;
+        assertNotNull(cache.get(createFingerprint(0)));
+        assertEquals(0, cache.purgeExpired());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    private static RssiFingerprint<RadioSource, RssiReading<RadioSource>> createFingerprint(final int i) {
+        return new RssiFingerprint<>(List.of(new RssiReading<>(new WifiAccessPoint("bssid" + i, FREQUENCY), -60.0)));
+    }
+
+    private static class ManualClockCache extends PositionEstimationCache<Point2D> {
+
+        private long time;
+
+        ManualClockCache(final long timeToLive) {
+            super(DEFAULT_MAX_SIZE, timeToLive);
+        }
+
+        @Override
+        protected long getCurrentTimeMillis() {
+            return time;
+        }
+    }
+}
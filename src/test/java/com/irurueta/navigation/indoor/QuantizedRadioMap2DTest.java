@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedRadioMap2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double MIN_RSSI = -100.0;
+
+    private static final double MAX_RSSI = -30.0;
+
+    private static final int NUM_SOURCES = 20;
+
+    private static final int NUM_FINGERPRINTS = 200;
+
+    @Test
+    void testConstructor() {
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        final var fingerprint = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source, -60.0)), new InhomogeneousPoint2D(1.0, 2.0));
+
+        var radioMap = new QuantizedRadioMap2D(List.of(fingerprint));
+
+        // check default values
+        assertEquals(QuantizedRadioMap.DEFAULT_MIN_RSSI, radioMap.getMinRssi(), 0.0);
+        assertEquals(QuantizedRadioMap.DEFAULT_MAX_RSSI, radioMap.getMaxRssi(), 0.0);
+        assertEquals(120.0 / 255.0, radioMap.getRssiStep(), 1e-12);
+        assertEquals(2, radioMap.getNumberOfDimensions());
+        assertEquals(1, radioMap.size());
+        assertEquals(1, radioMap.getNumberOfReadings());
+        assertEquals(1, radioMap.getNumberOfSources());
+        assertSame(source, radioMap.getSource(0));
+        assertEquals(0, radioMap.indexOf(new WifiAccessPoint("bssid", FREQUENCY)));
+        assertEquals(-1, radioMap.indexOf(new WifiAccessPoint("other", FREQUENCY)));
+
+        radioMap = new QuantizedRadioMap2D(List.of(fingerprint), -90.0, -40.0);
+
+        // check
+        assertEquals(-90.0, radioMap.getMinRssi(), 0.0);
+        assertEquals(-40.0, radioMap.getMaxRssi(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioMap2D(null));
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioMap2D(List.of(fingerprint),
+                -40.0, -40.0));
+    }
+
+    @Test
+    void testQuantize() {
+        final var radioMap = new QuantizedRadioMap2D(new ArrayList<>());
+
+        // check
+        assertEquals(QuantizedRadioMap.DEFAULT_MIN_RSSI, radioMap.dequantize(radioMap.quantize(-200.0)), 0.0);
+        assertEquals(QuantizedRadioMap.DEFAULT_MAX_RSSI, radioMap.dequantize(radioMap.quantize(10.0)), 1e-12);
+
+        final var randomizer = new UniformRandomizer();
+        for (var i = 0; i < 100; i++) {
+            final var rssi = randomizer.nextDouble(QuantizedRadioMap.DEFAULT_MIN_RSSI,
+                    QuantizedRadioMap.DEFAULT_MAX_RSSI);
+            assertEquals(rssi, radioMap.dequantize(radioMap.quantize(rssi)), radioMap.getRssiStep() / 2.0 + 1e-12);
+        }
+    }
+
+    @Test
+    void testGetFingerprint() {
+        final var fingerprints = createFingerprints();
+        final var radioMap = new QuantizedRadioMap2D(fingerprints);
+
+        // check
+        assertEquals(NUM_FINGERPRINTS, radioMap.size());
+        assertEquals(NUM_SOURCES, radioMap.getNumberOfSources());
+        for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+            final var expected = fingerprints.get(i);
+            final var fingerprint = radioMap.getFingerprint(i);
+
+            assertInstanceOf(RssiFingerprintLocated2D.class, fingerprint);
+            assertEquals(expected.getPosition(), fingerprint.getPosition());
+            assertEquals(expected.getPosition().getInhomY(), radioMap.getPositionCoordinate(i, 1), 0.0);
+            assertEquals(expected.getReadings().size(), fingerprint.getReadings().size());
+            for (var j = 0; j < expected.getReadings().size(); j++) {
+                final var expectedReading = expected.getReadings().get(j);
+                final var reading = fingerprint.getReadings().get(j);
+                assertSame(expectedReading.getSource(), reading.getSource());
+                assertEquals(expectedReading.getRssi(), reading.getRssi(), radioMap.getRssiStep() / 2.0 + 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void testMemoryReduction() throws IOException {
+        final var fingerprints = createFingerprints();
+        final var radioMap = new QuantizedRadioMap2D(fingerprints);
+
+        // each reading takes 3 bytes, while each reading object takes more than 24 bytes
+        final var readingBytes = radioMap.getQuantizedSize() - (long) radioMap.size() * 2 * Double.BYTES
+                - (long) (radioMap.size() + 1) * Integer.BYTES;
+        assertEquals(3L * radioMap.getNumberOfReadings(), readingBytes);
+
+        // serialized quantized map is also much smaller, even though serialization of
+        // reading objects is more compact than their memory layout and positions are kept
+        // at full precision
+        final var quantizedBytes = SerializationHelper.serialize(radioMap).length;
+        final var bytes = SerializationHelper.serialize(new ArrayList<>(fingerprints)).length;
+        assertTrue(bytes > 4 * quantizedBytes);
+    }
+
+    @Test
+    void testFindKNearestTo() {
+        final var fingerprints = createFingerprints();
+        final var radioMap = new QuantizedRadioMap2D(fingerprints);
+
+        final var query = new RssiFingerprint<>(fingerprints.get(7).getReadings());
+        final var indices = new int[5];
+        final var sqrDistances = new double[5];
+
+        // check
+        assertEquals(5, radioMap.findKNearestTo(query, 5, indices, sqrDistances));
+        assertEquals(7, indices[0]);
+        final var tolerance = radioMap.getRssiStep() * radioMap.getRssiStep() * query.getReadings().size();
+        assertEquals(0.0, sqrDistances[0], tolerance);
+        for (var i = 1; i < 5; i++) {
+            assertTrue(sqrDistances[i - 1] <= sqrDistances[i]);
+        }
+
+        // queries without common sources find nothing
+        final var other = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(new WifiAccessPoint("other", FREQUENCY), -50.0)));
+        assertEquals(0, radioMap.findKNearestTo(other, 5, indices, sqrDistances));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.findKNearestTo(null, 5, indices,
+                sqrDistances));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.findKNearestTo(query, 0, indices,
+                sqrDistances));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.findKNearestTo(query, 6, indices,
+                sqrDistances));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void testConstructorWithWrongDimensions() {
+        final var fingerprint = new RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(new WifiAccessPoint("bssid", FREQUENCY), -60.0)),
+                new InhomogeneousPoint3D());
+        final List fingerprints = List.of(fingerprint);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioMap2D(fingerprints));
+    }
+
+    static List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>> createFingerprints() {
+        final var randomizer = new UniformRandomizer();
+        final var sources = new ArrayList<RadioSource>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            sources.add(new WifiAccessPoint("bssid" + i, FREQUENCY));
+        }
+
+        final var result = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>>();
+        for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+            final var readings = new ArrayList<RssiReading<RadioSource>>();
+            for (final var source : sources) {
+                // each source is received on most fingerprints
+                if (randomizer.nextDouble() < 0.8) {
+                    readings.add(new RssiReading<>(source, randomizer.nextDouble(MIN_RSSI, MAX_RSSI)));
+                }
+            }
+            if (readings.isEmpty()) {
+                readings.add(new RssiReading<>(sources.get(i % NUM_SOURCES),
+                        randomizer.nextDouble(MIN_RSSI, MAX_RSSI)));
+            }
+            result.add(new RssiFingerprintLocated2D<>(readings, new InhomogeneousPoint2D(
+                    randomizer.nextDouble(0.0, 50.0), randomizer.nextDouble(0.0, 50.0))));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedRadioMap3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint1 = new RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0));
+        final var fingerprint2 = new RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source2, -50.0)), new InhomogeneousPoint3D(4.0, 5.0, 6.0));
+
+        final var radioMap = new QuantizedRadioMap3D(List.of(fingerprint1, fingerprint2), -100.0, -20.0);
+
+        // check
+        assertEquals(3, radioMap.getNumberOfDimensions());
+        assertEquals(-100.0, radioMap.getMinRssi(), 0.0);
+        assertEquals(-20.0, radioMap.getMaxRssi(), 0.0);
+        assertEquals(2, radioMap.size());
+        assertEquals(3, radioMap.getNumberOfReadings());
+        assertEquals(2, radioMap.getNumberOfSources());
+        assertEquals(new InhomogeneousPoint3D(4.0, 5.0, 6.0), radioMap.getPosition(1));
+
+        final var fingerprint = radioMap.getFingerprint(1);
+        assertInstanceOf(RssiFingerprintLocated3D.class, fingerprint);
+        assertEquals(1, fingerprint.getReadings().size());
+        assertSame(source2, fingerprint.getReadings().get(0).getSource());
+        assertEquals(-50.0, fingerprint.getReadings().get(0).getRssi(), radioMap.getRssiStep() / 2.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioMap3D(null));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.Point2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedRadioSourceKNearestFinderTest {
+
+    private static final int K = 5;
+
+    private static final int TIMES = 20;
+
+    @Test
+    void testConstructor() {
+        final var fingerprints = QuantizedRadioMap2DTest.createFingerprints();
+        final var radioMap = new QuantizedRadioMap2D(fingerprints);
+
+        var finder = new QuantizedRadioSourceKNearestFinder<>(radioMap);
+
+        // check default values
+        assertSame(radioMap, finder.getRadioMap());
+        assertNull(finder.getFullPrecisionFingerprints());
+        assertEquals(QuantizedRadioSourceKNearestFinder.DEFAULT_RERANK_FACTOR, finder.getRerankFactor());
+
+        finder = new QuantizedRadioSourceKNearestFinder<>(radioMap, fingerprints);
+
+        // check
+        assertSame(fingerprints, finder.getFullPrecisionFingerprints());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioSourceKNearestFinder<>(null));
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioSourceKNearestFinder<>(null,
+                fingerprints));
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioSourceKNearestFinder<>(radioMap,
+                null));
+        assertThrows(IllegalArgumentException.class, () -> new QuantizedRadioSourceKNearestFinder<>(radioMap,
+                fingerprints.subList(1, fingerprints.size())));
+    }
+
+    @Test
+    void testSetRerankFactor() {
+        final var finder = new QuantizedRadioSourceKNearestFinder<>(new QuantizedRadioMap2D(new ArrayList<>()));
+
+        finder.setRerankFactor(2);
+
+        // check
+        assertEquals(2, finder.getRerankFactor());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> finder.setRerankFactor(0));
+    }
+
+    @Test
+    void testFindKNearestToWithoutReranking() {
+        for (var t = 0; t < TIMES; t++) {
+            final var fingerprints = QuantizedRadioMap2DTest.createFingerprints();
+            final var radioMap = new QuantizedRadioMap2D(fingerprints);
+            final var finder = new QuantizedRadioSourceKNearestFinder<>(radioMap);
+
+            final var query = createQuery(fingerprints);
+            final var nearest = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                    Point2D>>();
+            final var sqrDistances = new ArrayList<Double>();
+            finder.findKNearestTo(query, K, nearest, sqrDistances);
+
+            // check that dequantized fingerprints are returned with asymmetric distances
+            // close to full-precision distances
+            assertEquals(K, nearest.size());
+            assertEquals(K, sqrDistances.size());
+            for (var i = 0; i < K; i++) {
+                final var exactSqrDistance = nearest.get(i).sqrDistanceTo(query);
+                assertEquals(exactSqrDistance, sqrDistances.get(i), 1e-6);
+                if (i > 0) {
+                    assertTrue(sqrDistances.get(i - 1) <= sqrDistances.get(i));
+                }
+            }
+
+            final var nearestFingerprint = finder.findNearestTo(query);
+            assertEquals(nearest.get(0).getPosition(), nearestFingerprint.getPosition());
+        }
+    }
+
+    @Test
+    void testFindKNearestToWithReranking() {
+        for (var t = 0; t < TIMES; t++) {
+            final var fingerprints = QuantizedRadioMap2DTest.createFingerprints();
+            final var radioMap = new QuantizedRadioMap2D(fingerprints);
+            final var finder = new QuantizedRadioSourceKNearestFinder<>(radioMap, fingerprints);
+
+            final var query = createQuery(fingerprints);
+            final var expected = RadioSourceKNearestFinder.findKNearestTo(query, fingerprints, K);
+
+            // when all candidates are re-ranked, results match full-precision search
+            finder.setRerankFactor(fingerprints.size());
+            assertEquals(expected, finder.findKNearestTo(query, K));
+
+            // otherwise, re-ranked full-precision fingerprints are returned
+            finder.setRerankFactor(QuantizedRadioSourceKNearestFinder.DEFAULT_RERANK_FACTOR);
+            final var nearest = finder.findKNearestTo(query, K);
+            assertEquals(K, nearest.size());
+            assertTrue(fingerprints.contains(nearest.get(0)));
+            for (var i = 1; i < K; i++) {
+                assertTrue(nearest.get(i - 1).sqrDistanceTo(query) <= nearest.get(i).sqrDistanceTo(query));
+            }
+            assertSame(expected.get(0), finder.findNearestTo(query));
+        }
+
+        // force IllegalArgumentException
+        final var finder = new QuantizedRadioSourceKNearestFinder<>(new QuantizedRadioMap2D(new ArrayList<>()));
+        final var query = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>();
+        assertNull(finder.findNearestTo(query));
+        assertThrows(IllegalArgumentException.class, () -> finder.findNearestTo(null));
+        assertThrows(IllegalArgumentException.class, () -> finder.findKNearestTo(query, 0));
+        assertThrows(IllegalArgumentException.class, () -> finder.findKNearestTo(query, 1, null,
+                new ArrayList<>()));
+        assertThrows(IllegalArgumentException.class, () -> finder.findKNearestTo(query, 1, new ArrayList<>(),
+                null));
+    }
+
+    private static RssiFingerprint<RadioSource, RssiReading<RadioSource>> createQuery(
+            final List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>> fingerprints) {
+        // perturb readings of a random fingerprint
+        final var randomizer = new UniformRandomizer();
+        final var fingerprint = fingerprints.get(randomizer.nextInt(0, fingerprints.size()));
+        final var readings = new ArrayList<RssiReading<RadioSource>>();
+        for (final var reading : fingerprint.getReadings()) {
+            readings.add(new RssiReading<>(reading.getSource(), reading.getRssi() + randomizer.nextDouble(-3.0, 3.0)));
+        }
+        return new RssiFingerprint<>(readings);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMap2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        var radioMap = new RadioMap2D();
+
+        // check default values
+        assertEquals(0, radioMap.size());
+        assertEquals(0, radioMap.getVersion());
+        assertTrue(radioMap.getFingerprints().isEmpty());
+        assertTrue(radioMap.getSnapshot().isEmpty());
+        assertTrue(radioMap.getSnapshot().getSources().isEmpty());
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        final var fingerprint1 = createFingerprint(0.0, source);
+        final var fingerprint2 = createFingerprint(1.0, source);
+        radioMap = new RadioMap2D(List.of(fingerprint1, fingerprint2));
+
+        // check
+        assertEquals(2, radioMap.size());
+        assertEquals(1, radioMap.getVersion());
+        assertEquals(List.of(fingerprint1, fingerprint2), radioMap.getFingerprints());
+        assertEquals(List.of(fingerprint1, fingerprint2), radioMap.getSnapshot().getFingerprintsContaining(source));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new RadioMap2D(null));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMap2D(List.of(fingerprint1, fingerprint1)));
+    }
+
+    @Test
+    void testInsertRemoveAndReplace() {
+        final var radioMap = new RadioMap2D();
+
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint1 = createFingerprint(0.0, source1);
+        final var fingerprint2 = createFingerprint(1.0, source1, source2);
+        final var fingerprint3 = createFingerprint(2.0, source2);
+
+        radioMap.insert(fingerprint1);
+        radioMap.insertAll(List.of(fingerprint2, fingerprint3));
+
+        // check
+        assertEquals(3, radioMap.size());
+        assertEquals(2, radioMap.getVersion());
+        assertTrue(radioMap.contains(fingerprint2));
+        var snapshot = radioMap.getSnapshot();
+        assertEquals(2, snapshot.getSources().size());
+        assertEquals(List.of(fingerprint1, fingerprint2), snapshot.getFingerprintsContaining(source1));
+        assertEquals(List.of(fingerprint2, fingerprint3), snapshot.getFingerprintsContaining(
+                new WifiAccessPoint("bssid2", FREQUENCY)));
+
+        // remove moves last fingerprint into removed position
+        assertTrue(radioMap.remove(fingerprint1));
+        assertFalse(radioMap.remove(fingerprint1));
+        assertFalse(radioMap.contains(fingerprint1));
+        assertEquals(List.of(fingerprint3, fingerprint2), radioMap.getFingerprints());
+        assertEquals(List.of(fingerprint2), radioMap.getSnapshot().getFingerprintsContaining(source1));
+
+        // replace keeps position
+        final var fingerprint4 = createFingerprint(2.0, source1);
+        assertTrue(radioMap.replace(fingerprint3, fingerprint4));
+        assertFalse(radioMap.replace(fingerprint3, createFingerprint(3.0, source1)));
+        assertEquals(List.of(fingerprint4, fingerprint2), radioMap.getFingerprints());
+        assertEquals(List.of(fingerprint2), radioMap.getSnapshot().getFingerprintsContaining(source2));
+        assertEquals(List.of(fingerprint2, fingerprint4), radioMap.getSnapshot().getFingerprintsContaining(source1));
+
+        assertEquals(2, radioMap.removeAll(List.of(fingerprint2, fingerprint4, fingerprint1)));
+        assertEquals(0, radioMap.size());
+        assertTrue(radioMap.getSnapshot().getSources().isEmpty());
+        assertTrue(radioMap.getSnapshot().getFingerprintsContaining(source1).isEmpty());
+
+        // snapshots obtained before updates are not modified
+        assertEquals(3, snapshot.size());
+        assertEquals(List.of(fingerprint1, fingerprint2), snapshot.getFingerprintsContaining(source1));
+        assertThrows(UnsupportedOperationException.class, () -> radioMap.getFingerprints().add(fingerprint1));
+
+        // force IllegalArgumentException
+        radioMap.insert(fingerprint1);
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(null));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insert(fingerprint1));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insertAll(null));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.insertAll(List.of(fingerprint2, fingerprint1)));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.removeAll(null));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.replace(fingerprint1, null));
+        assertThrows(IllegalArgumentException.class, () -> radioMap.replace(fingerprint1, fingerprint1));
+
+        // failed updates leave radio map untouched
+        assertEquals(1, radioMap.size());
+        assertFalse(radioMap.contains(fingerprint2));
+    }
+
+    @Test
+    void testRemoveSource() throws AlgebraException {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint1 = createFingerprint(0.0, source1);
+        final var covariance = Matrix.identity(2, 2);
+        final var fingerprint2 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint2D(1.0, 0.0), covariance);
+        final var fingerprint3 = createFingerprint(2.0, source2);
+        final var radioMap = new RadioMap2D(List.of(fingerprint1, fingerprint2, fingerprint3));
+        final var snapshot = radioMap.getSnapshot();
+
+        // retired source is removed, identified by its id
+        assertEquals(2, radioMap.removeSource(new WifiAccessPoint("bssid1", FREQUENCY)));
+
+        // check
+        assertEquals(2, radioMap.size());
+        assertFalse(radioMap.contains(fingerprint1));
+        assertFalse(radioMap.contains(fingerprint2));
+        assertTrue(radioMap.contains(fingerprint3));
+
+        final var replaced = radioMap.getFingerprints().stream()
+                .filter(fingerprint -> fingerprint != fingerprint3).findFirst().orElseThrow();
+        assertInstanceOf(RssiFingerprintLocated2D.class, replaced);
+        assertEquals(1, replaced.getReadings().size());
+        assertSame(source2, replaced.getReadings().get(0).getSource());
+        assertSame(fingerprint2.getPosition(), replaced.getPosition());
+        assertSame(covariance, replaced.getPositionCovariance());
+        assertEquals(List.of(source2), new ArrayList<>(radioMap.getSnapshot().getSources()));
+
+        // removed fingerprints are not modified and previous snapshot is kept
+        assertEquals(2, fingerprint2.getReadings().size());
+        assertEquals(3, snapshot.size());
+
+        assertEquals(0, radioMap.removeSource(source1));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> radioMap.removeSource(null));
+    }
+
+    @Test
+    void testSinkAndFinder() throws Exception {
+        final var radioMap = new RadioMap2D();
+        final FingerprintSink<Point2D> sink = radioMap::insert;
+        final var ingestor = new RadioMapIngestor2D(sink);
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        ingestor.addScan(createFingerprint(0.0, -60.0, source));
+        ingestor.addScan(createFingerprint(10.0, -80.0, source));
+        ingestor.flush();
+
+        final var finder = RadioSourceKNearestFinder.create(radioMap);
+        final var query = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source, -78.0)));
+
+        // check
+        assertSame(radioMap, finder.getRadioMap());
+        assertEquals(10.0, finder.findNearestTo(query).getPosition().getInhomX(), 0.0);
+
+        // updates are seen by finders without rebuilding them
+        final var closer = createFingerprint(5.0, -77.0, source);
+        radioMap.insert(closer);
+        assertSame(closer, finder.findNearestTo(query));
+        assertEquals(3, finder.getFingerprints().size());
+
+        // concurrent queries see a consistent snapshot while the radio map is updated
+        final var error = new AtomicReference<Throwable>();
+        final var latch = new CountDownLatch(1);
+        final var reader = new Thread(() -> {
+            try {
+                latch.await();
+                for (var i = 0; i < 1000; i++) {
+                    final var snapshot = radioMap.getSnapshot();
+                    assertEquals(snapshot.size(), snapshot.getFingerprintsContaining(source).size());
+                }
+            } catch (final Throwable t) {
+                error.set(t);
+            }
+        });
+        reader.start();
+        latch.countDown();
+        for (var i = 0; i < 100; i++) {
+            final var fingerprint = createFingerprint(i, -60.0, source);
+            radioMap.insert(fingerprint);
+            radioMap.remove(fingerprint);
+        }
+        reader.join();
+        assertNull(error.get());
+    }
+
+    private static RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> createFingerprint(
+            final double x, final RadioSource... sources) {
+        final var readings = new ArrayList<RssiReading<RadioSource>>();
+        for (final var source : sources) {
+            readings.add(new RssiReading<>(source, -60.0));
+        }
+        return new RssiFingerprintLocated2D<>(readings, new InhomogeneousPoint2D(x, 0.0));
+    }
+
+    private static RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> createFingerprint(
+            final double x, final double rssi, final RadioSource source) {
+        return new RssiFingerprintLocated2D<>(List.of(new RssiReading<>(source, rssi)),
+                new InhomogeneousPoint2D(x, 0.0));
+    }
+}
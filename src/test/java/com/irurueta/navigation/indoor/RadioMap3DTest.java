@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMap3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        var radioMap = new RadioMap3D();
+
+        // check default values
+        assertEquals(0, radioMap.size());
+        assertEquals(0, radioMap.getVersion());
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        final var fingerprint = new RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source, -60.0)), new InhomogeneousPoint3D(1.0, 2.0, 3.0));
+        radioMap = new RadioMap3D(List.of(fingerprint));
+
+        // check
+        assertEquals(1, radioMap.size());
+        assertTrue(radioMap.contains(fingerprint));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new RadioMap3D(null));
+    }
+
+    @Test
+    void testRemoveSource() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint = new RssiFingerprintLocated3D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0));
+        final var radioMap = new RadioMap3D(List.of(fingerprint));
+
+        assertEquals(1, radioMap.removeSource(source2));
+
+        // check
+        final var replaced = radioMap.getFingerprints().get(0);
+        assertInstanceOf(RssiFingerprintLocated3D.class, replaced);
+        assertSame(fingerprint.getPosition(), replaced.getPosition());
+        assertEquals(1, replaced.getReadings().size());
+        assertTrue(radioMap.getSnapshot().getFingerprintsContaining(source2).isEmpty());
+
+        // fingerprints without readings are removed
+        assertEquals(1, radioMap.removeSource(source1));
+        assertEquals(0, radioMap.size());
+        assertEquals(3, radioMap.getVersion());
+    }
+}
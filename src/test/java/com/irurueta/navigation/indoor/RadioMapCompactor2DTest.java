@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.fingerprint.BaseFingerprintPositionEstimator;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimator;
+import com.irurueta.navigation.indoor.fingerprint.NonLinearFingerprintPositionEstimatorType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMapCompactor2DTest {
+
+    private static final Logger LOGGER = Logger.getLogger(RadioMapCompactor2DTest.class.getName());
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double SPEED_OF_LIGHT = 3e8; // (m/s)
+
+    private static final double TRANSMITTED_POWER = -10.0; // (dBm)
+
+    private static final double SIZE = 20.0;
+
+    private static final double STEP = 2.0;
+
+    private static final double ABSOLUTE_ERROR = 1e-9;
+
+    @Test
+    void testConstructor() {
+        final var compactor = new RadioMapCompactor2D();
+
+        // check default values
+        assertEquals(RadioMapCompactor.DEFAULT_MAX_POSITION_DISTANCE, compactor.getMaxPositionDistance(), 0.0);
+        assertEquals(RadioMapCompactor.DEFAULT_MAX_SIGNAL_DISTANCE, compactor.getMaxSignalDistance(), 0.0);
+        assertEquals(RadioMapCompactor.DEFAULT_MIN_SOURCE_VISIBILITY, compactor.getMinSourceVisibility(), 0.0);
+        assertEquals(RadioMapCompactor.DEFAULT_MAX_SOURCE_RSSI_STANDARD_DEVIATION,
+                compactor.getMaxSourceRssiStandardDeviation(), 0.0);
+        assertEquals(RadioMapCompactor.DEFAULT_MISSING_RSSI, compactor.getMissingRssi(), 0.0);
+        assertEquals(RadioMapCompactor.DEFAULT_NUMBER_OF_FOLDS, compactor.getNumberOfFolds());
+        assertEquals(NonLinearFingerprintPositionEstimator.DEFAULT_TYPE, compactor.getEstimatorType());
+        assertEquals(2, compactor.getNumberOfDimensions());
+    }
+
+    @Test
+    void testSetters() {
+        final var compactor = new RadioMapCompactor2D();
+
+        compactor.setMaxPositionDistance(2.0);
+        compactor.setMaxSignalDistance(4.0);
+        compactor.setMinSourceVisibility(0.5);
+        compactor.setMaxSourceRssiStandardDeviation(6.0);
+        compactor.setMissingRssi(-110.0);
+        compactor.setNumberOfFolds(3);
+        compactor.setEstimatorType(NonLinearFingerprintPositionEstimatorType.THIRD_ORDER);
+
+        // check
+        assertEquals(2.0, compactor.getMaxPositionDistance(), 0.0);
+        assertEquals(4.0, compactor.getMaxSignalDistance(), 0.0);
+        assertEquals(0.5, compactor.getMinSourceVisibility(), 0.0);
+        assertEquals(6.0, compactor.getMaxSourceRssiStandardDeviation(), 0.0);
+        assertEquals(-110.0, compactor.getMissingRssi(), 0.0);
+        assertEquals(3, compactor.getNumberOfFolds());
+        assertEquals(NonLinearFingerprintPositionEstimatorType.THIRD_ORDER, compactor.getEstimatorType());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> compactor.setMaxPositionDistance(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setMaxSignalDistance(-1.0));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setMinSourceVisibility(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setMinSourceVisibility(1.1));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setMaxSourceRssiStandardDeviation(0.0));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setNumberOfFolds(1));
+        assertThrows(IllegalArgumentException.class, () -> compactor.setEstimatorType(null));
+    }
+
+    @Test
+    void testCompact() {
+        final var sources = createSources();
+        final var fingerprints = createFingerprints(sources);
+
+        // add a transient source received on a single reference point and an unstable one
+        final var transientSource = new WifiAccessPoint("transient", FREQUENCY);
+        final var unstableSource = new WifiAccessPoint("unstable", FREQUENCY);
+        final var first = fingerprints.get(0);
+        final var readings = new ArrayList<>(first.getReadings());
+        readings.add(new RssiReading<>(transientSource, -80.0));
+        fingerprints.set(0, new RssiFingerprintLocated2D<>(readings, first.getPosition()));
+        for (var i = 0; i < fingerprints.size(); i += 2) {
+            final var fingerprint = fingerprints.get(i);
+            final var r = new ArrayList<>(fingerprint.getReadings());
+            r.add(new RssiReading<>(unstableSource, -70.0, 15.0));
+            fingerprints.set(i, new RssiFingerprintLocated2D<>(r, fingerprint.getPosition()));
+        }
+
+        final var compactor = new RadioMapCompactor2D();
+
+        // check
+        assertEquals(Set.of(transientSource, unstableSource), compactor.findPrunedSources(fingerprints));
+
+        final var radioMap = compactor.compact(fingerprints);
+
+        assertInstanceOf(RadioMap2D.class, radioMap);
+        assertEquals(fingerprints.size() / 2, radioMap.size());
+        assertEquals(Set.copyOf(sources), radioMap.getSnapshot().getSources());
+
+        // merged fingerprints are located at the mean position of near-duplicates
+        final var merged = radioMap.getFingerprints().get(0);
+        assertEquals(0.05, merged.getPosition().getInhomX(), ABSOLUTE_ERROR);
+        assertEquals(0.05, merged.getPosition().getInhomY(), ABSOLUTE_ERROR);
+        assertNotNull(merged.getPositionCovariance());
+        assertEquals(sources.size(), merged.getReadings().size());
+
+        // compacting a radio map keeps same API
+        final var compacted = compactor.compact(new RadioMap2D(fingerprints));
+        assertEquals(radioMap.size(), compacted.size());
+
+        // fingerprints left without readings are removed
+        final var withTransient = new ArrayList<>(fingerprints);
+        withTransient.add(new RssiFingerprintLocated2D<>(List.of(new RssiReading<>(transientSource, -90.0)),
+                new InhomogeneousPoint2D(100.0, 100.0)));
+        assertEquals(radioMap.size(), compactor.compact(withTransient).size());
+
+        // nothing is merged when distances are zero
+        compactor.setMaxPositionDistance(0.0);
+        assertEquals(fingerprints.size(), compactor.compact(fingerprints).size());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> compactor.compact((RadioMap<Point2D>) null));
+        assertThrows(IllegalArgumentException.class, () -> compactor.compact(
+                (List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>>) null));
+        assertThrows(IllegalArgumentException.class, () -> compactor.findPrunedSources(null));
+    }
+
+    @Test
+    void testCompactKeepsDistinctReferencePoints() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var fingerprint1 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint2D(0.0, 0.0));
+        // close position but different signal
+        final var fingerprint2 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -75.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint2D(0.5, 0.0));
+        // same signal but far away
+        final var fingerprint3 = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source1, -60.0), new RssiReading<>(source2, -70.0)),
+                new InhomogeneousPoint2D(5.0, 0.0));
+
+        final var compactor = new RadioMapCompactor2D();
+        final var radioMap = compactor.compact(List.of(fingerprint1, fingerprint2, fingerprint3));
+
+        // check that untouched fingerprints are kept as they are
+        assertEquals(List.of(fingerprint1, fingerprint2, fingerprint3), radioMap.getFingerprints());
+    }
+
+    @Test
+    void testCrossValidate() {
+        final var sources = createSources();
+        final var fingerprints = createFingerprints(sources);
+
+        final var compactor = new RadioMapCompactor2D();
+        final var report = compactor.crossValidate(fingerprints, sources);
+
+        // check
+        assertEquals(fingerprints.size(), report.getNumFingerprints());
+        assertEquals(fingerprints.size() / 2, report.getNumCompactedFingerprints());
+        assertEquals(0.5, report.getCompactionRatio(), ABSOLUTE_ERROR);
+        assertEquals(sources.size(), report.getNumSources());
+        assertEquals(sources.size(), report.getNumCompactedSources());
+        assertEquals(fingerprints.size(), report.getNumValidated() + report.getNumFailed());
+        assertTrue(report.getNumValidated() > 0);
+        assertTrue(report.getMeanError() >= 0.0);
+        assertTrue(report.getMeanCompactedError() >= 0.0);
+        assertEquals(report.getMeanCompactedError() - report.getMeanError(), report.getAccuracyLoss(), 0.0);
+        assertTrue(report.getAccuracyLoss() < STEP);
+
+        LOGGER.info("Mean error: " + report.getMeanError() + ", mean compacted error: "
+                + report.getMeanCompactedError());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> compactor.crossValidate(null, sources));
+        assertThrows(IllegalArgumentException.class, () -> compactor.crossValidate(fingerprints, null));
+    }
+
+    private static List<RadioSourceLocated<Point2D>> createSources() {
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid0", FREQUENCY, TRANSMITTED_POWER,
+                new InhomogeneousPoint2D(-1.0, -1.0)));
+        sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid1", FREQUENCY, TRANSMITTED_POWER,
+                new InhomogeneousPoint2D(SIZE + 1.0, -1.0)));
+        sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid2", FREQUENCY, TRANSMITTED_POWER,
+                new InhomogeneousPoint2D(-1.0, SIZE + 1.0)));
+        sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid3", FREQUENCY, TRANSMITTED_POWER,
+                new InhomogeneousPoint2D(SIZE + 1.0, SIZE + 1.0)));
+        return sources;
+    }
+
+    // builds a grid of reference points, each one surveyed twice at nearly the same position
+    private static List<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>> createFingerprints(
+            final List<RadioSourceLocated<Point2D>> sources) {
+        final var result = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>>();
+        for (var x = 0.0; x <= SIZE; x += STEP) {
+            for (var y = 0.0; y <= SIZE; y += STEP) {
+                result.add(createFingerprint(sources, new InhomogeneousPoint2D(x, y)));
+                result.add(createFingerprint(sources, new InhomogeneousPoint2D(x + 0.1, y + 0.1)));
+            }
+        }
+        return result;
+    }
+
+    private static RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> createFingerprint(
+            final List<RadioSourceLocated<Point2D>> sources, final Point2D position) {
+        final var readings = new ArrayList<RssiReading<RadioSource>>();
+        for (final var source : sources) {
+            final var distance = source.getPosition().distanceTo(position);
+            final var rssi = Utils.powerTodBm(receivedPower(Utils.dBmToPower(TRANSMITTED_POWER), distance));
+            readings.add(new RssiReading<>((RadioSource) source, rssi));
+        }
+        return new RssiFingerprintLocated2D<>(readings, position);
+    }
+
+    private static double receivedPower(final double equivalentTransmittedPower, final double distance) {
+        // Pr = Pte*c^2/((4*pi*f)^2 * d^2)
+        final var k = Math.pow(SPEED_OF_LIGHT / (4.0 * Math.PI * FREQUENCY),
+                BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT);
+        return equivalentTransmittedPower * k /
+                Math.pow(distance, BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT);
+    }
+}
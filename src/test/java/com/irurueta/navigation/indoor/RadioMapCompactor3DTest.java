@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMapCompactor3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double ABSOLUTE_ERROR = 1e-9;
+
+    @Test
+    void testCompact() {
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point3D>>();
+        fingerprints.add(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source1, -60.0),
+                new RssiReading<>(source2, -70.0)), new InhomogeneousPoint3D(0.0, 0.0, 1.0)));
+        fingerprints.add(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source1, -62.0),
+                new RssiReading<>(source2, -70.0)), new InhomogeneousPoint3D(0.0, 0.0, 1.4)));
+        // a position on another floor is kept apart
+        fingerprints.add(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source1, -60.0),
+                new RssiReading<>(source2, -70.0)), new InhomogeneousPoint3D(0.0, 0.0, 4.0)));
+
+        final var compactor = new RadioMapCompactor3D();
+        final var radioMap = compactor.compact(fingerprints);
+
+        // check
+        assertEquals(3, compactor.getNumberOfDimensions());
+        assertInstanceOf(RadioMap3D.class, radioMap);
+        assertEquals(2, radioMap.size());
+
+        final var merged = radioMap.getFingerprints().get(0);
+        assertInstanceOf(RssiFingerprintLocated3D.class, merged);
+        assertEquals(1.2, merged.getPosition().getInhomZ(), ABSOLUTE_ERROR);
+        assertEquals(-61.0, merged.getReadings().get(0).getRssi(), ABSOLUTE_ERROR);
+        assertEquals(Math.sqrt(2.0), merged.getReadings().get(0).getRssiStandardDeviation(), ABSOLUTE_ERROR);
+        assertNull(merged.getReadings().get(1).getRssiStandardDeviation());
+        assertSame(fingerprints.get(2), radioMap.getFingerprints().get(1));
+    }
+
+    @Test
+    void testCrossValidateWithoutSources() {
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point3D>>();
+        for (var i = 0; i < 4; i++) {
+            fingerprints.add(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source, -60.0 - i)),
+                    new InhomogeneousPoint3D(i, 0.0, 0.0)));
+        }
+
+        final var report = new RadioMapCompactor3D().crossValidate(fingerprints, new ArrayList<>());
+
+        // check that fingerprints cannot be located without located radio sources
+        assertEquals(4, report.getNumFingerprints());
+        assertEquals(0, report.getNumValidated());
+        assertEquals(4, report.getNumFailed());
+        assertTrue(Double.isNaN(report.getMeanError()));
+        assertTrue(Double.isNaN(report.getAccuracyLoss()));
+    }
+}
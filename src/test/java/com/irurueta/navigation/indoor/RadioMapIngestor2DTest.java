@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMapIngestor2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double ABSOLUTE_ERROR = 1e-9;
+
+    @Test
+    void testConstructor() {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final FingerprintSink<Point2D> sink = fingerprints::add;
+
+        var ingestor = new RadioMapIngestor2D(sink);
+
+        // check default values
+        assertSame(sink, ingestor.getSink());
+        assertEquals(RadioMapIngestor.DEFAULT_MAX_PENDING_REFERENCE_POINTS,
+                ingestor.getMaxPendingReferencePoints());
+        assertEquals(RadioMapIngestor.DEFAULT_REFERENCE_POINT_RESOLUTION,
+                ingestor.getReferencePointResolution(), 0.0);
+        assertEquals(RadioMapIngestor.DEFAULT_MIN_SAMPLES_PER_SOURCE, ingestor.getMinSamplesPerSource());
+        assertEquals(2, ingestor.getNumberOfDimensions());
+        assertEquals(0, ingestor.getNumberOfPendingReferencePoints());
+        assertEquals(0, ingestor.getNumberOfIngestedScans());
+        assertEquals(0, ingestor.getNumberOfIngestedReadings());
+        assertEquals(0, ingestor.getNumberOfWrittenFingerprints());
+
+        ingestor = new RadioMapIngestor2D(sink, 4, 0.0, 2);
+
+        // check
+        assertEquals(4, ingestor.getMaxPendingReferencePoints());
+        assertEquals(0.0, ingestor.getReferencePointResolution(), 0.0);
+        assertEquals(2, ingestor.getMinSamplesPerSource());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor2D(null));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor2D(sink, 0, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor2D(sink, 1, -0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor2D(sink, 1, Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor2D(sink, 1, 0.1, 0));
+    }
+
+    @Test
+    void testMergeScansAtSameReferencePoint() throws IOException {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final var ingestor = new RadioMapIngestor2D(fingerprints::add);
+
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        final var source3 = new WifiAccessPoint("bssid3", FREQUENCY);
+
+        final var values = new double[]{-60.0, -62.0, -67.0};
+        for (var i = 0; i < values.length; i++) {
+            final var readings = new ArrayList<Reading<RadioSource>>();
+            readings.add(new RssiReading<>(source1, values[i]));
+            // ranging readings are ignored, ranging and RSSI readings are merged
+            readings.add(new RangingReading<>(source2, 5.0));
+            if (i == 0) {
+                readings.add(new RangingAndRssiReading<>(source3, 5.0, -80.0, null, 3.0));
+            }
+            // positions within the same cell of the grid are merged
+            ingestor.addScan(new Fingerprint<>(readings), new InhomogeneousPoint2D(1.0 + 0.001 * i, 2.0));
+        }
+
+        // check
+        assertTrue(fingerprints.isEmpty());
+        assertEquals(1, ingestor.getNumberOfPendingReferencePoints());
+        assertEquals(3, ingestor.getNumberOfIngestedScans());
+        assertEquals(4, ingestor.getNumberOfIngestedReadings());
+
+        ingestor.flush();
+
+        assertEquals(0, ingestor.getNumberOfPendingReferencePoints());
+        assertEquals(1, ingestor.getNumberOfWrittenFingerprints());
+        assertEquals(1, fingerprints.size());
+
+        final var fingerprint = fingerprints.get(0);
+        assertInstanceOf(RssiFingerprintLocated2D.class, fingerprint);
+        assertEquals(1.001, fingerprint.getPosition().getInhomX(), ABSOLUTE_ERROR);
+        assertEquals(2.0, fingerprint.getPosition().getInhomY(), ABSOLUTE_ERROR);
+
+        final var readings = fingerprint.getReadings();
+        assertEquals(2, readings.size());
+        assertSame(source1, readings.get(0).getSource());
+        final var mean = (values[0] + values[1] + values[2]) / 3.0;
+        var sqrSum = 0.0;
+        for (final var value : values) {
+            sqrSum += (value - mean) * (value - mean);
+        }
+        assertEquals(mean, readings.get(0).getRssi(), ABSOLUTE_ERROR);
+        assertEquals(Math.sqrt(sqrSum / 2.0), readings.get(0).getRssiStandardDeviation(), ABSOLUTE_ERROR);
+
+        // a single value keeps its own standard deviation
+        assertSame(source3, readings.get(1).getSource());
+        assertEquals(-80.0, readings.get(1).getRssi(), 0.0);
+        assertEquals(3.0, readings.get(1).getRssiStandardDeviation(), 0.0);
+    }
+
+    @Test
+    void testPendingReferencePointsAreBounded() throws IOException {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final var ingestor = new RadioMapIngestor2D(fingerprints::add, 2,
+                RadioMapIngestor.DEFAULT_REFERENCE_POINT_RESOLUTION, 1);
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        ingestor.addScan(createScan(source, -60.0, 0.0));
+        ingestor.addScan(createScan(source, -61.0, 1.0));
+        // reference point 0 receives a new scan, so that reference point 1 becomes the eldest
+        ingestor.addScan(createScan(source, -62.0, 0.0));
+
+        // check
+        assertTrue(fingerprints.isEmpty());
+
+        ingestor.addScan(createScan(source, -63.0, 2.0));
+
+        assertEquals(1, fingerprints.size());
+        assertEquals(1.0, fingerprints.get(0).getPosition().getInhomX(), 0.0);
+        assertEquals(2, ingestor.getNumberOfPendingReferencePoints());
+
+        ingestor.flush();
+
+        assertEquals(3, fingerprints.size());
+        assertEquals(0.0, fingerprints.get(1).getPosition().getInhomX(), 0.0);
+        assertEquals(-61.0, fingerprints.get(1).getReadings().get(0).getRssi(), 0.0);
+        assertEquals(2.0, fingerprints.get(2).getPosition().getInhomX(), 0.0);
+    }
+
+    @Test
+    void testMinSamplesPerSource() throws IOException {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final var ingestor = new RadioMapIngestor2D(fingerprints::add, 10, 0.0, 2);
+
+        final var source1 = new WifiAccessPoint("bssid1", FREQUENCY);
+        final var source2 = new WifiAccessPoint("bssid2", FREQUENCY);
+        ingestor.addScan(new RssiFingerprintLocated2D<>(List.of(new RssiReading<>(source1, -60.0),
+                new RssiReading<>(source2, -70.0)), new InhomogeneousPoint2D(0.0, 0.0)));
+        ingestor.addScan(createScan(source1, -60.0, 0.0));
+        // reference point without any radio source having enough values
+        ingestor.addScan(createScan(source1, -60.0, 1.0));
+
+        ingestor.flush();
+
+        // check
+        assertEquals(1, fingerprints.size());
+        final var readings = fingerprints.get(0).getReadings();
+        assertEquals(1, readings.size());
+        assertSame(source1, readings.get(0).getSource());
+        // identical values have no known standard deviation
+        assertNull(readings.get(0).getRssiStandardDeviation());
+    }
+
+    @Test
+    void testAddScansFromSurveyLog() throws IOException {
+        final var source = new WifiAccessPointLocated2D("bssid", FREQUENCY, new InhomogeneousPoint2D(5.0, 5.0));
+        final var scans = new ArrayList<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>();
+        for (var i = 0; i < 10; i++) {
+            scans.add(createScan(source, -60.0 - i, i / 5));
+        }
+
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+        for (final var scan : scans) {
+            encoder.writeFingerprint(scan);
+        }
+        encoder.flush();
+        final var log = stream.toByteArray();
+
+        // ingest log and write resulting radio map into another log
+        final var output = new ByteArrayOutputStream();
+        final var outputEncoder = new BinaryEncoder(output);
+        final var ingestor = new RadioMapIngestor2D(outputEncoder::writeFingerprint);
+        assertEquals(10, ingestor.addScans(new BinaryDecoder(new ByteArrayInputStream(log))));
+        ingestor.flush();
+        outputEncoder.flush();
+
+        // check
+        final var decoder = new BinaryDecoder(new ByteArrayInputStream(output.toByteArray()));
+        final RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> first = decoder.readFingerprint();
+        final RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> second = decoder.readFingerprint();
+        assertFalse(decoder.hasRemaining());
+        assertEquals(0.0, first.getPosition().getInhomX(), 0.0);
+        assertEquals(-62.0, first.getReadings().get(0).getRssi(), ABSOLUTE_ERROR);
+        assertEquals(1.0, second.getPosition().getInhomX(), 0.0);
+        assertEquals(-67.0, second.getReadings().get(0).getRssi(), ABSOLUTE_ERROR);
+        assertInstanceOf(WifiAccessPointLocated2D.class, first.getReadings().get(0).getSource());
+
+        // same result is obtained when scans are ingested from memory
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final var ingestor2 = new RadioMapIngestor2D(fingerprints::add);
+        ingestor2.addScans(scans);
+        ingestor2.flush();
+        assertEquals(2, fingerprints.size());
+        assertEquals(first.getReadings().get(0).getRssiStandardDeviation(),
+                fingerprints.get(0).getReadings().get(0).getRssiStandardDeviation(), ABSOLUTE_ERROR);
+
+        // force IOException
+        final var notLocated = new ByteArrayOutputStream();
+        final var notLocatedEncoder = new BinaryEncoder(notLocated);
+        notLocatedEncoder.writeFingerprint(new RssiFingerprint<>(List.of(new RssiReading<>(source, -60.0))));
+        notLocatedEncoder.flush();
+        assertThrows(IOException.class, () -> ingestor2.addScans(
+                new BinaryDecoder(new ByteArrayInputStream(notLocated.toByteArray()))));
+    }
+
+    @Test
+    void testReferencePointsAreKeptPendingWhenSinkFails() throws IOException {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point2D>>();
+        final var failing = new boolean[]{true};
+        final var ingestor = new RadioMapIngestor2D(fingerprint -> {
+            if (failing[0]) {
+                throw new IOException();
+            }
+            fingerprints.add(fingerprint);
+        }, 1, 0.0, 1);
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        ingestor.addScan(createScan(source, -60.0, 0.0));
+
+        // force IOException
+        assertThrows(IOException.class, () -> ingestor.addScan(createScan(source, -61.0, 1.0)));
+        assertEquals(2, ingestor.getNumberOfPendingReferencePoints());
+        assertThrows(IOException.class, ingestor::flush);
+        assertEquals(2, ingestor.getNumberOfPendingReferencePoints());
+
+        // check that no reference point is lost once sink recovers
+        failing[0] = false;
+        ingestor.flush();
+
+        assertEquals(0, ingestor.getNumberOfPendingReferencePoints());
+        assertEquals(2, fingerprints.size());
+        assertEquals(0.0, fingerprints.get(0).getPosition().getInhomX(), 0.0);
+        assertEquals(1.0, fingerprints.get(1).getPosition().getInhomX(), 0.0);
+    }
+
+    @Test
+    void testSinkFailure() {
+        final var ingestor = new RadioMapIngestor2D(fingerprint -> {
+            throw new IOException();
+        }, 1, 0.0, 1);
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+
+        // force IOException
+        assertThrows(IOException.class, () -> {
+            ingestor.addScan(createScan(source, -60.0, 0.0));
+            ingestor.addScan(createScan(source, -60.0, 1.0));
+        });
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> ingestor.addScan(null));
+        assertThrows(IllegalArgumentException.class, () -> ingestor.addScan(null,
+                new InhomogeneousPoint2D()));
+        assertThrows(IllegalArgumentException.class, () -> ingestor.addScan(
+                new Fingerprint<>(), null));
+        assertThrows(IllegalArgumentException.class, () -> ingestor.addScans(
+                (List<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>) null));
+        assertThrows(IllegalArgumentException.class, () -> ingestor.addScans((BinaryDecoder) null));
+    }
+
+    private static RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>> createScan(
+            final RadioSource source, final double rssi, final double x) {
+        return new RssiFingerprintLocated2D<>(List.of(new RssiReading<>(source, rssi)),
+                new InhomogeneousPoint2D(x, 0.0));
+    }
+}
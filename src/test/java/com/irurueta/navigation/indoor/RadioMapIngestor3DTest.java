@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMapIngestor3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final double ABSOLUTE_ERROR = 1e-9;
+
+    @Test
+    void testConstructor() {
+        final FingerprintSink<Point3D> sink = fingerprint -> {
+        };
+
+        var ingestor = new RadioMapIngestor3D(sink);
+
+        // check default values
+        assertSame(sink, ingestor.getSink());
+        assertEquals(RadioMapIngestor.DEFAULT_MAX_PENDING_REFERENCE_POINTS,
+                ingestor.getMaxPendingReferencePoints());
+        assertEquals(3, ingestor.getNumberOfDimensions());
+
+        ingestor = new RadioMapIngestor3D(sink, 4, 0.5, 2);
+
+        // check
+        assertEquals(4, ingestor.getMaxPendingReferencePoints());
+        assertEquals(0.5, ingestor.getReferencePointResolution(), 0.0);
+        assertEquals(2, ingestor.getMinSamplesPerSource());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor3D(null));
+        assertThrows(IllegalArgumentException.class, () -> new RadioMapIngestor3D(sink, 0, 0.1, 1));
+    }
+
+    @Test
+    void testMergeScans() throws IOException {
+        final var fingerprints = new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>,
+                Point3D>>();
+        final var ingestor = new RadioMapIngestor3D(fingerprints::add);
+
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        ingestor.addScan(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source, -60.0)),
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0)));
+        ingestor.addScan(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source, -64.0)),
+                new InhomogeneousPoint3D(1.0, 2.0, 3.0)));
+        // a different floor is a different reference point
+        ingestor.addScan(new RssiFingerprintLocated3D<>(List.of(new RssiReading<>(source, -70.0)),
+                new InhomogeneousPoint3D(1.0, 2.0, 6.0)));
+        ingestor.flush();
+
+        // check
+        assertEquals(2, fingerprints.size());
+        assertInstanceOf(RssiFingerprintLocated3D.class, fingerprints.get(0));
+        assertEquals(3.0, fingerprints.get(0).getPosition().getInhomZ(), 0.0);
+        assertEquals(-62.0, fingerprints.get(0).getReadings().get(0).getRssi(), ABSOLUTE_ERROR);
+        assertEquals(Math.sqrt(8.0), fingerprints.get(0).getReadings().get(0).getRssiStandardDeviation(),
+                ABSOLUTE_ERROR);
+        assertEquals(6.0, fingerprints.get(1).getPosition().getInhomZ(), 0.0);
+    }
+
+    @Test
+    void testAddScansWithInvalidDimensions() throws IOException {
+        final var stream = new ByteArrayOutputStream();
+        final var encoder = new BinaryEncoder(stream);
+        encoder.writeFingerprint(new RssiFingerprintLocated2D<>(List.of(new RssiReading<>(
+                new WifiAccessPoint("bssid", FREQUENCY), -60.0)), new InhomogeneousPoint2D()));
+        encoder.flush();
+
+        final var ingestor = new RadioMapIngestor3D(fingerprint -> {
+        });
+
+        // force IOException
+        assertThrows(IOException.class, () -> ingestor.addScans(
+                new BinaryDecoder(new ByteArrayInputStream(stream.toByteArray()))));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadioMapPartitionKeyTest {
+
+    @Test
+    void testConstructor() {
+        var key = new RadioMapPartitionKey(2);
+
+        // check
+        assertNull(key.getBuilding());
+        assertEquals(2, key.getFloor());
+        assertEquals("2", key.toString());
+
+        key = new RadioMapPartitionKey("building", -1);
+
+        // check
+        assertEquals("building", key.getBuilding());
+        assertEquals(-1, key.getFloor());
+        assertEquals("building:-1", key.toString());
+    }
+
+    @Test
+    void testEqualsAndHashCode() {
+        final var key1 = new RadioMapPartitionKey("building", 1);
+        final var key2 = new RadioMapPartitionKey("building", 1);
+        final var key3 = new RadioMapPartitionKey("building", 2);
+        final var key4 = new RadioMapPartitionKey(1);
+
+        // check
+        assertEquals(key1, key1);
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+        assertNotEquals(key1, key3);
+        assertNotEquals(key1, key4);
+        assertNotEquals(key1, new Object());
+        assertEquals(key4, new RadioMapPartitionKey(null, 1));
+    }
+
+    @Test
+    void testSerializeDeserialize() throws IOException, ClassNotFoundException {
+        final var key1 = new RadioMapPartitionKey("building", 1);
+
+        final var bytes = SerializationHelper.serialize(key1);
+        final RadioMapPartitionKey key2 = SerializationHelper.deserialize(bytes);
+
+        // check
+        assertEquals(key1, key2);
+    }
+}
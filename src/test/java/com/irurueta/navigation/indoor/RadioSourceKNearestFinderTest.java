@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -116,6 +117,29 @@ class RadioSourceKNearestFinderTest {
                 () -> new RadioSourceKNearestFinder<Point3D, Beacon>(null));
     }
 
+    @Test
+    void testCreate() {
+        final var radioMap = new RadioMap2D();
+        final var finder = RadioSourceKNearestFinder.create(radioMap);
+
+        // check
+        assertSame(radioMap, finder.getRadioMap());
+        assertTrue(finder.getFingerprints().isEmpty());
+
+        // fingerprints inserted into radio map are found without rebuilding finder
+        final var source = new WifiAccessPoint("bssid", FREQUENCY);
+        final var fingerprint = new RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>(
+                List.of(new RssiReading<>(source, -60.0)), new InhomogeneousPoint2D());
+        radioMap.insert(fingerprint);
+
+        assertEquals(1, finder.getFingerprints().size());
+        assertSame(fingerprint, finder.findNearestTo(new RssiFingerprint<>(
+                List.of(new RssiReading<>(source, -65.0)))));
+
+        // Force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> RadioSourceKNearestFinder.create(null));
+    }
+
     @Test
     void testFindNearestTo() {
         var numValid = 0;
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadingBatchTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    @Test
+    void testConstructor() {
+        var batch = new ReadingBatch();
+
+        // check default values
+        assertEquals(0, batch.size());
+        assertTrue(batch.isEmpty());
+        assertEquals(ReadingBatch.DEFAULT_CAPACITY, batch.getCapacity());
+
+        batch = new ReadingBatch(4);
+
+        // check
+        assertEquals(4, batch.getCapacity());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new ReadingBatch(-1));
+    }
+
+    @Test
+    void testAddAndGetters() {
+        final var batch = new ReadingBatch(0);
+
+        batch.addRssi(0, -60.0);
+        batch.addRssi(1, -70.0, 2.0);
+        batch.addRanging(2, 5.0);
+        batch.addRanging(3, 6.0, 0.5, 10, 8);
+        batch.addRangingAndRssi(4, 7.0, -80.0);
+        batch.addRangingAndRssi(5, 8.0, -90.0, 0.4, 3.0, 5, 4);
+
+        // check
+        assertEquals(6, batch.size());
+        assertFalse(batch.isEmpty());
+        assertTrue(batch.getCapacity() >= 6);
+
+        assertEquals(ReadingType.RSSI_READING, batch.getType(0));
+        assertEquals(0, batch.getSourceIndex(0));
+        assertEquals(-60.0, batch.getRssi(0), 0.0);
+        assertTrue(Double.isNaN(batch.getRssiStandardDeviation(0)));
+        assertTrue(Double.isNaN(batch.getDistance(0)));
+        assertTrue(batch.hasRssi(0));
+        assertFalse(batch.hasDistance(0));
+
+        assertEquals(ReadingType.RSSI_READING, batch.getType(1));
+        assertEquals(2.0, batch.getRssiStandardDeviation(1), 0.0);
+
+        assertEquals(ReadingType.RANGING_READING, batch.getType(2));
+        assertEquals(5.0, batch.getDistance(2), 0.0);
+        assertTrue(Double.isNaN(batch.getDistanceStandardDeviation(2)));
+        assertTrue(Double.isNaN(batch.getRssi(2)));
+        assertEquals(RangingReading.DEFAULT_NUM_MEASUREMENTS, batch.getNumAttemptedMeasurements(2));
+        assertEquals(RangingReading.DEFAULT_NUM_MEASUREMENTS, batch.getNumSuccessfulMeasurements(2));
+        assertFalse(batch.hasRssi(2));
+        assertTrue(batch.hasDistance(2));
+
+        assertEquals(ReadingType.RANGING_READING, batch.getType(3));
+        assertEquals(0.5, batch.getDistanceStandardDeviation(3), 0.0);
+        assertEquals(10, batch.getNumAttemptedMeasurements(3));
+        assertEquals(8, batch.getNumSuccessfulMeasurements(3));
+
+        assertEquals(ReadingType.RANGING_AND_RSSI_READING, batch.getType(4));
+        assertEquals(7.0, batch.getDistance(4), 0.0);
+        assertEquals(-80.0, batch.getRssi(4), 0.0);
+
+        assertEquals(ReadingType.RANGING_AND_RSSI_READING, batch.getType(5));
+        assertEquals(5, batch.getSourceIndex(5));
+        assertEquals(0.4, batch.getDistanceStandardDeviation(5), 0.0);
+        assertEquals(3.0, batch.getRssiStandardDeviation(5), 0.0);
+        assertEquals(5, batch.getNumAttemptedMeasurements(5));
+        assertEquals(4, batch.getNumSuccessfulMeasurements(5));
+
+        // force IndexOutOfBoundsException
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getSourceIndex(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getType(6));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getRssi(6));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> batch.addRssi(-1, -60.0));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRssi(0, -60.0, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRanging(0, -1.0));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRanging(0, 1.0, -1.0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRanging(0, 1.0, Double.NaN, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRanging(0, 1.0, Double.NaN, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRangingAndRssi(0, -1.0, -60.0));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRangingAndRssi(0, 1.0, -60.0,
+                0.0, Double.NaN, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> batch.addRangingAndRssi(0, 1.0, -60.0,
+                Double.NaN, 0.0, 1, 1));
+        assertEquals(6, batch.size());
+    }
+
+    @Test
+    void testClearReusesArrays() {
+        final var batch = new ReadingBatch(2);
+        for (var i = 0; i < 10; i++) {
+            batch.addRssi(i, -60.0);
+        }
+        final var capacity = batch.getCapacity();
+
+        batch.clear();
+
+        // check
+        assertEquals(0, batch.size());
+        assertTrue(batch.isEmpty());
+        assertEquals(capacity, batch.getCapacity());
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.getSourceIndex(0));
+
+        batch.addRanging(3, 1.0);
+        assertEquals(1, batch.size());
+        assertEquals(3, batch.getSourceIndex(0));
+        assertEquals(capacity, batch.getCapacity());
+    }
+
+    @Test
+    void testFromFingerprint() {
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        for (var i = 0; i < 3; i++) {
+            sources.add(new WifiAccessPointLocated2D("id" + i, FREQUENCY, new InhomogeneousPoint2D(i, i)));
+        }
+        final var model = new VenueModel<Point2D>(sources);
+
+        final var readings = new ArrayList<Reading<WifiAccessPoint>>();
+        readings.add(new RssiReading<>(new WifiAccessPoint("id2", FREQUENCY), -60.0, 2.0));
+        readings.add(new RangingReading<>(new WifiAccessPoint("id0", FREQUENCY), 5.0, 0.5, 4, 3));
+        readings.add(new RssiReading<>(new WifiAccessPoint("unknown", FREQUENCY), -70.0));
+        readings.add(new RangingAndRssiReading<>(new WifiAccessPoint("id1", FREQUENCY), 7.0, -80.0));
+        final var fingerprint = new Fingerprint<>(readings);
+
+        final var batch = ReadingBatch.fromFingerprint(model, fingerprint);
+
+        // check
+        assertEquals(3, batch.size());
+        assertEquals(2, batch.getSourceIndex(0));
+        assertEquals(ReadingType.RSSI_READING, batch.getType(0));
+        assertEquals(-60.0, batch.getRssi(0), 0.0);
+        assertEquals(2.0, batch.getRssiStandardDeviation(0), 0.0);
+
+        assertEquals(0, batch.getSourceIndex(1));
+        assertEquals(ReadingType.RANGING_READING, batch.getType(1));
+        assertEquals(5.0, batch.getDistance(1), 0.0);
+        assertEquals(0.5, batch.getDistanceStandardDeviation(1), 0.0);
+        assertEquals(4, batch.getNumAttemptedMeasurements(1));
+        assertEquals(3, batch.getNumSuccessfulMeasurements(1));
+
+        assertEquals(1, batch.getSourceIndex(2));
+        assertEquals(ReadingType.RANGING_AND_RSSI_READING, batch.getType(2));
+        assertTrue(Double.isNaN(batch.getDistanceStandardDeviation(2)));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> ReadingBatch.fromFingerprint(null, fingerprint));
+        assertThrows(IllegalArgumentException.class, () -> ReadingBatch.fromFingerprint(model, null));
+    }
+
+    @Test
+    void testToRssiFingerprint() {
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        for (var i = 0; i < 3; i++) {
+            sources.add(new WifiAccessPointLocated2D("id" + i, FREQUENCY, new InhomogeneousPoint2D(i, i)));
+        }
+        final var model = new VenueModel<Point2D>(sources);
+
+        final var batch = new ReadingBatch();
+        batch.addRssi(1, -60.0, 2.0);
+        batch.addRanging(0, 5.0);
+        batch.addRangingAndRssi(2, 7.0, -80.0);
+        batch.addRssi(5, -70.0);
+
+        final var fingerprint = batch.toRssiFingerprint(model);
+
+        // check
+        final var readings = fingerprint.getReadings();
+        assertEquals(2, readings.size());
+        assertEquals(sources.get(1), readings.get(0).getSource());
+        assertEquals(-60.0, readings.get(0).getRssi(), 0.0);
+        assertEquals(2.0, readings.get(0).getRssiStandardDeviation(), 0.0);
+        assertEquals(sources.get(2), readings.get(1).getSource());
+        assertEquals(-80.0, readings.get(1).getRssi(), 0.0);
+        assertNull(readings.get(1).getRssiStandardDeviation());
+
+        // readings can be matched against fingerprints using non located sources
+        final var other = new RssiFingerprint<RadioSource, RssiReading<RadioSource>>(List.of(
+                new RssiReading<>(new WifiAccessPoint("id1", FREQUENCY), -62.0)));
+        assertEquals(4.0, fingerprint.sqrDistanceTo(other), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> batch.toRssiFingerprint(null));
+    }
+
+    @Test
+    void testSerializeDeserialize() throws IOException, ClassNotFoundException {
+        final var batch1 = new ReadingBatch();
+        batch1.addRssi(1, -60.0, 2.0);
+        batch1.addRanging(0, 5.0, 0.5, 3, 2);
+
+        final var bytes = SerializationHelper.serialize(batch1);
+        final var batch2 = SerializationHelper.<ReadingBatch>deserialize(bytes);
+
+        // check
+        assertNotSame(batch1, batch2);
+        assertEquals(batch1.size(), batch2.size());
+        for (var i = 0; i < batch1.size(); i++) {
+            assertEquals(batch1.getSourceIndex(i), batch2.getSourceIndex(i));
+            assertEquals(batch1.getType(i), batch2.getType(i));
+            assertEquals(batch1.getRssi(i), batch2.getRssi(i), 0.0);
+            assertEquals(batch1.getDistance(i), batch2.getDistance(i), 0.0);
+            assertEquals(batch1.getNumAttemptedMeasurements(i), batch2.getNumAttemptedMeasurements(i));
+        }
+    }
+}
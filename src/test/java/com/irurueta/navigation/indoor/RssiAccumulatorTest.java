@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RssiAccumulatorTest {
+
+    private static final double ABSOLUTE_ERROR = 1e-9;
+
+    @Test
+    void testAdd() {
+        final var accumulator = new RssiAccumulator();
+
+        // check default values
+        assertEquals(0, accumulator.getCount());
+        assertEquals(0.0, accumulator.getMean(), 0.0);
+        assertNull(accumulator.getStandardDeviation());
+
+        // a single value keeps its own standard deviation
+        accumulator.add(-60.0, 3.0);
+
+        assertEquals(1, accumulator.getCount());
+        assertEquals(-60.0, accumulator.getMean(), 0.0);
+        assertEquals(3.0, accumulator.getStandardDeviation(), 0.0);
+
+        // sample variance is pooled with average known variance
+        accumulator.add(-62.0, null);
+        accumulator.add(-67.0, 1.0);
+
+        final var mean = (-60.0 - 62.0 - 67.0) / 3.0;
+        final var sampleVariance = (Math.pow(-60.0 - mean, 2.0) + Math.pow(-62.0 - mean, 2.0)
+                + Math.pow(-67.0 - mean, 2.0)) / 2.0;
+        assertEquals(3, accumulator.getCount());
+        assertEquals(mean, accumulator.getMean(), ABSOLUTE_ERROR);
+        assertEquals(Math.sqrt(sampleVariance + 0.5 * (9.0 + 1.0)), accumulator.getStandardDeviation(),
+                ABSOLUTE_ERROR);
+    }
+
+    @Test
+    void testGetStandardDeviationWithoutKnownVariances() {
+        final var accumulator = new RssiAccumulator();
+
+        // a single value without known standard deviation has no standard deviation
+        accumulator.add(-60.0, null);
+        assertNull(accumulator.getStandardDeviation());
+
+        // identical values have no standard deviation
+        accumulator.add(-60.0, null);
+        assertNull(accumulator.getStandardDeviation());
+
+        accumulator.add(-66.0, null);
+        assertEquals(Math.sqrt(12.0), accumulator.getStandardDeviation(), ABSOLUTE_ERROR);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2026 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.WrongSizeException;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.geometry.Point3D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VenueModelTest {
+
+    private static final double FREQUENCY = 2.4e9;
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+    private static final double TRANSMITTED_POWER = -50.0;
+    private static final double TRANSMITTED_POWER_STD = 0.5;
+    private static final double PATH_LOSS_STD = 0.1;
+
+    private static final double MIN_VARIANCE = 0.01;
+    private static final double MAX_VARIANCE = 1.0;
+
+    private static final double MIN_PATH_LOSS_EXPONENT = 1.6;
+    private static final double MAX_PATH_LOSS_EXPONENT = 2.0;
+
+    private static final int NUM_SOURCES = 10;
+
+    private static final double ABSOLUTE_ERROR = 1e-12;
+
+    @Test
+    void testConstructor() throws WrongSizeException {
+        final var randomizer = new UniformRandomizer();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        final var pathLossExponents = new double[NUM_SOURCES];
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var cov = Matrix.identity(Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH,
+                    Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH);
+            pathLossExponents[i] = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+            if (i % 2 == 0) {
+                sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY, null,
+                        TRANSMITTED_POWER, TRANSMITTED_POWER_STD, pathLossExponents[i], PATH_LOSS_STD, position,
+                        cov));
+            } else {
+                sources.add(new WifiAccessPointLocated2D("bssid" + i, FREQUENCY, position));
+            }
+        }
+
+        final var model = new VenueModel<>(sources);
+
+        // check
+        assertSame(sources, model.getSources());
+        assertEquals(NUM_SOURCES, model.getNumberOfSources());
+        assertEquals(Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH, model.getNumberOfDimensions());
+
+        final var kdB = 10.0 * Math.log10(Utils.SPEED_OF_LIGHT / (4.0 * Math.PI * FREQUENCY));
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var source = sources.get(i);
+            assertEquals(i, model.indexOf((RadioSource) source));
+            assertEquals(i, model.indexOf(new WifiAccessPoint("bssid" + i, FREQUENCY)));
+            assertSame(source, model.getSource(i));
+            assertSame(source.getPosition(), model.getPosition(i));
+            assertEquals(source.getPosition().getInhomogeneousCoordinate(0), model.getPositionCoordinate(i, 0),
+                    0.0);
+            assertEquals(source.getPosition().getInhomogeneousCoordinate(1), model.getPositionCoordinate(i, 1),
+                    0.0);
+            assertSame(source.getPositionCovariance(), model.getPositionCovariance(i));
+            assertEquals(kdB, model.getFrequencyConstant(i), ABSOLUTE_ERROR);
+
+            if (i % 2 == 0) {
+                assertTrue(model.hasPathLossExponent(i));
+                assertEquals(pathLossExponents[i], model.getPathLossExponent(i), 0.0);
+                assertEquals(PATH_LOSS_STD * PATH_LOSS_STD, model.getPathLossExponentVariance(i),
+                        ABSOLUTE_ERROR);
+                assertEquals(pathLossExponents[i] * kdB, model.getPropagationConstant(i, pathLossExponents[i]),
+                        ABSOLUTE_ERROR);
+            } else {
+                assertFalse(model.hasPathLossExponent(i));
+                assertTrue(Double.isNaN(model.getPathLossExponent(i)));
+                assertNull(model.getPathLossExponentVariance(i));
+            }
+        }
+
+        // sources not contained in model are not found
+        assertEquals(-1, model.indexOf(new WifiAccessPoint("other", FREQUENCY)));
+        assertEquals(-1, model.indexOf(null));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new VenueModel<Point2D>(null));
+    }
+
+    @Test
+    void testConstructor3D() {
+        final var randomizer = new UniformRandomizer();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point3D>>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = new InhomogeneousPoint3D(randomizer.nextDouble(MIN_POS, MAX_POS),
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            sources.add(new WifiAccessPointWithPowerAndLocated3D("bssid" + i, FREQUENCY, TRANSMITTED_POWER,
+                    position));
+        }
+
+        // repeated sources keep their first position
+        sources.add(sources.get(0));
+
+        final var model = new VenueModel<>(sources);
+
+        // check
+        assertEquals(NUM_SOURCES + 1, model.getNumberOfSources());
+        assertEquals(Point3D.POINT3D_INHOMOGENEOUS_COORDINATES_LENGTH, model.getNumberOfDimensions());
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = sources.get(i).getPosition();
+            assertEquals(i, model.indexOf((RadioSource) sources.get(i)));
+            for (var j = 0; j < Point3D.POINT3D_INHOMOGENEOUS_COORDINATES_LENGTH; j++) {
+                assertEquals(position.getInhomogeneousCoordinate(j), model.getPositionCoordinate(i, j), 0.0);
+            }
+            assertTrue(model.hasPathLossExponent(i));
+            assertNull(model.getPathLossExponentVariance(i));
+            assertNull(model.getPositionCovariance(i));
+        }
+        assertEquals(0, model.indexOf((RadioSource) sources.get(NUM_SOURCES)));
+    }
+
+    @Test
+    void testPositionUncertainty() throws WrongSizeException {
+        final var randomizer = new UniformRandomizer();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        final var covariances = new ArrayList<Matrix>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var varianceX = randomizer.nextDouble(MIN_VARIANCE, MAX_VARIANCE);
+            final var varianceY = randomizer.nextDouble(MIN_VARIANCE, MAX_VARIANCE);
+            final var cov = Matrix.diagonal(new double[]{varianceX, varianceY});
+            covariances.add(cov);
+            sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY, TRANSMITTED_POWER,
+                    position, cov));
+        }
+        sources.add(new WifiAccessPointLocated2D("other", FREQUENCY, new InhomogeneousPoint2D()));
+
+        final var model = new VenueModel<>(sources);
+
+        // check
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var cov = covariances.get(i);
+            final var varianceX = cov.getElementAt(0, 0);
+            final var varianceY = cov.getElementAt(1, 1);
+            assertEquals(Math.sqrt(0.5 * (varianceX + varianceY)), model.getPositionStandardDeviation(i),
+                    ABSOLUTE_ERROR);
+            assertEquals(Math.sqrt(Math.max(varianceX, varianceY)), model.getPositionPrincipalStandardDeviation(i),
+                    ABSOLUTE_ERROR);
+        }
+        assertNull(model.getPositionStandardDeviation(NUM_SOURCES));
+        assertNull(model.getPositionPrincipalStandardDeviation(NUM_SOURCES));
+
+        // cached values are kept until invalidated
+        final var cov = covariances.get(0);
+        final var std = model.getPositionStandardDeviation(0);
+        cov.multiplyByScalar(4.0);
+        assertEquals(std, model.getPositionStandardDeviation(0));
+
+        model.invalidatePositionUncertainty(0);
+        assertEquals(2.0 * std, model.getPositionStandardDeviation(0), ABSOLUTE_ERROR);
+
+        final var cov1 = covariances.get(1);
+        final var std1 = model.getPositionPrincipalStandardDeviation(1);
+        cov1.multiplyByScalar(4.0);
+        model.invalidatePositionUncertainties();
+        assertEquals(2.0 * std1, model.getPositionPrincipalStandardDeviation(1), ABSOLUTE_ERROR);
+    }
+
+    @Test
+    void testConcurrentPositionUncertainty() throws InterruptedException, ExecutionException {
+        final var randomizer = new UniformRandomizer();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        final var expectedStds = new double[NUM_SOURCES];
+        final var expectedPrincipalStds = new double[NUM_SOURCES];
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var varianceX = randomizer.nextDouble(MIN_VARIANCE, MAX_VARIANCE);
+            final var varianceY = randomizer.nextDouble(MIN_VARIANCE, MAX_VARIANCE);
+            expectedStds[i] = Math.sqrt(0.5 * (varianceX + varianceY));
+            expectedPrincipalStds[i] = Math.sqrt(Math.max(varianceX, varianceY));
+            sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY, TRANSMITTED_POWER,
+                    position, Matrix.diagonal(new double[]{varianceX, varianceY})));
+        }
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            for (var t = 0; t < 100; t++) {
+                // uncertainties of a new model are concurrently requested for the first time
+                final var model = new VenueModel<>(sources);
+                final var tasks = new ArrayList<Future<?>>();
+                for (var j = 0; j < 4; j++) {
+                    tasks.add(executor.submit(() -> {
+                        for (var i = 0; i < NUM_SOURCES; i++) {
+                            assertEquals(expectedStds[i], model.getPositionStandardDeviation(i), ABSOLUTE_ERROR);
+                            assertEquals(expectedPrincipalStds[i], model.getPositionPrincipalStandardDeviation(i),
+                                    ABSOLUTE_ERROR);
+                        }
+                    }));
+                }
+                for (final var task : tasks) {
+                    task.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSerializeDeserialize() throws IOException, ClassNotFoundException {
+        final var randomizer = new UniformRandomizer();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            sources.add(new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY, TRANSMITTED_POWER,
+                    position));
+        }
+
+        final var model1 = new VenueModel<>(sources);
+
+        final var bytes = SerializationHelper.serialize(model1);
+        final var model2 = SerializationHelper.<VenueModel<Point2D>>deserialize(bytes);
+
+        // check
+        assertNotSame(model1, model2);
+        assertEquals(model1.getNumberOfSources(), model2.getNumberOfSources());
+        assertEquals(model1.getNumberOfDimensions(), model2.getNumberOfDimensions());
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            assertEquals(i, model2.indexOf((RadioSource) sources.get(i)));
+            assertEquals(model1.getPosition(i), model2.getPosition(i));
+            assertEquals(model1.getFrequencyConstant(i), model2.getFrequencyConstant(i), 0.0);
+            assertEquals(model1.getPathLossExponent(i), model2.getPathLossExponent(i), 0.0);
+        }
+    }
+}
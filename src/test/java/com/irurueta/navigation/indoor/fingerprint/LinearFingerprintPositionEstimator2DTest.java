@@ -59,6 +59,8 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
 
     private static final int TIMES = 50;
 
+    private static final double LARGE_ABSOLUTE_ERROR = 1e-3;
+
     private int estimateStart;
     private int estimateEnd;
 
@@ -262,6 +264,38 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
         assertThrows(IllegalArgumentException.class, () -> estimator.setFingerprint(null));
     }
 
+    @Test
+    void testSetReadingBatch() throws LockedException {
+        final var estimator = new LinearFingerprintPositionEstimator2D();
+
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        for (var i = 0; i < 3; i++) {
+            sources.add(new WifiAccessPointLocated2D("bssid" + i, FREQUENCY, new InhomogeneousPoint2D()));
+        }
+
+        final var batch = new ReadingBatch();
+        batch.addRssi(0, -60.0);
+        batch.addRanging(1, 5.0);
+        batch.addRangingAndRssi(2, 7.0, -70.0);
+
+        // force IllegalArgumentException when no sources are available
+        assertThrows(IllegalArgumentException.class, () -> estimator.setReadingBatch(batch));
+
+        estimator.setSources(sources);
+        estimator.setReadingBatch(batch);
+
+        // check that only readings containing RSSI are converted
+        final var readings = estimator.getFingerprint().getReadings();
+        assertEquals(2, readings.size());
+        assertEquals(sources.get(0), readings.get(0).getSource());
+        assertEquals(-60.0, readings.get(0).getRssi(), 0.0);
+        assertEquals(sources.get(2), readings.get(1).getSource());
+        assertEquals(-70.0, readings.get(1).getRssi(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setReadingBatch(null));
+    }
+
     @Test
     void testGetSetMinMaxNearestFingerprints() throws LockedException {
         final var estimator = new LinearFingerprintPositionEstimator2D();
@@ -331,6 +365,40 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
         assertThrows(IllegalArgumentException.class, () -> estimator.setSources(null));
     }
 
+    @Test
+    void testGetSetVenueModel() throws LockedException {
+        final var estimator = new LinearFingerprintPositionEstimator2D();
+
+        // check default value
+        assertNull(estimator.getVenueModel());
+
+        // venue model is built from sources when needed
+        final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+        estimator.setSources(sources);
+
+        final var model1 = estimator.getVenueModel();
+        assertNotNull(model1);
+        assertSame(sources, model1.getSources());
+        assertSame(model1, estimator.getVenueModel());
+
+        // setting new sources discards previous model
+        final var sources2 = new ArrayList<RadioSourceLocated<Point2D>>();
+        estimator.setSources(sources2);
+        assertNotSame(model1, estimator.getVenueModel());
+        assertSame(sources2, estimator.getVenueModel().getSources());
+
+        // set new value
+        final var model2 = new VenueModel<>(sources);
+        estimator.setVenueModel(model2);
+
+        // check
+        assertSame(model2, estimator.getVenueModel());
+        assertSame(sources, estimator.getSources());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setVenueModel(null));
+    }
+
     @Test
     void testGetSetUseSourcesPathLossExponentWhenAvailable() throws LockedException {
         final var estimator = new LinearFingerprintPositionEstimator2D();
@@ -373,6 +441,20 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
         assertTrue(estimator.isMeansFromFingerprintReadingsRemoved());
     }
 
+    @Test
+    void testIsSetIncrementalNormalEquationsEnabled() throws LockedException {
+        final var estimator = new LinearFingerprintPositionEstimator2D();
+
+        // check default value
+        assertFalse(estimator.isIncrementalNormalEquationsEnabled());
+
+        // set new value
+        estimator.setIncrementalNormalEquationsEnabled(true);
+
+        // check
+        assertTrue(estimator.isIncrementalNormalEquationsEnabled());
+    }
+
     @Test
     void testEstimateWithoutErrorAndWithoutBias() throws LockedException, NotReadyException,
             FingerprintEstimationException {
@@ -2447,6 +2529,127 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
         LOGGER.log(Level.INFO, "Avg. Estimated position with means not removed error: {0} m", avgEstimatedError);
     }
 
+    @Test
+    void testEstimateWithIncrementalNormalEquations() throws LockedException, NotReadyException,
+            FingerprintEstimationException {
+        var avgEstimatedError = 0.0;
+        var avgIncrementalEstimatedError = 0.0;
+        var avgDifference = 0.0;
+
+        for (var t = 0; t < TIMES; t++) {
+            final var randomizer = new UniformRandomizer();
+
+            // build sources
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+            final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+            for (var i = 0; i < numSources; i++) {
+                final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                final var position = new InhomogeneousPoint2D(x, y);
+
+                final var accessPoint = new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY,
+                        transmittedPowerdBm, position);
+                sources.add(accessPoint);
+            }
+
+            // build located fingerprints
+            final var numFingerprints = randomizer.nextInt(MIN_FINGERPRINTS, MAX_FINGERPRINTS);
+            final var locatedFingerprints =
+                    new ArrayList<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>();
+            for (var j = 0; j < numFingerprints; j++) {
+                final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var position = new InhomogeneousPoint2D(x, y);
+
+                final var readings = new ArrayList<RssiReading<RadioSource>>();
+                for (final var source : sources) {
+                    final var distance = source.getPosition().distanceTo(position);
+                    final var transmittedPowerdBm = ((WifiAccessPointWithPowerAndLocated2D) source)
+                            .getTransmittedPower();
+
+                    final var receivedRssi = Utils.powerTodBm(receivedPower(Utils.dBmToPower(transmittedPowerdBm),
+                            distance, LinearFingerprintPositionEstimator2D.DEFAULT_PATH_LOSS_EXPONENT));
+                    final var reading = new RssiReading<>((RadioSource) source, receivedRssi);
+                    readings.add(reading);
+                }
+
+                final var locatedFingerprint = new RssiFingerprintLocated2D<>(readings, position);
+                locatedFingerprints.add(locatedFingerprint);
+            }
+
+            // build non-located fingerprint
+            final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+            final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+            final var position = new InhomogeneousPoint2D(x, y);
+
+            final var readings = new ArrayList<RssiReading<RadioSource>>();
+            for (final var source : sources) {
+                final var distance = source.getPosition().distanceTo(position);
+                final var transmittedPowerdBm = ((WifiAccessPointWithPowerAndLocated2D) source).getTransmittedPower();
+
+                final var receivedRssi = Utils.powerTodBm(receivedPower(Utils.dBmToPower(transmittedPowerdBm), distance,
+                        LinearFingerprintPositionEstimator2D.DEFAULT_PATH_LOSS_EXPONENT));
+                final var reading = new RssiReading<>((RadioSource) source, receivedRssi);
+                readings.add(reading);
+            }
+
+            final var fingerprint = new RssiFingerprint<>(readings);
+
+            // estimate solving the whole system of equations
+            final var estimator = new LinearFingerprintPositionEstimator2D(locatedFingerprints, fingerprint,
+                    sources, this);
+            estimator.setMinMaxNearestFingerprints(1, 5);
+
+            reset();
+            estimator.estimate();
+
+            assertEquals(1, estimateStart);
+            assertEquals(1, estimateEnd);
+
+            final var estimatedPosition = estimator.getEstimatedPosition();
+            assertNotNull(estimatedPosition);
+
+            // estimate accumulating normal equations
+            final var incrementalEstimator = new LinearFingerprintPositionEstimator2D(locatedFingerprints,
+                    fingerprint, sources, this);
+            incrementalEstimator.setMinMaxNearestFingerprints(1, 5);
+            incrementalEstimator.setIncrementalNormalEquationsEnabled(true);
+
+            reset();
+            incrementalEstimator.estimate();
+
+            // check correctness
+            assertEquals(1, estimateStart);
+            assertEquals(1, estimateEnd);
+            assertTrue(incrementalEstimator.isReady());
+            assertFalse(incrementalEstimator.isLocked());
+
+            final var incrementalEstimatedPosition = incrementalEstimator.getEstimatedPosition();
+            assertNotNull(incrementalEstimatedPosition);
+            assertNotNull(incrementalEstimator.getNearestFingerprints());
+            assertEquals(estimator.getNearestFingerprints().size(),
+                    incrementalEstimator.getNearestFingerprints().size());
+            // nearest fingerprints searched in growing batches are the same ones
+            assertEquals(estimator.getNearestFingerprints(), incrementalEstimator.getNearestFingerprints());
+
+            // estimating again reuses buffers and yields the same result
+            incrementalEstimator.estimate();
+            assertTrue(incrementalEstimatedPosition.equals(incrementalEstimator.getEstimatedPosition(), 0.0));
+
+            avgEstimatedError += estimatedPosition.distanceTo(position) / TIMES;
+            avgIncrementalEstimatedError += incrementalEstimatedPosition.distanceTo(position) / TIMES;
+            avgDifference += incrementalEstimatedPosition.distanceTo(estimatedPosition) / TIMES;
+        }
+
+        LOGGER.log(Level.INFO, "Avg. Estimated position error: {0} m", avgEstimatedError);
+        LOGGER.log(Level.INFO, "Avg. Estimated position error with incremental normal equations: {0} m",
+                avgIncrementalEstimatedError);
+        LOGGER.log(Level.INFO, "Avg. difference between estimated positions: {0} m", avgDifference);
+
+        assertEquals(avgEstimatedError, avgIncrementalEstimatedError, LARGE_ABSOLUTE_ERROR);
+    }
+
     @Override
     public void onEstimateStart(final FingerprintPositionEstimator<Point2D> estimator) {
         estimateStart++;
@@ -2483,6 +2686,7 @@ class LinearFingerprintPositionEstimator2DTest implements FingerprintPositionEst
         assertThrows(LockedException.class, () -> estimator.setUseSourcesPathLossExponentWhenAvailable(false));
         assertThrows(LockedException.class, () -> estimator.setUseNoMeanNearestFingerprintFinder(false));
         assertThrows(LockedException.class, () -> estimator.setMeansFromFingerprintReadingsRemoved(false));
+        assertThrows(LockedException.class, () -> estimator.setIncrementalNormalEquationsEnabled(true));
         assertThrows(LockedException.class, estimator::estimate);
     }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.fingerprint;
+
+import com.irurueta.algebra.Matrix;
+import com.irurueta.algebra.WrongSizeException;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.RssiFingerprintLocated;
+import com.irurueta.navigation.indoor.RssiReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonLinearFingerprintPositionCandidateTest {
+
+    private static final double ABSOLUTE_ERROR = 1e-12;
+
+    @Test
+    void testSuccessfulCandidate() throws WrongSizeException {
+        final var nearestFingerprints =
+                new ArrayList<RssiFingerprintLocated<RadioSource, RssiReading<RadioSource>, Point2D>>();
+        final var coordinates = new double[]{1.0, 2.0};
+        final var covariance = Matrix.diagonal(new double[]{0.5, 1.5});
+
+        final var candidate = new NonLinearFingerprintPositionCandidate<Point2D>(3, nearestFingerprints, 7,
+                coordinates, covariance, 10.0);
+
+        // check
+        assertEquals(3, candidate.getK());
+        assertSame(nearestFingerprints, candidate.getNearestFingerprints());
+        assertEquals(7, candidate.getNumberOfReadings());
+        assertTrue(candidate.isSuccessful());
+        assertSame(coordinates, candidate.getEstimatedPositionCoordinates());
+        assertSame(covariance, candidate.getCovariance());
+        assertEquals(10.0, candidate.getChiSq(), 0.0);
+        assertEquals(2.0, candidate.getReducedChiSq(), ABSOLUTE_ERROR);
+        assertEquals(2.0, candidate.getCovarianceTrace(), ABSOLUTE_ERROR);
+        assertEquals(2.0, candidate.getScore(CandidateSelectionCriterion.REDUCED_CHI_SQUARE), ABSOLUTE_ERROR);
+        assertEquals(2.0, candidate.getScore(CandidateSelectionCriterion.COVARIANCE_TRACE), ABSOLUTE_ERROR);
+
+        // without degrees of freedom reduced chi square is infinite
+        final var candidate2 = new NonLinearFingerprintPositionCandidate<Point2D>(1, nearestFingerprints, 2,
+                coordinates, covariance, 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, candidate2.getReducedChiSq(), 0.0);
+    }
+
+    @Test
+    void testFailedCandidate() {
+        final var candidate = new NonLinearFingerprintPositionCandidate<Point2D>(2, null);
+
+        // check
+        assertEquals(2, candidate.getK());
+        assertNull(candidate.getNearestFingerprints());
+        assertEquals(0, candidate.getNumberOfReadings());
+        assertFalse(candidate.isSuccessful());
+        assertNull(candidate.getEstimatedPositionCoordinates());
+        assertNull(candidate.getCovariance());
+        assertTrue(Double.isNaN(candidate.getChiSq()));
+        assertTrue(Double.isNaN(candidate.getReducedChiSq()));
+        assertTrue(Double.isNaN(candidate.getCovarianceTrace()));
+        assertEquals(Double.POSITIVE_INFINITY, candidate.getScore(CandidateSelectionCriterion.REDUCED_CHI_SQUARE),
+                0.0);
+        assertEquals(Double.POSITIVE_INFINITY, candidate.getScore(CandidateSelectionCriterion.COVARIANCE_TRACE),
+                0.0);
+    }
+}
@@ -22,8 +22,12 @@ import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.*;
 import com.irurueta.statistics.UniformRandomizer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -51,6 +55,8 @@ class NonLinearFingerprintPositionEstimator2DTest implements FingerprintPosition
 
     private static final int TIMES = 100;
 
+    private static final double ABSOLUTE_ERROR = 1e-6;
+
     @Test
     void testCreate() {
         // test create empty
@@ -529,6 +535,523 @@ class NonLinearFingerprintPositionEstimator2DTest implements FingerprintPosition
         assertTrue(avgPositionErrorFirstOrder >= avgPositionErrorThirdOrder);
     }
 
+    @Test
+    void testEvaluateTaylorExpansion() {
+        final var randomizer = new UniformRandomizer();
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator2D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            final var point = new double[6];
+            final var params = new double[2];
+            final var derivatives = new double[2];
+            final var derivatives2 = new double[2];
+            final var coefficients = new double[2 * numCoefficients];
+            for (var t = 0; t < TIMES; t++) {
+                point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                for (var j = 1; j < 5; j++) {
+                    point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+                }
+                point[5] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+
+                // unknown position close to fingerprint where expansion is accurate
+                for (var j = 0; j < 2; j++) {
+                    params[j] = point[1 + j] + randomizer.nextDouble(-1.0, 1.0);
+                }
+
+                // precomputed coefficients must provide same result as direct evaluation
+                final var expected = estimator.evaluate(0, point, params, derivatives);
+
+                estimator.computeTaylorCoefficients(point, coefficients, numCoefficients);
+                final var result = estimator.evaluateTaylorExpansion(point, params, coefficients, numCoefficients,
+                        derivatives2);
+
+                assertEquals(expected, result, 0.0);
+                assertArrayEquals(derivatives, derivatives2, 0.0);
+
+                // check derivatives numerically
+                for (var j = 0; j < 2; j++) {
+                    final var h = 1e-5;
+                    final var value = params[j];
+                    params[j] = value + h;
+                    final var forward = estimator.evaluate(0, point, params, derivatives2);
+                    params[j] = value - h;
+                    final var backward = estimator.evaluate(0, point, params, derivatives2);
+                    params[j] = value;
+
+                    final var numericalDerivative = (forward - backward) / (2.0 * h);
+                    assertEquals(numericalDerivative, derivatives[j],
+                            ABSOLUTE_ERROR * Math.max(1.0, Math.abs(numericalDerivative)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEvaluateTaylorExpansionWithCachedCoefficients() {
+        final var randomizer = new UniformRandomizer();
+        final var numReadings = MAX_FINGERPRINTS;
+
+        final var points = new double[numReadings][6];
+        for (final var point : points) {
+            point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            for (var j = 1; j < 5; j++) {
+                point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+            }
+            point[5] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+        }
+        final var params = new double[2];
+        final var derivatives1 = new double[2];
+        final var derivatives2 = new double[2];
+
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator2D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            final var coefficients = new double[numReadings * numCoefficients];
+            for (var i = 0; i < numReadings; i++) {
+                estimator.computeTaylorCoefficients(points[i], coefficients, i * numCoefficients);
+            }
+
+            for (var i = 0; i < numReadings; i++) {
+                randomizer.fill(params, MIN_POS, MAX_POS);
+
+                // evaluation using cached coefficients is equal to evaluation computing
+                // coefficients on each call
+                final var expected = estimator.evaluate(i, points[i], params, derivatives1);
+                final var value = estimator.evaluateTaylorExpansion(points[i], params, coefficients,
+                        i * numCoefficients, derivatives2);
+
+                assertEquals(expected, value, ABSOLUTE_ERROR * Math.max(1.0, Math.abs(expected)));
+                for (var j = 0; j < 2; j++) {
+                    assertEquals(derivatives1[j], derivatives2[j],
+                            ABSOLUTE_ERROR * Math.max(1.0, Math.abs(derivatives1[j])));
+                }
+            }
+        }
+    }
+
+    // benchmark excluded from normal runs, enabled with -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void testEvaluateTaylorExpansionPerformance() {
+        final var randomizer = new UniformRandomizer();
+        final var numReadings = MAX_FINGERPRINTS;
+        final var iterations = 100;
+
+        final var points = new double[numReadings][6];
+        for (final var point : points) {
+            point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            for (var j = 1; j < 5; j++) {
+                point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+            }
+            point[5] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+        }
+        final var params = new double[2];
+        final var derivatives = new double[2];
+
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator2D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            // evaluation computing coefficients on each call
+            var sum1 = 0.0;
+            final var start1 = System.nanoTime();
+            for (var k = 0; k < iterations; k++) {
+                for (var i = 0; i < numReadings; i++) {
+                    sum1 += estimator.evaluate(i, points[i], params, derivatives);
+                }
+            }
+            final var elapsed1 = System.nanoTime() - start1;
+
+            // evaluation using precomputed coefficients
+            final var coefficients = new double[numReadings * numCoefficients];
+            var sum2 = 0.0;
+            final var start2 = System.nanoTime();
+            for (var i = 0; i < numReadings; i++) {
+                estimator.computeTaylorCoefficients(points[i], coefficients, i * numCoefficients);
+            }
+            for (var k = 0; k < iterations; k++) {
+                for (var i = 0; i < numReadings; i++) {
+                    sum2 += estimator.evaluateTaylorExpansion(points[i], params, coefficients,
+                            i * numCoefficients, derivatives);
+                }
+            }
+            final var elapsed2 = System.nanoTime() - start2;
+
+            LOGGER.log(Level.INFO, "{0} evaluation: {1} ns, with precomputed coefficients: {2} ns",
+                    new Object[]{type, elapsed1, elapsed2});
+
+            assertEquals(sum1, sum2, ABSOLUTE_ERROR * Math.max(1.0, Math.abs(sum1)));
+        }
+    }
+
+    @Test
+    void testGetSetSearchStrategy() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertEquals(NonLinearFingerprintPositionEstimator.DEFAULT_SEARCH_STRATEGY, estimator.getSearchStrategy());
+        assertEquals(NearestFingerprintsSearchStrategy.FIRST_SUCCESSFUL, estimator.getSearchStrategy());
+
+        // set new value
+        estimator.setSearchStrategy(NearestFingerprintsSearchStrategy.BEST_CANDIDATE);
+
+        // check
+        assertEquals(NearestFingerprintsSearchStrategy.BEST_CANDIDATE, estimator.getSearchStrategy());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setSearchStrategy(null));
+    }
+
+    @Test
+    void testGetSetCandidateSelectionCriterion() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertEquals(NonLinearFingerprintPositionEstimator.DEFAULT_CANDIDATE_SELECTION_CRITERION,
+                estimator.getCandidateSelectionCriterion());
+        assertEquals(CandidateSelectionCriterion.REDUCED_CHI_SQUARE, estimator.getCandidateSelectionCriterion());
+
+        // set new value
+        estimator.setCandidateSelectionCriterion(CandidateSelectionCriterion.COVARIANCE_TRACE);
+
+        // check
+        assertEquals(CandidateSelectionCriterion.COVARIANCE_TRACE, estimator.getCandidateSelectionCriterion());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setCandidateSelectionCriterion(null));
+    }
+
+    @Test
+    void testGetSetCandidateNearestFingerprints() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertNull(estimator.getCandidateNearestFingerprints());
+
+        // set new value
+        final var ks = new int[]{1, 2, 4};
+        estimator.setCandidateNearestFingerprints(ks);
+
+        // check
+        assertArrayEquals(ks, estimator.getCandidateNearestFingerprints());
+        assertNotSame(ks, estimator.getCandidateNearestFingerprints());
+
+        // modifying provided or returned arrays does not change internal values
+        ks[0] = 3;
+        estimator.getCandidateNearestFingerprints()[1] = 5;
+        assertArrayEquals(new int[]{1, 2, 4}, estimator.getCandidateNearestFingerprints());
+
+        // set null value
+        estimator.setCandidateNearestFingerprints(null);
+
+        // check
+        assertNull(estimator.getCandidateNearestFingerprints());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setCandidateNearestFingerprints(new int[0]));
+        assertThrows(IllegalArgumentException.class,
+                () -> estimator.setCandidateNearestFingerprints(new int[]{1, 0}));
+    }
+
+    @Test
+    void testGetSetExecutor() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertNull(estimator.getExecutor());
+
+        // set new value
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            estimator.setExecutor(executor);
+
+            // check
+            assertSame(executor, estimator.getExecutor());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testIsSetCovarianceEstimationEnabled() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertTrue(estimator.isCovarianceEstimationEnabled());
+
+        // set new value
+        estimator.setCovarianceEstimationEnabled(false);
+
+        // check
+        assertFalse(estimator.isCovarianceEstimationEnabled());
+    }
+
+    @Test
+    void testGetSetCache() throws LockedException {
+        final var estimator = NonLinearFingerprintPositionEstimator2D.create();
+
+        // check default value
+        assertNull(estimator.getCache());
+
+        // set new value
+        final var cache = new PositionEstimationCache<Point2D>();
+        estimator.setCache(cache);
+
+        // check
+        assertSame(cache, estimator.getCache());
+    }
+
+    @Test
+    void testEstimateWithCache() throws LockedException, NotReadyException {
+        var numValid = 0;
+        for (var t = 0; t < TIMES; t++) {
+            final var randomizer = new UniformRandomizer();
+
+            // build sources
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+            final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+            for (var i = 0; i < numSources; i++) {
+                final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                final var position = new InhomogeneousPoint2D(x, y);
+
+                final var accessPoint = new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY,
+                        transmittedPowerdBm, position);
+                sources.add(accessPoint);
+            }
+
+            // build located fingerprints
+            final var numFingerprints = randomizer.nextInt(MIN_FINGERPRINTS, MAX_FINGERPRINTS);
+            final var locatedFingerprints =
+                    new ArrayList<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>();
+            for (var j = 0; j < numFingerprints; j++) {
+                final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var position = new InhomogeneousPoint2D(x, y);
+                locatedFingerprints.add(new RssiFingerprintLocated2D<>(createReadings(sources, position),
+                        position));
+            }
+
+            // build two consecutive scans of a stationary device, listing readings in different order
+            final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+            final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+            final var position = new InhomogeneousPoint2D(x, y);
+            final var readings = createReadings(sources, position);
+            final var fingerprint = new RssiFingerprint<>(readings);
+            final var nextReadings = new ArrayList<>(readings);
+            Collections.reverse(nextReadings);
+            final var nextFingerprint = new RssiFingerprint<>(nextReadings);
+
+            final var cache = new PositionEstimationCache<Point2D>();
+            final var estimator = NonLinearFingerprintPositionEstimator2D.create(locatedFingerprints,
+                    fingerprint, sources, this);
+            estimator.setCache(cache);
+
+            try {
+                estimator.estimate();
+            } catch (final FingerprintEstimationException e) {
+                continue;
+            }
+
+            // check that estimation is cached
+            assertEquals(0, cache.getHits());
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.size());
+            assertNotNull(estimator.getNearestFingerprints());
+            final var estimatedPosition = estimator.getEstimatedPosition();
+            final var covariance = estimator.getCovariance();
+
+            // next scan reuses estimation
+            estimator.setFingerprint(nextFingerprint);
+            try {
+                estimator.estimate();
+            } catch (final FingerprintEstimationException e) {
+                fail();
+            }
+
+            // check
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getMisses());
+            assertNull(estimator.getNearestFingerprints());
+            assertTrue(estimator.getCandidates().isEmpty());
+            assertTrue(estimatedPosition.equals(estimator.getEstimatedPosition(), 0.0));
+            assertEquals(covariance, estimator.getCovariance());
+            assertNotSame(covariance, estimator.getCovariance());
+            assertEquals(Double.NaN, estimator.getChiSq(), 0.0);
+
+            // reused estimation has no covariance when covariance estimation is disabled
+            estimator.setCovarianceEstimationEnabled(false);
+            try {
+                estimator.estimate();
+            } catch (final FingerprintEstimationException e) {
+                fail();
+            }
+            assertEquals(2, cache.getHits());
+            assertNull(estimator.getCovariance());
+
+            numValid++;
+            break;
+        }
+
+        assertTrue(numValid > 0);
+    }
+
+    @Test
+    void testEstimateBestCandidate() throws LockedException, NotReadyException, FingerprintEstimationException {
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            var numValid = 0;
+            for (var t = 0; t < TIMES; t++) {
+                final var randomizer = new UniformRandomizer();
+
+                // build sources
+                final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+                final var sources = new ArrayList<RadioSourceLocated<Point2D>>();
+                for (var i = 0; i < numSources; i++) {
+                    final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                    final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                    final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                    final var position = new InhomogeneousPoint2D(x, y);
+
+                    final var accessPoint = new WifiAccessPointWithPowerAndLocated2D("bssid" + i, FREQUENCY,
+                            transmittedPowerdBm, position);
+                    sources.add(accessPoint);
+                }
+
+                // build located fingerprints
+                final var numFingerprints = randomizer.nextInt(MIN_FINGERPRINTS, MAX_FINGERPRINTS);
+                final var locatedFingerprints =
+                        new ArrayList<RssiFingerprintLocated2D<RadioSource, RssiReading<RadioSource>>>();
+                for (var j = 0; j < numFingerprints; j++) {
+                    final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                    final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                    final var position = new InhomogeneousPoint2D(x, y);
+
+                    final var readings = new ArrayList<RssiReading<RadioSource>>();
+                    for (final var source : sources) {
+                        final var distance = source.getPosition().distanceTo(position);
+                        final var transmittedPowerdBm = ((WifiAccessPointWithPowerAndLocated2D) source)
+                                .getTransmittedPower();
+
+                        final var receivedRssi = Utils.powerTodBm(receivedPower(
+                                Utils.dBmToPower(transmittedPowerdBm), distance));
+                        final var reading = new RssiReading<>((RadioSource) source, receivedRssi);
+                        readings.add(reading);
+                    }
+
+                    final var locatedFingerprint = new RssiFingerprintLocated2D<>(readings, position);
+                    locatedFingerprints.add(locatedFingerprint);
+                }
+
+                // build non-located fingerprint
+                final var x = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var y = randomizer.nextDouble(MIN_POS, MAX_POS);
+                final var position = new InhomogeneousPoint2D(x, y);
+
+                final var readings = new ArrayList<RssiReading<RadioSource>>();
+                for (final var source : sources) {
+                    final var distance = source.getPosition().distanceTo(position);
+                    final var transmittedPowerdBm = ((WifiAccessPointWithPowerAndLocated2D) source)
+                            .getTransmittedPower();
+
+                    final var receivedRssi = Utils.powerTodBm(receivedPower(Utils.dBmToPower(transmittedPowerdBm),
+                            distance));
+                    final var reading = new RssiReading<>((RadioSource) source, receivedRssi);
+                    readings.add(reading);
+                }
+
+                final var fingerprint = new RssiFingerprint<>(readings);
+
+                final var estimator = NonLinearFingerprintPositionEstimator2D.create(locatedFingerprints,
+                        fingerprint, sources, this);
+                estimator.setSearchStrategy(NearestFingerprintsSearchStrategy.BEST_CANDIDATE);
+                final var ks = new int[]{1, 2, 3, 5, 8};
+                estimator.setCandidateNearestFingerprints(ks);
+
+                // estimate on calling thread
+                estimator.estimate();
+
+                final var candidates = estimator.getCandidates();
+                assertEquals(ks.length, candidates.size());
+
+                NonLinearFingerprintPositionCandidate<Point2D> best = null;
+                for (var i = 0; i < ks.length; i++) {
+                    final var candidate = candidates.get(i);
+                    assertEquals(ks[i], candidate.getK());
+                    assertTrue(candidate.getNearestFingerprints().size() <= ks[i]);
+                    if (candidate.isSuccessful() && (best == null || candidate.getScore(
+                            CandidateSelectionCriterion.REDUCED_CHI_SQUARE) < best.getScore(
+                            CandidateSelectionCriterion.REDUCED_CHI_SQUARE))) {
+                        best = candidate;
+                    }
+                }
+                assertNotNull(best);
+                assertSame(best.getEstimatedPositionCoordinates(), estimator.getEstimatedPositionCoordinates());
+                assertSame(best.getCovariance(), estimator.getCovariance());
+                assertEquals(best.getChiSq(), estimator.getChiSq(), 0.0);
+                assertSame(best.getNearestFingerprints(), estimator.getNearestFingerprints());
+
+                final var estimatedPosition = estimator.getEstimatedPosition();
+
+                // estimate concurrently
+                estimator.setExecutor(executor);
+                estimator.estimate();
+
+                assertEquals(ks.length, estimator.getCandidates().size());
+                final var estimatedPosition2 = estimator.getEstimatedPosition();
+                assertTrue(estimatedPosition.equals(estimatedPosition2, ABSOLUTE_ERROR));
+
+                // estimate using covariance trace criterion
+                estimator.setCandidateSelectionCriterion(CandidateSelectionCriterion.COVARIANCE_TRACE);
+                estimator.estimate();
+
+                NonLinearFingerprintPositionCandidate<Point2D> selected = null;
+                for (final var candidate : estimator.getCandidates()) {
+                    if (candidate.getEstimatedPositionCoordinates() == estimator.getEstimatedPositionCoordinates()) {
+                        selected = candidate;
+                    }
+                }
+                assertNotNull(selected);
+                for (final var candidate : estimator.getCandidates()) {
+                    if (candidate.isSuccessful()) {
+                        assertTrue(selected.getCovarianceTrace() <= candidate.getCovarianceTrace());
+                    }
+                }
+
+                // covariance is still computed for candidates when required to select them, but
+                // it is not kept for estimated position
+                estimator.setCovarianceEstimationEnabled(false);
+                estimator.estimate();
+
+                assertNull(estimator.getCovariance());
+                for (final var candidate : estimator.getCandidates()) {
+                    if (candidate.isSuccessful()) {
+                        assertNotNull(candidate.getCovariance());
+                    }
+                }
+
+                // estimate only position
+                estimator.setCandidateSelectionCriterion(CandidateSelectionCriterion.REDUCED_CHI_SQUARE);
+                estimator.estimate();
+
+                assertNull(estimator.getCovariance());
+                for (final var candidate : estimator.getCandidates()) {
+                    assertNull(candidate.getCovariance());
+                }
+                assertTrue(estimatedPosition.equals(estimator.getEstimatedPosition(), ABSOLUTE_ERROR));
+
+                numValid++;
+            }
+
+            assertEquals(TIMES, numValid);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Override
     public void onEstimateStart(final FingerprintPositionEstimator<Point2D> estimator) {
         checkLocked((NonLinearFingerprintPositionEstimator2D) estimator);
@@ -550,6 +1073,20 @@ class NonLinearFingerprintPositionEstimator2DTest implements FingerprintPosition
                 Math.pow(distance, BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT);
     }
 
+    private static ArrayList<RssiReading<RadioSource>> createReadings(
+            final List<RadioSourceLocated<Point2D>> sources, final Point2D position) {
+        final var readings = new ArrayList<RssiReading<RadioSource>>();
+        for (final var source : sources) {
+            final var distance = source.getPosition().distanceTo(position);
+            final var transmittedPowerdBm = ((WifiAccessPointWithPowerAndLocated2D) source).getTransmittedPower();
+
+            final var receivedRssi = Utils.powerTodBm(receivedPower(Utils.dBmToPower(transmittedPowerdBm),
+                    distance));
+            readings.add(new RssiReading<>((RadioSource) source, receivedRssi));
+        }
+        return readings;
+    }
+
     private void checkLocked(final NonLinearFingerprintPositionEstimator2D estimator) {
         assertThrows(LockedException.class, () -> estimator.setLocatedFingerprints(null));
         assertThrows(LockedException.class, () -> estimator.setFingerprint(null));
@@ -562,6 +1099,14 @@ class NonLinearFingerprintPositionEstimator2DTest implements FingerprintPosition
         assertThrows(LockedException.class, () -> estimator.setMeansFromFingerprintReadingsRemoved(false));
         assertThrows(LockedException.class, () -> estimator.setInitialPosition(null));
         assertThrows(LockedException.class, () -> estimator.setFallbackRssiStandardDeviation(1.0));
+        assertThrows(LockedException.class, () -> estimator.setSearchStrategy(
+                NearestFingerprintsSearchStrategy.BEST_CANDIDATE));
+        assertThrows(LockedException.class, () -> estimator.setCandidateSelectionCriterion(
+                CandidateSelectionCriterion.COVARIANCE_TRACE));
+        assertThrows(LockedException.class, () -> estimator.setCandidateNearestFingerprints(null));
+        assertThrows(LockedException.class, () -> estimator.setExecutor(null));
+        assertThrows(LockedException.class, () -> estimator.setCovarianceEstimationEnabled(false));
+        assertThrows(LockedException.class, () -> estimator.setCache(null));
         assertThrows(LockedException.class, estimator::estimate);
     }
 }
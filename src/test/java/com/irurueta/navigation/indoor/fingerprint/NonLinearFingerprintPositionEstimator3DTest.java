@@ -22,6 +22,7 @@ import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.*;
 import com.irurueta.statistics.UniformRandomizer;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 import java.util.ArrayList;
 import java.util.logging.Level;
@@ -51,6 +52,8 @@ class NonLinearFingerprintPositionEstimator3DTest implements FingerprintPosition
 
     private static final int TIMES = 100;
 
+    private static final double ABSOLUTE_ERROR = 1e-6;
+
     @Test
     void testCreate() {
         // test create empty
@@ -531,6 +534,157 @@ class NonLinearFingerprintPositionEstimator3DTest implements FingerprintPosition
         assertTrue(avgPositionErrorFirstOrder >= avgPositionErrorThirdOrder);
     }
 
+    @Test
+    void testEvaluateTaylorExpansion() {
+        final var randomizer = new UniformRandomizer();
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator3D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            final var point = new double[8];
+            final var params = new double[3];
+            final var derivatives = new double[3];
+            final var derivatives2 = new double[3];
+            final var coefficients = new double[2 * numCoefficients];
+            for (var t = 0; t < TIMES; t++) {
+                point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                for (var j = 1; j < 7; j++) {
+                    point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+                }
+                point[7] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+
+                // unknown position close to fingerprint where expansion is accurate
+                for (var j = 0; j < 3; j++) {
+                    params[j] = point[1 + j] + randomizer.nextDouble(-1.0, 1.0);
+                }
+
+                // precomputed coefficients must provide same result as direct evaluation
+                final var expected = estimator.evaluate(0, point, params, derivatives);
+
+                estimator.computeTaylorCoefficients(point, coefficients, numCoefficients);
+                final var result = estimator.evaluateTaylorExpansion(point, params, coefficients, numCoefficients,
+                        derivatives2);
+
+                assertEquals(expected, result, 0.0);
+                assertArrayEquals(derivatives, derivatives2, 0.0);
+
+                // check derivatives numerically
+                for (var j = 0; j < 3; j++) {
+                    final var h = 1e-5;
+                    final var value = params[j];
+                    params[j] = value + h;
+                    final var forward = estimator.evaluate(0, point, params, derivatives2);
+                    params[j] = value - h;
+                    final var backward = estimator.evaluate(0, point, params, derivatives2);
+                    params[j] = value;
+
+                    final var numericalDerivative = (forward - backward) / (2.0 * h);
+                    assertEquals(numericalDerivative, derivatives[j],
+                            ABSOLUTE_ERROR * Math.max(1.0, Math.abs(numericalDerivative)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testEvaluateTaylorExpansionWithCachedCoefficients() {
+        final var randomizer = new UniformRandomizer();
+        final var numReadings = MAX_FINGERPRINTS;
+
+        final var points = new double[numReadings][8];
+        for (final var point : points) {
+            point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            for (var j = 1; j < 7; j++) {
+                point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+            }
+            point[7] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+        }
+        final var params = new double[3];
+        final var derivatives1 = new double[3];
+        final var derivatives2 = new double[3];
+
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator3D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            final var coefficients = new double[numReadings * numCoefficients];
+            for (var i = 0; i < numReadings; i++) {
+                estimator.computeTaylorCoefficients(points[i], coefficients, i * numCoefficients);
+            }
+
+            for (var i = 0; i < numReadings; i++) {
+                randomizer.fill(params, MIN_POS, MAX_POS);
+
+                // evaluation using cached coefficients is equal to evaluation computing
+                // coefficients on each call
+                final var expected = estimator.evaluate(i, points[i], params, derivatives1);
+                final var value = estimator.evaluateTaylorExpansion(points[i], params, coefficients,
+                        i * numCoefficients, derivatives2);
+
+                assertEquals(expected, value, ABSOLUTE_ERROR * Math.max(1.0, Math.abs(expected)));
+                for (var j = 0; j < 3; j++) {
+                    assertEquals(derivatives1[j], derivatives2[j],
+                            ABSOLUTE_ERROR * Math.max(1.0, Math.abs(derivatives1[j])));
+                }
+            }
+        }
+    }
+
+    // benchmark excluded from normal runs, enabled with -Dbenchmark=true
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void testEvaluateTaylorExpansionPerformance() {
+        final var randomizer = new UniformRandomizer();
+        final var numReadings = MAX_FINGERPRINTS;
+        final var iterations = 100;
+
+        final var points = new double[numReadings][8];
+        for (final var point : points) {
+            point[0] = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            for (var j = 1; j < 7; j++) {
+                point[j] = randomizer.nextDouble(MIN_POS, MAX_POS);
+            }
+            point[7] = BaseFingerprintPositionEstimator.DEFAULT_PATH_LOSS_EXPONENT;
+        }
+        final var params = new double[3];
+        final var derivatives = new double[3];
+
+        for (final var type : NonLinearFingerprintPositionEstimatorType.values()) {
+            final var estimator = NonLinearFingerprintPositionEstimator3D.create(type);
+            final var numCoefficients = estimator.getNumberOfTaylorCoefficients();
+
+            // evaluation computing coefficients on each call
+            var sum1 = 0.0;
+            final var start1 = System.nanoTime();
+            for (var k = 0; k < iterations; k++) {
+                for (var i = 0; i < numReadings; i++) {
+                    sum1 += estimator.evaluate(i, points[i], params, derivatives);
+                }
+            }
+            final var elapsed1 = System.nanoTime() - start1;
+
+            // evaluation using precomputed coefficients
+            final var coefficients = new double[numReadings * numCoefficients];
+            var sum2 = 0.0;
+            final var start2 = System.nanoTime();
+            for (var i = 0; i < numReadings; i++) {
+                estimator.computeTaylorCoefficients(points[i], coefficients, i * numCoefficients);
+            }
+            for (var k = 0; k < iterations; k++) {
+                for (var i = 0; i < numReadings; i++) {
+                    sum2 += estimator.evaluateTaylorExpansion(points[i], params, coefficients,
+                            i * numCoefficients, derivatives);
+                }
+            }
+            final var elapsed2 = System.nanoTime() - start2;
+
+            LOGGER.log(Level.INFO, "{0} evaluation: {1} ns, with precomputed coefficients: {2} ns",
+                    new Object[]{type, elapsed1, elapsed2});
+
+            assertEquals(sum1, sum2, ABSOLUTE_ERROR * Math.max(1.0, Math.abs(sum1)));
+        }
+    }
+
     @Override
     public void onEstimateStart(final FingerprintPositionEstimator<Point3D> estimator) {
         checkLocked((NonLinearFingerprintPositionEstimator3D) estimator);
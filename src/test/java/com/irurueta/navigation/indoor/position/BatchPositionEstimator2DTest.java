@@ -0,0 +1,366 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.RangingAndRssiReading;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.Utils;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.WifiAccessPoint;
+import com.irurueta.navigation.indoor.WifiAccessPointWithPowerAndLocated2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPositionEstimator2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int MIN_SOURCES = 10;
+    private static final int MAX_SOURCES = 20;
+
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+
+    private static final double MIN_RSSI = -100;
+    private static final double MAX_RSSI = -50;
+
+    private static final double MIN_PATH_LOSS_EXPONENT = 1.6;
+    private static final double MAX_PATH_LOSS_EXPONENT = 2.0;
+
+    private static final double SPEED_OF_LIGHT = 299792458.0;
+
+    private static final double RANGING_STD = 1.0;
+    private static final double RX_POWER_VARIANCE = 0.5;
+
+    private static final int NUM_FINGERPRINTS = 50;
+
+    private static final int CHUNK_SIZE = 7;
+
+    private static final double LARGE_ABSOLUTE_ERROR = 1e-1;
+
+    @Test
+    void testConstructor() {
+        final var model = new VenueModel<Point2D>(Collections.emptyList());
+        final var config = RobustPositionEstimatorConfig.DEFAULT;
+
+        // test constructor with model and configuration
+        var estimator = new BatchPositionEstimator2D(model, config);
+
+        // check default values
+        assertSame(model, estimator.getVenueModel());
+        assertSame(config, estimator.getConfig());
+        assertSame(ForkJoinPool.commonPool(), estimator.getExecutor());
+        assertEquals(BatchPositionEstimator.DEFAULT_CHUNK_SIZE, estimator.getChunkSize());
+        assertEquals(Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH, estimator.getNumberOfDimensions());
+
+        // test constructor with executor
+        final var executor = Executors.newSingleThreadExecutor();
+        try {
+            estimator = new BatchPositionEstimator2D(model, config, executor);
+
+            // check default values
+            assertSame(executor, estimator.getExecutor());
+        } finally {
+            executor.shutdown();
+        }
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new BatchPositionEstimator2D(null, config));
+        assertThrows(IllegalArgumentException.class, () -> new BatchPositionEstimator2D(model, null));
+        assertThrows(IllegalArgumentException.class, () -> new BatchPositionEstimator2D(model, config, null));
+    }
+
+    @Test
+    void testGetSetChunkSize() {
+        final var estimator = new BatchPositionEstimator2D(new VenueModel<>(Collections.emptyList()),
+                RobustPositionEstimatorConfig.DEFAULT);
+
+        // set new value
+        estimator.setChunkSize(CHUNK_SIZE);
+
+        // check
+        assertEquals(CHUNK_SIZE, estimator.getChunkSize());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setChunkSize(0));
+    }
+
+    @Test
+    void testEstimate() {
+        final var randomizer = new UniformRandomizer();
+        final var data = new TestData(randomizer);
+
+        final var positions = new ArrayList<InhomogeneousPoint2D>();
+        final var fingerprints = new ArrayList<Fingerprint<? extends RadioSource,
+                ? extends Reading<? extends RadioSource>>>();
+        for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            positions.add(position);
+            fingerprints.add(data.createFingerprint(position));
+        }
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var estimator = new BatchPositionEstimator2D(new VenueModel<>(data.sources),
+                    RobustPositionEstimatorConfig.DEFAULT, executor);
+            estimator.setChunkSize(CHUNK_SIZE);
+
+            final var result = estimator.estimate(fingerprints);
+
+            // check
+            assertEquals(NUM_FINGERPRINTS, result.size());
+            assertEquals(NUM_FINGERPRINTS, result.getNumberOfSucceeded());
+            assertEquals(0, result.getNumberOfFailed());
+            assertEquals(NUM_FINGERPRINTS * 2, result.getPositionCoordinates().length);
+            assertEquals(NUM_FINGERPRINTS * 4, result.getCovariances().length);
+            for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+                assertTrue(result.isSucceeded(i));
+                assertNull(result.getError(i));
+                assertTrue(positions.get(i).equals(result.getPosition(i), LARGE_ABSOLUTE_ERROR));
+                assertEquals(positions.get(i).getInhomX(), result.getPositionCoordinates()[2 * i],
+                        LARGE_ABSOLUTE_ERROR);
+                assertNotNull(result.getCovariance(i));
+                assertTrue(result.getNumberOfInliers()[i] > 0);
+                assertNotNull(result.getInliers(i));
+            }
+
+            // estimate using an iterator
+            final var result2 = estimator.estimate(fingerprints.iterator());
+            assertEquals(NUM_FINGERPRINTS, result2.getNumberOfSucceeded());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testEstimateMatchesSequentialEstimation() throws Exception {
+        final var randomizer = new UniformRandomizer();
+        final var data = new TestData(randomizer);
+
+        final var fingerprints = new ArrayList<Fingerprint<? extends RadioSource,
+                ? extends Reading<? extends RadioSource>>>();
+        for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+            fingerprints.add(data.createFingerprint(new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS))));
+        }
+
+        final var model = new VenueModel<Point2D>(data.sources);
+        final var config = RobustPositionEstimatorConfig.DEFAULT;
+        final var sourceQualityScores = Collections.synchronizedList(new ArrayList<double[]>());
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var estimator = new BatchPositionEstimator2D(model, config, executor) {
+                @Override
+                protected RobustMixedPositionEstimator<Point2D> createEstimator(
+                        final RobustPositionEstimatorConfig config) {
+                    final var result = new PROMedSRobustMixedPositionEstimator2D() {
+                        @Override
+                        public void setSourceQualityScores(final double[] sourceQualityScores2)
+                                throws LockedException {
+                            sourceQualityScores.add(sourceQualityScores2);
+                            super.setSourceQualityScores(sourceQualityScores2);
+                        }
+                    };
+                    try {
+                        result.setConfig(config);
+                    } catch (final LockedException e) {
+                        fail();
+                    }
+                    return result;
+                }
+            };
+            estimator.setChunkSize(CHUNK_SIZE);
+
+            final var result = estimator.estimate(fingerprints);
+
+            // check that each estimation is given its own source quality scores
+            assertEquals(NUM_FINGERPRINTS, sourceQualityScores.size());
+            for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+                for (var j = i + 1; j < NUM_FINGERPRINTS; j++) {
+                    assertNotSame(sourceQualityScores.get(i), sourceQualityScores.get(j));
+                }
+            }
+
+            // check that fingerprints solved one at a time obtain the same positions
+            assertEquals(NUM_FINGERPRINTS, result.getNumberOfSucceeded());
+            for (var i = 0; i < NUM_FINGERPRINTS; i++) {
+                final var fingerprint = fingerprints.get(i);
+                final var sequentialEstimator = RobustMixedPositionEstimator2D.create(config);
+                sequentialEstimator.setVenueModel(model);
+                sequentialEstimator.setFingerprint(fingerprint);
+
+                final var sourceScores = new double[data.sources.size()];
+                Arrays.fill(sourceScores, 1.0);
+                final var readingsScores = new double[fingerprint.getReadings().size()];
+                Arrays.fill(readingsScores, 1.0);
+                sequentialEstimator.setSourceQualityScores(sourceScores);
+                sequentialEstimator.setFingerprintReadingsQualityScores(readingsScores);
+
+                final var position = sequentialEstimator.estimate();
+                assertTrue(position.equals(result.getPosition(i), LARGE_ABSOLUTE_ERROR));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testEstimateIsolatesFailures() {
+        final var randomizer = new UniformRandomizer();
+        final var data = new TestData(randomizer);
+
+        final var fingerprints = new ArrayList<Fingerprint<? extends RadioSource,
+                ? extends Reading<? extends RadioSource>>>();
+        fingerprints.add(null);
+        fingerprints.add(new Fingerprint<>(new ArrayList<Reading<WifiAccessPoint>>()));
+
+        final var estimator = new BatchPositionEstimator2D(new VenueModel<>(data.sources),
+                RobustPositionEstimatorConfig.DEFAULT);
+        estimator.setChunkSize(1);
+
+        final var result = estimator.estimate(fingerprints.iterator());
+
+        // check
+        assertEquals(2, result.size());
+        assertEquals(0, result.getNumberOfSucceeded());
+        assertEquals(2, result.getNumberOfFailed());
+        assertInstanceOf(IllegalArgumentException.class, result.getError(0));
+        assertInstanceOf(IllegalArgumentException.class, result.getError(1));
+        for (var i = 0; i < 2; i++) {
+            assertFalse(result.isSucceeded(i));
+            assertNull(result.getPosition(i));
+            assertNull(result.getCovariance(i));
+            assertNull(result.getInliers(i));
+            assertEquals(-1, result.getNumberOfInliers()[i]);
+            assertTrue(Double.isNaN(result.getPositionCoordinates()[2 * i]));
+        }
+
+        // empty batch
+        assertEquals(0, estimator.estimate(Collections.emptyList()).size());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.estimate(
+                (List<Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>>>) null));
+    }
+
+    @Test
+    void testEstimateIteratorSubmitsChunksAsRead() {
+        final var randomizer = new UniformRandomizer();
+        final var data = new TestData(randomizer);
+
+        // chunks are run on the calling thread as soon as they are submitted
+        final var executedChunks = new AtomicInteger();
+        final Executor executor = command -> {
+            executedChunks.incrementAndGet();
+            command.run();
+        };
+
+        final var estimator = new BatchPositionEstimator2D(new VenueModel<>(data.sources),
+                RobustPositionEstimatorConfig.DEFAULT, executor);
+        estimator.setChunkSize(CHUNK_SIZE);
+
+        final var iterator = new Iterator<Fingerprint<? extends RadioSource,
+                ? extends Reading<? extends RadioSource>>>() {
+
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < NUM_FINGERPRINTS;
+            }
+
+            @Override
+            public Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> next() {
+                // previous chunks have been submitted before reading next one
+                assertEquals(index / CHUNK_SIZE, executedChunks.get());
+                index++;
+                return data.createFingerprint(new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS)));
+            }
+        };
+
+        final var result = estimator.estimate(iterator);
+
+        // check
+        assertEquals(NUM_FINGERPRINTS, result.size());
+        assertEquals((NUM_FINGERPRINTS + CHUNK_SIZE - 1) / CHUNK_SIZE, executedChunks.get());
+        assertEquals(NUM_FINGERPRINTS, result.getNumberOfSucceeded() + result.getNumberOfFailed());
+    }
+
+    private static double receivedPower(final double equivalentTransmittedPower, final double distance,
+                                        final double pathLossExponent) {
+        // Pr = Pt*Gt*Gr*lambda^2/(4*pi*d)^2,    where Pr is the received power
+        // lambda = c/f, where lambda is wavelength,
+        // Pte = Pt*Gt*Gr, is the equivalent transmitted power, Gt is the transmitted Gain and Gr is the received Gain
+        // Pr = Pte*c^2/((4*pi*f)^2 * d^2)
+        final var k = Math.pow(SPEED_OF_LIGHT / (4.0 * Math.PI * FREQUENCY), pathLossExponent);
+        return equivalentTransmittedPower * k / Math.pow(distance, pathLossExponent);
+    }
+
+    private static class TestData {
+
+        private final List<WifiAccessPointWithPowerAndLocated2D> sources = new ArrayList<>();
+
+        private final double[] transmittedPowers;
+
+        private final double pathLossExponent;
+
+        TestData(final UniformRandomizer randomizer) {
+            pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+            transmittedPowers = new double[numSources];
+            for (var i = 0; i < numSources; i++) {
+                final var accessPointPosition = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                transmittedPowers[i] = Utils.dBmToPower(transmittedPowerdBm);
+                sources.add(new WifiAccessPointWithPowerAndLocated2D(String.valueOf(i), FREQUENCY,
+                        transmittedPowerdBm, pathLossExponent, accessPointPosition));
+            }
+        }
+
+        Fingerprint<WifiAccessPoint, Reading<WifiAccessPoint>> createFingerprint(final Point2D position) {
+            final var readings = new ArrayList<Reading<WifiAccessPoint>>();
+            for (var i = 0; i < sources.size(); i++) {
+                final var distance = position.distanceTo(sources.get(i).getPosition());
+                final var rssi = Utils.powerTodBm(receivedPower(transmittedPowers[i], distance,
+                        pathLossExponent));
+                readings.add(new RangingAndRssiReading<>(new WifiAccessPoint(String.valueOf(i), FREQUENCY),
+                        distance, rssi, RANGING_STD, Math.sqrt(RX_POWER_VARIANCE)));
+            }
+            return new Fingerprint<>(readings);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RangingAndRssiReading;
+import com.irurueta.navigation.indoor.RangingReading;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.RssiReading;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.WifiAccessPoint;
+import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalReadingSorterTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int MIN_SOURCES = 5;
+    private static final int MAX_SOURCES = 10;
+
+    private static final int MIN_READINGS = 20;
+    private static final int MAX_READINGS = 50;
+
+    private static final double MIN_DISTANCE = 1.0;
+    private static final double MAX_DISTANCE = 10.0;
+
+    private static final double MIN_RSSI = -100.0;
+    private static final double MAX_RSSI = -50.0;
+
+    private static final int TIMES = 50;
+
+    @Test
+    void testSortMatchesReadingSorter() {
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+
+            // check
+            assertEquals(data.sources.size(), sorter.getNumberOfSources());
+            assertEquals(data.readings.size(), sorter.getNumberOfReadings());
+
+            final var readingSorter = new ReadingSorter<>(data.sources, data.fingerprint,
+                    data.sourceQualityScores, data.readingsQualityScores);
+            readingSorter.sort();
+            final var expected = readingSorter.getSortedSourcesAndReadings();
+
+            for (var i = 0; i < expected.size(); i++) {
+                final var expectedSource = expected.get(i);
+                assertEquals(expectedSource.position, sorter.getSortedSource(i));
+
+                final var expectedReadings = expectedSource.readingsWithQualityScores;
+                assertEquals(expectedReadings.size(), sorter.getNumberOfReadings(expectedSource.position));
+                for (var j = 0; j < expectedReadings.size(); j++) {
+                    assertEquals(expectedReadings.get(j).position,
+                            sorter.getSortedReading(expectedSource.position, j));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDistribute() {
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+
+            final var sourceQualityScores = new double[data.sources.size()];
+            final var readingsQualityScores = new double[data.readings.size()];
+            sorter.distribute(sourceQualityScores, readingsQualityScores);
+
+            // check that readings are interleaved in round-robin among sorted sources
+            final var expectedSourceQualityScores = new double[data.sources.size()];
+            final var expectedReadingsQualityScores = new double[data.readings.size()];
+            final var readingSorter = new ReadingSorter<>(data.sources, data.fingerprint,
+                    data.sourceQualityScores, data.readingsQualityScores);
+            readingSorter.sort();
+            final var sortedSources = readingSorter.getSortedSourcesAndReadings();
+            var j = 0;
+            var k = 0;
+            boolean finished;
+            do {
+                var i = 0;
+                finished = true;
+                for (final var sortedSource : sortedSources) {
+                    expectedSourceQualityScores[sortedSource.position] = i;
+                    i--;
+
+                    final var sortedReadings = sortedSource.readingsWithQualityScores;
+                    if (k < sortedReadings.size()) {
+                        finished = false;
+                        expectedReadingsQualityScores[sortedReadings.get(k).position] = j;
+                        j--;
+                    }
+                }
+                k++;
+            } while (!finished);
+
+            assertArrayEquals(expectedSourceQualityScores, sourceQualityScores, 0.0);
+            assertArrayEquals(expectedReadingsQualityScores, readingsQualityScores, 0.0);
+
+            // force IllegalArgumentException
+            assertThrows(IllegalArgumentException.class, () -> sorter.distribute(new double[1],
+                    readingsQualityScores));
+            assertThrows(IllegalArgumentException.class, () -> sorter.distribute(sourceQualityScores,
+                    new double[1]));
+        }
+    }
+
+    @Test
+    void testIncrementalSortMatchesFullSort() {
+        final var randomizer = new UniformRandomizer();
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+
+            // change a single source quality score, a single reading quality score and
+            // replace a reading by another one of a different source and type
+            final var sourceQualityScores = data.sourceQualityScores.clone();
+            sourceQualityScores[randomizer.nextInt(0, sourceQualityScores.length)] = randomizer.nextDouble();
+            final var readingsQualityScores = data.readingsQualityScores.clone();
+            readingsQualityScores[randomizer.nextInt(0, readingsQualityScores.length)] = randomizer.nextDouble();
+            final var readingIndex = randomizer.nextInt(0, data.readings.size());
+            data.readings.set(readingIndex, data.createReading(randomizer));
+
+            sorter.sort(data.model, data.fingerprint, sourceQualityScores, readingsQualityScores);
+
+            // check
+            final var fullSorter = new IncrementalReadingSorter<Point2D>();
+            fullSorter.sort(data.model, data.fingerprint, sourceQualityScores, readingsQualityScores);
+            assertSameOrder(fullSorter, sorter);
+
+            // replace many values so that everything is sorted again
+            for (var i = 0; i < readingsQualityScores.length; i++) {
+                readingsQualityScores[i] = randomizer.nextDouble();
+            }
+            sorter.sort(data.model, data.fingerprint, sourceQualityScores, readingsQualityScores);
+
+            fullSorter.sort(data.model, new Fingerprint<>(data.readings), sourceQualityScores,
+                    readingsQualityScores);
+            assertSameOrder(fullSorter, sorter);
+        }
+    }
+
+    @Test
+    void testSetQualityScoresAndReadingChanged() {
+        final var randomizer = new UniformRandomizer();
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+
+            final var sourceIndex = randomizer.nextInt(0, data.sources.size());
+            data.sourceQualityScores[sourceIndex] = randomizer.nextDouble();
+            sorter.setSourceQualityScore(sourceIndex, data.sourceQualityScores[sourceIndex]);
+
+            final var readingIndex = randomizer.nextInt(0, data.readings.size());
+            data.readingsQualityScores[readingIndex] = randomizer.nextDouble();
+            sorter.setReadingQualityScore(readingIndex, data.readingsQualityScores[readingIndex]);
+
+            final var changedReadingIndex = randomizer.nextInt(0, data.readings.size());
+            data.readings.set(changedReadingIndex, data.createReading(randomizer));
+            sorter.readingChanged(changedReadingIndex);
+
+            // check
+            final var fullSorter = new IncrementalReadingSorter<Point2D>();
+            fullSorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+            assertSameOrder(fullSorter, sorter);
+
+            // force IndexOutOfBoundsException
+            assertThrows(IndexOutOfBoundsException.class, () -> sorter.setSourceQualityScore(-1, 0.0));
+            assertThrows(IndexOutOfBoundsException.class, () -> sorter.setReadingQualityScore(
+                    data.readings.size(), 0.0));
+            assertThrows(IndexOutOfBoundsException.class, () -> sorter.readingChanged(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> sorter.getSortedSource(-1));
+            assertThrows(IndexOutOfBoundsException.class, () -> sorter.getSortedReading(0, -1));
+        }
+    }
+
+    @Test
+    void testSortIgnoresUnknownSources() {
+        final var data = new TestData();
+        final var unknown = new WifiAccessPoint("unknown", FREQUENCY);
+        data.readings.add(new RssiReading<>(unknown, MIN_RSSI));
+        final var readingsQualityScores = new double[data.readings.size()];
+
+        final var sorter = new IncrementalReadingSorter<Point2D>();
+        sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, readingsQualityScores);
+
+        // check
+        var total = 0;
+        for (var i = 0; i < data.sources.size(); i++) {
+            total += sorter.getNumberOfReadings(i);
+        }
+        assertEquals(data.readings.size() - 1, total);
+
+        final var result = new double[data.readings.size()];
+        result[result.length - 1] = 1.0;
+        sorter.distribute(new double[data.sources.size()], result);
+        assertEquals(1.0, result[result.length - 1], 0.0);
+    }
+
+    @Test
+    void testSortWithInvalidValues() {
+        final var data = new TestData();
+        final var sorter = new IncrementalReadingSorter<Point2D>();
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(null, data.fingerprint,
+                data.sourceQualityScores, data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model,
+                (Fingerprint<WifiAccessPoint, Reading<WifiAccessPoint>>) null, data.sourceQualityScores,
+                data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model, data.fingerprint,
+                new double[1], data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model, data.fingerprint,
+                data.sourceQualityScores, new double[1]));
+    }
+
+    @Test
+    void testSortBatchMatchesFingerprintSort() {
+        final var randomizer = new UniformRandomizer();
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+            final var batch = ReadingBatch.fromFingerprint(data.model, data.fingerprint);
+
+            final var expected = new IncrementalReadingSorter<Point2D>();
+            expected.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, batch, data.sourceQualityScores, data.readingsQualityScores);
+
+            // check
+            assertSameOrder(expected, sorter);
+
+            // sort a new batch containing a changed reading
+            final var index = randomizer.nextInt(0, data.readings.size());
+            data.readings.set(index, data.createReading(randomizer));
+            data.readingsQualityScores[index] = randomizer.nextDouble();
+            final var other = ReadingBatch.fromFingerprint(data.model, data.fingerprint);
+
+            sorter.sort(data.model, other, data.sourceQualityScores, data.readingsQualityScores);
+            expected.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+            assertSameOrder(expected, sorter);
+
+            // sorting a fingerprint after a batch sorts everything again
+            sorter.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+            assertSameOrder(expected, sorter);
+        }
+
+        // force IllegalArgumentException
+        final var data = new TestData();
+        final var batch = ReadingBatch.fromFingerprint(data.model, data.fingerprint);
+        final var sorter = new IncrementalReadingSorter<Point2D>();
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(null, batch,
+                data.sourceQualityScores, data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model, (ReadingBatch) null,
+                data.sourceQualityScores, data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model, batch,
+                new double[1], data.readingsQualityScores));
+        assertThrows(IllegalArgumentException.class, () -> sorter.sort(data.model, batch,
+                data.sourceQualityScores, new double[1]));
+    }
+
+    @Test
+    void testSortBatchIncrementally() {
+        final var randomizer = new UniformRandomizer();
+        for (var t = 0; t < TIMES; t++) {
+            final var data = new TestData();
+            final var batch = ReadingBatch.fromFingerprint(data.model, data.fingerprint);
+
+            final var sorter = new IncrementalReadingSorter<Point2D>();
+            sorter.sort(data.model, batch, data.sourceQualityScores, data.readingsQualityScores);
+
+            // replace a reading within the same batch instance
+            final var index = randomizer.nextInt(0, data.readings.size());
+            data.readings.set(index, data.createReading(randomizer));
+            final var refilled = ReadingBatch.fromFingerprint(data.model, data.fingerprint);
+            batch.clear();
+            for (var i = 0; i < refilled.size(); i++) {
+                switch (refilled.getType(i)) {
+                    case RANGING_READING -> batch.addRanging(refilled.getSourceIndex(i), refilled.getDistance(i));
+                    case RSSI_READING -> batch.addRssi(refilled.getSourceIndex(i), refilled.getRssi(i));
+                    default -> batch.addRangingAndRssi(refilled.getSourceIndex(i), refilled.getDistance(i),
+                            refilled.getRssi(i));
+                }
+            }
+            sorter.sort(data.model, batch, data.sourceQualityScores, data.readingsQualityScores);
+
+            // check
+            final var expected = new IncrementalReadingSorter<Point2D>();
+            expected.sort(data.model, data.fingerprint, data.sourceQualityScores, data.readingsQualityScores);
+            assertSameOrder(expected, sorter);
+
+            // reading changed within batch
+            sorter.readingChanged(index);
+            assertSameOrder(expected, sorter);
+        }
+    }
+
+    private static void assertSameOrder(final IncrementalReadingSorter<Point2D> expected,
+                                        final IncrementalReadingSorter<Point2D> sorter) {
+        assertEquals(expected.getNumberOfSources(), sorter.getNumberOfSources());
+        assertEquals(expected.getNumberOfReadings(), sorter.getNumberOfReadings());
+        for (var i = 0; i < expected.getNumberOfSources(); i++) {
+            assertEquals(expected.getSortedSource(i), sorter.getSortedSource(i));
+            assertEquals(expected.getNumberOfReadings(i), sorter.getNumberOfReadings(i));
+            for (var j = 0; j < expected.getNumberOfReadings(i); j++) {
+                assertEquals(expected.getSortedReading(i, j), sorter.getSortedReading(i, j));
+            }
+        }
+    }
+
+    private static class TestData {
+
+        private final List<WifiAccessPointLocated2D> sources = new ArrayList<>();
+
+        private final List<Reading<WifiAccessPoint>> readings;
+
+        private final VenueModel<Point2D> model;
+
+        private final Fingerprint<WifiAccessPoint, Reading<WifiAccessPoint>> fingerprint;
+
+        private final double[] sourceQualityScores;
+
+        private final double[] readingsQualityScores;
+
+        TestData() {
+            final var randomizer = new UniformRandomizer();
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+            final var numReadings = randomizer.nextInt(MIN_READINGS, MAX_READINGS);
+
+            sourceQualityScores = new double[numSources];
+            for (var i = 0; i < numSources; i++) {
+                sources.add(new WifiAccessPointLocated2D("id" + i, FREQUENCY, new InhomogeneousPoint2D()));
+                sourceQualityScores[i] = randomizer.nextDouble();
+            }
+
+            model = new VenueModel<>(sources);
+
+            // readings are modified through the fingerprint, since provided list is copied
+            fingerprint = new Fingerprint<>();
+            readings = fingerprint.getReadings();
+            readingsQualityScores = new double[numReadings];
+            for (var i = 0; i < numReadings; i++) {
+                readings.add(createReading(randomizer));
+                readingsQualityScores[i] = randomizer.nextDouble();
+            }
+        }
+
+        Reading<WifiAccessPoint> createReading(final UniformRandomizer randomizer) {
+            final var source = sources.get(randomizer.nextInt(0, sources.size()));
+            final var distance = randomizer.nextDouble(MIN_DISTANCE, MAX_DISTANCE);
+            final var rssi = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            return switch (randomizer.nextInt(0, 3)) {
+                case 0 -> new RangingReading<>(source, distance);
+                case 1 -> new RssiReading<>(source, rssi);
+                default -> new RangingAndRssiReading<>(source, distance, rssi);
+            };
+        }
+    }
+}
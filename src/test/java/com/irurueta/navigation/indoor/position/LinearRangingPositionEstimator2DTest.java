@@ -21,6 +21,7 @@ import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.RangingFingerprint;
 import com.irurueta.navigation.indoor.RangingReading;
+import com.irurueta.navigation.indoor.ReadingBatch;
 import com.irurueta.navigation.indoor.WifiAccessPoint;
 import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
 import com.irurueta.statistics.GaussianRandomizer;
@@ -265,6 +266,50 @@ class LinearRangingPositionEstimator2DTest implements RangingPositionEstimatorLi
         assertThrows(IllegalArgumentException.class, () -> estimator.setFingerprint(null));
     }
 
+    @Test
+    void testGetSetReadingBatch() throws LockedException {
+        final var randomizer = new UniformRandomizer();
+        final var position = new InhomogeneousPoint2D(randomizer.nextDouble(MIN_POS, MAX_POS),
+                randomizer.nextDouble(MIN_POS, MAX_POS));
+
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        final var readings = new ArrayList<RangingReading<WifiAccessPoint>>();
+        for (var i = 0; i < MIN_SOURCES; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(randomizer.nextDouble(MIN_POS, MAX_POS),
+                    randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var bssid = String.valueOf(i);
+            sources.add(new WifiAccessPointLocated2D(bssid, FREQUENCY, accessPointPosition));
+            readings.add(new RangingReading<>(new WifiAccessPoint(bssid, FREQUENCY),
+                    position.distanceTo(accessPointPosition)));
+        }
+        final var fingerprint = new RangingFingerprint<>(readings);
+
+        final var estimator = new LinearRangingPositionEstimator2D(sources, fingerprint);
+        final var expectedPositions = estimator.getPositions();
+        final var expectedDistances = estimator.getDistances();
+
+        // check default value
+        assertNull(estimator.getReadingBatch());
+
+        // set new value
+        final var batch = ReadingBatch.fromFingerprint(estimator.getVenueModel(), fingerprint);
+        estimator.setReadingBatch(batch);
+
+        // check
+        assertSame(batch, estimator.getReadingBatch());
+        assertNull(estimator.getFingerprint());
+        assertArrayEquals(expectedPositions, estimator.getPositions());
+        assertArrayEquals(expectedDistances, estimator.getDistances(), 0.0);
+
+        // setting a fingerprint discards batch
+        estimator.setFingerprint(fingerprint);
+        assertNull(estimator.getReadingBatch());
+        assertSame(fingerprint, estimator.getFingerprint());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setReadingBatch(null));
+    }
+
     @Test
     void testGetSetListener() throws LockedException {
         final var estimator = new LinearRangingPositionEstimator2D();
@@ -22,6 +22,7 @@ import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiReading;
 import com.irurueta.navigation.indoor.Utils;
+import com.irurueta.navigation.indoor.VenueModel;
 import com.irurueta.navigation.indoor.WifiAccessPoint;
 import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
 import com.irurueta.navigation.indoor.WifiAccessPointWithPowerAndLocated2D;
@@ -257,6 +258,51 @@ class LinearRssiPositionEstimator2DTest implements RssiPositionEstimatorListener
         assertThrows(IllegalArgumentException.class, () -> estimator.setSources(wrongSources));
     }
 
+    @Test
+    void testGetSetVenueModel() throws LockedException {
+        final var estimator = new LinearRssiPositionEstimator2D();
+
+        // check default value
+        assertNull(estimator.getVenueModel());
+
+        // when sources are set, model is built from them
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        for (var i = 0; i < 3; i++) {
+            sources.add(new WifiAccessPointLocated2D("id" + i, FREQUENCY, new InhomogeneousPoint2D()));
+        }
+        estimator.setSources(sources);
+
+        final var model1 = estimator.getVenueModel();
+        assertSame(sources, model1.getSources());
+        assertSame(model1, estimator.getVenueModel());
+
+        // set new value
+        final var sources2 = new ArrayList<WifiAccessPointLocated2D>(sources);
+        final var model2 = new VenueModel<Point2D>(sources2);
+        estimator.setVenueModel(model2);
+
+        // check
+        assertSame(model2, estimator.getVenueModel());
+        assertSame(sources2, estimator.getSources());
+
+        // setting other sources discards model
+        estimator.setSources(sources);
+        assertNotSame(model2, estimator.getVenueModel());
+        assertSame(sources, estimator.getVenueModel().getSources());
+
+        // setting the same modified list of sources again rebuilds model
+        final var model3 = estimator.getVenueModel();
+        sources.add(new WifiAccessPointLocated2D("id3", FREQUENCY, new InhomogeneousPoint2D()));
+        estimator.setSources(sources);
+        assertNotSame(model3, estimator.getVenueModel());
+        assertEquals(sources.size(), estimator.getVenueModel().getNumberOfSources());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setVenueModel(null));
+        final var wrongModel = new VenueModel<Point2D>(new ArrayList<WifiAccessPointLocated2D>());
+        assertThrows(IllegalArgumentException.class, () -> estimator.setVenueModel(wrongModel));
+    }
+
     @Test
     void testGetSetFingerprint() throws LockedException {
         final var estimator = new LinearRssiPositionEstimator2D();
@@ -618,6 +664,7 @@ class LinearRssiPositionEstimator2DTest implements RssiPositionEstimatorListener
     private static void checkLocked(final LinearRssiPositionEstimator2D estimators) {
         assertThrows(LockedException.class, () -> estimators.setHomogeneousLinearSolverUsed(false));
         assertThrows(LockedException.class, () -> estimators.setSources(null));
+        assertThrows(LockedException.class, () -> estimators.setVenueModel(null));
         assertThrows(LockedException.class, () -> estimators.setFingerprint(null));
         assertThrows(LockedException.class, () -> estimators.setListener(null));
         assertThrows(LockedException.class, estimators::estimate);
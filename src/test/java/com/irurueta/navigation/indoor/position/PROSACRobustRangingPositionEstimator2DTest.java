@@ -30,6 +30,7 @@ import com.irurueta.navigation.indoor.RangingFingerprint;
 import com.irurueta.navigation.indoor.RangingReading;
 import com.irurueta.navigation.indoor.WifiAccessPoint;
 import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
+import com.irurueta.navigation.indoor.radiosource.LORANSACRobustEstimator;
 import com.irurueta.navigation.lateration.PROSACRobustLateration2DSolver;
 import com.irurueta.navigation.lateration.RobustLaterationSolver;
 import com.irurueta.numerical.robust.RobustEstimatorException;
@@ -1170,6 +1171,36 @@ class PROSACRobustRangingPositionEstimator2DTest implements RobustRangingPositio
         assertFalse(estimator.getEvenlyDistributeReadings());
     }
 
+    @Test
+    void testPreemptiveAndLocalOptimizationIgnored() throws LockedException {
+        final var estimator = new PROSACRobustRangingPositionEstimator2D();
+
+        // check default values
+        assertFalse(estimator.isPreemptive());
+        assertFalse(estimator.isLocallyOptimized());
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_NUMBER_OF_HYPOTHESES,
+                estimator.getNumberOfHypotheses());
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_BLOCK_SIZE, estimator.getPreemptionBlockSize());
+        assertEquals(LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS,
+                estimator.getLocalOptimizationIterations());
+
+        // set new values
+        estimator.setPreemptive(true);
+        estimator.setLocallyOptimized(true);
+        estimator.setNumberOfHypotheses(10);
+        estimator.setPreemptionBlockSize(10);
+        estimator.setLocalOptimizationIterations(10);
+
+        // check that PROSAC estimators have no preemptive or LO-RANSAC solvers
+        assertFalse(estimator.isPreemptive());
+        assertFalse(estimator.isLocallyOptimized());
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_NUMBER_OF_HYPOTHESES,
+                estimator.getNumberOfHypotheses());
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_BLOCK_SIZE, estimator.getPreemptionBlockSize());
+        assertEquals(LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS,
+                estimator.getLocalOptimizationIterations());
+    }
+
     @Test
     void testGetSetPreliminarySubsetSize() throws LockedException {
         final var estimator = spy(new PROSACRobustRangingPositionEstimator2D());
@@ -1135,6 +1135,54 @@ class PROSACRobustRssiPositionEstimator2DTest implements RobustRssiPositionEstim
                 new double[1]));
     }
 
+    @Test
+    void testEvenlyDistributeReadingsKeepsQualityScoresAndSortsIncrementally() throws LockedException {
+        final var randomizer = new UniformRandomizer();
+
+        final var numSources = 10;
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        final var readings = new ArrayList<RssiReading<WifiAccessPoint>>();
+        final var sourceQualityScores = new double[numSources];
+        final var fingerprintReadingsQualityScores = new double[numSources];
+        for (var i = 0; i < numSources; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var bssid = String.valueOf(i);
+            sources.add(new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY,
+                    randomizer.nextDouble(MIN_RSSI, MAX_RSSI), accessPointPosition));
+            readings.add(new RssiReading<>(new WifiAccessPoint(bssid, FREQUENCY),
+                    randomizer.nextDouble(MIN_RSSI, MAX_RSSI)));
+
+            sourceQualityScores[i] = randomizer.nextDouble();
+            fingerprintReadingsQualityScores[i] = randomizer.nextDouble();
+        }
+        final var fingerprint = new RssiFingerprint<>(readings);
+
+        final var estimator = new PROSACRobustRssiPositionEstimator2D(sourceQualityScores,
+                fingerprintReadingsQualityScores, sources, fingerprint);
+
+        // check that provided quality scores are not replaced by distributed ones
+        assertTrue(estimator.getEvenlyDistributeReadings());
+        final var sorter = estimator.getReadingSorter();
+        assertNotNull(sorter);
+        assertFalse(sorter.isLastSortIncremental());
+        final var sourceQualityScoresCopy = sourceQualityScores.clone();
+        final var fingerprintReadingsQualityScoresCopy = fingerprintReadingsQualityScores.clone();
+        assertSame(sourceQualityScores, estimator.getSourceQualityScores());
+        assertSame(fingerprintReadingsQualityScores, estimator.getFingerprintReadingsQualityScores());
+
+        // changing a single quality score only re-positions the changed radio source
+        sourceQualityScores[0] += 1.0;
+        sourceQualityScoresCopy[0] = sourceQualityScores[0];
+        estimator.setSourceQualityScores(sourceQualityScores);
+
+        // check
+        assertSame(sorter, estimator.getReadingSorter());
+        assertTrue(sorter.isLastSortIncremental());
+        assertArrayEquals(sourceQualityScoresCopy, sourceQualityScores, 0.0);
+        assertArrayEquals(fingerprintReadingsQualityScoresCopy, fingerprintReadingsQualityScores, 0.0);
+    }
+
     @Test
     void testGetSetEvenlyDistributeReadings() throws LockedException {
         final var estimator = new PROSACRobustRssiPositionEstimator2D();
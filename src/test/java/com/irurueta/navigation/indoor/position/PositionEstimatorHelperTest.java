@@ -24,9 +24,12 @@ import com.irurueta.navigation.indoor.RangingAndRssiReading;
 import com.irurueta.navigation.indoor.RangingFingerprint;
 import com.irurueta.navigation.indoor.RangingReading;
 import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.ReadingBatch;
+import com.irurueta.navigation.indoor.ReadingType;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiReading;
 import com.irurueta.navigation.indoor.Utils;
+import com.irurueta.navigation.indoor.VenueModel;
 import com.irurueta.navigation.indoor.WifiAccessPoint;
 import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
 import com.irurueta.navigation.indoor.WifiAccessPointWithPowerAndLocated2D;
@@ -1164,6 +1167,240 @@ class PositionEstimatorHelperTest {
         }
     }
 
+    @Test
+    void testBuildPositionsDistancesAndDistancesStandardDeviationsWithVenueModel() {
+        final var randomizer = new UniformRandomizer();
+
+        for (var t = 0; t < TIMES; t++) {
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+
+            final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+            final var readings = new ArrayList<RssiReading<WifiAccessPoint>>();
+            for (var i = 0; i < numSources; i++) {
+                final var accessPointPosition = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                final var transmittedPower = Utils.dBmToPower(transmittedPowerdBm);
+                final var bssid = String.valueOf(i);
+
+                final var positionCovariance = Matrix.diagonal(new double[]{POSITION_VARIANCE, POSITION_VARIANCE});
+                final var locatedAccessPoint = new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY,
+                        transmittedPowerdBm, Math.sqrt(TX_POWER_VARIANCE), pathLossExponent,
+                        Math.sqrt(PATH_LOSS_EXPONENT_VARIANCE), accessPointPosition, positionCovariance);
+                sources.add(locatedAccessPoint);
+
+                final var accessPoint = new WifiAccessPoint(bssid, FREQUENCY);
+
+                final var distance = position.distanceTo(accessPointPosition);
+
+                final var rssi = Utils.powerTodBm(receivedPower(transmittedPower, distance, pathLossExponent));
+
+                readings.add(new RssiReading<>(accessPoint, rssi, Math.sqrt(RX_POWER_VARIANCE)));
+            }
+
+            // reading of a radio source not contained in venue model is ignored
+            readings.add(new RssiReading<>(new WifiAccessPoint("unknown", FREQUENCY), MIN_RSSI,
+                    Math.sqrt(RX_POWER_VARIANCE)));
+
+            final var fingerprint = new RssiFingerprint<>(readings);
+            final var model = new VenueModel<Point2D>(sources);
+
+            final var positions1 = new ArrayList<Point2D>();
+            final var distances1 = new ArrayList<Double>();
+            final var distanceStandardDeviations1 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviations(sources, fingerprint,
+                    true, FALLBACK_DISTANCE_STANDARD_DEVIATION, positions1, distances1,
+                    distanceStandardDeviations1);
+
+            final var positions2 = new ArrayList<Point2D>();
+            final var distances2 = new ArrayList<Double>();
+            final var distanceStandardDeviations2 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(model, fingerprint,
+                    true, FALLBACK_DISTANCE_STANDARD_DEVIATION, positions2, distances2,
+                    distanceStandardDeviations2);
+
+            final var positions3 = new ArrayList<Point2D>();
+            final var distances3 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsAndDistancesFromModel(model, fingerprint, positions3, distances3);
+
+            // check that lists are not modified if no model or fingerprint are provided
+            PositionEstimatorHelper.buildPositionsAndDistancesFromModel(null, fingerprint, positions3, distances3);
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(
+                    null, fingerprint, true, FALLBACK_DISTANCE_STANDARD_DEVIATION,
+                    positions2, distances2, distanceStandardDeviations2);
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(model, null,
+                    true, FALLBACK_DISTANCE_STANDARD_DEVIATION, positions2, distances2, distanceStandardDeviations2);
+
+            // check
+            assertEquals(numSources, positions1.size());
+            assertEquals(positions1, positions2);
+            assertEquals(distances1, distances2);
+            assertEquals(distanceStandardDeviations1, distanceStandardDeviations2);
+            assertEquals(positions1, positions3);
+            assertEquals(distances1, distances3);
+
+            // force IllegalArgumentException
+            assertThrows(IllegalArgumentException.class,
+                    () -> PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromModel(
+                            model, fingerprint, true, -1.0, positions2, distances2,
+                            distanceStandardDeviations2));
+        }
+    }
+
+    @Test
+    void testBuildPositionsDistancesAndDistancesStandardDeviationsWithReadingBatch() {
+        final var randomizer = new UniformRandomizer();
+
+        for (var t = 0; t < TIMES; t++) {
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+
+            final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+            final var readings = new ArrayList<Reading<WifiAccessPoint>>();
+            for (var i = 0; i < numSources; i++) {
+                final var accessPointPosition = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+                final var transmittedPower = Utils.dBmToPower(transmittedPowerdBm);
+                final var bssid = String.valueOf(i);
+
+                final var positionCovariance = Matrix.diagonal(new double[]{POSITION_VARIANCE, POSITION_VARIANCE});
+                final var locatedAccessPoint = new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY,
+                        transmittedPowerdBm, Math.sqrt(TX_POWER_VARIANCE), pathLossExponent,
+                        Math.sqrt(PATH_LOSS_EXPONENT_VARIANCE), accessPointPosition, positionCovariance);
+                sources.add(locatedAccessPoint);
+
+                final var accessPoint = new WifiAccessPoint(bssid, FREQUENCY);
+
+                final var distance = position.distanceTo(accessPointPosition);
+
+                final var rssi = Utils.powerTodBm(receivedPower(transmittedPower, distance, pathLossExponent));
+
+                switch (i % 3) {
+                    case 0 -> readings.add(new RssiReading<>(accessPoint, rssi, Math.sqrt(RX_POWER_VARIANCE)));
+                    case 1 -> readings.add(new RangingReading<>(accessPoint, distance, 0.5));
+                    default -> readings.add(new RangingAndRssiReading<>(accessPoint, distance, rssi, null,
+                            Math.sqrt(RX_POWER_VARIANCE)));
+                }
+            }
+
+            final var fingerprint = new Fingerprint<>(readings);
+            final var model = new VenueModel<Point2D>(sources);
+            final var batch = ReadingBatch.fromFingerprint(model, fingerprint);
+            final var sourceQualityScores = new double[numSources];
+            final var readingsQualityScores = new double[numSources];
+            for (var i = 0; i < numSources; i++) {
+                sourceQualityScores[i] = randomizer.nextDouble();
+                readingsQualityScores[i] = randomizer.nextDouble();
+            }
+
+            final var positions1 = new ArrayList<Point2D>();
+            final var distances1 = new ArrayList<Double>();
+            final var distanceStandardDeviations1 = new ArrayList<Double>();
+            final var qualityScores1 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromModel(
+                    model, fingerprint, sourceQualityScores, readingsQualityScores, true,
+                    FALLBACK_DISTANCE_STANDARD_DEVIATION, positions1, distances1, distanceStandardDeviations1,
+                    qualityScores1);
+
+            final var positions2 = new ArrayList<Point2D>();
+            final var distances2 = new ArrayList<Double>();
+            final var distanceStandardDeviations2 = new ArrayList<Double>();
+            final var qualityScores2 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesDistanceStandardDeviationsAndQualityScoresFromBatch(
+                    model, batch, ReadingType.RANGING_AND_RSSI_READING, sourceQualityScores,
+                    readingsQualityScores, true, FALLBACK_DISTANCE_STANDARD_DEVIATION, positions2, distances2,
+                    distanceStandardDeviations2, qualityScores2);
+
+            final var positions3 = new ArrayList<Point2D>();
+            final var distances3 = new ArrayList<Double>();
+            final var distanceStandardDeviations3 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(model, batch,
+                    ReadingType.RANGING_AND_RSSI_READING, true, FALLBACK_DISTANCE_STANDARD_DEVIATION, positions3,
+                    distances3, distanceStandardDeviations3);
+
+            final var positions4 = new ArrayList<Point2D>();
+            final var distances4 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsAndDistancesFromModel(model, fingerprint, positions4, distances4);
+
+            final var positions5 = new ArrayList<Point2D>();
+            final var distances5 = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsAndDistancesFromBatch(model, batch,
+                    ReadingType.RANGING_AND_RSSI_READING, positions5, distances5);
+
+            // only distances of requested reading type are used
+            final var rangingPositions = new ArrayList<Point2D>();
+            final var rangingDistances = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsAndDistancesFromBatch(model, batch, ReadingType.RANGING_READING,
+                    rangingPositions, rangingDistances);
+
+            final var rssiPositions = new ArrayList<Point2D>();
+            final var rssiDistances = new ArrayList<Double>();
+            final var rssiDistanceStandardDeviations = new ArrayList<Double>();
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(model, batch,
+                    ReadingType.RSSI_READING, true, FALLBACK_DISTANCE_STANDARD_DEVIATION, rssiPositions,
+                    rssiDistances, rssiDistanceStandardDeviations);
+
+            var numRanging = 0;
+            var numRssi = 0;
+            for (var i = 0; i < numSources; i++) {
+                if (i % 3 != 0) {
+                    numRanging++;
+                }
+                if (i % 3 != 1) {
+                    numRssi++;
+                }
+            }
+            assertEquals(numRanging, rangingDistances.size());
+            assertEquals(numRssi, rssiDistances.size());
+            assertEquals(numRssi, rssiDistanceStandardDeviations.size());
+            assertEquals(distances5.size(), rangingDistances.size() + rssiDistances.size());
+
+            // check that lists are not modified if no model, batch or reading type are provided
+            PositionEstimatorHelper.buildPositionsAndDistancesFromBatch(model, null,
+                    ReadingType.RANGING_AND_RSSI_READING, positions5, distances5);
+            PositionEstimatorHelper.buildPositionsAndDistancesFromBatch(model, batch, null, positions5,
+                    distances5);
+            PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(
+                    null, batch, ReadingType.RANGING_AND_RSSI_READING, true, FALLBACK_DISTANCE_STANDARD_DEVIATION,
+                    positions3, distances3, distanceStandardDeviations3);
+
+            // check
+            assertEquals(positions1, positions2);
+            assertEquals(distances1.size(), distances2.size());
+            for (var i = 0; i < distances1.size(); i++) {
+                assertEquals(distances1.get(i), distances2.get(i), ABSOLUTE_ERROR);
+                assertEquals(distanceStandardDeviations1.get(i), distanceStandardDeviations2.get(i),
+                        ABSOLUTE_ERROR);
+                assertEquals(qualityScores1.get(i), qualityScores2.get(i), ABSOLUTE_ERROR);
+            }
+            assertEquals(positions2, positions3);
+            assertEquals(distances2, distances3);
+            assertEquals(distanceStandardDeviations2, distanceStandardDeviations3);
+
+            assertEquals(positions4, positions5);
+            assertEquals(distances4.size(), distances5.size());
+            for (var i = 0; i < distances4.size(); i++) {
+                assertEquals(distances4.get(i), distances5.get(i), ABSOLUTE_ERROR);
+            }
+
+            // force IllegalArgumentException
+            assertThrows(IllegalArgumentException.class,
+                    () -> PositionEstimatorHelper.buildPositionsDistancesAndDistanceStandardDeviationsFromBatch(
+                            model, batch, ReadingType.RANGING_AND_RSSI_READING, true, -1.0, positions3,
+                            distances3, distanceStandardDeviations3));
+        }
+    }
+
     private static double receivedPower(final double equivalentTransmittedPower, final double distance,
                                         final double pathLossExponent) {
         // Pr = Pt*Gt*Gr*lambda^2/(4*pi*d)^2,    where Pr is the received power
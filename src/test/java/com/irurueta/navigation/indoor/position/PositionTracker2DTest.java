@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RangingAndRssiReading;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.Utils;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.WifiAccessPoint;
+import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
+import com.irurueta.navigation.indoor.WifiAccessPointWithPowerAndLocated2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTracker2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int MIN_SOURCES = 10;
+    private static final int MAX_SOURCES = 20;
+
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+
+    private static final double MIN_RSSI = -100;
+    private static final double MAX_RSSI = -50;
+
+    private static final double MIN_PATH_LOSS_EXPONENT = 1.6;
+    private static final double MAX_PATH_LOSS_EXPONENT = 2.0;
+
+    private static final double SPEED_OF_LIGHT = 299792458.0;
+
+    private static final double RANGING_STD = 1.0;
+    private static final double RX_POWER_VARIANCE = 0.5;
+
+    private static final double STEP = 0.5;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private static final int NUM_UPDATES = 10;
+
+    private static final double ABSOLUTE_ERROR = 1e-6;
+    private static final double LARGE_ABSOLUTE_ERROR = 1e-1;
+
+    @Test
+    void testConstructor() {
+        // empty constructor
+        var tracker = new PositionTracker2D();
+
+        // check default values
+        assertNull(tracker.getVenueModel());
+        assertEquals(PositionTracker.DEFAULT_PROCESS_NOISE_VARIANCE, tracker.getProcessNoiseVariance(), 0.0);
+        assertEquals(PositionTracker.DEFAULT_GATE_THRESHOLD, tracker.getGateThreshold(), 0.0);
+        assertEquals(PositionTracker.DEFAULT_MIN_EXPLAINED_READINGS_RATIO,
+                tracker.getMinExplainedReadingsRatio(), 0.0);
+        assertEquals(PositionTracker.DEFAULT_MEASUREMENT_VARIANCE, tracker.getMeasurementVariance(), 0.0);
+        assertEquals(PositionTracker.DEFAULT_USE_RADIO_SOURCE_POSITION_COVARIANCE,
+                tracker.isRadioSourcePositionCovarianceUsed());
+        assertEquals(PositionTracker.FALLBACK_DISTANCE_STANDARD_DEVIATION,
+                tracker.getFallbackDistanceStandardDeviation(), 0.0);
+        assertNotNull(tracker.getRobustEstimator());
+        assertTrue(tracker.getRobustEstimator().isResultRefined());
+        assertTrue(tracker.getRobustEstimator().isCovarianceKept());
+        assertFalse(tracker.isReady());
+        assertFalse(tracker.isLocked());
+        assertFalse(tracker.isTracking());
+        assertNull(tracker.getPosition());
+        assertNull(tracker.getPositionCoordinates());
+        assertNull(tracker.getPositionCovariance());
+        assertEquals(0, tracker.getTimestampNanos());
+        assertFalse(tracker.isLastUpdateGated());
+        assertEquals(0, tracker.getNumberOfUpdates());
+        assertEquals(0, tracker.getNumberOfGatedUpdates());
+        assertEquals(2, tracker.getNumberOfDimensions());
+        assertEquals(3, tracker.getMinRequiredSources());
+
+        // constructor with venue model
+        final var sources = createSources();
+        final var model = new VenueModel<Point2D>(sources);
+        tracker = new PositionTracker2D(model);
+
+        // check
+        assertSame(model, tracker.getVenueModel());
+        assertSame(model, tracker.getRobustEstimator().getVenueModel());
+        assertTrue(tracker.isReady());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new PositionTracker2D((VenueModel<Point2D>) null));
+        final var wrongModel = new VenueModel<Point2D>(new ArrayList<WifiAccessPointLocated2D>());
+        assertThrows(IllegalArgumentException.class, () -> new PositionTracker2D(wrongModel));
+
+        // constructor with sources
+        tracker = new PositionTracker2D(sources);
+
+        // check
+        assertSame(sources, tracker.getVenueModel().getSources());
+        assertTrue(tracker.isReady());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class,
+                () -> new PositionTracker2D((ArrayList<WifiAccessPointLocated2D>) null));
+    }
+
+    @Test
+    void testGetSetVenueModel() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // check default value
+        assertNull(tracker.getVenueModel());
+
+        // set new value
+        final var model = new VenueModel<Point2D>(createSources());
+        tracker.setVenueModel(model);
+
+        // check
+        assertSame(model, tracker.getVenueModel());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setVenueModel(null));
+    }
+
+    @Test
+    void testGetSetProcessNoiseVariance() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setProcessNoiseVariance(2.0);
+
+        // check
+        assertEquals(2.0, tracker.getProcessNoiseVariance(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setProcessNoiseVariance(-1.0));
+    }
+
+    @Test
+    void testGetSetGateThreshold() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setGateThreshold(5.0);
+
+        // check
+        assertEquals(5.0, tracker.getGateThreshold(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setGateThreshold(0.0));
+    }
+
+    @Test
+    void testGetSetMinExplainedReadingsRatio() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setMinExplainedReadingsRatio(0.5);
+
+        // check
+        assertEquals(0.5, tracker.getMinExplainedReadingsRatio(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setMinExplainedReadingsRatio(-1.0));
+    }
+
+    @Test
+    void testGetSetMeasurementVariance() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setMeasurementVariance(4.0);
+
+        // check
+        assertEquals(4.0, tracker.getMeasurementVariance(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setMeasurementVariance(0.0));
+    }
+
+    @Test
+    void testIsSetRadioSourcePositionCovarianceUsed() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setRadioSourcePositionCovarianceUsed(false);
+
+        // check
+        assertFalse(tracker.isRadioSourcePositionCovarianceUsed());
+    }
+
+    @Test
+    void testGetSetFallbackDistanceStandardDeviation() throws LockedException {
+        final var tracker = new PositionTracker2D();
+
+        // set new value
+        tracker.setFallbackDistanceStandardDeviation(5.0);
+
+        // check
+        assertEquals(5.0, tracker.getFallbackDistanceStandardDeviation(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> tracker.setFallbackDistanceStandardDeviation(-1.0));
+    }
+
+    @Test
+    void testPredictAndCorrect() throws AlgebraException {
+        final var tracker = new PositionTracker2D();
+
+        tracker.setState(new double[]{1.0, 2.0}, Matrix.diagonal(new double[]{1.0, 1.0}), 0L);
+
+        // predict after 3 seconds increases variance
+        final var predictedCovariance = tracker.predict(3 * NANOS_PER_SECOND);
+
+        assertArrayEquals(new double[]{1.0, 2.0}, tracker.getPositionCoordinates(), 0.0);
+        assertEquals(4.0, predictedCovariance.getElementAt(0, 0), ABSOLUTE_ERROR);
+        assertEquals(4.0, predictedCovariance.getElementAt(1, 1), ABSOLUTE_ERROR);
+        assertEquals(0.0, predictedCovariance.getElementAt(0, 1), ABSOLUTE_ERROR);
+
+        // prediction does not modify tracker until it is corrected
+        assertEquals(1.0, tracker.getPositionCovariance().getElementAt(0, 0), 0.0);
+        assertEquals(1.0, tracker.getPositionCovariance().getElementAt(1, 1), 0.0);
+
+        // out-of-order timestamps do not increase variance
+        assertEquals(tracker.getPositionCovariance(), tracker.predict(-NANOS_PER_SECOND));
+
+        // correct with a measurement having the same variance as predicted position
+        tracker.correct(new double[]{3.0, 4.0}, Matrix.diagonal(new double[]{4.0, 4.0}), predictedCovariance);
+
+        // filtered position lies halfway and its variance is halved
+        assertArrayEquals(new double[]{2.0, 3.0}, tracker.getPositionCoordinates(), ABSOLUTE_ERROR);
+        assertEquals(2.0, tracker.getPositionCovariance().getElementAt(0, 0), ABSOLUTE_ERROR);
+        assertEquals(2.0, tracker.getPositionCovariance().getElementAt(1, 1), ABSOLUTE_ERROR);
+        assertEquals(new InhomogeneousPoint2D(2.0, 3.0), tracker.getPosition());
+
+        // correct with a much more accurate measurement
+        tracker.correct(new double[]{10.0, 10.0}, Matrix.diagonal(new double[]{1e-9, 1e-9}),
+                tracker.getPositionCovariance());
+
+        // filtered position follows measurement
+        assertArrayEquals(new double[]{10.0, 10.0}, tracker.getPositionCoordinates(), ABSOLUTE_ERROR);
+
+        // returned state is a copy that does not modify tracker
+        final var coordinates = tracker.getPositionCoordinates();
+        final var covariance = tracker.getPositionCovariance();
+        coordinates[0] = -1.0;
+        covariance.setElementAt(0, 0, -1.0);
+        assertArrayEquals(new double[]{10.0, 10.0}, tracker.getPositionCoordinates(), ABSOLUTE_ERROR);
+        assertEquals(1e-9, tracker.getPositionCovariance().getElementAt(0, 0), ABSOLUTE_ERROR);
+    }
+
+    @Test
+    void testUpdate() throws LockedException, NotReadyException, PositionEstimationException {
+        final var randomizer = new UniformRandomizer();
+
+        final var pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        final var transmittedPowers = new double[MAX_SOURCES];
+        final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+        for (var i = 0; i < numSources; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            transmittedPowers[i] = Utils.dBmToPower(transmittedPowerdBm);
+            sources.add(new WifiAccessPointWithPowerAndLocated2D(String.valueOf(i), FREQUENCY,
+                    transmittedPowerdBm, pathLossExponent, accessPointPosition));
+        }
+
+        final var tracker = new PositionTracker2D(sources);
+
+        final var position = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+        for (var t = 0; t < NUM_UPDATES; t++) {
+            // device moves slowly
+            position.setInhomogeneousCoordinates(position.getInhomX() + STEP,
+                    position.getInhomY());
+
+            final var readings = new ArrayList<Reading<WifiAccessPoint>>();
+            for (var i = 0; i < numSources; i++) {
+                final var source = sources.get(i);
+                final var distance = position.distanceTo(source.getPosition());
+                final var rssi = Utils.powerTodBm(receivedPower(transmittedPowers[i], distance,
+                        pathLossExponent));
+                readings.add(new RangingAndRssiReading<>(new WifiAccessPoint(String.valueOf(i), FREQUENCY),
+                        distance, rssi, RANGING_STD, Math.sqrt(RX_POWER_VARIANCE)));
+            }
+
+            final var estimated = tracker.update(new Fingerprint<>(readings), t * NANOS_PER_SECOND);
+
+            // check
+            assertTrue(tracker.isTracking());
+            assertFalse(tracker.isLocked());
+            assertEquals(t + 1, tracker.getNumberOfUpdates());
+            assertEquals(t * NANOS_PER_SECOND, tracker.getTimestampNanos());
+            assertNotNull(tracker.getPositionCovariance());
+            assertTrue(position.equals(estimated, LARGE_ABSOLUTE_ERROR));
+
+            if (t == 0) {
+                // first update requires robust estimation
+                assertFalse(tracker.isLastUpdateGated());
+            } else {
+                // predicted position explains readings
+                assertTrue(tracker.isLastUpdateGated());
+            }
+        }
+        assertEquals(NUM_UPDATES - 1, tracker.getNumberOfGatedUpdates());
+
+        // reset
+        tracker.reset();
+
+        // check
+        assertFalse(tracker.isTracking());
+        assertNull(tracker.getPosition());
+        assertEquals(0, tracker.getNumberOfUpdates());
+        assertEquals(0, tracker.getNumberOfGatedUpdates());
+
+        // force NotReadyException
+        assertThrows(NotReadyException.class, () -> tracker.update(null, 0L));
+        final var fingerprint = new Fingerprint<>(new ArrayList<Reading<WifiAccessPoint>>());
+        assertThrows(NotReadyException.class, () -> tracker.update(fingerprint, 0L));
+        final var tracker2 = new PositionTracker2D();
+        assertThrows(NotReadyException.class, () -> tracker2.update(fingerprint, 0L));
+    }
+
+    private static ArrayList<WifiAccessPointLocated2D> createSources() {
+        final var randomizer = new UniformRandomizer();
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        for (var i = 0; i < MIN_SOURCES; i++) {
+            sources.add(new WifiAccessPointLocated2D(String.valueOf(i), FREQUENCY, new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS))));
+        }
+        return sources;
+    }
+
+    private static double receivedPower(final double equivalentTransmittedPower, final double distance,
+                                        final double pathLossExponent) {
+        // Pr = Pt*Gt*Gr*lambda^2/(4*pi*d)^2,    where Pr is the received power
+        // lambda = c/f, where lambda is wavelength,
+        // Pte = Pt*Gt*Gr, is the equivalent transmitted power, Gt is the transmitted Gain and Gr is the received Gain
+        // Pr = Pte*c^2/((4*pi*f)^2 * d^2)
+        final var k = Math.pow(SPEED_OF_LIGHT / (4.0 * Math.PI * FREQUENCY), pathLossExponent);
+        return equivalentTransmittedPower * k / Math.pow(distance, pathLossExponent);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
+import com.irurueta.geometry.InhomogeneousPoint3D;
+import com.irurueta.geometry.Point3D;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.WifiAccessPointLocated3D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTracker3DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int NUM_SOURCES = 10;
+
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private static final double ABSOLUTE_ERROR = 1e-6;
+
+    @Test
+    void testConstructor() {
+        // empty constructor
+        var tracker = new PositionTracker3D();
+
+        // check default values
+        assertNull(tracker.getVenueModel());
+        assertNotNull(tracker.getRobustEstimator());
+        assertFalse(tracker.isReady());
+        assertFalse(tracker.isTracking());
+        assertEquals(3, tracker.getNumberOfDimensions());
+        assertEquals(4, tracker.getMinRequiredSources());
+
+        // constructor with sources
+        final var randomizer = new UniformRandomizer();
+        final var sources = new ArrayList<WifiAccessPointLocated3D>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            sources.add(new WifiAccessPointLocated3D(String.valueOf(i), FREQUENCY, new InhomogeneousPoint3D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS),
+                    randomizer.nextDouble(MIN_POS, MAX_POS))));
+        }
+        tracker = new PositionTracker3D(sources);
+
+        // check
+        assertSame(sources, tracker.getVenueModel().getSources());
+        assertTrue(tracker.isReady());
+
+        // force IllegalArgumentException
+        final var wrongModel = new VenueModel<Point3D>(sources.subList(0, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PositionTracker3D(wrongModel));
+    }
+
+    @Test
+    void testPredictAndCorrect() throws AlgebraException {
+        final var tracker = new PositionTracker3D();
+
+        tracker.setState(new double[]{1.0, 2.0, 3.0}, Matrix.diagonal(new double[]{1.0, 1.0, 1.0}), 0L);
+
+        // predict after 1 second increases variance
+        final var predictedCovariance = tracker.predict(NANOS_PER_SECOND);
+
+        assertEquals(2.0, predictedCovariance.getElementAt(2, 2), ABSOLUTE_ERROR);
+
+        // correct with a measurement having the same variance as predicted position
+        tracker.correct(new double[]{3.0, 4.0, 5.0}, Matrix.diagonal(new double[]{2.0, 2.0, 2.0}),
+                predictedCovariance);
+
+        // check
+        assertArrayEquals(new double[]{2.0, 3.0, 4.0}, tracker.getPositionCoordinates(), ABSOLUTE_ERROR);
+        assertEquals(1.0, tracker.getPositionCovariance().getElementAt(2, 2), ABSOLUTE_ERROR);
+        assertEquals(new InhomogeneousPoint3D(2.0, 3.0, 4.0), tracker.getPosition());
+    }
+}
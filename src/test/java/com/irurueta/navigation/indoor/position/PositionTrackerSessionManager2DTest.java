@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.Fingerprint;
+import com.irurueta.navigation.indoor.RadioSource;
+import com.irurueta.navigation.indoor.Reading;
+import com.irurueta.navigation.indoor.VenueModel;
+import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionTrackerSessionManager2DTest {
+
+    private static final double FREQUENCY = 2.4e9; // (Hz)
+
+    private static final int NUM_SOURCES = 5;
+
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+
+    private static final int NUM_DEVICES = 5;
+    private static final int NUM_UPDATES = 20;
+
+    private static final int NUM_THREADS = 4;
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Test
+    void testConstructor() {
+        final var model = createVenueModel();
+        final var executor = Executors.newSingleThreadExecutor();
+
+        try (var manager = new PositionTrackerSessionManager2D(model, executor)) {
+            // check default values
+            assertSame(model, manager.getVenueModel());
+            assertEquals(PositionTrackerSessionManager.DEFAULT_SESSION_TIMEOUT_NANOS,
+                    manager.getSessionTimeoutNanos());
+            assertEquals(0, manager.getNumberOfSessions());
+            assertEquals(0, manager.getNumberOfUpdates());
+            assertEquals(0, manager.getNumberOfFailedUpdates());
+            assertEquals(0, manager.getNumberOfEvictedSessions());
+            assertEquals(0.0, manager.getThroughput(), 0.0);
+            assertTrue(Double.isNaN(manager.getAverageLatencyNanos()));
+            assertEquals(0, manager.getMaxLatencyNanos());
+            assertNull(manager.getPosition("device"));
+            assertFalse(manager.hasSession("device"));
+        } finally {
+            executor.shutdown();
+        }
+
+        try (var manager = new PositionTrackerSessionManager2D(model)) {
+            assertSame(model, manager.getVenueModel());
+        }
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new PositionTrackerSessionManager2D(null));
+        assertThrows(IllegalArgumentException.class, () -> new PositionTrackerSessionManager2D(model, null));
+    }
+
+    @Test
+    void testGetSetSessionTimeoutNanos() {
+        try (var manager = new PositionTrackerSessionManager2D(createVenueModel())) {
+            // set new value
+            manager.setSessionTimeoutNanos(1000L);
+
+            // check
+            assertEquals(1000L, manager.getSessionTimeoutNanos());
+
+            // force IllegalArgumentException
+            assertThrows(IllegalArgumentException.class, () -> manager.setSessionTimeoutNanos(-1L));
+        }
+    }
+
+    @Test
+    void testUpdateKeepsOrderingPerDevice() {
+        final var model = createVenueModel();
+        final var executor = Executors.newFixedThreadPool(NUM_THREADS);
+        final var trackers = new ConcurrentHashMap<RecordingTracker, Boolean>();
+
+        try (var manager = new PositionTrackerSessionManager2D(model, executor) {
+            @Override
+            protected PositionTracker<Point2D> createTracker() {
+                final var tracker = new RecordingTracker(model);
+                trackers.put(tracker, true);
+                return tracker;
+            }
+        }) {
+            final var futures = new ArrayList<CompletableFuture<Point2D>>();
+            for (var t = 0; t < NUM_UPDATES; t++) {
+                for (var d = 0; d < NUM_DEVICES; d++) {
+                    futures.add(manager.update("device" + d, null, t));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+            // check
+            assertEquals(NUM_DEVICES, manager.getNumberOfSessions());
+            assertEquals(NUM_DEVICES, trackers.size());
+            assertEquals((long) NUM_DEVICES * NUM_UPDATES, manager.getNumberOfUpdates());
+            assertEquals(0, manager.getNumberOfFailedUpdates());
+            assertTrue(manager.getThroughput() > 0.0);
+            assertTrue(manager.getAverageLatencyNanos() > 0.0);
+            assertTrue(manager.getMaxLatencyNanos() > 0);
+
+            for (final var tracker : trackers.keySet()) {
+                // updates of each device are executed in order and never concurrently
+                assertFalse(tracker.concurrent);
+                assertEquals(NUM_UPDATES, tracker.timestamps.size());
+                for (var t = 0; t < NUM_UPDATES; t++) {
+                    assertEquals(t, tracker.timestamps.get(t));
+                }
+            }
+
+            for (var d = 0; d < NUM_DEVICES; d++) {
+                assertTrue(manager.hasSession("device" + d));
+                assertEquals(new InhomogeneousPoint2D(NUM_UPDATES - 1, 0.0), manager.getPosition("device" + d));
+            }
+
+            // sessions are not idle yet
+            assertEquals(0, manager.evictIdleSessions());
+
+            // evict idle sessions
+            manager.setSessionTimeoutNanos(0L);
+            assertEquals(NUM_DEVICES, manager.evictIdleSessions());
+
+            // check
+            assertEquals(0, manager.getNumberOfSessions());
+            assertEquals(NUM_DEVICES, manager.getNumberOfEvictedSessions());
+            assertFalse(manager.hasSession("device0"));
+            assertNull(manager.getPosition("device0"));
+
+            // a new session is started when an evicted device is updated again
+            manager.update("device0", null, 0L).join();
+            assertEquals(1, manager.getNumberOfSessions());
+            assertEquals(NUM_DEVICES + 1, trackers.size());
+        } finally {
+            executor.shutdown();
+        }
+
+        // force IllegalArgumentException
+        try (var manager = new PositionTrackerSessionManager2D(model)) {
+            assertThrows(IllegalArgumentException.class, () -> manager.update(null, null, 0L));
+        }
+    }
+
+    @Test
+    void testUpdateIsNotExecutedWhileSessionIsLocked() {
+        final var model = createVenueModel();
+        final var otherThread = Executors.newSingleThreadExecutor();
+        final var managerReference = new AtomicReference<PositionTrackerSessionManager2D>();
+        final var concurrentUpdate = new AtomicReference<CompletableFuture<Point2D>>();
+
+        // updates are executed on the calling thread, as the default executor does once
+        // its queue is full
+        try (var manager = new PositionTrackerSessionManager2D(model, Runnable::run) {
+            @Override
+            protected PositionTracker<Point2D> createTracker() {
+                return new RecordingTracker(model) {
+                    @Override
+                    public Point2D update(
+                            final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>>
+                                    fingerprint, final long timestampNanos) {
+                        if (timestampNanos == 0L) {
+                            // the same device is updated from another thread while this
+                            // update is in progress, which must not block
+                            try {
+                                concurrentUpdate.set(otherThread.submit(
+                                        () -> managerReference.get().update("device", null, 1L))
+                                        .get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                            } catch (final Exception e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }
+                        return super.update(fingerprint, timestampNanos);
+                    }
+                };
+            }
+        }) {
+            managerReference.set(manager);
+            final var position = manager.update("device", null, 0L).join();
+
+            // check
+            assertEquals(new InhomogeneousPoint2D(0.0, 0.0), position);
+            assertEquals(new InhomogeneousPoint2D(1.0, 0.0), concurrentUpdate.get().join());
+            assertEquals(2, manager.getNumberOfUpdates());
+            assertEquals(0, manager.getNumberOfFailedUpdates());
+            assertEquals(new InhomogeneousPoint2D(1.0, 0.0), manager.getPosition("device"));
+        } finally {
+            otherThread.shutdown();
+        }
+    }
+
+    @Test
+    void testUpdateFails() {
+        final var executor = Executors.newSingleThreadExecutor();
+        try (var manager = new PositionTrackerSessionManager2D(createVenueModel(), executor)) {
+            final var future = manager.update("device", null, 0L);
+
+            // check
+            final var e = assertThrows(CompletionException.class, future::join);
+            assertInstanceOf(NotReadyException.class, e.getCause());
+            assertEquals(0, manager.getNumberOfUpdates());
+            assertEquals(1, manager.getNumberOfFailedUpdates());
+            assertNull(manager.getPosition("device"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testUpdateRejected() {
+        final var executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        try (var manager = new PositionTrackerSessionManager2D(createVenueModel(), executor) {
+            @Override
+            protected PositionTracker<Point2D> createTracker() {
+                return new RecordingTracker(getVenueModel());
+            }
+        }) {
+            final var future = manager.update("device", null, 0L);
+
+            // check that rejected update fails instead of never completing
+            assertTrue(future.isDone());
+            final var e = assertThrows(CompletionException.class, future::join);
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+            assertEquals(0, manager.getNumberOfUpdates());
+            assertEquals(1, manager.getNumberOfFailedUpdates());
+
+            // next updates of the same device are not blocked by the rejected one
+            final var next = manager.update("device", null, 1L);
+            assertTrue(next.isDone());
+            assertThrows(CompletionException.class, next::join);
+            assertEquals(2, manager.getNumberOfFailedUpdates());
+
+            // session has no pending updates, hence it can be evicted
+            manager.setSessionTimeoutNanos(0L);
+            assertEquals(1, manager.evictIdleSessions());
+        }
+    }
+
+    @Test
+    void testClose() throws Exception {
+        final var model = createVenueModel();
+        final var manager = new PositionTrackerSessionManager2D(model) {
+            @Override
+            protected PositionTracker<Point2D> createTracker() {
+                return new RecordingTracker(model);
+            }
+        };
+
+        // check default value
+        assertFalse(manager.isClosed());
+
+        final var futures = new ArrayList<CompletableFuture<Point2D>>();
+        for (var t = 0; t < NUM_UPDATES; t++) {
+            futures.add(manager.update("device", null, t));
+        }
+        manager.close();
+
+        // check
+        assertTrue(manager.isClosed());
+
+        // updates pending when closed are still completed
+        for (var t = 0; t < NUM_UPDATES; t++) {
+            assertEquals(new InhomogeneousPoint2D(t, 0.0), futures.get(t).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        assertEquals(NUM_UPDATES, manager.getNumberOfUpdates());
+
+        // force IllegalStateException
+        assertThrows(IllegalStateException.class, () -> manager.update("device", null, NUM_UPDATES));
+    }
+
+    private static VenueModel<Point2D> createVenueModel() {
+        final var randomizer = new UniformRandomizer();
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        for (var i = 0; i < NUM_SOURCES; i++) {
+            sources.add(new WifiAccessPointLocated2D(String.valueOf(i), FREQUENCY, new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS))));
+        }
+        return new VenueModel<>(sources);
+    }
+
+    private static class RecordingTracker extends PositionTracker2D {
+
+        private final List<Long> timestamps = new ArrayList<>();
+
+        private final AtomicInteger inProgress = new AtomicInteger();
+
+        private volatile boolean concurrent;
+
+        RecordingTracker(final VenueModel<Point2D> venueModel) {
+            super(venueModel);
+        }
+
+        @Override
+        public Point2D update(
+                final Fingerprint<? extends RadioSource, ? extends Reading<? extends RadioSource>> fingerprint,
+                final long timestampNanos) {
+            if (inProgress.incrementAndGet() > 1) {
+                concurrent = true;
+            }
+            timestamps.add(timestampNanos);
+            Thread.yield();
+            inProgress.decrementAndGet();
+            return new InhomogeneousPoint2D(timestampNanos, 0.0);
+        }
+    }
+}
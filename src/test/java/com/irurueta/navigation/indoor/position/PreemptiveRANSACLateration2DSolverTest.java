@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.geometry.InhomogeneousPoint2D;
+import com.irurueta.geometry.Point2D;
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.lateration.RobustLaterationSolver;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+import com.irurueta.statistics.GaussianRandomizer;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreemptiveRANSACLateration2DSolverTest {
+
+    private static final int MIN_POSITIONS = 20;
+    private static final int MAX_POSITIONS = 50;
+
+    private static final double MIN_POS = -50.0;
+    private static final double MAX_POS = 50.0;
+
+    private static final double THRESHOLD = 1e-2;
+
+    private static final double ABSOLUTE_ERROR = 1e-6;
+
+    private static final int PERCENTAGE_OUTLIERS = 20;
+
+    private static final double STD_OUTLIER_ERROR = 10.0;
+
+    private static final double DISTANCE_STD = 1.0;
+
+    private static final int TIMES = 50;
+
+    @Test
+    void testConstructor() {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // check default values
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_NUMBER_OF_HYPOTHESES, solver.getNumberOfHypotheses());
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_BLOCK_SIZE, solver.getBlockSize());
+        assertNotNull(solver.getRandomizer());
+        assertEquals(RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER, solver.isLinearSolverUsed());
+        assertEquals(RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER,
+                solver.isHomogeneousLinearSolverUsed());
+        assertEquals(RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS,
+                solver.isPreliminarySolutionRefined());
+        assertFalse(solver.isLocked());
+        assertNull(solver.getEstimatedPosition());
+        assertNull(solver.getCovariance());
+        assertNull(solver.getInliersData());
+        assertEquals(Point2D.POINT2D_INHOMOGENEOUS_COORDINATES_LENGTH, solver.getNumberOfDimensions());
+        assertEquals(3, solver.getMinRequiredPositionsAndDistances());
+    }
+
+    @Test
+    void testGetSetNumberOfHypotheses() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        solver.setNumberOfHypotheses(10);
+
+        // check
+        assertEquals(10, solver.getNumberOfHypotheses());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> solver.setNumberOfHypotheses(0));
+    }
+
+    @Test
+    void testGetSetBlockSize() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        solver.setBlockSize(10);
+
+        // check
+        assertEquals(10, solver.getBlockSize());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> solver.setBlockSize(0));
+    }
+
+    @Test
+    void testGetSetRandomizer() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        final var randomizer = new UniformRandomizer();
+        solver.setRandomizer(randomizer);
+
+        // check
+        assertSame(randomizer, solver.getRandomizer());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> solver.setRandomizer(null));
+    }
+
+    @Test
+    void testIsSetLinearSolverUsed() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        solver.setLinearSolverUsed(!RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER);
+
+        // check
+        assertEquals(!RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER, solver.isLinearSolverUsed());
+    }
+
+    @Test
+    void testIsSetHomogeneousLinearSolverUsed() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        solver.setHomogeneousLinearSolverUsed(!RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER);
+
+        // check
+        assertEquals(!RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER,
+                solver.isHomogeneousLinearSolverUsed());
+    }
+
+    @Test
+    void testIsSetPreliminarySolutionRefined() throws LockedException {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+
+        // set new value
+        solver.setPreliminarySolutionRefined(!RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS);
+
+        // check
+        assertEquals(!RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS,
+                solver.isPreliminarySolutionRefined());
+    }
+
+    @Test
+    void testSolve() throws LockedException, NotReadyException, RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+        final var errorRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        var numValid = 0;
+        for (var t = 0; t < TIMES; t++) {
+            final var numPositions = randomizer.nextInt(MIN_POSITIONS, MAX_POSITIONS);
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var positions = new Point2D[numPositions];
+            final var distances = new double[numPositions];
+            final var standardDeviations = new double[numPositions];
+            var numOutliers = 0;
+            for (var i = 0; i < numPositions; i++) {
+                positions[i] = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+                final var distance = position.distanceTo(positions[i]);
+                var error = 0.0;
+                if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                    error = errorRandomizer.nextDouble();
+                    numOutliers++;
+                }
+                distances[i] = Math.max(0.0, distance + error);
+                standardDeviations[i] = DISTANCE_STD;
+            }
+
+            final var solver = new PreemptiveRANSACLateration2DSolver();
+            final var p = solver.solve(positions, distances, standardDeviations, THRESHOLD, 3,
+                    true, true);
+
+            // check
+            assertFalse(solver.isLocked());
+            assertSame(p, solver.getEstimatedPosition());
+            assertNotNull(solver.getInliersData());
+            assertEquals(numPositions, solver.getInliersData().getResiduals().length);
+            assertTrue(solver.getInliersData().getNumInliers() >= numPositions - numOutliers
+                    || !position.equals(p, ABSOLUTE_ERROR));
+
+            if (!position.equals(p, ABSOLUTE_ERROR)) {
+                continue;
+            }
+
+            assertNotNull(solver.getCovariance());
+            numValid++;
+            break;
+        }
+
+        assertTrue(numValid > 0);
+    }
+
+    @Test
+    void testSolveWithSeededRandomizerIsReproducible() throws LockedException, NotReadyException,
+            RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+        final var errorRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        final var numPositions = randomizer.nextInt(MIN_POSITIONS, MAX_POSITIONS);
+        final var position = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+        final var positions = new Point2D[numPositions];
+        final var distances = new double[numPositions];
+        for (var i = 0; i < numPositions; i++) {
+            positions[i] = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            var error = 0.0;
+            if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                error = errorRandomizer.nextDouble();
+            }
+            distances[i] = Math.max(0.0, position.distanceTo(positions[i]) + error);
+        }
+
+        final var seed = randomizer.getInternalRandom().nextLong();
+        final var solver1 = new PreemptiveRANSACLateration2DSolver();
+        solver1.setRandomizer(new UniformRandomizer(new Random(seed)));
+        final var p1 = solver1.solve(positions, distances, null, THRESHOLD, 3, false,
+                false);
+
+        final var solver2 = new PreemptiveRANSACLateration2DSolver();
+        solver2.setRandomizer(new UniformRandomizer(new Random(seed)));
+        final var p2 = solver2.solve(positions, distances, null, THRESHOLD, 3, false,
+                false);
+
+        // check
+        assertEquals(p1, p2);
+    }
+
+    @Test
+    void testSolveWithInvalidValues() {
+        final var solver = new PreemptiveRANSACLateration2DSolver();
+        final var positions = new Point2D[]{new InhomogeneousPoint2D(), new InhomogeneousPoint2D(),
+                new InhomogeneousPoint2D()};
+        final var distances = new double[positions.length];
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(positions, distances, null,
+                0.0, 3, true, true));
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(positions, distances, null,
+                THRESHOLD, 2, true, true));
+
+        // force NotReadyException
+        assertThrows(NotReadyException.class, () -> solver.solve(null, distances, null,
+                THRESHOLD, 3, true, true));
+        assertThrows(NotReadyException.class, () -> solver.solve(positions, new double[1], null,
+                THRESHOLD, 3, true, true));
+        assertThrows(NotReadyException.class, () -> solver.solve(positions, distances, null,
+                THRESHOLD, 4, true, true));
+    }
+}
@@ -29,8 +29,10 @@ import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.NotReadyException;
 import com.irurueta.navigation.indoor.RangingFingerprint;
 import com.irurueta.navigation.indoor.RangingReading;
+import com.irurueta.navigation.indoor.ReadingBatch;
 import com.irurueta.navigation.indoor.WifiAccessPoint;
 import com.irurueta.navigation.indoor.WifiAccessPointLocated2D;
+import com.irurueta.navigation.indoor.radiosource.LORANSACRobustEstimator;
 import com.irurueta.navigation.lateration.RANSACRobustLateration2DSolver;
 import com.irurueta.navigation.lateration.RobustLaterationSolver;
 import com.irurueta.numerical.robust.RobustEstimatorException;
@@ -429,6 +431,87 @@ class RANSACRobustRangingPositionEstimator2DTest implements RobustRangingPositio
         assertThrows(IllegalArgumentException.class, () -> estimator.setThreshold(0.0));
     }
 
+    @Test
+    void testIsSetPreemptive() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertFalse(estimator.isPreemptive());
+
+        // set new value
+        estimator.setPreemptive(true);
+
+        // check
+        assertTrue(estimator.isPreemptive());
+    }
+
+    @Test
+    void testGetSetNumberOfHypotheses() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_NUMBER_OF_HYPOTHESES,
+                estimator.getNumberOfHypotheses());
+
+        // set new value
+        estimator.setNumberOfHypotheses(10);
+
+        // check
+        assertEquals(10, estimator.getNumberOfHypotheses());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setNumberOfHypotheses(0));
+    }
+
+    @Test
+    void testGetSetPreemptionBlockSize() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertEquals(PreemptiveRANSACLaterationSolver.DEFAULT_BLOCK_SIZE, estimator.getPreemptionBlockSize());
+
+        // set new value
+        estimator.setPreemptionBlockSize(10);
+
+        // check
+        assertEquals(10, estimator.getPreemptionBlockSize());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setPreemptionBlockSize(0));
+    }
+
+    @Test
+    void testIsSetLocallyOptimized() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertFalse(estimator.isLocallyOptimized());
+
+        // set new value
+        estimator.setLocallyOptimized(true);
+
+        // check
+        assertTrue(estimator.isLocallyOptimized());
+    }
+
+    @Test
+    void testGetSetLocalOptimizationIterations() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertEquals(LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS,
+                estimator.getLocalOptimizationIterations());
+
+        // set new value
+        estimator.setLocalOptimizationIterations(10);
+
+        // check
+        assertEquals(10, estimator.getLocalOptimizationIterations());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setLocalOptimizationIterations(0));
+    }
+
     @Test
     void testIsSetComputeAndKeepInliersEnabled() throws LockedException {
         final var estimator = new RANSACRobustRangingPositionEstimator2D();
@@ -499,6 +582,31 @@ class RANSACRobustRangingPositionEstimator2DTest implements RobustRangingPositio
         assertThrows(IllegalArgumentException.class, () -> estimator.setFingerprint(null));
     }
 
+    @Test
+    void testGetSetReadingBatch() throws LockedException {
+        final var estimator = new RANSACRobustRangingPositionEstimator2D();
+
+        // check default value
+        assertNull(estimator.getReadingBatch());
+
+        // set new value
+        final var batch = new ReadingBatch();
+        estimator.setReadingBatch(batch);
+
+        // check
+        assertSame(batch, estimator.getReadingBatch());
+        assertNull(estimator.getFingerprint());
+
+        // setting a fingerprint discards batch
+        final var fingerprint = new RangingFingerprint<WifiAccessPoint, RangingReading<WifiAccessPoint>>();
+        estimator.setFingerprint(fingerprint);
+        assertNull(estimator.getReadingBatch());
+        assertSame(fingerprint, estimator.getFingerprint());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setReadingBatch(null));
+    }
+
     @Test
     void testGetSetListener() throws LockedException {
         final var estimator = new RANSACRobustRangingPositionEstimator2D();
@@ -853,6 +961,207 @@ class RANSACRobustRangingPositionEstimator2DTest implements RobustRangingPositio
         assertThrows(NotReadyException.class, estimator::estimate);
     }
 
+    @Test
+    void testEstimatePreemptive() throws LockedException, RobustEstimatorException, NotReadyException {
+        final var randomizer = new UniformRandomizer();
+        final var errorRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        var numValidPosition = 0;
+        for (var t = 0; t < TIMES; t++) {
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var sources = new ArrayList<WifiAccessPointLocated2D>();
+            final var readings = new ArrayList<RangingReading<WifiAccessPoint>>();
+            double error;
+            for (var i = 0; i < numSources; i++) {
+                final var accessPointPosition = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var bssid = String.valueOf(i);
+
+                final var locatedAccessPoint = new WifiAccessPointLocated2D(bssid, FREQUENCY, accessPointPosition);
+                sources.add(locatedAccessPoint);
+
+                final var accessPoint = new WifiAccessPoint(bssid, FREQUENCY);
+
+                final var distance = position.distanceTo(accessPointPosition);
+
+                if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                    // outlier
+                    error = errorRandomizer.nextDouble();
+                } else {
+                    // inlier
+                    error = 0.0;
+                }
+                readings.add(new RangingReading<>(accessPoint, Math.max(0.0, distance + error), RANGING_STD));
+            }
+
+            final var fingerprint = new RangingFingerprint<>(readings);
+
+            final var estimator = new RANSACRobustRangingPositionEstimator2D(sources, fingerprint);
+            estimator.setResultRefined(true);
+            estimator.setPreemptive(true);
+
+            // check initial state
+            assertTrue(estimator.isReady());
+            assertFalse(estimator.isLocked());
+            assertNull(estimator.getEstimatedPosition());
+            assertNull(estimator.getInliersData());
+
+            final var p = estimator.estimate();
+
+            assertFalse(estimator.isLocked());
+            assertSame(p, estimator.getEstimatedPosition());
+            assertNotNull(estimator.getInliersData());
+            assertEquals(estimator.getDistances().length, estimator.getInliersData().getResiduals().length);
+
+            if (!position.equals(p, ABSOLUTE_ERROR)) {
+                continue;
+            }
+
+            assertNotNull(estimator.getCovariance());
+            numValidPosition++;
+            break;
+        }
+
+        assertTrue(numValidPosition > 0);
+    }
+
+    @Test
+    void testEstimateLocallyOptimized() throws LockedException, RobustEstimatorException, NotReadyException {
+        final var randomizer = new UniformRandomizer();
+        final var errorRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        var numValidPosition = 0;
+        for (var t = 0; t < TIMES; t++) {
+            final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+
+            final var position = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var sources = new ArrayList<WifiAccessPointLocated2D>();
+            final var readings = new ArrayList<RangingReading<WifiAccessPoint>>();
+            double error;
+            for (var i = 0; i < numSources; i++) {
+                final var accessPointPosition = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var bssid = String.valueOf(i);
+
+                final var locatedAccessPoint = new WifiAccessPointLocated2D(bssid, FREQUENCY, accessPointPosition);
+                sources.add(locatedAccessPoint);
+
+                final var accessPoint = new WifiAccessPoint(bssid, FREQUENCY);
+
+                final var distance = position.distanceTo(accessPointPosition);
+
+                if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                    // outlier
+                    error = errorRandomizer.nextDouble();
+                } else {
+                    // inlier
+                    error = 0.0;
+                }
+                readings.add(new RangingReading<>(accessPoint, Math.max(0.0, distance + error), RANGING_STD));
+            }
+
+            final var fingerprint = new RangingFingerprint<>(readings);
+
+            final var estimator = new RANSACRobustRangingPositionEstimator2D(sources, fingerprint);
+            estimator.setResultRefined(true);
+            estimator.setLocallyOptimized(true);
+
+            // check initial state
+            assertTrue(estimator.isReady());
+            assertFalse(estimator.isLocked());
+            assertNull(estimator.getEstimatedPosition());
+            assertNull(estimator.getInliersData());
+
+            final var p = estimator.estimate();
+
+            assertFalse(estimator.isLocked());
+            assertSame(p, estimator.getEstimatedPosition());
+            assertNotNull(estimator.getInliersData());
+            assertEquals(estimator.getDistances().length, estimator.getInliersData().getResiduals().length);
+
+            if (!position.equals(p, ABSOLUTE_ERROR)) {
+                continue;
+            }
+
+            assertNotNull(estimator.getCovariance());
+            numValidPosition++;
+            break;
+        }
+
+        assertTrue(numValidPosition > 0);
+    }
+
+    @Test
+    void testEstimateLocallyOptimizedNotifiesEndWhenFailing() throws LockedException {
+        final var randomizer = new UniformRandomizer();
+
+        final var position = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+        final var sources = new ArrayList<WifiAccessPointLocated2D>();
+        final var readings = new ArrayList<RangingReading<WifiAccessPoint>>();
+        for (var i = 0; i < MIN_SOURCES; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var bssid = String.valueOf(i);
+            sources.add(new WifiAccessPointLocated2D(bssid, FREQUENCY, accessPointPosition));
+            readings.add(new RangingReading<>(new WifiAccessPoint(bssid, FREQUENCY),
+                    position.distanceTo(accessPointPosition), RANGING_STD));
+        }
+        final var fingerprint = new RangingFingerprint<>(readings);
+
+        // start and end of estimation are counted
+        final var notifications = new int[2];
+        final var estimator = new RANSACRobustRangingPositionEstimator2D(sources, fingerprint,
+                new RobustRangingPositionEstimatorListener<>() {
+                    @Override
+                    public void onEstimateStart(final RobustRangingPositionEstimator<Point2D> estimator) {
+                        notifications[0]++;
+                    }
+
+                    @Override
+                    public void onEstimateEnd(final RobustRangingPositionEstimator<Point2D> estimator) {
+                        notifications[1]++;
+                    }
+
+                    @Override
+                    public void onEstimateNextIteration(final RobustRangingPositionEstimator<Point2D> estimator,
+                                                        final int iteration) {
+                        // not needed
+                    }
+
+                    @Override
+                    public void onEstimateProgressChange(final RobustRangingPositionEstimator<Point2D> estimator,
+                                                         final float progress) {
+                        // not needed
+                    }
+                });
+        estimator.localOptimizationSolver = new LORANSACLateration2DSolver() {
+            @Override
+            protected double[] findBestHypothesis(
+                    final Point2D[] positions, final double[] distances, final double[] distanceStandardDeviations,
+                    final double[] coordinates, final double threshold, final int subsetSize)
+                    throws RobustEstimatorException {
+                throw new RobustEstimatorException();
+            }
+        };
+        estimator.setLocallyOptimized(true);
+
+        assertThrows(RobustEstimatorException.class, estimator::estimate);
+
+        // check
+        assertEquals(1, notifications[0]);
+        assertEquals(1, notifications[1]);
+        assertFalse(estimator.isLocked());
+    }
+
     @Test
     void testEstimateWithInlierError() throws LockedException, NotReadyException, RobustEstimatorException,
             AlgebraException {
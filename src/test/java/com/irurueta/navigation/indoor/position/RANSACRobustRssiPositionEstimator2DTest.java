@@ -21,12 +21,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.irurueta.algebra.AlgebraException;
+import com.irurueta.algebra.Matrix;
 import com.irurueta.algebra.NonSymmetricPositiveDefiniteMatrixException;
 import com.irurueta.geometry.Accuracy2D;
 import com.irurueta.geometry.InhomogeneousPoint2D;
 import com.irurueta.geometry.Point2D;
 import com.irurueta.navigation.LockedException;
 import com.irurueta.navigation.NotReadyException;
+import com.irurueta.navigation.indoor.PositionEstimationCache;
 import com.irurueta.navigation.indoor.RssiFingerprint;
 import com.irurueta.navigation.indoor.RssiReading;
 import com.irurueta.navigation.indoor.Utils;
@@ -754,6 +756,81 @@ class RANSACRobustRssiPositionEstimator2DTest implements RobustRssiPositionEstim
         assertThrows(IllegalArgumentException.class, () -> estimator.setPreliminarySubsetSize(2));
     }
 
+    @Test
+    void testGetSetCache() throws LockedException {
+        final var estimator = new RANSACRobustRssiPositionEstimator2D();
+
+        // check default value
+        assertNull(estimator.getCache());
+        assertFalse(estimator.isEstimationCached());
+
+        // set new value
+        final var cache = new PositionEstimationCache<Point2D>();
+        estimator.setCache(cache);
+
+        // check
+        assertSame(cache, estimator.getCache());
+    }
+
+    @Test
+    void testEstimateWithCache() throws LockedException, RobustEstimatorException, NotReadyException,
+            AlgebraException {
+        final var randomizer = new UniformRandomizer();
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        final var readings = new ArrayList<RssiReading<WifiAccessPoint>>();
+        for (var i = 0; i < MIN_SOURCES; i++) {
+            final var position = new InhomogeneousPoint2D(randomizer.nextDouble(MIN_POS, MAX_POS),
+                    randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var bssid = String.valueOf(i);
+            sources.add(new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY,
+                    randomizer.nextDouble(MIN_RSSI, MAX_RSSI), position));
+            readings.add(new RssiReading<>(new WifiAccessPoint(bssid, FREQUENCY),
+                    randomizer.nextDouble(MIN_RSSI, MAX_RSSI)));
+        }
+        final var fingerprint = new RssiFingerprint<>(readings);
+
+        final var estimator = new RANSACRobustRssiPositionEstimator2D(sources, fingerprint, this);
+
+        // cache estimation of a previous scan having the same signature
+        final var cache = new PositionEstimationCache<Point2D>();
+        final var cachedPosition = new InhomogeneousPoint2D(1.0, 2.0);
+        final var cachedCovariance = Matrix.identity(2, 2);
+        cache.put(new RssiFingerprint<>(readings), cachedPosition, cachedCovariance);
+        estimator.setCache(cache);
+
+        reset();
+        final var p = estimator.estimate();
+
+        // check that robust estimation is skipped
+        assertEquals(cachedPosition, p);
+        assertSame(p, estimator.getEstimatedPosition());
+        assertEquals(cachedCovariance, estimator.getCovariance());
+        assertNull(estimator.getInliersData());
+        assertTrue(estimator.isEstimationCached());
+        assertEquals(1, cache.getHits());
+
+        // listener is notified even if estimation is reused
+        assertEquals(1, estimateStart);
+        assertEquals(1, estimateEnd);
+
+        // cached position is copied so that it cannot be modified
+        assertNotSame(cachedPosition, p);
+        p.setInhomogeneousCoordinates(0.0, 0.0);
+        assertEquals(new InhomogeneousPoint2D(1.0, 2.0), cache.get(new RssiFingerprint<>(readings)).getPosition());
+
+        // setting sources, venue model or configuration invalidates cached estimations
+        estimator.setSources(sources);
+        assertEquals(0, cache.size());
+
+        cache.put(new RssiFingerprint<>(readings), cachedPosition, cachedCovariance);
+        estimator.setVenueModel(estimator.getVenueModel());
+        assertEquals(0, cache.size());
+
+        cache.put(new RssiFingerprint<>(readings), cachedPosition, cachedCovariance);
+        estimator.setConfig(estimator.getConfig());
+        assertEquals(0, cache.size());
+    }
+
     @Test
     void testEstimate() throws LockedException, RobustEstimatorException, NotReadyException,
             NonSymmetricPositiveDefiniteMatrixException {
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.position;
+
+import com.irurueta.navigation.LockedException;
+import com.irurueta.navigation.indoor.SerializationHelper;
+import com.irurueta.navigation.lateration.RobustLaterationSolver;
+import com.irurueta.numerical.robust.RobustEstimatorMethod;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RobustPositionEstimatorConfigTest {
+
+    private static final double THRESHOLD = 0.5;
+
+    private static final double FALLBACK_DISTANCE_STANDARD_DEVIATION = 2.0;
+
+    private static final float PROGRESS_DELTA = 0.1f;
+
+    private static final double CONFIDENCE = 0.8;
+
+    private static final int MAX_ITERATIONS = 100;
+
+    @Test
+    void testConstructor() {
+        // test empty constructor
+        var config = new RobustPositionEstimatorConfig();
+
+        // check default values
+        assertEquals(RobustPositionEstimator.DEFAULT_ROBUST_METHOD, config.getRobustMethod());
+        assertEquals(RobustPositionEstimator.DEFAULT_USE_RADIO_SOURCE_POSITION_COVARIANCE,
+                config.isRadioSourcePositionCovarianceUsed());
+        assertEquals(RobustPositionEstimator.DEFAULT_EVENLY_DISTRIBUTE_READINGS,
+                config.getEvenlyDistributeReadings());
+        assertEquals(RobustPositionEstimator.FALLBACK_DISTANCE_STANDARD_DEVIATION,
+                config.getFallbackDistanceStandardDeviation(), 0.0);
+        assertEquals(RobustLaterationSolver.DEFAULT_PROGRESS_DELTA, config.getProgressDelta(), 0.0);
+        assertEquals(RobustLaterationSolver.DEFAULT_CONFIDENCE, config.getConfidence(), 0.0);
+        assertEquals(RobustLaterationSolver.DEFAULT_MAX_ITERATIONS, config.getMaxIterations());
+        assertEquals(RobustLaterationSolver.DEFAULT_REFINE_RESULT, config.isResultRefined());
+        assertEquals(RobustLaterationSolver.DEFAULT_KEEP_COVARIANCE, config.isCovarianceKept());
+        assertEquals(RobustLaterationSolver.DEFAULT_USE_LINEAR_SOLVER, config.isLinearSolverUsed());
+        assertEquals(RobustLaterationSolver.DEFAULT_USE_HOMOGENEOUS_LINEAR_SOLVER,
+                config.isHomogeneousLinearSolverUsed());
+        assertEquals(RobustLaterationSolver.DEFAULT_REFINE_PRELIMINARY_SOLUTIONS,
+                config.isPreliminarySolutionRefined());
+        assertEquals(0, config.getPreliminarySubsetSize());
+        assertNull(config.getThreshold());
+        assertNull(config.getStopThreshold());
+        assertEquals(RobustPositionEstimatorConfig.DEFAULT, config);
+
+        // test constructor with method
+        config = new RobustPositionEstimatorConfig(RobustEstimatorMethod.RANSAC);
+
+        // check default values
+        assertEquals(RobustEstimatorMethod.RANSAC, config.getRobustMethod());
+        assertNull(config.getThreshold());
+        assertNotEquals(RobustPositionEstimatorConfig.DEFAULT, config);
+
+        // test constructor with all values
+        config = createConfig(RobustEstimatorMethod.MSAC);
+
+        // check
+        assertEquals(RobustEstimatorMethod.MSAC, config.getRobustMethod());
+        assertFalse(config.isRadioSourcePositionCovarianceUsed());
+        assertFalse(config.getEvenlyDistributeReadings());
+        assertEquals(FALLBACK_DISTANCE_STANDARD_DEVIATION, config.getFallbackDistanceStandardDeviation(), 0.0);
+        assertEquals(PROGRESS_DELTA, config.getProgressDelta(), 0.0);
+        assertEquals(CONFIDENCE, config.getConfidence(), 0.0);
+        assertEquals(MAX_ITERATIONS, config.getMaxIterations());
+        assertFalse(config.isResultRefined());
+        assertFalse(config.isCovarianceKept());
+        assertFalse(config.isLinearSolverUsed());
+        assertTrue(config.isHomogeneousLinearSolverUsed());
+        assertFalse(config.isPreliminarySolutionRefined());
+        assertEquals(4, config.getPreliminarySubsetSize());
+        assertEquals(THRESHOLD, config.getThreshold(), 0.0);
+        assertNull(config.getStopThreshold());
+        assertEquals(createConfig(RobustEstimatorMethod.MSAC), config);
+        assertEquals(createConfig(RobustEstimatorMethod.MSAC).hashCode(), config.hashCode());
+
+        // test constructor with stop threshold
+        config = createConfig(RobustEstimatorMethod.LMEDS);
+
+        // check
+        assertEquals(RobustEstimatorMethod.LMEDS, config.getRobustMethod());
+        assertNull(config.getThreshold());
+        assertEquals(THRESHOLD, config.getStopThreshold(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, -1.0f, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, PROGRESS_DELTA, 2.0, MAX_ITERATIONS,
+                true, true, true, false, true, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, 0,
+                true, true, true, false, true, 0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, -1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, 0.0, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.LMEDS, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, null, 0.0));
+
+        // force IllegalArgumentException when threshold does not match robust method
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.RANSAC, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, null, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.LMEDS, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, THRESHOLD, null));
+        assertThrows(IllegalArgumentException.class, () -> new RobustPositionEstimatorConfig(
+                RobustEstimatorMethod.PROMEDS, true, true, 1.0, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                true, true, true, false, true, 0, THRESHOLD, null));
+    }
+
+    @Test
+    void testGetSetConfig() throws LockedException {
+        for (final var method : RobustEstimatorMethod.values()) {
+            final var config = createConfig(method);
+
+            final var estimator = RobustRangingPositionEstimator2D.create(method);
+            estimator.setConfig(config);
+
+            // check
+            assertEquals(config, estimator.getConfig());
+            assertFalse(estimator.isRadioSourcePositionCovarianceUsed());
+            assertFalse(estimator.getEvenlyDistributeReadings());
+            assertEquals(FALLBACK_DISTANCE_STANDARD_DEVIATION, estimator.getFallbackDistanceStandardDeviation(),
+                    0.0);
+            assertEquals(PROGRESS_DELTA, estimator.getProgressDelta(), 0.0);
+            assertEquals(CONFIDENCE, estimator.getConfidence(), 0.0);
+            assertEquals(MAX_ITERATIONS, estimator.getMaxIterations());
+            assertFalse(estimator.isResultRefined());
+            assertFalse(estimator.isCovarianceKept());
+            assertFalse(estimator.isLinearSolverUsed());
+            assertTrue(estimator.isHomogeneousLinearSolverUsed());
+            assertFalse(estimator.isPreliminarySolutionRefined());
+            assertEquals(4, estimator.getPreliminarySubsetSize());
+
+            // force IllegalArgumentException
+            final var otherMethod = method == RobustEstimatorMethod.RANSAC
+                    ? RobustEstimatorMethod.MSAC : RobustEstimatorMethod.RANSAC;
+            assertThrows(IllegalArgumentException.class, () -> estimator.setConfig(createConfig(otherMethod)));
+            assertThrows(IllegalArgumentException.class, () -> estimator.setConfig(null));
+        }
+
+        // preliminary subset size is at least the minimum number of required sources
+        final var estimator = RobustRssiPositionEstimator3D.create(RobustPositionEstimatorConfig.DEFAULT);
+        assertEquals(estimator.getMinRequiredSources(), estimator.getPreliminarySubsetSize());
+
+        // threshold is kept when not defined in configuration
+        final var ransacEstimator = new RANSACRobustRangingPositionEstimator2D();
+        ransacEstimator.setThreshold(THRESHOLD);
+        ransacEstimator.setConfig(new RobustPositionEstimatorConfig(RobustEstimatorMethod.RANSAC));
+        assertEquals(THRESHOLD, ransacEstimator.getThreshold(), 0.0);
+    }
+
+    @Test
+    void testCreate() {
+        final var config = createConfig(RobustEstimatorMethod.PROSAC);
+
+        assertEquals(config, RobustRangingPositionEstimator2D.create(config).getConfig());
+        assertEquals(config, RobustRangingPositionEstimator3D.create(config).getConfig());
+        assertEquals(config, RobustRssiPositionEstimator2D.create(config).getConfig());
+        assertEquals(config, RobustRssiPositionEstimator3D.create(config).getConfig());
+        assertEquals(config, RobustRangingAndRssiPositionEstimator2D.create(config).getConfig());
+        assertEquals(config, RobustRangingAndRssiPositionEstimator3D.create(config).getConfig());
+        assertEquals(config, RobustMixedPositionEstimator2D.create(config).getConfig());
+        assertEquals(config, RobustMixedPositionEstimator3D.create(config).getConfig());
+        assertInstanceOf(PROSACRobustMixedPositionEstimator3D.class, RobustMixedPositionEstimator3D.create(config));
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class,
+                () -> RobustRangingPositionEstimator2D.create((RobustPositionEstimatorConfig) null));
+    }
+
+    @Test
+    void testSerializeDeserialize() throws IOException, ClassNotFoundException {
+        final var config1 = createConfig(RobustEstimatorMethod.LMEDS);
+
+        final var bytes = SerializationHelper.serialize(config1);
+        final var config2 = SerializationHelper.<RobustPositionEstimatorConfig>deserialize(bytes);
+
+        // check
+        assertNotSame(config1, config2);
+        assertEquals(config1, config2);
+    }
+
+    private static RobustPositionEstimatorConfig createConfig(final RobustEstimatorMethod method) {
+        final var stopThreshold = method == RobustEstimatorMethod.LMEDS || method == RobustEstimatorMethod.PROMEDS;
+        return new RobustPositionEstimatorConfig(method, false, false,
+                FALLBACK_DISTANCE_STANDARD_DEVIATION, PROGRESS_DELTA, CONFIDENCE, MAX_ITERATIONS,
+                false, false, false, true, false, 4, stopThreshold ? null : THRESHOLD,
+                stopThreshold ? THRESHOLD : null);
+    }
+}
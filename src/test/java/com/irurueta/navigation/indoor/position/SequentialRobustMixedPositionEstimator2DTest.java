@@ -1737,6 +1737,56 @@ class SequentialRobustMixedPositionEstimator2DTest implements SequentialRobustMi
         assertThrows(IllegalArgumentException.class, () -> estimator.setRssiPreliminarySubsetSize(2));
     }
 
+    @Test
+    void testGetSetRangingConfig() throws LockedException {
+        final var estimator = new SequentialRobustMixedPositionEstimator2D();
+
+        // check default value
+        final var defaultConfig = estimator.getRangingConfig();
+        assertEquals(estimator.getRangingRobustMethod(), defaultConfig.getRobustMethod());
+        assertEquals(estimator.getRangingConfidence(), defaultConfig.getConfidence(), 0.0);
+        assertNull(defaultConfig.getThreshold());
+
+        // set new value
+        final var config = new RobustPositionEstimatorConfig(RobustEstimatorMethod.MSAC, false, false,
+                2.0, estimator.getProgressDelta(), 0.8, 100, estimator.isResultRefined(),
+                estimator.isCovarianceKept(), false, true, false, 4, 0.5, null);
+        estimator.setRangingConfig(config);
+
+        // check
+        assertEquals(config, estimator.getRangingConfig());
+        assertEquals(RobustEstimatorMethod.MSAC, estimator.getRangingRobustMethod());
+        assertEquals(0.8, estimator.getRangingConfidence(), 0.0);
+        assertEquals(100, estimator.getRangingMaxIterations());
+        assertEquals(0.5, estimator.getRangingThreshold(), 0.0);
+        assertEquals(defaultConfig, estimator.getRssiConfig());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setRangingConfig(null));
+    }
+
+    @Test
+    void testGetSetRssiConfig() throws LockedException {
+        final var estimator = new SequentialRobustMixedPositionEstimator2D();
+
+        // set new value
+        final var config = new RobustPositionEstimatorConfig(RobustEstimatorMethod.LMEDS);
+        estimator.setRssiConfig(config);
+
+        // check
+        assertEquals(RobustEstimatorMethod.LMEDS, estimator.getRssiRobustMethod());
+        assertEquals(estimator.getMinRequiredSources(), estimator.getRssiPreliminarySubsetSize());
+        assertNull(estimator.getRssiThreshold());
+
+        // threshold of LMedS is kept as stop threshold
+        estimator.setRssiThreshold(0.5);
+        assertNull(estimator.getRssiConfig().getThreshold());
+        assertEquals(0.5, estimator.getRssiConfig().getStopThreshold(), 0.0);
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setRssiConfig(null));
+    }
+
     @Test
     void testGetSetRangingThreshold() throws LockedException {
         final var estimator = new SequentialRobustMixedPositionEstimator2D();
@@ -7825,6 +7875,80 @@ class SequentialRobustMixedPositionEstimator2DTest implements SequentialRobustMi
         assertThrows(NotReadyException.class, estimator::estimate);
     }
 
+    @Test
+    void testEstimateKeepsInternalEstimators() throws LockedException, NotReadyException,
+            RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+
+        final var numSources = randomizer.nextInt(MIN_SOURCES, MAX_SOURCES);
+
+        final var position = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+        final var pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        final var readings = new ArrayList<Reading<WifiAccessPoint>>();
+        for (var i = 0; i < numSources; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            final var transmittedPower = Utils.dBmToPower(transmittedPowerdBm);
+            final var bssid = String.valueOf(i);
+
+            final var locatedAccessPoint = new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY,
+                    transmittedPowerdBm, Math.sqrt(TX_POWER_VARIANCE), pathLossExponent,
+                    Math.sqrt(PATH_LOSS_EXPONENT_VARIANCE), accessPointPosition);
+            sources.add(locatedAccessPoint);
+
+            final var accessPoint = new WifiAccessPoint(bssid, FREQUENCY);
+
+            final var distance = position.distanceTo(accessPointPosition);
+
+            final var rssi = Utils.powerTodBm(receivedPower(transmittedPower, distance, pathLossExponent));
+
+            readings.add(new RangingAndRssiReading<>(accessPoint, distance, rssi, RANGING_STD,
+                    Math.sqrt(RX_POWER_VARIANCE)));
+        }
+
+        final var fingerprint = new Fingerprint<>(readings);
+
+        final var sourceQualityScores = new double[numSources];
+        final var fingerprintReadingsQualityScores = new double[numSources];
+        final var estimator = new SequentialRobustMixedPositionEstimator2D(sourceQualityScores,
+                fingerprintReadingsQualityScores, sources, fingerprint);
+
+        // check initial state
+        assertNull(estimator.rangingEstimator);
+        assertNull(estimator.rssiEstimator);
+
+        estimator.estimate();
+
+        final var rangingEstimator = estimator.rangingEstimator;
+        final var rssiEstimator = estimator.rssiEstimator;
+        assertNotNull(rangingEstimator);
+        assertNotNull(rssiEstimator);
+
+        // internal estimators are kept on subsequent estimations
+        estimator.estimate();
+
+        assertSame(rangingEstimator, estimator.rangingEstimator);
+        assertSame(rssiEstimator, estimator.rssiEstimator);
+        assertEquals(numSources, estimator.getDistances().length);
+
+        // internal estimators are built again when robust method changes
+        estimator.setRangingRobustMethod(RobustEstimatorMethod.RANSAC);
+        estimator.estimate();
+
+        assertNotSame(rangingEstimator, estimator.rangingEstimator);
+        assertEquals(RobustEstimatorMethod.RANSAC, estimator.rangingEstimator.getMethod());
+        assertSame(rssiEstimator, estimator.rssiEstimator);
+
+        // internal estimators are built again when threshold is reset to its default value
+        estimator.setRssiThreshold(null);
+        assertNull(estimator.rssiEstimator);
+    }
+
     @Override
     public void onEstimateStart(final SequentialRobustMixedPositionEstimator<Point2D> estimator) {
         estimateStart++;
@@ -31,6 +31,7 @@ import org.junit.jupiter.api.Test;
 import java.text.MessageFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -1966,6 +1967,61 @@ class SequentialRobustRangingAndRssiPositionEstimator2DTest implements
         assertThrows(NotReadyException.class, estimator::estimate);
     }
 
+    @Test
+    void testEstimateWithThresholds() throws LockedException, NotReadyException, RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+
+        final var position = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+        final var pathLossExponent = randomizer.nextDouble(MIN_PATH_LOSS_EXPONENT, MAX_PATH_LOSS_EXPONENT);
+
+        final var sources = new ArrayList<WifiAccessPointWithPowerAndLocated2D>();
+        final var readings = new ArrayList<RangingAndRssiReading<WifiAccessPoint>>();
+        final var sourceQualityScores = new double[MIN_SOURCES];
+        final var fingerprintReadingsQualityScores = new double[MIN_SOURCES];
+        for (var i = 0; i < MIN_SOURCES; i++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+            final var transmittedPower = Utils.dBmToPower(transmittedPowerdBm);
+            final var bssid = String.valueOf(i);
+
+            sources.add(new WifiAccessPointWithPowerAndLocated2D(bssid, FREQUENCY, transmittedPowerdBm,
+                    Math.sqrt(TX_POWER_VARIANCE), pathLossExponent, Math.sqrt(PATH_LOSS_EXPONENT_VARIANCE),
+                    accessPointPosition));
+
+            final var distance = position.distanceTo(accessPointPosition);
+            final var rssi = Utils.powerTodBm(receivedPower(transmittedPower, distance, pathLossExponent));
+            readings.add(new RangingAndRssiReading<>(new WifiAccessPoint(bssid, FREQUENCY), distance, rssi,
+                    RANGING_STD, Math.sqrt(RX_POWER_VARIANCE)));
+        }
+
+        Arrays.fill(sourceQualityScores, 1.0);
+        Arrays.fill(fingerprintReadingsQualityScores, 1.0);
+
+        final var estimator = new SequentialRobustRangingAndRssiPositionEstimator2D(sourceQualityScores,
+                fingerprintReadingsQualityScores, sources, new RangingAndRssiFingerprint<>(readings));
+        estimator.setRangingThreshold(2.0);
+        estimator.setRssiThreshold(3.0);
+
+        estimator.estimate();
+
+        // check that thresholds are used by internal estimators
+        assertEquals(2.0, estimator.rangingEstimator.getRobustThreshold(), 0.0);
+        assertEquals(3.0, estimator.rssiEstimator.getRobustThreshold(), 0.0);
+        assertEquals(2.0, estimator.getRangingConfig().getThreshold(), 0.0);
+        assertEquals(3.0, estimator.getRssiConfig().getThreshold(), 0.0);
+
+        // removing thresholds restores default ones
+        estimator.setRangingThreshold(null);
+        estimator.setRssiThreshold(null);
+
+        // check
+        assertNull(estimator.rangingEstimator);
+        assertNull(estimator.rssiEstimator);
+    }
+
     @Test
     void testEstimateMultipleReadingsPerSource() throws LockedException, NotReadyException, RobustEstimatorException,
             NonSymmetricPositiveDefiniteMatrixException {
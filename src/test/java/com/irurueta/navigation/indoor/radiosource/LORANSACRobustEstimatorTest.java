@@ -0,0 +1,294 @@
+/*
+ * Copyright (C) 2019 Alberto Irurueta Carro (alberto@irurueta.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.irurueta.navigation.indoor.radiosource;
+
+import com.irurueta.numerical.LockedException;
+import com.irurueta.numerical.NotReadyException;
+import com.irurueta.numerical.robust.RANSACRobustEstimator;
+import com.irurueta.numerical.robust.RANSACRobustEstimatorListener;
+import com.irurueta.numerical.robust.RobustEstimator;
+import com.irurueta.numerical.robust.RobustEstimatorException;
+import com.irurueta.numerical.robust.RobustEstimatorMethod;
+import com.irurueta.statistics.GaussianRandomizer;
+import com.irurueta.statistics.UniformRandomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LORANSACRobustEstimatorTest implements RANSACRobustEstimatorListener<double[]> {
+
+    private static final int NUM_SAMPLES = 200;
+
+    private static final double MIN_VALUE = -10.0;
+    private static final double MAX_VALUE = 10.0;
+
+    private static final int PERCENTAGE_OUTLIERS = 40;
+
+    private static final double STD_OUTLIER_ERROR = 50.0;
+
+    private static final double INLIER_ERROR_STD = 1e-3;
+
+    private static final double THRESHOLD = 1e-2;
+
+    private static final double ABSOLUTE_ERROR = 1e-2;
+
+    private static final int TIMES = 10;
+
+    private double[] x;
+
+    private double[] y;
+
+    private boolean ready = true;
+
+    private int estimateStart;
+    private int estimateEnd;
+    private int estimateNextIteration;
+    private int estimateProgressChange;
+
+    @Test
+    void testConstructor() {
+        var estimator = new LORANSACRobustEstimator<double[]>();
+
+        // check default values
+        assertNull(estimator.getListener());
+        assertEquals(LORANSACRobustEstimator.DEFAULT_LOCAL_OPTIMIZATION_ITERATIONS,
+                estimator.getLocalOptimizationIterations());
+        assertEquals(0, estimator.getNumberOfLocalOptimizations());
+        assertEquals(0, estimator.getNIters());
+        assertNull(estimator.getBestResult());
+        assertNull(estimator.getBestInliersData());
+        assertNull(estimator.getInliersData());
+        assertEquals(RobustEstimatorMethod.RANSAC, estimator.getMethod());
+        assertFalse(estimator.isLocked());
+
+        // test constructor with listener
+        estimator = new LORANSACRobustEstimator<>(this);
+
+        // check
+        assertSame(this, estimator.getListener());
+        assertInstanceOf(RANSACRobustEstimator.class, estimator);
+    }
+
+    @Test
+    void testGetSetLocalOptimizationIterations() throws LockedException {
+        final var estimator = new LORANSACRobustEstimator<double[]>();
+
+        // set new value
+        estimator.setLocalOptimizationIterations(10);
+
+        // check
+        assertEquals(10, estimator.getLocalOptimizationIterations());
+
+        // force IllegalArgumentException
+        assertThrows(IllegalArgumentException.class, () -> estimator.setLocalOptimizationIterations(0));
+    }
+
+    @Test
+    void testEstimate() throws LockedException, NotReadyException, RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+        final var inlierRandomizer = new GaussianRandomizer(0.0, INLIER_ERROR_STD);
+        final var outlierRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        for (var t = 0; t < TIMES; t++) {
+            // line y = a * x + b
+            final var a = randomizer.nextDouble(MIN_VALUE, MAX_VALUE);
+            final var b = randomizer.nextDouble(MIN_VALUE, MAX_VALUE);
+
+            x = new double[NUM_SAMPLES];
+            y = new double[NUM_SAMPLES];
+            var numOutliers = 0;
+            for (var i = 0; i < NUM_SAMPLES; i++) {
+                x[i] = randomizer.nextDouble(MIN_VALUE, MAX_VALUE);
+                y[i] = a * x[i] + b;
+                if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                    y[i] += outlierRandomizer.nextDouble();
+                    numOutliers++;
+                } else {
+                    y[i] += inlierRandomizer.nextDouble();
+                }
+            }
+
+            final var estimator = new LORANSACRobustEstimator<>(this);
+            estimator.setComputeAndKeepInliersEnabled(true);
+            estimator.setComputeAndKeepResidualsEnabled(true);
+            reset();
+
+            final var result = estimator.estimate();
+
+            // check
+            assertEquals(a, result[0], ABSOLUTE_ERROR);
+            assertEquals(b, result[1], ABSOLUTE_ERROR);
+            assertSame(result, estimator.getBestResult());
+            assertFalse(estimator.isLocked());
+            assertTrue(estimator.getNumberOfLocalOptimizations() > 0);
+            assertTrue(estimator.getNIters() > 0);
+            assertTrue(estimator.getNIters() <= estimator.getMaxIterations());
+
+            final var inliersData = estimator.getInliersData();
+            assertSame(inliersData, estimator.getBestInliersData());
+            assertNotNull(inliersData.getInliers());
+            assertNotNull(inliersData.getResiduals());
+            assertEquals(NUM_SAMPLES, inliersData.getResiduals().length);
+            assertTrue(inliersData.getNumInliers() >= NUM_SAMPLES - numOutliers - NUM_SAMPLES / 20);
+            assertEquals(inliersData.getNumInliers(), inliersData.getInliers().cardinality());
+
+            assertEquals(1, estimateStart);
+            assertEquals(1, estimateEnd);
+            assertEquals(estimator.getNIters(), estimateNextIteration);
+            assertTrue(estimateProgressChange >= 0);
+        }
+    }
+
+    @Test
+    void testEstimateRequiresFewerIterationsThanRansac() throws LockedException, NotReadyException,
+            RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+        final var inlierRandomizer = new GaussianRandomizer(0.0, INLIER_ERROR_STD);
+        final var outlierRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        x = new double[NUM_SAMPLES];
+        y = new double[NUM_SAMPLES];
+        for (var i = 0; i < NUM_SAMPLES; i++) {
+            x[i] = randomizer.nextDouble(MIN_VALUE, MAX_VALUE);
+            y[i] = x[i] + 1.0;
+            if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                y[i] += outlierRandomizer.nextDouble();
+            } else {
+                y[i] += 5.0 * inlierRandomizer.nextDouble();
+            }
+        }
+
+        var loIterations = 0;
+        var ransacIterations = 0;
+        for (var t = 0; t < TIMES; t++) {
+            final var loEstimator = new LORANSACRobustEstimator<>(this);
+            loEstimator.estimate();
+            loIterations += loEstimator.getNIters();
+
+            final var ransacEstimator = new RANSACRobustEstimator<>(this);
+            ransacEstimator.estimate();
+            ransacIterations += ransacEstimator.getNIters();
+        }
+
+        assertTrue(loIterations <= ransacIterations);
+    }
+
+    @Test
+    void testEstimateWithInvalidValues() throws LockedException {
+        // force NotReadyException
+        final var estimator1 = new LORANSACRobustEstimator<double[]>();
+        assertThrows(NotReadyException.class, estimator1::estimate);
+
+        ready = false;
+        final var estimator2 = new LORANSACRobustEstimator<>(this);
+        assertThrows(NotReadyException.class, estimator2::estimate);
+
+        // force RobustEstimatorException when no solution is found
+        ready = true;
+        x = new double[]{0.0, 0.0, 0.0};
+        y = new double[]{0.0, 1.0, 2.0};
+        final var estimator3 = new LORANSACRobustEstimator<>(this);
+        estimator3.setMaxIterations(10);
+        assertThrows(RobustEstimatorException.class, estimator3::estimate);
+    }
+
+    @Override
+    public double getThreshold() {
+        return THRESHOLD;
+    }
+
+    @Override
+    public int getTotalSamples() {
+        return x.length;
+    }
+
+    @Override
+    public int getSubsetSize() {
+        return 2;
+    }
+
+    @Override
+    public void estimatePreliminarSolutions(final int[] samplesIndices, final List<double[]> solutions) {
+        // least squares line fitting of provided samples
+        final var n = samplesIndices.length;
+        var sx = 0.0;
+        var sy = 0.0;
+        var sxx = 0.0;
+        var sxy = 0.0;
+        for (final var i : samplesIndices) {
+            sx += x[i];
+            sy += y[i];
+            sxx += x[i] * x[i];
+            sxy += x[i] * y[i];
+        }
+        final var det = n * sxx - sx * sx;
+        if (Math.abs(det) < 1e-12) {
+            return;
+        }
+        final var a = (n * sxy - sx * sy) / det;
+        final var b = (sy - a * sx) / n;
+        solutions.add(new double[]{a, b});
+    }
+
+    @Override
+    public double computeResidual(final double[] currentEstimation, final int i) {
+        return Math.abs(currentEstimation[0] * x[i] + currentEstimation[1] - y[i]);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onEstimateStart(final RobustEstimator<double[]> estimator) {
+        estimateStart++;
+        checkLocked(estimator);
+    }
+
+    @Override
+    public void onEstimateEnd(final RobustEstimator<double[]> estimator) {
+        estimateEnd++;
+        checkLocked(estimator);
+    }
+
+    @Override
+    public void onEstimateNextIteration(final RobustEstimator<double[]> estimator, final int iteration) {
+        estimateNextIteration++;
+        checkLocked(estimator);
+    }
+
+    @Override
+    public void onEstimateProgressChange(final RobustEstimator<double[]> estimator, final float progress) {
+        estimateProgressChange++;
+        checkLocked(estimator);
+    }
+
+    private void reset() {
+        estimateStart = estimateEnd = estimateNextIteration = estimateProgressChange = 0;
+    }
+
+    private static void checkLocked(final RobustEstimator<double[]> estimator) {
+        assertTrue(estimator.isLocked());
+        if (estimator instanceof LORANSACRobustEstimator<double[]> loEstimator) {
+            assertThrows(LockedException.class, () -> loEstimator.setLocalOptimizationIterations(1));
+            assertThrows(LockedException.class, () -> loEstimator.setConfidence(0.5));
+            assertThrows(LockedException.class, loEstimator::estimate);
+        }
+    }
+}
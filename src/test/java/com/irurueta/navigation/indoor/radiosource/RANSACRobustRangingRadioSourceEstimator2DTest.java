@@ -449,6 +449,22 @@ class RANSACRobustRangingRadioSourceEstimator2DTest implements
                 estimator.isComputeAndKeepResidualsEnabled());
     }
 
+    @Test
+    void testIsSetLocallyOptimized() throws LockedException {
+        final var estimator = new RANSACRobustRangingRadioSourceEstimator2D<WifiAccessPoint>();
+
+        // check default value
+        assertEquals(RANSACRobustRangingRadioSourceEstimator2D.DEFAULT_LOCALLY_OPTIMIZED,
+                estimator.isLocallyOptimized());
+
+        // set new value
+        estimator.setLocallyOptimized(!RANSACRobustRangingRadioSourceEstimator2D.DEFAULT_LOCALLY_OPTIMIZED);
+
+        // check
+        assertEquals(!RANSACRobustRangingRadioSourceEstimator2D.DEFAULT_LOCALLY_OPTIMIZED,
+                estimator.isLocallyOptimized());
+    }
+
     @Test
     void testGetSetInitialPosition() throws LockedException {
         final var randomizer = new UniformRandomizer();
@@ -769,6 +785,97 @@ class RANSACRobustRangingRadioSourceEstimator2DTest implements
         assertThrows(NotReadyException.class, estimator::estimate);
     }
 
+    @Test
+    void testEstimateLocallyOptimized() throws LockedException, NotReadyException, RobustEstimatorException {
+        final var randomizer = new UniformRandomizer();
+        final var errorRandomizer = new GaussianRandomizer(0.0, STD_OUTLIER_ERROR);
+
+        var numValidPosition = 0;
+        var positionError = 0.0;
+        for (var t = 0; t < TIMES; t++) {
+            final var accessPointPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+            final var accessPoint = new WifiAccessPoint("bssid", FREQUENCY);
+
+            final var numReadings = randomizer.nextInt(MIN_READINGS, MAX_READINGS);
+            final var readingsPositions = new Point2D[numReadings];
+            final var readings = new ArrayList<RangingReadingLocated2D<WifiAccessPoint>>();
+            for (var i = 0; i < numReadings; i++) {
+                readingsPositions[i] = new InhomogeneousPoint2D(
+                        randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+                final var distance = readingsPositions[i].distanceTo(accessPointPosition);
+
+                double error;
+                if (randomizer.nextInt(0, 100) < PERCENTAGE_OUTLIERS) {
+                    // outlier
+                    error = Math.abs(errorRandomizer.nextDouble());
+                } else {
+                    // inlier
+                    error = 0.0;
+                }
+
+                readings.add(new RangingReadingLocated2D<>(accessPoint, distance + error,
+                        readingsPositions[i]));
+            }
+
+            final var estimator = new RANSACRobustRangingRadioSourceEstimator2D<>(readings, this);
+
+            estimator.setResultRefined(false);
+            estimator.setLocallyOptimized(true);
+            estimator.setComputeAndKeepInliersEnabled(false);
+            estimator.setComputeAndKeepResidualsEnabled(false);
+
+            reset();
+            assertTrue(estimator.isReady());
+            assertFalse(estimator.isLocked());
+            assertNull(estimator.getEstimatedPosition());
+            assertEquals(0, estimateStart);
+            assertEquals(0, estimateEnd);
+            assertEquals(0, estimateNextIteration);
+            assertEquals(0, estimateProgressChange);
+
+            estimator.estimate();
+
+            // check
+            assertEquals(1, estimateStart);
+            assertEquals(1, estimateEnd);
+            assertTrue(estimateNextIteration > 0);
+            assertTrue(estimateProgressChange >= 0);
+            assertTrue(estimator.isReady());
+            assertFalse(estimator.isLocked());
+
+            assertNull(estimator.getInliersData());
+            assertNull(estimator.getCovariance());
+            assertNull(estimator.getEstimatedPositionCovariance());
+
+            final var estimatedAccessPoint = (WifiAccessPointLocated2D) estimator.getEstimatedRadioSource();
+
+            assertEquals("bssid", estimatedAccessPoint.getBssid());
+            assertEquals(FREQUENCY, estimatedAccessPoint.getFrequency(), 0.0);
+            assertNull(estimatedAccessPoint.getSsid());
+            assertEquals(estimator.getEstimatedPosition(), estimatedAccessPoint.getPosition());
+            assertNull(estimatedAccessPoint.getPositionCovariance());
+
+            positionError = estimator.getEstimatedPosition().distanceTo(accessPointPosition);
+            if (positionError > ABSOLUTE_ERROR) {
+                continue;
+            }
+
+            assertTrue(estimator.getEstimatedPosition().equals(accessPointPosition, ABSOLUTE_ERROR));
+            numValidPosition++;
+
+            assertEquals(1, estimateStart);
+            assertEquals(1, estimateEnd);
+
+            break;
+        }
+
+        assertTrue(numValidPosition > 0);
+
+        LOGGER.log(Level.INFO, "Position error: {0} meters", positionError);
+    }
+
     @Test
     void testEstimateNoInlierErrorWithRefinement() throws LockedException, NotReadyException, RobustEstimatorException,
             NonSymmetricPositiveDefiniteMatrixException {
@@ -1729,6 +1836,7 @@ class RANSACRobustRangingRadioSourceEstimator2DTest implements
         assertThrows(LockedException.class, () -> estimator.setReadings(null));
         assertThrows(LockedException.class, () -> estimator.setListener(null));
         assertThrows(LockedException.class, () -> estimator.setHomogeneousLinearSolverUsed(false));
+        assertThrows(LockedException.class, () -> estimator.setLocallyOptimized(false));
         assertThrows(LockedException.class, estimator::estimate);
     }
 }
@@ -954,6 +954,20 @@ class RssiRadioSourceEstimator2DTest implements RssiRadioSourceEstimatorListener
         assertTrue(estimator.isPathLossEstimationEnabled());
     }
 
+    @Test
+    void testIsSetCovarianceEstimationEnabled() throws LockedException {
+        final var estimator = new RssiRadioSourceEstimator2D<WifiAccessPoint>();
+
+        // check default value
+        assertTrue(estimator.isCovarianceEstimationEnabled());
+
+        // set new value
+        estimator.setCovarianceEstimationEnabled(false);
+
+        // check
+        assertFalse(estimator.isCovarianceEstimationEnabled());
+    }
+
     @Test
     void testAreValidReadings() throws LockedException {
         final var randomizer = new UniformRandomizer();
@@ -4113,6 +4127,74 @@ class RssiRadioSourceEstimator2DTest implements RssiRadioSourceEstimatorListener
         assertThrows(NotReadyException.class, estimator::estimate);
     }
 
+    @Test
+    void testEstimateWithoutCovariance() throws LockedException, NotReadyException, IndoorException {
+        final var randomizer = new UniformRandomizer();
+
+        final var accessPointPosition = new InhomogeneousPoint2D(
+                randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+        final var transmittedPowerdBm = randomizer.nextDouble(MIN_RSSI, MAX_RSSI);
+        final var transmittedPower = dBmToPower(transmittedPowerdBm);
+        final var accessPoint = new WifiAccessPoint("bssid", FREQUENCY);
+
+        final var numReadings = randomizer.nextInt(MIN_READINGS, MAX_READINGS);
+        final var readings = new ArrayList<RssiReadingLocated2D<WifiAccessPoint>>();
+        for (var i = 0; i < numReadings; i++) {
+            final var readingPosition = new InhomogeneousPoint2D(
+                    randomizer.nextDouble(MIN_POS, MAX_POS), randomizer.nextDouble(MIN_POS, MAX_POS));
+
+            final var distance = readingPosition.distanceTo(accessPointPosition);
+
+            final var rssi = powerTodBm(receivedPower(transmittedPower, distance, accessPoint.getFrequency(),
+                    RssiRadioSourceEstimator.DEFAULT_PATH_LOSS_EXPONENT));
+
+            readings.add(new RssiReadingLocated2D<>(accessPoint, rssi, readingPosition));
+        }
+
+        // estimate with covariance
+        final var estimator = new RssiRadioSourceEstimator2D<>(readings, this);
+        estimator.setInitialPosition(accessPointPosition);
+        estimator.setInitialTransmittedPowerdBm(transmittedPowerdBm);
+
+        reset();
+        estimator.estimate();
+
+        assertNotNull(estimator.getEstimatedCovariance());
+        assertNotNull(estimator.getEstimatedTransmittedPowerVariance());
+
+        // position covariance is the top-left sub-matrix of estimated covariance
+        final var positionCovariance = estimator.getEstimatedPositionCovariance();
+        assertNotNull(positionCovariance);
+        assertEquals(estimator.getEstimatedCovariance().getSubmatrix(0, 0, 1, 1), positionCovariance);
+        assertSame(positionCovariance, estimator.getEstimatedPositionCovariance());
+
+        // estimate without covariance
+        final var positionOnlyEstimator = new RssiRadioSourceEstimator2D<>(readings, this);
+        positionOnlyEstimator.setInitialPosition(accessPointPosition);
+        positionOnlyEstimator.setInitialTransmittedPowerdBm(transmittedPowerdBm);
+        positionOnlyEstimator.setCovarianceEstimationEnabled(false);
+
+        reset();
+        positionOnlyEstimator.estimate();
+
+        // check
+        assertEquals(1, estimateStart);
+        assertEquals(1, estimateEnd);
+        assertFalse(positionOnlyEstimator.isLocked());
+
+        assertNull(positionOnlyEstimator.getEstimatedCovariance());
+        assertNull(positionOnlyEstimator.getEstimatedPositionCovariance());
+        assertNull(positionOnlyEstimator.getEstimatedTransmittedPowerVariance());
+        assertNull(positionOnlyEstimator.getEstimatedPathLossExponentVariance());
+
+        // covariance does not change estimated values
+        assertArrayEquals(estimator.getEstimatedPositionCoordinates(),
+                positionOnlyEstimator.getEstimatedPositionCoordinates(), 0.0);
+        assertEquals(estimator.getEstimatedTransmittedPowerdBm(),
+                positionOnlyEstimator.getEstimatedTransmittedPowerdBm(), 0.0);
+        assertEquals(estimator.getChiSq(), positionOnlyEstimator.getChiSq(), 0.0);
+    }
+
     @Test
     void testEstimateFingerprintingException() {
 
@@ -4178,6 +4260,7 @@ class RssiRadioSourceEstimator2DTest implements RssiRadioSourceEstimatorListener
         assertThrows(LockedException.class, () -> estimator.setPositionEstimationEnabled(true));
         assertThrows(LockedException.class, () -> estimator.setInitialPathLossExponent(2.0));
         assertThrows(LockedException.class, () -> estimator.setPathLossEstimationEnabled(false));
+        assertThrows(LockedException.class, () -> estimator.setCovarianceEstimationEnabled(false));
         assertThrows(LockedException.class, () -> estimator.setReadings(null));
         assertThrows(LockedException.class, () -> estimator.setListener(null));
         assertThrows(LockedException.class, estimator::estimate);